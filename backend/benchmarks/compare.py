@@ -0,0 +1,53 @@
+#!/usr/bin/env python3
+"""So sánh kết quả JMH (JSON) với baseline; in bảng thay đổi, exit 1 nếu có benchmark chậm hơn ngưỡng."""
+import argparse
+import json
+import sys
+
+
+def load(path):
+    with open(path, encoding="utf-8") as f:
+        results = {}
+        for item in json.load(f):
+            params = ",".join(f"{k}={v}" for k, v in sorted((item.get("params") or {}).items()))
+            key = item["benchmark"].rsplit(".", 2)[-2] + "." + item["benchmark"].rsplit(".", 1)[-1]
+            if params:
+                key += f"[{params}]"
+            metric = item["primaryMetric"]
+            results[key] = (metric["score"], metric.get("scoreError", 0.0), metric["scoreUnit"])
+        return results
+
+
+def main():
+    parser = argparse.ArgumentParser()
+    parser.add_argument("baseline")
+    parser.add_argument("current")
+    parser.add_argument("--threshold", type=float, default=10.0, help="% chậm hơn cho phép")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    current = load(args.current)
+    regressions = 0
+
+    print(f"{'benchmark':70} {'baseline':>12} {'current':>12} {'change':>9}")
+    for key in sorted(current):
+        score, _, unit = current[key]
+        if key not in baseline:
+            print(f"{key:70} {'-':>12} {score:>12.3f} {'new':>9}  {unit}")
+            continue
+        base, base_error, _ = baseline[key]
+        change = (score - base) / base * 100 if base else 0.0
+        # AverageTime: số lớn hơn = chậm hơn; bỏ qua dao động nằm trong sai số của baseline
+        regressed = change > args.threshold and score - base > base_error
+        regressions += regressed
+        marker = "  <-- REGRESSION" if regressed else ""
+        print(f"{key:70} {base:>12.3f} {score:>12.3f} {change:>+8.1f}%  {unit}{marker}")
+
+    for key in sorted(set(baseline) - set(current)):
+        print(f"{key:70} (không còn trong lần chạy này)")
+
+    sys.exit(1 if regressions else 0)
+
+
+if __name__ == "__main__":
+    main()
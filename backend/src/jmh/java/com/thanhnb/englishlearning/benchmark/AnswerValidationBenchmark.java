@@ -0,0 +1,64 @@
+package com.thanhnb.englishlearning.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thanhnb.englishlearning.config.JacksonConfig;
+import com.thanhnb.englishlearning.dto.question.helper.QuestionResultDTO;
+import com.thanhnb.englishlearning.dto.question.request.QuestionData;
+import com.thanhnb.englishlearning.enums.QuestionType;
+import com.thanhnb.englishlearning.service.question.AnswerValidationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chấm 1 câu / đọc dữ liệu 1 câu theo từng QuestionType
+ *
+ * 16 biến thể mỗi loại (đúng/sai trộn lẫn) → JIT không tối ưu theo 1 input cố định.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AnswerValidationBenchmark {
+
+    private static final int VARIANTS = 16;
+
+    @Param({ "MULTIPLE_CHOICE", "TRUE_FALSE", "COMPLETE_CONVERSATION", "FILL_BLANK", "VERB_FORM", "TEXT_ANSWER",
+            "ERROR_CORRECTION", "MATCHING", "SENTENCE_BUILDING", "SENTENCE_TRANSFORMATION", "PRONUNCIATION",
+            "OPEN_ENDED" })
+    public QuestionType type;
+
+    private AnswerValidationService validationService;
+    private QuestionFixtures.Fixture[] fixtures;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new JacksonConfig().objectMapper(new Jackson2ObjectMapperBuilder());
+        validationService = new AnswerValidationService(objectMapper);
+
+        QuestionFixtures generator = new QuestionFixtures(42);
+        fixtures = new QuestionFixtures.Fixture[VARIANTS];
+        for (int i = 0; i < VARIANTS; i++) {
+            fixtures[i] = generator.fixture(type, i + 1);
+        }
+    }
+
+    private QuestionFixtures.Fixture next() {
+        return fixtures[cursor++ & (VARIANTS - 1)];
+    }
+
+    @Benchmark
+    public QuestionResultDTO validateAnswer() {
+        QuestionFixtures.Fixture fixture = next();
+        return validationService.validateAnswer(fixture.question(),
+                fixture.answer().selectedOptions(), fixture.answer().textAnswer());
+    }
+
+    @Benchmark
+    public QuestionData getData() {
+        return next().question().getData();
+    }
+}
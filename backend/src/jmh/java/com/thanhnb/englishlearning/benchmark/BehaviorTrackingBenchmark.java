@@ -0,0 +1,88 @@
+package com.thanhnb.englishlearning.benchmark;
+
+import com.thanhnb.englishlearning.entity.user.UserLearningBehavior;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.enums.QuestionType;
+import com.thanhnb.englishlearning.event.LessonCompletedEvent;
+import com.thanhnb.englishlearning.repository.user.UserLearningBehaviorRepository;
+import com.thanhnb.englishlearning.service.tracking.BehaviorTrackingListener;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cập nhật thống kê hành vi (skill / question type / topic) sau 1 lesson
+ *
+ * Repository được thay bằng proxy trong bộ nhớ → chỉ đo phần tính toán + map JSON trên entity,
+ * behavior giữ lại giữa các lần gọi (giống user đã học nhiều topic).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BehaviorTrackingBenchmark {
+
+    private static final int EVENTS = 32;
+
+    @Param({ "50" })
+    public int questionCount;
+
+    @Param({ "20" })
+    public int topicCount;
+
+    private BehaviorTrackingListener listener;
+    private LessonCompletedEvent[] events;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        UserLearningBehavior behavior = UserLearningBehavior.builder()
+                .userId(1L)
+                .skillStats(new HashMap<>())
+                .questionTypeStats(new HashMap<>())
+                .topicProgress(new HashMap<>())
+                .build();
+        listener = new BehaviorTrackingListener(inMemoryRepository(behavior));
+
+        Random random = new Random(3);
+        ModuleType[] modules = ModuleType.values();
+        QuestionType[] types = QuestionFixtures.GRADABLE_TYPES;
+        events = new LessonCompletedEvent[EVENTS];
+        for (int e = 0; e < EVENTS; e++) {
+            List<LessonCompletedEvent.QuestionTrackingInfo> results = new ArrayList<>(questionCount);
+            for (int q = 0; q < questionCount; q++) {
+                results.add(new LessonCompletedEvent.QuestionTrackingInfo(
+                        types[random.nextInt(types.length)], random.nextInt(10) < 7));
+            }
+            long topicId = 1 + random.nextInt(topicCount);
+            events[e] = new LessonCompletedEvent(this, 1L, modules[e % modules.length],
+                    topicId, "Topic " + topicId, results);
+        }
+    }
+
+    @Benchmark
+    public void handleLessonCompleted() {
+        listener.handleLessonCompleted(events[cursor++ & (EVENTS - 1)]);
+    }
+
+    private static UserLearningBehaviorRepository inMemoryRepository(UserLearningBehavior behavior) {
+        return (UserLearningBehaviorRepository) Proxy.newProxyInstance(
+                UserLearningBehaviorRepository.class.getClassLoader(),
+                new Class<?>[] { UserLearningBehaviorRepository.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByUserIdWithLock", "findById" -> Optional.of(behavior);
+                    case "save", "saveAndFlush" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryUserLearningBehaviorRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
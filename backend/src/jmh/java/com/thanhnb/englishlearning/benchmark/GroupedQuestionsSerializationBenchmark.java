@@ -0,0 +1,54 @@
+package com.thanhnb.englishlearning.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.thanhnb.englishlearning.config.JacksonConfig;
+import com.thanhnb.englishlearning.config.Views;
+import com.thanhnb.englishlearning.dto.question.response.TaskGroupedQuestionsDTO;
+import com.thanhnb.englishlearning.service.question.AnswerValidationService;
+import com.thanhnb.englishlearning.service.question.QuestionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialize TaskGroupedQuestionsDTO (response lesson detail) bằng ObjectMapper cấu hình như JacksonConfig
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GroupedQuestionsSerializationBenchmark {
+
+    @Param({ "50" })
+    public int questionCount;
+
+    private ObjectWriter publicWriter;
+    private ObjectWriter adminWriter;
+    private TaskGroupedQuestionsDTO grouped;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new JacksonConfig().objectMapper(new Jackson2ObjectMapperBuilder());
+        publicWriter = objectMapper.writerWithView(Views.Public.class);
+        adminWriter = objectMapper.writerWithView(Views.Admin.class);
+
+        QuestionService questionService = new QuestionService(null, new AnswerValidationService(objectMapper));
+        grouped = QuestionFixtures.grouped(
+                questionService.convertToDTOsForLearning(
+                        QuestionFixtures.questions(new QuestionFixtures(11).mixedLesson(questionCount))),
+                5);
+    }
+
+    @Benchmark
+    public byte[] serializePublicView() throws Exception {
+        return publicWriter.writeValueAsBytes(grouped);
+    }
+
+    @Benchmark
+    public byte[] serializeAdminView() throws Exception {
+        return adminWriter.writeValueAsBytes(grouped);
+    }
+}
@@ -0,0 +1,156 @@
+package com.thanhnb.englishlearning.benchmark;
+
+import com.thanhnb.englishlearning.config.EngagementProperties;
+import com.thanhnb.englishlearning.config.JwtAuthenticationFilter;
+import com.thanhnb.englishlearning.config.JwtProperties;
+import com.thanhnb.englishlearning.entity.user.User;
+import com.thanhnb.englishlearning.entity.user.UserActivity;
+import com.thanhnb.englishlearning.repository.user.UserActivityRepository;
+import com.thanhnb.englishlearning.repository.user.UserRepository;
+import com.thanhnb.englishlearning.security.VerifiedToken;
+import com.thanhnb.englishlearning.service.user.CustomUserDetailsService;
+import com.thanhnb.englishlearning.service.user.EngagementTracker;
+import com.thanhnb.englishlearning.service.user.JwtBlacklistService;
+import com.thanhnb.englishlearning.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Proxy;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Xác thực JWT của 1 request
+ *
+ * - legacyClaims: cách cũ - dựng lại SecretKey + parser và verify chữ ký 4 lần (valid, username, issuedAt, roles)
+ *   + hash token cho blacklist
+ * - verify: JwtUtil.verify() 1 lần; verifiedCacheSize = 0 → luôn parse, > 0 → trúng cache theo SHA-256
+ * - filter: cả JwtAuthenticationFilter (repository / blacklist trong bộ nhớ, không Redis / DB)
+ *
+ * tokenCount token khác nhau được dùng xoay vòng (nhiều user đang online).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-benchmark-secret-key-0123456789";
+
+    @Param({ "0", "10000" })
+    public int verifiedCacheSize;
+
+    @Param({ "64" })
+    public int tokenCount;
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private String[] tokens;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        properties.setVerifiedCacheSize(verifiedCacheSize);
+        jwtUtil = new JwtUtil(properties, new SimpleMeterRegistry());
+
+        tokens = new String[tokenCount];
+        for (int i = 0; i < tokenCount; i++) {
+            tokens[i] = jwtUtil.generateToken("user" + i, "USER");
+        }
+
+        User user = User.builder().id(1L).username("user").isActive(true).isVerified(true).build();
+        UserActivity activity = UserActivity.builder()
+                .userId(1L)
+                .lastLoginDate(LocalDateTime.now().minusDays(1))
+                .build();
+        UserRepository userRepository = inMemory(UserRepository.class, user);
+        UserActivityRepository activityRepository = inMemory(UserActivityRepository.class, activity);
+
+        // Blacklist luôn miss (Redis không nằm trong phép đo)
+        JwtBlacklistService blacklistService = new JwtBlacklistService(null, jwtUtil) {
+            @Override
+            public boolean isTokenBlacklisted(VerifiedToken token) {
+                return false;
+            }
+        };
+        // Chưa start() → không flush; recordActivity chỉ khử trùng trong bộ nhớ
+        EngagementTracker engagementTracker = new EngagementTracker(null, null, new EngagementProperties(),
+                new SimpleMeterRegistry());
+
+        filter = new JwtAuthenticationFilter(jwtUtil, blacklistService,
+                new CustomUserDetailsService(userRepository), userRepository, activityRepository, engagementTracker);
+    }
+
+    @Benchmark
+    public void legacyClaims(Blackhole blackhole) throws Exception {
+        String token = nextToken();
+        blackhole.consume(legacyHash(token));
+        blackhole.consume(legacyParser().parseSignedClaims(token));
+        blackhole.consume(legacyPayload(token).getSubject());
+        blackhole.consume(legacyPayload(token).getIssuedAt());
+        blackhole.consume(legacyPayload(token).get("roles"));
+    }
+
+    @Benchmark
+    public Optional<VerifiedToken> verify() {
+        return jwtUtil.verify(nextToken());
+    }
+
+    @Benchmark
+    public int filter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/grammar/lessons");
+        request.addHeader("Authorization", "Bearer " + nextToken());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response.getStatus();
+    }
+
+    private String nextToken() {
+        return tokens[cursor++ % tokens.length];
+    }
+
+    private static JwtParser legacyParser() {
+        return Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes())).build();
+    }
+
+    private static Claims legacyPayload(String token) {
+        return legacyParser().parseSignedClaims(token).getPayload();
+    }
+
+    private static String legacyHash(String token) throws Exception {
+        return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(token.getBytes()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R inMemory(Class<R> repositoryType, Object entity) {
+        return (R) Proxy.newProxyInstance(
+                repositoryType.getClassLoader(),
+                new Class<?>[] { repositoryType },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByUsername", "findByEmail", "findByUserId" -> Optional.of(entity);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemory" + repositoryType.getSimpleName();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,66 @@
+package com.thanhnb.englishlearning.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thanhnb.englishlearning.config.JacksonConfig;
+import com.thanhnb.englishlearning.dto.question.helper.QuestionResultDTO;
+import com.thanhnb.englishlearning.dto.question.response.QuestionResponseDTO;
+import com.thanhnb.englishlearning.entity.question.Question;
+import com.thanhnb.englishlearning.service.question.AnswerValidationService;
+import com.thanhnb.englishlearning.service.question.QuestionService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nguyên 1 lesson (mặc định 50 câu trộn loại): chấm cả bài, đọc dữ liệu, chuyển DTO + shuffle cho user
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LessonBenchmark {
+
+    @Param({ "50" })
+    public int questionCount;
+
+    private AnswerValidationService validationService;
+    private QuestionService questionService;
+    private List<QuestionFixtures.Fixture> lesson;
+    private List<Question> questions;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new JacksonConfig().objectMapper(new Jackson2ObjectMapperBuilder());
+        validationService = new AnswerValidationService(objectMapper);
+        // convertToDTOsForLearning không truy vấn DB → repository không cần
+        questionService = new QuestionService(null, validationService);
+
+        lesson = new QuestionFixtures(7).mixedLesson(questionCount);
+        questions = QuestionFixtures.questions(lesson);
+    }
+
+    @Benchmark
+    public void gradeLesson(Blackhole blackhole) {
+        for (QuestionFixtures.Fixture fixture : lesson) {
+            QuestionResultDTO result = validationService.validateAnswer(fixture.question(),
+                    fixture.answer().selectedOptions(), fixture.answer().textAnswer());
+            blackhole.consume(result);
+        }
+    }
+
+    @Benchmark
+    public void getDataLesson(Blackhole blackhole) {
+        for (Question question : questions) {
+            blackhole.consume(question.getData());
+        }
+    }
+
+    @Benchmark
+    public List<QuestionResponseDTO> convertToDTOsForLearning() {
+        return questionService.convertToDTOsForLearning(questions);
+    }
+}
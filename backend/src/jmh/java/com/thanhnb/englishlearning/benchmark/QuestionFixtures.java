@@ -0,0 +1,265 @@
+package com.thanhnb.englishlearning.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thanhnb.englishlearning.dto.question.request.*;
+import com.thanhnb.englishlearning.dto.question.response.QuestionResponseDTO;
+import com.thanhnb.englishlearning.dto.question.response.TaskGroupedQuestionsDTO;
+import com.thanhnb.englishlearning.entity.question.Question;
+import com.thanhnb.englishlearning.enums.ParentType;
+import com.thanhnb.englishlearning.enums.QuestionType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Dữ liệu giả lập cho benchmark: câu hỏi đủ loại + câu trả lời (~70% đúng)
+ *
+ * Seed cố định → mọi lần chạy đo trên cùng 1 bộ dữ liệu, kết quả so được với baseline.
+ */
+public final class QuestionFixtures {
+
+    /**
+     * Các loại có dữ liệu chấm tự động (READING_COMPREHENSION, LISTENING_COMPREHENSION,
+     * SPEAKING, WRITING_ESSAY chưa có QuestionData → Question.getData() ném lỗi)
+     */
+    public static final QuestionType[] GRADABLE_TYPES = {
+            QuestionType.MULTIPLE_CHOICE, QuestionType.TRUE_FALSE, QuestionType.COMPLETE_CONVERSATION,
+            QuestionType.FILL_BLANK, QuestionType.VERB_FORM, QuestionType.TEXT_ANSWER,
+            QuestionType.ERROR_CORRECTION, QuestionType.MATCHING, QuestionType.SENTENCE_BUILDING,
+            QuestionType.SENTENCE_TRANSFORMATION, QuestionType.PRONUNCIATION, QuestionType.OPEN_ENDED
+    };
+
+    private static final String[] WORDS = {
+            "yesterday", "market", "children", "quickly", "beautiful", "although", "travel", "weather",
+            "decision", "library", "suddenly", "journey", "important", "neighbour", "remember", "science"
+    };
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public record Answer(List<Long> selectedOptions, String textAnswer) {
+    }
+
+    public record Fixture(Question question, Answer answer) {
+    }
+
+    private final Random random;
+    private long nextId = 1;
+
+    public QuestionFixtures(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Lesson trộn đủ loại câu hỏi theo vòng (50 câu → mỗi loại 4-5 câu)
+     */
+    public List<Fixture> mixedLesson(int size) {
+        List<Fixture> fixtures = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            fixtures.add(fixture(GRADABLE_TYPES[i % GRADABLE_TYPES.length], i + 1));
+        }
+        return fixtures;
+    }
+
+    public Fixture fixture(QuestionType type, int orderIndex) {
+        boolean correct = random.nextInt(10) < 7;
+        return switch (type) {
+            case MULTIPLE_CHOICE, COMPLETE_CONVERSATION -> multipleChoice(type, orderIndex, 4, correct);
+            case TRUE_FALSE -> multipleChoice(type, orderIndex, 2, correct);
+            case FILL_BLANK, VERB_FORM -> fillBlank(type, orderIndex, 3, correct);
+            case TEXT_ANSWER -> fillBlank(type, orderIndex, 1, correct);
+            case ERROR_CORRECTION -> errorCorrection(orderIndex, correct);
+            case MATCHING -> matching(orderIndex, 5, correct);
+            case SENTENCE_BUILDING -> sentenceBuilding(orderIndex, correct);
+            case SENTENCE_TRANSFORMATION -> sentenceTransformation(orderIndex, correct);
+            case PRONUNCIATION -> pronunciation(orderIndex, correct);
+            case OPEN_ENDED -> openEnded(orderIndex);
+            default -> throw new IllegalArgumentException("Không có fixture cho " + type);
+        };
+    }
+
+    public static List<Question> questions(List<Fixture> fixtures) {
+        return fixtures.stream().map(Fixture::question).toList();
+    }
+
+    /**
+     * Cấu trúc giống lesson thật: vài task group + câu standalone
+     */
+    public static TaskGroupedQuestionsDTO grouped(List<QuestionResponseDTO> questions, int taskCount) {
+        int standalone = questions.size() / 5;
+        int perTask = Math.max(1, (questions.size() - standalone) / taskCount);
+        List<TaskGroupedQuestionsDTO.TaskGroup> tasks = new ArrayList<>();
+        int index = standalone;
+        for (int t = 0; t < taskCount && index < questions.size(); t++) {
+            int end = t == taskCount - 1 ? questions.size() : Math.min(questions.size(), index + perTask);
+            tasks.add(TaskGroupedQuestionsDTO.TaskGroup.builder()
+                    .taskGroupId((long) t + 1)
+                    .taskName("Task " + (t + 1) + ": Exercise")
+                    .taskInstruction("Read the sentences carefully and choose the best answer for each question.")
+                    .taskOrder(t + 1)
+                    .questions(new ArrayList<>(questions.subList(index, end)))
+                    .build());
+            index = end;
+        }
+        return TaskGroupedQuestionsDTO.builder()
+                .hasTaskStructure(true)
+                .tasks(tasks)
+                .standaloneQuestions(new ArrayList<>(questions.subList(0, standalone)))
+                .build();
+    }
+
+    // =========================================================================
+    // TỪNG LOẠI CÂU HỎI
+    // =========================================================================
+
+    private Fixture multipleChoice(QuestionType type, int order, int optionCount, boolean correct) {
+        CreateMultipleChoiceDTO dto = new CreateMultipleChoiceDTO();
+        int correctIndex = random.nextInt(optionCount);
+        List<CreateMultipleChoiceDTO.OptionDTO> options = new ArrayList<>();
+        for (int i = 0; i < optionCount; i++) {
+            options.add(new CreateMultipleChoiceDTO.OptionDTO(
+                    optionCount == 2 ? (i == 0 ? "True" : "False") : sentence(3), i == correctIndex, i + 1));
+        }
+        dto.setOptions(options);
+        dto.setExplanation(sentence(12));
+        long chosen = correct ? correctIndex : (correctIndex + 1) % optionCount;
+        return new Fixture(question(type, order, dto), new Answer(List.of(chosen), null));
+    }
+
+    private Fixture fillBlank(QuestionType type, int order, int blanks, boolean correct) {
+        List<CreateFillBlankDTO.BlankDTO> blankList = new ArrayList<>();
+        Map<String, String> answer = new LinkedHashMap<>();
+        List<String> wordBank = new ArrayList<>();
+        for (int i = 1; i <= blanks; i++) {
+            String right = word();
+            blankList.add(new CreateFillBlankDTO.BlankDTO(i, List.of(right, right + "s"), "hint " + i));
+            answer.put(String.valueOf(i), correct ? right : word() + "x");
+            wordBank.add(right);
+            wordBank.add(word());
+        }
+        CreateFillBlankDTO dto = new CreateFillBlankDTO(blankList, type == QuestionType.TEXT_ANSWER ? null : wordBank);
+        dto.setExplanation(sentence(10));
+        String text = blanks == 1 ? answer.get("1") : json(answer);
+        return new Fixture(question(type, order, dto), new Answer(null, text));
+    }
+
+    private Fixture errorCorrection(int order, boolean correct) {
+        String error = word();
+        String correction = word();
+        CreateErrorCorrectionDTO dto = new CreateErrorCorrectionDTO(error, correction);
+        dto.setExplanation(sentence(10));
+        String text = json(Map.of("error", error, "correction", correct ? correction : word() + "x"));
+        return new Fixture(question(QuestionType.ERROR_CORRECTION, order, dto), new Answer(null, text));
+    }
+
+    private Fixture matching(int order, int pairs, boolean correct) {
+        CreateMatchingDTO dto = new CreateMatchingDTO();
+        List<CreateMatchingDTO.PairDTO> pairList = new ArrayList<>();
+        Map<String, String> answer = new LinkedHashMap<>();
+        List<String> left = new ArrayList<>();
+        List<String> right = new ArrayList<>();
+        for (int i = 0; i < pairs; i++) {
+            String l = word() + " " + i;
+            String r = sentence(3);
+            pairList.add(new CreateMatchingDTO.PairDTO(l, r, i + 1));
+            left.add(l);
+            right.add(r);
+            answer.put(l, correct || i > 0 ? r : "wrong");
+        }
+        dto.setPairs(pairList);
+        dto.setLeftItems(left);
+        dto.setRightItems(right);
+        return new Fixture(question(QuestionType.MATCHING, order, dto), new Answer(null, json(answer)));
+    }
+
+    private Fixture sentenceBuilding(int order, boolean correct) {
+        CreateSentenceBuildingDTO dto = new CreateSentenceBuildingDTO();
+        String sentence = sentence(8);
+        dto.setWords(List.of(sentence.split(" ")));
+        dto.setCorrectSentence(sentence + ".");
+        String text = correct ? sentence : new StringBuilder(sentence).reverse().toString();
+        return new Fixture(question(QuestionType.SENTENCE_BUILDING, order, dto), new Answer(null, text));
+    }
+
+    private Fixture sentenceTransformation(int order, boolean correct) {
+        CreateSentenceTransformationDTO dto = new CreateSentenceTransformationDTO();
+        String rest = sentence(6);
+        dto.setOriginalSentence("It is a pity " + sentence(6) + ".");
+        dto.setBeginningPhrase("I wish");
+        dto.setCorrectAnswers(List.of("I wish " + rest, "I wish that " + rest));
+        dto.setExplanation(sentence(10));
+        String text = correct ? rest : sentence(6);
+        return new Fixture(question(QuestionType.SENTENCE_TRANSFORMATION, order, dto), new Answer(null, text));
+    }
+
+    private Fixture pronunciation(int order, boolean correct) {
+        CreatePronunciationsDTO dto = new CreatePronunciationsDTO();
+        List<String> categories = List.of("/s/", "/z/", "/iz/");
+        List<String> words = new ArrayList<>();
+        List<CreatePronunciationsDTO.ClassificationDTO> classifications = new ArrayList<>();
+        Map<String, String> answer = new LinkedHashMap<>();
+        for (int i = 0; i < 6; i++) {
+            String w = word() + i;
+            String category = categories.get(i % categories.size());
+            words.add(w);
+            classifications.add(new CreatePronunciationsDTO.ClassificationDTO(w, category));
+            answer.put(w, correct || i > 0 ? category : categories.get((i + 1) % categories.size()));
+        }
+        dto.setWords(words);
+        dto.setCategories(categories);
+        dto.setClassifications(classifications);
+        return new Fixture(question(QuestionType.PRONUNCIATION, order, dto), new Answer(null, json(answer)));
+    }
+
+    private Fixture openEnded(int order) {
+        CreateOpenEndedDTO dto = new CreateOpenEndedDTO();
+        dto.setMinWord(50);
+        dto.setMaxWord(200);
+        dto.setTimeLimitSeconds(600);
+        dto.setSuggestedAnswer(sentence(60));
+        return new Fixture(question(QuestionType.OPEN_ENDED, order, dto), new Answer(null, sentence(90)));
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    private Question question(QuestionType type, int order, QuestionData data) {
+        Question question = Question.builder()
+                .id(nextId++)
+                .parentType(ParentType.GRAMMAR)
+                .parentId(1L)
+                .questionText("Question " + order + ": " + sentence(10))
+                .questionType(type)
+                .points(10)
+                .orderIndex(order)
+                .build();
+        question.setData(data);
+        return question;
+    }
+
+    private String word() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private String sentence(int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(word());
+        }
+        return sb.toString();
+    }
+
+    private static String json(Object value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.thanhnb.englishlearning.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.thanhnb.englishlearning.config.RateLimitInterceptor;
+import com.thanhnb.englishlearning.config.RateLimitProperties;
+import com.thanhnb.englishlearning.enums.RateLimitAlgorithm;
+import com.thanhnb.englishlearning.enums.RateLimitKeyType;
+import com.thanhnb.englishlearning.service.ratelimit.RateLimit;
+import com.thanhnb.englishlearning.service.ratelimit.RateLimitService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí RateLimitInterceptor.preHandle cho 1 request, chỉ tier local (app.rate-limit.redis-enabled=false)
+ *
+ * keyCount key (user / IP) khác nhau được dùng xoay vòng; limit đủ lớn để không request nào bị chặn.
+ * Ngân sách: < 100µs / request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RateLimitBenchmark {
+
+    @Param({ "tokenBucket", "slidingWindow" })
+    public String endpoint;
+
+    @Param({ "1000" })
+    public int keyCount;
+
+    private RateLimitInterceptor interceptor;
+    private HandlerMethod handler;
+    private MockHttpServletRequest[] requests;
+    private int cursor;
+
+    public static class Endpoints {
+        @RateLimit(value = "bench-bucket", limit = 1_000_000_000, windowSeconds = 60)
+        public void tokenBucket() {
+        }
+
+        @RateLimit(value = "bench-window", limit = 1_000_000_000, windowSeconds = 60,
+                algorithm = RateLimitAlgorithm.SLIDING_WINDOW, key = RateLimitKeyType.IP)
+        public void slidingWindow() {
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRedisEnabled(false);
+        RateLimitService service = new RateLimitService(properties, null, new SimpleMeterRegistry());
+        interceptor = new RateLimitInterceptor(service, new ObjectMapper().registerModule(new JavaTimeModule()));
+        handler = new HandlerMethod(new Endpoints(), Endpoints.class.getMethod(endpoint));
+
+        requests = new MockHttpServletRequest[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            requests[i] = new MockHttpServletRequest("POST", "/api/bench");
+            requests[i].setAttribute("userId", (long) i);
+            requests[i].setRemoteAddr("10.0." + (i / 256) + "." + (i % 256));
+        }
+    }
+
+    @Benchmark
+    public boolean preHandle() throws Exception {
+        return interceptor.preHandle(requests[cursor++ % keyCount], new MockHttpServletResponse(), handler);
+    }
+}
@@ -0,0 +1,44 @@
+package com.thanhnb.englishlearning.benchmark;
+
+import com.thanhnb.englishlearning.config.StudyTimeProperties;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.service.user.StudyTimeTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thông lượng StudyTimeTracker.heartbeat trên 1 node: @Threads tab gửi heartbeat cho userCount user
+ *
+ * Slot 1 giây → mỗi giây mỗi user có 1 heartbeat được tính (offer vào queue), còn lại là trùng slot.
+ * Flusher không chạy (không gọi start()) → chỉ đo đường nóng trong bộ nhớ, không Redis / DB.
+ * Mục tiêu: ≥ 5.000 heartbeat / giây.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+public class StudyTimeHeartbeatBenchmark {
+
+    @Param({ "2000" })
+    public int userCount;
+
+    private StudyTimeTracker tracker;
+
+    @Setup
+    public void setUp() {
+        StudyTimeProperties properties = new StudyTimeProperties();
+        properties.setHeartbeatIntervalSeconds(1);
+        tracker = new StudyTimeTracker(null, null, null, properties, null, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public boolean heartbeat() {
+        long userId = ThreadLocalRandom.current().nextInt(userCount) + 1L;
+        return tracker.heartbeat(userId, ModuleType.GRAMMAR).credited();
+    }
+}
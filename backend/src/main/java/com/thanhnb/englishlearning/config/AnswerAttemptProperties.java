@@ -0,0 +1,44 @@
+package com.thanhnb.englishlearning.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cấu hình answer attempt log (app.attempts.*)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.attempts")
+@Data
+public class AnswerAttemptProperties {
+
+    /**
+     * Tắt → không ghi lịch sử câu trả lời
+     */
+    private boolean enabled = true;
+
+    /**
+     * Số attempt tối đa chờ ghi trong bộ nhớ. Đầy → bỏ attempt mới (không chặn submit)
+     */
+    private int queueCapacity = 20000;
+
+    /**
+     * Số row tối đa mỗi lần batch insert
+     */
+    private int batchSize = 500;
+
+    /**
+     * Chu kỳ flush queue xuống DB
+     */
+    private long flushIntervalMs = 500;
+
+    /**
+     * Giữ partition chi tiết bao nhiêu tháng, cũ hơn → rollup theo ngày rồi DROP
+     */
+    private int retentionMonths = 6;
+
+    /**
+     * Độ dài tối đa của câu trả lời text được lưu
+     */
+    private int maxAnswerLength = 4000;
+}
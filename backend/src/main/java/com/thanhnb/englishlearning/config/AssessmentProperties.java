@@ -0,0 +1,69 @@
+package com.thanhnb.englishlearning.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cấu hình hàng đợi chấm OPEN_ENDED (app.assessment.*)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.assessment")
+@Data
+public class AssessmentProperties {
+
+    /**
+     * Tắt → câu OPEN_ENDED vẫn được xếp hàng nhưng không có worker chấm
+     */
+    private boolean workerEnabled = true;
+
+    /**
+     * "ai" → provider theo ai.provider.writing-assessment, "stub" → chấm giả lập cục bộ (dev/test)
+     */
+    private String provider = "ai";
+
+    /**
+     * Chu kỳ worker quét hàng đợi
+     */
+    private long pollIntervalMs = 5000;
+
+    /**
+     * Số thread gọi provider song song (mỗi thread xử lý 1 batch)
+     */
+    private int workerThreads = 2;
+
+    /**
+     * Số row tối đa claim mỗi lượt quét
+     */
+    private int claimSize = 40;
+
+    /**
+     * Ngân sách token (ước lượng) cho 1 lần gọi provider
+     */
+    private int batchTokenBudget = 6000;
+
+    /**
+     * Số bài tối đa trong 1 lần gọi provider
+     */
+    private int maxBatchSize = 10;
+
+    /**
+     * Quá số lần thử → FAILED, chờ giáo viên chấm
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Backoff lần thử thứ n = retryBackoffSeconds * 2^(n-1)
+     */
+    private long retryBackoffSeconds = 30;
+
+    /**
+     * Thời gian giữ lock khi claim; node chết → row được claim lại sau khoảng này
+     */
+    private long lockSeconds = 300;
+
+    /**
+     * Tỷ lệ điểm tối thiểu để câu được tính là đúng
+     */
+    private double passRatio = 0.5;
+}
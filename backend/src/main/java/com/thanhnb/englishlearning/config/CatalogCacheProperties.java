@@ -0,0 +1,39 @@
+package com.thanhnb.englishlearning.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cấu hình HTTP cache cho catalog (app.catalog-cache.*)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.catalog-cache")
+@Data
+public class CatalogCacheProperties {
+
+    /**
+     * Tắt → không ETag / 304, không cache fragment
+     */
+    private boolean enabled = true;
+
+    /**
+     * ETag tự đổi sau khoảng này dù version không đổi (lưới an toàn khi mất 1 lần bump)
+     */
+    private long etagMaxAgeSeconds = 3600;
+
+    /**
+     * Số bản xáo trộn câu hỏi được cache cho mỗi lesson version
+     */
+    private int fragmentVariants = 8;
+
+    /**
+     * Tổng dung lượng (đã nén) tối đa của fragment cache
+     */
+    private long fragmentMaxBytes = 64L * 1024 * 1024;
+
+    /**
+     * Fragment hết hạn sau khoảng này kể cả khi version không đổi
+     */
+    private long fragmentTtlSeconds = 3600;
+}
@@ -0,0 +1,54 @@
+package com.thanhnb.englishlearning.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cấu hình outbox email (app.mail.outbox.*)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.mail.outbox")
+@Data
+public class EmailOutboxProperties {
+
+    /**
+     * Tắt → email vẫn được ghi vào outbox nhưng node này không gửi
+     */
+    private boolean workerEnabled = true;
+
+    /**
+     * Chu kỳ quét outbox (email mới commit được gửi ngay, không chờ chu kỳ)
+     */
+    private long pollIntervalMs = 2000;
+
+    /**
+     * Số email tối đa claim mỗi lượt
+     */
+    private int claimSize = 50;
+
+    /**
+     * Quá số lần thử → FAILED
+     */
+    private int maxAttempts = 6;
+
+    /**
+     * Backoff lần thử thứ n = retryBackoffSeconds * 2^(n-1)
+     */
+    private long retryBackoffSeconds = 15;
+
+    /**
+     * Thời gian giữ lock khi claim; node chết → email được claim lại sau khoảng này
+     */
+    private long lockSeconds = 120;
+
+    /**
+     * Kết nối SMTP không dùng quá khoảng này → đóng, lần gửi sau kết nối lại
+     */
+    private long transportIdleSeconds = 30;
+
+    /**
+     * Số ngày giữ row SENT / FAILED trước khi xóa
+     */
+    private int retentionDays = 14;
+}
@@ -0,0 +1,54 @@
+package com.thanhnb.englishlearning.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cấu hình thống kê mức độ tương tác DAU / WAU / MAU và churn (app.engagement.*)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.engagement")
+@Data
+public class EngagementProperties {
+
+    /**
+     * Tắt → không ghi nhận sự kiện đăng nhập / hoạt động (số liệu đã có vẫn đọc được)
+     */
+    private boolean enabled = true;
+
+    /**
+     * Chu kỳ flush sự kiện trong bộ nhớ lên Redis (PFADD) và DB (last_activity_date)
+     */
+    private long flushIntervalMs = 5000;
+
+    /**
+     * Số sự kiện tối đa chờ flush. Đầy → bỏ sự kiện mới (metric engagement.events{result=dropped})
+     */
+    private int queueCapacity = 100000;
+
+    /**
+     * Không hoạt động chừng ấy ngày → user được tính là churn vào ngày vượt ngưỡng
+     */
+    private int churnDays = 30;
+
+    /**
+     * TTL của HyperLogLog theo ngày - phải > 30 để tính MAU cuộn và tính lại rollup các ngày gần đây
+     */
+    private int dayKeyTtlDays = 45;
+
+    /**
+     * Số ngày đã kết thúc được tính lại mỗi lần job "engagement-rollup" chạy (bù lần chạy bị lỡ)
+     */
+    private int rollupDays = 3;
+
+    /**
+     * Số ngày tối đa của 1 lần lấy chuỗi thống kê theo ngày
+     */
+    private int maxSeriesDays = 366;
+
+    /**
+     * Số tháng tối đa của bảng cohort churn
+     */
+    private int maxCohortMonths = 24;
+}
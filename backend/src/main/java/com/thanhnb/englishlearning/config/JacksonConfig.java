@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.NamedType;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.thanhnb.englishlearning.dto.question.request.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -22,6 +23,10 @@ import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 @Configuration
 public class JacksonConfig {
 
+    // Pretty print làm response to hơn ~20-30% → chỉ bật khi debug
+    @Value("${app.json.pretty-print:false}")
+    private boolean prettyPrint;
+
     @Bean
     @Primary
     public ObjectMapper objectMapper(Jackson2ObjectMapperBuilder builder) {
@@ -40,8 +45,8 @@ public class JacksonConfig {
                 // Exclude null values from JSON
                 .serializationInclusion(JsonInclude.Include.NON_NULL)
                 
-                // Pretty print (can disable in production)
-                .indentOutput(true)
+                // Pretty print (app.json.pretty-print, mặc định tắt)
+                .indentOutput(prettyPrint)
                 
                 // Java 8 date/time support
                 .modules(new JavaTimeModule())
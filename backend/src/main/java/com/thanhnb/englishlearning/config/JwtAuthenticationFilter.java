@@ -4,6 +4,8 @@ import com.thanhnb.englishlearning.entity.user.User;
 import com.thanhnb.englishlearning.entity.user.UserActivity;
 import com.thanhnb.englishlearning.repository.user.UserActivityRepository;
 import com.thanhnb.englishlearning.repository.user.UserRepository;
+import com.thanhnb.englishlearning.security.VerifiedToken;
+import com.thanhnb.englishlearning.service.user.EngagementTracker;
 import com.thanhnb.englishlearning.service.user.JwtBlacklistService;
 import com.thanhnb.englishlearning.util.JwtUtil;
 import com.thanhnb.englishlearning.service.user.CustomUserDetailsService;
@@ -35,6 +37,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final CustomUserDetailsService userDetailsService;
     private final UserRepository userRepository;
     private final UserActivityRepository activityRepository;
+    private final EngagementTracker engagementTracker;
 
     @Override
     protected void doFilterInternal(
@@ -51,14 +54,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = extractTokenFromRequest(request);
 
             if (token != null) {
-                if (jwtBlacklistService.isTokenBlacklisted(token)) {
-                    log.debug("Token is blacklisted, request denied");
-                    sendErrorResponse(response, "Token đã bị vô hiệu hóa");
-                    return;
-                }
+                // ✅ Verify chữ ký đúng 1 lần, các bước sau chỉ đọc VerifiedToken
+                Optional<VerifiedToken> verified = jwtUtil.verify(token);
 
-                if (jwtUtil.isTokenValid(token)) {
-                    String username = jwtUtil.getUsernameFromToken(token);
+                if (verified.isPresent()) {
+                    VerifiedToken verifiedToken = verified.get();
+
+                    if (jwtBlacklistService.isTokenBlacklisted(verifiedToken)) {
+                        log.debug("Token is blacklisted, request denied");
+                        sendErrorResponse(response, "Token đã bị vô hiệu hóa");
+                        return;
+                    }
+
+                    String username = verifiedToken.username();
 
                     Optional<User> userOpt = userRepository.findByUsername(username);
                     if (userOpt.isEmpty()) {
@@ -88,19 +96,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         return;
                     }
 
-                    
-
                     UserActivity activity = activityOpt.get();
 
-                    if (jwtUtil.isTokenIssuedBeforeLastUpdate(token, activity.getLastLoginDate())) {
+                    if (jwtUtil.isTokenIssuedBeforeLastUpdate(verifiedToken, activity.getLastLoginDate())) {
                         log.warn("Token issued before last update for user: {}", username);
                         sendErrorResponse(response, "Phiên đăng nhập đã hết hạn");
                         return;
                     }
 
                     // ✅ Set authentication context
-                    setAuthenticationContext(username, token, request.getRequestURI());
+                    setAuthenticationContext(verifiedToken, request.getRequestURI());
                     request.setAttribute("userId", user.getId());
+                    request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, verifiedToken);
+                    engagementTracker.recordActivity(user.getId());
                     // ✅ IMPROVED: Log successful authentication with details
                     log.debug("JWT authentication successful for user: {} | role: {} | path: {}", 
                         username, 
@@ -139,14 +147,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      * ✅ Set authentication context with roles from JWT token
      * Spring Security will handle role checking via @PreAuthorize
      * 
-     * @param username Username from token
-     * @param token JWT token
+     * @param token Verified JWT claims
      * @param requestPath Current request path (for logging)
      */
-    private void setAuthenticationContext(String username, String token, String requestPath) {
+    private void setAuthenticationContext(VerifiedToken token, String requestPath) {
+        String username = token.username();
         try {
             // Get roles from JWT token
-            List<String> rolesFromToken = jwtUtil.getRolesFromToken(token);
+            List<String> rolesFromToken = token.roles();
             List<GrantedAuthority> authorities = rolesFromToken.stream()
                     .map(SimpleGrantedAuthority::new)
                     .collect(Collectors.toList());
@@ -220,7 +228,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 path.contains("/auth/teacher/reset-password") ||
                 path.startsWith("/swagger-ui") ||
                 path.startsWith("/v3/api-docs") ||
-                path.startsWith("/actuator") ||
+                path.startsWith("/actuator/health") ||
+                path.equals("/actuator/info") ||
                 path.contains("/swagger-resources") ||
                 path.contains("/webjars");
 
@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Configuration properties cho JWT
  * Map từ application.properties với prefix "jwt"
@@ -12,18 +15,41 @@ import org.springframework.stereotype.Component;
 @Component
 @ConfigurationProperties(prefix = "jwt")
 public class JwtProperties {
-    
+
     /**
      * Secret key để sign JWT token
      * Tối thiểu 32 characters
      * Mapping từ: jwt.secret trong application.properties
      */
     private String secret;
-    
+
     /**
      * Thời gian expire của JWT token (milliseconds)
      * Mặc định: 86400000 = 24 giờ
      * Mapping từ: jwt.expiration trong application.properties
      */
     private long expiration = 86400000L;
-}
\ No newline at end of file
+
+    /**
+     * kid ghi vào header token mới, ứng với {@link #secret}
+     * Token cũ không có kid được verify bằng khóa có kid "default"
+     */
+    private String keyId = "default";
+
+    /**
+     * Khóa cũ (kid → secret) chỉ dùng để verify token đã phát trong thời gian chuyển khóa
+     * Đổi khóa: chuyển secret hiện tại vào đây với kid cũ, đặt secret + keyId mới;
+     * xóa khóa cũ sau {@link #expiration}
+     */
+    private Map<String, String> previousKeys = new LinkedHashMap<>();
+
+    /**
+     * Số token đã verify giữ trong cache (theo SHA-256 của token). 0 → tắt cache
+     */
+    private int verifiedCacheSize = 10000;
+
+    /**
+     * Thời gian tối đa 1 token nằm trong cache (token hết hạn sớm hơn thì hết tác dụng sớm hơn)
+     */
+    private long verifiedCacheTtlSeconds = 300;
+}
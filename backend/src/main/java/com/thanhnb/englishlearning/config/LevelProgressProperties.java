@@ -0,0 +1,30 @@
+package com.thanhnb.englishlearning.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cấu hình bộ đếm điều kiện nâng level (app.level-progress.*)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.level-progress")
+@Data
+public class LevelProgressProperties {
+
+    /**
+     * Khi không đọc được catalog version (Redis lỗi / catalog cache tắt):
+     * số lesson / topic của catalog được tính lại sau khoảng này
+     */
+    private long totalsTtlSeconds = 60;
+
+    /**
+     * Số user mỗi trang khi job đối soát quét toàn bộ bộ đếm
+     */
+    private int reconcileBatchSize = 200;
+
+    /**
+     * Số topic tối đa chờ đối soát lại sau khi catalog đổi (vượt → bỏ, job đối soát sửa sau)
+     */
+    private int topicQueueCapacity = 1000;
+}
@@ -0,0 +1,24 @@
+package com.thanhnb.englishlearning.config;
+
+import com.thanhnb.englishlearning.service.monitoring.JdbcProfilingSessionListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ✅ Gắn JdbcProfilingSessionListener vào mọi Hibernate Session (đếm SQL / thời gian JDBC theo request)
+ */
+@Configuration
+public class MonitoringConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcProfilingCustomizer(MonitoringProperties properties) {
+        return hibernateProperties -> {
+            if (properties.isRequestProfilingEnabled()) {
+                hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                        JdbcProfilingSessionListener.class.getName());
+            }
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.thanhnb.englishlearning.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cấu hình đo đạc request / luồng nộp bài (app.monitoring.*)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.monitoring")
+@Data
+public class MonitoringProperties {
+
+    /**
+     * Tắt → không đo số câu SQL / thời gian JDBC theo request, không ghi slow-request log
+     */
+    private boolean requestProfilingEnabled = true;
+
+    /**
+     * Request chậm hơn ngưỡng này → log WARN kèm breakdown từng bước + số câu SQL
+     */
+    private long slowRequestThresholdMs = 1_000;
+
+    /**
+     * Chỉ đo request có path bắt đầu bằng tiền tố này (bỏ qua /media, /actuator...)
+     */
+    private String pathPrefix = "/api/";
+}
@@ -0,0 +1,31 @@
+package com.thanhnb.englishlearning.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cấu hình thứ tự topic / lesson / task group / question (app.ordering.*)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.ordering")
+@Data
+public class OrderingProperties {
+
+    /**
+     * Khoảng cách giữa 2 key liền nhau khi thêm cuối danh sách / dàn đều lại.
+     * Chuyển 1 phần tử = lấy key giữa 2 hàng xóm → khoảng 10 lần kéo thả liên tiếp vào cùng 1 chỗ
+     * mới hết khe với gap 1024
+     */
+    private int gap = 1024;
+
+    /**
+     * Sau khi chuyển, khe còn lại nhỏ hơn mức này → đưa danh sách vào hàng đợi dàn đều trong nền
+     */
+    private int minGap = 16;
+
+    /**
+     * Số danh sách tối đa được dàn đều mỗi lần job "order-rebalance" chạy
+     */
+    private int rebalanceBatchSize = 200;
+}
@@ -0,0 +1,46 @@
+package com.thanhnb.englishlearning.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for password hashing
+ * Maps app.security.password.* properties from application.properties
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.security.password")
+@Data
+public class PasswordHashingProperties {
+
+    /**
+     * Thuật toán dùng để hash password mới: bcrypt | pbkdf2
+     * Hash cũ vẫn verify được, và được rehash sang thuật toán này khi user login
+     */
+    private String algorithm = "bcrypt";
+
+    /**
+     * BCrypt cost (log2 rounds). Tăng giá trị này → user được rehash dần khi login
+     */
+    private int bcryptStrength = 10;
+
+    /**
+     * Số thread hash. 0 = số CPU cores
+     */
+    private int poolSize = 0;
+
+    /**
+     * Số request hash tối đa được xếp hàng chờ thread
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * Thời gian tối đa 1 request được chờ trong queue trước khi bị từ chối (503)
+     */
+    private long queueTimeoutMs = 1500;
+
+    /**
+     * Giá trị Retry-After (giây) trả về khi bị từ chối
+     */
+    private int retryAfterSeconds = 2;
+}
@@ -0,0 +1,96 @@
+package com.thanhnb.englishlearning.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thanhnb.englishlearning.dto.CustomApiResponse;
+import com.thanhnb.englishlearning.enums.RateLimitKeyType;
+import com.thanhnb.englishlearning.service.ratelimit.RateLimit;
+import com.thanhnb.englishlearning.service.ratelimit.RateLimitDecision;
+import com.thanhnb.englishlearning.service.ratelimit.RateLimitRule;
+import com.thanhnb.englishlearning.service.ratelimit.RateLimitService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ✅ Kiểm tra @RateLimit trước khi vào controller
+ *
+ * - Header RateLimit-Limit / RateLimit-Remaining / RateLimit-Reset / RateLimit-Policy trên mọi response có rule
+ * - Bị từ chối → 429 + Retry-After, body giống CustomApiResponse.error
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimitService rateLimitService;
+    private final ObjectMapper objectMapper;
+
+    // Method → rule đã resolve (Optional.empty() = không có annotation hoặc rule bị tắt)
+    private final Map<Method, Optional<RateLimitRule>> ruleCache = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull Object handler) throws Exception {
+
+        if (!rateLimitService.isEnabled() || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        Optional<RateLimitRule> rule = ruleCache.computeIfAbsent(handlerMethod.getMethod(),
+                m -> resolveRule(handlerMethod));
+        if (rule.isEmpty()) {
+            return true;
+        }
+
+        RateLimitDecision decision = rateLimitService.tryAcquire(rule.get(), resolveIdentity(rule.get(), request));
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(decision.resetSeconds()));
+        response.setHeader("RateLimit-Policy", rule.get().policy());
+
+        if (decision.allowed()) {
+            return true;
+        }
+
+        log.debug("Rate limit {} exceeded for {} {}", rule.get().name(), request.getMethod(), request.getRequestURI());
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf(decision.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getWriter(), CustomApiResponse.error(429,
+                "Bạn thao tác quá nhanh. Vui lòng thử lại sau " + decision.retryAfterSeconds() + " giây"));
+        return false;
+    }
+
+    private Optional<RateLimitRule> resolveRule(HandlerMethod handlerMethod) {
+        RateLimit annotation = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), RateLimit.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), RateLimit.class);
+        }
+        return annotation == null ? Optional.empty() : Optional.ofNullable(rateLimitService.resolve(annotation));
+    }
+
+    private String resolveIdentity(RateLimitRule rule, HttpServletRequest request) {
+        if (rule.key() == RateLimitKeyType.USER) {
+            Object userId = request.getAttribute("userId");
+            if (userId != null) {
+                return "u:" + userId;
+            }
+        }
+        // X-Forwarded-For đã được RemoteIpValve xử lý (chỉ từ proxy tin cậy) → header client tự gửi không đổi được key
+        return "ip:" + request.getRemoteAddr();
+    }
+}
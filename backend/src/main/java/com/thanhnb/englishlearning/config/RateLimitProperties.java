@@ -0,0 +1,51 @@
+package com.thanhnb.englishlearning.config;
+
+import com.thanhnb.englishlearning.enums.RateLimitAlgorithm;
+import com.thanhnb.englishlearning.enums.RateLimitKeyType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cấu hình rate limit (app.rate-limit.*)
+ *
+ * Rule mặc định khai báo trên @RateLimit; app.rate-limit.rules.{tên}.* ghi đè từng thuộc tính
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.rate-limit")
+@Data
+public class RateLimitProperties {
+
+    /**
+     * Tắt → không kiểm tra rule nào
+     */
+    private boolean enabled = true;
+
+    /**
+     * Tắt → chỉ dùng tier local (mỗi node tự đếm)
+     */
+    private boolean redisEnabled = true;
+
+    /**
+     * Số key tối đa giữ trong tier local
+     */
+    private int localMaxKeys = 100_000;
+
+    private Map<String, Rule> rules = new HashMap<>();
+
+    /**
+     * Giá trị null → giữ nguyên giá trị trên annotation
+     */
+    @Data
+    public static class Rule {
+        private Boolean enabled;
+        private Integer limit;
+        private Long windowSeconds;
+        private RateLimitAlgorithm algorithm;
+        private RateLimitKeyType key;
+        private Boolean cluster;
+    }
+}
@@ -0,0 +1,40 @@
+package com.thanhnb.englishlearning.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cấu hình thống kê AI recommendation (app.recommendation-analytics.*)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.recommendation-analytics")
+@Data
+public class RecommendationAnalyticsProperties {
+
+    /**
+     * Số ngày đã kết thúc được tính lại mỗi lần job "recommendation-rollup" chạy (bù lần chạy bị lỡ)
+     */
+    private int rollupDays = 3;
+
+    /**
+     * Sự kiện của 1 ngày chỉ được tìm trên các gợi ý tạo trong chừng ấy ngày trước đó
+     * (gợi ý hết hạn sau vài giờ → accept / complete muộn hơn thế không được tính)
+     */
+    private int eventWindowDays = 7;
+
+    /**
+     * Gợi ý hết hạn chỉ bị xóa sau khoảng này → rollup luôn chạy trước khi row biến mất
+     */
+    private int expiredRetentionHours = 48;
+
+    /**
+     * Số row tối đa mỗi câu DELETE khi dọn gợi ý hết hạn (mỗi câu 1 transaction ngắn)
+     */
+    private int cleanupBatchSize = 5000;
+
+    /**
+     * Khoảng ngày tối đa của biểu đồ funnel
+     */
+    private int maxChartDays = 366;
+}
@@ -0,0 +1,73 @@
+package com.thanhnb.englishlearning.config;
+
+import com.thanhnb.englishlearning.service.datasource.ReadYourWritesTracker;
+import com.thanhnb.englishlearning.service.datasource.ReplicaRoutingDataSource;
+import com.thanhnb.englishlearning.service.datasource.WriteStatementInspector;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * ✅ Định tuyến transaction read-only sang Postgres replica (app.datasource.routing.enabled=true)
+ *
+ * dataSource (@Primary) = LazyConnectionDataSourceProxy → ReplicaRoutingDataSource → primary / replica-N
+ * - Lazy proxy hoãn lấy connection thật tới câu lệnh đầu tiên → lúc đó đã biết transaction readOnly hay không
+ * - Mỗi replica 1 pool Hikari riêng (metrics hikaricp.* theo pool name)
+ * - WriteStatementInspector đánh dấu user vừa ghi → đọc của user đó ở primary tới khi replica bắt kịp
+ *
+ * Tắt → không bean nào ở đây được tạo, Spring Boot tự cấu hình 1 pool như cũ.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+@Slf4j
+public class ReplicaRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(StringRedisTemplate redisTemplate,
+            ReplicaRoutingProperties properties) {
+        return new ReadYourWritesTracker(redisTemplate, properties);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+            ReadYourWritesTracker readYourWritesTracker,
+            ReplicaRoutingProperties properties,
+            MeterRegistry meterRegistry) {
+        return new ReplicaRoutingDataSource(primaryDataSource, readYourWritesTracker, properties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        log.info("✅ Read-only transactions routed to replicas");
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer writeStatementInspectorCustomizer(ReadYourWritesTracker readYourWritesTracker) {
+        WriteStatementInspector inspector = new WriteStatementInspector(readYourWritesTracker);
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+}
@@ -0,0 +1,55 @@
+package com.thanhnb.englishlearning.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cấu hình định tuyến transaction read-only sang replica (app.datasource.routing.*)
+ *
+ * Tắt (mặc định) → Spring Boot tự tạo 1 pool Hikari tới spring.datasource.* như cũ
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.datasource.routing")
+@Data
+public class ReplicaRoutingProperties {
+
+    /**
+     * Bật → @Transactional(readOnly = true) đọc từ replica, còn lại dùng primary
+     */
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Replica trễ hơn ngưỡng này → tạm thời không nhận traffic
+     */
+    private long maxLagMs = 5_000;
+
+    /**
+     * Chu kỳ kiểm tra độ trễ / kết nối của từng replica
+     */
+    private long healthCheckIntervalMs = 2_000;
+
+    /**
+     * Sau khi user ghi, đọc của user đó về primary cho tới khi replica bắt kịp (tối đa khoảng này)
+     */
+    private long readYourWritesWindowMs = 10_000;
+
+    /**
+     * Chia sẻ mốc ghi gần nhất qua Redis → request kế tiếp rơi vào node khác vẫn đọc đúng
+     */
+    private boolean shareWritesAcrossNodes = true;
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,106 @@
+package com.thanhnb.englishlearning.config;
+
+import com.thanhnb.englishlearning.service.monitoring.RequestProfile;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ✅ Số câu SQL + thời gian JDBC theo từng endpoint, slow-request log
+ *
+ * - http.request.jdbc.queries{method, uri}: số câu SQL / request
+ * - http.request.jdbc.time{method, uri}: tổng thời gian JDBC / request
+ * - Request > app.monitoring.slow-request-threshold-ms → logger SLOW_REQUEST in breakdown từng bước
+ *
+ * uri là pattern của handler (/api/grammar/lessons/{lessonId}/submit) → số series có giới hạn.
+ * Đứng trước Spring Security để tính cả truy vấn của JwtAuthenticationFilter.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger SLOW_LOG = LoggerFactory.getLogger("SLOW_REQUEST");
+
+    private final MonitoringProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DistributionSummary> querySummaries = new ConcurrentHashMap<>();
+    private final Map<String, Timer> jdbcTimers = new ConcurrentHashMap<>();
+
+    public RequestMetricsFilter(MonitoringProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.isRequestProfilingEnabled()
+                || !request.getRequestURI().startsWith(properties.getPathPrefix());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        RequestProfile profile = RequestProfile.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestProfile.end();
+            record(request, response, profile);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, RequestProfile profile) {
+        try {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            String method = request.getMethod();
+            String key = method + " " + uri;
+
+            querySummaries.computeIfAbsent(key, k -> DistributionSummary.builder("http.request.jdbc.queries")
+                    .description("Số câu SQL trong 1 request")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry))
+                    .record(profile.getQueryCount());
+            jdbcTimers.computeIfAbsent(key, k -> Timer.builder("http.request.jdbc.time")
+                    .description("Tổng thời gian JDBC trong 1 request")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry))
+                    .record(profile.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(profile.elapsedNanos());
+            if (elapsedMs >= properties.getSlowRequestThresholdMs()) {
+                SLOW_LOG.warn("🐢 {} {} took {} ms (status={}, user={}, queries={}, jdbc={} ms) stages=[{}]",
+                        method, request.getRequestURI(), elapsedMs, response.getStatus(),
+                        request.getAttribute("userId"), profile.getQueryCount(),
+                        TimeUnit.NANOSECONDS.toMillis(profile.getJdbcNanos()), profile.describeStages());
+            }
+        } catch (Exception e) {
+            log.debug("Cannot record request metrics: {}", e.getMessage());
+        }
+    }
+}
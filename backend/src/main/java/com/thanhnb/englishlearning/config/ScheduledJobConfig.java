@@ -0,0 +1,182 @@
+package com.thanhnb.englishlearning.config;
+
+import com.thanhnb.englishlearning.repository.job.ScheduledJobRunRepository;
+import com.thanhnb.englishlearning.service.attempt.AnswerAttemptPartitionService;
+import com.thanhnb.englishlearning.service.deletion.BulkDeletionService;
+import com.thanhnb.englishlearning.service.email.EmailOutboxWorker;
+import com.thanhnb.englishlearning.service.level.LevelProgressReconciler;
+import com.thanhnb.englishlearning.service.ordering.OrderingService;
+import com.thanhnb.englishlearning.service.scheduler.LearningAnalysisScheduler;
+import com.thanhnb.englishlearning.service.scheduler.RecommendationScheduler;
+import com.thanhnb.englishlearning.service.scheduler.job.ClusterJobDefinition;
+import com.thanhnb.englishlearning.service.search.SearchIndexService;
+import com.thanhnb.englishlearning.service.user.EngagementAnalyticsService;
+import com.thanhnb.englishlearning.service.user.UnverifiedUserCleanupService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Đăng ký các scheduled job chạy qua ClusterJobRunner
+ * (1 lần / cluster, thread pool riêng, có lịch sử chạy)
+ *
+ * Cron format: second minute hour day month weekday
+ */
+@Configuration
+public class ScheduledJobConfig {
+
+    @Bean
+    public ClusterJobDefinition learningAnalysisJob(LearningAnalysisScheduler analysisScheduler,
+            @Value("${app.jobs.learning-analysis.cron:0 0 2 * * *}") String cron) {
+        return ClusterJobDefinition.builder()
+                .name("learning-analysis")
+                .description("Đồng bộ lại topic progress trong learning behaviors")
+                .cron(cron)
+                .lockAtMostFor(Duration.ofHours(2))
+                .task(analysisScheduler::analyzeDailyBehaviors)
+                .build();
+    }
+
+    @Bean
+    public ClusterJobDefinition recommendationRollupJob(RecommendationScheduler recommendationScheduler,
+            @Value("${app.jobs.recommendation-rollup.cron:0 15 0 * * *}") String cron) {
+        return ClusterJobDefinition.builder()
+                .name("recommendation-rollup")
+                .description("Tổng hợp funnel AI recommendations theo ngày")
+                .cron(cron)
+                .task(recommendationScheduler::rollupRecommendationStats)
+                .build();
+    }
+
+    @Bean
+    public ClusterJobDefinition recommendationCleanupJob(RecommendationScheduler recommendationScheduler,
+            @Value("${app.jobs.recommendation-cleanup.cron:0 0 3 * * *}") String cron) {
+        return ClusterJobDefinition.builder()
+                .name("recommendation-cleanup")
+                .description("Xóa AI recommendations đã hết hạn")
+                .cron(cron)
+                .task(recommendationScheduler::cleanupExpiredRecommendations)
+                .build();
+    }
+
+    @Bean
+    public ClusterJobDefinition recommendationMetricsJob(RecommendationScheduler recommendationScheduler,
+            @Value("${app.jobs.recommendation-metrics.cron:0 0 9 * * MON}") String cron) {
+        return ClusterJobDefinition.builder()
+                .name("recommendation-metrics")
+                .description("Log hiệu quả AI recommendations hàng tuần")
+                .cron(cron)
+                .task(recommendationScheduler::logRecommendationMetrics)
+                .build();
+    }
+
+    @Bean
+    public ClusterJobDefinition unverifiedUserCleanupJob(UnverifiedUserCleanupService cleanupService,
+            @Value("${cleanup.unverified-users.cron:0 0 2 * * *}") String cron,
+            @Value("${cleanup.unverified-users.enabled:true}") boolean enabled) {
+        return ClusterJobDefinition.builder()
+                .name("unverified-user-cleanup")
+                .description("Xóa tài khoản chưa verify quá hạn")
+                .cron(cron)
+                .enabled(enabled)
+                .task(cleanupService::cleanupNow)
+                .build();
+    }
+
+    @Bean
+    public ClusterJobDefinition jobHistoryCleanupJob(ScheduledJobRunRepository runRepository,
+            @Value("${app.jobs.history-cleanup.cron:0 30 4 * * *}") String cron,
+            @Value("${app.jobs.history-retention-days:90}") int retentionDays) {
+        return ClusterJobDefinition.builder()
+                .name("job-history-cleanup")
+                .description("Xóa lịch sử chạy job cũ hơn " + retentionDays + " ngày")
+                .cron(cron)
+                .task(() -> runRepository.deleteRunsStartedBefore(LocalDateTime.now().minusDays(retentionDays)))
+                .build();
+    }
+
+    @Bean
+    public ClusterJobDefinition searchReindexJob(SearchIndexService searchIndexService,
+            @Value("${app.jobs.search-reindex.cron:0 0 4 * * SUN}") String cron) {
+        return ClusterJobDefinition.builder()
+                .name("search-reindex")
+                .description("Build lại toàn bộ search index (lessons + questions)")
+                .cron(cron)
+                .lockAtMostFor(Duration.ofHours(1))
+                .task(searchIndexService::reindexAll)
+                .build();
+    }
+
+    @Bean
+    public ClusterJobDefinition deletedTopicPurgeJob(BulkDeletionService bulkDeletionService,
+            @Value("${app.jobs.deleted-topic-purge.cron:0 */10 * * * *}") String cron) {
+        return ClusterJobDefinition.builder()
+                .name("deleted-topic-purge")
+                .description("Xóa thật các topic đã soft-delete (theo batch lessons)")
+                .cron(cron)
+                .lockAtMostFor(Duration.ofHours(1))
+                .lockAtLeastFor(Duration.ofSeconds(10))
+                .task(bulkDeletionService::purgeSoftDeletedTopics)
+                .build();
+    }
+
+    @Bean
+    public ClusterJobDefinition answerAttemptMaintenanceJob(AnswerAttemptPartitionService partitionService,
+            @Value("${app.jobs.answer-attempt-maintenance.cron:0 15 3 * * *}") String cron) {
+        return ClusterJobDefinition.builder()
+                .name("answer-attempt-maintenance")
+                .description("Tạo trước partition answer_attempts, rollup + drop partition quá hạn")
+                .cron(cron)
+                .lockAtMostFor(Duration.ofHours(1))
+                .task(partitionService::runMaintenance)
+                .build();
+    }
+
+    @Bean
+    public ClusterJobDefinition emailOutboxCleanupJob(EmailOutboxWorker emailOutboxWorker,
+            @Value("${app.jobs.email-outbox-cleanup.cron:0 45 4 * * *}") String cron) {
+        return ClusterJobDefinition.builder()
+                .name("email-outbox-cleanup")
+                .description("Xóa email SENT / FAILED quá hạn giữ trong outbox")
+                .cron(cron)
+                .task(emailOutboxWorker::cleanupFinished)
+                .build();
+    }
+
+    @Bean
+    public ClusterJobDefinition levelProgressReconcileJob(LevelProgressReconciler levelProgressReconciler,
+            @Value("${app.jobs.level-progress-reconcile.cron:0 0 5 * * *}") String cron) {
+        return ClusterJobDefinition.builder()
+                .name("level-progress-reconcile")
+                .description("Đối soát bộ đếm tiến độ level với progress thật")
+                .cron(cron)
+                .lockAtMostFor(Duration.ofHours(2))
+                .task(levelProgressReconciler::reconcileAll)
+                .build();
+    }
+
+    @Bean
+    public ClusterJobDefinition orderRebalanceJob(OrderingService orderingService,
+            @Value("${app.jobs.order-rebalance.cron:0 */5 * * * *}") String cron) {
+        return ClusterJobDefinition.builder()
+                .name("order-rebalance")
+                .description("Dàn đều order_index các danh sách sắp hết khe sau kéo thả")
+                .cron(cron)
+                .task(orderingService::rebalancePending)
+                .build();
+    }
+
+    @Bean
+    public ClusterJobDefinition engagementRollupJob(EngagementAnalyticsService engagementAnalyticsService,
+            @Value("${app.jobs.engagement-rollup.cron:0 20 0 * * *}") String cron) {
+        return ClusterJobDefinition.builder()
+                .name("engagement-rollup")
+                .description("Chốt DAU / WAU / MAU và churn cohort theo ngày")
+                .cron(cron)
+                .task(engagementAnalyticsService::rollup)
+                .build();
+    }
+}
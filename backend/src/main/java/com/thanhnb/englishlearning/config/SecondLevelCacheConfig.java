@@ -0,0 +1,92 @@
+package com.thanhnb.englishlearning.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ✅ Hibernate second-level cache + query cache (JCache, provider Caffeine)
+ *
+ * Region được tạo sẵn với giới hạn kích thước / TTL (missing_cache_strategy=fail → quên khai báo region là lỗi ngay lúc start):
+ * - catalog.topic, catalog.*-lesson: READ_WRITE (trạng thái active / thứ tự phải thấy ngay sau khi admin sửa)
+ * - catalog.task-group, catalog.question: NONSTRICT_READ_WRITE (số lượng lớn, sửa qua import, chấp nhận lệch vài ms)
+ * - Query cache: finder hay dùng (theo topic, theo lesson) - Hibernate tự vô hiệu theo bảng bị ghi
+ *
+ * Cache nằm trong từng node → EntityCacheInvalidationService phát invalidation qua Redis pub/sub.
+ * Thống kê: hibernate.* trong /actuator/metrics + /actuator/l2cache (hit ratio theo region).
+ */
+@Configuration
+@Slf4j
+public class SecondLevelCacheConfig {
+
+    public static final String TOPIC_REGION = "catalog.topic";
+    public static final String GRAMMAR_LESSON_REGION = "catalog.grammar-lesson";
+    public static final String READING_LESSON_REGION = "catalog.reading-lesson";
+    public static final String LISTENING_LESSON_REGION = "catalog.listening-lesson";
+    public static final String TASK_GROUP_REGION = "catalog.task-group";
+    public static final String QUESTION_REGION = "catalog.question";
+
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(SecondLevelCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+
+        long ttl = properties.getTtlSeconds();
+        createRegion(cacheManager, TOPIC_REGION, properties.getEntityMaxSize(), ttl);
+        createRegion(cacheManager, GRAMMAR_LESSON_REGION, properties.getEntityMaxSize(), ttl);
+        createRegion(cacheManager, READING_LESSON_REGION, properties.getEntityMaxSize(), ttl);
+        createRegion(cacheManager, LISTENING_LESSON_REGION, properties.getEntityMaxSize(), ttl);
+        createRegion(cacheManager, TASK_GROUP_REGION, properties.getEntityMaxSize(), ttl);
+        createRegion(cacheManager, QUESTION_REGION, properties.getQuestionMaxSize(), ttl);
+        createRegion(cacheManager, QUERY_RESULTS_REGION, properties.getQueryMaxSize(), ttl);
+        // Timestamps không được evict trước query results → không giới hạn (1 entry / bảng)
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, 0, 0);
+
+        log.info("✅ Hibernate L2 cache regions created: {}", cacheManager.getCacheNames());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(SecondLevelCacheProperties properties,
+            CacheManager hibernateCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            if (!properties.isEnabled()) {
+                hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+                hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, false);
+                return;
+            }
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private void createRegion(CacheManager cacheManager, String name, long maxSize, long ttlSeconds) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false); // Hibernate tự lưu dạng disassembled, không cần copy thêm
+        configuration.setStatisticsEnabled(true);
+        if (maxSize > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (ttlSeconds > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        }
+        cacheManager.createCache(name, configuration);
+    }
+}
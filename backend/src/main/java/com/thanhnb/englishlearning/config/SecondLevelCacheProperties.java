@@ -0,0 +1,50 @@
+package com.thanhnb.englishlearning.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cấu hình Hibernate second-level cache (app.l2-cache.*)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.l2-cache")
+@Data
+public class SecondLevelCacheProperties {
+
+    /**
+     * Tắt → Hibernate không dùng second-level cache / query cache
+     */
+    private boolean enabled = true;
+
+    /**
+     * Redis pub/sub channel để các node evict lẫn nhau sau khi commit
+     */
+    private String invalidationChannel = "hibernate:l2:invalidate";
+
+    /**
+     * Số entry tối đa mỗi region Topic / Lesson / TaskGroup
+     */
+    private long entityMaxSize = 10_000;
+
+    /**
+     * Số entry tối đa region Question (nhiều hơn hẳn các entity khác)
+     */
+    private long questionMaxSize = 100_000;
+
+    /**
+     * Số kết quả tối đa của query cache
+     */
+    private long queryMaxSize = 5_000;
+
+    /**
+     * Entry hết hạn sau khoảng này (giới hạn thời gian stale nếu lỡ mất 1 message invalidation)
+     */
+    private long ttlSeconds = 3600;
+
+    /**
+     * Node nhận invalidation evict lại lần 2 sau khoảng này
+     * (bản cũ có thể được đọc từ DB ngay trước commit và put vào cache sau lần evict đầu)
+     */
+    private long reevictDelayMs = 500;
+}
@@ -8,7 +8,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -19,7 +18,9 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import com.thanhnb.englishlearning.repository.user.UserRepository;
 import com.thanhnb.englishlearning.repository.user.UserActivityRepository;
 import com.thanhnb.englishlearning.service.user.CustomUserDetailsService;
+import com.thanhnb.englishlearning.service.user.EngagementTracker;
 import com.thanhnb.englishlearning.service.user.JwtBlacklistService;
+import com.thanhnb.englishlearning.service.user.credential.PasswordEncoderFactory;
 import com.thanhnb.englishlearning.util.JwtUtil;
 
 @Configuration
@@ -33,16 +34,24 @@ public class SecurityConfig {
         private final CustomUserDetailsService userDetailsService;
         private final UserRepository userRepository;
         private final UserActivityRepository activityRepository;
+        private final EngagementTracker engagementTracker;
+        private final PasswordHashingProperties passwordHashingProperties;
 
+        /**
+         * Delegating encoder: thuật toán/cost cấu hình qua app.security.password.*
+         * Hash cũ vẫn verify được và được rehash khi login (xem CredentialVerificationService)
+         */
         @Bean
         public PasswordEncoder passwordEncoder() {
-                return new BCryptPasswordEncoder();
+                return PasswordEncoderFactory.create(
+                                passwordHashingProperties.getAlgorithm(),
+                                passwordHashingProperties.getBcryptStrength());
         }
 
         @Bean
         public JwtAuthenticationFilter jwtAuthenticationFilter() {
                 return new JwtAuthenticationFilter(jwtUtil, jwtBlacklistService, userDetailsService, userRepository,
-                                activityRepository);
+                                activityRepository, engagementTracker);
         }
 
         @Bean
@@ -54,7 +63,19 @@ public class SecurityConfig {
                                                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                                 .authorizeHttpRequests(auth -> auth
                                                 // ========== SYSTEM HEALTH CHECK ==========
-                                                .requestMatchers("/actuator/**").permitAll()
+                                                // Chỉ health / info public (load balancer, healthcheck docker)
+                                                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                                                .requestMatchers("/actuator/info").permitAll()
+                                                // Scheduled jobs status + manual trigger - Admin only
+                                                .requestMatchers("/actuator/jobs", "/actuator/jobs/**").hasRole("ADMIN")
+                                                // L2 cache stats + DELETE (flush mọi node) - Admin only
+                                                .requestMatchers("/actuator/l2cache", "/actuator/l2cache/**").hasRole("ADMIN")
+                                                // Prometheus scrape - Admin only (scraper gửi Bearer token của tài khoản admin)
+                                                .requestMatchers("/actuator/prometheus").hasRole("ADMIN")
+                                                // Metrics (pool hashing, latency theo endpoint...) - Admin only
+                                                .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasRole("ADMIN")
+                                                // Còn lại (mappings, redis, ...) - Admin only
+                                                .requestMatchers("/actuator/**").hasRole("ADMIN")
                                                 .requestMatchers("/swagger-ui/**").permitAll()
                                                 .requestMatchers("/v3/api-docs/**").permitAll()
                                                 .requestMatchers("/error").permitAll()
@@ -103,6 +124,8 @@ public class SecurityConfig {
                                                 .hasAnyRole("ADMIN", "TEACHER")
                                                 .requestMatchers("/api/admin/listening/**")
                                                 .hasAnyRole("ADMIN", "TEACHER")
+                                                .requestMatchers("/api/admin/ordering/**")
+                                                .hasAnyRole("ADMIN", "TEACHER")
 
                                                 // ✅ NEW: Catch-all for other /api/admin/** paths - Admin only
                                                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
@@ -0,0 +1,45 @@
+package com.thanhnb.englishlearning.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cấu hình đo thời gian học qua heartbeat (app.study-time.*)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.study-time")
+@Data
+public class StudyTimeProperties {
+
+    /**
+     * Tắt → heartbeat vẫn trả 200 nhưng không ghi nhận
+     */
+    private boolean enabled = true;
+
+    /**
+     * Độ dài 1 slot thời gian. Mỗi user được tính tối đa 1 heartbeat / slot (nhiều tab chỉ tính 1 lần),
+     * mỗi slot được tính = heartbeatIntervalSeconds giây học
+     */
+    private int heartbeatIntervalSeconds = 30;
+
+    /**
+     * Chu kỳ flush heartbeat trong bộ nhớ xuống DB
+     */
+    private long flushIntervalMs = 10000;
+
+    /**
+     * Số heartbeat tối đa chờ flush. Đầy → bỏ heartbeat mới (metric study.heartbeats{result=dropped})
+     */
+    private int queueCapacity = 200000;
+
+    /**
+     * Khử trùng slot giữa các node qua bitmap Redis (2 tab của 1 user rơi vào 2 node khác nhau)
+     */
+    private boolean redisDedupEnabled = true;
+
+    /**
+     * Số ngày tối đa của 1 lần lấy chuỗi thời gian học
+     */
+    private int maxSeriesDays = 90;
+}
@@ -0,0 +1,40 @@
+package com.thanhnb.englishlearning.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cấu hình các bước sau commit của luồng nộp bài (app.submission.*)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.submission")
+@Data
+public class SubmissionProperties {
+
+    /**
+     * Tắt → check nâng level chạy ngay trên thread request (vẫn sau commit, không giữ lock progress)
+     */
+    private boolean asyncLevelCheck = true;
+
+    /**
+     * Thời gian tối đa request chờ kết quả check nâng level. Quá hạn → response trả followUpId,
+     * client lấy kết quả qua GET /api/submissions/follow-up/{followUpId}
+     */
+    private long levelCheckWaitMs = 300;
+
+    /**
+     * Số thread chạy check nâng level
+     */
+    private int followUpThreads = 4;
+
+    /**
+     * Số check nâng level tối đa chờ thread. Đầy → chạy luôn trên thread request
+     */
+    private int followUpQueueCapacity = 1000;
+
+    /**
+     * Thời gian giữ kết quả follow-up trên Redis
+     */
+    private long followUpTtlSeconds = 600;
+}
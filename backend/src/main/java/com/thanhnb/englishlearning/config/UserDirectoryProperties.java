@@ -0,0 +1,34 @@
+package com.thanhnb.englishlearning.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cấu hình danh sách user của Admin (app.user-directory.*)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.user-directory")
+@Data
+public class UserDirectoryProperties {
+
+    /**
+     * Số user / trang khi request không truyền size
+     */
+    private int defaultPageSize = 50;
+
+    /**
+     * Số user tối đa / trang
+     */
+    private int maxPageSize = 200;
+
+    /**
+     * Số row đọc mỗi lượt khi xuất CSV (keyset theo id) - bộ nhớ chỉ giữ 1 lượt
+     */
+    private int exportBatchSize = 1000;
+
+    /**
+     * Giới hạn của các endpoint cũ trả về List (GET /api/users, /api/users/active)
+     */
+    private int legacyListLimit = 5000;
+}
@@ -0,0 +1,120 @@
+package com.thanhnb.englishlearning.controller;
+
+import com.thanhnb.englishlearning.dto.CustomApiResponse;
+import com.thanhnb.englishlearning.dto.common.request.MoveRequest;
+import com.thanhnb.englishlearning.dto.common.request.ReorderRequest;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.enums.OrderedList;
+import com.thanhnb.englishlearning.enums.ParentType;
+import com.thanhnb.englishlearning.exception.ResourceNotFoundException;
+import com.thanhnb.englishlearning.repository.ordering.OrderScope;
+import com.thanhnb.englishlearning.service.ordering.OrderingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sắp xếp thứ tự topic / lesson / task group / question (ADMIN & TEACHER)
+ *
+ * - PUT .../reorder: gửi thứ tự mới của cả danh sách (hoặc 1 đoạn), áp dụng bằng 1 câu UPDATE
+ * - PATCH /{list}/{id}/move: kéo thả 1 phần tử ra sau afterId, thường chỉ UPDATE 1 row
+ * Topic: chỉ ADMIN; lesson / task group / question: TEACHER được phân công topic
+ */
+@RestController
+@RequestMapping("/api/admin/ordering")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+@Tag(name = "Ordering", description = "Kéo thả & sắp xếp hàng loạt thứ tự hiển thị")
+@SecurityRequirement(name = "bearerAuth")
+@Slf4j
+public class OrderingController {
+
+        private final OrderingService orderingService;
+
+        // ==================== BULK REORDER ====================
+
+        @PutMapping("/topics/{moduleType}/reorder")
+        @PreAuthorize("hasRole('ADMIN')")
+        @Operation(summary = "Sắp xếp lại topic của module (ADMIN ONLY)")
+        public ResponseEntity<CustomApiResponse<Map<String, Integer>>> reorderTopics(
+                        @PathVariable ModuleType moduleType,
+                        @Valid @RequestBody ReorderRequest request) {
+                return reorder(() -> OrderScope.topics(moduleType), request);
+        }
+
+        @PutMapping("/lessons/{parentType}/{topicId}/reorder")
+        @Operation(summary = "Sắp xếp lại lesson của topic")
+        public ResponseEntity<CustomApiResponse<Map<String, Integer>>> reorderLessons(
+                        @PathVariable ParentType parentType,
+                        @PathVariable Long topicId,
+                        @Valid @RequestBody ReorderRequest request) {
+                return reorder(() -> OrderScope.lessons(parentType, topicId), request);
+        }
+
+        @PutMapping("/task-groups/{parentType}/{lessonId}/reorder")
+        @Operation(summary = "Sắp xếp lại task group của lesson")
+        public ResponseEntity<CustomApiResponse<Map<String, Integer>>> reorderTaskGroups(
+                        @PathVariable ParentType parentType,
+                        @PathVariable Long lessonId,
+                        @Valid @RequestBody ReorderRequest request) {
+                return reorder(() -> OrderScope.taskGroups(parentType, lessonId), request);
+        }
+
+        @PutMapping("/questions/{parentType}/{lessonId}/reorder")
+        @Operation(summary = "Sắp xếp lại câu hỏi của lesson", description = "Gửi id câu hỏi của 1 task group "
+                        + "→ chỉ các câu đó đổi chỗ cho nhau, câu hỏi khác giữ nguyên vị trí")
+        public ResponseEntity<CustomApiResponse<Map<String, Integer>>> reorderQuestions(
+                        @PathVariable ParentType parentType,
+                        @PathVariable Long lessonId,
+                        @Valid @RequestBody ReorderRequest request) {
+                return reorder(() -> OrderScope.questions(parentType, lessonId), request);
+        }
+
+        // ==================== MOVE ====================
+
+        @PatchMapping("/{list}/{id}/move")
+        @Operation(summary = "Chuyển 1 phần tử ra sau afterId", description = "list: TOPIC, GRAMMAR_LESSON, "
+                        + "READING_LESSON, LISTENING_LESSON, TASK_GROUP, QUESTION. afterId = null → lên đầu")
+        public ResponseEntity<CustomApiResponse<Map<String, Integer>>> move(
+                        @PathVariable OrderedList list,
+                        @PathVariable Long id,
+                        @RequestBody MoveRequest request) {
+                return handle(() -> orderingService.move(list, id, request.getAfterId()),
+                                "orderIndex", "Đã cập nhật thứ tự");
+        }
+
+        // ==================== HELPERS ====================
+
+        private ResponseEntity<CustomApiResponse<Map<String, Integer>>> reorder(Supplier<OrderScope> scope,
+                        ReorderRequest request) {
+                // Scope tạo trong handle: module không có lesson (SPEAKING...) → 400 thay vì 500
+                return handle(() -> orderingService.reorder(scope.get(), request.getIds()),
+                                "updated", "Đã sắp xếp lại thứ tự");
+        }
+
+        private ResponseEntity<CustomApiResponse<Map<String, Integer>>> handle(Supplier<Integer> action,
+                        String field, String message) {
+                try {
+                        return ResponseEntity.ok(CustomApiResponse.success(Map.of(field, action.get()), message));
+                } catch (IllegalArgumentException e) {
+                        return ResponseEntity.badRequest().body(CustomApiResponse.badRequest(e.getMessage()));
+                } catch (ResourceNotFoundException e) {
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                                        .body(CustomApiResponse.notFound(e.getMessage()));
+                } catch (AccessDeniedException e) {
+                        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                                        .body(CustomApiResponse.error(403, e.getMessage()));
+                }
+        }
+}
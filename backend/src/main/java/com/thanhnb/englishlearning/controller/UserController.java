@@ -2,7 +2,10 @@ package com.thanhnb.englishlearning.controller;
 
 import com.thanhnb.englishlearning.dto.CustomApiResponse;
 import com.thanhnb.englishlearning.dto.user.request.ChangePasswordRequest;
+import com.thanhnb.englishlearning.dto.user.request.StudyHeartbeatRequest;
 import com.thanhnb.englishlearning.dto.user.request.UpdateUserRequest;
+import com.thanhnb.englishlearning.dto.user.request.UserDirectoryFilter;
+import com.thanhnb.englishlearning.dto.user.response.StudyTimeSeriesDto;
 import com.thanhnb.englishlearning.dto.user.response.UserActivityDto;
 import com.thanhnb.englishlearning.dto.user.response.UserDashboardDto;
 import com.thanhnb.englishlearning.dto.user.response.UserDetailDto;
@@ -13,7 +16,11 @@ import com.thanhnb.englishlearning.exception.InvalidCredentialsException;
 import com.thanhnb.englishlearning.mapper.UserMapper;
 import com.thanhnb.englishlearning.service.user.StreakService.StreakInfo;
 import com.thanhnb.englishlearning.service.user.UserDashboardService;
+import com.thanhnb.englishlearning.service.user.UserDirectoryService;
 import com.thanhnb.englishlearning.service.user.StreakService;
+import com.thanhnb.englishlearning.service.user.StudyTimeService;
+import com.thanhnb.englishlearning.service.user.StudyTimeTracker;
+import com.thanhnb.englishlearning.service.user.StudyTimeTracker.HeartbeatResult;
 import com.thanhnb.englishlearning.service.user.UserService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -40,11 +47,13 @@ import java.util.stream.Collectors;
  * - GET /me/stats → User statistics only
  * - GET /me/activity → User activity only
  * - GET /me/streak → Streak information
+ * - POST /me/study-heartbeat → Heartbeat đo thời gian học (trang bài học gọi định kỳ)
+ * - GET /me/study-time → Thời gian học theo ngày / module
  * - PUT /me → Update profile
  * - PUT /me/change-password → Change password
  * 
  * Admin Endpoints:
- * - GET / → All users
+ * - GET / → All users (cũ, tối đa app.user-directory.legacy-list-limit - dùng GET /api/admin/users)
  * - GET /{id} → User by ID
  * - GET /email/{email} → User by email
  * - DELETE /{id} → Delete user
@@ -52,7 +61,7 @@ import java.util.stream.Collectors;
  * - PUT /{id}/block → Block user
  * - PUT /{id}/unblock → Unblock user
  * - PUT /{id}/streak → Update streak
- * - GET /active → Active users
+ * - GET /active → Active users (cũ, như GET /)
  * - GET /top-points → Top users by points
  * - GET /top-streak → Top users by streak
  */
@@ -67,6 +76,9 @@ public class UserController {
     private final UserService userService;
     private final StreakService streakService;
     private final UserDashboardService userDashboardService;
+    private final StudyTimeTracker studyTimeTracker;
+    private final StudyTimeService studyTimeService;
+    private final UserDirectoryService userDirectoryService;
 
     // =============== USER ENDPOINTS (For authenticated users) ===============
 
@@ -157,6 +169,36 @@ public class UserController {
         return ResponseEntity.ok(CustomApiResponse.success(streakInfo, "Lấy thông tin streak thành công"));
     }
 
+    /**
+     * ✅ Study heartbeat - chỉ ghi vào bộ nhớ, flush xuống DB theo batch
+     * POST /api/users/me/study-heartbeat
+     *
+     * Client gửi lại sau nextHeartbeatMs khi tab đang hiển thị; nhiều tab trong cùng slot chỉ tính 1 lần
+     */
+    @PostMapping("/me/study-heartbeat")
+    @Operation(summary = "Heartbeat thời gian học", description = "Trang bài học gọi định kỳ để tính thời gian học")
+    public ResponseEntity<CustomApiResponse<HeartbeatResult>> studyHeartbeat(
+            @RequestAttribute("userId") Long userId,
+            @Valid @RequestBody StudyHeartbeatRequest request) {
+
+        HeartbeatResult result = studyTimeTracker.heartbeat(userId, request.getModule());
+        return ResponseEntity.ok(CustomApiResponse.success(result));
+    }
+
+    /**
+     * ✅ Study time series
+     * GET /api/users/me/study-time?days=7
+     */
+    @GetMapping("/me/study-time")
+    @Operation(summary = "Lấy thời gian học", description = "Thời gian học theo ngày và theo module của N ngày gần nhất")
+    public ResponseEntity<CustomApiResponse<StudyTimeSeriesDto>> getStudyTime(
+            @RequestAttribute("userId") Long userId,
+            @RequestParam(defaultValue = "7") int days) {
+
+        StudyTimeSeriesDto series = studyTimeService.getSeries(userId, days);
+        return ResponseEntity.ok(CustomApiResponse.success(series, "Lấy thời gian học thành công"));
+    }
+
     /**
      * ✅ Update user profile
      * PUT /api/users/me
@@ -170,6 +212,8 @@ public class UserController {
             User updatedUser = userService.updateUser(userId, userDto);
             UserDetailDto dto = UserMapper.toDetailDto(updatedUser);
             return ResponseEntity.ok(CustomApiResponse.success(dto, "Cập nhật người dùng thành công"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(CustomApiResponse.badRequest(e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(CustomApiResponse.notFound("Không tìm thấy người dùng để cập nhật: " + e.getMessage()));
@@ -208,15 +252,17 @@ public class UserController {
     /**
      * ✅ Get all users (Admin only)
      * GET /api/users
+     *
+     * @deprecated 1 câu projection (không N+1) nhưng trả về cả danh sách, giới hạn legacy-list-limit user mới nhất.
+     *             Dùng GET /api/admin/users (keyset, lọc phía server) hoặc /api/admin/users/export
      */
+    @Deprecated
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Lấy tất cả người dùng", description = "Lấy danh sách tất cả người dùng (ADMIN)")
+    @Operation(summary = "Lấy tất cả người dùng", description = "Lấy danh sách người dùng (ADMIN). "
+            + "Deprecated: dùng GET /api/admin/users", deprecated = true)
     public ResponseEntity<CustomApiResponse<List<UserDetailDto>>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        List<UserDetailDto> userDetails = users.stream()
-                .map(UserMapper::toDetailDto)
-                .collect(Collectors.toList());
+        List<UserDetailDto> userDetails = userDirectoryService.listLegacy(null);
         return ResponseEntity.ok(CustomApiResponse.success(userDetails, "Lấy thành công tất cả người dùng"));
     }
 
@@ -347,15 +393,17 @@ public class UserController {
     /**
      * ✅ Get active users (Admin only)
      * GET /api/users/active
+     *
+     * @deprecated như getAllUsers - dùng GET /api/admin/users?isActive=true
      */
+    @Deprecated
     @GetMapping("/active")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Lấy trạng thái hoạt động của người dùng", description = "Lấy danh sách tất cả người dùng đang hoạt động")
+    @Operation(summary = "Lấy trạng thái hoạt động của người dùng", description = "Lấy danh sách người dùng đang hoạt động. "
+            + "Deprecated: dùng GET /api/admin/users?isActive=true", deprecated = true)
     public ResponseEntity<CustomApiResponse<List<UserDetailDto>>> getActiveUsers() {
-        List<User> users = userService.getActiveUsers();
-        List<UserDetailDto> userDetails = users.stream()
-                .map(UserMapper::toDetailDto)
-                .collect(Collectors.toList());
+        List<UserDetailDto> userDetails = userDirectoryService.listLegacy(
+                UserDirectoryFilter.builder().isActive(true).build());
         return ResponseEntity.ok(CustomApiResponse.success(userDetails, "Lấy người dùng hoạt động thành công"));
     }
 
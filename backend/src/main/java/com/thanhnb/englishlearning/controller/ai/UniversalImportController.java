@@ -1,5 +1,6 @@
 package com.thanhnb.englishlearning.controller.ai;
 
+import com.thanhnb.englishlearning.service.ratelimit.RateLimit;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.thanhnb.englishlearning.dto.CustomApiResponse;
 import com.thanhnb.englishlearning.dto.grammar.GrammarLessonDTO;
@@ -47,6 +48,7 @@ public class UniversalImportController {
     // =========================================================================
 
     @Operation(summary = "Parse/Generate lesson from file or instruction")
+    @RateLimit(value = "ai-import", limit = 10, windowSeconds = 3600)
     @PostMapping(value = "/parse", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<CustomApiResponse<?>> parseLesson(
             @RequestParam("moduleType") ModuleType moduleType,
@@ -0,0 +1,86 @@
+package com.thanhnb.englishlearning.controller.assessment;
+
+import com.thanhnb.englishlearning.dto.CustomApiResponse;
+import com.thanhnb.englishlearning.dto.PaginatedResponse;
+import com.thanhnb.englishlearning.dto.assessment.AssessmentDTO;
+import com.thanhnb.englishlearning.dto.assessment.OverrideAssessmentRequest;
+import com.thanhnb.englishlearning.enums.AssessmentStatus;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.exception.ResourceNotFoundException;
+import com.thanhnb.englishlearning.security.UserPrincipal;
+import com.thanhnb.englishlearning.service.assessment.OpenEndedAssessmentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * ✅ Kết quả chấm OPEN_ENDED
+ * - USER: xem điểm/nhận xét các câu tự luận của mình theo lesson
+ * - TEACHER / ADMIN: duyệt hàng đợi, chấm lại (override) bất kỳ bài nào
+ */
+@RestController
+@RequestMapping("/api/assessments")
+@RequiredArgsConstructor
+@Tag(name = "Open-ended Assessment", description = "Chấm câu hỏi tự luận")
+@SecurityRequirement(name = "bearerAuth")
+public class AssessmentController {
+
+    private final OpenEndedAssessmentService assessmentService;
+
+    @GetMapping("/me")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Kết quả chấm câu tự luận của tôi trong 1 lesson")
+    public ResponseEntity<CustomApiResponse<List<AssessmentDTO>>> getMyAssessments(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @RequestParam ModuleType module,
+            @RequestParam Long lessonId) {
+
+        return ResponseEntity.ok(CustomApiResponse.success(
+                assessmentService.getForLesson(currentUser.getId(), module, lessonId),
+                "Lấy kết quả chấm thành công"));
+    }
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    @Operation(summary = "Danh sách bài theo trạng thái chấm",
+            description = "FAILED = provider không chấm được, cần giáo viên chấm tay")
+    public ResponseEntity<CustomApiResponse<PaginatedResponse<AssessmentDTO>>> getByStatus(
+            @RequestParam(defaultValue = "FAILED") AssessmentStatus status,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        return ResponseEntity.ok(CustomApiResponse.success(
+                assessmentService.getByStatus(status, page, size),
+                "Lấy danh sách bài chấm thành công"));
+    }
+
+    @PutMapping("/{id}/override")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    @Operation(summary = "Giáo viên chấm lại",
+            description = "Ghi đè điểm tự động; điểm user cộng / trừ theo chênh lệch. "
+                    + "Điểm % của progress chỉ tăng (giữ điểm tốt nhất) - chấm lại thấp hơn không hạ progress")
+    public ResponseEntity<CustomApiResponse<AssessmentDTO>> override(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @PathVariable Long id,
+            @Valid @RequestBody OverrideAssessmentRequest request) {
+        try {
+            AssessmentDTO result = assessmentService.override(
+                    id, request.getScore(), request.getFeedback(), currentUser.getId());
+            return ResponseEntity.ok(CustomApiResponse.success(result, "Chấm lại thành công"));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(CustomApiResponse.notFound(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(CustomApiResponse.badRequest(e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.thanhnb.englishlearning.controller.attempt;
+
+import com.thanhnb.englishlearning.dto.CustomApiResponse;
+import com.thanhnb.englishlearning.dto.attempt.AnswerAttemptDTO;
+import com.thanhnb.englishlearning.security.UserPrincipal;
+import com.thanhnb.englishlearning.service.attempt.AnswerAttemptQueryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ✅ Lịch sử câu trả lời của user hiện tại
+ */
+@RestController
+@RequestMapping("/api/attempts")
+@RequiredArgsConstructor
+@PreAuthorize("isAuthenticated()")
+@Tag(name = "Answer Attempts", description = "Lịch sử câu trả lời & lỗi sai gần đây")
+@SecurityRequirement(name = "bearerAuth")
+public class AnswerAttemptController {
+
+    private final AnswerAttemptQueryService attemptQueryService;
+
+    @GetMapping("/mistakes")
+    @Operation(summary = "Câu sai gần nhất theo từng loại câu hỏi")
+    public ResponseEntity<CustomApiResponse<Map<String, List<AnswerAttemptDTO>>>> getRecentMistakes(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @Parameter(description = "Số câu mỗi loại (tối đa 20)") @RequestParam(defaultValue = "5") int perType,
+            @Parameter(description = "Số ngày gần nhất (tối đa 180)") @RequestParam(defaultValue = "30") int days) {
+
+        return ResponseEntity.ok(CustomApiResponse.success(
+                attemptQueryService.getRecentMistakesPerType(currentUser.getId(), perType, days),
+                "Lấy danh sách câu sai thành công"));
+    }
+
+    @GetMapping("/mistakes/summary")
+    @Operation(summary = "Số câu sai theo loại câu hỏi")
+    public ResponseEntity<CustomApiResponse<Map<String, Integer>>> getMistakeSummary(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @RequestParam(defaultValue = "30") int days) {
+
+        return ResponseEntity.ok(CustomApiResponse.success(
+                attemptQueryService.countRecentMistakesByType(currentUser.getId(), days),
+                "Lấy thống kê câu sai thành công"));
+    }
+
+    @GetMapping("/recent")
+    @Operation(summary = "Các câu trả lời gần nhất")
+    public ResponseEntity<CustomApiResponse<List<AnswerAttemptDTO>>> getRecentAttempts(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @Parameter(description = "Số câu (tối đa 200)") @RequestParam(defaultValue = "50") int limit) {
+
+        return ResponseEntity.ok(CustomApiResponse.success(
+                attemptQueryService.getRecentAttempts(currentUser.getId(), limit),
+                "Lấy lịch sử câu trả lời thành công"));
+    }
+}
@@ -1,5 +1,8 @@
 package com.thanhnb.englishlearning.controller.auth;
 
+import com.thanhnb.englishlearning.service.ratelimit.RateLimit;
+import com.thanhnb.englishlearning.enums.RateLimitAlgorithm;
+import com.thanhnb.englishlearning.enums.RateLimitKeyType;
 import com.thanhnb.englishlearning.dto.user.request.*;
 import com.thanhnb.englishlearning.dto.user.response.*;
 import com.thanhnb.englishlearning.service.user.AuthService;
@@ -26,6 +29,7 @@ public class AdminAuthController {
      * POST /api/auth/admin/login
      * KHÔNG CẦN verify email
      */
+    @RateLimit(value = "auth-login", limit = 20, windowSeconds = 60, algorithm = RateLimitAlgorithm.SLIDING_WINDOW, key = RateLimitKeyType.IP)
     @PostMapping("/login")
     @Operation(summary = "Admin login", description = "Authenticate admin and return JWT token")
     public ResponseEntity<CustomApiResponse<AuthResponse>> login(
@@ -65,6 +69,7 @@ public class AdminAuthController {
      * Send password reset OTP (dùng chung với user)
      * POST /api/auth/admin/forgot-password
      */
+    @RateLimit(value = "auth-otp", limit = 10, windowSeconds = 3600, key = RateLimitKeyType.IP)
     @PostMapping("/forgot-password")
     @Operation(summary = "Send password reset OTP", description = "Send OTP code for password reset")
     public ResponseEntity<?> forgotPassword(
@@ -82,6 +87,7 @@ public class AdminAuthController {
      * Verify password reset OTP
      * POST /api/auth/admin/verify-reset-password
      */
+    @RateLimit(value = "auth-otp-verify", limit = 20, windowSeconds = 600, key = RateLimitKeyType.IP)
     @PostMapping("/verify-reset-password")
     @Operation(summary = "Verify password reset OTP", description = "Verify OTP code for password reset process")
     public ResponseEntity<?> verifyResetPassword(@Valid @RequestBody VerifyOtpRequest request) {
@@ -137,10 +143,7 @@ public class AdminAuthController {
 
     // Helper method
     private String getClientIP(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
+        // X-Forwarded-For chỉ được tin khi đi qua proxy tin cậy (RemoteIpValve, server.tomcat.remoteip.*)
         return request.getRemoteAddr();
     }
 }
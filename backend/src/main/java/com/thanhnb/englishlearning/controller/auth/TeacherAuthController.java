@@ -2,8 +2,12 @@
 
 package com.thanhnb.englishlearning.controller.auth;
 
+import com.thanhnb.englishlearning.service.ratelimit.RateLimit;
+import com.thanhnb.englishlearning.enums.RateLimitAlgorithm;
+import com.thanhnb.englishlearning.enums.RateLimitKeyType;
 import com.thanhnb.englishlearning.dto.user.request.*;
 import com.thanhnb.englishlearning.dto.user.response.*;
+import com.thanhnb.englishlearning.exception.CredentialServiceBusyException;
 import com.thanhnb.englishlearning.entity.user.User;
 import com.thanhnb.englishlearning.service.user.AuthService;
 import com.thanhnb.englishlearning.dto.CustomApiResponse;
@@ -31,6 +35,7 @@ public class TeacherAuthController {
      * Đăng nhập teacher
      * POST /api/auth/teacher/login
      */
+    @RateLimit(value = "auth-login", limit = 20, windowSeconds = 60, algorithm = RateLimitAlgorithm.SLIDING_WINDOW, key = RateLimitKeyType.IP)
     @PostMapping("/login")
     @Operation(summary = "Teacher login", description = "Authenticate teacher and return JWT token")
     public ResponseEntity<CustomApiResponse<AuthResponse>> login(
@@ -74,6 +79,9 @@ public class TeacherAuthController {
                         "isVerified", createdTeacher.getIsVerified()
                     ),
                     "Tạo tài khoản Teacher thành công!"));
+        } catch (CredentialServiceBusyException e) {
+            // Hashing pool quá tải → GlobalExceptionHandler trả 503 + Retry-After
+            throw e;
         } catch (Exception e) {
             // ✅ FIX: Return error response
             return ResponseEntity.badRequest().body(
@@ -85,6 +93,7 @@ public class TeacherAuthController {
      * Send password reset OTP
      * POST /api/auth/teacher/forgot-password
      */
+    @RateLimit(value = "auth-otp", limit = 10, windowSeconds = 3600, key = RateLimitKeyType.IP)
     @PostMapping("/forgot-password")
     @Operation(summary = "Send password reset OTP", description = "Send OTP code for password reset")
     public ResponseEntity<?> forgotPassword(
@@ -102,6 +111,7 @@ public class TeacherAuthController {
      * Verify password reset OTP
      * POST /api/auth/teacher/verify-reset-password
      */
+    @RateLimit(value = "auth-otp-verify", limit = 20, windowSeconds = 600, key = RateLimitKeyType.IP)
     @PostMapping("/verify-reset-password")
     @Operation(summary = "Verify password reset OTP", description = "Verify OTP code for password reset process")
     public ResponseEntity<?> verifyResetPassword(@Valid @RequestBody VerifyOtpRequest request) {
@@ -159,10 +169,7 @@ public class TeacherAuthController {
 
     // Helper method
     private String getClientIP(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
+        // X-Forwarded-For chỉ được tin khi đi qua proxy tin cậy (RemoteIpValve, server.tomcat.remoteip.*)
         return request.getRemoteAddr();
     }
 }
\ No newline at end of file
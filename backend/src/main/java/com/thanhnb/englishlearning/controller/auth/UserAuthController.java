@@ -1,8 +1,12 @@
 package com.thanhnb.englishlearning.controller.auth;
 
+import com.thanhnb.englishlearning.service.ratelimit.RateLimit;
+import com.thanhnb.englishlearning.enums.RateLimitAlgorithm;
+import com.thanhnb.englishlearning.enums.RateLimitKeyType;
 import com.thanhnb.englishlearning.dto.user.request.*;
 import com.thanhnb.englishlearning.dto.user.response.*;
 import com.thanhnb.englishlearning.dto.CustomApiResponse;
+import com.thanhnb.englishlearning.exception.CredentialServiceBusyException;
 import com.thanhnb.englishlearning.service.user.AuthService;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -34,18 +38,11 @@ public class UserAuthController {
 
     // Lấy địa chỉ IP từ request
     private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
-        }
+        // X-Forwarded-For chỉ được tin khi đi qua proxy tin cậy (RemoteIpValve, server.tomcat.remoteip.*)
         return request.getRemoteAddr();
     }
 
+    @RateLimit(value = "auth-otp", limit = 10, windowSeconds = 3600, key = RateLimitKeyType.IP)
     @PostMapping("/register")
     @Operation(summary = "Register new user", description = "Create a new user account and send verification OTP to email")
     public ResponseEntity<CustomApiResponse<String>> register(
@@ -58,12 +55,16 @@ public class UserAuthController {
                     .body(CustomApiResponse.created(
                             "Tài khoản đã được tạo thành công! Mã OTP đã được gửi đến email " + request.getEmail(),
                             "Đăng ký thành công"));
+        } catch (CredentialServiceBusyException e) {
+            // Hashing pool quá tải → GlobalExceptionHandler trả 503 + Retry-After
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(CustomApiResponse.badRequest("Đăng ký thất bại: " + e.getMessage()));
         }
     }
 
+    @RateLimit(value = "auth-login", limit = 20, windowSeconds = 60, algorithm = RateLimitAlgorithm.SLIDING_WINDOW, key = RateLimitKeyType.IP)
     @PostMapping("/login")
     @Operation(summary = "User login", description = "Authenticate user and return JWT token")
     public ResponseEntity<CustomApiResponse<AuthResponse>> login(
@@ -74,12 +75,15 @@ public class UserAuthController {
         try {
             AuthResponse authResponse = authService.loginUser(request, ipAddress, userAgent);
             return ResponseEntity.ok(CustomApiResponse.success(authResponse, "Đăng nhập thành công"));
+        } catch (CredentialServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(CustomApiResponse.error(401, "Đăng nhập thất bại: " + e.getMessage()));
         }
     }
 
+    @RateLimit(value = "auth-otp-verify", limit = 20, windowSeconds = 600, key = RateLimitKeyType.IP)
     @PostMapping("/verify-email")
     @Operation(summary = "Verify email with OTP", description = "Verify user's email address using OTP code")
     public ResponseEntity<CustomApiResponse<String>> verifyEmail(@Valid @RequestBody VerifyOtpRequest request) {
@@ -89,12 +93,15 @@ public class UserAuthController {
             return ResponseEntity.ok(CustomApiResponse.success(
                     "Xác thực email thành công! Bạn có thể đăng nhập ngay bây giờ.",
                     "Xác thực thành công"));
+        } catch (CredentialServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(CustomApiResponse.badRequest("Xác thực thất bại: " + e.getMessage()));
         }
     }
 
+    @RateLimit(value = "auth-otp", limit = 10, windowSeconds = 3600, key = RateLimitKeyType.IP)
     @PostMapping("/resend-verify-email")
     @Operation(summary = "Resend verification email", description = "Resend OTP code for email verification")
     public ResponseEntity<CustomApiResponse<String>> resendVerifyEmail(
@@ -106,6 +113,8 @@ public class UserAuthController {
             return ResponseEntity.ok(CustomApiResponse.success(
                     "Mã OTP mới đã được gửi đến email: " + request.getEmail(),
                     "Gửi lại OTP thành công"));
+        } catch (CredentialServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(CustomApiResponse.badRequest("Gửi lại OTP thất bại: " + e.getMessage()));
@@ -114,6 +123,7 @@ public class UserAuthController {
         }
     }
 
+    @RateLimit(value = "auth-otp", limit = 10, windowSeconds = 3600, key = RateLimitKeyType.IP)
     @PostMapping("/forgot-password")
     @Operation(summary = "Forgot password", description = "Send OTP code for password reset")
     public ResponseEntity<CustomApiResponse<String>> forgotPassword(
@@ -125,12 +135,15 @@ public class UserAuthController {
             return ResponseEntity.ok(CustomApiResponse.success(
                     "Mã OTP reset password đã được gửi đến email: " + request.getEmail(),
                     "Gửi OTP reset password thành công"));
+        } catch (CredentialServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(CustomApiResponse.badRequest("Gửi OTP thất bại: " + e.getMessage()));
         }
     }
 
+    @RateLimit(value = "auth-otp-verify", limit = 20, windowSeconds = 600, key = RateLimitKeyType.IP)
     @PostMapping("/verify-reset-password")
     @Operation(summary = "Verify reset password OTP", description = "Verify OTP code for password reset process")
     public ResponseEntity<CustomApiResponse<String>> verifyResetPassword(@Valid @RequestBody VerifyOtpRequest request) {
@@ -140,6 +153,8 @@ public class UserAuthController {
             return ResponseEntity.ok(CustomApiResponse.success(
                     "Xác thực OTP thành công! Bạn có thể đặt lại mật khẩu mới.",
                     "Xác thực OTP reset password thành công"));
+        } catch (CredentialServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(CustomApiResponse.badRequest("Xác thực thất bại: " + e.getMessage()));
@@ -169,6 +184,8 @@ public class UserAuthController {
             return ResponseEntity.ok(CustomApiResponse.success(
                     "Đăng xuất thành công",
                     "Logout successful"));
+        } catch (CredentialServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Logout failed: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -192,6 +209,8 @@ public class UserAuthController {
                     "Đã đăng xuất tất cả thiết bị",
                     "Logout all sessions successful"));
 
+        } catch (CredentialServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Logout all failed: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -288,7 +288,7 @@ public class GrammarAdminController {
 
         @PostMapping("/lessons/{lessonId}/questions/fix-order")
         public ResponseEntity<CustomApiResponse<Void>> fixQuestionOrder(@PathVariable Long lessonId) {
-                grammarQuestionService.fixOrderIndexes(lessonId);
+                grammarQuestionService.rebalanceOrder(lessonId);
                 return ResponseEntity.ok(CustomApiResponse.success(null, "Đã sắp xếp lại thứ tự"));
         }
 
@@ -303,7 +303,7 @@ public class GrammarAdminController {
 
                 try {
                         // Delegate to GrammarLessonService
-                        grammarLessonService.fixOrderIndexes(topicId);
+                        grammarLessonService.rebalanceOrder(topicId);
 
                         return ResponseEntity.ok(CustomApiResponse.success(
                                         "Đã chuẩn hóa orderIndex",
@@ -1,11 +1,13 @@
 package com.thanhnb.englishlearning.controller.grammar;
 
+import com.thanhnb.englishlearning.service.ratelimit.RateLimit;
 import com.thanhnb.englishlearning.dto.grammar.*;
 import com.thanhnb.englishlearning.dto.topic.TopicUserDto;
 import com.thanhnb.englishlearning.dto.CustomApiResponse;
 import com.thanhnb.englishlearning.entity.grammar.UserGrammarProgress;
 import com.thanhnb.englishlearning.security.UserPrincipal;
 import com.thanhnb.englishlearning.service.grammar.GrammarLearningService;
+import com.thanhnb.englishlearning.service.catalog.CatalogVersionService;
 import com.thanhnb.englishlearning.service.topic.UserTopicService;
 import com.thanhnb.englishlearning.enums.ModuleType;
 import com.fasterxml.jackson.annotation.JsonView;
@@ -13,10 +15,12 @@ import com.thanhnb.englishlearning.config.Views;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
@@ -40,6 +44,7 @@ public class GrammarController {
 
         private final GrammarLearningService grammarService;
         private final UserTopicService userTopicService;
+        private final CatalogVersionService catalogVersionService;
 
         // ═══════════════════════════════════════════════════════════
         // TOPIC APIs
@@ -48,17 +53,28 @@ public class GrammarController {
         @GetMapping("/topics")
         @Operation(summary = "Lấy danh sách Grammar topics", description = "Trả về danh sách chủ đề ngữ pháp kèm bài học")
         public ResponseEntity<CustomApiResponse<List<TopicUserDto>>> getGrammarTopics(
-                        @AuthenticationPrincipal UserPrincipal currentUser) {
+                        @AuthenticationPrincipal UserPrincipal currentUser,
+                        WebRequest webRequest) {
 
                 log.info("User {} fetching grammar topics", currentUser.getId());
 
+                // ETag = version topic/lesson của module + version progress của user → 304 không chạm DB
+                String etag = catalogVersionService.etag(List.of(
+                                CatalogVersionService.moduleField(ModuleType.GRAMMAR),
+                                CatalogVersionService.userField(currentUser.getId())),
+                                currentUser.getId());
+                if (etag != null && webRequest.checkNotModified(etag)) {
+                        return null;
+                }
+
                 List<TopicUserDto> topics = userTopicService.getTopicsForUser(
                                 ModuleType.GRAMMAR,
                                 currentUser.getId());
 
                 log.debug("Found {} grammar topics for user {}", topics.size(), currentUser.getId());
 
-                return ResponseEntity.ok(CustomApiResponse.success(
+                return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                                .body(CustomApiResponse.success(
                                 topics,
                                 "Lấy danh sách chủ đề ngữ pháp thành công"));
         }
@@ -72,11 +88,22 @@ public class GrammarController {
         @Operation(summary = "Lấy bài học theo topic")
         public ResponseEntity<CustomApiResponse<List<GrammarLessonDTO>>> getLessonsByTopic(
                         @Parameter(description = "ID của topic") @PathVariable Long topicId,
-                        @AuthenticationPrincipal UserPrincipal currentUser) {
+                        @AuthenticationPrincipal UserPrincipal currentUser,
+                        WebRequest webRequest) {
 
                 log.info("User {} fetching lessons for grammar topic {}",
                                 currentUser.getId(), topicId);
 
+                // Lesson list: module (xóa/sửa lesson), topic, progress của user
+                String etag = catalogVersionService.etag(List.of(
+                                CatalogVersionService.moduleField(ModuleType.GRAMMAR),
+                                CatalogVersionService.topicField(topicId),
+                                CatalogVersionService.userField(currentUser.getId())),
+                                currentUser.getId(), topicId);
+                if (etag != null && webRequest.checkNotModified(etag)) {
+                        return null;
+                }
+
                 List<GrammarLessonDTO> lessons = grammarService.getAllLessonsForUser(
                                 currentUser.getId(),
                                 topicId);
@@ -84,7 +111,8 @@ public class GrammarController {
                 log.debug("Found {} lessons in grammar topic {} for user {}",
                                 lessons.size(), topicId, currentUser.getId());
 
-                return ResponseEntity.ok(CustomApiResponse.success(
+                return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                                .body(CustomApiResponse.success(
                                 lessons,
                                 "Lấy danh sách bài học thành công"));
         }
@@ -95,29 +123,27 @@ public class GrammarController {
         @Operation(summary = "Lấy nội dung bài học")
         public ResponseEntity<CustomApiResponse<GrammarLessonDTO>> getLessonContent(
                         @Parameter(description = "ID của bài học") @PathVariable Long lessonId,
-                        @AuthenticationPrincipal UserPrincipal currentUser) {
+                        @AuthenticationPrincipal UserPrincipal currentUser,
+                        WebRequest webRequest) {
 
                 log.info("User {} fetching grammar lesson {}", currentUser.getId(), lessonId);
 
+                // Nội dung lesson + trạng thái của user (progress, thứ tự xáo trộn theo lần làm)
+                String etag = catalogVersionService.etag(List.of(
+                                CatalogVersionService.lessonField(ModuleType.GRAMMAR, lessonId),
+                                CatalogVersionService.userField(currentUser.getId())),
+                                currentUser.getId(), lessonId);
+                if (etag != null && webRequest.checkNotModified(etag)) {
+                        return null;
+                }
+
                 try {
                         GrammarLessonDTO lesson = grammarService.getLessonDetail(
                                         lessonId,
                                         currentUser.getId());
 
                         log.info("✅ Service returned lesson: {}", lesson.getTitle());
-                        log.info("✅ Has groupedQuestions: {}", lesson.getGroupedQuestions() != null);
-
-                        if (lesson.getGroupedQuestions() != null) {
-                                log.info("  - Tasks: {}",
-                                                lesson.getGroupedQuestions().getTasks() != null
-                                                                ? lesson.getGroupedQuestions().getTasks().size()
-                                                                : 0);
-                                log.info("  - Standalone: {}",
-                                                lesson.getGroupedQuestions().getStandaloneQuestions() != null
-                                                                ? lesson.getGroupedQuestions().getStandaloneQuestions()
-                                                                                .size()
-                                                                : 0);
-                        }
+                        log.info("✅ Questions: {}", lesson.getQuestionCount());
 
                         CustomApiResponse<GrammarLessonDTO> response = CustomApiResponse.success(
                                         lesson,
@@ -125,7 +151,8 @@ public class GrammarController {
 
                         log.info("✅ Built response successfully");
 
-                        return ResponseEntity.ok(response);
+                        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                                        .body(response);
 
                 } catch (Exception e) {
                         log.error("❌ ERROR in getLessonContent: {}", e.getMessage(), e);
@@ -182,6 +209,7 @@ public class GrammarController {
                 }
         }
 
+        @RateLimit(value = "lesson-submit", limit = 30, windowSeconds = 60)
         @PostMapping("/lessons/submit")
         @Operation(summary = "Nộp bài tập")
         public ResponseEntity<CustomApiResponse<GrammarSubmitResponse>> submitLesson(
@@ -158,7 +158,7 @@ public class ListeningAdminController {
     @Operation(summary = "Chuẩn hóa orderIndex của lessons trong topic")
     public ResponseEntity<CustomApiResponse<String>> fixLessonOrder(@PathVariable Long topicId) {
         try {
-            lessonService.fixOrderIndexes(topicId);
+            lessonService.rebalanceOrder(topicId);
             return ResponseEntity.ok(CustomApiResponse.success("Đã chuẩn hóa orderIndex", "Thành công"));
         } catch (Exception e) {
             log.error("Error fixing lesson order: ", e);
@@ -239,7 +239,7 @@ public class ListeningAdminController {
 
     @PostMapping("/lessons/{lessonId}/questions/fix-order")
     public ResponseEntity<CustomApiResponse<Void>> fixOrder(@PathVariable Long lessonId) {
-        listeningQuestionService.fixOrderIndexes(lessonId);
+        listeningQuestionService.rebalanceOrder(lessonId);
         return ResponseEntity.ok(CustomApiResponse.success(null, "Đã sắp xếp lại thứ tự"));
     }
 }
\ No newline at end of file
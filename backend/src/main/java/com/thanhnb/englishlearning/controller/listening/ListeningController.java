@@ -1,5 +1,6 @@
 package com.thanhnb.englishlearning.controller.listening;
 
+import com.thanhnb.englishlearning.service.ratelimit.RateLimit;
 import com.thanhnb.englishlearning.dto.CustomApiResponse;
 import com.thanhnb.englishlearning.dto.listening.ListeningLessonDTO;
 import com.thanhnb.englishlearning.dto.listening.ListeningSubmitRequest;
@@ -8,6 +9,7 @@ import com.thanhnb.englishlearning.dto.topic.TopicUserDto;
 import com.thanhnb.englishlearning.entity.listening.UserListeningProgress;
 import com.thanhnb.englishlearning.security.UserPrincipal;
 import com.thanhnb.englishlearning.service.listening.ListeningLearningService;
+import com.thanhnb.englishlearning.service.catalog.CatalogVersionService;
 import com.thanhnb.englishlearning.service.topic.UserTopicService;
 import com.thanhnb.englishlearning.enums.ModuleType;
 
@@ -20,10 +22,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import com.fasterxml.jackson.annotation.JsonView;
 import com.thanhnb.englishlearning.config.Views;
 
@@ -46,6 +50,7 @@ public class ListeningController {
 
         private final ListeningLearningService listeningService;
         private final UserTopicService userTopicService;
+        private final CatalogVersionService catalogVersionService;
 
         // ═══════════════════════════════════════════════════════════
         // TOPIC APIs
@@ -54,17 +59,28 @@ public class ListeningController {
         @GetMapping("/topics")
         @Operation(summary = "Lấy danh sách Listening topics")
         public ResponseEntity<CustomApiResponse<List<TopicUserDto>>> getListeningTopics(
-                        @AuthenticationPrincipal UserPrincipal currentUser) {
+                        @AuthenticationPrincipal UserPrincipal currentUser,
+                        WebRequest webRequest) {
 
                 log.info("User {} fetching listening topics", currentUser.getId());
 
+                // ETag = version topic/lesson của module + version progress của user → 304 không chạm DB
+                String etag = catalogVersionService.etag(List.of(
+                                CatalogVersionService.moduleField(ModuleType.LISTENING),
+                                CatalogVersionService.userField(currentUser.getId())),
+                                currentUser.getId());
+                if (etag != null && webRequest.checkNotModified(etag)) {
+                        return null;
+                }
+
                 List<TopicUserDto> topics = userTopicService.getTopicsForUser(
                                 ModuleType.LISTENING,
                                 currentUser.getId());
 
                 log.debug("Found {} listening topics for user {}", topics.size(), currentUser.getId());
 
-                return ResponseEntity.ok(CustomApiResponse.success(
+                return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                                .body(CustomApiResponse.success(
                                 topics,
                                 "Lấy danh sách chủ đề bài nghe thành công"));
         }
@@ -78,18 +94,30 @@ public class ListeningController {
         @Operation(summary = "Lấy bài nghe theo topic")
         public ResponseEntity<CustomApiResponse<List<ListeningLessonDTO>>> getLessonsByTopic(
                         @AuthenticationPrincipal UserPrincipal currentUser,
-                        @PathVariable Long topicId) {
+                        @PathVariable Long topicId,
+                        WebRequest webRequest) {
 
                 log.info("User {} fetching lessons for listening topic {}",
                                 currentUser.getId(), topicId);
 
+                // Lesson list: module (xóa/sửa lesson), topic, progress của user
+                String etag = catalogVersionService.etag(List.of(
+                                CatalogVersionService.moduleField(ModuleType.LISTENING),
+                                CatalogVersionService.topicField(topicId),
+                                CatalogVersionService.userField(currentUser.getId())),
+                                currentUser.getId(), topicId);
+                if (etag != null && webRequest.checkNotModified(etag)) {
+                        return null;
+                }
+
                 List<ListeningLessonDTO> lessons = listeningService
                                 .getAllLessonsForUser(currentUser.getId(), topicId);
 
                 log.debug("Found {} lessons in listening topic {} for user {}",
                                 lessons.size(), topicId, currentUser.getId());
 
-                return ResponseEntity.ok(CustomApiResponse.success(
+                return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                                .body(CustomApiResponse.success(
                                 lessons,
                                 "Lấy danh sách bài nghe thành công"));
         }
@@ -99,19 +127,31 @@ public class ListeningController {
         @Operation(summary = "Lấy chi tiết bài nghe")
         public ResponseEntity<CustomApiResponse<ListeningLessonDTO>> getLessonDetail(
                         @AuthenticationPrincipal UserPrincipal currentUser,
-                        @PathVariable Long lessonId) {
+                        @PathVariable Long lessonId,
+                        WebRequest webRequest) {
 
                 log.info("User {} fetching listening lesson {}", currentUser.getId(), lessonId);
 
+                // Nội dung lesson + trạng thái của user (progress, transcript, thứ tự xáo trộn theo lần làm)
+                String etag = catalogVersionService.etag(List.of(
+                                CatalogVersionService.lessonField(ModuleType.LISTENING, lessonId),
+                                CatalogVersionService.userField(currentUser.getId())),
+                                currentUser.getId(), lessonId);
+                if (etag != null && webRequest.checkNotModified(etag)) {
+                        return null;
+                }
+
                 ListeningLessonDTO lesson = listeningService.getLessonDetail(
                                 lessonId,
                                 currentUser.getId());
 
-                return ResponseEntity.ok(CustomApiResponse.success(
+                return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                                .body(CustomApiResponse.success(
                                 lesson,
                                 "Lấy chi tiết bài nghe thành công"));
         }
 
+        @RateLimit(value = "lesson-submit", limit = 30, windowSeconds = 60)
         @PostMapping("/lessons/{lessonId}/submit")
         @Operation(summary = "Nộp bài nghe")
         public ResponseEntity<CustomApiResponse<ListeningSubmitResponse>> submitLesson(
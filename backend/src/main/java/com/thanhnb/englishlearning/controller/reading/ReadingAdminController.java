@@ -132,7 +132,7 @@ public class ReadingAdminController {
         @Operation(summary = "Chuẩn hóa orderIndex của lessons trong topic")
         public ResponseEntity<CustomApiResponse<String>> fixLessonOrder(@PathVariable Long topicId) {
                 try {
-                        lessonService.fixOrderIndexes(topicId);
+                        lessonService.rebalanceOrder(topicId);
                         return ResponseEntity.ok(CustomApiResponse.success("Đã chuẩn hóa orderIndex", "Thành công"));
                 } catch (Exception e) {
                         log.error("Error fixing lesson order: ", e);
@@ -215,7 +215,7 @@ public class ReadingAdminController {
 
         @PostMapping("/lessons/{lessonId}/questions/fix-order")
         public ResponseEntity<CustomApiResponse<Void>> fixOrder(@PathVariable Long lessonId) {
-                readingQuestionService.fixOrderIndexes(lessonId);
+                readingQuestionService.rebalanceOrder(lessonId);
                 return ResponseEntity.ok(CustomApiResponse.success(null, "Đã sắp xếp lại thứ tự"));
         }
 }
\ No newline at end of file
@@ -1,19 +1,23 @@
 package com.thanhnb.englishlearning.controller.reading;
 
+import com.thanhnb.englishlearning.service.ratelimit.RateLimit;
 import com.thanhnb.englishlearning.dto.reading.*;
 import com.thanhnb.englishlearning.dto.CustomApiResponse;
 import com.thanhnb.englishlearning.dto.topic.TopicUserDto;
 import com.thanhnb.englishlearning.entity.reading.UserReadingProgress;
 import com.thanhnb.englishlearning.service.reading.ReadingLearningService;
+import com.thanhnb.englishlearning.service.catalog.CatalogVersionService;
 import com.thanhnb.englishlearning.service.topic.UserTopicService;
 import com.thanhnb.englishlearning.security.UserPrincipal;
 import com.thanhnb.englishlearning.enums.ModuleType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import com.fasterxml.jackson.annotation.JsonView;
 import com.thanhnb.englishlearning.config.Views;
 
@@ -42,6 +46,7 @@ public class ReadingController {
 
         private final ReadingLearningService readingService;
         private final UserTopicService userTopicService;
+        private final CatalogVersionService catalogVersionService;
 
         // ═══════════════════════════════════════════════════════════
         // TOPIC APIs
@@ -50,17 +55,28 @@ public class ReadingController {
         @GetMapping("/topics")
         @Operation(summary = "Lấy danh sách Reading topics")
         public ResponseEntity<CustomApiResponse<List<TopicUserDto>>> getReadingTopics(
-                        @AuthenticationPrincipal UserPrincipal currentUser) {
+                        @AuthenticationPrincipal UserPrincipal currentUser,
+                        WebRequest webRequest) {
 
                 log.info("User {} fetching reading topics", currentUser.getId());
 
+                // ETag = version topic/lesson của module + version progress của user → 304 không chạm DB
+                String etag = catalogVersionService.etag(List.of(
+                                CatalogVersionService.moduleField(ModuleType.READING),
+                                CatalogVersionService.userField(currentUser.getId())),
+                                currentUser.getId());
+                if (etag != null && webRequest.checkNotModified(etag)) {
+                        return null;
+                }
+
                 List<TopicUserDto> topics = userTopicService.getTopicsForUser(
                                 ModuleType.READING,
                                 currentUser.getId());
 
                 log.debug("Found {} reading topics for user {}", topics.size(), currentUser.getId());
 
-                return ResponseEntity.ok(CustomApiResponse.success(
+                return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                                .body(CustomApiResponse.success(
                                 topics,
                                 "Lấy danh sách chủ đề bài đọc thành công"));
         }
@@ -74,18 +90,30 @@ public class ReadingController {
         @Operation(summary = "Lấy bài đọc theo topic")
         public ResponseEntity<CustomApiResponse<List<ReadingLessonDTO>>> getLessonsByTopic(
                         @AuthenticationPrincipal UserPrincipal currentUser,
-                        @PathVariable Long topicId) {
+                        @PathVariable Long topicId,
+                        WebRequest webRequest) {
 
                 log.info("User {} fetching lessons for reading topic {}",
                                 currentUser.getId(), topicId);
 
+                // Lesson list: module (xóa/sửa lesson), topic, progress của user
+                String etag = catalogVersionService.etag(List.of(
+                                CatalogVersionService.moduleField(ModuleType.READING),
+                                CatalogVersionService.topicField(topicId),
+                                CatalogVersionService.userField(currentUser.getId())),
+                                currentUser.getId(), topicId);
+                if (etag != null && webRequest.checkNotModified(etag)) {
+                        return null;
+                }
+
                 List<ReadingLessonDTO> lessons = readingService
                                 .getAllLessonsForUser(currentUser.getId(), topicId);
 
                 log.debug("Found {} lessons in reading topic {} for user {}",
                                 lessons.size(), topicId, currentUser.getId());
 
-                return ResponseEntity.ok(CustomApiResponse.success(
+                return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                                .body(CustomApiResponse.success(
                                 lessons,
                                 "Lấy danh sách bài đọc thành công"));
         }
@@ -95,19 +123,31 @@ public class ReadingController {
         @Operation(summary = "Lấy chi tiết bài đọc")
         public ResponseEntity<CustomApiResponse<ReadingLessonDTO>> getLessonDetail(
                         @AuthenticationPrincipal UserPrincipal currentUser,
-                        @PathVariable Long lessonId) {
+                        @PathVariable Long lessonId,
+                        WebRequest webRequest) {
 
                 log.info("User {} fetching reading lesson {}", currentUser.getId(), lessonId);
 
+                // Nội dung lesson + trạng thái của user (progress, thứ tự xáo trộn theo lần làm)
+                String etag = catalogVersionService.etag(List.of(
+                                CatalogVersionService.lessonField(ModuleType.READING, lessonId),
+                                CatalogVersionService.userField(currentUser.getId())),
+                                currentUser.getId(), lessonId);
+                if (etag != null && webRequest.checkNotModified(etag)) {
+                        return null;
+                }
+
                 ReadingLessonDTO lesson = readingService.getLessonDetail(
                                 lessonId,
                                 currentUser.getId());
 
-                return ResponseEntity.ok(CustomApiResponse.success(
+                return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                                .body(CustomApiResponse.success(
                                 lesson,
                                 "Lấy chi tiết bài đọc thành công"));
         }
 
+        @RateLimit(value = "lesson-submit", limit = 30, windowSeconds = 60)
         @PostMapping("/lessons/{lessonId}/submit")
         @Operation(summary = "Nộp bài đọc")
         public ResponseEntity<CustomApiResponse<ReadingSubmitResponse>> submitLesson(
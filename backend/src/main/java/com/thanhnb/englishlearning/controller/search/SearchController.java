@@ -0,0 +1,67 @@
+package com.thanhnb.englishlearning.controller.search;
+
+import com.thanhnb.englishlearning.dto.CustomApiResponse;
+import com.thanhnb.englishlearning.dto.PaginatedResponse;
+import com.thanhnb.englishlearning.dto.search.SearchResultDTO;
+import com.thanhnb.englishlearning.enums.EnglishLevel;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.enums.SearchDocType;
+import com.thanhnb.englishlearning.security.UserPrincipal;
+import com.thanhnb.englishlearning.service.search.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * ✅ Full-text search cho lessons, transcripts và questions
+ * - USER chỉ thấy nội dung đang active
+ * - ADMIN / TEACHER thấy cả nội dung đã ẩn
+ */
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@PreAuthorize("isAuthenticated()")
+@Tag(name = "Search", description = "Tìm kiếm toàn văn bài học và câu hỏi")
+@SecurityRequirement(name = "bearerAuth")
+@Slf4j
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @GetMapping
+    @Operation(summary = "Tìm kiếm bài học / câu hỏi",
+            description = "Cú pháp websearch: \"cụm từ\", -loại trừ, OR. Kết quả xếp hạng theo độ liên quan, snippet highlight bằng <mark>")
+    public ResponseEntity<CustomApiResponse<PaginatedResponse<SearchResultDTO>>> search(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @Parameter(description = "Từ khóa") @RequestParam("q") String query,
+            @RequestParam(required = false) ModuleType module,
+            @RequestParam(required = false) EnglishLevel level,
+            @RequestParam(required = false) Long topicId,
+            @Parameter(description = "LESSON hoặc QUESTION") @RequestParam(required = false) SearchDocType type,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "10") int size) {
+
+        if (query == null || query.isBlank()) {
+            return ResponseEntity.badRequest()
+                    .body(CustomApiResponse.badRequest("Từ khóa tìm kiếm không được để trống"));
+        }
+
+        boolean canSeeInactive = currentUser.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()) || "ROLE_TEACHER".equals(a.getAuthority()));
+
+        log.debug("User {} searching '{}' (module={}, level={}, topic={}, type={})",
+                currentUser.getId(), query, module, level, topicId, type);
+
+        PaginatedResponse<SearchResultDTO> result = searchService.search(
+                query, module, level, topicId, type, !canSeeInactive, page, size);
+
+        return ResponseEntity.ok(CustomApiResponse.success(result, "Tìm kiếm thành công"));
+    }
+}
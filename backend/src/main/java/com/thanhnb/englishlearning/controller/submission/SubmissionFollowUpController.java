@@ -0,0 +1,47 @@
+package com.thanhnb.englishlearning.controller.submission;
+
+import com.thanhnb.englishlearning.dto.CustomApiResponse;
+import com.thanhnb.englishlearning.dto.common.SubmissionFollowUpDTO;
+import com.thanhnb.englishlearning.security.UserPrincipal;
+import com.thanhnb.englishlearning.service.common.SubmissionFollowUpService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * ✅ Kết quả xử lý sau nộp bài (check nâng level chưa xong kịp trong response nộp bài)
+ *
+ * Client poll theo followUpId tới khi status != PENDING.
+ */
+@RestController
+@RequestMapping("/api/submissions")
+@RequiredArgsConstructor
+@PreAuthorize("isAuthenticated()")
+@Tag(name = "Submission Follow-up", description = "Kết quả nâng cấp trình độ sau khi nộp bài")
+@SecurityRequirement(name = "bearerAuth")
+public class SubmissionFollowUpController {
+
+    private final SubmissionFollowUpService followUpService;
+
+    @GetMapping("/follow-up/{followUpId}")
+    @Operation(summary = "Kết quả nâng cấp trình độ của 1 lần nộp bài",
+            description = "404 = không tồn tại hoặc đã hết hạn")
+    public ResponseEntity<CustomApiResponse<SubmissionFollowUpDTO>> getFollowUp(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @PathVariable String followUpId) {
+
+        return followUpService.get(currentUser.getId(), followUpId)
+                .map(dto -> ResponseEntity.ok(CustomApiResponse.success(dto, "Lấy kết quả thành công")))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(CustomApiResponse.notFound("Không tìm thấy kết quả hoặc đã hết hạn")));
+    }
+}
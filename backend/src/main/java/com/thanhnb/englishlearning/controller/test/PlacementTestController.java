@@ -1,5 +1,6 @@
 package com.thanhnb.englishlearning.controller.test;
 
+import com.thanhnb.englishlearning.service.ratelimit.RateLimit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -28,6 +29,7 @@ public class PlacementTestController {
      * GET /api/user/placement-test
      * Lấy đề thi placement test (30 câu từ Grammar, Reading, Listening)
      */
+    @RateLimit(value = "placement-test", limit = 10, windowSeconds = 3600)
     @GetMapping
     @PreAuthorize("hasRole('USER')") // Chỉ user đã đăng nhập mới làm được
     @Operation(summary = "Lấy đề thi placement test", description = "Trả về đề thi gồm 3 phần: Grammar, Reading, Listening. "
@@ -48,6 +50,7 @@ public class PlacementTestController {
      * POST /api/user/placement-test/submit
      * Nộp bài thi và nhận kết quả + cập nhật English Level
      */
+    @RateLimit(value = "placement-test", limit = 10, windowSeconds = 3600)
     @PostMapping("/submit")
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Nộp bài placement test", description = "Chấm điểm, xác định level (A1-C1) và cập nhật vào hồ sơ user. "
@@ -2,15 +2,17 @@ package com.thanhnb.englishlearning.controller.topic;
 
 import com.thanhnb.englishlearning.dto.CustomApiResponse;
 import com.thanhnb.englishlearning.dto.PaginatedResponse;
+import com.thanhnb.englishlearning.dto.common.DeletionReport;
 import com.thanhnb.englishlearning.dto.topic.TopicDto;
 import com.thanhnb.englishlearning.dto.topic.request.CreateTopicRequest;
+import com.thanhnb.englishlearning.dto.topic.request.TopicFilterRequest;
 import com.thanhnb.englishlearning.dto.topic.request.UpdateTopicRequest;
-import com.thanhnb.englishlearning.entity.user.User;
 import com.thanhnb.englishlearning.enums.ModuleType;
 import com.thanhnb.englishlearning.enums.UserRole;
+import com.thanhnb.englishlearning.security.UserPrincipal;
+import com.thanhnb.englishlearning.service.catalog.CatalogVersionService;
 import com.thanhnb.englishlearning.service.topic.TeacherAssignmentService;
 import com.thanhnb.englishlearning.service.topic.TopicService;
-import com.thanhnb.englishlearning.service.user.UserService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -18,10 +20,15 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/admin/topics")
@@ -32,26 +39,38 @@ public class ModuleTopicController {
 
     private final TopicService topicService;
     private final TeacherAssignmentService assignmentService;
-    private final UserService userService;
+    private final CatalogVersionService catalogVersionService;
 
     // ==================== READ (ADMIN & TEACHER) ====================
 
     /**
      * ✅ Get all topics by module
-     * ADMIN: Can see all topics
+     * ADMIN: Can see all topics, kèm số lesson / câu hỏi / giáo viên - sort & lọc được theo các số đếm
      * TEACHER: Can see all topics (read-only for teachers)
      */
     @GetMapping("/{moduleType}")
     @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
-    @Operation(summary = "Get all topics by module", description = "Both Admin and Teacher can view all topics")
+    @Operation(summary = "Get all topics by module", description = "Both Admin and Teacher can view all topics. "
+            + "Admin: sort=lessonCount|activeLessonCount|questionCount|teacherCount[:desc] và bộ lọc min/max")
     public ResponseEntity<CustomApiResponse<PaginatedResponse<TopicDto>>> getTopicsByModule(
             @PathVariable ModuleType moduleType,
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "orderIndex") String sort) {
+            @RequestParam(defaultValue = "orderIndex") String sort,
+            @Valid @ModelAttribute TopicFilterRequest filter,
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            WebRequest webRequest) {
 
         try {
-            User currentUser = userService.getCurrentUser();
+            // id + role lấy từ principal → 304 không chạm DB
+            // Teacher: danh sách theo phân công → kèm version của user
+            String etag = catalogVersionService.etag(List.of(
+                    CatalogVersionService.moduleField(moduleType),
+                    CatalogVersionService.userField(currentUser.getId())),
+                    currentUser.getRole(), currentUser.getId(), page, size, sort, filter);
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                return null;
+            }
 
             log.info("📄 {} requesting topics: module={}, page={}, size={}",
                     currentUser.getRole(), moduleType, page, size);
@@ -61,7 +80,7 @@ public class ModuleTopicController {
             // ✅ Role-based filtering using existing services
             if (currentUser.getRole() == UserRole.ADMIN) {
                 // Admin sees ALL topics via TopicService
-                response = topicService.getAllTopics(moduleType, page, size, sort);
+                response = topicService.getAllTopics(moduleType, page, size, sort, filter);
                 log.info("✅ Admin: loaded {} topics (all)", response.getTotalElements());
 
             } else if (currentUser.getRole() == UserRole.TEACHER) {
@@ -78,10 +97,14 @@ public class ModuleTopicController {
                         .body(CustomApiResponse.error(403, "Không có quyền truy cập"));
             }
 
-            return ResponseEntity.ok(CustomApiResponse.success(
-                    response,
-                    "Lấy danh sách chủ đề thành công"));
+            return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(CustomApiResponse.success(
+                            response,
+                            "Lấy danh sách chủ đề thành công"));
 
+        } catch (IllegalArgumentException e) {
+            // Sort theo field không hỗ trợ
+            return ResponseEntity.badRequest().body(CustomApiResponse.badRequest(e.getMessage()));
         } catch (Exception e) {
             log.error("❌ Error loading topics: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -95,9 +118,18 @@ public class ModuleTopicController {
     @GetMapping("/detail/{topicId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
     @Operation(summary = "Get topic details by ID")
-    public ResponseEntity<CustomApiResponse<TopicDto>> getTopicById(@PathVariable Long topicId) {
+    public ResponseEntity<CustomApiResponse<TopicDto>> getTopicById(@PathVariable Long topicId,
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            WebRequest webRequest) {
         try {
-            User currentUser = userService.getCurrentUser();
+            // id + role lấy từ principal → 304 không chạm DB
+            String etag = catalogVersionService.etag(List.of(
+                    CatalogVersionService.topicField(topicId),
+                    CatalogVersionService.userField(currentUser.getId())),
+                    currentUser.getRole(), currentUser.getId(), topicId);
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                return null;
+            }
 
             // Check permission for teachers
             if (currentUser.getRole() == UserRole.TEACHER) {
@@ -113,7 +145,8 @@ public class ModuleTopicController {
             }
 
             TopicDto topic = topicService.getTopicById(topicId);
-            return ResponseEntity.ok(CustomApiResponse.success(topic, "Success"));
+            return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(CustomApiResponse.success(topic, "Success"));
 
         } catch (Exception e) {
             log.error("❌ Error getting topic: {}", e.getMessage(), e);
@@ -161,9 +194,12 @@ public class ModuleTopicController {
     @DeleteMapping("/{topicId}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Delete Topic (ADMIN ONLY)", description = "Only Admin can delete topics")
-    public ResponseEntity<CustomApiResponse<String>> deleteTopic(@PathVariable Long topicId) {
-        topicService.deleteTopic(topicId);
-        return ResponseEntity.ok(CustomApiResponse.success("Đã xóa topic và sắp xếp lại danh sách", "Thành công"));
+    public ResponseEntity<CustomApiResponse<DeletionReport>> deleteTopic(@PathVariable Long topicId) {
+        DeletionReport report = topicService.deleteTopic(topicId);
+        String message = report.isSoftDeleted()
+                ? "Đã ẩn topic, dữ liệu sẽ được xóa dần trong nền"
+                : "Đã xóa topic (" + report.getTotalRows() + " bản ghi)";
+        return ResponseEntity.ok(CustomApiResponse.success(report, message));
     }
 
     /**
@@ -180,12 +216,14 @@ public class ModuleTopicController {
 
     /**
      * ✅ Fix order indexes - ADMIN ONLY
+     * Dàn đều lại order_index (gap, 2*gap, ...) - kéo thả dùng /api/admin/ordering
      */
     @PostMapping("/{moduleType}/fix-index")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Fix Order Indexes (ADMIN ONLY)", description = "Only Admin can fix order indexes")
     public ResponseEntity<CustomApiResponse<String>> fixOrderIndexes(@PathVariable ModuleType moduleType) {
-        topicService.fixOrderIndexes(moduleType);
-        return ResponseEntity.ok(CustomApiResponse.success("Đã chuẩn hóa thứ tự topic", "Thành công"));
+        int updated = topicService.rebalanceOrder(moduleType);
+        return ResponseEntity.ok(CustomApiResponse.success(
+                "Đã chuẩn hóa thứ tự topic (" + updated + " topic thay đổi)", "Thành công"));
     }
 }
\ No newline at end of file
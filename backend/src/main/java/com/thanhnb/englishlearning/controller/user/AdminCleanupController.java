@@ -1,9 +1,11 @@
 package com.thanhnb.englishlearning.controller.user;
 
 import com.thanhnb.englishlearning.dto.CustomApiResponse;
+import com.thanhnb.englishlearning.entity.job.ScheduledJobRun;
 import com.thanhnb.englishlearning.entity.user.User;
+import com.thanhnb.englishlearning.enums.JobRunStatus;
 import com.thanhnb.englishlearning.repository.user.UserRepository;
-import com.thanhnb.englishlearning.service.user.UnverifiedUserCleanupService;
+import com.thanhnb.englishlearning.service.scheduler.job.ClusterJobRunner;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -28,7 +30,9 @@ import java.util.stream.Collectors;
 @Tag(name = "Admin - Cleanup", description = "APIs for managing unverified user cleanup")
 public class AdminCleanupController {
     
-    private final UnverifiedUserCleanupService cleanupService;
+    private static final String CLEANUP_JOB = "unverified-user-cleanup";
+
+    private final ClusterJobRunner jobRunner;
     private final UserRepository userRepository;
     
     @Value("${cleanup.unverified-users.hours:24}")
@@ -121,6 +125,7 @@ public class AdminCleanupController {
     
     /**
      * Chạy cleanup thủ công (manual trigger)
+     * Đi qua ClusterJobRunner giống POST /actuator/jobs/unverified-user-cleanup
      */
     @PostMapping("/run-now")
     @Operation(summary = "Run cleanup manually", description = "Trigger cleanup job immediately")
@@ -144,14 +149,27 @@ public class AdminCleanupController {
                         "Không có tài khoản nào cần cleanup"));
             }
             
-            // Thực hiện cleanup
-            int deletedCount = cleanupService.cleanupNow();
+            // Thực hiện cleanup (lease + lịch sử chạy)
+            ScheduledJobRun run = jobRunner.triggerNow(CLEANUP_JOB);
+            
+            if (run.getStatus() == JobRunStatus.SKIPPED) {
+                return ResponseEntity.status(409)
+                        .body(CustomApiResponse.error(409, "Cleanup đang chạy trên node khác, vui lòng thử lại sau"));
+            }
+            if (run.getStatus() == JobRunStatus.FAILED) {
+                return ResponseEntity.internalServerError()
+                        .body(CustomApiResponse.error(500, "Lỗi khi chạy cleanup: " + run.getErrorMessage()));
+            }
+            
+            int deletedCount = run.getRowsAffected() != null ? run.getRowsAffected() : 0;
             
             // Consistent response structure
             Map<String, Object> result = new HashMap<>();
             result.put("deletedCount", deletedCount);
             result.put("cutoffHours", cleanupHours);
             result.put("cutoffDate", cutoffDate);
+            result.put("runId", run.getId());
+            result.put("durationMs", run.getDurationMs());
             result.put("timestamp", LocalDateTime.now());
             
             log.info("Cleanup completed: {} accounts deleted", deletedCount);
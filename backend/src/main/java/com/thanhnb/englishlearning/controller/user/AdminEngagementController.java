@@ -0,0 +1,87 @@
+package com.thanhnb.englishlearning.controller.user;
+
+import com.thanhnb.englishlearning.dto.CustomApiResponse;
+import com.thanhnb.englishlearning.dto.user.response.ChurnCohortsDto;
+import com.thanhnb.englishlearning.dto.user.response.EngagementOverviewDto;
+import com.thanhnb.englishlearning.dto.user.response.EngagementSeriesDto;
+import com.thanhnb.englishlearning.service.user.EngagementAnalyticsService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * ✅ Admin - thống kê mức độ tương tác
+ *
+ * - GET /api/admin/engagement/overview → DAU / WAU / MAU tính đến hiện tại (HyperLogLog)
+ * - GET /api/admin/engagement/daily → số liệu đã chốt theo ngày (đến hết hôm qua)
+ * - GET /api/admin/engagement/churn-cohorts → churn theo tháng đăng ký
+ */
+@RestController
+@RequestMapping("/api/admin/engagement")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin - Engagement", description = "DAU / WAU / MAU và churn (ADMIN)")
+@Slf4j
+public class AdminEngagementController {
+
+    private final EngagementAnalyticsService analyticsService;
+
+    @GetMapping("/overview")
+    @Operation(summary = "Người dùng hoạt động hiện tại", description = "Hôm nay, 7 / 30 ngày gần nhất, tuần và tháng này")
+    public ResponseEntity<CustomApiResponse<EngagementOverviewDto>> getOverview() {
+        try {
+            return ResponseEntity.ok(CustomApiResponse.success(analyticsService.getOverview(),
+                    "Lấy thống kê hoạt động thành công"));
+        } catch (Exception e) {
+            log.error("❌ Error loading engagement overview: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(CustomApiResponse.error(500, "Lỗi: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/daily")
+    @Operation(summary = "Thống kê hoạt động theo ngày", description = "Mặc định 30 ngày gần nhất")
+    public ResponseEntity<CustomApiResponse<EngagementSeriesDto>> getDaily(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        try {
+            LocalDate end = to != null ? to : LocalDate.now().minusDays(1);
+            LocalDate start = from != null ? from : end.minusDays(29);
+            return ResponseEntity.ok(CustomApiResponse.success(analyticsService.getDailySeries(start, end),
+                    "Lấy thống kê hoạt động thành công"));
+
+        } catch (IllegalArgumentException e) {
+            // Khoảng ngày không hợp lệ
+            return ResponseEntity.badRequest().body(CustomApiResponse.badRequest(e.getMessage()));
+        } catch (Exception e) {
+            log.error("❌ Error loading engagement series: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(CustomApiResponse.error(500, "Lỗi: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/churn-cohorts")
+    @Operation(summary = "Churn theo tháng đăng ký", description = "months tháng gần nhất, mới nhất trước")
+    public ResponseEntity<CustomApiResponse<ChurnCohortsDto>> getChurnCohorts(
+            @RequestParam(defaultValue = "12") int months) {
+        try {
+            return ResponseEntity.ok(CustomApiResponse.success(analyticsService.getChurnCohorts(months),
+                    "Lấy thống kê churn thành công"));
+        } catch (Exception e) {
+            log.error("❌ Error loading churn cohorts: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(CustomApiResponse.error(500, "Lỗi: " + e.getMessage()));
+        }
+    }
+}
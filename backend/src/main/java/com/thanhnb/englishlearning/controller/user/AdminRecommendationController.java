@@ -0,0 +1,62 @@
+package com.thanhnb.englishlearning.controller.user;
+
+import com.thanhnb.englishlearning.dto.CustomApiResponse;
+import com.thanhnb.englishlearning.dto.ai.RecommendationFunnelDto;
+import com.thanhnb.englishlearning.enums.StatsGranularity;
+import com.thanhnb.englishlearning.service.ai.recommendation.RecommendationAnalyticsService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * ✅ Admin - thống kê AI recommendation
+ *
+ * - GET /api/admin/recommendations/funnel → funnel theo ngày / tuần (từ bảng tổng hợp, dữ liệu đến hết hôm qua)
+ */
+@RestController
+@RequestMapping("/api/admin/recommendations")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin - Recommendations", description = "Thống kê hiệu quả AI recommendation (ADMIN)")
+@Slf4j
+public class AdminRecommendationController {
+
+    private final RecommendationAnalyticsService analyticsService;
+
+    @GetMapping("/funnel")
+    @Operation(summary = "Funnel gợi ý theo thời gian", description = "Tạo → hiển thị → chấp nhận → hoàn thành, "
+            + "lọc theo loại gợi ý và kỹ năng (NONE = không gắn kỹ năng). Mặc định 30 ngày gần nhất")
+    public ResponseEntity<CustomApiResponse<RecommendationFunnelDto>> getFunnel(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String skill,
+            @RequestParam(defaultValue = "DAY") StatsGranularity granularity) {
+
+        try {
+            LocalDate end = to != null ? to : LocalDate.now().minusDays(1);
+            LocalDate start = from != null ? from : end.minusDays(29);
+
+            RecommendationFunnelDto funnel = analyticsService.getFunnel(start, end, type, skill, granularity);
+            return ResponseEntity.ok(CustomApiResponse.success(funnel, "Lấy thống kê gợi ý thành công"));
+
+        } catch (IllegalArgumentException e) {
+            // Khoảng ngày không hợp lệ
+            return ResponseEntity.badRequest().body(CustomApiResponse.badRequest(e.getMessage()));
+        } catch (Exception e) {
+            log.error("❌ Error loading recommendation funnel: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(CustomApiResponse.error(500, "Lỗi: " + e.getMessage()));
+        }
+    }
+}
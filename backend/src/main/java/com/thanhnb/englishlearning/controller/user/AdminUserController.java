@@ -0,0 +1,62 @@
+package com.thanhnb.englishlearning.controller.user;
+
+import com.thanhnb.englishlearning.dto.CustomApiResponse;
+import com.thanhnb.englishlearning.dto.user.request.UserDirectoryFilter;
+import com.thanhnb.englishlearning.dto.user.response.UserDirectoryPageDto;
+import com.thanhnb.englishlearning.service.user.UserDirectoryService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * ✅ Admin - danh sách người dùng
+ *
+ * - GET /api/admin/users → 1 trang (keyset): gửi lại nextCursor để lấy trang sau
+ * - GET /api/admin/users/export → CSV toàn bộ user khớp bộ lọc (stream, không load hết vào bộ nhớ)
+ */
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin - Users", description = "Danh sách, lọc và xuất người dùng (ADMIN)")
+@Slf4j
+public class AdminUserController {
+
+    private final UserDirectoryService userDirectoryService;
+
+    @GetMapping
+    @Operation(summary = "Danh sách người dùng (keyset)", description = "Lọc theo role, trình độ, xác thực, "
+            + "trạng thái, khoảng hoạt động cuối; q = tiền tố username / email. Mới nhất trước")
+    public ResponseEntity<CustomApiResponse<UserDirectoryPageDto>> getUsers(
+            @Valid @ModelAttribute UserDirectoryFilter filter,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+
+        UserDirectoryPageDto page = userDirectoryService.getPage(filter, cursor, size);
+        return ResponseEntity.ok(CustomApiResponse.success(page, "Lấy danh sách người dùng thành công"));
+    }
+
+    @GetMapping(value = "/export", produces = "text/csv")
+    @Operation(summary = "Xuất CSV người dùng", description = "Cùng bộ lọc với danh sách, trả về toàn bộ kết quả")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@Valid @ModelAttribute UserDirectoryFilter filter) {
+        StreamingResponseBody body = out -> userDirectoryService.exportCsv(filter, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"users-" + LocalDate.now() + ".csv\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(body);
+    }
+}
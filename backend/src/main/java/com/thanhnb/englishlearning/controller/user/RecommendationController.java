@@ -1,5 +1,6 @@
 package com.thanhnb.englishlearning.controller.user;
 
+import com.thanhnb.englishlearning.service.ratelimit.RateLimit;
 import com.thanhnb.englishlearning.dto.CustomApiResponse;
 import com.thanhnb.englishlearning.dto.ai.AIRecommendationDto;
 import com.thanhnb.englishlearning.entity.recommendation.AIRecommendation;
@@ -157,6 +158,7 @@ public class RecommendationController {
                 }
         }
 
+        @RateLimit(value = "recommendation-refresh", limit = 3, windowSeconds = 600)
         @PostMapping("/refresh")
         @Operation(summary = "Force refresh recommendations")
         public ResponseEntity<CustomApiResponse<List<AIRecommendationDto>>> refreshRecommendations(
@@ -0,0 +1,63 @@
+package com.thanhnb.englishlearning.dto.ai;
+
+import com.thanhnb.englishlearning.enums.StatsGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Funnel AI recommendation (tạo → hiển thị → chấp nhận → hoàn thành) trong [from, to],
+ * đọc từ bảng tổng hợp theo ngày (bucket không có sự kiện = 0)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationFunnelDto {
+
+    private LocalDate from;
+    private LocalDate to;
+    private StatsGranularity granularity;
+    private String type;  // null = mọi loại
+    private String skill; // null = mọi kỹ năng
+    private StepsDto totals;
+    private List<PointDto> points;
+    private List<BreakdownDto> breakdown; // Theo (loại, kỹ năng), nhiều lượt hiển thị nhất trước
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StepsDto {
+        private long generated;
+        private long shown;
+        private long accepted;
+        private long completed;
+        private long dismissed;
+        private double acceptanceRate; // % accepted / shown
+        private double completionRate; // % completed / accepted
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PointDto {
+        private LocalDate date; // Ngày, hoặc thứ Hai đầu tuần khi granularity = WEEK
+        private StepsDto steps;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BreakdownDto {
+        private String type;
+        private String skill;
+        private StepsDto steps;
+    }
+}
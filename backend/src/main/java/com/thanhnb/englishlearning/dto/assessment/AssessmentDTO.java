@@ -0,0 +1,42 @@
+package com.thanhnb.englishlearning.dto.assessment;
+
+import com.thanhnb.englishlearning.enums.AssessmentStatus;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Kết quả chấm 1 câu trả lời OPEN_ENDED")
+public class AssessmentDTO {
+
+    private Long id;
+    private Long userId;
+    private ModuleType module;
+    private Long lessonId;
+    private Long questionId;
+    private String answerText;
+    private Integer maxPoints;
+
+    @Schema(description = "Trạng thái chấm", example = "ASSESSED")
+    private AssessmentStatus status;
+
+    @Schema(description = "Điểm đạt được (null nếu chưa chấm)", example = "7")
+    private Integer awardedPoints;
+
+    private String feedback;
+
+    @Schema(description = "Người/provider chấm", example = "ai")
+    private String assessedBy;
+
+    private Integer attempts;
+    private LocalDateTime createdAt;
+    private LocalDateTime assessedAt;
+}
@@ -0,0 +1,17 @@
+package com.thanhnb.englishlearning.dto.assessment;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class OverrideAssessmentRequest {
+
+    @NotNull(message = "Điểm không được để trống")
+    @Min(value = 0, message = "Điểm không được âm")
+    private Integer score;
+
+    @Size(max = 2000, message = "Nhận xét tối đa 2000 ký tự")
+    private String feedback;
+}
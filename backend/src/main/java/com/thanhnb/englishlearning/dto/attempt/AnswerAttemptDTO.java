@@ -0,0 +1,52 @@
+package com.thanhnb.englishlearning.dto.attempt;
+
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.enums.QuestionType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "1 câu trả lời trong lịch sử làm bài")
+public class AnswerAttemptDTO {
+
+    @Schema(description = "ID attempt", example = "10293")
+    private Long id;
+
+    @Schema(description = "Module", example = "GRAMMAR")
+    private ModuleType module;
+
+    @Schema(description = "ID lesson", example = "12")
+    private Long lessonId;
+
+    @Schema(description = "ID câu hỏi", example = "345")
+    private Long questionId;
+
+    @Schema(description = "Loại câu hỏi", example = "FILL_BLANK")
+    private QuestionType questionType;
+
+    @Schema(description = "Câu trả lời dạng text")
+    private String answerText;
+
+    @Schema(description = "ID đáp án đã chọn, phân tách bằng dấu phẩy", example = "3,5")
+    private String selectedOptions;
+
+    @Schema(description = "Đúng hay sai", example = "false")
+    private Boolean isCorrect;
+
+    @Schema(description = "Điểm đạt được", example = "0")
+    private Integer points;
+
+    @Schema(description = "Câu OPEN_ENDED đang chờ chấm", example = "false")
+    private Boolean needsManualGrading;
+
+    @Schema(description = "Thời điểm trả lời")
+    private LocalDateTime attemptedAt;
+}
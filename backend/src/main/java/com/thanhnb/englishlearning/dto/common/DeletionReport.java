@@ -0,0 +1,39 @@
+package com.thanhnb.englishlearning.dto.common;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Kết quả xóa hàng loạt: số row đã xóa theo từng bảng (theo thứ tự xóa)
+ */
+@Data
+@NoArgsConstructor
+public class DeletionReport {
+
+    private String target; // "topic:12", "lesson:READING:[3, 4]", "user:5"
+    private boolean softDeleted; // true = đã ẩn, purge job sẽ xóa thật sau
+    private Map<String, Integer> rowsByTable = new LinkedHashMap<>();
+    private int audioFilesScheduled;
+    private long durationMs;
+
+    public DeletionReport(String target) {
+        this.target = target;
+    }
+
+    public DeletionReport add(String table, int rows) {
+        rowsByTable.merge(table, rows, Integer::sum);
+        return this;
+    }
+
+    public void merge(DeletionReport other) {
+        other.getRowsByTable().forEach(this::add);
+        this.audioFilesScheduled += other.getAudioFilesScheduled();
+    }
+
+    public int getTotalRows() {
+        return rowsByTable.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
@@ -0,0 +1,49 @@
+package com.thanhnb.englishlearning.dto.common;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.thanhnb.englishlearning.enums.EnglishLevel;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ✅ Kết quả các bước chạy sau khi nộp bài (hiện tại: check nâng level)
+ *
+ * Lưu trên Redis theo followUpId trả về trong response nộp bài khi bước này chưa xong kịp.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Kết quả xử lý sau nộp bài")
+public class SubmissionFollowUpDTO {
+
+    public enum Status {
+        PENDING, DONE, FAILED
+    }
+
+    @Schema(description = "Mã follow-up trả về khi nộp bài")
+    private String followUpId;
+
+    @Schema(description = "PENDING = đang xử lý, DONE = đã có kết quả, FAILED = lỗi (tiến độ vẫn đã được lưu)")
+    private Status status;
+
+    @Schema(description = "Module của bài vừa nộp", example = "GRAMMAR")
+    private ModuleType module;
+
+    @Schema(description = "Có nâng cấp trình độ không", example = "true")
+    private Boolean levelUpgraded;
+
+    @Schema(description = "Trình độ cũ (nếu có nâng cấp)", example = "A1")
+    private EnglishLevel oldLevel;
+
+    @Schema(description = "Trình độ mới (nếu có nâng cấp)", example = "A2")
+    private EnglishLevel newLevel;
+
+    @Schema(description = "Thông báo về tiến trình/nâng cấp")
+    private String progressMessage;
+}
@@ -17,5 +17,6 @@ public record SubmitResultDTO(
     Boolean hasUnlockedNext,
     Long nextLessonId,
     List<QuestionResultDTO> results,
-    LevelUpgradeResult levelUpgradeResult
+    LevelUpgradeResult levelUpgradeResult,
+    String followUpId
 ) {}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.thanhnb.englishlearning.dto.common.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+public class MoveRequest {
+
+    @Schema(description = "Đặt ngay sau phần tử này; null = lên đầu danh sách", example = "7")
+    private Long afterId;
+}
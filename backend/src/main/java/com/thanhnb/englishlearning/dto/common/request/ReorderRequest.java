@@ -0,0 +1,18 @@
+package com.thanhnb.englishlearning.dto.common.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ReorderRequest {
+
+    @NotEmpty
+    @Size(max = 5000)
+    @Schema(description = "Id theo thứ tự mới. Gửi 1 phần danh sách → chỉ các id đó đổi chỗ cho nhau",
+            example = "[12, 7, 9]")
+    private List<Long> ids;
+}
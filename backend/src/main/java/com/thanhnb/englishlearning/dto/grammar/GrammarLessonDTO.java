@@ -56,9 +56,8 @@ public class GrammarLessonDTO {
     @JsonView(Views.Public.class)
     private LessonType lessonType;
 
-    @NotNull(message = "Thứ tự không được để trống")
     @Min(value = 1, message = "Thứ tự phải >= 1")
-    @Schema(description = "Thứ tự bài học", example = "1")
+    @Schema(description = "Key thứ tự bài học (bỏ qua khi tạo mới - server thêm vào cuối)", example = "1024")
     @JsonView(Views.Public.class)
     private Integer orderIndex;
 
@@ -194,19 +193,7 @@ public class GrammarLessonDTO {
 
         // Calculate total question count
         if (groupedQuestions != null) {
-            int count = 0;
-
-            if (groupedQuestions.getStandaloneQuestions() != null) {
-                count += groupedQuestions.getStandaloneQuestions().size();
-            }
-
-            if (groupedQuestions.getTasks() != null) {
-                count += groupedQuestions.getTasks().stream()
-                        .mapToInt(task -> task.getQuestions() != null ? task.getQuestions().size() : 0)
-                        .sum();
-            }
-
-            this.questionCount = count;
+            this.questionCount = groupedQuestions.countQuestions();
         }
 
         return this;
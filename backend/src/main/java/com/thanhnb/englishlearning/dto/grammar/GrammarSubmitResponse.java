@@ -89,6 +89,10 @@ public class GrammarSubmitResponse {
             example = "🎉 Chúc mừng! Bạn đã được nâng cấp từ A1 lên A2!")
     private String progressMessage;
 
+    @Schema(description = "Mã lấy kết quả nâng cấp trình độ khi chưa xử lý kịp "
+            + "(GET /api/submissions/follow-up/{followUpId})")
+    private String followUpId;
+
     // ═══════════════════════════════════════════════════════════
     // FACTORY METHOD
     // ═══════════════════════════════════════════════════════════
@@ -108,7 +112,8 @@ public class GrammarSubmitResponse {
             Boolean hasUnlockedNext,
             Long nextLessonId,
             List<QuestionResultDTO> results,
-            LevelUpgradeResult levelUpgradeResult) {
+            LevelUpgradeResult levelUpgradeResult,
+            String followUpId) {
 
         GrammarSubmitResponse response = GrammarSubmitResponse.builder()
                 .lessonId(lessonId)
@@ -122,6 +127,7 @@ public class GrammarSubmitResponse {
                 .hasUnlockedNext(hasUnlockedNext)
                 .nextLessonId(nextLessonId)
                 .results(results)
+                .followUpId(followUpId)
                 .build();
 
         // Add level upgrade info if available
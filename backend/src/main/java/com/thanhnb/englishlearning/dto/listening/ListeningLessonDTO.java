@@ -47,9 +47,8 @@ public class ListeningLessonDTO {
     @JsonView(Views.Public.class)
     private String title;
 
-    @NotNull(message = "Thứ tự không được để trống")
     @Min(value = 1, message = "Thứ tự phải >= 1")
-    @Schema(description = "Thứ tự bài học", example = "1")
+    @Schema(description = "Key thứ tự bài học (bỏ qua khi tạo mới - server thêm vào cuối)", example = "1024")
     @JsonView(Views.Public.class)
     private Integer orderIndex;
 
@@ -224,19 +223,7 @@ public class ListeningLessonDTO {
 
         // Calculate total question count
         if (groupedQuestions != null) {
-            int count = 0;
-
-            if (groupedQuestions.getStandaloneQuestions() != null) {
-                count += groupedQuestions.getStandaloneQuestions().size();
-            }
-
-            if (groupedQuestions.getTasks() != null) {
-                count += groupedQuestions.getTasks().stream()
-                        .mapToInt(task -> task.getQuestions() != null ? task.getQuestions().size() : 0)
-                        .sum();
-            }
-
-            this.questionCount = count;
+            this.questionCount = groupedQuestions.countQuestions();
         }
 
         return this;
@@ -88,6 +88,10 @@ public class ListeningSubmitResponse {
         @Schema(description = "Thông báo về tiến trình/nâng cấp", example = "🎉 Chúc mừng! Bạn đã được nâng cấp từ A1 lên A2!")
         private String progressMessage;
 
+        @Schema(description = "Mã lấy kết quả nâng cấp trình độ khi chưa xử lý kịp "
+                + "(GET /api/submissions/follow-up/{followUpId})")
+        private String followUpId;
+
         // ═══════════════════════════════════════════════════════════
         // FACTORY METHOD
         // ═══════════════════════════════════════════════════════════
@@ -104,7 +108,8 @@ public class ListeningSubmitResponse {
                         Boolean hasUnlockedNext,
                         Long nextLessonId,
                         List<QuestionResultDTO> results,
-                        LevelUpgradeResult levelUpgradeResult) {
+                        LevelUpgradeResult levelUpgradeResult,
+                        String followUpId) {
 
                 ListeningSubmitResponse response = ListeningSubmitResponse.builder()
                                 .lessonId(lessonId)
@@ -118,6 +123,7 @@ public class ListeningSubmitResponse {
                                 .hasUnlockedNext(hasUnlockedNext)
                                 .nextLessonId(nextLessonId)
                                 .results(results)
+                                .followUpId(followUpId)
                                 .build();
 
                 if (levelUpgradeResult != null) {
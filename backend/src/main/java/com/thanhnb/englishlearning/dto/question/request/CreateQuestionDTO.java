@@ -35,7 +35,7 @@ public class CreateQuestionDTO {
     private Integer points;
 
     @Positive(message = "Order index phải là số dương")
-    @Schema(description = "Thứ tự hiển thị (tùy chọn, tự động nếu null)", example = "1")
+    @Schema(description = "Thứ tự hiển thị (bỏ qua khi tạo mới - server thêm vào cuối)", example = "1024")
     private Integer orderIndex;
 
     @Schema(description = "ID của TaskGroup (null = standalone question)", example = "5")
@@ -23,6 +23,6 @@ public class CreateTaskGroupDTO {
     private String instruction;
 
     @Positive(message = "Order index phải là số dương")
-    @Schema(description = "Thứ tự hiển thị (tùy chọn, tự động nếu null)", example = "1")
+    @Schema(description = "Thứ tự hiển thị (bỏ qua khi tạo mới - server thêm vào cuối)", example = "1024")
     private Integer orderIndex;
 }
\ No newline at end of file
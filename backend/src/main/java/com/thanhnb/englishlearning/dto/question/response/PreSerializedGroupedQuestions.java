@@ -0,0 +1,40 @@
+package com.thanhnb.englishlearning.dto.question.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+
+/**
+ * TaskGroupedQuestionsDTO đã serialize sẵn (lấy từ SharedFragmentCache)
+ *
+ * Jackson ghi thẳng chuỗi JSON vào response, không duyệt lại cây câu hỏi.
+ */
+public class PreSerializedGroupedQuestions extends TaskGroupedQuestionsDTO implements JsonSerializable {
+
+    private final String json;
+    private final int questionCount;
+
+    public PreSerializedGroupedQuestions(String json, int questionCount) {
+        this.json = json;
+        this.questionCount = questionCount;
+    }
+
+    @Override
+    public int countQuestions() {
+        return questionCount;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeRawValue(json);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+}
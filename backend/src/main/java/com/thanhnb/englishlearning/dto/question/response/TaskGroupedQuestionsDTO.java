@@ -32,6 +32,17 @@ public class TaskGroupedQuestionsDTO {
     @JsonView(Views.Public.class)
     private List<QuestionResponseDTO> standaloneQuestions;
 
+    /**
+     * Tổng số câu hỏi (trong task + standalone)
+     */
+    public int countQuestions() {
+        int count = standaloneQuestions != null ? standaloneQuestions.size() : 0;
+        if (tasks != null) {
+            count += tasks.stream().mapToInt(TaskGroup::getQuestionCount).sum();
+        }
+        return count;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -50,8 +50,7 @@ public class ReadingLessonDTO {
     @JsonView(Views.Public.class)
     private String content; // Main reading passage
 
-    @NotNull(message = "Order index is required")
-    @Min(1)
+    @Min(1) // Bỏ qua khi tạo mới - server thêm vào cuối
     @JsonView(Views.Public.class)
     private Integer orderIndex;
 
@@ -212,19 +211,7 @@ public class ReadingLessonDTO {
 
         // Calculate total question count
         if (groupedQuestions != null) {
-            int count = 0;
-
-            if (groupedQuestions.getStandaloneQuestions() != null) {
-                count += groupedQuestions.getStandaloneQuestions().size();
-            }
-
-            if (groupedQuestions.getTasks() != null) {
-                count += groupedQuestions.getTasks().stream()
-                        .mapToInt(task -> task.getQuestions() != null ? task.getQuestions().size() : 0)
-                        .sum();
-            }
-
-            this.questionCount = count;
+            this.questionCount = groupedQuestions.countQuestions();
         }
 
         return this;
@@ -65,6 +65,10 @@ public class ReadingSubmitResponse {
         @Schema(description = "Thông báo về tiến trình/nâng cấp")
         private String progressMessage;
 
+        @Schema(description = "Mã lấy kết quả nâng cấp trình độ khi chưa xử lý kịp "
+                + "(GET /api/submissions/follow-up/{followUpId})")
+        private String followUpId;
+
         public static ReadingSubmitResponse of(
                         Long lessonId,
                         String lessonTitle,
@@ -77,7 +81,8 @@ public class ReadingSubmitResponse {
                         boolean hasNextLesson,
                         Long nextLessonId,
                         List<QuestionResultDTO> results,
-                        LevelUpgradeResult levelUpgradeResult) {
+                        LevelUpgradeResult levelUpgradeResult,
+                        String followUpId) {
 
                 ReadingSubmitResponse response = ReadingSubmitResponse.builder()
                                 .lessonId(lessonId)
@@ -91,6 +96,7 @@ public class ReadingSubmitResponse {
                                 .hasNextLesson(hasNextLesson)
                                 .nextLessonId(nextLessonId)
                                 .results(results)
+                                .followUpId(followUpId)
                                 .build();
 
                 // ✅ Add level upgrade info if available
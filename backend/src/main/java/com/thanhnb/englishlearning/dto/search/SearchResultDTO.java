@@ -0,0 +1,45 @@
+package com.thanhnb.englishlearning.dto.search;
+
+import com.thanhnb.englishlearning.enums.EnglishLevel;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.enums.SearchDocType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Kết quả full-text search (lesson hoặc question)")
+public class SearchResultDTO {
+
+    @Schema(description = "LESSON hoặc QUESTION", example = "LESSON")
+    private SearchDocType docType;
+
+    @Schema(description = "Module", example = "READING")
+    private ModuleType module;
+
+    @Schema(description = "ID lesson chứa kết quả", example = "12")
+    private Long lessonId;
+
+    @Schema(description = "ID question (chỉ có khi docType = QUESTION)", example = "345")
+    private Long questionId;
+
+    @Schema(description = "ID topic", example = "3")
+    private Long topicId;
+
+    @Schema(description = "Level của topic", example = "B1")
+    private EnglishLevel level;
+
+    @Schema(description = "Tiêu đề lesson", example = "Present Perfect")
+    private String title;
+
+    @Schema(description = "Đoạn trích có highlight bằng <mark>...</mark>")
+    private String snippet;
+
+    @Schema(description = "Điểm liên quan (ts_rank_cd)", example = "0.42")
+    private Double rank;
+}
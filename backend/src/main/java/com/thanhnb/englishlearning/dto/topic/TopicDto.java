@@ -47,6 +47,12 @@ public class TopicDto {
     @Schema(description = "Number of lessons in this topic", example = "15")
     private Integer lessonCount;
 
+    @Schema(description = "Number of active lessons in this topic", example = "12")
+    private Integer activeLessonCount;
+
+    @Schema(description = "Number of questions across the topic's lessons", example = "180")
+    private Integer questionCount;
+
     @Schema(description = "Number of teachers managing this topic", example = "2")
     private Integer teacherCount;
 
@@ -41,7 +41,7 @@ public class CreateTopicRequest {
 
     @Min(value = 1, message = "Order index must be >= 1")
     @Schema(
-        description = "Display order (auto-generated if not provided)",
+        description = "Ignored - new topics are always appended at the end",
         example = "1"
     )
     private Integer orderIndex;
@@ -0,0 +1,57 @@
+package com.thanhnb.englishlearning.dto.topic.request;
+
+import com.thanhnb.englishlearning.enums.EnglishLevel;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bộ lọc danh sách topic của Admin (query params, mọi field đều tùy chọn)
+ *
+ * Các cận min / max áp dụng trên số đếm tính cùng câu query với trang (lessonCount, questionCount...)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Filter for the admin topic listing")
+public class TopicFilterRequest {
+
+    @Size(max = 200, message = "Keyword must not exceed 200 characters")
+    @Schema(description = "Substring of topic name (case-insensitive)", example = "tense")
+    private String keyword;
+
+    @Schema(description = "Only active / inactive topics", example = "true")
+    private Boolean isActive;
+
+    @Schema(description = "Required English level", example = "A1")
+    private EnglishLevel levelRequired;
+
+    @Min(0)
+    @Schema(description = "Minimum number of lessons", example = "1")
+    private Integer minLessons;
+
+    @Min(0)
+    @Schema(description = "Maximum number of lessons", example = "0")
+    private Integer maxLessons;
+
+    @Min(0)
+    @Schema(description = "Minimum number of questions", example = "10")
+    private Integer minQuestions;
+
+    @Min(0)
+    @Schema(description = "Maximum number of questions", example = "0")
+    private Integer maxQuestions;
+
+    @Min(0)
+    @Schema(description = "Minimum number of assigned teachers", example = "1")
+    private Integer minTeachers;
+
+    @Min(0)
+    @Schema(description = "Maximum number of assigned teachers (0 = topics without teacher)", example = "0")
+    private Integer maxTeachers;
+}
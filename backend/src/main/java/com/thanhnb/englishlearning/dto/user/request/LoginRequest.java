@@ -1,6 +1,7 @@
 package com.thanhnb.englishlearning.dto.user.request;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 import io.swagger.v3.oas.annotations.media.Schema;
 
@@ -13,4 +14,8 @@ public class LoginRequest {
     @NotBlank(message = "Password không được để trống")
     @Schema(description = "Mật khẩu của người dùng", example = "password123")
     private String password;
+
+    @Size(max = 64)
+    @Schema(description = "Múi giờ IANA của trình duyệt - streak tính theo ngày ở múi giờ này", example = "Asia/Ho_Chi_Minh")
+    private String timeZone;
 }
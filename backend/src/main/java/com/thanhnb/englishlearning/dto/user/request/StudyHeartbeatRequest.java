@@ -0,0 +1,11 @@
+package com.thanhnb.englishlearning.dto.user.request;
+
+import com.thanhnb.englishlearning.enums.ModuleType;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class StudyHeartbeatRequest {
+    @NotNull
+    private ModuleType module;
+}
@@ -7,4 +7,10 @@ import lombok.Data;
 public class UpdateUserRequest {
     @Size(max = 100)
     private String fullName;
+
+    /**
+     * Múi giờ IANA, vd "Asia/Ho_Chi_Minh" (null → giữ nguyên)
+     */
+    @Size(max = 64)
+    private String timeZone;
 }
@@ -0,0 +1,48 @@
+package com.thanhnb.englishlearning.dto.user.request;
+
+import com.thanhnb.englishlearning.enums.EnglishLevel;
+import com.thanhnb.englishlearning.enums.UserRole;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bộ lọc danh sách user của Admin (query params, mọi field đều tùy chọn)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Filter for the admin user directory")
+public class UserDirectoryFilter {
+
+    @Schema(description = "Vai trò", example = "USER")
+    private UserRole role;
+
+    @Schema(description = "Trình độ tiếng Anh", example = "B1")
+    private EnglishLevel englishLevel;
+
+    @Schema(description = "Email đã xác thực", example = "true")
+    private Boolean isVerified;
+
+    @Schema(description = "Tài khoản đang hoạt động (chưa bị khóa)", example = "true")
+    private Boolean isActive;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    @Schema(description = "Hoạt động cuối từ (ISO date-time)", example = "2026-01-01T00:00:00")
+    private LocalDateTime lastActiveFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    @Schema(description = "Hoạt động cuối đến (ISO date-time)", example = "2026-01-31T23:59:59")
+    private LocalDateTime lastActiveTo;
+
+    @Size(max = 100, message = "Từ khóa tối đa 100 ký tự")
+    @Schema(description = "Tiền tố username hoặc email (không phân biệt hoa thường)", example = "john")
+    private String q;
+}
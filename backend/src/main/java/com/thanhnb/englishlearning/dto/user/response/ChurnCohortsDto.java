@@ -0,0 +1,33 @@
+package com.thanhnb.englishlearning.dto.user.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Churn theo cohort tháng đăng ký (chỉ tính từ khi job "engagement-rollup" bắt đầu chạy)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChurnCohortsDto {
+
+    private Integer churnDays;
+    private List<CohortDto> cohorts; // Tháng mới nhất trước
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CohortDto {
+        private LocalDate cohortMonth;
+        private Long signups;
+        private Long churned;
+        private Double churnRate; // % churned / signups
+    }
+}
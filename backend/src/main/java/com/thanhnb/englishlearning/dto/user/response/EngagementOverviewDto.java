@@ -0,0 +1,27 @@
+package com.thanhnb.englishlearning.dto.user.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Số user hoạt động tính đến hiện tại (HyperLogLog, sai số ~1%)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EngagementOverviewDto {
+
+    private LocalDate date;
+    private Long activeToday;       // DAU
+    private Long loginsToday;       // Số user đăng nhập hôm nay
+    private Long activeLast7Days;   // WAU cuộn
+    private Long activeLast30Days;  // MAU cuộn
+    private Long activeThisWeek;    // Tuần ISO hiện tại
+    private Long activeThisMonth;   // Tháng hiện tại
+    private Double stickiness;      // % DAU / MAU cuộn
+}
@@ -0,0 +1,39 @@
+package com.thanhnb.englishlearning.dto.user.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Số liệu tương tác theo ngày trong [from, to] (ngày chưa được rollup không có trong danh sách)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EngagementSeriesDto {
+
+    private LocalDate from;
+    private LocalDate to;
+    private Integer churnDays;
+    private List<DayDto> days;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DayDto {
+        private LocalDate date;
+        private Long activeUsers;
+        private Long weeklyActiveUsers;  // 7 ngày kết thúc ở date
+        private Long monthlyActiveUsers; // 30 ngày kết thúc ở date
+        private Long loginUsers;
+        private Long newUsers;
+        private Long churnedUsers;       // Vượt ngưỡng churnDays ngày không hoạt động vào ngày này
+        private Double stickiness;       // % activeUsers / monthlyActiveUsers
+    }
+}
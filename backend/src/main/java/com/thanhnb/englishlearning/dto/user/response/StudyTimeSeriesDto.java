@@ -0,0 +1,37 @@
+package com.thanhnb.englishlearning.dto.user.response;
+
+import com.thanhnb.englishlearning.enums.ModuleType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thời gian học theo ngày và theo module trong khoảng [from, to] (ngày không học = 0 phút)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudyTimeSeriesDto {
+
+    private LocalDate from;
+    private LocalDate to;
+    private Integer totalMinutes;
+    private Map<ModuleType, Integer> minutesByModule;
+    private List<DayDto> days;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DayDto {
+        private LocalDate date;
+        private Integer minutes;
+        private Map<ModuleType, Integer> minutesByModule;
+    }
+}
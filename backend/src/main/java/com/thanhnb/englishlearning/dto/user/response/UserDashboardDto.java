@@ -42,7 +42,7 @@ public class UserDashboardDto {
         private Integer currentStreak; // From UserStats
         private Integer totalPoints; // From UserStats
         private Integer totalLessonsCompleted; // From UserStats
-        private Integer studyTimeToday; // Calculated from UserStats
+        private Integer studyTimeToday; // Minutes, from user_study_time (heartbeat)
         private Double weeklyGoalProgress; // Based on streak vs 7-day goal
     }
 
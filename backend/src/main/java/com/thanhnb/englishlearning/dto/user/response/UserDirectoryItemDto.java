@@ -0,0 +1,71 @@
+package com.thanhnb.englishlearning.dto.user.response;
+
+import com.thanhnb.englishlearning.enums.EnglishLevel;
+import com.thanhnb.englishlearning.enums.UserRole;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 1 dòng trong danh sách user của Admin - chỉ các cột cần cho bảng / CSV
+ * (users JOIN user_stats JOIN user_activities trong 1 câu query)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Dòng trong danh sách người dùng (Admin)")
+public class UserDirectoryItemDto {
+
+    @Schema(description = "ID người dùng", example = "1")
+    private Long id;
+
+    @Schema(description = "Tên đăng nhập", example = "john_doe")
+    private String username;
+
+    @Schema(description = "Email", example = "john@example.com")
+    private String email;
+
+    @Schema(description = "Họ và tên", example = "John Doe")
+    private String fullName;
+
+    @Schema(description = "Vai trò", example = "USER")
+    private UserRole role;
+
+    @Schema(description = "Trình độ tiếng Anh", example = "B1")
+    private EnglishLevel englishLevel;
+
+    @Schema(description = "Tài khoản đang hoạt động", example = "true")
+    private Boolean isActive;
+
+    @Schema(description = "Email đã xác thực", example = "true")
+    private Boolean isVerified;
+
+    @Schema(description = "Thời điểm tạo tài khoản")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Tổng điểm", example = "1500")
+    private Integer totalPoints;
+
+    @Schema(description = "Streak hiện tại (đã tính theo múi giờ của user)", example = "7")
+    private Integer currentStreak;
+
+    @Schema(description = "Streak dài nhất", example = "30")
+    private Integer longestStreak;
+
+    @Schema(description = "Tổng số bài đã hoàn thành", example = "50")
+    private Integer totalLessonsCompleted;
+
+    @Schema(description = "Lần đăng nhập cuối")
+    private LocalDateTime lastLoginDate;
+
+    @Schema(description = "Lần hoạt động cuối")
+    private LocalDateTime lastActivityDate;
+
+    @Schema(description = "Số lần đăng nhập", example = "42")
+    private Integer loginCount;
+}
@@ -0,0 +1,29 @@
+package com.thanhnb.englishlearning.dto.user.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 1 trang danh sách user (keyset): trang sau = gửi lại nextCursor làm cursor
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Trang danh sách người dùng (keyset pagination)")
+public class UserDirectoryPageDto {
+
+    @Schema(description = "Các user của trang, id giảm dần (mới nhất trước)")
+    private List<UserDirectoryItemDto> items;
+
+    @Schema(description = "Cursor của trang sau (null = hết)", example = "10234")
+    private Long nextCursor;
+
+    @Schema(description = "Còn trang sau", example = "true")
+    private boolean hasMore;
+}
@@ -124,7 +124,7 @@ public class UserStatsDto {
         return UserStatsDto.builder()
                 .userId(stats.getUserId())
                 .totalPoints(stats.getTotalPoints())
-                .currentStreak(stats.getCurrentStreak())
+                .currentStreak(stats.getEffectiveStreak())
                 .longestStreak(stats.getLongestStreak())
                 .lastStreakDate(stats.getLastStreakDate())
                 .hasStreakToday(stats.hasStreakToday())
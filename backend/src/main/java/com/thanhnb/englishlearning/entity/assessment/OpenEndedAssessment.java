@@ -0,0 +1,115 @@
+package com.thanhnb.englishlearning.entity.assessment;
+
+import com.thanhnb.englishlearning.enums.AssessmentStatus;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Hàng đợi chấm câu trả lời OPEN_ENDED (durable - ghi cùng transaction submit)
+ *
+ * PENDING → PROCESSING (worker claim, có lockedUntil) → ASSESSED / FAILED
+ * Giáo viên chấm lại bất kỳ lúc nào → OVERRIDDEN (worker không chạm vào nữa)
+ */
+@Entity
+@Table(name = "open_ended_assessments", indexes = {
+    @Index(name = "idx_assessments_status_next", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_assessments_submission", columnList = "submission_id"),
+    @Index(name = "idx_assessments_user", columnList = "user_id, created_at")
+}, uniqueConstraints = @UniqueConstraint(columnNames = {"submission_id", "question_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class OpenEndedAssessment {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "submission_id", nullable = false)
+    private UUID submissionId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "module", nullable = false, length = 20)
+    private ModuleType module;
+
+    @Column(name = "lesson_id", nullable = false)
+    private Long lessonId;
+
+    @Column(name = "question_id", nullable = false)
+    private Long questionId;
+
+    @Column(name = "answer_text", nullable = false, columnDefinition = "TEXT")
+    private String answerText;
+
+    @Column(name = "max_points", nullable = false)
+    private Integer maxPoints;
+
+    /**
+     * Điểm % của lần nộp khi chưa tính câu OPEN_ENDED
+     */
+    @Column(name = "base_score_percentage", nullable = false)
+    private Double baseScorePercentage;
+
+    /**
+     * Tổng điểm tối đa của lesson tại thời điểm nộp
+     */
+    @Column(name = "lesson_max_score", nullable = false)
+    private Integer lessonMaxScore;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private AssessmentStatus status = AssessmentStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "awarded_points")
+    private Integer awardedPoints;
+
+    @Column(name = "feedback", columnDefinition = "TEXT")
+    private String feedback;
+
+    /**
+     * Provider chấm (groq / gemini / stub) hoặc "teacher:{id}"
+     */
+    @Column(name = "assessed_by", length = 50)
+    private String assessedBy;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "assessed_at")
+    private LocalDateTime assessedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
@@ -5,12 +5,14 @@ import lombok.*;
 
 import java.time.LocalDateTime;
 
+import com.thanhnb.englishlearning.entity.listener.CatalogVersionListener;
 import com.thanhnb.englishlearning.entity.user.User;
 import com.thanhnb.englishlearning.service.common.LessonProgressService;
 
 @Entity
 @Table(name = "user_grammar_progress",
         uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "lesson_id"}))
+@EntityListeners(CatalogVersionListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
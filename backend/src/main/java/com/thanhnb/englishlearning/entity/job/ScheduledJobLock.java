@@ -0,0 +1,46 @@
+package com.thanhnb.englishlearning.entity.job;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease của một scheduled job trong cluster.
+ *
+ * Mỗi job có đúng 1 row. Node nào UPDATE được row khi lockedUntil đã hết hạn
+ * thì node đó được chạy job; các node còn lại bỏ qua lượt chạy này.
+ *
+ * Lease còn hạn hay không luôn so với now() của Postgres (xem ScheduledJobLockRepository),
+ * không so với đồng hồ của node.
+ */
+@Entity
+@Table(name = "scheduled_job_locks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class ScheduledJobLock {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "locked_at", nullable = false)
+    private LocalDateTime lockedAt;
+
+    @Column(name = "locked_by", nullable = false, length = 255)
+    private String lockedBy;
+
+    /**
+     * Lúc node trả lease (null = đang chạy). Sau khi trả, lockedUntil chỉ còn là thời gian giữ tối thiểu
+     */
+    @Column(name = "released_at")
+    private LocalDateTime releasedAt;
+}
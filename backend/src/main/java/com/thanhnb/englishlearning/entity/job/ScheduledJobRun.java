@@ -0,0 +1,64 @@
+package com.thanhnb.englishlearning.entity.job;
+
+import com.thanhnb.englishlearning.enums.JobRunStatus;
+import com.thanhnb.englishlearning.enums.JobTriggerType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SourceType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lịch sử chạy của scheduled job (1 row / 1 lần chạy thực sự)
+ *
+ * Mốc thời gian lấy từ đồng hồ DB (cùng đồng hồ với lease / sweep), kết quả ghi qua
+ * ScheduledJobRunRepository.finishRun
+ */
+@Entity
+@Table(name = "scheduled_job_runs", indexes = {
+    @Index(name = "idx_job_runs_name_started", columnList = "job_name, started_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class ScheduledJobRun {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "trigger_type", nullable = false, length = 20)
+    private JobTriggerType triggerType;
+
+    @Column(name = "node_id", nullable = false, length = 255)
+    private String nodeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private JobRunStatus status;
+
+    @Column(name = "started_at", nullable = false, updatable = false)
+    @CreationTimestamp(source = SourceType.DB)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    @Column(name = "rows_affected")
+    private Integer rowsAffected;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+}
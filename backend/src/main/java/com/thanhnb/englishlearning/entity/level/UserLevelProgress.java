@@ -0,0 +1,50 @@
+package com.thanhnb.englishlearning.entity.level;
+
+import com.thanhnb.englishlearning.enums.EnglishLevel;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bộ đếm số topic đã hoàn thành của user theo (module, level)
+ *
+ * Mỗi (user, module) có đủ 1 row cho mọi level ngay khi được khởi tạo
+ * → thiếu row nghĩa là chưa khởi tạo (user cũ trước khi có bộ đếm), không phải "0 topic".
+ */
+@Entity
+@Table(name = "user_level_progress",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_level_progress",
+                columnNames = {"user_id", "module_type", "level"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class UserLevelProgress {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "module_type", nullable = false, length = 20)
+    private ModuleType moduleType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "level", nullable = false, length = 5)
+    private EnglishLevel level;
+
+    @Column(name = "completed_topics", nullable = false)
+    @Builder.Default
+    private Integer completedTopics = 0;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,58 @@
+package com.thanhnb.englishlearning.entity.level;
+
+import com.thanhnb.englishlearning.enums.EnglishLevel;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bộ đếm số lesson đã hoàn thành của user trong 1 topic
+ *
+ * - completedLessons: tăng 1 mỗi lần user qua 1 lesson lần đầu
+ * - completed: completedLessons >= số lesson active của topic (theo catalog lúc cập nhật gần nhất)
+ * - level: levelRequired của topic lúc cập nhật → biết phải trừ bộ đếm level nào khi topic đổi level
+ */
+@Entity
+@Table(name = "user_topic_progress",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_topic_progress", columnNames = {"user_id", "topic_id"}),
+        indexes = @Index(name = "idx_user_topic_progress_topic", columnList = "topic_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class UserTopicProgress {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "topic_id", nullable = false)
+    private Long topicId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "module_type", nullable = false, length = 20)
+    private ModuleType moduleType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "level", length = 5)
+    private EnglishLevel level;
+
+    @Column(name = "completed_lessons", nullable = false)
+    @Builder.Default
+    private Integer completedLessons = 0;
+
+    @Column(name = "completed", nullable = false)
+    @Builder.Default
+    private Boolean completed = false;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
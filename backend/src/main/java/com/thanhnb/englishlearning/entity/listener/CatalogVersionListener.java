@@ -0,0 +1,107 @@
+package com.thanhnb.englishlearning.entity.listener;
+
+import com.thanhnb.englishlearning.entity.grammar.GrammarLesson;
+import com.thanhnb.englishlearning.entity.grammar.UserGrammarProgress;
+import com.thanhnb.englishlearning.entity.listening.ListeningLesson;
+import com.thanhnb.englishlearning.entity.listening.UserListeningProgress;
+import com.thanhnb.englishlearning.entity.question.Question;
+import com.thanhnb.englishlearning.entity.question.TaskGroup;
+import com.thanhnb.englishlearning.entity.reading.ReadingLesson;
+import com.thanhnb.englishlearning.entity.reading.UserReadingProgress;
+import com.thanhnb.englishlearning.entity.topic.TeacherTopicAssignment;
+import com.thanhnb.englishlearning.entity.topic.Topic;
+import com.thanhnb.englishlearning.entity.user.User;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.enums.ParentType;
+import com.thanhnb.englishlearning.service.catalog.CatalogVersionService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * 🏷️ Entity Listener tăng content version (ETag / fragment cache)
+ *
+ * Chỉ gom field vào transaction → CatalogVersionService HINCRBY sau khi commit.
+ * Các đường bulk JPQL (không qua entity) tự gọi CatalogVersionService.
+ */
+@Component
+@Slf4j
+public class CatalogVersionListener {
+
+    private static CatalogVersionService catalogVersionService;
+
+    @Autowired
+    public void setCatalogVersionService(@Lazy CatalogVersionService catalogVersionService) {
+        CatalogVersionListener.catalogVersionService = catalogVersionService;
+        log.info("✅ CatalogVersionListener initialized");
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void afterChange(Object entity) {
+        if (catalogVersionService == null) {
+            return;
+        }
+        try {
+            bump(entity);
+        } catch (Exception e) {
+            // ETag tự hết hạn theo etagMaxAgeSeconds, không làm hỏng transaction nghiệp vụ
+            log.warn("⚠️ Failed to bump catalog version for {}: {}", entity.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    private void bump(Object entity) {
+        if (entity instanceof Topic topic) {
+            catalogVersionService.bumpTopic(topic.getModuleType(), topic.getId());
+        } else if (entity instanceof GrammarLesson lesson) {
+            catalogVersionService.bumpLesson(ModuleType.GRAMMAR, lesson.getId(), topicId(lesson.getTopic()));
+        } else if (entity instanceof ReadingLesson lesson) {
+            catalogVersionService.bumpLesson(ModuleType.READING, lesson.getId(), topicId(lesson.getTopic()));
+        } else if (entity instanceof ListeningLesson lesson) {
+            catalogVersionService.bumpLesson(ModuleType.LISTENING, lesson.getId(), topicId(lesson.getTopic()));
+        } else if (entity instanceof Question question) {
+            bumpParent(question.getParentType(), question.getParentId());
+        } else if (entity instanceof TaskGroup group) {
+            bumpParent(group.getParentType(), group.getParentId());
+        } else if (entity instanceof TeacherTopicAssignment assignment) {
+            // Danh sách topic admin/teacher lọc theo phân công
+            if (assignment.getTeacher() != null) {
+                catalogVersionService.bumpUser(assignment.getTeacher().getId());
+            }
+            if (assignment.getModuleType() != null) {
+                catalogVersionService.bumpModule(assignment.getModuleType());
+            }
+        } else if (entity instanceof UserGrammarProgress progress) {
+            bumpUser(progress.getUser());
+        } else if (entity instanceof UserReadingProgress progress) {
+            bumpUser(progress.getUser());
+        } else if (entity instanceof UserListeningProgress progress) {
+            bumpUser(progress.getUser());
+        } else if (entity instanceof User user) {
+            // Level thay đổi → trạng thái unlock thay đổi
+            catalogVersionService.bumpUser(user.getId());
+        }
+    }
+
+    private void bumpParent(ParentType parentType, Long parentId) {
+        ModuleType module = parentType != null ? CatalogVersionService.toModule(parentType) : null;
+        if (module != null) {
+            catalogVersionService.bumpLesson(module, parentId, null);
+        }
+    }
+
+    private void bumpUser(User user) {
+        if (user != null) {
+            catalogVersionService.bumpUser(user.getId());
+        }
+    }
+
+    private Long topicId(Topic topic) {
+        return topic != null ? topic.getId() : null;
+    }
+}
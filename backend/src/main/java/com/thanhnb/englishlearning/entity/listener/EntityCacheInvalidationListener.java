@@ -0,0 +1,44 @@
+package com.thanhnb.englishlearning.entity.listener;
+
+import com.thanhnb.englishlearning.service.catalog.EntityCacheInvalidationService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * 🔄 Entity Listener phát invalidation L2 cache cho các node khác
+ *
+ * Node hiện tại đã được Hibernate cập nhật cache, chỉ cần báo (loại, id) sau khi commit.
+ */
+@Component
+@Slf4j
+public class EntityCacheInvalidationListener {
+
+    private static EntityCacheInvalidationService invalidationService;
+
+    @Autowired
+    public void setInvalidationService(@Lazy EntityCacheInvalidationService invalidationService) {
+        EntityCacheInvalidationListener.invalidationService = invalidationService;
+        log.info("✅ EntityCacheInvalidationListener initialized");
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void afterChange(Object entity) {
+        if (invalidationService == null) {
+            return;
+        }
+        try {
+            invalidationService.evict(entity);
+        } catch (Exception e) {
+            // Không làm hỏng transaction nghiệp vụ vì cache
+            log.warn("⚠️ Failed to enqueue L2 cache invalidation for {}: {}",
+                    entity.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+}
@@ -3,9 +3,9 @@ package com.thanhnb.englishlearning.entity.listener;
 import com.thanhnb.englishlearning.entity.grammar.GrammarLesson;
 import com.thanhnb.englishlearning.entity.reading.ReadingLesson;
 import com.thanhnb.englishlearning.entity.listening.ListeningLesson;
-import com.thanhnb.englishlearning.entity.question.Question;
 import com.thanhnb.englishlearning.enums.ParentType;
 import com.thanhnb.englishlearning.repository.question.QuestionRepository;
+import com.thanhnb.englishlearning.repository.question.TaskGroupRepository;
 import jakarta.persistence.PreRemove;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,18 +17,26 @@ import java.util.List;
  * 🗑️ Entity Listener for Cascade Deleting Questions
  * 
  * ✅ FIXED: Single @PreRemove method handling all lesson types
+ * ✅ Set-based DELETE (không load từng question). Luồng xóa chính đi qua BulkDeletionService,
+ *    listener này chỉ là lưới an toàn khi lesson bị xóa qua EntityManager.remove
  */
 @Component
 @Slf4j
 public class QuestionCascadeDeleteListener {
     
     private static QuestionRepository questionRepository;
+    private static TaskGroupRepository taskGroupRepository;
     
     @Autowired
     public void setQuestionRepository(QuestionRepository questionRepository) {
         QuestionCascadeDeleteListener.questionRepository = questionRepository;
         log.info("✅ QuestionCascadeDeleteListener initialized");
     }
+
+    @Autowired
+    public void setTaskGroupRepository(TaskGroupRepository taskGroupRepository) {
+        QuestionCascadeDeleteListener.taskGroupRepository = taskGroupRepository;
+    }
     
     // =========================================================================
     // ✅ SINGLE @PreRemove METHOD - Handles all lesson types
@@ -86,22 +94,16 @@ public class QuestionCascadeDeleteListener {
         }
         
         try {
-            List<Question> questions = questionRepository
-                .findByParentTypeAndParentIdOrderByOrderIndexAsc(parentType, parentId);
-            
-            if (!questions.isEmpty()) {
-                int count = questions.size();
-                questionRepository.deleteAll(questions);
-                
-                log.info("✅ Cascade deleted {} questions for {} id={}", 
-                    count, lessonTypeName, parentId);
-                
-                if (log.isDebugEnabled()) {
-                    String questionIds = questions.stream()
-                        .map(q -> q.getId().toString())
-                        .collect(java.util.stream.Collectors.joining(", "));
-                    log.debug("   Deleted question IDs: [{}]", questionIds);
-                }
+            // ✅ Set-based: 1 DELETE cho questions + 1 DELETE cho task groups (thay vì 1 DELETE / row)
+            List<Long> parentIds = List.of(parentId);
+            int questionCount = questionRepository.deleteByParentIds(parentType, parentIds);
+            int taskGroupCount = taskGroupRepository != null
+                    ? taskGroupRepository.deleteByParentIds(parentType, parentIds)
+                    : 0;
+
+            if (questionCount > 0 || taskGroupCount > 0) {
+                log.info("✅ Cascade deleted {} questions, {} task groups for {} id={}",
+                    questionCount, taskGroupCount, lessonTypeName, parentId);
             } else {
                 log.debug("ℹ️ No questions found for {} id={}", lessonTypeName, parentId);
             }
@@ -0,0 +1,90 @@
+package com.thanhnb.englishlearning.entity.listener;
+
+import com.thanhnb.englishlearning.entity.grammar.GrammarLesson;
+import com.thanhnb.englishlearning.entity.listening.ListeningLesson;
+import com.thanhnb.englishlearning.entity.question.Question;
+import com.thanhnb.englishlearning.entity.reading.ReadingLesson;
+import com.thanhnb.englishlearning.entity.topic.Topic;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.service.search.SearchIndexService;
+import com.thanhnb.englishlearning.service.search.SearchIndexService.IndexTask;
+import com.thanhnb.englishlearning.service.search.SearchIndexService.TaskKind;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * 🔍 Entity Listener đồng bộ search_documents
+ *
+ * Chỉ ghi nhận (loại, id) → SearchIndexService xử lý sau khi transaction commit.
+ */
+@Component
+@Slf4j
+public class SearchIndexListener {
+
+    private static SearchIndexService searchIndexService;
+
+    @Autowired
+    public void setSearchIndexService(@Lazy SearchIndexService searchIndexService) {
+        SearchIndexListener.searchIndexService = searchIndexService;
+        log.info("✅ SearchIndexListener initialized");
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void afterSave(Object entity) {
+        IndexTask task = toTask(entity, false);
+        if (task != null) {
+            enqueue(task);
+        }
+    }
+
+    @PostRemove
+    public void afterRemove(Object entity) {
+        IndexTask task = toTask(entity, true);
+        if (task != null) {
+            enqueue(task);
+        }
+    }
+
+    private IndexTask toTask(Object entity, boolean removed) {
+        if (entity instanceof GrammarLesson lesson) {
+            return lessonTask(ModuleType.GRAMMAR, lesson.getId(), removed);
+        } else if (entity instanceof ReadingLesson lesson) {
+            return lessonTask(ModuleType.READING, lesson.getId(), removed);
+        } else if (entity instanceof ListeningLesson lesson) {
+            return lessonTask(ModuleType.LISTENING, lesson.getId(), removed);
+        } else if (entity instanceof Question question) {
+            ModuleType module = question.getParentType() != null
+                    ? SearchIndexService.toModuleType(question.getParentType()) : null;
+            if (module == null) {
+                return null; // Module không có search (SPEAKING, WRITING...)
+            }
+            return new IndexTask(removed ? TaskKind.QUESTION_REMOVE : TaskKind.QUESTION_UPSERT, module, question.getId());
+        } else if (entity instanceof Topic topic) {
+            return new IndexTask(removed ? TaskKind.TOPIC_REMOVE : TaskKind.TOPIC_UPSERT, null, topic.getId());
+        }
+        log.warn("⚠️ Unknown entity type: {}", entity.getClass().getName());
+        return null;
+    }
+
+    private IndexTask lessonTask(ModuleType module, Long lessonId, boolean removed) {
+        return new IndexTask(removed ? TaskKind.LESSON_REMOVE : TaskKind.LESSON_UPSERT, module, lessonId);
+    }
+
+    private void enqueue(IndexTask task) {
+        if (searchIndexService == null || task.id() == null) {
+            return;
+        }
+        try {
+            searchIndexService.enqueue(task);
+        } catch (Exception e) {
+            // Không bao giờ làm hỏng transaction nghiệp vụ vì search index
+            log.warn("⚠️ Failed to enqueue search index task {}: {}", task, e.getMessage());
+        }
+    }
+}
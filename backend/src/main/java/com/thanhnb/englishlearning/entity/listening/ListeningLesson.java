@@ -1,11 +1,17 @@
 package com.thanhnb.englishlearning.entity.listening;
 
+import com.thanhnb.englishlearning.config.SecondLevelCacheConfig;
 import com.thanhnb.englishlearning.entity.listener.QuestionCascadeDeleteListener;
+import com.thanhnb.englishlearning.entity.listener.CatalogVersionListener;
+import com.thanhnb.englishlearning.entity.listener.EntityCacheInvalidationListener;
+import com.thanhnb.englishlearning.entity.listener.SearchIndexListener;
 import com.thanhnb.englishlearning.entity.topic.Topic;
 import com.thanhnb.englishlearning.entity.user.User;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -13,8 +19,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.LISTENING_LESSON_REGION)
 @Table(name = "listening_lessons")
-@EntityListeners(QuestionCascadeDeleteListener.class)
+@EntityListeners({QuestionCascadeDeleteListener.class, SearchIndexListener.class, CatalogVersionListener.class, EntityCacheInvalidationListener.class})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,5 +1,6 @@
 package com.thanhnb.englishlearning.entity.listening;
 
+import com.thanhnb.englishlearning.entity.listener.CatalogVersionListener;
 import com.thanhnb.englishlearning.entity.user.User;
 import com.thanhnb.englishlearning.service.common.LessonProgressService;
 import jakarta.persistence.*;
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "user_listening_progress",
         uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "lesson_id"}))
+@EntityListeners(CatalogVersionListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
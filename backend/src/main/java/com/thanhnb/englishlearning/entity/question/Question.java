@@ -1,6 +1,7 @@
 package com.thanhnb.englishlearning.entity.question;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thanhnb.englishlearning.config.SecondLevelCacheConfig;
 import com.thanhnb.englishlearning.dto.question.request.CreateErrorCorrectionDTO;
 import com.thanhnb.englishlearning.dto.question.request.CreateFillBlankDTO;
 import com.thanhnb.englishlearning.dto.question.request.CreateMatchingDTO;
@@ -10,21 +11,29 @@ import com.thanhnb.englishlearning.dto.question.request.CreatePronunciationsDTO;
 import com.thanhnb.englishlearning.dto.question.request.CreateSentenceBuildingDTO;
 import com.thanhnb.englishlearning.dto.question.request.CreateSentenceTransformationDTO;
 import com.thanhnb.englishlearning.dto.question.request.QuestionData;
+import com.thanhnb.englishlearning.entity.listener.CatalogVersionListener;
+import com.thanhnb.englishlearning.entity.listener.EntityCacheInvalidationListener;
+import com.thanhnb.englishlearning.entity.listener.SearchIndexListener;
 import com.thanhnb.englishlearning.enums.ParentType;
 import com.thanhnb.englishlearning.enums.QuestionType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = SecondLevelCacheConfig.QUESTION_REGION)
 @Table(name = "questions", indexes = {
     @Index(name = "idx_questions_parent", columnList = "parent_id, parent_type, order_index"),
     @Index(name = "idx_questions_type", columnList = "question_type"),
     @Index(name = "idx_questions_task_group", columnList = "task_group_id")
 })
+@EntityListeners({SearchIndexListener.class, CatalogVersionListener.class, EntityCacheInvalidationListener.class})
 @Getter
 @Setter
 @NoArgsConstructor
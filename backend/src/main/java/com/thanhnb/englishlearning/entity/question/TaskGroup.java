@@ -1,17 +1,25 @@
 package com.thanhnb.englishlearning.entity.question;
 
+import com.thanhnb.englishlearning.config.SecondLevelCacheConfig;
+import com.thanhnb.englishlearning.entity.listener.CatalogVersionListener;
+import com.thanhnb.englishlearning.entity.listener.EntityCacheInvalidationListener;
 import com.thanhnb.englishlearning.enums.ParentType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = SecondLevelCacheConfig.TASK_GROUP_REGION)
 @Table(name = "task_groups", indexes = {
     @Index(name = "idx_task_groups_parent", columnList = "parent_id, parent_type, order_index")
 })
+@EntityListeners({CatalogVersionListener.class, EntityCacheInvalidationListener.class})
 @Getter
 @Setter
 @NoArgsConstructor
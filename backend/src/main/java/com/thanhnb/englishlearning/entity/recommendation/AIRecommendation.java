@@ -15,6 +15,7 @@ import java.time.LocalDateTime;
 @Table(name = "ai_recommendations", indexes = {
     @Index(name = "idx_user_priority", columnList = "user_id, priority, created_at"),
     @Index(name = "idx_expires", columnList = "expires_at, is_completed"),
+    @Index(name = "idx_rec_created", columnList = "created_at"), // Rollup funnel theo ngày
 })
 @Getter
 @Setter
@@ -101,4 +102,15 @@ public class AIRecommendation {
     
     @Column(name = "shown_at")
     private LocalDateTime shownAt;
+
+    // Thời điểm từng bước của funnel → rollup theo ngày xảy ra sự kiện (recommendation_daily_stats)
+
+    @Column(name = "accepted_at")
+    private LocalDateTime acceptedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "dismissed_at")
+    private LocalDateTime dismissedAt;
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.thanhnb.englishlearning.entity.recommendation;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Funnel AI recommendation theo (ngày, loại gợi ý, kỹ năng) - toàn hệ thống
+ *
+ * - Chỉ được ghi bởi RecommendationStatsRepository.rollupDay (upsert, job "recommendation-rollup")
+ * - Mỗi bước được tính vào ngày xảy ra sự kiện (created_at / shown_at / accepted_at / completed_at / dismissed_at)
+ * - skill = 'NONE' khi gợi ý không gắn kỹ năng (unique key không chứa NULL)
+ * - Biểu đồ của Admin đọc bảng này, không quét ai_recommendations
+ */
+@Entity
+@Table(name = "recommendation_daily_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_recommendation_daily_stats",
+                columnNames = {"stat_date", "rec_type", "skill"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class RecommendationDailyStats {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "rec_type", nullable = false, length = 50)
+    private String recType;
+
+    @Column(name = "skill", nullable = false, length = 20)
+    private String skill;
+
+    @Column(name = "generated_count", nullable = false)
+    @Builder.Default
+    private Integer generatedCount = 0;
+
+    @Column(name = "shown_count", nullable = false)
+    @Builder.Default
+    private Integer shownCount = 0;
+
+    @Column(name = "accepted_count", nullable = false)
+    @Builder.Default
+    private Integer acceptedCount = 0;
+
+    @Column(name = "completed_count", nullable = false)
+    @Builder.Default
+    private Integer completedCount = 0;
+
+    @Column(name = "dismissed_count", nullable = false)
+    @Builder.Default
+    private Integer dismissedCount = 0;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,85 @@
+package com.thanhnb.englishlearning.entity.search;
+
+import com.thanhnb.englishlearning.enums.EnglishLevel;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.enums.SearchDocType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Document đã chuẩn hóa cho full-text search (1 row / lesson hoặc / question).
+ *
+ * Cột search_vector (tsvector, GENERATED từ title + body) và GIN index được tạo bởi
+ * db/search-schema.sql vì Hibernate không khai báo được generated column / GIN index.
+ * Entity không map cột đó; mọi truy vấn search dùng native query.
+ */
+@Entity
+@Table(name = "search_documents",
+    uniqueConstraints = @UniqueConstraint(name = "uk_search_documents_source",
+        columnNames = {"doc_type", "module", "source_id"}),
+    indexes = {
+        @Index(name = "idx_search_documents_lesson", columnList = "module, lesson_id"),
+        @Index(name = "idx_search_documents_topic", columnList = "topic_id")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(exclude = "body")
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class SearchDocument {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "doc_type", nullable = false, length = 20)
+    private SearchDocType docType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "module", nullable = false, length = 20)
+    private ModuleType module;
+
+    /**
+     * ID của lesson (doc_type = LESSON) hoặc question (doc_type = QUESTION)
+     */
+    @Column(name = "source_id", nullable = false)
+    private Long sourceId;
+
+    @Column(name = "lesson_id", nullable = false)
+    private Long lessonId;
+
+    @Column(name = "topic_id")
+    private Long topicId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "level", length = 10)
+    private EnglishLevel level;
+
+    /**
+     * Tiêu đề hiển thị (lesson title). Chỉ được đánh trọng số trong vector với doc LESSON
+     */
+    @Column(name = "title", nullable = false, length = 200)
+    private String title;
+
+    /**
+     * Text thuần (đã bỏ HTML): content / transcript / question text
+     */
+    @Column(name = "body", columnDefinition = "TEXT")
+    private String body;
+
+    /**
+     * lesson.isActive AND topic.isActive
+     */
+    @Column(name = "is_active", nullable = false)
+    private Boolean isActive;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
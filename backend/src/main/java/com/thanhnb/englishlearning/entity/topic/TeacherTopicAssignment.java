@@ -1,5 +1,6 @@
 package com.thanhnb.englishlearning.entity.topic;
 
+import com.thanhnb.englishlearning.entity.listener.CatalogVersionListener;
 import com.thanhnb.englishlearning.enums.ModuleType;
 import com.thanhnb.englishlearning.entity.user.User;
 
@@ -18,6 +19,7 @@ import org.hibernate.annotations.CreationTimestamp;
         @Index(name = "idx_topic_assignments", columnList = "topic_id, is_active")
     }
 )
+@EntityListeners(CatalogVersionListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
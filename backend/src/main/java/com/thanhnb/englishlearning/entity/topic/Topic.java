@@ -1,14 +1,21 @@
 package com.thanhnb.englishlearning.entity.topic;
 
+import com.thanhnb.englishlearning.config.SecondLevelCacheConfig;
 import com.thanhnb.englishlearning.enums.EnglishLevel;
 import com.thanhnb.englishlearning.enums.ModuleType;
 import com.thanhnb.englishlearning.entity.grammar.GrammarLesson;
 import com.thanhnb.englishlearning.entity.reading.ReadingLesson;
 import com.thanhnb.englishlearning.entity.listening.ListeningLesson;
+import com.thanhnb.englishlearning.entity.listener.CatalogVersionListener;
+import com.thanhnb.englishlearning.entity.listener.EntityCacheInvalidationListener;
+import com.thanhnb.englishlearning.entity.listener.SearchIndexListener;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -16,7 +23,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.TOPIC_REGION)
 @Table(name = "topics")
+@EntityListeners({SearchIndexListener.class, CatalogVersionListener.class, EntityCacheInvalidationListener.class})
+@SQLRestriction("deleted_at IS NULL") // Topic đã soft-delete bị ẩn khỏi mọi query JPA
 @Getter
 @Setter
 @NoArgsConstructor
@@ -53,23 +64,24 @@ public class Topic {
     private Boolean isActive = true;
 
     // ==================== RELATIONSHIPS ====================
+    // Không cascade: xóa topic đi qua BulkDeletionService (DELETE theo tập, đúng thứ tự phụ thuộc)
 
     // Mapping tới danh sách giáo viên quản lý topic này
-    @OneToMany(mappedBy = "topic", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @OneToMany(mappedBy = "topic", fetch = FetchType.LAZY)
     private List<TeacherTopicAssignment> teacherAssignments;
 
     // GRAMMAR
-    @OneToMany(mappedBy = "topic", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @OneToMany(mappedBy = "topic", fetch = FetchType.LAZY)
     @Builder.Default
     private List<GrammarLesson> grammarLessons = new ArrayList<>();
 
     // READING
-    @OneToMany(mappedBy = "topic", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @OneToMany(mappedBy = "topic", fetch = FetchType.LAZY)
     @Builder.Default
     private List<ReadingLesson> readingLessons = new ArrayList<>();
 
     // LISTENING
-    @OneToMany(mappedBy = "topic", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @OneToMany(mappedBy = "topic", fetch = FetchType.LAZY)
     @Builder.Default
     private List<ListeningLesson> listeningLessons = new ArrayList<>();
 
@@ -82,6 +94,12 @@ public class Topic {
     @Column(name = "updated_at")
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    /**
+     * != null → đã soft-delete, chờ job "deleted-topic-purge" xóa thật
+     */
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
     
     // ==================== HELPER METHODS ====================
     
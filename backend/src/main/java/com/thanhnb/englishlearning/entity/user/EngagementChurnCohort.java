@@ -0,0 +1,48 @@
+package com.thanhnb.englishlearning.entity.user;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Cohort theo tháng đăng ký: số user đăng ký và số user churn của từng ngày
+ *
+ * - Chỉ được ghi bởi EngagementStatsRepository.upsertCohortDay (job "engagement-rollup")
+ * - Tính tăng dần: mỗi ngày chỉ xét lát user có last_activity_date rơi đúng vào ngày (stat_date - churnDays)
+ *   → không bao giờ quét toàn bộ user để tìm người bỏ học
+ * - Bảng cohort = SUM theo cohort_month (vài chục row / tháng)
+ */
+@Entity
+@Table(name = "engagement_churn_cohorts",
+        uniqueConstraints = @UniqueConstraint(name = "uk_engagement_churn_cohorts",
+                columnNames = {"cohort_month", "stat_date"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class EngagementChurnCohort {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cohort_month", nullable = false)
+    private LocalDate cohortMonth; // Ngày đầu tháng đăng ký
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "signup_count", nullable = false)
+    private Long signupCount;
+
+    @Column(name = "churned_count", nullable = false)
+    private Long churnedCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,56 @@
+package com.thanhnb.englishlearning.entity.user;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Số liệu tương tác toàn hệ thống của 1 ngày
+ *
+ * - Chỉ được ghi bởi EngagementStatsRepository.upsertDaily (job "engagement-rollup")
+ * - active / weekly / monthly = số user hoạt động trong ngày / 7 ngày / 30 ngày kết thúc ở stat_date,
+ *   ước lượng bằng HyperLogLog của Redis (sai số chuẩn ~0.81%)
+ * - Dashboard của Admin đọc bảng này, không quét user_activities
+ */
+@Entity
+@Table(name = "engagement_daily_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_engagement_daily_stats", columnNames = "stat_date"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class EngagementDailyStats {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "active_users", nullable = false)
+    private Long activeUsers;
+
+    @Column(name = "weekly_active_users", nullable = false)
+    private Long weeklyActiveUsers;
+
+    @Column(name = "monthly_active_users", nullable = false)
+    private Long monthlyActiveUsers;
+
+    @Column(name = "login_users", nullable = false)
+    private Long loginUsers;
+
+    @Column(name = "new_users", nullable = false)
+    private Long newUsers;
+
+    @Column(name = "churned_users", nullable = false)
+    private Long churnedUsers;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
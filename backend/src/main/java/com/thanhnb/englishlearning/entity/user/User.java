@@ -1,5 +1,6 @@
 package com.thanhnb.englishlearning.entity.user;
 
+import com.thanhnb.englishlearning.entity.listener.CatalogVersionListener;
 import com.thanhnb.englishlearning.enums.UserRole;
 import com.thanhnb.englishlearning.enums.EnglishLevel;
 import jakarta.persistence.*;
@@ -9,10 +10,12 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.HashMap;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(CatalogVersionListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -67,6 +70,13 @@ public class User {
     @Column(name = "last_placement_test_date")
     private LocalDateTime lastPlacementTestDate;
 
+    /**
+     * Múi giờ IANA (vd "Asia/Ho_Chi_Minh") - "hôm nay" của streak tính theo múi giờ này.
+     * null → múi giờ server
+     */
+    @Column(name = "time_zone", length = 64)
+    private String timeZone;
+
     // ==================== RELATIONSHIPS ====================
 
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
@@ -121,7 +131,28 @@ public class User {
     }
 
     public Integer getCurrentStreak() {
-        return stats != null ? stats.getCurrentStreak() : 0;
+        return stats != null ? stats.getEffectiveStreak() : 0;
+    }
+
+    /**
+     * Múi giờ dùng để tính ngày học của user (timeZone đã được validate khi ghi)
+     */
+    public ZoneId zoneId() {
+        return zoneOf(timeZone);
+    }
+
+    /**
+     * Cột users.time_zone → ZoneId (rỗng / không hợp lệ → múi giờ server); dùng chung cho entity và truy vấn JDBC
+     */
+    public static ZoneId zoneOf(String timeZone) {
+        if (timeZone == null || timeZone.isBlank()) {
+            return ZoneId.systemDefault();
+        }
+        try {
+            return ZoneId.of(timeZone);
+        } catch (Exception e) {
+            return ZoneId.systemDefault();
+        }
     }
 
     public LocalDateTime getLastLoginDate() {
@@ -2,8 +2,10 @@ package com.thanhnb.englishlearning.entity.user;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import com.thanhnb.englishlearning.enums.ParentType;
@@ -11,7 +13,15 @@ import com.thanhnb.englishlearning.enums.ParentType;
 import jakarta.persistence.*;
 import lombok.*;
 
+/**
+ * Điểm / số bài / thời gian học: chỉ cộng qua UserStatsWriter (UPDATE x = x + ?).
+ * Streak: đọc - sửa - ghi qua entity, @Version chặn ghi đè khi 2 request cùng sửa.
+ * currentStreak chỉ được ghi khi user học; streak đã đứt (lastStreakDate trước "hôm qua" theo
+ * múi giờ của user) không bị reset trong DB mà được coi là 0 lúc đọc → dùng getEffectiveStreak().
+ * @DynamicUpdate → entity chỉ ghi cột đã đổi, không đè lên bộ đếm vừa được cộng song song.
+ */
 @Entity
+@DynamicUpdate
 @Table(name = "user_stats")
 @Getter
 @Setter
@@ -72,6 +82,12 @@ public class UserStats {
     @Builder.Default
     private Integer listeningCompleted = 0;
 
+    // ==================== CONCURRENCY ====================
+
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0 not null")
+    private Long version;
+
     // ==================== TIMESTAMPS ====================
 
     @Column(name = "last_updated")
@@ -94,16 +110,40 @@ public class UserStats {
 
     // ==================== BUSINESS METHODS ====================
 
+    /**
+     * Streak còn sống nếu lần học cuối là hôm nay hoặc hôm qua
+     */
+    public boolean isStreakAlive(LocalDate today) {
+        return isStreakAlive(lastStreakDate, today);
+    }
+
+    /**
+     * Streak thực tế tại thời điểm đọc (currentStreak lưu trong DB có thể đã đứt)
+     */
+    public int getEffectiveStreak() {
+        return effectiveStreak(currentStreak, lastStreakDate, userZone());
+    }
+
+    /**
+     * Quy tắc streak còn sống, dùng chung cho entity và truy vấn JDBC (UserDirectoryRepository)
+     */
+    public static int effectiveStreak(int currentStreak, LocalDate lastStreakDate, ZoneId zone) {
+        return isStreakAlive(lastStreakDate, LocalDate.now(zone)) ? currentStreak : 0;
+    }
+
+    private static boolean isStreakAlive(LocalDate lastStreakDate, LocalDate today) {
+        return lastStreakDate != null && !lastStreakDate.isBefore(today.minusDays(1));
+    }
+
     /**
      * Update streak on activity
-     * 
+     *
+     * @param today "hôm nay" theo múi giờ của user (caller đã có User → không chạm association lazy)
      * @return true if streak was updated, false if already has streak today
      */
-    public boolean updateStreakOnActivity() {
-        LocalDate today = LocalDate.now();
-        
-        // Already studied today
-        if (lastStreakDate != null && lastStreakDate.equals(today)) {
+    public boolean updateStreakOnActivity(LocalDate today) {
+        // Already studied today (lastStreakDate > today khi user đổi sang múi giờ phía tây)
+        if (lastStreakDate != null && !lastStreakDate.isBefore(today)) {
             return false;
         }
         
@@ -133,14 +173,7 @@ public class UserStats {
     }
 
     /**
-     * Update streak (kept for compatibility)
-     */
-    public void updateStreak() {
-        updateStreakOnActivity();
-    }
-
-    /**
-     * Reset streak (used by scheduler)
+     * Reset streak (admin)
      */
     public void resetStreak() {
         this.currentStreak = 0;
@@ -151,8 +184,19 @@ public class UserStats {
     /**
      * Check if has streak today
      */
+    public boolean hasStreakToday(LocalDate today) {
+        return lastStreakDate != null && !lastStreakDate.isBefore(today);
+    }
+
+    /**
+     * Chỉ dùng cho DTO mapper (giống getEffectiveStreak) - đường ghi truyền "hôm nay" vào overload ở trên
+     */
     public boolean hasStreakToday() {
-        return lastStreakDate != null && lastStreakDate.equals(LocalDate.now());
+        return hasStreakToday(LocalDate.now(userZone()));
+    }
+
+    private ZoneId userZone() {
+        return user != null ? user.zoneId() : ZoneId.systemDefault();
     }
 
     /**
@@ -0,0 +1,49 @@
+package com.thanhnb.englishlearning.entity.user;
+
+import com.thanhnb.englishlearning.enums.ModuleType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Thời gian học của user theo (ngày, module), tính bằng giây
+ *
+ * - Chỉ được ghi bởi StudyTimeTracker (upsert cộng dồn theo batch, không ghi mỗi heartbeat)
+ * - Unique (user_id, study_date, module_type) là conflict target của upsert và index cho truy vấn theo user + khoảng ngày
+ */
+@Entity
+@Table(name = "user_study_time",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_study_time",
+                columnNames = {"user_id", "study_date", "module_type"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class UserStudyTime {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "study_date", nullable = false)
+    private LocalDate studyDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "module_type", nullable = false, length = 20)
+    private ModuleType moduleType;
+
+    @Column(name = "seconds", nullable = false)
+    @Builder.Default
+    private Integer seconds = 0;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
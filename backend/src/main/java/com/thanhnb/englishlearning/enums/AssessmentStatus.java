@@ -0,0 +1,19 @@
+package com.thanhnb.englishlearning.enums;
+
+public enum AssessmentStatus {
+    PENDING("Chờ chấm"),
+    PROCESSING("Đang chấm"),
+    ASSESSED("Đã chấm tự động"),
+    FAILED("Chấm lỗi - cần giáo viên chấm"),
+    OVERRIDDEN("Giáo viên đã chấm lại");
+
+    private final String description;
+
+    AssessmentStatus(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
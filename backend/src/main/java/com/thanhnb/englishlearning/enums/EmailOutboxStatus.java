@@ -0,0 +1,18 @@
+package com.thanhnb.englishlearning.enums;
+
+public enum EmailOutboxStatus {
+    PENDING("Chờ gửi"),
+    SENDING("Đang gửi"),
+    SENT("Đã gửi"),
+    FAILED("Gửi lỗi - đã hết số lần thử");
+
+    private final String description;
+
+    EmailOutboxStatus(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,41 @@
+package com.thanhnb.englishlearning.enums;
+
+/**
+ * Template email - file nội dung nằm ở resources/mail/{fileName}.html
+ * (subject cũng được hỗ trợ placeholder {{...}})
+ */
+public enum EmailTemplateType {
+    OTP_VERIFY_EMAIL("otp-verify-email", "Xác thực Email", "Xác thực tài khoản - {{appName}}"),
+    OTP_RESET_PASSWORD("otp-reset-password", "Đặt lại Mật khẩu", "Đặt lại mật khẩu - {{appName}}"),
+    WELCOME("welcome", "Chào mừng đến với {{appName}}", "Chào mừng đến với {{appName}}!");
+
+    private final String fileName;
+    private final String title;
+    private final String subject;
+
+    EmailTemplateType(String fileName, String title, String subject) {
+        this.fileName = fileName;
+        this.title = title;
+        this.subject = subject;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public static EmailTemplateType forOtp(OtpType otpType) {
+        return switch (otpType) {
+            case VERIFY_EMAIL -> OTP_VERIFY_EMAIL;
+            case RESET_PASSWORD -> OTP_RESET_PASSWORD;
+            default -> throw new IllegalArgumentException("Unknown OTP type: " + otpType);
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.thanhnb.englishlearning.enums;
+
+public enum JobRunStatus {
+    RUNNING("Đang chạy"),
+    SUCCEEDED("Thành công"),
+    FAILED("Thất bại"),
+    SKIPPED("Bỏ qua - node khác đang giữ lock");
+
+    private final String description;
+
+    JobRunStatus(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,16 @@
+package com.thanhnb.englishlearning.enums;
+
+public enum JobTriggerType {
+    SCHEDULED("Chạy theo lịch cron"),
+    MANUAL("Admin kích hoạt thủ công");
+
+    private final String description;
+
+    JobTriggerType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
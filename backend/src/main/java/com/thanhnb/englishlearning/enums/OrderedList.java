@@ -0,0 +1,94 @@
+package com.thanhnb.englishlearning.enums;
+
+import com.thanhnb.englishlearning.entity.grammar.GrammarLesson;
+import com.thanhnb.englishlearning.entity.listening.ListeningLesson;
+import com.thanhnb.englishlearning.entity.question.Question;
+import com.thanhnb.englishlearning.entity.question.TaskGroup;
+import com.thanhnb.englishlearning.entity.reading.ReadingLesson;
+import com.thanhnb.englishlearning.entity.topic.Topic;
+
+/**
+ * 🔢 Các loại danh sách có thứ tự (cột order_index)
+ *
+ * Mỗi loại = 1 bảng + cột xác định "danh sách cha":
+ * - Topic: theo module_type
+ * - Lesson: theo topic_id
+ * - TaskGroup / Question: theo (parent_type, parent_id) = lesson
+ *
+ * Topic: bỏ qua topic đã soft-delete (deleted_at) và topic placement test (order_index = 0,
+ * xem TopicRepository.findPlacementTopicIdByModuleType) - dàn đều không được đổi key 0 của nó.
+ */
+public enum OrderedList {
+
+    TOPIC("topics", "module_type", null, "deleted_at IS NULL AND order_index > 0", Topic.class),
+    GRAMMAR_LESSON("grammar_lessons", null, "topic_id", null, GrammarLesson.class),
+    READING_LESSON("reading_lessons", null, "topic_id", null, ReadingLesson.class),
+    LISTENING_LESSON("listening_lessons", null, "topic_id", null, ListeningLesson.class),
+    TASK_GROUP("task_groups", "parent_type", "parent_id", null, TaskGroup.class),
+    QUESTION("questions", "parent_type", "parent_id", null, Question.class);
+
+    private final String table;
+    private final String parentKeyColumn;
+    private final String parentIdColumn;
+    private final String rowFilter;
+    private final Class<?> entityClass;
+
+    OrderedList(String table, String parentKeyColumn, String parentIdColumn, String rowFilter,
+            Class<?> entityClass) {
+        this.table = table;
+        this.parentKeyColumn = parentKeyColumn;
+        this.parentIdColumn = parentIdColumn;
+        this.rowFilter = rowFilter;
+        this.entityClass = entityClass;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public String getParentKeyColumn() {
+        return parentKeyColumn;
+    }
+
+    public String getParentIdColumn() {
+        return parentIdColumn;
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * Điều kiện SQL: row có tham gia sắp xếp không ("TRUE" nếu mọi row đều tham gia)
+     */
+    public String rowFilter() {
+        return rowFilter != null ? rowFilter : "TRUE";
+    }
+
+    /**
+     * Điều kiện SQL chọn đúng 1 danh sách (tham số :parentKey / :parentId)
+     */
+    public String scopePredicate() {
+        String parent;
+        if (parentKeyColumn != null && parentIdColumn != null) {
+            parent = parentKeyColumn + " = :parentKey AND " + parentIdColumn + " = :parentId";
+        } else {
+            parent = parentKeyColumn != null
+                    ? parentKeyColumn + " = :parentKey"
+                    : parentIdColumn + " = :parentId";
+        }
+        return rowFilter != null ? parent + " AND " + rowFilter : parent;
+    }
+
+    /**
+     * Danh sách lesson của 1 module
+     */
+    public static OrderedList lessonsOf(ParentType lessonType) {
+        return switch (lessonType) {
+            case GRAMMAR -> GRAMMAR_LESSON;
+            case READING -> READING_LESSON;
+            case LISTENING -> LISTENING_LESSON;
+            default -> throw new IllegalArgumentException("Module không có danh sách lesson: " + lessonType);
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package com.thanhnb.englishlearning.enums;
+
+public enum RateLimitAlgorithm {
+    TOKEN_BUCKET("Token bucket - cho phép burst tới limit, hồi token đều theo window"),
+    SLIDING_WINDOW("Sliding window - tối đa limit request trong window bất kỳ (xấp xỉ 2 cửa sổ)");
+
+    private final String description;
+
+    RateLimitAlgorithm(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
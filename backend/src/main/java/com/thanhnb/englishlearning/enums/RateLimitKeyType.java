@@ -0,0 +1,16 @@
+package com.thanhnb.englishlearning.enums;
+
+public enum RateLimitKeyType {
+    USER("Theo user đăng nhập (fallback IP nếu chưa đăng nhập)"),
+    IP("Theo địa chỉ IP client");
+
+    private final String description;
+
+    RateLimitKeyType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,16 @@
+package com.thanhnb.englishlearning.enums;
+
+public enum SearchDocType {
+    LESSON("Bài học (tiêu đề + nội dung/transcript)"),
+    QUESTION("Câu hỏi");
+
+    private final String description;
+
+    SearchDocType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,22 @@
+package com.thanhnb.englishlearning.enums;
+
+/**
+ * Độ chi tiết của biểu đồ thống kê theo thời gian
+ */
+public enum StatsGranularity {
+    DAY("day"),
+    WEEK("week"); // Tuần bắt đầu từ thứ Hai (date_trunc của PostgreSQL)
+
+    private final String truncUnit;
+
+    StatsGranularity(String truncUnit) {
+        this.truncUnit = truncUnit;
+    }
+
+    /**
+     * Tham số đơn vị của date_trunc
+     */
+    public String getTruncUnit() {
+        return truncUnit;
+    }
+}
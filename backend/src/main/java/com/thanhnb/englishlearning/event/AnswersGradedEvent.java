@@ -0,0 +1,55 @@
+package com.thanhnb.englishlearning.event;
+
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.enums.QuestionType;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Kết quả chấm từng câu của 1 lần nộp bài (publish trong transaction submit)
+ */
+@Getter
+public class AnswersGradedEvent extends ApplicationEvent {
+
+    private final UUID submissionId;
+    private final Long userId;
+    private final ModuleType module;
+    private final Long lessonId;
+    private final LocalDateTime gradedAt;
+    private final double scorePercentage;
+    private final int maxScore;
+    private final List<GradedAnswer> answers;
+
+    public AnswersGradedEvent(Object source, Long userId, ModuleType module, Long lessonId,
+                              double scorePercentage, int maxScore, List<GradedAnswer> answers) {
+        super(source);
+        this.submissionId = UUID.randomUUID();
+        this.userId = userId;
+        this.module = module;
+        this.lessonId = lessonId;
+        this.gradedAt = LocalDateTime.now();
+        this.scorePercentage = scorePercentage;
+        this.maxScore = maxScore;
+        this.answers = List.copyOf(answers);
+    }
+
+    /**
+     * @param selectedOptions ID đáp án đã chọn, nối bằng dấu phẩy (null nếu không có)
+     * @param needsManualGrading OPEN_ENDED đã được nhận tạm, chờ chấm lại
+     * @param maxPoints điểm tối đa của câu hỏi
+     */
+    public record GradedAnswer(
+            Long questionId,
+            QuestionType questionType,
+            String textAnswer,
+            String selectedOptions,
+            boolean correct,
+            int points,
+            boolean needsManualGrading,
+            int maxPoints) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.thanhnb.englishlearning.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Lesson nghe đã bị xóa trong DB → file audio cần được dọn sau khi transaction commit
+ */
+@Getter
+public class AudioFilesOrphanedEvent extends ApplicationEvent {
+
+    private final List<String> audioUrls;
+
+    public AudioFilesOrphanedEvent(Object source, List<String> audioUrls) {
+        super(source);
+        this.audioUrls = List.copyOf(audioUrls);
+    }
+}
@@ -0,0 +1,19 @@
+package com.thanhnb.englishlearning.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Có email mới trong outbox (publish trong transaction ghi outbox)
+ * → sau commit worker gửi ngay thay vì chờ chu kỳ quét
+ */
+@Getter
+public class EmailQueuedEvent extends ApplicationEvent {
+
+    private final Long outboxId;
+
+    public EmailQueuedEvent(Object source, Long outboxId) {
+        super(source);
+        this.outboxId = outboxId;
+    }
+}
@@ -0,0 +1,21 @@
+package com.thanhnb.englishlearning.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Set;
+
+/**
+ * Số lesson active / level / trạng thái của các topic đã đổi so với lần tính trước
+ * → bộ đếm tiến độ level của user trong các topic này cần đối soát lại
+ */
+@Getter
+public class LevelCatalogChangedEvent extends ApplicationEvent {
+
+    private final Set<Long> topicIds;
+
+    public LevelCatalogChangedEvent(Object source, Set<Long> topicIds) {
+        super(source);
+        this.topicIds = Set.copyOf(topicIds);
+    }
+}
@@ -0,0 +1,14 @@
+package com.thanhnb.englishlearning.exception;
+
+public class CredentialServiceBusyException extends BaseException {
+    private final int retryAfterSeconds;
+
+    public CredentialServiceBusyException(String message, int retryAfterSeconds) {
+        super(message, 503); // 503 Service Unavailable
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,5 +1,6 @@
 package com.thanhnb.englishlearning.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -72,6 +73,19 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(response);
     }
 
+    // ✅ Hashing pool quá tải → 503 + Retry-After để client thử lại sau
+    @ExceptionHandler(CredentialServiceBusyException.class)
+    public ResponseEntity<?> handleCredentialServiceBusy(CredentialServiceBusyException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("status", ex.getStatusCode());
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleGlobalException(Exception ex) {
         ex.printStackTrace(); // Log full stack trace
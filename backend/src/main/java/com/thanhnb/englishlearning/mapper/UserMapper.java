@@ -11,7 +11,7 @@ public class UserMapper {
         return UserStatsDto.builder()
                 .userId(stats.getUserId())
                 .totalPoints(stats.getTotalPoints())
-                .currentStreak(stats.getCurrentStreak())
+                .currentStreak(stats.getEffectiveStreak())
                 .longestStreak(stats.getLongestStreak())
                 .lastStreakDate(stats.getLastStreakDate())
                 .hasStreakToday(stats.hasStreakToday())
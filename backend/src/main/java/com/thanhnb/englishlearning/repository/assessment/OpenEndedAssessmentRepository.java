@@ -0,0 +1,64 @@
+package com.thanhnb.englishlearning.repository.assessment;
+
+import com.thanhnb.englishlearning.entity.assessment.OpenEndedAssessment;
+import com.thanhnb.englishlearning.enums.AssessmentStatus;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OpenEndedAssessmentRepository extends JpaRepository<OpenEndedAssessment, Long> {
+
+    // ==================== QUEUE ====================
+
+    /**
+     * Lấy các row sẵn sàng chấm, khóa row (SKIP LOCKED → nhiều node không claim trùng)
+     * Row PROCESSING quá hạn lock (node chết giữa chừng) được claim lại.
+     */
+    @Query(value = "SELECT id FROM open_ended_assessments " +
+            "WHERE (status = 'PENDING' AND next_attempt_at <= :now) " +
+            "   OR (status = 'PROCESSING' AND locked_until < :now) " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockReadyIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OpenEndedAssessment a SET a.status = :status, a.lockedUntil = :lockedUntil, " +
+            "a.attempts = a.attempts + 1 WHERE a.id IN :ids")
+    int markClaimed(@Param("ids") Collection<Long> ids,
+            @Param("status") AssessmentStatus status,
+            @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    long countByStatus(AssessmentStatus status);
+
+    Page<OpenEndedAssessment> findByStatusOrderByCreatedAtAsc(AssessmentStatus status, Pageable pageable);
+
+    List<OpenEndedAssessment> findByUserIdAndModuleAndLessonIdOrderByCreatedAtDesc(
+            Long userId, ModuleType module, Long lessonId);
+
+    /**
+     * Tổng điểm đã chấm cho các câu OPEN_ENDED của 1 lần nộp
+     */
+    @Query("SELECT COALESCE(SUM(a.awardedPoints), 0) FROM OpenEndedAssessment a " +
+            "WHERE a.submissionId = :submissionId AND a.awardedPoints IS NOT NULL")
+    int sumAwardedPoints(@Param("submissionId") UUID submissionId);
+
+    // ==================== DELETE ====================
+
+    @Modifying
+    @Query("DELETE FROM OpenEndedAssessment a WHERE a.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM OpenEndedAssessment a WHERE a.module = :module AND a.lessonId IN :lessonIds")
+    int deleteByLessonIds(@Param("module") ModuleType module, @Param("lessonIds") Collection<Long> lessonIds);
+}
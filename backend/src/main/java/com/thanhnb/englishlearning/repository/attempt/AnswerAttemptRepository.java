@@ -0,0 +1,253 @@
+package com.thanhnb.englishlearning.repository.attempt;
+
+import com.thanhnb.englishlearning.dto.attempt.AnswerAttemptDTO;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.enums.QuestionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Truy cập bảng answer_attempts (partitioned theo tháng) bằng JDBC
+ *
+ * Không dùng JpaRepository: bảng partitioned do db/attempt-schema.sql quản lý,
+ * ghi theo batch lớn và chỉ đọc qua projection.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AnswerAttemptRepository {
+
+    public static final String TABLE = "answer_attempts";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    /**
+     * Row chờ ghi
+     */
+    public record NewAttempt(
+            UUID submissionId,
+            Long userId,
+            ModuleType module,
+            Long lessonId,
+            Long questionId,
+            QuestionType questionType,
+            String answerText,
+            String selectedOptions,
+            boolean correct,
+            int points,
+            boolean needsManualGrading,
+            LocalDateTime attemptedAt) {
+    }
+
+    private static final RowMapper<AnswerAttemptDTO> DTO_MAPPER = (rs, i) -> AnswerAttemptDTO.builder()
+            .id(rs.getLong("id"))
+            .module(ModuleType.valueOf(rs.getString("module")))
+            .lessonId(rs.getLong("lesson_id"))
+            .questionId(rs.getLong("question_id"))
+            .questionType(QuestionType.valueOf(rs.getString("question_type")))
+            .answerText(rs.getString("answer_text"))
+            .selectedOptions(rs.getString("selected_options"))
+            .isCorrect(rs.getBoolean("is_correct"))
+            .points(rs.getInt("points"))
+            .needsManualGrading(rs.getBoolean("needs_manual_grading"))
+            .attemptedAt(rs.getTimestamp("attempted_at").toLocalDateTime())
+            .build();
+
+    private static final String SELECT_COLUMNS = "id, module, lesson_id, question_id, question_type, answer_text, " +
+            "selected_options, is_correct, points, needs_manual_grading, attempted_at";
+
+    // ==================== WRITE ====================
+
+    public int[] batchInsert(List<NewAttempt> attempts) {
+        return jdbcTemplate.batchUpdate(
+                "INSERT INTO answer_attempts (submission_id, user_id, module, lesson_id, question_id, question_type, " +
+                        "answer_text, selected_options, is_correct, points, needs_manual_grading, attempted_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                attempts,
+                attempts.size(),
+                (ps, a) -> {
+                    ps.setObject(1, a.submissionId());
+                    ps.setLong(2, a.userId());
+                    ps.setString(3, a.module().name());
+                    ps.setLong(4, a.lessonId());
+                    ps.setLong(5, a.questionId());
+                    ps.setString(6, a.questionType().name());
+                    ps.setString(7, a.answerText());
+                    ps.setString(8, a.selectedOptions());
+                    ps.setBoolean(9, a.correct());
+                    ps.setInt(10, a.points());
+                    ps.setBoolean(11, a.needsManualGrading());
+                    ps.setTimestamp(12, Timestamp.valueOf(a.attemptedAt()));
+                });
+    }
+
+    /**
+     * Ghi kết quả chấm OPEN_ENDED vào attempt tương ứng
+     */
+    public int applyAssessment(UUID submissionId, Long questionId, int points, boolean correct) {
+        return jdbcTemplate.update(
+                "UPDATE answer_attempts SET points = ?, is_correct = ?, needs_manual_grading = FALSE " +
+                        "WHERE submission_id = ? AND question_id = ?",
+                points, correct, submissionId, questionId);
+    }
+
+    // ==================== PROJECTIONS ====================
+
+    /**
+     * N câu sai gần nhất cho MỖI loại câu hỏi (dùng partial index idx_answer_attempts_user_wrong)
+     */
+    public List<AnswerAttemptDTO> findRecentWrongPerType(Long userId, LocalDateTime since, int perType) {
+        String sql = "SELECT " + SELECT_COLUMNS + " FROM (" +
+                "  SELECT a.*, row_number() OVER (PARTITION BY a.question_type ORDER BY a.attempted_at DESC) AS rn " +
+                "  FROM answer_attempts a " +
+                "  WHERE a.user_id = :userId AND a.is_correct = FALSE AND a.attempted_at >= :since" +
+                ") t WHERE t.rn <= :perType " +
+                "ORDER BY t.question_type, t.attempted_at DESC";
+        return namedJdbcTemplate.query(sql, new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("since", Timestamp.valueOf(since))
+                .addValue("perType", perType), DTO_MAPPER);
+    }
+
+    /**
+     * Số câu sai theo loại câu hỏi từ mốc thời gian (giảm dần)
+     */
+    public Map<String, Integer> countWrongByType(Long userId, LocalDateTime since) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        namedJdbcTemplate.query(
+                "SELECT question_type, COUNT(*) AS cnt FROM answer_attempts " +
+                        "WHERE user_id = :userId AND is_correct = FALSE AND attempted_at >= :since " +
+                        "GROUP BY question_type ORDER BY cnt DESC",
+                new MapSqlParameterSource()
+                        .addValue("userId", userId)
+                        .addValue("since", Timestamp.valueOf(since)),
+                rs -> {
+                    result.put(rs.getString("question_type"), rs.getInt("cnt"));
+                });
+        return result;
+    }
+
+    public List<AnswerAttemptDTO> findRecentByUser(Long userId, int limit) {
+        return namedJdbcTemplate.query(
+                "SELECT " + SELECT_COLUMNS + " FROM answer_attempts WHERE user_id = :userId " +
+                        "ORDER BY attempted_at DESC LIMIT :limit",
+                new MapSqlParameterSource().addValue("userId", userId).addValue("limit", limit),
+                DTO_MAPPER);
+    }
+
+    // ==================== DELETE ====================
+
+    public int deleteByUserId(Long userId) {
+        return jdbcTemplate.update("DELETE FROM answer_attempts WHERE user_id = ?", userId);
+    }
+
+    public int deleteByLessonIds(ModuleType module, Collection<Long> lessonIds) {
+        return namedJdbcTemplate.update(
+                "DELETE FROM answer_attempts WHERE module = :module AND lesson_id IN (:lessonIds)",
+                new MapSqlParameterSource()
+                        .addValue("module", module.name())
+                        .addValue("lessonIds", lessonIds));
+    }
+
+    // ==================== PARTITION MAINTENANCE ====================
+
+    /**
+     * Tên các partition tháng hiện có (không gồm partition DEFAULT)
+     */
+    public List<String> findMonthlyPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "JOIN pg_class p ON p.oid = i.inhparent " +
+                        "WHERE p.relname = 'answer_attempts' AND c.relname <> 'answer_attempts_default' " +
+                        "ORDER BY c.relname",
+                String.class);
+    }
+
+    /**
+     * Tên partition do code sinh ra (answer_attempts_yYYYYmMM) → an toàn khi ghép vào DDL
+     */
+    public void createMonthlyPartition(String partitionName, LocalDate from, LocalDate to) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName +
+                " PARTITION OF answer_attempts FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    /**
+     * Partition DEFAULT có row nào trong [from, to) không (tháng đó từng thiếu partition)
+     */
+    public boolean hasDefaultRows(LocalDate from, LocalDate to) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM answer_attempts_default WHERE attempted_at >= ? AND attempted_at < ?)",
+                Boolean.class, Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.atStartOfDay())));
+    }
+
+    /**
+     * Tạo partition tháng khi DEFAULT đã giữ row của tháng đó (CREATE ... PARTITION OF sẽ lỗi vi phạm ràng buộc):
+     * khóa DEFAULT → tạo bảng rời → chuyển row từ DEFAULT sang → ATTACH. Caller chạy trong 1 transaction.
+     *
+     * @return số row đã chuyển khỏi DEFAULT
+     */
+    public int createMonthlyPartitionFromDefault(String partitionName, LocalDate from, LocalDate to) {
+        jdbcTemplate.execute("LOCK TABLE answer_attempts_default IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("CREATE TABLE " + partitionName + " (LIKE answer_attempts INCLUDING DEFAULTS)");
+        int moved = jdbcTemplate.update(
+                "WITH moved AS (DELETE FROM answer_attempts_default WHERE attempted_at >= ? AND attempted_at < ? RETURNING *) " +
+                        "INSERT INTO " + partitionName + " SELECT * FROM moved",
+                Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.atStartOfDay()));
+        jdbcTemplate.execute("ALTER TABLE answer_attempts ATTACH PARTITION " + partitionName +
+                " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        return moved;
+    }
+
+    /**
+     * Gộp partition theo (ngày, user, module, loại câu hỏi). Chạy lại vẫn cho cùng kết quả.
+     */
+    public int rollupPartition(String partitionName) {
+        return jdbcTemplate.update(
+                "INSERT INTO answer_attempt_daily_rollups (day, user_id, module, question_type, attempts, correct, points) " +
+                        "SELECT CAST(attempted_at AS date), user_id, module, question_type, COUNT(*), " +
+                        "       COUNT(*) FILTER (WHERE is_correct), COALESCE(SUM(points), 0) " +
+                        "FROM " + partitionName + " " +
+                        "GROUP BY CAST(attempted_at AS date), user_id, module, question_type " +
+                        "ON CONFLICT (day, user_id, module, question_type) DO UPDATE SET " +
+                        "attempts = EXCLUDED.attempts, correct = EXCLUDED.correct, points = EXCLUDED.points");
+    }
+
+    /**
+     * Retention cho partition DEFAULT: gộp row cũ hơn before vào rollup rồi xóa (cùng 1 câu lệnh).
+     * Cộng dồn vào rollup sẵn có vì row đã xóa không được gộp lại lần nữa.
+     *
+     * @return số dòng rollup được thêm / cập nhật
+     */
+    public int rollupAndDeleteDefaultBefore(LocalDate before) {
+        return jdbcTemplate.update(
+                "WITH expired AS (DELETE FROM answer_attempts_default WHERE attempted_at < ? " +
+                        "  RETURNING attempted_at, user_id, module, question_type, is_correct, points) " +
+                        "INSERT INTO answer_attempt_daily_rollups AS r (day, user_id, module, question_type, attempts, correct, points) " +
+                        "SELECT CAST(attempted_at AS date), user_id, module, question_type, COUNT(*), " +
+                        "       COUNT(*) FILTER (WHERE is_correct), COALESCE(SUM(points), 0) " +
+                        "FROM expired " +
+                        "GROUP BY CAST(attempted_at AS date), user_id, module, question_type " +
+                        "ON CONFLICT (day, user_id, module, question_type) DO UPDATE SET " +
+                        "attempts = r.attempts + EXCLUDED.attempts, correct = r.correct + EXCLUDED.correct, " +
+                        "points = r.points + EXCLUDED.points",
+                Timestamp.valueOf(before.atStartOfDay()));
+    }
+
+    public void dropPartition(String partitionName) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName);
+    }
+}
@@ -0,0 +1,51 @@
+package com.thanhnb.englishlearning.repository.email;
+
+import com.thanhnb.englishlearning.entity.email.EmailOutbox;
+import com.thanhnb.englishlearning.enums.EmailOutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Lấy các email sẵn sàng gửi, khóa row (SKIP LOCKED → nhiều node không claim trùng)
+     * Row SENDING quá hạn lock (node chết giữa chừng) được claim lại.
+     */
+    @Query(value = "SELECT id FROM email_outbox " +
+            "WHERE (status = 'PENDING' AND next_attempt_at <= :now) " +
+            "   OR (status = 'SENDING' AND locked_until < :now) " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockReadyIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.lockedUntil = :lockedUntil, " +
+            "e.attempts = e.attempts + 1 WHERE e.id IN :ids")
+    int markClaimed(@Param("ids") Collection<Long> ids,
+            @Param("status") EmailOutboxStatus status,
+            @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.sentAt = :sentAt, e.params = NULL, " +
+            "e.lockedUntil = NULL, e.lastError = NULL WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids,
+            @Param("status") EmailOutboxStatus status,
+            @Param("sentAt") LocalDateTime sentAt);
+
+    long countByStatus(EmailOutboxStatus status);
+
+    @Query("SELECT MIN(e.createdAt) FROM EmailOutbox e WHERE e.status = :status")
+    LocalDateTime findOldestCreatedAt(@Param("status") EmailOutboxStatus status);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.status IN :statuses AND e.createdAt < :before")
+    int deleteByStatusInAndCreatedAtBefore(@Param("statuses") Collection<EmailOutboxStatus> statuses,
+            @Param("before") LocalDateTime before);
+}
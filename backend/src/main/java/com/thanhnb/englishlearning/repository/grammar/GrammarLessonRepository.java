@@ -5,7 +5,10 @@ import com.thanhnb.englishlearning.enums.LessonType;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,6 +16,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.Modifying;
 import java.util.List;
 import java.util.Optional;
+import java.util.Collection;
 
 @Repository
 public interface GrammarLessonRepository extends JpaRepository<GrammarLesson, Long> {
@@ -23,19 +27,11 @@ public interface GrammarLessonRepository extends JpaRepository<GrammarLesson, Lo
 
        Page<GrammarLesson> findByTopicId(Long topicId, Pageable pageable);
 
+       @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
        List<GrammarLesson> findByTopicIdOrderByOrderIndexAsc(Long topicId);
 
        List<GrammarLesson> findByIsActiveTrueOrderByOrderIndexAsc();
 
-       // Lấy số thứ tự lớn nhất của lesson trong topic
-       @Query("SELECT MAX(gl.orderIndex) FROM GrammarLesson gl WHERE gl.topic.id = :topicId")
-       Integer findMaxOrderIndexByTopicId(@Param("topicId") Long topicId);
-
-       @Modifying
-       @Query("UPDATE GrammarLesson g SET g.orderIndex = g.orderIndex - 1 " +
-                     "WHERE g.topic.id = :topicId AND g.orderIndex > :deletedOrderIndex")
-       int shiftOrderAfterDelete(Long topicId, Integer deletedOrderIndex);
-
        // Tìm lesson với câu hỏi (sử dụng bảng question)
        @Query("SELECT gl FROM GrammarLesson gl " +
                      "LEFT JOIN FETCH Question q ON q.parentId = gl.id AND q.parentType = 'GRAMMAR' " +
@@ -55,11 +51,18 @@ public interface GrammarLessonRepository extends JpaRepository<GrammarLesson, Lo
 
        int countByTopicIdAndIsActiveTrue(Long topicId);
 
+       /**
+        * Số lesson active theo từng topic: [topicId, count]
+        */
+       @Query("SELECT l.topic.id, COUNT(l) FROM GrammarLesson l WHERE l.isActive = true GROUP BY l.topic.id")
+       List<Object[]> countActiveLessonsGroupByTopic();
+
        @Query("SELECT gl FROM GrammarLesson gl WHERE gl.topic.id = :topicId ORDER BY gl.orderIndex ASC")
        List<GrammarLesson> findAllByTopicIdOrderByOrderIndexAsc(@Param("topicId") Long topicId);
 
        // ===== USER ============
        // Tìm lesson theo topic, vị trí theo order_index
+       @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
        List<GrammarLesson> findByTopicIdAndIsActiveTrueOrderByOrderIndexAsc(Long topicId);
 
        // Tìm lesson theo kiểu(type) của topic
@@ -82,5 +85,24 @@ public interface GrammarLessonRepository extends JpaRepository<GrammarLesson, Lo
 
        // Đếm số lesson theo lesson type trong topic
        long countByTopicIdAndLessonTypeAndIsActiveTrue(Long topicId, LessonType lessonType);
-       
+
+       // ==================== BULK DELETE (set-based) ====================
+
+       @Query("SELECT l.id FROM GrammarLesson l WHERE l.topic.id = :topicId ORDER BY l.id")
+       List<Long> findIdsByTopicId(@Param("topicId") Long topicId);
+
+       @Query("SELECT DISTINCT l.topic.id FROM GrammarLesson l WHERE l.id IN :ids")
+       List<Long> findTopicIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+       @Modifying(flushAutomatically = true, clearAutomatically = true)
+       @Query("DELETE FROM GrammarLesson l WHERE l.id IN :ids")
+       int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+       @Modifying
+       @Query("UPDATE GrammarLesson l SET l.isActive = false WHERE l.topic.id = :topicId")
+       int deactivateByTopicId(@Param("topicId") Long topicId);
+
+       @Modifying
+       @Query("UPDATE GrammarLesson l SET l.modifiedBy = null WHERE l.modifiedBy.id = :userId")
+       int clearModifiedBy(@Param("userId") Long userId);
 }
@@ -11,6 +11,7 @@ import com.thanhnb.englishlearning.entity.grammar.UserGrammarProgress;
 import java.util.Optional;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Collection;
 
 @Repository
 public interface UserGrammarProgressRepository extends JpaRepository<UserGrammarProgress, Long> {
@@ -68,6 +69,22 @@ public interface UserGrammarProgressRepository extends JpaRepository<UserGrammar
                      @Param("userId") Long userId,
                      @Param("topicId") Long topicId);
 
+       /**
+        * Số lesson đã hoàn thành theo từng topic của 1 user: [topicId, count]
+        */
+       @Query("SELECT p.lesson.topic.id, COUNT(p) FROM UserGrammarProgress p " +
+                     "WHERE p.user.id = :userId AND p.isCompleted = true " +
+                     "GROUP BY p.lesson.topic.id")
+       List<Object[]> countCompletedLessonsGroupByTopic(@Param("userId") Long userId);
+
+       /**
+        * Số lesson đã hoàn thành trong 1 topic theo từng user: [userId, count]
+        */
+       @Query("SELECT p.user.id, COUNT(p) FROM UserGrammarProgress p " +
+                     "WHERE p.lesson.topic.id = :topicId AND p.isCompleted = true " +
+                     "GROUP BY p.user.id")
+       List<Object[]> countCompletedLessonsGroupByUser(@Param("topicId") Long topicId);
+
        // ===== NEW QUERIES FOR READING PROGRESS TRACKING =====
 
        List<UserGrammarProgress> findByUserIdAndIsCompletedTrueAndScorePercentageLessThanAndCompletedAtBefore(
@@ -121,4 +138,18 @@ public interface UserGrammarProgressRepository extends JpaRepository<UserGrammar
        @Modifying
        @Query("DELETE FROM UserGrammarProgress ugp WHERE ugp.user.id = :userId")
        int deleteByUserId(@Param("userId") Long userId);
-}
\ No newline at end of file
+
+       @Modifying
+       @Query("DELETE FROM UserGrammarProgress p WHERE p.lesson.id IN :lessonIds")
+       int deleteByLessonIdIn(@Param("lessonIds") Collection<Long> lessonIds);
+
+       /**
+        * Nâng điểm cao nhất khi câu OPEN_ENDED được chấm xong (không bao giờ hạ điểm)
+        */
+       @Modifying
+       @Query("UPDATE UserGrammarProgress p SET p.scorePercentage = :score " +
+                     "WHERE p.user.id = :userId AND p.lesson.id = :lessonId " +
+                     "AND (p.scorePercentage IS NULL OR p.scorePercentage < :score)")
+       int raiseScore(@Param("userId") Long userId, @Param("lessonId") Long lessonId,
+                     @Param("score") Double score);
+}
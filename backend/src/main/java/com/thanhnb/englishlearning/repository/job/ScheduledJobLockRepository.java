@@ -0,0 +1,74 @@
+package com.thanhnb.englishlearning.repository.job;
+
+import com.thanhnb.englishlearning.entity.job.ScheduledJobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Lease table cho scheduled jobs.
+ *
+ * Tất cả thời gian lấy từ now() của Postgres để không phụ thuộc đồng hồ từng node.
+ * Mỗi method tự commit (REQUIRES_NEW) để lease có hiệu lực ngay với các node khác.
+ */
+@Repository
+public interface ScheduledJobLockRepository extends JpaRepository<ScheduledJobLock, String> {
+
+    /**
+     * Tạo row lock cho job nếu chưa có (idempotent)
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO scheduled_job_locks (job_name, locked_until, locked_at, locked_by, released_at) " +
+            "VALUES (:jobName, now(), now(), '', now()) " +
+            "ON CONFLICT (job_name) DO NOTHING", nativeQuery = true)
+    int ensureLockRow(@Param("jobName") String jobName);
+
+    /**
+     * Giành lease nếu lease hiện tại đã hết hạn
+     *
+     * ignoreMinimumHold = true (manual trigger): lease đã trả nhưng còn trong lockAtLeastFor vẫn giành được,
+     * chỉ lần chạy chưa trả lease mới chặn
+     *
+     * @return 1 nếu giành được, 0 nếu node khác đang giữ
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "UPDATE scheduled_job_locks SET " +
+            "locked_until = now() + make_interval(secs => CAST(:lockAtMostSeconds AS double precision)), " +
+            "locked_at = now(), locked_by = :nodeId, released_at = NULL " +
+            "WHERE job_name = :jobName " +
+            "AND (locked_until <= now() OR (CAST(:ignoreMinimumHold AS boolean) AND released_at IS NOT NULL))",
+            nativeQuery = true)
+    int tryAcquire(@Param("jobName") String jobName,
+            @Param("nodeId") String nodeId,
+            @Param("lockAtMostSeconds") long lockAtMostSeconds,
+            @Param("ignoreMinimumHold") boolean ignoreMinimumHold);
+
+    /**
+     * Trả lease, nhưng giữ tối thiểu lockAtLeastFor kể từ lúc giành
+     * để node có đồng hồ lệch vài giây không chạy lại cùng một lượt cron
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "UPDATE scheduled_job_locks SET " +
+            "locked_until = GREATEST(now(), locked_at + make_interval(secs => CAST(:lockAtLeastSeconds AS double precision))), " +
+            "released_at = now() " +
+            "WHERE job_name = :jobName AND locked_by = :nodeId", nativeQuery = true)
+    int release(@Param("jobName") String jobName,
+            @Param("nodeId") String nodeId,
+            @Param("lockAtLeastSeconds") long lockAtLeastSeconds);
+
+    /**
+     * Lease còn hạn theo now() của DB (rỗng nếu đã hết hạn)
+     */
+    @Query(value = "SELECT * FROM scheduled_job_locks WHERE job_name = :jobName AND locked_until > now()",
+            nativeQuery = true)
+    Optional<ScheduledJobLock> findHeld(@Param("jobName") String jobName);
+}
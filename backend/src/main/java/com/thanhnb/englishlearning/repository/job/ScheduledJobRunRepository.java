@@ -0,0 +1,70 @@
+package com.thanhnb.englishlearning.repository.job;
+
+import com.thanhnb.englishlearning.entity.job.ScheduledJobRun;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ScheduledJobRunRepository extends JpaRepository<ScheduledJobRun, Long> {
+
+    /**
+     * Lần chạy gần nhất của job
+     */
+    Optional<ScheduledJobRun> findFirstByJobNameOrderByStartedAtDesc(String jobName);
+
+    /**
+     * Lịch sử chạy của job (mới nhất trước)
+     */
+    @Query("SELECT r FROM ScheduledJobRun r WHERE r.jobName = :jobName ORDER BY r.startedAt DESC")
+    List<ScheduledJobRun> findRecentRuns(@Param("jobName") String jobName, Pageable pageable);
+
+    /**
+     * Xóa lịch sử cũ
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ScheduledJobRun r WHERE r.startedAt < :cutoff")
+    int deleteRunsStartedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Ghi kết quả lần chạy theo đồng hồ DB, chỉ khi còn RUNNING → không đè FAILED mà sweep đã ghi
+     *
+     * @return 0 nếu lần chạy đã bị sweep đóng
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE scheduled_job_runs SET status = :status, finished_at = LOCALTIMESTAMP, " +
+            "duration_ms = CAST(EXTRACT(EPOCH FROM LOCALTIMESTAMP - started_at) * 1000 AS bigint), " +
+            "rows_affected = :rowsAffected, error_message = :errorMessage " +
+            "WHERE id = :id AND status = 'RUNNING'",
+            nativeQuery = true)
+    int finishRun(@Param("id") Long id,
+            @Param("status") String status,
+            @Param("rowsAffected") Integer rowsAffected,
+            @Param("errorMessage") String errorMessage);
+
+    /**
+     * Đánh dấu FAILED các lần chạy còn RUNNING nhưng lease đã mất:
+     * lockedUntil đã qua (node chết / bị kill giữa chừng), lease đã trả, hoặc node khác đã giành lại
+     *
+     * @return số lần chạy bị đánh dấu
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE scheduled_job_runs r SET status = 'FAILED', finished_at = LOCALTIMESTAMP, " +
+            "error_message = 'Lease expired: node ' || r.node_id || ' did not finish the run' " +
+            "FROM scheduled_job_locks l " +
+            "WHERE l.job_name = r.job_name AND r.status = 'RUNNING' " +
+            "AND (l.locked_until <= now() OR l.released_at IS NOT NULL OR l.locked_by <> r.node_id)",
+            nativeQuery = true)
+    int failStaleRuns();
+}
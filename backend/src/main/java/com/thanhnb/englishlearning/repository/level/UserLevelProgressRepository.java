@@ -0,0 +1,62 @@
+package com.thanhnb.englishlearning.repository.level;
+
+import com.thanhnb.englishlearning.entity.level.UserLevelProgress;
+import com.thanhnb.englishlearning.enums.EnglishLevel;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserLevelProgressRepository extends JpaRepository<UserLevelProgress, Long> {
+
+    boolean existsByUserIdAndModuleType(Long userId, ModuleType moduleType);
+
+    /**
+     * Bộ đếm của 1 level trên cả 3 module (1 query cho điều kiện nâng level)
+     */
+    List<UserLevelProgress> findByUserIdAndLevel(Long userId, EnglishLevel level);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<UserLevelProgress> findByUserIdAndModuleType(Long userId, ModuleType moduleType);
+
+    /**
+     * Tạo row bộ đếm nếu chưa có (idempotent, an toàn khi 2 lần khởi tạo chạy song song)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_level_progress (user_id, module_type, level, completed_topics, updated_at) " +
+            "VALUES (:userId, :moduleType, :level, 0, now()) " +
+            "ON CONFLICT (user_id, module_type, level) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId,
+            @Param("moduleType") String moduleType,
+            @Param("level") String level);
+
+    /**
+     * Cộng / trừ bộ đếm tại chỗ (không đọc trước → không mất cập nhật khi chạy song song)
+     */
+    @Modifying
+    @Query("UPDATE UserLevelProgress p SET p.completedTopics = p.completedTopics + :delta, " +
+            "p.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE p.userId = :userId AND p.moduleType = :moduleType AND p.level = :level")
+    int addCompletedTopics(@Param("userId") Long userId,
+            @Param("moduleType") ModuleType moduleType,
+            @Param("level") EnglishLevel level,
+            @Param("delta") int delta);
+
+    /**
+     * Danh sách user đã có bộ đếm, phân trang theo userId (job đối soát)
+     */
+    @Query("SELECT DISTINCT p.userId FROM UserLevelProgress p WHERE p.userId > :afterUserId ORDER BY p.userId")
+    List<Long> findUserIdsAfter(@Param("afterUserId") Long afterUserId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM UserLevelProgress p WHERE p.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
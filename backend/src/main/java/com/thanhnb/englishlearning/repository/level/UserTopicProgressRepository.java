@@ -0,0 +1,54 @@
+package com.thanhnb.englishlearning.repository.level;
+
+import com.thanhnb.englishlearning.entity.level.UserTopicProgress;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserTopicProgressRepository extends JpaRepository<UserTopicProgress, Long> {
+
+    /**
+     * Tạo row bộ đếm (0 lesson) nếu chưa có - 2 request song song cùng topic không đụng unique constraint
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_topic_progress " +
+            "(user_id, topic_id, module_type, level, completed_lessons, completed, updated_at) " +
+            "VALUES (:userId, :topicId, :moduleType, :level, 0, false, now()) " +
+            "ON CONFLICT (user_id, topic_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId,
+            @Param("topicId") Long topicId,
+            @Param("moduleType") String moduleType,
+            @Param("level") String level);
+
+    /**
+     * Khóa row của user trong topic (tăng bộ đếm tuần tự khi user nộp song song nhiều lesson)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM UserTopicProgress p WHERE p.userId = :userId AND p.topicId = :topicId")
+    Optional<UserTopicProgress> findForUpdate(@Param("userId") Long userId, @Param("topicId") Long topicId);
+
+    /**
+     * Đối soát 1 user: khóa theo cùng thứ tự với luồng nộp bài (row topic trước, row level sau)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<UserTopicProgress> findByUserIdAndModuleType(Long userId, ModuleType moduleType);
+
+    /**
+     * Đối soát 1 topic sau khi catalog đổi
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<UserTopicProgress> findByTopicId(Long topicId);
+
+    @Modifying
+    @Query("DELETE FROM UserTopicProgress p WHERE p.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
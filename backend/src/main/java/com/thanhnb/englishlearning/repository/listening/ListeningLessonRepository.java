@@ -3,13 +3,18 @@ package com.thanhnb.englishlearning.repository.listening;
 import com.thanhnb.englishlearning.entity.listening.ListeningLesson;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.Modifying;
+import java.util.Collection;
 
 @Repository
 public interface ListeningLessonRepository extends JpaRepository<ListeningLesson, Long> {
@@ -24,8 +29,10 @@ public interface ListeningLessonRepository extends JpaRepository<ListeningLesson
         /**
          * Tìm tất cả lessons active, sắp xếp theo orderIndex
          */
+        @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
         List<ListeningLesson> findAllByIsActiveTrueOrderByOrderIndexAsc();
 
+        @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
         List<ListeningLesson> findByTopicIdOrderByOrderIndexAsc(Long topicId);
 
         /**
@@ -40,6 +47,12 @@ public interface ListeningLessonRepository extends JpaRepository<ListeningLesson
 
         long countByTopicIdAndIsActiveTrue(Long topicId);
 
+        /**
+         * Số lesson active theo từng topic: [topicId, count]
+         */
+        @Query("SELECT l.topic.id, COUNT(l) FROM ListeningLesson l WHERE l.isActive = true GROUP BY l.topic.id")
+        List<Object[]> countActiveLessonsGroupByTopic();
+
         @Query("SELECT ll FROM ListeningLesson ll WHERE ll.topic.id = :topicId ORDER BY ll.orderIndex ASC")
         List<ListeningLesson> findAllByTopicIdOrderByOrderIndexAsc(@Param("topicId") Long topicId);
 
@@ -69,12 +82,6 @@ public interface ListeningLessonRepository extends JpaRepository<ListeningLesson
 
         // ==================== ORDER INDEX QUERIES ====================
 
-        /**
-         * Lấy orderIndex lớn nhất hiện có
-         */
-        @Query("SELECT MAX(l.orderIndex) FROM ListeningLesson l WHERE l.topic.id = :topicId")
-        Integer findMaxOrderIndexByTopicId(@Param("topicId") Long topicId);
-
         /**
          * Lấy lesson đầu tiên (orderIndex nhỏ nhất)
          */
@@ -141,4 +148,27 @@ public interface ListeningLessonRepository extends JpaRepository<ListeningLesson
          * Xóa tất cả lessons không active (soft deleted)
          */
         void deleteByIsActiveFalse();
-}
\ No newline at end of file
+
+        // ==================== BULK DELETE (set-based) ====================
+
+        @Query("SELECT l.id FROM ListeningLesson l WHERE l.topic.id = :topicId ORDER BY l.id")
+        List<Long> findIdsByTopicId(@Param("topicId") Long topicId);
+
+        @Query("SELECT l.audioUrl FROM ListeningLesson l WHERE l.id IN :ids AND l.audioUrl IS NOT NULL")
+        List<String> findAudioUrlsByIdIn(@Param("ids") Collection<Long> ids);
+
+        @Query("SELECT DISTINCT l.topic.id FROM ListeningLesson l WHERE l.id IN :ids")
+        List<Long> findTopicIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+        @Modifying(flushAutomatically = true, clearAutomatically = true)
+        @Query("DELETE FROM ListeningLesson l WHERE l.id IN :ids")
+        int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+        @Modifying
+        @Query("UPDATE ListeningLesson l SET l.isActive = false WHERE l.topic.id = :topicId")
+        int deactivateByTopicId(@Param("topicId") Long topicId);
+
+        @Modifying
+        @Query("UPDATE ListeningLesson l SET l.modifiedBy = null WHERE l.modifiedBy.id = :userId")
+        int clearModifiedBy(@Param("userId") Long userId);
+}
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Collection;
 
 @Repository
 public interface UserListeningProgressRepository extends JpaRepository<UserListeningProgress, Long> {
@@ -43,6 +44,22 @@ public interface UserListeningProgressRepository extends JpaRepository<UserListe
                         @Param("userId") Long userId,
                         @Param("topicId") Long topicId);
 
+        /**
+         * Số lesson đã hoàn thành theo từng topic của 1 user: [topicId, count]
+         */
+        @Query("SELECT p.lesson.topic.id, COUNT(p) FROM UserListeningProgress p " +
+                        "WHERE p.user.id = :userId AND p.isCompleted = true " +
+                        "GROUP BY p.lesson.topic.id")
+        List<Object[]> countCompletedLessonsGroupByTopic(@Param("userId") Long userId);
+
+        /**
+         * Số lesson đã hoàn thành trong 1 topic theo từng user: [userId, count]
+         */
+        @Query("SELECT p.user.id, COUNT(p) FROM UserListeningProgress p " +
+                        "WHERE p.lesson.topic.id = :topicId AND p.isCompleted = true " +
+                        "GROUP BY p.user.id")
+        List<Object[]> countCompletedLessonsGroupByUser(@Param("topicId") Long topicId);
+
         // Xóa progress theo lessonId (Dùng khi xóa bài học)
         void deleteByLessonId(Long lessonId);
 
@@ -57,4 +74,18 @@ public interface UserListeningProgressRepository extends JpaRepository<UserListe
                         Long userId,
                         Double maxScore,
                         LocalDateTime cutoffDate);
-}
\ No newline at end of file
+
+        @Modifying
+        @Query("DELETE FROM UserListeningProgress p WHERE p.lesson.id IN :lessonIds")
+        int deleteByLessonIdIn(@Param("lessonIds") Collection<Long> lessonIds);
+
+        /**
+         * Nâng điểm cao nhất khi câu OPEN_ENDED được chấm xong (không bao giờ hạ điểm)
+         */
+        @Modifying
+        @Query("UPDATE UserListeningProgress p SET p.scorePercentage = :score " +
+                        "WHERE p.user.id = :userId AND p.lesson.id = :lessonId " +
+                        "AND (p.scorePercentage IS NULL OR p.scorePercentage < :score)")
+        int raiseScore(@Param("userId") Long userId, @Param("lessonId") Long lessonId,
+                        @Param("score") Double score);
+}
@@ -0,0 +1,189 @@
+package com.thanhnb.englishlearning.repository.ordering;
+
+import com.thanhnb.englishlearning.enums.OrderedList;
+import com.thanhnb.englishlearning.enums.ParentType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Đọc / ghi cột order_index của mọi danh sách có thứ tự (OrderedList) bằng SQL set-based
+ *
+ * Dùng native query qua EntityManager (không phải JdbcTemplate): Hibernate flush thay đổi đang chờ
+ * của bảng liên quan trước khi chạy và xóa region L2 cache của entity đó ở node này.
+ * Tên bảng / cột lấy từ enum OrderedList, không bao giờ từ input.
+ */
+@Repository
+public class OrderKeyRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * 1 phần tử: danh sách chứa nó + key hiện tại
+     */
+    public record Item(OrderScope scope, int key) {
+    }
+
+    // ==================== READ ====================
+
+    public Integer maxKey(OrderScope scope) {
+        return toInteger(select(scope, "SELECT MAX(order_index) FROM %s WHERE %s").getSingleResult());
+    }
+
+    /**
+     * Key nhỏ nhất >= lowerKey, bỏ qua các id trong excludeIds (phần tử đang chuyển + phần tử neo)
+     */
+    public Integer minKeyFrom(OrderScope scope, int lowerKey, List<Long> excludeIds) {
+        Query query = select(scope,
+                "SELECT MIN(order_index) FROM %s WHERE %s AND order_index >= :lowerKey AND id NOT IN (:excludeIds)");
+        return toInteger(query
+                .setParameter("lowerKey", lowerKey)
+                .setParameter("excludeIds", excludeIds)
+                .getSingleResult());
+    }
+
+    public Optional<Integer> keyOf(OrderScope scope, Long id) {
+        List<?> rows = select(scope, "SELECT order_index FROM %s WHERE %s AND id = :id")
+                .setParameter("id", id)
+                .getResultList();
+        return rows.isEmpty() ? Optional.empty() : Optional.of(toInteger(rows.get(0)));
+    }
+
+    /**
+     * Danh sách chứa phần tử id (đọc cột cha của chính row đó)
+     */
+    public Optional<Item> findItem(OrderedList list, Long id) {
+        String parentKey = list.getParentKeyColumn() != null ? list.getParentKeyColumn() : "NULL";
+        String parentId = list.getParentIdColumn() != null ? list.getParentIdColumn() : "NULL";
+        List<?> rows = entityManager.createNativeQuery(String.format(
+                        "SELECT CAST(%s AS varchar), CAST(%s AS bigint), order_index FROM %s WHERE id = :id AND %s",
+                        parentKey, parentId, list.getTable(), list.rowFilter()))
+                .setParameter("id", id)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = (Object[]) rows.get(0);
+        OrderScope scope = new OrderScope(list, (String) row[0],
+                row[1] != null ? ((Number) row[1]).longValue() : null);
+        return Optional.of(new Item(scope, toInteger(row[2])));
+    }
+
+    /**
+     * Trong các id gửi lên: bao nhiêu id thuộc danh sách, và bao nhiêu key khác nhau
+     *
+     * @return [số id thuộc danh sách, số key phân biệt]
+     */
+    public long[] countMembers(OrderScope scope, List<Long> ids) {
+        Object[] row = (Object[]) select(scope,
+                "SELECT COUNT(*), COUNT(DISTINCT order_index) FROM %s WHERE %s AND id IN (:ids)")
+                .setParameter("ids", ids)
+                .getSingleResult();
+        return new long[] { ((Number) row[0]).longValue(), ((Number) row[1]).longValue() };
+    }
+
+    public Optional<Long> findTopicIdOfLesson(ParentType lessonType, Long lessonId) {
+        List<?> rows = entityManager.createNativeQuery(String.format(
+                        "SELECT topic_id FROM %s WHERE id = :id", OrderedList.lessonsOf(lessonType).getTable()))
+                .setParameter("id", lessonId)
+                .getResultList();
+        return rows.isEmpty() ? Optional.empty() : Optional.of(((Number) rows.get(0)).longValue());
+    }
+
+    // ==================== LOCK ====================
+
+    /**
+     * Khóa cả danh sách tới hết transaction (pg_advisory_xact_lock theo scope.encode())
+     *
+     * Thao tác đọc key hàng xóm rồi mới ghi (move / nextKey / reorder / rebalance) gọi trước khi đọc
+     * → 2 lần kéo thả đồng thời trong cùng danh sách chạy tuần tự, không cùng chọn 1 khe.
+     * Danh sách khác không bị chặn; lock tự nhả khi commit / rollback.
+     */
+    public void lockScope(OrderScope scope) {
+        entityManager.createNativeQuery("SELECT 1 FROM pg_advisory_xact_lock(hashtext(:scope))")
+                .setParameter("scope", scope.encode())
+                .getSingleResult();
+    }
+
+    // ==================== WRITE ====================
+
+    public int updateKey(OrderedList list, Long id, int key) {
+        return write(list, String.format("UPDATE %s SET order_index = :key WHERE id = :id", list.getTable()))
+                .setParameter("key", key)
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    /**
+     * Dàn đều lại cả danh sách: key = thứ hạng x gap (giữ thứ tự hiện tại, trùng key → theo id).
+     * Chỉ UPDATE các row có key thay đổi.
+     */
+    public int rebalance(OrderScope scope, int gap) {
+        OrderedList list = scope.list();
+        String sql = String.format(
+                "UPDATE %1$s t SET order_index = r.rn * :gap " +
+                "FROM (SELECT id, row_number() OVER (ORDER BY order_index, id) AS rn FROM %1$s WHERE %2$s) r " +
+                "WHERE t.id = r.id AND t.order_index <> r.rn * :gap",
+                list.getTable(), list.scopePredicate());
+        return bind(write(list, sql), scope).setParameter("gap", gap).executeUpdate();
+    }
+
+    /**
+     * Xếp lại các id theo thứ tự gửi lên trong 1 câu UPDATE: các id đổi chỗ cho nhau trong
+     * tập key chúng đang giữ (id thứ i nhận key nhỏ thứ i) → gửi cả danh sách hay chỉ 1 đoạn
+     * (vd câu hỏi của 1 task group) đều không đụng tới phần tử khác.
+     * Caller đảm bảo mọi id thuộc danh sách và key không trùng.
+     */
+    public int permute(OrderScope scope, List<Long> orderedIds) {
+        OrderedList list = scope.list();
+        String sql = String.format(
+                "WITH wanted AS (" +
+                "  SELECT CAST(v.id AS bigint) AS id, v.pos " +
+                "  FROM unnest(string_to_array(:ids, ',')) WITH ORDINALITY AS v(id, pos)" +
+                "), slots AS (" +
+                "  SELECT order_index, row_number() OVER (ORDER BY order_index) AS pos " +
+                "  FROM %1$s WHERE %2$s AND id IN (SELECT id FROM wanted)" +
+                ") " +
+                "UPDATE %1$s t SET order_index = s.order_index " +
+                "FROM wanted w JOIN slots s ON s.pos = w.pos " +
+                "WHERE t.id = w.id AND t.order_index <> s.order_index",
+                list.getTable(), list.scopePredicate());
+        String ids = String.join(",", orderedIds.stream().map(String::valueOf).toList());
+        return bind(write(list, sql), scope).setParameter("ids", ids).executeUpdate();
+    }
+
+    // ==================== INTERNAL ====================
+
+    private Query select(OrderScope scope, String template) {
+        OrderedList list = scope.list();
+        return bind(entityManager.createNativeQuery(
+                String.format(template, list.getTable(), list.scopePredicate())), scope);
+    }
+
+    private Query write(OrderedList list, String sql) {
+        Query query = entityManager.createNativeQuery(sql);
+        // Chỉ flush / xóa L2 cache của entity này, không phải toàn bộ
+        query.unwrap(NativeQuery.class).addSynchronizedEntityClass(list.getEntityClass());
+        return query;
+    }
+
+    private static Query bind(Query query, OrderScope scope) {
+        if (scope.list().getParentKeyColumn() != null) {
+            query.setParameter("parentKey", scope.parentKey());
+        }
+        if (scope.list().getParentIdColumn() != null) {
+            query.setParameter("parentId", scope.parentId());
+        }
+        return query;
+    }
+
+    private static Integer toInteger(Object value) {
+        return value != null ? ((Number) value).intValue() : null;
+    }
+}
@@ -0,0 +1,55 @@
+package com.thanhnb.englishlearning.repository.ordering;
+
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.enums.OrderedList;
+import com.thanhnb.englishlearning.enums.ParentType;
+
+/**
+ * 1 danh sách có thứ tự cụ thể: loại danh sách + giá trị cột cha
+ *
+ * @param parentKey module_type (topic) / parent_type (task group, question), null với lesson
+ * @param parentId  topic_id (lesson) / lesson id (task group, question), null với topic
+ */
+public record OrderScope(OrderedList list, String parentKey, Long parentId) {
+
+    private static final String SEPARATOR = "|";
+
+    public static OrderScope topics(ModuleType moduleType) {
+        return new OrderScope(OrderedList.TOPIC, moduleType.name(), null);
+    }
+
+    public static OrderScope lessons(ParentType lessonType, Long topicId) {
+        return new OrderScope(OrderedList.lessonsOf(lessonType), null, topicId);
+    }
+
+    public static OrderScope taskGroups(ParentType parentType, Long lessonId) {
+        return new OrderScope(OrderedList.TASK_GROUP, parentType.name(), lessonId);
+    }
+
+    public static OrderScope questions(ParentType parentType, Long lessonId) {
+        return new OrderScope(OrderedList.QUESTION, parentType.name(), lessonId);
+    }
+
+    /**
+     * Dạng chuỗi "LIST|parentKey|parentId" (hàng đợi rebalance trên Redis)
+     */
+    public String encode() {
+        return list.name() + SEPARATOR + (parentKey != null ? parentKey : "") + SEPARATOR
+                + (parentId != null ? parentId : "");
+    }
+
+    public static OrderScope decode(String value) {
+        String[] parts = value.split("\\|", -1);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid order scope: " + value);
+        }
+        return new OrderScope(OrderedList.valueOf(parts[0]),
+                parts[1].isEmpty() ? null : parts[1],
+                parts[2].isEmpty() ? null : Long.valueOf(parts[2]));
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
@@ -2,38 +2,33 @@ package com.thanhnb.englishlearning.repository.question;
 
 import com.thanhnb.englishlearning.entity.question.Question;
 import com.thanhnb.englishlearning.enums.ParentType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.Collection;
 
 @Repository
 public interface QuestionRepository extends JpaRepository<Question, Long> {
 
-       // Hàm Update thứ tự (Dùng cho chức năng Sắp xếp lại)
-       @Modifying
-       @Query("UPDATE Question q SET q.orderIndex = :orderIndex WHERE q.id = :id")
-       void updateOrderIndex(@Param("id") Long id, @Param("orderIndex") Integer orderIndex);
-
-       // Hàm Lấy Max Order (Để tính số thứ tự cho câu hỏi mới tạo) - ĐÃ THÊM MỚI
-       @Query("SELECT MAX(q.orderIndex) FROM Question q WHERE q.parentType = :parentType AND q.parentId = :parentId")
-       Optional<Integer> findMaxOrderIndexByLessonId(@Param("parentType") ParentType parentType,
-                     @Param("parentId") Long parentId);
-
        List<Question> findByParentTypeAndParentIdAndTaskGroupIsNullOrderByOrderIndexAsc(ParentType parentType,
                      Long parentId);
 
        // Lấy câu hỏi thuộc về một Task Group cụ thể
+       @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
        List<Question> findByTaskGroupIdOrderByOrderIndexAsc(Long taskGroupId);
 
        long countByParentTypeAndParentIdAndTaskGroupIsNull(
                      ParentType parentType,
                      Long parentId);
 
+       @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
        @Query("SELECT q FROM Question q " +
                      "LEFT JOIN FETCH q.taskGroup " +
                      "WHERE q.parentType = :parentType AND q.parentId = :parentId " +
@@ -43,6 +38,7 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
                      @Param("parentId") Long parentId);
 
        // Đếm số câu hỏi trong một bài học
+       @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
        @Query("SELECT COUNT(q) FROM Question q WHERE q.parentType = :parentType AND q.parentId = :parentId")
        Long countByParentTypeAndParentId(@Param("parentType") ParentType parentType,
                      @Param("parentId") Long parentId);
@@ -66,4 +62,11 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
        boolean hasTaskStructure(
                      @Param("parentType") ParentType parentType,
                      @Param("parentId") Long parentId);
-}
\ No newline at end of file
+
+       // ==================== BULK DELETE (set-based) ====================
+
+       @Modifying
+       @Query("DELETE FROM Question q WHERE q.parentType = :parentType AND q.parentId IN :parentIds")
+       int deleteByParentIds(@Param("parentType") ParentType parentType,
+               @Param("parentIds") Collection<Long> parentIds);
+}
@@ -2,27 +2,27 @@ package com.thanhnb.englishlearning.repository.question;
 
 import com.thanhnb.englishlearning.entity.question.TaskGroup;
 import com.thanhnb.englishlearning.enums.ParentType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.Modifying;
+import java.util.Collection;
 
 @Repository
 public interface TaskGroupRepository extends JpaRepository<TaskGroup, Long> {
 
+        @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
         List<TaskGroup> findByParentTypeAndParentIdOrderByOrderIndexAsc(
                         ParentType parentType,
                         Long parentId);
 
-        @Query("SELECT MAX(tg.orderIndex) FROM TaskGroup tg " +
-                        "WHERE tg.parentType = :parentType AND tg.parentId = :parentId")
-        Optional<Integer> findMaxOrderIndex(
-                        @Param("parentType") ParentType parentType,
-                        @Param("parentId") Long parentId);
-
         long countByParentTypeAndParentId(ParentType parentType, Long parentId);
 
         @Query("""
@@ -49,4 +49,14 @@ public interface TaskGroupRepository extends JpaRepository<TaskGroup, Long> {
                         "LEFT JOIN FETCH tg.questions " +
                         "WHERE tg.id = :id")
         Optional<TaskGroup> findByIdWithQuestions(@Param("id") Long id);
-}
\ No newline at end of file
+
+        // ==================== BULK DELETE (set-based) ====================
+
+        /**
+         * Phải chạy SAU khi xóa questions (questions.task_group_id → task_groups)
+         */
+        @Modifying
+        @Query("DELETE FROM TaskGroup tg WHERE tg.parentType = :parentType AND tg.parentId IN :parentIds")
+        int deleteByParentIds(@Param("parentType") ParentType parentType,
+                @Param("parentIds") Collection<Long> parentIds);
+}
@@ -7,9 +7,14 @@ import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.Modifying;
+import java.util.Collection;
 
 public interface ReadingLessonRepository extends JpaRepository<ReadingLesson, Long> {
 
@@ -20,8 +25,10 @@ public interface ReadingLessonRepository extends JpaRepository<ReadingLesson, Lo
         /**
          * Tìm tất cả lessons active, sắp xếp theo orderIndex
          */
+        @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
         List<ReadingLesson> findAllByIsActiveTrueOrderByOrderIndexAsc();
 
+        @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
         List<ReadingLesson> findByTopicIdOrderByOrderIndexAsc(Long topicId);
 
         @Query("SELECT rl FROM ReadingLesson rl WHERE rl.topic.id = :topicId ORDER BY rl.orderIndex ASC")
@@ -50,16 +57,16 @@ public interface ReadingLessonRepository extends JpaRepository<ReadingLesson, Lo
         long countByTopicIdAndIsActiveTrue(Long topicId);
 
         /**
-         * Đếm tổng số lessons
+         * Số lesson active theo từng topic: [topicId, count]
          */
-        @Override
-        long count();
+        @Query("SELECT l.topic.id, COUNT(l) FROM ReadingLesson l WHERE l.isActive = true GROUP BY l.topic.id")
+        List<Object[]> countActiveLessonsGroupByTopic();
 
         /**
-         * Lấy orderIndex lớn nhất hiện có
+         * Đếm tổng số lessons
          */
-        @Query("SELECT MAX(l.orderIndex) FROM ReadingLesson l WHERE l.topic.id = :topicId")
-        Integer findMaxOrderIndexByTopicId(@Param("topicId") Long topicId);
+        @Override
+        long count();
 
         /**
          * Lấy lesson đầu tiên (orderIndex nhỏ nhất)
@@ -122,4 +129,23 @@ public interface ReadingLessonRepository extends JpaRepository<ReadingLesson, Lo
          */
         void deleteByIsActiveFalse();
 
+        // ==================== BULK DELETE (set-based) ====================
+
+        @Query("SELECT l.id FROM ReadingLesson l WHERE l.topic.id = :topicId ORDER BY l.id")
+        List<Long> findIdsByTopicId(@Param("topicId") Long topicId);
+
+        @Query("SELECT DISTINCT l.topic.id FROM ReadingLesson l WHERE l.id IN :ids")
+        List<Long> findTopicIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+        @Modifying(flushAutomatically = true, clearAutomatically = true)
+        @Query("DELETE FROM ReadingLesson l WHERE l.id IN :ids")
+        int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+        @Modifying
+        @Query("UPDATE ReadingLesson l SET l.isActive = false WHERE l.topic.id = :topicId")
+        int deactivateByTopicId(@Param("topicId") Long topicId);
+
+        @Modifying
+        @Query("UPDATE ReadingLesson l SET l.modifiedBy = null WHERE l.modifiedBy.id = :userId")
+        int clearModifiedBy(@Param("userId") Long userId);
 }
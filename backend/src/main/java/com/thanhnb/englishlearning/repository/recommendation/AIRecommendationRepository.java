@@ -1,13 +1,17 @@
 package com.thanhnb.englishlearning.repository.recommendation;
 
 import com.thanhnb.englishlearning.entity.recommendation.AIRecommendation;
+import com.thanhnb.englishlearning.enums.ModuleType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import org.springframework.data.jpa.repository.Modifying;
+import java.util.Collection;
 
 /**
  * ✅ Enhanced AI Recommendation Repository
@@ -27,9 +31,28 @@ public interface AIRecommendationRepository extends JpaRepository<AIRecommendati
         List<AIRecommendation> findByUserIdOrderByCreatedAtDesc(Long userId);
 
         /**
-         * Find expired recommendations that are not completed
+         * Funnel của 1 user tính trong SQL (không load toàn bộ gợi ý của user lên rồi đếm bằng stream)
          */
-        List<AIRecommendation> findByExpiresAtBeforeAndIsCompletedFalse(LocalDateTime now);
+        @Query("SELECT COUNT(r) AS total, " +
+                        "COALESCE(SUM(CASE WHEN r.isShown = true THEN 1 ELSE 0 END), 0) AS shown, " +
+                        "COALESCE(SUM(CASE WHEN r.isAccepted = true THEN 1 ELSE 0 END), 0) AS accepted, " +
+                        "COALESCE(SUM(CASE WHEN r.isCompleted = true THEN 1 ELSE 0 END), 0) AS completed, " +
+                        "COALESCE(SUM(CASE WHEN r.isShown = true AND (r.isAccepted IS NULL OR r.isAccepted = false) " +
+                        "THEN 1 ELSE 0 END), 0) AS ignored " +
+                        "FROM AIRecommendation r WHERE r.user.id = :userId")
+        FunnelSummary summarizeFunnel(@Param("userId") Long userId);
+
+        interface FunnelSummary {
+                long getTotal();
+
+                long getShown();
+
+                long getAccepted();
+
+                long getCompleted();
+
+                long getIgnored();
+        }
 
         /**
          * Find recommendations by type and user
@@ -88,4 +111,30 @@ public interface AIRecommendationRepository extends JpaRepository<AIRecommendati
                         "FROM AIRecommendation r WHERE r.user.id = :userId " +
                         "GROUP BY r.type ORDER BY completed DESC")
         List<Object[]> findMostEffectiveTypes(@Param("userId") Long userId);
-}
\ No newline at end of file
+
+        // ==================== BULK DELETE (set-based) ====================
+
+        @Modifying
+        @Query("DELETE FROM AIRecommendation r WHERE r.user.id = :userId")
+        int deleteByUserId(@Param("userId") Long userId);
+
+        @Modifying
+        @Query("DELETE FROM AIRecommendation r WHERE r.targetSkill = :module AND r.targetLessonId IN :lessonIds")
+        int deleteByTargetLessons(@Param("module") ModuleType module,
+                        @Param("lessonIds") Collection<Long> lessonIds);
+
+        @Modifying
+        @Query("DELETE FROM AIRecommendation r WHERE r.targetTopicId = :topicId")
+        int deleteByTargetTopicId(@Param("topicId") Long topicId);
+
+        /**
+         * Xóa tối đa {@code limit} gợi ý hết hạn chưa hoàn thành (cũ nhất trước) - gọi lặp đến khi < limit,
+         * mỗi lần 1 transaction ngắn thay vì load hết rồi deleteAll từng row
+         */
+        @Modifying
+        @Transactional
+        @Query(value = "DELETE FROM ai_recommendations WHERE id IN (" +
+                        "SELECT id FROM ai_recommendations WHERE expires_at < :before AND is_completed = false " +
+                        "ORDER BY expires_at LIMIT :limit)", nativeQuery = true)
+        int deleteExpiredBatch(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
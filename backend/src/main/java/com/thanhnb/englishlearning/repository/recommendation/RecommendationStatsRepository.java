@@ -0,0 +1,143 @@
+package com.thanhnb.englishlearning.repository.recommendation;
+
+import com.thanhnb.englishlearning.enums.StatsGranularity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Truy cập bảng recommendation_daily_stats (entity RecommendationDailyStats) bằng JDBC
+ *
+ * Rollup = 1 câu INSERT ... SELECT ... GROUP BY trên ai_recommendations cho 1 ngày; biểu đồ chỉ đọc
+ * bảng tổng hợp (vài chục row / ngày) thay vì quét toàn bộ gợi ý.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RecommendationStatsRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Số lượng từng bước funnel của 1 nhóm (ngày / tuần, hoặc loại gợi ý + kỹ năng)
+     */
+    public record FunnelCounts(LocalDate bucket, String recType, String skill,
+            long generated, long shown, long accepted, long completed, long dismissed) {
+    }
+
+    private static final RowMapper<FunnelCounts> MAPPER = (rs, i) -> {
+        Date bucket = rs.getDate("bucket");
+        return new FunnelCounts(
+                bucket != null ? bucket.toLocalDate() : null,
+                rs.getString("rec_type"),
+                rs.getString("skill"),
+                rs.getLong("generated"),
+                rs.getLong("shown"),
+                rs.getLong("accepted"),
+                rs.getLong("completed"),
+                rs.getLong("dismissed"));
+    };
+
+    /*
+     * GREATEST khi tính lại: số của 1 ngày đã qua chỉ có thể giảm khi row gốc bị xóa (dọn gợi ý hết hạn),
+     * không bao giờ tăng thật → giữ số lớn hơn để lần tính lại không làm mất sự kiện đã đếm.
+     */
+    private static final String ROLLUP_SQL =
+            "WITH b AS (SELECT CAST(? AS timestamp) AS d_from, CAST(? AS timestamp) AS d_to, " +
+            "                  CAST(? AS timestamp) AS created_from) " +
+            "INSERT INTO recommendation_daily_stats (stat_date, rec_type, skill, generated_count, shown_count, " +
+            "    accepted_count, completed_count, dismissed_count, updated_at) " +
+            "SELECT CAST(b.d_from AS date), r.type, COALESCE(r.target_skill, 'NONE'), " +
+            "       COUNT(*) FILTER (WHERE r.created_at >= b.d_from AND r.created_at < b.d_to), " +
+            "       COUNT(*) FILTER (WHERE r.shown_at >= b.d_from AND r.shown_at < b.d_to), " +
+            "       COUNT(*) FILTER (WHERE r.accepted_at >= b.d_from AND r.accepted_at < b.d_to), " +
+            "       COUNT(*) FILTER (WHERE r.completed_at >= b.d_from AND r.completed_at < b.d_to), " +
+            "       COUNT(*) FILTER (WHERE r.dismissed_at >= b.d_from AND r.dismissed_at < b.d_to), " +
+            "       LOCALTIMESTAMP " +
+            "FROM ai_recommendations r CROSS JOIN b " +
+            "WHERE r.created_at >= b.created_from AND r.created_at < b.d_to " +
+            "GROUP BY b.d_from, r.type, COALESCE(r.target_skill, 'NONE') " +
+            "HAVING COUNT(*) FILTER (WHERE r.created_at >= b.d_from OR r.shown_at >= b.d_from " +
+            "    OR r.accepted_at >= b.d_from OR r.completed_at >= b.d_from OR r.dismissed_at >= b.d_from) > 0 " +
+            "ON CONFLICT (stat_date, rec_type, skill) DO UPDATE SET " +
+            "    generated_count = GREATEST(recommendation_daily_stats.generated_count, EXCLUDED.generated_count), " +
+            "    shown_count = GREATEST(recommendation_daily_stats.shown_count, EXCLUDED.shown_count), " +
+            "    accepted_count = GREATEST(recommendation_daily_stats.accepted_count, EXCLUDED.accepted_count), " +
+            "    completed_count = GREATEST(recommendation_daily_stats.completed_count, EXCLUDED.completed_count), " +
+            "    dismissed_count = GREATEST(recommendation_daily_stats.dismissed_count, EXCLUDED.dismissed_count), " +
+            "    updated_at = EXCLUDED.updated_at";
+
+    // ==================== WRITE ====================
+
+    /**
+     * Tổng hợp funnel của 1 ngày (đã kết thúc) theo loại gợi ý + kỹ năng
+     *
+     * @param eventWindowDays chỉ xét gợi ý tạo trong chừng ấy ngày trước {@code day} (dùng index created_at)
+     * @return số nhóm (loại, kỹ năng) đã ghi
+     */
+    public int rollupDay(LocalDate day, int eventWindowDays) {
+        return jdbcTemplate.update(ROLLUP_SQL,
+                Timestamp.valueOf(day.atStartOfDay()),
+                Timestamp.valueOf(day.plusDays(1).atStartOfDay()),
+                Timestamp.valueOf(day.minusDays(eventWindowDays).atStartOfDay()));
+    }
+
+    // ==================== READ ====================
+
+    /**
+     * Chuỗi funnel theo ngày / tuần trong [from, to] - chỉ các bucket có dữ liệu, tăng dần
+     *
+     * @param recType null = mọi loại
+     * @param skill   null = mọi kỹ năng ('NONE' = gợi ý không gắn kỹ năng)
+     */
+    public List<FunnelCounts> findSeries(LocalDate from, LocalDate to, String recType, String skill,
+            StatsGranularity granularity) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT CAST(date_trunc('")
+                .append(granularity.getTruncUnit())
+                .append("', stat_date) AS date) AS bucket, NULL AS rec_type, NULL AS skill, ")
+                .append(SUMS)
+                .append(" FROM recommendation_daily_stats WHERE stat_date BETWEEN ? AND ?");
+        params.add(Date.valueOf(from));
+        params.add(Date.valueOf(to));
+        appendDimensions(sql, params, recType, skill);
+        sql.append(" GROUP BY 1 ORDER BY 1");
+        return jdbcTemplate.query(sql.toString(), MAPPER, params.toArray());
+    }
+
+    /**
+     * Tổng funnel trong [from, to] theo (loại gợi ý, kỹ năng)
+     */
+    public List<FunnelCounts> findTotalsByTypeAndSkill(LocalDate from, LocalDate to, String recType, String skill) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT NULL AS bucket, rec_type, skill, ")
+                .append(SUMS)
+                .append(" FROM recommendation_daily_stats WHERE stat_date BETWEEN ? AND ?");
+        params.add(Date.valueOf(from));
+        params.add(Date.valueOf(to));
+        appendDimensions(sql, params, recType, skill);
+        sql.append(" GROUP BY rec_type, skill ORDER BY SUM(shown_count) DESC, rec_type, skill");
+        return jdbcTemplate.query(sql.toString(), MAPPER, params.toArray());
+    }
+
+    private static final String SUMS =
+            "SUM(generated_count) AS generated, SUM(shown_count) AS shown, SUM(accepted_count) AS accepted, " +
+            "SUM(completed_count) AS completed, SUM(dismissed_count) AS dismissed";
+
+    private static void appendDimensions(StringBuilder sql, List<Object> params, String recType, String skill) {
+        if (recType != null) {
+            sql.append(" AND rec_type = ?");
+            params.add(recType);
+        }
+        if (skill != null) {
+            sql.append(" AND skill = ?");
+            params.add(skill);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.thanhnb.englishlearning.repository.search;
+
+import com.thanhnb.englishlearning.entity.search.SearchDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Collection;
+
+/**
+ * Full-text search trên search_documents (tsvector + GIN index)
+ *
+ * Filter null-able được CAST để Postgres xác định được kiểu tham số.
+ */
+@Repository
+public interface SearchDocumentRepository extends JpaRepository<SearchDocument, Long> {
+
+    // ==================== INDEXING ====================
+
+    /**
+     * Insert hoặc update document theo (doc_type, module, source_id)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO search_documents " +
+            "(doc_type, module, source_id, lesson_id, topic_id, level, title, body, is_active, updated_at) " +
+            "VALUES (:docType, :module, :sourceId, :lessonId, :topicId, CAST(:level AS varchar), " +
+            "        :title, :body, :isActive, now()) " +
+            "ON CONFLICT (doc_type, module, source_id) DO UPDATE SET " +
+            "lesson_id = EXCLUDED.lesson_id, topic_id = EXCLUDED.topic_id, level = EXCLUDED.level, " +
+            "title = EXCLUDED.title, body = EXCLUDED.body, is_active = EXCLUDED.is_active, updated_at = now()",
+            nativeQuery = true)
+    int upsert(@Param("docType") String docType,
+            @Param("module") String module,
+            @Param("sourceId") Long sourceId,
+            @Param("lessonId") Long lessonId,
+            @Param("topicId") Long topicId,
+            @Param("level") String level,
+            @Param("title") String title,
+            @Param("body") String body,
+            @Param("isActive") boolean isActive);
+
+    @Modifying
+    @Query(value = "DELETE FROM search_documents WHERE doc_type = :docType AND module = :module AND source_id = :sourceId",
+            nativeQuery = true)
+    int deleteBySource(@Param("docType") String docType,
+            @Param("module") String module,
+            @Param("sourceId") Long sourceId);
+
+    /**
+     * Xóa document của lesson và toàn bộ câu hỏi thuộc lesson
+     */
+    @Modifying
+    @Query(value = "DELETE FROM search_documents WHERE module = :module AND lesson_id = :lessonId", nativeQuery = true)
+    int deleteByLesson(@Param("module") String module, @Param("lessonId") Long lessonId);
+
+    @Modifying
+    @Query(value = "DELETE FROM search_documents WHERE topic_id = :topicId", nativeQuery = true)
+    int deleteByTopic(@Param("topicId") Long topicId);
+
+    /**
+     * Xóa document không được reindex lại (nguồn đã bị xóa)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM search_documents WHERE updated_at < :cutoff", nativeQuery = true)
+    int deleteStaleDocuments(@Param("cutoff") LocalDateTime cutoff);
+
+    @Query(value = "SELECT CAST(now() AS timestamp)", nativeQuery = true)
+    LocalDateTime databaseNow();
+
+    // ==================== BULK DELETE (set-based) ====================
+
+    @Modifying
+    @Query(value = "DELETE FROM search_documents WHERE module = :module AND lesson_id IN (:lessonIds)", nativeQuery = true)
+    int deleteByLessonIds(@Param("module") String module, @Param("lessonIds") Collection<Long> lessonIds);
+
+    // ==================== SEARCH ====================
+
+    /**
+     * Tìm kiếm ranked + highlight.
+     * Subquery chỉ tính rank trên index và cắt trang trước, ts_headline chỉ chạy cho các row của trang.
+     */
+    @Query(value = "SELECT d.id AS id, d.doc_type AS docType, d.module AS module, d.source_id AS sourceId, " +
+            "d.lesson_id AS lessonId, d.topic_id AS topicId, d.level AS level, d.title AS title, " +
+            "CAST(r.rank AS double precision) AS rank, " +
+            "ts_headline('english'::regconfig, coalesce(d.body, d.title), websearch_to_tsquery('english'::regconfig, :query), " +
+            "            'StartSel=<mark>, StopSel=</mark>, MaxWords=35, MinWords=12, MaxFragments=2') AS snippet " +
+            "FROM (" +
+            "  SELECT s.id, ts_rank_cd(s.search_vector, websearch_to_tsquery('english'::regconfig, :query)) AS rank " +
+            "  FROM search_documents s " +
+            "  WHERE s.search_vector @@ websearch_to_tsquery('english'::regconfig, :query) " +
+            "    AND (:activeOnly = false OR s.is_active = true) " +
+            "    AND (CAST(:docType AS varchar) IS NULL OR s.doc_type = CAST(:docType AS varchar)) " +
+            "    AND (CAST(:module AS varchar) IS NULL OR s.module = CAST(:module AS varchar)) " +
+            "    AND (CAST(:level AS varchar) IS NULL OR s.level = CAST(:level AS varchar)) " +
+            "    AND (CAST(:topicId AS bigint) IS NULL OR s.topic_id = CAST(:topicId AS bigint)) " +
+            "  ORDER BY rank DESC, s.id " +
+            "  LIMIT :limit OFFSET :offset" +
+            ") r JOIN search_documents d ON d.id = r.id " +
+            "ORDER BY r.rank DESC, d.id", nativeQuery = true)
+    List<SearchHitView> search(@Param("query") String query,
+            @Param("docType") String docType,
+            @Param("module") String module,
+            @Param("level") String level,
+            @Param("topicId") Long topicId,
+            @Param("activeOnly") boolean activeOnly,
+            @Param("limit") int limit,
+            @Param("offset") long offset);
+
+    @Query(value = "SELECT COUNT(*) FROM search_documents s " +
+            "WHERE s.search_vector @@ websearch_to_tsquery('english'::regconfig, :query) " +
+            "  AND (:activeOnly = false OR s.is_active = true) " +
+            "  AND (CAST(:docType AS varchar) IS NULL OR s.doc_type = CAST(:docType AS varchar)) " +
+            "  AND (CAST(:module AS varchar) IS NULL OR s.module = CAST(:module AS varchar)) " +
+            "  AND (CAST(:level AS varchar) IS NULL OR s.level = CAST(:level AS varchar)) " +
+            "  AND (CAST(:topicId AS bigint) IS NULL OR s.topic_id = CAST(:topicId AS bigint))",
+            nativeQuery = true)
+    long countMatches(@Param("query") String query,
+            @Param("docType") String docType,
+            @Param("module") String module,
+            @Param("level") String level,
+            @Param("topicId") Long topicId,
+            @Param("activeOnly") boolean activeOnly);
+
+    /**
+     * Projection cho kết quả search
+     */
+    interface SearchHitView {
+        Long getId();
+
+        String getDocType();
+
+        String getModule();
+
+        Long getSourceId();
+
+        Long getLessonId();
+
+        Long getTopicId();
+
+        String getLevel();
+
+        String getTitle();
+
+        Double getRank();
+
+        String getSnippet();
+    }
+}
@@ -111,4 +111,18 @@ public interface TeacherTopicAssignmentRepository extends JpaRepository<TeacherT
                         "SET a.isActive = false " +
                         "WHERE a.topic.id = :topicId")
         int deactivateAllByTopicId(@Param("topicId") Long topicId);
-}
\ No newline at end of file
+
+        // ==================== BULK DELETE (set-based) ====================
+
+        @Modifying
+        @Query("DELETE FROM TeacherTopicAssignment a WHERE a.topic.id = :topicId")
+        int deleteByTopicId(@Param("topicId") Long topicId);
+
+        @Modifying
+        @Query("DELETE FROM TeacherTopicAssignment a WHERE a.teacher.id = :teacherId")
+        int deleteByTeacherId(@Param("teacherId") Long teacherId);
+
+        @Modifying
+        @Query("UPDATE TeacherTopicAssignment a SET a.assignedBy = null WHERE a.assignedBy.id = :userId")
+        int clearAssignedBy(@Param("userId") Long userId);
+}
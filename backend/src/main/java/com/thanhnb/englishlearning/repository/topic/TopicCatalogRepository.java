@@ -0,0 +1,226 @@
+package com.thanhnb.englishlearning.repository.topic;
+
+import com.thanhnb.englishlearning.dto.topic.request.TopicFilterRequest;
+import com.thanhnb.englishlearning.enums.EnglishLevel;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.enums.OrderedList;
+import com.thanhnb.englishlearning.enums.ParentType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Danh sách topic cho màn hình Admin kèm số đếm - 1 câu SQL cho cả trang
+ *
+ * Thay cho mapToDto gọi countLessonsById từng topic (N+1). Số lesson / lesson active / câu hỏi /
+ * giáo viên được GROUP BY cho cả module trong cùng câu query với trang → sắp xếp và lọc được
+ * theo các số đếm; tổng số row lấy bằng COUNT(*) OVER () nên không cần câu count riêng.
+ * Topic đã soft-delete (deleted_at) bị loại như @SQLRestriction của entity.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TopicCatalogRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record TopicCounts(int lessons, int activeLessons, int questions, int teachers) {
+        public static final TopicCounts EMPTY = new TopicCounts(0, 0, 0, 0);
+    }
+
+    public record CatalogRow(Long id, String name, String description, ModuleType moduleType,
+            EnglishLevel levelRequired, Integer orderIndex, Boolean isActive,
+            LocalDateTime createdAt, LocalDateTime updatedAt, TopicCounts counts) {
+    }
+
+    public record CatalogPage(List<CatalogRow> rows, long total) {
+    }
+
+    /**
+     * Tên sort của API → cột của CTE "catalog" (whitelist, không nối chuỗi từ request)
+     */
+    private static final Map<String, String> SORT_COLUMNS = Map.ofEntries(
+            Map.entry("id", "id"),
+            Map.entry("name", "name"),
+            Map.entry("orderIndex", "order_index"),
+            Map.entry("levelRequired", "level_required"),
+            Map.entry("isActive", "is_active"),
+            Map.entry("createdAt", "created_at"),
+            Map.entry("updatedAt", "updated_at"),
+            Map.entry("lessonCount", "lesson_count"),
+            Map.entry("activeLessonCount", "active_lesson_count"),
+            Map.entry("questionCount", "question_count"),
+            Map.entry("teacherCount", "teacher_count"));
+
+    private static final RowMapper<CatalogRow> MAPPER = (rs, i) -> {
+        String level = rs.getString("level_required");
+        return new CatalogRow(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("description"),
+                ModuleType.valueOf(rs.getString("module_type")),
+                level != null ? EnglishLevel.valueOf(level) : null,
+                rs.getInt("order_index"),
+                rs.getObject("is_active", Boolean.class),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("updated_at", LocalDateTime.class),
+                new TopicCounts(
+                        rs.getInt("lesson_count"),
+                        rs.getInt("active_lesson_count"),
+                        rs.getInt("question_count"),
+                        rs.getInt("teacher_count")));
+    };
+
+    // ==================== READ ====================
+
+    /**
+     * 1 trang topic của module kèm số đếm, lọc + sắp xếp trong SQL
+     *
+     * @param sortProperty tên field của TopicDto (xem SORT_COLUMNS)
+     * @param limit        null → không phân trang
+     */
+    public CatalogPage findPage(ModuleType moduleType, TopicFilterRequest filter,
+            String sortProperty, boolean descending, Integer limit, int offset) {
+        String sortColumn = SORT_COLUMNS.get(sortProperty);
+        if (sortColumn == null) {
+            throw new IllegalArgumentException("Không thể sắp xếp theo: " + sortProperty
+                    + " (hỗ trợ: " + String.join(", ", SORT_COLUMNS.keySet()) + ")");
+        }
+
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(catalogSql(moduleType, null, params))
+                .append("SELECT c.*, COUNT(*) OVER () AS total_count FROM catalog c WHERE TRUE");
+        appendFilters(sql, params, filter);
+        sql.append(" ORDER BY c.").append(sortColumn).append(descending ? " DESC" : " ASC")
+                .append(" NULLS LAST, c.id");
+        if (limit != null) {
+            sql.append(" LIMIT ? OFFSET ?");
+            params.add(limit);
+            params.add(offset);
+        }
+
+        long[] total = {0};
+        List<CatalogRow> rows = jdbcTemplate.query(sql.toString(), (rs, i) -> {
+            total[0] = rs.getLong("total_count");
+            return MAPPER.mapRow(rs, i);
+        }, params.toArray());
+
+        if (rows.isEmpty() && offset > 0) {
+            // Trang vượt quá cuối danh sách → không có row để đọc COUNT(*) OVER ()
+            total[0] = count(moduleType, filter);
+        }
+        return new CatalogPage(rows, total[0]);
+    }
+
+    /**
+     * 1 topic kèm số đếm (trang chi tiết, response của create / update)
+     */
+    public Optional<CatalogRow> findById(ModuleType moduleType, Long topicId) {
+        List<Object> params = new ArrayList<>();
+        String sql = catalogSql(moduleType, topicId, params) + "SELECT c.* FROM catalog c";
+        return jdbcTemplate.query(sql, MAPPER, params.toArray()).stream().findFirst();
+    }
+
+    private long count(ModuleType moduleType, TopicFilterRequest filter) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(catalogSql(moduleType, null, params))
+                .append("SELECT COUNT(*) FROM catalog c WHERE TRUE");
+        appendFilters(sql, params, filter);
+        Long total = jdbcTemplate.queryForObject(sql.toString(), Long.class, params.toArray());
+        return total != null ? total : 0;
+    }
+
+    // ==================== SQL ====================
+
+    /**
+     * CTE "catalog": topic của module + số đếm; topicId != null → chỉ 1 topic
+     *
+     * Bảng lesson theo module (grammar_lessons / reading_lessons / listening_lessons), câu hỏi
+     * gắn với lesson qua (parent_type, parent_id) - dùng index idx_questions_parent.
+     */
+    private static String catalogSql(ModuleType moduleType, Long topicId, List<Object> params) {
+        ParentType parentType = ParentType.valueOf(moduleType.name());
+        String lessonTable = OrderedList.lessonsOf(parentType).getTable();
+        String topicScope = topicId != null ? " AND t.id = ?" : "";
+
+        params.add(parentType.name());
+        params.add(moduleType.name());
+        if (topicId != null) {
+            params.add(topicId);
+        }
+        params.add(moduleType.name());
+        params.add(moduleType.name());
+        if (topicId != null) {
+            params.add(topicId);
+        }
+
+        return "WITH lesson_stats AS (" +
+                "  SELECT l.topic_id," +
+                "         COUNT(DISTINCT l.id) AS lesson_count," +
+                "         COUNT(DISTINCT l.id) FILTER (WHERE l.is_active) AS active_lesson_count," +
+                "         COUNT(q.id) AS question_count" +
+                "  FROM " + lessonTable + " l" +
+                "  JOIN topics t ON t.id = l.topic_id" +
+                "  LEFT JOIN questions q ON q.parent_type = ? AND q.parent_id = l.id" +
+                "  WHERE t.module_type = ?" + topicScope +
+                "  GROUP BY l.topic_id" +
+                "), teacher_stats AS (" +
+                "  SELECT topic_id, COUNT(*) AS teacher_count FROM teacher_topic_assignments" +
+                "  WHERE module_type = ? AND is_active = TRUE" +
+                "  GROUP BY topic_id" +
+                "), catalog AS (" +
+                "  SELECT t.id, t.name, t.description, t.module_type, t.level_required, t.order_index," +
+                "         t.is_active, t.created_at, t.updated_at," +
+                "         COALESCE(ls.lesson_count, 0) AS lesson_count," +
+                "         COALESCE(ls.active_lesson_count, 0) AS active_lesson_count," +
+                "         COALESCE(ls.question_count, 0) AS question_count," +
+                "         COALESCE(ts.teacher_count, 0) AS teacher_count" +
+                "  FROM topics t" +
+                "  LEFT JOIN lesson_stats ls ON ls.topic_id = t.id" +
+                "  LEFT JOIN teacher_stats ts ON ts.topic_id = t.id" +
+                "  WHERE t.module_type = ? AND t.deleted_at IS NULL" + topicScope +
+                ") ";
+    }
+
+    private static void appendFilters(StringBuilder sql, List<Object> params, TopicFilterRequest filter) {
+        if (filter == null) {
+            return;
+        }
+        if (filter.getKeyword() != null && !filter.getKeyword().isBlank()) {
+            sql.append(" AND c.name ILIKE ?");
+            params.add("%" + escapeLike(filter.getKeyword().trim()) + "%");
+        }
+        if (filter.getIsActive() != null) {
+            sql.append(" AND c.is_active = ?");
+            params.add(filter.getIsActive());
+        }
+        if (filter.getLevelRequired() != null) {
+            sql.append(" AND c.level_required = ?");
+            params.add(filter.getLevelRequired().name());
+        }
+        appendRange(sql, params, "lesson_count", filter.getMinLessons(), filter.getMaxLessons());
+        appendRange(sql, params, "question_count", filter.getMinQuestions(), filter.getMaxQuestions());
+        appendRange(sql, params, "teacher_count", filter.getMinTeachers(), filter.getMaxTeachers());
+    }
+
+    private static void appendRange(StringBuilder sql, List<Object> params, String column, Integer min, Integer max) {
+        if (min != null) {
+            sql.append(" AND c.").append(column).append(" >= ?");
+            params.add(min);
+        }
+        if (max != null) {
+            sql.append(" AND c.").append(column).append(" <= ?");
+            params.add(max);
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
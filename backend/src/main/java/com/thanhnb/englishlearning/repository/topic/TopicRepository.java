@@ -6,7 +6,10 @@ import com.thanhnb.englishlearning.enums.EnglishLevel;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -23,6 +26,7 @@ public interface TopicRepository extends JpaRepository<Topic, Long> {
         /**
          * Find all active topics
          */
+        @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
         List<Topic> findByIsActiveTrueOrderByModuleTypeAscOrderIndexAsc();
 
         Page<Topic> findByModuleType(ModuleType moduleType, Pageable pageable);
@@ -37,6 +41,7 @@ public interface TopicRepository extends JpaRepository<Topic, Long> {
         Optional<Topic> findByIdAndModuleType(Long id, ModuleType moduleType);
 
         // Tìm danh sách topic theo module
+        @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
         List<Topic> findByModuleTypeAndIsActiveTrueOrderByOrderIndexAsc(ModuleType moduleType);
 
         // Tìm cho User học: Lấy theo module + level (VD: Lấy list bài Reading level B1)
@@ -45,15 +50,18 @@ public interface TopicRepository extends JpaRepository<Topic, Long> {
         // Lấy danh sách để re-index (sắp xếp lại)
         List<Topic> findByModuleTypeOrderByOrderIndexAsc(ModuleType moduleType);
 
+        /**
+         * Thông tin tối thiểu của mọi topic cho bộ đếm level: [id, moduleType, levelRequired, isActive]
+         */
+        @Query("SELECT t.id, t.moduleType, t.levelRequired, t.isActive FROM Topic t")
+        List<Object[]> findLevelCatalogRows();
+
         // Check trùng tên (trong phạm vi 1 module)
         boolean existsByNameAndModuleType(String name, ModuleType moduleType);
 
         @Query("SELECT MAX(t.orderIndex) FROM Topic t WHERE t.id = :topicId")
         Integer findMaxOrderIndexByTopicId(@Param("topicId") Long topicId);
 
-        @Query("SELECT MAX(t.orderIndex) FROM Topic t WHERE t.moduleType = :moduleType")
-        Integer findMaxOrderIndexByModuleType(@Param("moduleType") ModuleType moduleType);
-
         @Query("SELECT t.id FROM Topic t WHERE t.moduleType = :moduleType " +
                         "AND t.orderIndex = 0 " +
                         "AND t.isActive = false " +
@@ -123,8 +131,6 @@ public interface TopicRepository extends JpaRepository<Topic, Long> {
          */
         long countByIsActiveTrue();
 
-        long countLessonsById(Long topicId);
-
         // ==================== ADMIN QUERIES ====================
 
         /**
@@ -132,8 +138,17 @@ public interface TopicRepository extends JpaRepository<Topic, Long> {
          */
         List<Topic> findAllByOrderByModuleTypeAscOrderIndexAsc();
 
+        // ==================== SOFT DELETE / PURGE ====================
+        // Native query: Topic có @SQLRestriction("deleted_at IS NULL") nên JPQL không thấy topic đã soft-delete
+
         @Modifying
-        @Query("UPDATE Topic t SET t.orderIndex = t.orderIndex - 1 " +
-                        "WHERE t.moduleType = :moduleType AND t.orderIndex > :deletedOrderIndex")
-        int shiftOrderAfterDelete(ModuleType moduleType, Integer deletedOrderIndex);
-}
\ No newline at end of file
+        @Query(value = "UPDATE topics SET deleted_at = now(), is_active = false WHERE id = :id", nativeQuery = true)
+        int softDelete(@Param("id") Long id);
+
+        @Query(value = "SELECT id FROM topics WHERE deleted_at IS NOT NULL ORDER BY deleted_at", nativeQuery = true)
+        List<Long> findSoftDeletedIds();
+
+        @Modifying(flushAutomatically = true, clearAutomatically = true)
+        @Query(value = "DELETE FROM topics WHERE id = :id", nativeQuery = true)
+        int hardDelete(@Param("id") Long id);
+}
@@ -0,0 +1,159 @@
+package com.thanhnb.englishlearning.repository.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Truy cập các bảng rollup tương tác (engagement_daily_stats, engagement_churn_cohorts) bằng JDBC
+ *
+ * Mỗi ngày rollup chỉ đọc 2 lát nhỏ (user đăng ký trong ngày, user có lần hoạt động cuối đúng ngày
+ * D - churnDays) qua index khoảng thời gian; dashboard chỉ đọc bảng rollup.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EngagementStatsRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Số liệu của 1 ngày (HyperLogLog đã đếm ở tầng service)
+     */
+    public record DailyStats(LocalDate date, long activeUsers, long weeklyActiveUsers, long monthlyActiveUsers,
+            long loginUsers, long newUsers, long churnedUsers) {
+    }
+
+    /**
+     * 1 cohort tháng đăng ký: số đăng ký và số đã churn (cộng dồn đến hiện tại)
+     */
+    public record CohortTotals(LocalDate cohortMonth, long signups, long churned) {
+    }
+
+    private static final RowMapper<DailyStats> DAILY_MAPPER = (rs, i) -> new DailyStats(
+            rs.getDate("stat_date").toLocalDate(),
+            rs.getLong("active_users"),
+            rs.getLong("weekly_active_users"),
+            rs.getLong("monthly_active_users"),
+            rs.getLong("login_users"),
+            rs.getLong("new_users"),
+            rs.getLong("churned_users"));
+
+    private static final RowMapper<CohortTotals> COHORT_MAPPER = (rs, i) -> new CohortTotals(
+            rs.getDate("cohort_month").toLocalDate(),
+            rs.getLong("signups"),
+            rs.getLong("churned"));
+
+    /*
+     * GREATEST khi tính lại (giống RecommendationStatsRepository): user churn rồi quay lại trước lần tính lại
+     * vẫn là 1 lần churn của ngày đó; HyperLogLog đã hết hạn (PFCOUNT = 0) không ghi đè số cũ.
+     */
+    private static final String COHORT_DAY_SQL =
+            "INSERT INTO engagement_churn_cohorts (cohort_month, stat_date, signup_count, churned_count, updated_at) " +
+            "SELECT m.cohort_month, CAST(? AS date), SUM(m.signups), SUM(m.churned), LOCALTIMESTAMP FROM (" +
+            "  SELECT CAST(date_trunc('month', u.created_at) AS date) AS cohort_month, 1 AS signups, 0 AS churned " +
+            "  FROM users u WHERE u.created_at >= ? AND u.created_at < ? " +
+            "  UNION ALL " +
+            "  SELECT CAST(date_trunc('month', u.created_at) AS date), 0, 1 " +
+            "  FROM user_activities a JOIN users u ON u.id = a.user_id " +
+            "  WHERE a.last_activity_date >= ? AND a.last_activity_date < ? AND u.created_at IS NOT NULL" +
+            ") m GROUP BY m.cohort_month " +
+            "ON CONFLICT (cohort_month, stat_date) DO UPDATE SET " +
+            "    signup_count = GREATEST(engagement_churn_cohorts.signup_count, EXCLUDED.signup_count), " +
+            "    churned_count = GREATEST(engagement_churn_cohorts.churned_count, EXCLUDED.churned_count), " +
+            "    updated_at = EXCLUDED.updated_at";
+
+    private static final String DAILY_SQL =
+            "INSERT INTO engagement_daily_stats (stat_date, active_users, weekly_active_users, monthly_active_users, " +
+            "    login_users, new_users, churned_users, updated_at) " +
+            "SELECT CAST(? AS date), CAST(? AS bigint), CAST(? AS bigint), CAST(? AS bigint), CAST(? AS bigint), " +
+            "       COALESCE(SUM(c.signup_count), 0), COALESCE(SUM(c.churned_count), 0), LOCALTIMESTAMP " +
+            "FROM engagement_churn_cohorts c WHERE c.stat_date = ? " +
+            "ON CONFLICT (stat_date) DO UPDATE SET " +
+            "    active_users = GREATEST(engagement_daily_stats.active_users, EXCLUDED.active_users), " +
+            "    weekly_active_users = GREATEST(engagement_daily_stats.weekly_active_users, EXCLUDED.weekly_active_users), " +
+            "    monthly_active_users = GREATEST(engagement_daily_stats.monthly_active_users, EXCLUDED.monthly_active_users), " +
+            "    login_users = GREATEST(engagement_daily_stats.login_users, EXCLUDED.login_users), " +
+            "    new_users = EXCLUDED.new_users, " +
+            "    churned_users = EXCLUDED.churned_users, " +
+            "    updated_at = EXCLUDED.updated_at";
+
+    // ==================== WRITE ====================
+
+    /**
+     * Cập nhật last_activity_date cho nhiều user trong 1 câu (không lùi thời điểm, không chạm @Version)
+     */
+    public int touchLastActivity(Collection<Long> userIds, LocalDateTime at) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        Long[] ids = userIds.toArray(Long[]::new);
+        Timestamp timestamp = Timestamp.valueOf(at);
+        return jdbcTemplate.update((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "UPDATE user_activities SET last_activity_date = ? " +
+                    "WHERE user_id = ANY(?) AND (last_activity_date IS NULL OR last_activity_date < ?)");
+            ps.setTimestamp(1, timestamp);
+            ps.setArray(2, con.createArrayOf("bigint", ids));
+            ps.setTimestamp(3, timestamp);
+            return ps;
+        });
+    }
+
+    /**
+     * Ghi cohort của 1 ngày: user đăng ký trong ngày + user không hoạt động từ đúng {@code churnDays} ngày trước
+     *
+     * @return số cohort tháng đã ghi
+     */
+    public int upsertCohortDay(LocalDate day, int churnDays) {
+        LocalDate inactiveSince = day.minusDays(churnDays);
+        return jdbcTemplate.update(COHORT_DAY_SQL,
+                Date.valueOf(day),
+                Timestamp.valueOf(day.atStartOfDay()),
+                Timestamp.valueOf(day.plusDays(1).atStartOfDay()),
+                Timestamp.valueOf(inactiveSince.atStartOfDay()),
+                Timestamp.valueOf(inactiveSince.plusDays(1).atStartOfDay()));
+    }
+
+    /**
+     * Ghi số liệu của 1 ngày; new_users / churned_users lấy từ cohort của ngày đó (gọi sau upsertCohortDay)
+     */
+    public int upsertDaily(LocalDate day, long activeUsers, long weeklyActiveUsers, long monthlyActiveUsers,
+            long loginUsers) {
+        return jdbcTemplate.update(DAILY_SQL, Date.valueOf(day), activeUsers, weeklyActiveUsers,
+                monthlyActiveUsers, loginUsers, Date.valueOf(day));
+    }
+
+    // ==================== READ ====================
+
+    /**
+     * Số liệu các ngày trong [from, to] đã được rollup, theo ngày tăng dần
+     */
+    public List<DailyStats> findDaily(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+                "SELECT stat_date, active_users, weekly_active_users, monthly_active_users, login_users, " +
+                        "new_users, churned_users FROM engagement_daily_stats " +
+                        "WHERE stat_date BETWEEN ? AND ? ORDER BY stat_date",
+                DAILY_MAPPER, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Tổng đăng ký / churn của các cohort tháng từ {@code fromMonth}, tháng mới nhất trước
+     */
+    public List<CohortTotals> findCohorts(LocalDate fromMonth) {
+        return jdbcTemplate.query(
+                "SELECT cohort_month, SUM(signup_count) AS signups, SUM(churned_count) AS churned " +
+                        "FROM engagement_churn_cohorts WHERE cohort_month >= ? " +
+                        "GROUP BY cohort_month ORDER BY cohort_month DESC",
+                COHORT_MAPPER, Date.valueOf(fromMonth));
+    }
+}
@@ -0,0 +1,136 @@
+package com.thanhnb.englishlearning.repository.user;
+
+import com.thanhnb.englishlearning.dto.user.request.UserDirectoryFilter;
+import com.thanhnb.englishlearning.dto.user.response.UserDirectoryItemDto;
+import com.thanhnb.englishlearning.entity.user.User;
+import com.thanhnb.englishlearning.entity.user.UserStats;
+import com.thanhnb.englishlearning.enums.EnglishLevel;
+import com.thanhnb.englishlearning.enums.UserRole;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Danh sách user của Admin bằng JDBC: users LEFT JOIN user_stats LEFT JOIN user_activities trong 1 câu,
+ * chỉ lấy các cột hiển thị (không load entity User + stats + activity lazy từng user).
+ *
+ * Phân trang keyset theo id giảm dần: "id < cursor ORDER BY id DESC LIMIT n" → trang thứ 1000 vẫn
+ * nhanh như trang đầu, không cần COUNT(*). Index tìm tiền tố: db/user-directory-schema.sql.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserDirectoryRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String SELECT_SQL =
+            "SELECT u.id, u.username, u.email, u.full_name, u.role, u.english_level, u.is_active, " +
+            "       u.is_verified, u.created_at, u.time_zone, " +
+            "       s.total_points, s.current_streak, s.longest_streak, s.last_streak_date, " +
+            "       s.total_lessons_completed, " +
+            "       a.last_login_date, a.last_activity_date, a.login_count " +
+            "FROM users u " +
+            "LEFT JOIN user_stats s ON s.user_id = u.id " +
+            "LEFT JOIN user_activities a ON a.user_id = u.id " +
+            "WHERE TRUE";
+
+    private static final RowMapper<UserDirectoryItemDto> MAPPER = (rs, i) -> {
+        String role = rs.getString("role");
+        String level = rs.getString("english_level");
+        LocalDate lastStreakDate = rs.getObject("last_streak_date", LocalDate.class);
+        return UserDirectoryItemDto.builder()
+                .id(rs.getLong("id"))
+                .username(rs.getString("username"))
+                .email(rs.getString("email"))
+                .fullName(rs.getString("full_name"))
+                .role(role != null ? UserRole.valueOf(role) : null)
+                .englishLevel(level != null ? EnglishLevel.valueOf(level) : null)
+                .isActive(rs.getObject("is_active", Boolean.class))
+                .isVerified(rs.getObject("is_verified", Boolean.class))
+                .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                .totalPoints(rs.getObject("total_points", Integer.class))
+                .currentStreak(effectiveStreak(rs.getObject("current_streak", Integer.class), lastStreakDate,
+                        rs.getString("time_zone")))
+                .longestStreak(rs.getObject("longest_streak", Integer.class))
+                .totalLessonsCompleted(rs.getObject("total_lessons_completed", Integer.class))
+                .lastLoginDate(rs.getObject("last_login_date", LocalDateTime.class))
+                .lastActivityDate(rs.getObject("last_activity_date", LocalDateTime.class))
+                .loginCount(rs.getObject("login_count", Integer.class))
+                .build();
+    };
+
+    /**
+     * Tối đa {@code limit} user có id < afterId (null = từ đầu), id giảm dần
+     */
+    public List<UserDirectoryItemDto> findPage(UserDirectoryFilter filter, Long afterId, int limit) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        appendFilters(sql, params, filter);
+        if (afterId != null) {
+            sql.append(" AND u.id < ?");
+            params.add(afterId);
+        }
+        sql.append(" ORDER BY u.id DESC LIMIT ?");
+        params.add(limit);
+        return jdbcTemplate.query(sql.toString(), MAPPER, params.toArray());
+    }
+
+    private static void appendFilters(StringBuilder sql, List<Object> params, UserDirectoryFilter filter) {
+        if (filter == null) {
+            return;
+        }
+        if (filter.getRole() != null) {
+            sql.append(" AND u.role = ?");
+            params.add(filter.getRole().name());
+        }
+        if (filter.getEnglishLevel() != null) {
+            sql.append(" AND u.english_level = ?");
+            params.add(filter.getEnglishLevel().name());
+        }
+        if (filter.getIsVerified() != null) {
+            sql.append(" AND u.is_verified = ?");
+            params.add(filter.getIsVerified());
+        }
+        if (filter.getIsActive() != null) {
+            sql.append(" AND u.is_active = ?");
+            params.add(filter.getIsActive());
+        }
+        if (filter.getLastActiveFrom() != null) {
+            sql.append(" AND a.last_activity_date >= ?");
+            params.add(filter.getLastActiveFrom());
+        }
+        if (filter.getLastActiveTo() != null) {
+            sql.append(" AND a.last_activity_date <= ?");
+            params.add(filter.getLastActiveTo());
+        }
+        if (filter.getQ() != null && !filter.getQ().isBlank()) {
+            // Tiền tố (không có % ở đầu) → dùng được index lower(...) text_pattern_ops
+            String prefix = escapeLike(filter.getQ().trim().toLowerCase(Locale.ROOT)) + "%";
+            sql.append(" AND (lower(u.username) LIKE ? OR lower(u.email) LIKE ?)");
+            params.add(prefix);
+            params.add(prefix);
+        }
+    }
+
+    /**
+     * Giống UserStats.getEffectiveStreak(): streak đã đứt (lần học cuối trước hôm qua theo múi giờ
+     * của user) được coi là 0 lúc đọc
+     */
+    private static Integer effectiveStreak(Integer currentStreak, LocalDate lastStreakDate, String timeZone) {
+        // Không có user_stats (LEFT JOIN) → null
+        return currentStreak != null
+                ? UserStats.effectiveStreak(currentStreak, lastStreakDate, User.zoneOf(timeZone))
+                : null;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
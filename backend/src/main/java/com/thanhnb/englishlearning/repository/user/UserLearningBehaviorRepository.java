@@ -13,6 +13,7 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.Modifying;
 
 @Repository
 public interface UserLearningBehaviorRepository extends JpaRepository<UserLearningBehavior, Long> {
@@ -28,4 +29,8 @@ public interface UserLearningBehaviorRepository extends JpaRepository<UserLearni
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT b FROM UserLearningBehavior b WHERE b.userId = :userId")
     Optional<UserLearningBehavior> findByUserIdWithLock(@Param("userId") Long userId);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("DELETE FROM UserLearningBehavior b WHERE b.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,12 +24,27 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
         List<User> findByEnglishLevel(EnglishLevel englishLevel);
 
-        List<User> findByIsActiveTrue();
-
         boolean existsByUsername(String username);
 
         boolean existsByEmail(String email);
 
+        /**
+         * users.time_zone của 1 user (không load entity) - "hôm nay" của streak
+         */
+        @Query("SELECT u.timeZone FROM User u WHERE u.id = :userId")
+        Optional<String> findTimeZoneById(@Param("userId") Long userId);
+
+        /**
+         * Cập nhật hash password (rehash khi đổi thuật toán/cost)
+         * Chỉ cập nhật nếu password chưa bị đổi kể từ lúc verify
+         */
+        @Modifying
+        @Transactional
+        @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :userId AND u.password = :oldHash")
+        int updatePasswordIfUnchanged(@Param("userId") Long userId,
+                        @Param("oldHash") String oldHash,
+                        @Param("newHash") String newHash);
+
         // ==================== CLEANUP METHODS (OPTIMIZED) ====================
 
         /**
@@ -125,4 +141,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
                         "LEFT JOIN FETCH u.activity " +
                         "WHERE u.email = :email")
         Optional<User> findByEmailWithStatsAndActivity(@Param("email") String email);
-}
\ No newline at end of file
+
+        /**
+         * Xóa user bằng 1 câu lệnh (bảng con phải được xóa trước - xem BulkDeletionService)
+         */
+        @Modifying(flushAutomatically = true, clearAutomatically = true)
+        @Query("DELETE FROM User u WHERE u.id = :userId")
+        int deleteByIdDirect(@Param("userId") Long userId);
+}
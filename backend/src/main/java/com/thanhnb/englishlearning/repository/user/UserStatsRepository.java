@@ -8,7 +8,6 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,12 +18,17 @@ import java.util.Optional;
  * 
  * Key features:
  * - Leaderboards (points, streak)
- * - Streak management
  * - Stats queries
  */
 @Repository
 public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
 
+    /**
+     * Điều kiện streak còn sống theo múi giờ của từng user (alias s = user_stats, u = users):
+     * lần học cuối >= hôm qua tính theo users.time_zone (null → :defaultZone)
+     */
+    String LIVE_STREAK = "s.last_streak_date >= CAST(timezone(COALESCE(u.time_zone, :defaultZone), now()) AS date) - 1";
+
     // ==================== BASIC QUERIES ====================
 
     /**
@@ -52,15 +56,18 @@ public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
     List<UserStats> findTopByPoints(@Param("minPoints") Integer minPoints, Pageable pageable);
 
     /**
-     * Get top users by current streak
+     * Get top users by current streak (bỏ qua streak đã đứt theo múi giờ của user)
      * 
-     * @param minStreak Minimum streak threshold
-     * @param pageable  Pagination
+     * @param minStreak   Minimum streak threshold
+     * @param defaultZone Múi giờ cho user chưa đặt time_zone
+     * @param pageable    Pagination
      * @return Top users ordered by streak DESC
      */
-    @Query("SELECT s FROM UserStats s WHERE s.currentStreak >= :minStreak " +
-            "ORDER BY s.currentStreak DESC")
-    List<UserStats> findTopByStreak(@Param("minStreak") Integer minStreak, Pageable pageable);
+    @Query(value = "SELECT s.* FROM user_stats s JOIN users u ON u.id = s.user_id " +
+            "WHERE s.current_streak >= :minStreak AND " + LIVE_STREAK + " " +
+            "ORDER BY s.current_streak DESC", nativeQuery = true)
+    List<UserStats> findTopByStreak(@Param("minStreak") Integer minStreak,
+            @Param("defaultZone") String defaultZone, Pageable pageable);
 
     /**
      * Get top users by longest streak ever
@@ -76,50 +83,6 @@ public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
             "ORDER BY s.totalLessonsCompleted DESC")
     List<UserStats> findTopByLessonsCompleted(@Param("minLessons") Integer minLessons, Pageable pageable);
 
-    // ==================== STREAK MANAGEMENT ====================
-
-    /**
-     * ⚠️ CRITICAL QUERY: Find all users with active streak (current_streak > 0)
-     * 
-     * Dùng cho StreakScheduler để check và reset streak
-     * 
-     * @return List of UserStats with active streak
-     */
-    @Query("SELECT s FROM UserStats s WHERE s.currentStreak > 0")
-    List<UserStats> findAllWithActiveStreak();
-
-    /**
-     * Find users whose streak should be reset
-     * (last_streak_date NOT IN [yesterday, today])
-     * 
-     * @param yesterday Yesterday's date
-     * @param today     Today's date
-     * @return Users whose streak needs reset
-     */
-    @Query("SELECT s FROM UserStats s WHERE s.currentStreak > 0 " +
-            "AND s.lastStreakDate IS NOT NULL " +
-            "AND s.lastStreakDate < :yesterday")
-    List<UserStats> findStreaksToReset(@Param("yesterday") LocalDate yesterday);
-
-    /**
-     * Reset all expired streaks
-     * 
-     * @param yesterday Yesterday's date
-     * @return Number of streaks reset
-     */
-    @Modifying
-    @Query("UPDATE UserStats s SET s.currentStreak = 0, s.lastStreakDate = NULL " +
-            "WHERE s.currentStreak > 0 " +
-            "AND s.lastStreakDate IS NOT NULL " +
-            "AND s.lastStreakDate < :yesterday")
-    int resetExpiredStreaks(@Param("yesterday") LocalDate yesterday);
-
-    /**
-     * Find users who studied today
-     */
-    @Query("SELECT s FROM UserStats s WHERE s.lastStreakDate = :today")
-    List<UserStats> findUsersWhoStudiedToday(@Param("today") LocalDate today);
-
     // ==================== STATS QUERIES ====================
 
     /**
@@ -137,14 +100,16 @@ public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
     /**
      * Get count of users with active streak
      */
-    @Query("SELECT COUNT(s) FROM UserStats s WHERE s.currentStreak > 0")
-    Long countUsersWithActiveStreak();
+    @Query(value = "SELECT COUNT(*) FROM user_stats s JOIN users u ON u.id = s.user_id " +
+            "WHERE s.current_streak > 0 AND " + LIVE_STREAK, nativeQuery = true)
+    Long countUsersWithActiveStreak(@Param("defaultZone") String defaultZone);
 
     /**
      * Get average streak
      */
-    @Query("SELECT AVG(s.currentStreak) FROM UserStats s WHERE s.currentStreak > 0")
-    Double getAverageStreak();
+    @Query(value = "SELECT AVG(s.current_streak) FROM user_stats s JOIN users u ON u.id = s.user_id " +
+            "WHERE s.current_streak > 0 AND " + LIVE_STREAK, nativeQuery = true)
+    Double getAverageStreak(@Param("defaultZone") String defaultZone);
 
     /**
      * Find users by module completion
@@ -176,6 +141,31 @@ public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
             "WHERE s.userId IN :userIds")
     int bulkAddPoints(@Param("userIds") List<Long> userIds, @Param("points") Integer points);
 
+    /**
+     * ✅ Cộng dồn tại chỗ cho 1 user (dùng qua UserStatsWriter / StudyTimeTracker)
+     *
+     * Không đọc entity trước → các lần nộp song song không ghi đè nhau.
+     * Không tăng version: các cột này luôn cộng được, @Version chỉ bảo vệ streak.
+     *
+     * @return 0 nếu user chưa có stats
+     */
+    @Modifying
+    @Query("UPDATE UserStats s SET s.totalPoints = s.totalPoints + :points, " +
+            "s.totalLessonsCompleted = s.totalLessonsCompleted + :lessons, " +
+            "s.grammarCompleted = s.grammarCompleted + :grammar, " +
+            "s.readingCompleted = s.readingCompleted + :reading, " +
+            "s.listeningCompleted = s.listeningCompleted + :listening, " +
+            "s.totalStudyTimeMinutes = s.totalStudyTimeMinutes + :studyMinutes, " +
+            "s.lastUpdated = CURRENT_TIMESTAMP " +
+            "WHERE s.userId = :userId")
+    int applyIncrements(@Param("userId") Long userId,
+            @Param("points") int points,
+            @Param("lessons") int lessons,
+            @Param("grammar") int grammar,
+            @Param("reading") int reading,
+            @Param("listening") int listening,
+            @Param("studyMinutes") int studyMinutes);
+
     /**
      * Recalculate lesson completion for user
      */
@@ -204,11 +194,14 @@ public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
     Long getUserRankByPoints(@Param("userId") Long userId);
 
     /**
-     * Get user rank by streak
+     * Get user rank by streak (streak đã đứt tính là 0)
      */
-    @Query("SELECT COUNT(s) + 1 FROM UserStats s " +
-            "WHERE s.currentStreak > (SELECT s2.currentStreak FROM UserStats s2 WHERE s2.userId = :userId)")
-    Long getUserRankByStreak(@Param("userId") Long userId);
+    @Query(value = "WITH live AS (" +
+            "  SELECT s.user_id, CASE WHEN " + LIVE_STREAK + " THEN s.current_streak ELSE 0 END AS streak " +
+            "  FROM user_stats s JOIN users u ON u.id = s.user_id" +
+            ") SELECT COUNT(*) + 1 FROM live WHERE streak > (SELECT l.streak FROM live l WHERE l.user_id = :userId)",
+            nativeQuery = true)
+    Long getUserRankByStreak(@Param("userId") Long userId, @Param("defaultZone") String defaultZone);
 
     /**
      * Get percentile for user's points
@@ -219,4 +212,8 @@ public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
     @Query(value = "SELECT PERCENT_RANK() OVER (ORDER BY total_points) * 100 " +
             "FROM user_stats WHERE user_id = :userId", nativeQuery = true)
     Double getUserPointsPercentile(@Param("userId") Long userId);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("DELETE FROM UserStats s WHERE s.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,130 @@
+package com.thanhnb.englishlearning.repository.user;
+
+import com.thanhnb.englishlearning.enums.ModuleType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Truy cập bảng user_study_time (entity UserStudyTime) bằng JDBC
+ *
+ * Không dùng JpaRepository: flush heartbeat ghi cả nghìn row / lần → 1 câu upsert dạng unnest(mảng)
+ * và lấy luôn tổng sau khi cộng (RETURNING), không phải 1 câu / row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserStudyTimeRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Số giây học của user trong 1 ngày, 1 module
+     */
+    public record StudySeconds(Long userId, LocalDate date, ModuleType module, int seconds) {
+    }
+
+    private static final RowMapper<StudySeconds> MAPPER = (rs, i) -> new StudySeconds(
+            rs.getLong("user_id"),
+            rs.getDate("study_date").toLocalDate(),
+            ModuleType.valueOf(rs.getString("module_type")),
+            rs.getInt("seconds"));
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO user_study_time (user_id, study_date, module_type, seconds, updated_at) " +
+            "SELECT t.user_id, t.study_date, t.module_type, t.seconds, LOCALTIMESTAMP " +
+            "FROM unnest(?::bigint[], ?::date[], ?::varchar[], ?::integer[]) " +
+            "  AS t(user_id, study_date, module_type, seconds) " +
+            "ON CONFLICT (user_id, study_date, module_type) DO UPDATE " +
+            "SET seconds = user_study_time.seconds + EXCLUDED.seconds, updated_at = EXCLUDED.updated_at " +
+            "RETURNING user_id, study_date, module_type, seconds";
+
+    // ==================== WRITE ====================
+
+    /**
+     * Cộng dồn số giây cho từng (user, ngày, module) trong 1 câu lệnh
+     *
+     * @param increments không được trùng (user, ngày, module) - caller gom trước
+     * @return tổng số giây của các row sau khi cộng
+     */
+    public List<StudySeconds> addSeconds(List<StudySeconds> increments) {
+        if (increments.isEmpty()) {
+            return List.of();
+        }
+        int size = increments.size();
+        Long[] userIds = new Long[size];
+        Date[] dates = new Date[size];
+        String[] modules = new String[size];
+        Integer[] seconds = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            StudySeconds increment = increments.get(i);
+            userIds[i] = increment.userId();
+            dates[i] = Date.valueOf(increment.date());
+            modules[i] = increment.module().name();
+            seconds[i] = increment.seconds();
+        }
+
+        return jdbcTemplate.query((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement(UPSERT_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", userIds));
+            ps.setArray(2, con.createArrayOf("date", dates));
+            ps.setArray(3, con.createArrayOf("varchar", modules));
+            ps.setArray(4, con.createArrayOf("integer", seconds));
+            return ps;
+        }, MAPPER);
+    }
+
+    public int deleteByUserId(Long userId) {
+        return jdbcTemplate.update("DELETE FROM user_study_time WHERE user_id = ?", userId);
+    }
+
+    // ==================== READ ====================
+
+    /**
+     * users.time_zone của các user (chỉ user có đặt múi giờ) - ngày học tính theo múi giờ của user
+     */
+    public Map<Long, String> findTimeZones(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, String> zones = new HashMap<>();
+        jdbcTemplate.query((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT id, time_zone FROM users WHERE id = ANY(?) AND time_zone IS NOT NULL");
+            ps.setArray(1, con.createArrayOf("bigint", userIds.toArray(new Long[0])));
+            return ps;
+        }, rs -> {
+            zones.put(rs.getLong("id"), rs.getString("time_zone"));
+        });
+        return zones;
+    }
+
+    /**
+     * Các row của user trong khoảng ngày [from, to], theo ngày tăng dần
+     */
+    public List<StudySeconds> findByUserIdBetween(Long userId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+                "SELECT user_id, study_date, module_type, seconds FROM user_study_time " +
+                        "WHERE user_id = ? AND study_date BETWEEN ? AND ? ORDER BY study_date, module_type",
+                MAPPER, userId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Tổng số giây học của user trong 1 ngày (mọi module)
+     */
+    public int sumSeconds(Long userId, LocalDate date) {
+        Integer total = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(seconds), 0) FROM user_study_time WHERE user_id = ? AND study_date = ?",
+                Integer.class, userId, Date.valueOf(date));
+        return total != null ? total : 0;
+    }
+}
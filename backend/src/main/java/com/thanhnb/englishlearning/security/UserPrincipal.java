@@ -7,6 +7,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import com.thanhnb.englishlearning.entity.user.User;
+import com.thanhnb.englishlearning.enums.UserRole;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -40,6 +41,23 @@ public class UserPrincipal implements UserDetails {
         return authorities;
     }
 
+    /**
+     * Role lấy từ authority "ROLE_xxx" (không cần load User từ DB); null nếu không có role hợp lệ
+     */
+    public UserRole getRole() {
+        for (GrantedAuthority authority : authorities) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith("ROLE_")) {
+                try {
+                    return UserRole.valueOf(name.substring("ROLE_".length()));
+                } catch (IllegalArgumentException ignored) {
+                    // Authority không phải UserRole → xét authority tiếp theo
+                }
+            }
+        }
+        return null;
+    }
+
     @Override
     public String getPassword() {
         return password;
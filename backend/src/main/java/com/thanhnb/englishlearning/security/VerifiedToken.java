@@ -0,0 +1,32 @@
+package com.thanhnb.englishlearning.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * ✅ Claims của 1 JWT đã verify chữ ký (bất biến)
+ *
+ * Tạo duy nhất bởi JwtUtil.verify(); JwtAuthenticationFilter verify 1 lần rồi dùng object này cho mọi bước sau
+ * (blacklist, kiểm tra phiên, roles) và gắn vào request attribute {@link #REQUEST_ATTRIBUTE}.
+ *
+ * @param tokenHash SHA-256 (Base64) của token - dùng làm key cache / key blacklist
+ * @param keyId     kid của khóa đã verify (token cũ không có kid → "default")
+ */
+public record VerifiedToken(
+        String tokenHash,
+        String username,
+        List<String> roles,
+        Instant issuedAt,
+        Instant expiresAt,
+        String keyId) {
+
+    public static final String REQUEST_ATTRIBUTE = "verifiedToken";
+
+    public VerifiedToken {
+        roles = List.copyOf(roles);
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
@@ -1,10 +1,14 @@
 package com.thanhnb.englishlearning.service.ai.provider;
 
 import com.thanhnb.englishlearning.config.AIConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * ✅ IMPROVED: AI Service Router with detailed logging
  */
@@ -16,6 +20,7 @@ public class AIServiceRouter {
     private final GroqService groqService;
     private final GeminiService geminiService;
     private final AIConfig aiConfig;
+    private final MeterRegistry meterRegistry;
 
     public enum AIProvider {
         GROQ, GEMINI
@@ -32,54 +37,56 @@ public class AIServiceRouter {
         return generateJSON(prompt, provider);
     }
 
+    public String generateForWritingAssessment(String prompt) throws Exception {
+        return generateJSON(prompt, getWritingAssessmentProvider());
+    }
+
+    public AIProvider getWritingAssessmentProvider() {
+        return getProvider(aiConfig.getProvider().getWritingAssessment());
+    }
+
     public String generateJSON(String prompt, AIProvider preferredProvider) throws Exception {
         log.info("📡 Starting JSON generation with preferred provider: {}", preferredProvider);
-        
-        if (preferredProvider == AIProvider.GROQ) {
+        AIProvider fallbackProvider = preferredProvider == AIProvider.GROQ ? AIProvider.GEMINI : AIProvider.GROQ;
+
+        try {
+            log.info("🚀 Attempting with {}...", preferredProvider);
+            return timedGenerateJSON(prompt, preferredProvider, false);
+        } catch (Exception e) {
+            log.warn("❌ {} failed: {}", preferredProvider, e.getMessage());
+            log.info("🔄 Falling back to {}...", fallbackProvider);
+
             try {
-                log.info("🚀 Attempting with Groq...");
-                long startTime = System.currentTimeMillis();
-                String result = groqService.generateJSON(prompt);
-                long duration = System.currentTimeMillis() - startTime;
-                log.info("✅ Groq succeeded in {}ms", duration);
-                return result;
-            } catch (Exception e) {
-                log.warn("❌ Groq failed: {}", e.getMessage());
-                log.info("🔄 Falling back to Gemini...");
-                
-                try {
-                    long startTime = System.currentTimeMillis();
-                    String result = geminiService.generateJSON(prompt);
-                    long duration = System.currentTimeMillis() - startTime;
-                    log.info("✅ Gemini (fallback) succeeded in {}ms", duration);
-                    return result;
-                } catch (Exception geminiError) {
-                    log.error("❌ Gemini also failed: {}", geminiError.getMessage());
-                    throw geminiError;
-                }
+                return timedGenerateJSON(prompt, fallbackProvider, true);
+            } catch (Exception fallbackError) {
+                log.error("❌ {} also failed: {}", fallbackProvider, fallbackError.getMessage());
+                throw fallbackError;
             }
-        } else {
-            try {
-                log.info("🚀 Attempting with Gemini...");
-                long startTime = System.currentTimeMillis();
-                String result = geminiService.generateJSON(prompt);
-                long duration = System.currentTimeMillis() - startTime;
-                log.info("✅ Gemini succeeded in {}ms", duration);
-                return result;
-            } catch (Exception e) {
-                log.warn("❌ Gemini failed: {}", e.getMessage());
-                log.info("🔄 Falling back to Groq...");
-                
-                try {
-                    long startTime = System.currentTimeMillis();
-                    String result = groqService.generateJSON(prompt);
-                    long duration = System.currentTimeMillis() - startTime;
-                    log.info("✅ Groq (fallback) succeeded in {}ms", duration);
-                    return result;
-                } catch (Exception groqError) {
-                    log.error("❌ Groq also failed: {}", groqError.getMessage());
-                    throw groqError;
-                }
+        }
+    }
+
+    /**
+     * ai.generate{provider, fallback, outcome} - thay cho log currentTimeMillis rời rạc
+     */
+    private String timedGenerateJSON(String prompt, AIProvider provider, boolean fallback) throws Exception {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            String result = provider == AIProvider.GROQ
+                    ? groqService.generateJSON(prompt)
+                    : geminiService.generateJSON(prompt);
+            outcome = "success";
+            return result;
+        } finally {
+            long nanos = sample.stop(Timer.builder("ai.generate")
+                    .tag("provider", provider.name())
+                    .tag("fallback", Boolean.toString(fallback))
+                    .tag("outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+            if ("success".equals(outcome)) {
+                log.info("✅ {}{} succeeded in {}ms", provider, fallback ? " (fallback)" : "",
+                        TimeUnit.NANOSECONDS.toMillis(nanos));
             }
         }
     }
@@ -12,6 +12,7 @@ import com.thanhnb.englishlearning.entity.user.User;
 import com.thanhnb.englishlearning.entity.user.UserLearningBehavior;
 import com.thanhnb.englishlearning.entity.user.UserStats;
 import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.repository.attempt.AnswerAttemptRepository;
 import com.thanhnb.englishlearning.repository.grammar.GrammarLessonRepository;
 import com.thanhnb.englishlearning.repository.grammar.UserGrammarProgressRepository;
 import com.thanhnb.englishlearning.repository.listening.ListeningLessonRepository;
@@ -32,6 +33,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -51,11 +53,13 @@ public class AIRecommendationService {
     private final UserGrammarProgressRepository grammarProgressRepo;
     private final UserReadingProgressRepository readingProgressRepo;
     private final UserListeningProgressRepository listeningProgressRepo;
+    private final AnswerAttemptRepository answerAttemptRepository;
     private static final int RECOMMENDATION_CACHE_HOURS = 6;
     private static final int MAX_RECOMMENDATIONS = 5;
     private static final int REVIEW_DAYS_THRESHOLD = 7;
     private static final double REVIEW_SCORE_THRESHOLD = 80.0; // 80%
     private static final double MISTAKE_SCORE_THRESHOLD = 75.0; // Topics with avg < 75%
+    private static final int RECENT_MISTAKE_DAYS = 14;
 
     // =========================================================================
     // MAIN ENTRY POINT
@@ -606,6 +610,12 @@ public class AIRecommendationService {
         try {
             // Find quickest lesson across all modules
             Map<ModuleType, List<LessonInfo>> available = ctx.getAvailableLessons();
+            // Streak đã đứt (theo múi giờ của user) → không còn gì để "cứu", gợi ý bắt đầu lại
+            int currentStreak = ctx.getStats() != null ? ctx.getStats().getEffectiveStreak() : 0;
+            String description = currentStreak > 0
+                    ? String.format("Bạn chưa học hôm nay! Streak hiện tại: %d ngày.\n" +
+                            "Hoàn thành bài này để giữ streak! (~10-15 phút)", currentStreak)
+                    : "Bạn chưa học hôm nay! Hoàn thành bài này để bắt đầu streak mới (~10-15 phút)";
 
             for (ModuleType module : ModuleType.values()) {
                 List<LessonInfo> lessons = available.get(module);
@@ -616,10 +626,7 @@ public class AIRecommendationService {
                             .user(ctx.getUser())
                             .type("STREAK_SAVER")
                             .title("🔥 Cứu Streak - Học ngay!")
-                            .description(String.format(
-                                    "Bạn chưa học hôm nay! Streak hiện tại: %d ngày.\n" +
-                                            "Hoàn thành bài này để giữ streak! (~10-15 phút)",
-                                    ctx.getStats().getCurrentStreak()))
+                            .description(description)
                             .reasoning("User hasn't studied today - urgent streak protection needed")
                             .targetSkill(module)
                             .targetLessonId(quickLesson.getLessonId())
@@ -797,7 +804,7 @@ public class AIRecommendationService {
         Set<Long> completedLessonIds = getCompletedLessonIds(user.getId());
         Map<String, Integer> recentMistakes = getRecentCommonMistakes(user.getId());
         UserState userState = determineUserState(user, behavior);
-        TimeContext timeContext = getTimeContext();
+        TimeContext timeContext = getTimeContext(user);
 
         return RecommendationContext.builder()
                 .user(user)
@@ -827,6 +834,14 @@ public class AIRecommendationService {
                 ? ctx.getBehavior().getSkillStats().get(weakSkill).getAccuracy()
                 : 0.0;
 
+        // Loại câu hỏi sai nhiều nhất gần đây (map đã sắp giảm dần)
+        String reasoning = "AI phát hiện kỹ năng yếu nhất của bạn cần cải thiện";
+        Map<String, Integer> mistakes = ctx.getRecentMistakes();
+        if (mistakes != null && !mistakes.isEmpty()) {
+            Map.Entry<String, Integer> top = mistakes.entrySet().iterator().next();
+            reasoning += String.format(" (gần đây sai nhiều nhất ở dạng %s: %d câu)", top.getKey(), top.getValue());
+        }
+
         return AIRecommendation.builder()
                 .user(ctx.getUser())
                 .type("PRACTICE_WEAK_SKILL")
@@ -835,7 +850,7 @@ public class AIRecommendationService {
                         "Bạn đang gặp khó khăn với %s (%.1f%% chính xác). " +
                                 "Hãy luyện tập thêm để cải thiện!",
                         weakSkill, accuracy * 100))
-                .reasoning("AI phát hiện kỹ năng yếu nhất của bạn cần cải thiện")
+                .reasoning(reasoning)
                 .targetSkill(module)
                 .targetLessonId(target.getLessonId())
                 .targetTopicId(target.getTopicId())
@@ -1030,7 +1045,7 @@ public class AIRecommendationService {
     // =========================================================================
 
     private LearningPattern analyzeLearningPattern(User user, UserLearningBehavior behavior) {
-        boolean isConsistent = user.getStats() != null && user.getStats().getCurrentStreak() >= 3;
+        boolean isConsistent = user.getStats() != null && user.getStats().getEffectiveStreak() >= 3;
         double avgAttempts = behavior.getAvgAttemptsPerLesson() != null ? behavior.getAvgAttemptsPerLesson() : 0.0;
         boolean struggles = avgAttempts > 2.0;
         double accuracy = behavior.getOverallAccuracy() != null ? behavior.getOverallAccuracy() : 0.0;
@@ -1081,9 +1096,11 @@ public class AIRecommendationService {
         return new UserState(hasWeakSkill, hasInProgress, isStruggling, hasStreakToday);
     }
 
-    private TimeContext getTimeContext() {
-        LocalTime now = LocalTime.now();
-        DayOfWeek day = LocalDateTime.now().getDayOfWeek();
+    private TimeContext getTimeContext(User user) {
+        // Sáng / tối theo múi giờ của user, không phải của server
+        ZonedDateTime userNow = ZonedDateTime.now(user.zoneId());
+        LocalTime now = userNow.toLocalTime();
+        DayOfWeek day = userNow.getDayOfWeek();
 
         String timeOfDay;
         if (now.isBefore(LocalTime.of(12, 0))) {
@@ -1217,9 +1234,17 @@ public class AIRecommendationService {
         return completed;
     }
 
+    /**
+     * Số câu sai theo loại câu hỏi trong 14 ngày gần nhất (từ answer_attempts), giảm dần
+     */
     private Map<String, Integer> getRecentCommonMistakes(Long userId) {
-        // TODO: Implement based on answer history if needed
-        return new HashMap<>();
+        try {
+            return answerAttemptRepository.countWrongByType(
+                    userId, LocalDateTime.now().minusDays(RECENT_MISTAKE_DAYS));
+        } catch (Exception e) {
+            log.warn("Failed to load recent mistakes for user {}: {}", userId, e.getMessage());
+            return new HashMap<>();
+        }
     }
 
     private List<AIRecommendation> ensureDiversity(List<AIRecommendation> recs, User user) {
@@ -0,0 +1,137 @@
+package com.thanhnb.englishlearning.service.ai.recommendation;
+
+import com.thanhnb.englishlearning.config.RecommendationAnalyticsProperties;
+import com.thanhnb.englishlearning.dto.ai.RecommendationFunnelDto;
+import com.thanhnb.englishlearning.dto.ai.RecommendationFunnelDto.BreakdownDto;
+import com.thanhnb.englishlearning.dto.ai.RecommendationFunnelDto.PointDto;
+import com.thanhnb.englishlearning.dto.ai.RecommendationFunnelDto.StepsDto;
+import com.thanhnb.englishlearning.enums.StatsGranularity;
+import com.thanhnb.englishlearning.repository.recommendation.RecommendationStatsRepository;
+import com.thanhnb.englishlearning.repository.recommendation.RecommendationStatsRepository.FunnelCounts;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ✅ Thống kê funnel AI recommendation cho Admin
+ *
+ * - rollup(): job "recommendation-rollup" tổng hợp các ngày đã kết thúc vào recommendation_daily_stats
+ * - getFunnel(): biểu đồ chỉ đọc bảng tổng hợp, không chạm ai_recommendations
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationAnalyticsService {
+
+    private final RecommendationStatsRepository statsRepository;
+    private final RecommendationAnalyticsProperties properties;
+
+    /**
+     * Tính lại rollupDays ngày gần nhất (không gồm hôm nay)
+     *
+     * @return Số nhóm (ngày, loại, kỹ năng) đã ghi
+     */
+    public int rollup() {
+        LocalDate today = LocalDate.now();
+        int written = 0;
+        for (int i = properties.getRollupDays(); i >= 1; i--) {
+            written += statsRepository.rollupDay(today.minusDays(i), properties.getEventWindowDays());
+        }
+        log.info("📊 Recommendation rollup: {} rows for the last {} days", written, properties.getRollupDays());
+        return written;
+    }
+
+    /**
+     * Funnel trong [from, to] theo ngày / tuần
+     *
+     * @param type  null = mọi loại gợi ý
+     * @param skill null = mọi kỹ năng
+     * @throws IllegalArgumentException khoảng ngày không hợp lệ hoặc dài hơn maxChartDays
+     */
+    public RecommendationFunnelDto getFunnel(LocalDate from, LocalDate to, String type, String skill,
+            StatsGranularity granularity) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from phải trước hoặc bằng to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) + 1 > properties.getMaxChartDays()) {
+            throw new IllegalArgumentException("Khoảng thời gian tối đa " + properties.getMaxChartDays() + " ngày");
+        }
+
+        Map<LocalDate, StepsDto> buckets = new TreeMap<>();
+        for (LocalDate date = bucketOf(from, granularity); !date.isAfter(to); date = next(date, granularity)) {
+            buckets.put(date, toSteps(0, 0, 0, 0, 0));
+        }
+        for (FunnelCounts row : statsRepository.findSeries(from, to, type, skill, granularity)) {
+            buckets.put(row.bucket(), toSteps(row));
+        }
+
+        List<PointDto> points = new ArrayList<>(buckets.size());
+        buckets.forEach((date, steps) -> points.add(PointDto.builder().date(date).steps(steps).build()));
+
+        List<BreakdownDto> breakdown = new ArrayList<>();
+        long generated = 0, shown = 0, accepted = 0, completed = 0, dismissed = 0;
+        for (FunnelCounts row : statsRepository.findTotalsByTypeAndSkill(from, to, type, skill)) {
+            breakdown.add(BreakdownDto.builder()
+                    .type(row.recType())
+                    .skill(row.skill())
+                    .steps(toSteps(row))
+                    .build());
+            generated += row.generated();
+            shown += row.shown();
+            accepted += row.accepted();
+            completed += row.completed();
+            dismissed += row.dismissed();
+        }
+
+        return RecommendationFunnelDto.builder()
+                .from(from)
+                .to(to)
+                .granularity(granularity)
+                .type(type)
+                .skill(skill)
+                .totals(toSteps(generated, shown, accepted, completed, dismissed))
+                .points(points)
+                .breakdown(breakdown)
+                .build();
+    }
+
+    // ==================== HELPERS ====================
+
+    private static LocalDate bucketOf(LocalDate date, StatsGranularity granularity) {
+        return granularity == StatsGranularity.WEEK
+                ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : date;
+    }
+
+    private static LocalDate next(LocalDate bucket, StatsGranularity granularity) {
+        return granularity == StatsGranularity.WEEK ? bucket.plusWeeks(1) : bucket.plusDays(1);
+    }
+
+    private static StepsDto toSteps(FunnelCounts row) {
+        return toSteps(row.generated(), row.shown(), row.accepted(), row.completed(), row.dismissed());
+    }
+
+    /**
+     * Cùng cách tính tỷ lệ với RecommendationTrackingService.getMetrics
+     */
+    private static StepsDto toSteps(long generated, long shown, long accepted, long completed, long dismissed) {
+        return StepsDto.builder()
+                .generated(generated)
+                .shown(shown)
+                .accepted(accepted)
+                .completed(completed)
+                .dismissed(dismissed)
+                .acceptanceRate(shown > 0 ? (double) accepted / shown * 100 : 0)
+                .completionRate(accepted > 0 ? (double) completed / accepted * 100 : 0)
+                .build();
+    }
+}
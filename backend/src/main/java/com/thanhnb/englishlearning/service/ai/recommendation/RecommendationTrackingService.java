@@ -1,7 +1,9 @@
 package com.thanhnb.englishlearning.service.ai.recommendation;
 
+import com.thanhnb.englishlearning.config.RecommendationAnalyticsProperties;
 import com.thanhnb.englishlearning.entity.recommendation.AIRecommendation;
 import com.thanhnb.englishlearning.repository.recommendation.AIRecommendationRepository;
+import com.thanhnb.englishlearning.repository.recommendation.AIRecommendationRepository.FunnelSummary;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,7 +11,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 /**
  * ✅ Track effectiveness of AI recommendations
@@ -25,6 +26,7 @@ import java.util.List;
 public class RecommendationTrackingService {
 
     private final AIRecommendationRepository recommendationRepository;
+    private final RecommendationAnalyticsProperties analyticsProperties;
 
     /**
      * Mark recommendation as shown to user
@@ -49,10 +51,14 @@ public class RecommendationTrackingService {
     public void markAsAccepted(Long recommendationId, Long userId) {
         AIRecommendation rec = getRecommendation(recommendationId, userId);
 
+        LocalDateTime now = LocalDateTime.now();
         rec.setIsAccepted(true);
         rec.setShown(true); // ✅ Auto-mark as shown
         if (rec.getShownAt() == null) {
-            rec.setShownAt(LocalDateTime.now());
+            rec.setShownAt(now);
+        }
+        if (rec.getAcceptedAt() == null) {
+            rec.setAcceptedAt(now);
         }
 
         recommendationRepository.save(rec);
@@ -67,9 +73,19 @@ public class RecommendationTrackingService {
     public void markAsCompleted(Long recommendationId, Long userId) {
         AIRecommendation rec = getRecommendation(recommendationId, userId);
 
+        LocalDateTime now = LocalDateTime.now();
         rec.setCompleted(true); // ✅ Fixed: use setCompleted() not setIsCompleted()
         rec.setIsAccepted(true); // ✅ Auto-accept if completed
         rec.setShown(true);
+        if (rec.getCompletedAt() == null) {
+            rec.setCompletedAt(now);
+        }
+        if (rec.getAcceptedAt() == null) {
+            rec.setAcceptedAt(now);
+        }
+        if (rec.getShownAt() == null) {
+            rec.setShownAt(now);
+        }
 
         recommendationRepository.save(rec);
 
@@ -85,6 +101,9 @@ public class RecommendationTrackingService {
 
         // Option 1: Mark as rejected (keep for analytics)
         rec.setIsAccepted(false);
+        if (rec.getDismissedAt() == null) {
+            rec.setDismissedAt(LocalDateTime.now());
+        }
         recommendationRepository.save(rec);
 
         // Option 2: Delete completely (cleaner for user)
@@ -95,36 +114,30 @@ public class RecommendationTrackingService {
 
     /**
      * Get recommendation effectiveness metrics
+     * Đếm bằng 1 câu aggregate trong DB (không load toàn bộ gợi ý của user)
      */
     @Transactional(readOnly = true)
     public RecommendationMetrics getMetrics(Long userId) {
-        List<AIRecommendation> all = recommendationRepository
-                .findByUserIdOrderByCreatedAtDesc(userId);
+        FunnelSummary summary = recommendationRepository.summarizeFunnel(userId);
 
-        if (all.isEmpty()) {
+        if (summary == null || summary.getTotal() == 0) {
             return RecommendationMetrics.empty();
         }
 
-        long total = all.size();
-        long shown = all.stream().filter(AIRecommendation::isShown).count();
-        long accepted = all.stream()
-                .filter(r -> r.getIsAccepted() != null && r.getIsAccepted())
-                .count();
-        long completed = all.stream().filter(AIRecommendation::isCompleted).count();
-        long ignored = all.stream()
-                .filter(r -> r.isShown() && (r.getIsAccepted() == null || !r.getIsAccepted()))
-                .count();
+        long shown = summary.getShown();
+        long accepted = summary.getAccepted();
+        long completed = summary.getCompleted();
 
         // Calculate rates based on shown (not total)
         double acceptanceRate = shown > 0 ? (double) accepted / shown * 100 : 0;
         double completionRate = accepted > 0 ? (double) completed / accepted * 100 : 0;
 
         return RecommendationMetrics.builder()
-                .totalRecommendations(total)
+                .totalRecommendations(summary.getTotal())
                 .shownCount(shown)
                 .acceptedCount(accepted)
                 .completedCount(completed)
-                .ignoredCount(ignored)
+                .ignoredCount(summary.getIgnored())
                 .acceptanceRate(acceptanceRate)
                 .completionRate(completionRate)
                 .build();
@@ -132,17 +145,27 @@ public class RecommendationTrackingService {
 
     /**
      * Clean up expired recommendations
+     *
+     * Chỉ xóa gợi ý đã hết hạn quá expiredRetentionHours (rollup funnel đã đếm xong), theo từng lô
+     * cleanupBatchSize row - mỗi lô 1 câu DELETE / 1 transaction ngắn.
+     *
+     * @return Số recommendation đã xóa
      */
-    @Transactional
-    public void cleanupExpired() {
-        LocalDateTime now = LocalDateTime.now();
-        List<AIRecommendation> expired = recommendationRepository
-                .findByExpiresAtBeforeAndIsCompletedFalse(now);
-
-        if (!expired.isEmpty()) {
-            recommendationRepository.deleteAll(expired);
-            log.info("🗑️ Cleaned up {} expired recommendations", expired.size());
+    public int cleanupExpired() {
+        LocalDateTime before = LocalDateTime.now().minusHours(analyticsProperties.getExpiredRetentionHours());
+        int batchSize = analyticsProperties.getCleanupBatchSize();
+
+        int total = 0;
+        int deleted;
+        do {
+            deleted = recommendationRepository.deleteExpiredBatch(before, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+
+        if (total > 0) {
+            log.info("🗑️ Cleaned up {} expired recommendations", total);
         }
+        return total;
     }
 
     // =========================================================================
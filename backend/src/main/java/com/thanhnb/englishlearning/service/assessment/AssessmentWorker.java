@@ -0,0 +1,294 @@
+package com.thanhnb.englishlearning.service.assessment;
+
+import com.thanhnb.englishlearning.config.AssessmentProperties;
+import com.thanhnb.englishlearning.dto.question.request.CreateOpenEndedDTO;
+import com.thanhnb.englishlearning.dto.question.request.QuestionData;
+import com.thanhnb.englishlearning.entity.assessment.OpenEndedAssessment;
+import com.thanhnb.englishlearning.entity.question.Question;
+import com.thanhnb.englishlearning.enums.AssessmentStatus;
+import com.thanhnb.englishlearning.repository.assessment.OpenEndedAssessmentRepository;
+import com.thanhnb.englishlearning.repository.question.QuestionRepository;
+import com.thanhnb.englishlearning.service.assessment.provider.WritingAssessmentProvider;
+import com.thanhnb.englishlearning.service.assessment.provider.WritingAssessmentProvider.AssessmentItem;
+import com.thanhnb.englishlearning.service.assessment.provider.WritingAssessmentProvider.AssessmentVerdict;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * ✅ Worker chấm OPEN_ENDED theo batch
+ *
+ * Mỗi lượt quét:
+ * 1. Claim tối đa claimSize row (FOR UPDATE SKIP LOCKED → an toàn khi chạy nhiều node)
+ * 2. Đóng gói thành các batch theo ngân sách token ước lượng (~4 ký tự / token)
+ * 3. Mỗi batch = 1 lần gọi provider, chạy song song trên workerThreads thread
+ * 4. Kết quả → write-back; bài thiếu kết quả / provider lỗi → retry với backoff
+ */
+@Service
+@Slf4j
+public class AssessmentWorker {
+
+    private static final int PROMPT_OVERHEAD_TOKENS = 400;
+    private static final int ITEM_OVERHEAD_TOKENS = 40;
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final OpenEndedAssessmentRepository assessmentRepository;
+    private final QuestionRepository questionRepository;
+    private final OpenEndedAssessmentService assessmentService;
+    private final AssessmentProperties properties;
+    private final WritingAssessmentProvider provider;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService poller;
+    private final ExecutorService workers;
+
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final DistributionSummary batchSizeSummary;
+    private final Timer providerTimer;
+    private final Timer assessmentLatency;
+    private final Counter assessedCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    public AssessmentWorker(OpenEndedAssessmentRepository assessmentRepository,
+            QuestionRepository questionRepository,
+            OpenEndedAssessmentService assessmentService,
+            AssessmentProperties properties,
+            List<WritingAssessmentProvider> providers,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.assessmentRepository = assessmentRepository;
+        this.questionRepository = questionRepository;
+        this.assessmentService = assessmentService;
+        this.properties = properties;
+        this.provider = providers.stream()
+                .filter(p -> p.getName().equalsIgnoreCase(properties.getProvider()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(
+                        "Unknown app.assessment.provider: " + properties.getProvider()));
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "assessment-poller");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(properties.getWorkerThreads(), r -> {
+            Thread t = new Thread(r, "assessment-worker-" + threadCounter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        Gauge.builder("assessment.queue.depth", queueDepth, AtomicLong::get).register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("assessment.batch.size").register(meterRegistry);
+        this.providerTimer = Timer.builder("assessment.provider.call")
+                .tag("provider", provider.getName()).register(meterRegistry);
+        this.assessmentLatency = Timer.builder("assessment.latency")
+                .description("Thời gian từ lúc nộp bài đến lúc có điểm").register(meterRegistry);
+        this.assessedCounter = meterRegistry.counter("assessment.completed");
+        this.retriedCounter = meterRegistry.counter("assessment.retried");
+        this.failedCounter = meterRegistry.counter("assessment.failed");
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isWorkerEnabled()) {
+            log.info("⏸️ Assessment worker disabled (app.assessment.worker-enabled=false)");
+            return;
+        }
+        log.info("✅ Assessment worker started with provider '{}'", provider.getName());
+        poller.scheduleWithFixedDelay(this::pollSafely,
+                properties.getPollIntervalMs(), properties.getPollIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        poller.shutdownNow();
+        workers.shutdown();
+    }
+
+    private void pollSafely() {
+        try {
+            queueDepth.set(assessmentRepository.countByStatus(AssessmentStatus.PENDING));
+            int processed;
+            do {
+                processed = processOnce();
+            } while (processed == properties.getClaimSize());
+        } catch (Exception e) {
+            log.error("❌ Assessment poll failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return số bài đã claim trong lượt này
+     */
+    public int processOnce() {
+        List<OpenEndedAssessment> claimed = claim();
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Question> questions = questionRepository
+                .findAllById(claimed.stream().map(OpenEndedAssessment::getQuestionId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Question::getId, Function.identity()));
+
+        List<AssessmentItem> items = new ArrayList<>();
+        for (OpenEndedAssessment a : claimed) {
+            Question question = questions.get(a.getQuestionId());
+            if (question == null) {
+                retry(a.getId(), "Question " + a.getQuestionId() + " no longer exists");
+                continue;
+            }
+            try {
+                items.add(toItem(a, question));
+            } catch (Exception e) {
+                retry(a.getId(), e.getMessage());
+            }
+        }
+
+        List<CompletableFuture<Void>> futures = pack(items).stream()
+                .map(batch -> CompletableFuture.runAsync(() -> assessBatch(batch, claimed), workers))
+                .toList();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        return claimed.size();
+    }
+
+    private List<OpenEndedAssessment> claim() {
+        List<OpenEndedAssessment> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = assessmentRepository.lockReadyIds(now, properties.getClaimSize());
+            if (ids.isEmpty()) {
+                return Collections.<OpenEndedAssessment>emptyList();
+            }
+            assessmentRepository.markClaimed(ids, AssessmentStatus.PROCESSING,
+                    now.plusSeconds(properties.getLockSeconds()));
+            return assessmentRepository.findAllById(ids);
+        });
+        return claimed != null ? claimed : Collections.emptyList();
+    }
+
+    /**
+     * Đóng gói theo ngân sách token. Bài quá lớn vẫn được gửi riêng 1 batch.
+     */
+    List<List<AssessmentItem>> pack(List<AssessmentItem> items) {
+        List<List<AssessmentItem>> batches = new ArrayList<>();
+        List<AssessmentItem> current = new ArrayList<>();
+        int tokens = PROMPT_OVERHEAD_TOKENS;
+
+        for (AssessmentItem item : items) {
+            int itemTokens = estimateTokens(item);
+            boolean full = current.size() >= properties.getMaxBatchSize()
+                    || tokens + itemTokens > properties.getBatchTokenBudget();
+            if (!current.isEmpty() && full) {
+                batches.add(current);
+                current = new ArrayList<>();
+                tokens = PROMPT_OVERHEAD_TOKENS;
+            }
+            current.add(item);
+            tokens += itemTokens;
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    private int estimateTokens(AssessmentItem item) {
+        int chars = length(item.questionText()) + length(item.suggestedAnswer()) + length(item.answerText());
+        return ITEM_OVERHEAD_TOKENS + chars / CHARS_PER_TOKEN;
+    }
+
+    private void assessBatch(List<AssessmentItem> batch, List<OpenEndedAssessment> claimed) {
+        batchSizeSummary.record(batch.size());
+        Map<Long, LocalDateTime> createdAt = claimed.stream()
+                .collect(Collectors.toMap(OpenEndedAssessment::getId, OpenEndedAssessment::getCreatedAt));
+
+        List<AssessmentVerdict> verdicts;
+        try {
+            verdicts = providerTimer.recordCallable(() -> provider.assess(batch));
+        } catch (Exception e) {
+            log.warn("⚠️ Assessment provider '{}' failed for batch of {}: {}",
+                    provider.getName(), batch.size(), e.getMessage());
+            batch.forEach(item -> retry(item.assessmentId(), e.getMessage()));
+            return;
+        }
+
+        Set<Long> done = new HashSet<>();
+        for (AssessmentVerdict verdict : verdicts) {
+            try {
+                if (assessmentService.applyVerdict(verdict.assessmentId(), verdict.score(),
+                        verdict.feedback(), provider.getName())) {
+                    assessedCounter.increment();
+                    LocalDateTime created = createdAt.get(verdict.assessmentId());
+                    if (created != null) {
+                        assessmentLatency.record(Duration.between(created, LocalDateTime.now()));
+                    }
+                }
+                done.add(verdict.assessmentId());
+            } catch (Exception e) {
+                log.error("❌ Failed to write back assessment {}: {}", verdict.assessmentId(), e.getMessage());
+            }
+        }
+
+        batch.stream()
+                .filter(item -> !done.contains(item.assessmentId()))
+                .forEach(item -> retry(item.assessmentId(), "No result from provider"));
+    }
+
+    private void retry(Long assessmentId, String error) {
+        try {
+            if (assessmentService.markRetry(assessmentId, error)) {
+                failedCounter.increment();
+                log.warn("⚠️ Assessment {} failed permanently, waiting for teacher: {}", assessmentId, error);
+            } else {
+                retriedCounter.increment();
+            }
+        } catch (Exception e) {
+            log.error("❌ Failed to reschedule assessment {}: {}", assessmentId, e.getMessage());
+        }
+    }
+
+    private AssessmentItem toItem(OpenEndedAssessment a, Question question) {
+        QuestionData data = question.getData();
+        CreateOpenEndedDTO openEnded = data instanceof CreateOpenEndedDTO dto ? dto : null;
+        return new AssessmentItem(
+                a.getId(),
+                question.getQuestionText(),
+                openEnded != null ? openEnded.getSuggestedAnswer() : null,
+                openEnded != null ? openEnded.getMinWord() : null,
+                openEnded != null ? openEnded.getMaxWord() : null,
+                a.getMaxPoints(),
+                a.getAnswerText());
+    }
+
+    private static int length(String s) {
+        return s != null ? s.length() : 0;
+    }
+}
@@ -0,0 +1,235 @@
+package com.thanhnb.englishlearning.service.assessment;
+
+import com.thanhnb.englishlearning.config.AssessmentProperties;
+import com.thanhnb.englishlearning.dto.PaginatedResponse;
+import com.thanhnb.englishlearning.dto.assessment.AssessmentDTO;
+import com.thanhnb.englishlearning.entity.assessment.OpenEndedAssessment;
+import com.thanhnb.englishlearning.enums.AssessmentStatus;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.event.AnswersGradedEvent;
+import com.thanhnb.englishlearning.exception.ResourceNotFoundException;
+import com.thanhnb.englishlearning.repository.assessment.OpenEndedAssessmentRepository;
+import com.thanhnb.englishlearning.repository.attempt.AnswerAttemptRepository;
+import com.thanhnb.englishlearning.repository.grammar.UserGrammarProgressRepository;
+import com.thanhnb.englishlearning.repository.listening.UserListeningProgressRepository;
+import com.thanhnb.englishlearning.repository.reading.UserReadingProgressRepository;
+import com.thanhnb.englishlearning.repository.user.UserStatsRepository;
+import com.thanhnb.englishlearning.service.catalog.CatalogVersionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ✅ Hàng đợi chấm OPEN_ENDED
+ *
+ * - Enqueue: BEFORE_COMMIT của transaction submit → không mất bài nếu app restart
+ * - Write-back: điểm câu → answer_attempts, cộng điểm user_stats (theo chênh lệch),
+ *   nâng score_percentage của progress nếu lần nộp đó giờ cao hơn
+ * - Giáo viên chấm lại (override) dùng cùng đường write-back, worker không ghi đè nữa
+ * - Progress giữ điểm tốt nhất (raiseScore): chấm lại thấp hơn chỉ trừ điểm user_stats + sửa attempt log,
+ *   không hạ score_percentage / không thu hồi hoàn thành (lần nộp khác có thể đạt điểm đó, không lưu điểm từng lần)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OpenEndedAssessmentService {
+
+    /**
+     * Chờ answer_attempts của submission được flush trước khi chấm
+     */
+    private static final long INITIAL_DELAY_SECONDS = 5;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final OpenEndedAssessmentRepository assessmentRepository;
+    private final AnswerAttemptRepository answerAttemptRepository;
+    private final UserStatsRepository statsRepository;
+    private final UserGrammarProgressRepository grammarProgressRepository;
+    private final UserReadingProgressRepository readingProgressRepository;
+    private final UserListeningProgressRepository listeningProgressRepository;
+    private final AssessmentProperties properties;
+    private final CatalogVersionService catalogVersionService;
+
+    // ==================== ENQUEUE ====================
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void enqueue(AnswersGradedEvent event) {
+        LocalDateTime readyAt = event.getGradedAt().plusSeconds(INITIAL_DELAY_SECONDS);
+
+        List<OpenEndedAssessment> pending = event.getAnswers().stream()
+                .filter(AnswersGradedEvent.GradedAnswer::needsManualGrading)
+                .map(a -> OpenEndedAssessment.builder()
+                        .submissionId(event.getSubmissionId())
+                        .userId(event.getUserId())
+                        .module(event.getModule())
+                        .lessonId(event.getLessonId())
+                        .questionId(a.questionId())
+                        .answerText(a.textAnswer())
+                        .maxPoints(a.maxPoints())
+                        .baseScorePercentage(event.getScorePercentage())
+                        .lessonMaxScore(event.getMaxScore())
+                        .createdAt(event.getGradedAt())
+                        .nextAttemptAt(readyAt)
+                        .build())
+                .toList();
+
+        if (!pending.isEmpty()) {
+            assessmentRepository.saveAll(pending);
+            log.debug("📝 Queued {} open-ended answers of user {} for assessment", pending.size(), event.getUserId());
+        }
+    }
+
+    // ==================== WRITE-BACK ====================
+
+    /**
+     * Ghi kết quả chấm tự động. Bỏ qua nếu giáo viên đã chấm lại trong lúc provider đang chạy.
+     *
+     * @return true nếu kết quả được áp dụng
+     */
+    @Transactional
+    public boolean applyVerdict(Long assessmentId, int score, String feedback, String assessedBy) {
+        OpenEndedAssessment assessment = assessmentRepository.findById(assessmentId).orElse(null);
+        if (assessment == null || assessment.getStatus() == AssessmentStatus.OVERRIDDEN) {
+            return false;
+        }
+        writeBack(assessment, score, feedback, assessedBy, AssessmentStatus.ASSESSED);
+        return true;
+    }
+
+    /**
+     * Giáo viên chấm lại - luôn thắng kết quả tự động
+     *
+     * Điểm thấp hơn: user_stats bị trừ phần chênh lệch, progress giữ nguyên (chỉ tăng - xem class doc)
+     */
+    @Transactional
+    public AssessmentDTO override(Long assessmentId, int score, String feedback, Long teacherId) {
+        OpenEndedAssessment assessment = assessmentRepository.findById(assessmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy bài chấm với id: " + assessmentId));
+
+        if (score > assessment.getMaxPoints()) {
+            throw new IllegalArgumentException(
+                    String.format("Điểm tối đa của câu này là %d", assessment.getMaxPoints()));
+        }
+
+        writeBack(assessment, score, feedback, "teacher:" + teacherId, AssessmentStatus.OVERRIDDEN);
+        log.info("👩‍🏫 Teacher {} overrode assessment {} → {}/{}", teacherId, assessmentId,
+                score, assessment.getMaxPoints());
+        return toDto(assessment);
+    }
+
+    /**
+     * Provider lỗi → thử lại với backoff; hết lượt → FAILED chờ giáo viên
+     *
+     * @return true nếu chuyển sang FAILED
+     */
+    @Transactional
+    public boolean markRetry(Long assessmentId, String error) {
+        OpenEndedAssessment assessment = assessmentRepository.findById(assessmentId).orElse(null);
+        if (assessment == null || assessment.getStatus() != AssessmentStatus.PROCESSING) {
+            return false;
+        }
+
+        assessment.setLockedUntil(null);
+        assessment.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+
+        if (assessment.getAttempts() >= properties.getMaxAttempts()) {
+            assessment.setStatus(AssessmentStatus.FAILED);
+            return true;
+        }
+
+        long backoff = properties.getRetryBackoffSeconds() * (1L << Math.min(10, assessment.getAttempts() - 1));
+        assessment.setStatus(AssessmentStatus.PENDING);
+        assessment.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoff));
+        return false;
+    }
+
+    private void writeBack(OpenEndedAssessment assessment, int score, String feedback,
+            String assessedBy, AssessmentStatus status) {
+        int previous = assessment.getAwardedPoints() != null ? assessment.getAwardedPoints() : 0;
+
+        assessment.setAwardedPoints(score);
+        assessment.setFeedback(feedback);
+        assessment.setAssessedBy(assessedBy);
+        assessment.setStatus(status);
+        assessment.setAssessedAt(LocalDateTime.now());
+        assessment.setLockedUntil(null);
+        assessment.setLastError(null);
+        assessmentRepository.saveAndFlush(assessment);
+
+        // 1. Attempt log
+        boolean correct = score >= assessment.getMaxPoints() * properties.getPassRatio();
+        int updated = answerAttemptRepository.applyAssessment(
+                assessment.getSubmissionId(), assessment.getQuestionId(), score, correct);
+        if (updated == 0) {
+            log.debug("Attempt row of assessment {} not found (not flushed yet or disabled)", assessment.getId());
+        }
+
+        // 2. Stats: cộng phần chênh lệch (override có thể tăng hoặc giảm)
+        int delta = score - previous;
+        if (delta != 0) {
+            statsRepository.bulkAddPoints(List.of(assessment.getUserId()), delta);
+        }
+
+        // 3. Progress: điểm lần nộp = điểm phần tự chấm + tổng điểm OPEN_ENDED đã chấm
+        if (assessment.getLessonMaxScore() > 0) {
+            int openEndedPoints = assessmentRepository.sumAwardedPoints(assessment.getSubmissionId());
+            double submissionScore = Math.min(100.0, Math.round(assessment.getBaseScorePercentage()
+                    + openEndedPoints * 100.0 / assessment.getLessonMaxScore()));
+            raiseProgressScore(assessment.getModule(), assessment.getUserId(), assessment.getLessonId(), submissionScore);
+        }
+    }
+
+    /**
+     * Chỉ tăng: progress lưu điểm tốt nhất của mọi lần nộp, không biết điểm từng lần để hạ xuống đúng mức
+     */
+    private void raiseProgressScore(ModuleType module, Long userId, Long lessonId, double score) {
+        switch (module) {
+            case GRAMMAR -> grammarProgressRepository.raiseScore(userId, lessonId, score);
+            case READING -> readingProgressRepository.raiseScore(userId, lessonId, score);
+            case LISTENING -> listeningProgressRepository.raiseScore(userId, lessonId, score);
+        }
+        // Bulk UPDATE bỏ qua entity listener → ETag lesson list / detail của user
+        catalogVersionService.bumpUser(userId);
+    }
+
+    // ==================== QUERIES ====================
+
+    @Transactional(readOnly = true)
+    public PaginatedResponse<AssessmentDTO> getByStatus(AssessmentStatus status, int page, int size) {
+        int safeSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return PaginatedResponse.of(assessmentRepository
+                .findByStatusOrderByCreatedAtAsc(status, PageRequest.of(Math.max(0, page - 1), safeSize))
+                .map(this::toDto));
+    }
+
+    @Transactional(readOnly = true)
+    public List<AssessmentDTO> getForLesson(Long userId, ModuleType module, Long lessonId) {
+        return assessmentRepository.findByUserIdAndModuleAndLessonIdOrderByCreatedAtDesc(userId, module, lessonId)
+                .stream().map(this::toDto).toList();
+    }
+
+    private AssessmentDTO toDto(OpenEndedAssessment a) {
+        return AssessmentDTO.builder()
+                .id(a.getId())
+                .userId(a.getUserId())
+                .module(a.getModule())
+                .lessonId(a.getLessonId())
+                .questionId(a.getQuestionId())
+                .answerText(a.getAnswerText())
+                .maxPoints(a.getMaxPoints())
+                .status(a.getStatus())
+                .awardedPoints(a.getAwardedPoints())
+                .feedback(a.getFeedback())
+                .assessedBy(a.getAssessedBy())
+                .attempts(a.getAttempts())
+                .createdAt(a.getCreatedAt())
+                .assessedAt(a.getAssessedAt())
+                .build();
+    }
+}
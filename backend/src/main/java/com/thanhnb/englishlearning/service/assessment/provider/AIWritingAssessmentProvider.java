@@ -0,0 +1,98 @@
+package com.thanhnb.englishlearning.service.assessment.provider;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thanhnb.englishlearning.service.ai.provider.AIServiceRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * ✅ Chấm bài viết bằng LLM (provider theo ai.provider.writing-assessment, fallback qua router)
+ * Nhiều bài được gửi trong 1 prompt, kết quả trả về dạng JSON theo id.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AIWritingAssessmentProvider implements WritingAssessmentProvider {
+
+    private final AIServiceRouter aiServiceRouter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String getName() {
+        return "ai";
+    }
+
+    @Override
+    public List<AssessmentVerdict> assess(List<AssessmentItem> items) throws Exception {
+        String response = aiServiceRouter.generateForWritingAssessment(buildPrompt(items));
+        return parseVerdicts(response, items);
+    }
+
+    private String buildPrompt(List<AssessmentItem> items) throws Exception {
+        List<Map<String, Object>> payload = new ArrayList<>();
+        for (AssessmentItem item : items) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", item.assessmentId());
+            entry.put("question", item.questionText());
+            if (item.suggestedAnswer() != null && !item.suggestedAnswer().isBlank()) {
+                entry.put("referenceAnswer", item.suggestedAnswer());
+            }
+            if (item.minWord() != null) {
+                entry.put("minWords", item.minWord());
+            }
+            if (item.maxWord() != null) {
+                entry.put("maxWords", item.maxWord());
+            }
+            entry.put("maxPoints", item.maxPoints());
+            entry.put("answer", item.answerText());
+            payload.add(entry);
+        }
+
+        return """
+                You are an English teacher grading short written answers of Vietnamese learners.
+                For EACH item below, grade the "answer" against the "question" (and "referenceAnswer" if given)
+                for task relevance, grammar, vocabulary and coherence.
+                Give an integer score from 0 to that item's maxPoints and one or two sentences of feedback in Vietnamese.
+
+                Return JSON only, exactly in this shape:
+                {"results": [{"id": <item id>, "score": <integer>, "feedback": "<text>"}]}
+
+                Items:
+                """ + objectMapper.writeValueAsString(payload);
+    }
+
+    private List<AssessmentVerdict> parseVerdicts(String response, List<AssessmentItem> items) throws Exception {
+        Map<Long, AssessmentItem> byId = items.stream()
+                .collect(Collectors.toMap(AssessmentItem::assessmentId, i -> i));
+
+        JsonNode results = objectMapper.readTree(response).path("results");
+        if (!results.isArray()) {
+            throw new IllegalStateException("Assessment response has no results array");
+        }
+
+        List<AssessmentVerdict> verdicts = new ArrayList<>();
+        for (JsonNode node : results) {
+            AssessmentItem item = byId.get(node.path("id").asLong(-1));
+            if (item == null || !node.has("score")) {
+                continue;
+            }
+            int score = Math.max(0, Math.min(item.maxPoints(), node.path("score").asInt()));
+            verdicts.add(new AssessmentVerdict(item.assessmentId(), score, node.path("feedback").asText("")));
+        }
+
+        Set<Long> answered = verdicts.stream().map(AssessmentVerdict::assessmentId).collect(Collectors.toSet());
+        if (answered.size() < items.size()) {
+            log.warn("⚠️ AI assessment returned {}/{} results", answered.size(), items.size());
+        }
+        return verdicts;
+    }
+}
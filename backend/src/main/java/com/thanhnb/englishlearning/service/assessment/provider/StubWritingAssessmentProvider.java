@@ -0,0 +1,42 @@
+package com.thanhnb.englishlearning.service.assessment.provider;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * ✅ Provider chấm giả lập - không gọi mạng, kết quả tất định
+ * Dùng cho dev / test (app.assessment.provider=stub)
+ *
+ * Điểm = maxPoints * min(1, số từ / số từ mục tiêu)
+ */
+@Component
+public class StubWritingAssessmentProvider implements WritingAssessmentProvider {
+
+    private static final int DEFAULT_TARGET_WORDS = 50;
+
+    @Override
+    public String getName() {
+        return "stub";
+    }
+
+    @Override
+    public List<AssessmentVerdict> assess(List<AssessmentItem> items) {
+        return items.stream().map(this::assessOne).toList();
+    }
+
+    private AssessmentVerdict assessOne(AssessmentItem item) {
+        int words = item.answerText() == null || item.answerText().isBlank()
+                ? 0
+                : item.answerText().trim().split("\\s+").length;
+
+        int target = item.minWord() != null ? item.minWord()
+                : item.maxWord() != null ? item.maxWord() / 2
+                : DEFAULT_TARGET_WORDS;
+        double ratio = Math.min(1.0, (double) words / Math.max(1, target));
+        int score = (int) Math.round(item.maxPoints() * ratio);
+
+        return new AssessmentVerdict(item.assessmentId(), score,
+                String.format("Chấm tự động (stub): %d từ, %d/%d điểm", words, score, item.maxPoints()));
+    }
+}
@@ -0,0 +1,32 @@
+package com.thanhnb.englishlearning.service.assessment.provider;
+
+import java.util.List;
+
+/**
+ * Provider chấm bài viết OPEN_ENDED theo batch
+ */
+public interface WritingAssessmentProvider {
+
+    /**
+     * Tên provider (giá trị của app.assessment.provider, ghi vào assessed_by)
+     */
+    String getName();
+
+    /**
+     * Chấm nhiều bài trong 1 lần gọi. Bài nào không có trong kết quả sẽ được thử lại.
+     */
+    List<AssessmentVerdict> assess(List<AssessmentItem> items) throws Exception;
+
+    record AssessmentItem(
+            Long assessmentId,
+            String questionText,
+            String suggestedAnswer,
+            Integer minWord,
+            Integer maxWord,
+            int maxPoints,
+            String answerText) {
+    }
+
+    record AssessmentVerdict(Long assessmentId, int score, String feedback) {
+    }
+}
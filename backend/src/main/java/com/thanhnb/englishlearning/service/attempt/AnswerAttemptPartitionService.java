@@ -0,0 +1,136 @@
+package com.thanhnb.englishlearning.service.attempt;
+
+import com.thanhnb.englishlearning.config.AnswerAttemptProperties;
+import com.thanhnb.englishlearning.repository.attempt.AnswerAttemptRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ✅ Quản lý partition tháng của answer_attempts
+ * - Tạo partition trước khi ghi (writer gọi ensurePartitions cho mỗi batch)
+ * - DEFAULT đã có row của tháng (lần tạo trước lỗi) → chuyển các row đó sang partition mới rồi ATTACH
+ * - Tạo lỗi → log error + tạm dừng thử lại tháng đó RETRY_AFTER (không chạy DDL mỗi batch)
+ * - Job "answer-attempt-maintenance": tạo trước partition tháng tới,
+ *   rollup theo ngày + DROP partition quá hạn giữ chi tiết; row quá hạn trong DEFAULT cũng được rollup + xóa
+ */
+@Service
+@Slf4j
+public class AnswerAttemptPartitionService {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("answer_attempts_y(\\d{4})m(\\d{2})");
+    private static final int MONTHS_AHEAD = 2;
+    private static final Duration RETRY_AFTER = Duration.ofMinutes(5);
+
+    private final AnswerAttemptRepository attemptRepository;
+    private final AnswerAttemptProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<YearMonth> knownPartitions = ConcurrentHashMap.newKeySet();
+    private final Map<YearMonth, Instant> failedUntil = new ConcurrentHashMap<>();
+
+    public AnswerAttemptPartitionService(AnswerAttemptRepository attemptRepository,
+            AnswerAttemptProperties properties,
+            PlatformTransactionManager transactionManager) {
+        this.attemptRepository = attemptRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public static String partitionName(YearMonth month) {
+        return String.format("answer_attempts_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+
+    public void ensurePartitions(Collection<YearMonth> months) {
+        for (YearMonth month : months) {
+            if (knownPartitions.contains(month)) {
+                continue;
+            }
+            Instant retryAt = failedUntil.get(month);
+            if (retryAt != null && Instant.now().isBefore(retryAt)) {
+                continue;
+            }
+            try {
+                createPartition(month);
+                knownPartitions.add(month);
+                failedUntil.remove(month);
+            } catch (Exception e) {
+                // Node khác vừa tạo cùng lúc → kiểm tra lại
+                if (attemptRepository.findMonthlyPartitions().contains(partitionName(month))) {
+                    knownPartitions.add(month);
+                    failedUntil.remove(month);
+                } else {
+                    failedUntil.put(month, Instant.now().plus(RETRY_AFTER));
+                    log.error("❌ Could not create attempt partition {} (rows go to DEFAULT, retry in {}): {}",
+                            partitionName(month), RETRY_AFTER, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        if (!attemptRepository.hasDefaultRows(from, to)) {
+            attemptRepository.createMonthlyPartition(name, from, to);
+            return;
+        }
+        // CREATE ... PARTITION OF sẽ lỗi mãi khi DEFAULT giữ row của tháng → chuyển row sang rồi ATTACH
+        Integer moved = transactionTemplate.execute(status ->
+                attemptRepository.createMonthlyPartitionFromDefault(name, from, to));
+        log.warn("⚠️ Created attempt partition {} by moving {} rows out of DEFAULT", name, moved);
+    }
+
+    /**
+     * @return số partition đã rollup + drop
+     */
+    public int runMaintenance() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= MONTHS_AHEAD; i++) {
+            ensurePartitions(Set.of(current.plusMonths(i)));
+        }
+
+        YearMonth oldestKept = current.minusMonths(properties.getRetentionMonths());
+        int dropped = 0;
+
+        for (String name : attemptRepository.findMonthlyPartitions()) {
+            Matcher m = PARTITION_NAME.matcher(name);
+            if (!m.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)));
+            if (!month.isBefore(oldestKept)) {
+                continue;
+            }
+
+            Integer rolledUp = transactionTemplate.execute(status -> {
+                int rows = attemptRepository.rollupPartition(name);
+                attemptRepository.dropPartition(name);
+                return rows;
+            });
+            knownPartitions.remove(month);
+            dropped++;
+            log.info("📦 Rolled up attempt partition {} into {} daily rows and dropped it", name, rolledUp);
+        }
+
+        // Row quá hạn còn trong DEFAULT (tháng từng thiếu partition) theo cùng retention
+        Integer defaultRolledUp = transactionTemplate.execute(status ->
+                attemptRepository.rollupAndDeleteDefaultBefore(oldestKept.atDay(1)));
+        if (defaultRolledUp != null && defaultRolledUp > 0) {
+            log.info("📦 Rolled up expired DEFAULT attempt rows into {} daily rows", defaultRolledUp);
+        }
+        return dropped;
+    }
+}
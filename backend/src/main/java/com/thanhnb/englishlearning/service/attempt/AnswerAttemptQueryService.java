@@ -0,0 +1,52 @@
+package com.thanhnb.englishlearning.service.attempt;
+
+import com.thanhnb.englishlearning.dto.attempt.AnswerAttemptDTO;
+import com.thanhnb.englishlearning.repository.attempt.AnswerAttemptRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Đọc lịch sử câu trả lời (projection trên answer_attempts)
+ */
+@Service
+@RequiredArgsConstructor
+public class AnswerAttemptQueryService {
+
+    private static final int MAX_PER_TYPE = 20;
+    private static final int MAX_DAYS = 180;
+    private static final int MAX_RECENT = 200;
+
+    private final AnswerAttemptRepository attemptRepository;
+
+    /**
+     * N câu sai gần nhất theo từng loại câu hỏi, nhóm theo question_type
+     */
+    public Map<String, List<AnswerAttemptDTO>> getRecentMistakesPerType(Long userId, int perType, int days) {
+        List<AnswerAttemptDTO> rows = attemptRepository.findRecentWrongPerType(
+                userId, since(days), clamp(perType, MAX_PER_TYPE));
+        return rows.stream().collect(Collectors.groupingBy(
+                a -> a.getQuestionType().name(), LinkedHashMap::new, Collectors.toList()));
+    }
+
+    public Map<String, Integer> countRecentMistakesByType(Long userId, int days) {
+        return attemptRepository.countWrongByType(userId, since(days));
+    }
+
+    public List<AnswerAttemptDTO> getRecentAttempts(Long userId, int limit) {
+        return attemptRepository.findRecentByUser(userId, clamp(limit, MAX_RECENT));
+    }
+
+    private LocalDateTime since(int days) {
+        return LocalDateTime.now().minusDays(clamp(days, MAX_DAYS));
+    }
+
+    private int clamp(int value, int max) {
+        return Math.max(1, Math.min(value, max));
+    }
+}
@@ -0,0 +1,162 @@
+package com.thanhnb.englishlearning.service.attempt;
+
+import com.thanhnb.englishlearning.config.AnswerAttemptProperties;
+import com.thanhnb.englishlearning.event.AnswersGradedEvent;
+import com.thanhnb.englishlearning.repository.attempt.AnswerAttemptRepository;
+import com.thanhnb.englishlearning.repository.attempt.AnswerAttemptRepository.NewAttempt;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ✅ Ghi answer attempts bất đồng bộ theo batch
+ *
+ * - Submit commit → attempts được đưa vào queue trong bộ nhớ (không I/O, không chặn)
+ * - 1 thread flush định kỳ: drain tối đa batchSize row → 1 JDBC batch insert
+ * - Queue đầy → bỏ attempt, tăng metric attempts.dropped (lịch sử là best-effort,
+ *   progress/điểm vẫn được lưu trong transaction submit)
+ */
+@Service
+@Slf4j
+public class AnswerAttemptWriter {
+
+    private final AnswerAttemptRepository attemptRepository;
+    private final AnswerAttemptPartitionService partitionService;
+    private final AnswerAttemptProperties properties;
+    private final BlockingQueue<NewAttempt> queue;
+    private final ScheduledExecutorService flusher;
+
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+
+    public AnswerAttemptWriter(AnswerAttemptRepository attemptRepository,
+            AnswerAttemptPartitionService partitionService,
+            AnswerAttemptProperties properties,
+            MeterRegistry meterRegistry) {
+        this.attemptRepository = attemptRepository;
+        this.partitionService = partitionService;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "attempt-writer");
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.writtenCounter = meterRegistry.counter("attempts.written");
+        this.droppedCounter = meterRegistry.counter("attempts.dropped");
+        this.failedCounter = meterRegistry.counter("attempts.failed");
+        this.flushTimer = meterRegistry.timer("attempts.flush");
+        Gauge.builder("attempts.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flushSafely,
+                properties.getFlushIntervalMs(), properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushSafely(); // Ghi nốt phần còn lại trước khi tắt
+    }
+
+    /**
+     * Chỉ nhận attempts của submission đã commit
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleAnswersGraded(AnswersGradedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int dropped = 0;
+        for (AnswersGradedEvent.GradedAnswer answer : event.getAnswers()) {
+            NewAttempt attempt = new NewAttempt(
+                    event.getSubmissionId(),
+                    event.getUserId(),
+                    event.getModule(),
+                    event.getLessonId(),
+                    answer.questionId(),
+                    answer.questionType(),
+                    truncate(answer.textAnswer()),
+                    answer.selectedOptions(),
+                    answer.correct(),
+                    answer.points(),
+                    answer.needsManualGrading(),
+                    event.getGradedAt());
+            if (!queue.offer(attempt)) {
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            droppedCounter.increment(dropped);
+            log.warn("⚠️ Attempt queue full - dropped {} attempts of user {}", dropped, event.getUserId());
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            while (flushBatch() == properties.getBatchSize()) {
+                // Còn tồn → flush tiếp ngay, không chờ chu kỳ sau
+            }
+        } catch (Exception e) {
+            log.error("❌ Attempt flush failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private int flushBatch() {
+        List<NewAttempt> batch = new ArrayList<>(properties.getBatchSize());
+        queue.drainTo(batch, properties.getBatchSize());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Set<YearMonth> months = new LinkedHashSet<>();
+        batch.forEach(a -> months.add(YearMonth.from(a.attemptedAt())));
+
+        try {
+            flushTimer.record(() -> {
+                partitionService.ensurePartitions(months);
+                attemptRepository.batchInsert(batch);
+            });
+            writtenCounter.increment(batch.size());
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            log.error("❌ Failed to write {} attempts: {}", batch.size(), e.getMessage());
+        }
+        return batch.size();
+    }
+
+    private String truncate(String text) {
+        if (text == null || text.length() <= properties.getMaxAnswerLength()) {
+            return text;
+        }
+        return text.substring(0, properties.getMaxAnswerLength());
+    }
+}
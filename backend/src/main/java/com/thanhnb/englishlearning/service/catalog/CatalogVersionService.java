@@ -0,0 +1,239 @@
+package com.thanhnb.englishlearning.service.catalog;
+
+import com.thanhnb.englishlearning.config.CatalogCacheProperties;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.enums.ParentType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ✅ Content version cho catalog (topic / lesson) + version dữ liệu cá nhân của user
+ *
+ * Tất cả nằm trong 1 Redis hash (catalog:versions), tăng dần bằng HINCRBY sau khi transaction commit:
+ * - m:{MODULE}          → danh sách topic của module (mọi thay đổi topic/lesson trong module)
+ * - t:{topicId}         → danh sách lesson của topic
+ * - l:{MODULE}:{id}     → nội dung lesson (lesson, task group, question)
+ * - u:{userId}          → progress / level / phân công của user
+ * - epoch               → đặt 1 lần; Redis mất dữ liệu → epoch mới → mọi ETag cũ vô hiệu
+ *
+ * ETag = hash(epoch, các version liên quan, discriminator) → kiểm tra If-None-Match chỉ tốn 1 HMGET, không chạm DB.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogVersionService {
+
+    private static final String KEY = "catalog:versions";
+    private static final String EPOCH = "epoch";
+    private static final String PENDING_KEY = CatalogVersionService.class.getName() + ".pending";
+
+    private final StringRedisTemplate redisTemplate;
+    private final CatalogCacheProperties properties;
+
+    // ==================== FIELDS ====================
+
+    public static String moduleField(ModuleType module) {
+        return "m:" + module;
+    }
+
+    public static String topicField(Long topicId) {
+        return "t:" + topicId;
+    }
+
+    public static String lessonField(ModuleType module, Long lessonId) {
+        return "l:" + module + ":" + lessonId;
+    }
+
+    public static String userField(Long userId) {
+        return "u:" + userId;
+    }
+
+    public static ModuleType toModule(ParentType parentType) {
+        return switch (parentType) {
+            case GRAMMAR -> ModuleType.GRAMMAR;
+            case READING -> ModuleType.READING;
+            case LISTENING -> ModuleType.LISTENING;
+            default -> null;
+        };
+    }
+
+    // ==================== BUMP ====================
+
+    public void bumpModule(ModuleType module) {
+        bump(moduleField(module));
+    }
+
+    public void bumpTopic(ModuleType module, Long topicId) {
+        if (topicId != null) {
+            bump(topicField(topicId));
+        }
+        if (module != null) {
+            bump(moduleField(module));
+        }
+    }
+
+    /**
+     * Nội dung lesson đổi → lesson, topic chứa nó (nếu biết) và module
+     */
+    public void bumpLesson(ModuleType module, Long lessonId, Long topicId) {
+        if (lessonId != null) {
+            bump(lessonField(module, lessonId));
+        }
+        bumpTopic(module, topicId);
+    }
+
+    public void bumpUser(Long userId) {
+        if (userId != null) {
+            bump(userField(userId));
+        }
+    }
+
+    /**
+     * Gom field vào transaction hiện tại (HINCRBY sau commit), hoặc tăng ngay nếu không có transaction
+     */
+    private void bump(String field) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(Set.of(field));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending == null) {
+            Set<String> fields = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, fields);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(fields);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                }
+            });
+            pending = fields;
+        }
+        pending.add(field);
+    }
+
+    private void increment(Set<String> fields) {
+        if (fields.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection conn = (StringRedisConnection) connection;
+                for (String field : fields) {
+                    conn.hIncrBy(KEY, field, 1);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            // ETag / fragment tự hết hạn theo etagMaxAgeSeconds / fragmentTtlSeconds
+            log.warn("⚠️ Failed to bump catalog versions {}: {}", fields, e.getMessage());
+        }
+    }
+
+    // ==================== READ ====================
+
+    /**
+     * "{epoch}:{version}" của 1 field - dùng làm key cache fragment
+     *
+     * @return null nếu Redis lỗi / cache tắt
+     */
+    public String versionToken(String field) {
+        Snapshot snapshot = snapshot(field);
+        return snapshot != null ? snapshot.epoch() + ":" + snapshot.versions().get(0) : null;
+    }
+
+    /**
+     * "{epoch}:{v1},{v2}..." của nhiều field trong 1 HMGET - dùng làm key cache cho dữ liệu phụ thuộc nhiều field
+     *
+     * @return null nếu Redis lỗi / cache tắt
+     */
+    public String versionToken(List<String> fields) {
+        Snapshot snapshot = snapshot(fields.toArray(new String[0]));
+        if (snapshot == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(32).append(snapshot.epoch()).append(':');
+        for (int i = 0; i < snapshot.versions().size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(snapshot.versions().get(i));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Strong ETag cho tập field + discriminator (userId, tham số phân trang...)
+     *
+     * @return null nếu Redis lỗi / cache tắt → caller xử lý như không có cache
+     */
+    public String etag(List<String> fields, Object... discriminators) {
+        Snapshot snapshot = snapshot(fields.toArray(new String[0]));
+        if (snapshot == null) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder(64).append(snapshot.epoch());
+        for (int i = 0; i < fields.size(); i++) {
+            sb.append('|').append(fields.get(i)).append('=').append(snapshot.versions().get(i));
+        }
+        for (Object d : discriminators) {
+            sb.append('|').append(d);
+        }
+        sb.append("|age=").append(System.currentTimeMillis() / 1000 / Math.max(1, properties.getEtagMaxAgeSeconds()));
+        return "\"" + DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private Snapshot snapshot(String... fields) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        try {
+            List<Object> hashKeys = new ArrayList<>(fields.length + 1);
+            hashKeys.add(EPOCH);
+            hashKeys.addAll(List.of(fields));
+            List<Object> values = redisTemplate.opsForHash().multiGet(KEY, hashKeys);
+
+            Object epoch = values.get(0);
+            if (epoch == null) {
+                redisTemplate.opsForHash().putIfAbsent(KEY, EPOCH, String.valueOf(System.currentTimeMillis()));
+                epoch = redisTemplate.opsForHash().get(KEY, EPOCH);
+            }
+
+            List<Long> versions = new ArrayList<>(fields.length);
+            for (int i = 1; i < values.size(); i++) {
+                Object v = values.get(i);
+                versions.add(v != null ? Long.parseLong(v.toString()) : 0L);
+            }
+            return new Snapshot(String.valueOf(epoch), versions);
+        } catch (Exception e) {
+            log.debug("Catalog version lookup failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private record Snapshot(String epoch, List<Long> versions) {
+    }
+}
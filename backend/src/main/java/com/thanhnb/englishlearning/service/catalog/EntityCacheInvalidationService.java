@@ -0,0 +1,221 @@
+package com.thanhnb.englishlearning.service.catalog;
+
+import com.thanhnb.englishlearning.config.SecondLevelCacheProperties;
+import com.thanhnb.englishlearning.entity.grammar.GrammarLesson;
+import com.thanhnb.englishlearning.entity.listening.ListeningLesson;
+import com.thanhnb.englishlearning.entity.question.Question;
+import com.thanhnb.englishlearning.entity.question.TaskGroup;
+import com.thanhnb.englishlearning.entity.reading.ReadingLesson;
+import com.thanhnb.englishlearning.entity.topic.Topic;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 🔄 Đồng bộ Hibernate second-level cache giữa các node qua Redis pub/sub
+ *
+ * - Node ghi: Hibernate tự cập nhật cache local; sau commit phát "{nodeId}|Type#id,Type#*,..." lên channel
+ * - Node khác: evict entity (hoặc cả region với bulk JPQL) + toàn bộ query cache,
+ *   evict lần 2 sau reevictDelayMs (bản cũ đọc trước commit có thể vừa được put lại)
+ * - Mất message → entry tự hết hạn theo app.l2-cache.ttl-seconds
+ */
+@Service
+@Slf4j
+public class EntityCacheInvalidationService implements MessageListener {
+
+    private static final String PENDING_KEY = EntityCacheInvalidationService.class.getName() + ".pending";
+    private static final String ALL = "*";
+
+    /** Entity có @Cache - tên ngắn dùng trong message */
+    private static final Map<String, Class<?>> CACHED_TYPES = List.of(
+            Topic.class, GrammarLesson.class, ReadingLesson.class, ListeningLesson.class,
+            TaskGroup.class, Question.class).stream()
+            .collect(Collectors.toMap(Class::getSimpleName, Function.identity()));
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final SecondLevelCacheProperties properties;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ScheduledExecutorService reevictScheduler;
+    private final Counter publishedCounter;
+    private final Counter receivedCounter;
+
+    public EntityCacheInvalidationService(EntityManagerFactory entityManagerFactory,
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            SecondLevelCacheProperties properties,
+            MeterRegistry meterRegistry) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.properties = properties;
+        this.reevictScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "l2-cache-reevict");
+            t.setDaemon(true);
+            return t;
+        });
+        this.publishedCounter = meterRegistry.counter("l2cache.invalidation.published");
+        this.receivedCounter = meterRegistry.counter("l2cache.invalidation.received");
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        if (properties.isEnabled()) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(properties.getInvalidationChannel()));
+            log.info("✅ L2 cache invalidation subscribed: channel={}, node={}", properties.getInvalidationChannel(), nodeId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reevictScheduler.shutdownNow();
+    }
+
+    // ==================== PUBLISH ====================
+
+    /**
+     * Entity đã insert / update / delete (gọi từ EntityCacheInvalidationListener)
+     */
+    public void evict(Object entity) {
+        Class<?> type = Hibernate.getClass(entity);
+        if (!CACHED_TYPES.containsKey(type.getSimpleName())) {
+            return;
+        }
+        Object id = entityManagerFactory.getPersistenceUnitUtil().getIdentifier(entity);
+        if (id != null) {
+            enqueue(type.getSimpleName() + "#" + id);
+        }
+    }
+
+    /**
+     * Bulk JPQL (UPDATE / DELETE) → Hibernate đã xóa region ở node này, các node khác xóa theo
+     */
+    public void evictAll(Class<?> type) {
+        if (CACHED_TYPES.containsKey(type.getSimpleName())) {
+            enqueue(type.getSimpleName() + "#" + ALL);
+        }
+    }
+
+    /**
+     * Gom vào transaction hiện tại (phát 1 message sau commit), hoặc phát ngay nếu không có transaction
+     */
+    private void enqueue(String entry) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(Set.of(entry));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending == null) {
+            Set<String> entries = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, entries);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(entries);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                }
+            });
+            pending = entries;
+        }
+        pending.add(entry);
+    }
+
+    private void publish(Set<String> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(properties.getInvalidationChannel(), nodeId + "|" + String.join(",", entries));
+            publishedCounter.increment();
+        } catch (Exception e) {
+            // Node khác sẽ thấy dữ liệu cũ tối đa ttl-seconds
+            log.warn("⚠️ Failed to publish L2 cache invalidation {}: {}", entries, e.getMessage());
+        }
+    }
+
+    // ==================== RECEIVE ====================
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        if (separator < 0 || body.substring(0, separator).equals(nodeId)) {
+            return; // Message của chính node này
+        }
+        receivedCounter.increment();
+
+        List<String> entries = List.of(body.substring(separator + 1).split(","));
+        apply(entries);
+        reevictScheduler.schedule(() -> apply(entries), properties.getReevictDelayMs(), TimeUnit.MILLISECONDS);
+    }
+
+    private void apply(List<String> entries) {
+        try {
+            jakarta.persistence.Cache cache = entityManagerFactory.getCache();
+            for (String entry : entries) {
+                int hash = entry.indexOf('#');
+                Class<?> type = hash > 0 ? CACHED_TYPES.get(entry.substring(0, hash)) : null;
+                if (type == null) {
+                    continue;
+                }
+                String id = entry.substring(hash + 1);
+                if (ALL.equals(id)) {
+                    cache.evict(type);
+                } else {
+                    cache.evict(type, Long.valueOf(id));
+                }
+            }
+            // Query cache không biết id nào nằm trong kết quả → xóa hết (ghi catalog hiếm)
+            cache.unwrap(org.hibernate.Cache.class).evictQueryRegions();
+        } catch (Exception e) {
+            log.warn("⚠️ Failed to apply L2 cache invalidation {}: {}", entries, e.getMessage());
+        }
+    }
+
+    // ==================== ADMIN ====================
+
+    /**
+     * Xóa toàn bộ L2 + query cache trên mọi node
+     */
+    public void evictEverywhere() {
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictQueryRegions();
+        publish(CACHED_TYPES.keySet().stream()
+                .map(name -> name + "#" + ALL)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+    }
+}
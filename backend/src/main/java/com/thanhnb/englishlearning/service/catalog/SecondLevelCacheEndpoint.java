@@ -0,0 +1,84 @@
+package com.thanhnb.englishlearning.service.catalog;
+
+import com.thanhnb.englishlearning.config.SecondLevelCacheConfig;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint cho Hibernate second-level cache
+ *
+ * - GET    /actuator/l2cache → hit / miss / put / hit ratio theo region + query cache
+ * - DELETE /actuator/l2cache → xóa toàn bộ L2 + query cache trên mọi node
+ */
+@Component
+@Endpoint(id = "l2cache")
+@RequiredArgsConstructor
+public class SecondLevelCacheEndpoint {
+
+    private static final List<String> ENTITY_REGIONS = List.of(
+            SecondLevelCacheConfig.TOPIC_REGION,
+            SecondLevelCacheConfig.GRAMMAR_LESSON_REGION,
+            SecondLevelCacheConfig.READING_LESSON_REGION,
+            SecondLevelCacheConfig.LISTENING_LESSON_REGION,
+            SecondLevelCacheConfig.TASK_GROUP_REGION,
+            SecondLevelCacheConfig.QUESTION_REGION);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityCacheInvalidationService invalidationService;
+
+    public record RegionStats(long hits, long misses, long puts, long elementsInMemory, double hitRatio) {
+
+        static RegionStats of(long hits, long misses, long puts, long elements) {
+            long total = hits + misses;
+            return new RegionStats(hits, misses, puts, elements,
+                    total > 0 ? Math.round(hits * 1000.0 / total) / 1000.0 : 0.0);
+        }
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        boolean enabled = sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        if (!enabled) {
+            return result;
+        }
+
+        Map<String, RegionStats> regions = new LinkedHashMap<>();
+        for (String region : ENTITY_REGIONS) {
+            CacheRegionStatistics s = statistics.getDomainDataRegionStatistics(region);
+            if (s != null) {
+                regions.put(region, RegionStats.of(s.getHitCount(), s.getMissCount(), s.getPutCount(),
+                        s.getElementCountInMemory()));
+            }
+        }
+        result.put("regions", regions);
+        result.put("queryCache", RegionStats.of(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount(), -1));
+        result.put("secondLevelCache", RegionStats.of(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount(), -1));
+        result.put("queryExecutionCount", statistics.getQueryExecutionCount());
+        return result;
+    }
+
+    @DeleteOperation
+    public Map<String, Object> evictAll() {
+        invalidationService.evictEverywhere();
+        return Map.of("evicted", true);
+    }
+}
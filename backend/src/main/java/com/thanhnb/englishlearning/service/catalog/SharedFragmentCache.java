@@ -0,0 +1,112 @@
+package com.thanhnb.englishlearning.service.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.thanhnb.englishlearning.config.CatalogCacheProperties;
+import com.thanhnb.englishlearning.config.Views;
+import com.thanhnb.englishlearning.dto.question.response.PreSerializedGroupedQuestions;
+import com.thanhnb.englishlearning.dto.question.response.TaskGroupedQuestionsDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * ✅ Cache fragment dùng chung (không cá nhân hóa) đã serialize + nén (deflate)
+ *
+ * Hiện dùng cho câu hỏi của lesson (groupedQuestions, view Public):
+ * key = module:lessonId:{epoch:version}:variant → admin sửa lesson → version mới → key mới.
+ * Mỗi version giữ vài bản xáo trộn (variant) để user khác nhau / lần làm lại khác nhau thấy thứ tự khác nhau.
+ *
+ * Lần trúng cache chỉ tốn inflate (rất nhanh) thay vì query questions + convert + serialize lại.
+ */
+@Component
+@Slf4j
+public class SharedFragmentCache {
+
+    private final Cache<String, Fragment> cache;
+    private final ObjectWriter publicWriter;
+
+    private record Fragment(byte[] deflated, int rawLength, int questionCount) {
+    }
+
+    public SharedFragmentCache(ObjectMapper objectMapper,
+            CatalogCacheProperties properties,
+            MeterRegistry meterRegistry) {
+        this.publicWriter = objectMapper.writerWithView(Views.Public.class)
+                .without(SerializationFeature.INDENT_OUTPUT);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getFragmentMaxBytes())
+                .weigher((String key, Fragment f) -> f.deflated().length + key.length())
+                .expireAfterWrite(Duration.ofSeconds(properties.getFragmentTtlSeconds()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "catalog.fragments");
+    }
+
+    /**
+     * @param key    key đã gồm version token (xem CatalogVersionService.versionToken)
+     * @param loader build DTO khi cache miss
+     */
+    public TaskGroupedQuestionsDTO groupedQuestions(String key, Supplier<TaskGroupedQuestionsDTO> loader) {
+        Fragment fragment = cache.get(key, k -> build(loader.get()));
+        if (fragment == null) {
+            return loader.get();
+        }
+        return new PreSerializedGroupedQuestions(inflate(fragment), fragment.questionCount());
+    }
+
+    private Fragment build(TaskGroupedQuestionsDTO dto) {
+        try {
+            byte[] raw = publicWriter.writeValueAsBytes(dto);
+            return new Fragment(deflate(raw), raw.length, dto.countQuestions());
+        } catch (Exception e) {
+            log.warn("⚠️ Failed to serialize shared fragment: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String inflate(Fragment fragment) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(fragment.deflated());
+            byte[] raw = new byte[fragment.rawLength()];
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                length += inflater.inflate(raw, length, raw.length - length);
+            }
+            return new String(raw, 0, length, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupted fragment", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.thanhnb.englishlearning.service.common;
 
+import com.thanhnb.englishlearning.config.CatalogCacheProperties;
 import com.thanhnb.englishlearning.dto.common.SubmitResultDTO;
 import com.thanhnb.englishlearning.dto.question.helper.QuestionResultDTO;
 import com.thanhnb.englishlearning.dto.question.request.SubmitAnswerRequest;
@@ -10,22 +11,31 @@ import com.thanhnb.englishlearning.entity.user.User;
 import com.thanhnb.englishlearning.enums.EnglishLevel;
 import com.thanhnb.englishlearning.enums.ModuleType;
 import com.thanhnb.englishlearning.enums.ParentType;
+import com.thanhnb.englishlearning.enums.QuestionType;
+import com.thanhnb.englishlearning.event.AnswersGradedEvent;
 import com.thanhnb.englishlearning.event.LessonCompletedEvent;
 import com.thanhnb.englishlearning.repository.question.QuestionRepository;
 import com.thanhnb.englishlearning.repository.question.TaskGroupRepository;
 import com.thanhnb.englishlearning.repository.user.UserRepository;
 import com.thanhnb.englishlearning.service.common.LessonProgressService.ProgressUpdateResult;
+import com.thanhnb.englishlearning.service.common.SubmissionFollowUpService.LevelCheck;
+import com.thanhnb.englishlearning.service.catalog.CatalogVersionService;
+import com.thanhnb.englishlearning.service.catalog.SharedFragmentCache;
+import com.thanhnb.englishlearning.service.level.LevelProgressService;
 import com.thanhnb.englishlearning.service.level.LevelUpgradeService;
+import com.thanhnb.englishlearning.service.monitoring.SubmissionMetrics;
 import com.thanhnb.englishlearning.service.question.AnswerValidationService;
 import com.thanhnb.englishlearning.service.question.QuestionService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -54,7 +64,9 @@ import java.util.stream.Collectors;
  * - QuestionService: Load & shuffle questions
  * - AnswerValidationService: Chấm điểm
  * - LessonProgressService: Update progress (points, completed, etc.)
+ * - LevelProgressService: Bộ đếm lesson / topic của level (cùng transaction ghi progress)
  * - LevelUpgradeService: Check nâng cấp level
+ * - SubmissionFollowUpService: Chạy check nâng level sau commit
  * - UserRepository, TaskGroupRepository, QuestionRepository
  * 
  * ═══════════════════════════════════════════════════════════════════════════
@@ -73,11 +85,33 @@ public abstract class BaseLearningService<TLesson, TProgress extends LessonProgr
     @Autowired
     protected ApplicationEventPublisher eventPublisher;
     @Autowired
+    protected LevelProgressService levelProgressService;
+    @Autowired
     protected LevelUpgradeService levelUpgradeService;
     @Autowired
     protected TaskGroupRepository taskGroupRepository;
     @Autowired
     protected QuestionRepository questionRepository;
+    @Autowired
+    protected CatalogVersionService catalogVersionService;
+    @Autowired
+    protected SharedFragmentCache sharedFragmentCache;
+    @Autowired
+    protected CatalogCacheProperties catalogCacheProperties;
+    @Autowired
+    protected SubmissionMetrics submissionMetrics;
+    @Autowired
+    protected SubmissionFollowUpService submissionFollowUpService;
+
+    private TransactionTemplate readOnlyTransactionTemplate;
+    private TransactionTemplate writeTransactionTemplate;
+
+    @Autowired
+    void initTransactionTemplates(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.writeTransactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     // =========================================================================
     // ABSTRACT METHODS - Child classes PHẢI implement
@@ -123,14 +157,43 @@ public abstract class BaseLearningService<TLesson, TProgress extends LessonProgr
     /** Level tối thiểu để mở lesson */
     protected abstract EnglishLevel getLessonRequiredLevel(TLesson lesson);
 
+    /**
+     * Kết quả chấm điểm (bước 1-2), tính xong trước khi mở transaction ghi
+     */
+    private record Grading(
+            List<QuestionResultDTO> results,
+            List<LessonCompletedEvent.QuestionTrackingInfo> trackingInfos,
+            List<AnswersGradedEvent.GradedAnswer> gradedAnswers,
+            int correctCount,
+            int totalScore,
+            int totalQuestions,
+            int maxPossibleScore,
+            double scorePercentage,
+            boolean isPassed) {
+    }
+
+    /**
+     * Kết quả transaction ghi (bước 3): progress + topic có vừa đủ lesson hay không
+     */
+    protected record ProgressWrite(ProgressUpdateResult result, boolean topicCompleted) {
+    }
+
+    /**
+     * Lesson + danh sách lesson của topic, load trong bước chuẩn bị (read-only) của submitLesson
+     */
+    protected record SubmitContext<L>(L lesson, List<L> allLessons) {
+    }
+
     /**
      * ═══════════════════════════════════════════════════════════════════════
      * 🔥 CORE LOGIC: XỬ LÝ NỘP BÀI - CHẤM ĐIỂM - CẬP NHẬT PROGRESS
      * ═══════════════════════════════════════════════════════════════════════
      * 
-     * THỨ TỰ THỰC HIỆN (6 BƯỚC):
+     * THỨ TỰ THỰC HIỆN (6 BƯỚC, 3 GIAI ĐOẠN):
      * 
      * ┌─────────────────────────────────────────────────────────────────────┐
+     * │ GIAI ĐOẠN A - TRANSACTION CHỈ ĐỌC (không giữ row lock, có thể đọc replica) │
+     * ├─────────────────────────────────────────────────────────────────────┤
      * │ BƯỚC 1: LOAD & CHẤM ĐIỂM CÂU HỎI                                    │
      * │   ├─ Load tất cả questions của lesson (standalone + trong tasks)   │
      * │   ├─ Loop qua từng câu, gọi AnswerValidationService.validate()     │
@@ -141,30 +204,39 @@ public abstract class BaseLearningService<TLesson, TProgress extends LessonProgr
      * │   ├─ scorePercentage = (totalScore / maxPossibleScore) * 100       │
      * │   └─ isPassed = scorePercentage >= 80% (configurable)              │
      * ├─────────────────────────────────────────────────────────────────────┤
+     * │ GIAI ĐOẠN B - TRANSACTION GHI NGẮN NHẤT CÓ THỂ                      │
+     * ├─────────────────────────────────────────────────────────────────────┤
      * │ BƯỚC 3: CẬP NHẬT PROGRESS (QUAN TRỌNG!)                             │
      * │   ├─ Tìm hoặc tạo Progress cho user                                │
      * │   ├─ Gọi LessonProgressService.updateProgress()                    │
      * │   │   → Cập nhật: scorePercentage, isCompleted, attempts           │
-     * │   │   → Cộng điểm nếu lần đầu pass                                 │
+     * │   │   → Cộng điểm nếu lần đầu pass (user_stats ghi lúc commit)     │
      * │   │   → Tăng số bài học hoàn thành                                 │
-     * │   └─ Lưu Progress vào DB                                           │
+     * │   ├─ Lưu Progress vào DB                                           │
+     * │   ├─ Pass lần đầu → +1 lesson vào bộ đếm level (LevelProgressService) │
+     * │   └─ Publish AnswersGradedEvent (BEFORE_COMMIT: hàng đợi chấm      │
+     * │      OPEN_ENDED) + LessonCompletedEvent (AFTER_COMMIT / Async)     │
+     * ├─────────────────────────────────────────────────────────────────────┤
+     * │ GIAI ĐOẠN C - SAU COMMIT (không còn giữ lock nào)                   │
      * ├─────────────────────────────────────────────────────────────────────┤
      * │ BƯỚC 4: TÌM & MỞ KHÓA BÀI TIẾP THEO                                 │
-     * │   ├─ Tìm lesson tiếp theo trong cùng topic                         │
+     * │   ├─ Tìm lesson tiếp theo trong cùng topic (trong bộ nhớ)          │
      * │   ├─ Nếu pass lần đầu → hasUnlockedNext = true                     │
      * │   └─ Return nextLessonId để frontend redirect                      │
      * ├─────────────────────────────────────────────────────────────────────┤
      * │ BƯỚC 5: CHECK NÂNG CẤP LEVEL (Nếu pass lần đầu)                    │
-     * │   ├─ Gọi LevelUpgradeService.checkAndUpgradeLevel()                │
-     * │   ├─ Check: User đã hoàn thành đủ % lessons trong module?          │
-     * │   └─ Nếu đủ → Nâng level: A1 → A2 → B1 → B2 → C1 → C2             │
+     * │   ├─ SubmissionFollowUpService → LevelUpgradeService (tx riêng)    │
+     * │   │   → chỉ xét điều kiện + nâng level, bộ đếm đã ghi ở bước 3     │
+     * │   ├─ Xong kịp → kết quả trong response                             │
+     * │   └─ Chưa xong → followUpId, client hỏi lại qua follow-up endpoint │
      * ├─────────────────────────────────────────────────────────────────────┤
-     * │ BƯỚC 6: GỬI SỰ KIỆN TRACKING (Async)                                │
-     * │   ├─ Publish LessonCompletedEvent                                  │
-     * │   ├─ Data: questionTypes, isCorrect, timestamps                    │
-     * │   └─ Dùng cho: Analytics, Reports, AI recommendations              │
+     * │ BƯỚC 6: SỰ KIỆN TRACKING                                            │
+     * │   └─ Listener AFTER_COMMIT chạy khi giai đoạn B commit             │
      * └─────────────────────────────────────────────────────────────────────┘
      * 
+     * KHÔNG được gọi bên trong transaction có sẵn: submitLesson của module con dùng
+     * Propagation.NOT_SUPPORTED, nếu không giai đoạn B sẽ nhập vào transaction ngoài và giữ lock tới cuối request.
+     * 
      * RETURN:
      * SubmitResultDTO {
      *   isPassed,           // User có pass không (>= 80%)
@@ -176,7 +248,8 @@ public abstract class BaseLearningService<TLesson, TProgress extends LessonProgr
      *   results,            // Chi tiết từng câu (đúng/sai, feedback)
      *   hasUnlockedNext,    // Có mở khóa bài mới không
      *   nextLessonId,       // ID bài tiếp theo (nếu có)
-     *   levelUpgradeResult  // Kết quả nâng level (nếu có)
+     *   levelUpgradeResult, // Kết quả nâng level (nếu xong kịp)
+     *   followUpId          // Mã lấy kết quả nâng level sau (nếu chưa xong kịp)
      * }
      * 
      * @param userId ID của user
@@ -186,7 +259,6 @@ public abstract class BaseLearningService<TLesson, TProgress extends LessonProgr
      * @param moduleType GRAMMAR, READING, LISTENING, VOCABULARY
      * @return SubmitResultDTO chứa đầy đủ thông tin kết quả
      */
-    @Transactional
     public SubmitResultDTO processSubmission(
             Long userId,
             TLesson lesson,
@@ -196,15 +268,81 @@ public abstract class BaseLearningService<TLesson, TProgress extends LessonProgr
 
         Long lessonId = getLessonId(lesson);
         log.info("Processing submission: userId={}, lessonId={}, module={}", userId, lessonId, moduleType);
+        SubmissionMetrics.Recorder metrics = submissionMetrics.start(moduleType);
+
+        // 1-2. Lấy và chấm điểm câu hỏi (chỉ đọc)
+        Grading grading = inReadOnlyTransaction(() -> grade(lessonId, answers, metrics));
+
+        // 3. Lưu tiến độ + sự kiện (transaction ghi)
+        ProgressWrite write = inWriteTransaction(() -> {
+            TProgress progress = findProgress(userId, lessonId)
+                    .orElseGet(() -> createNewProgressInstance(userId, lesson));
+
+            User user = userRepository.getReferenceById(userId);
+            ProgressUpdateResult result = lessonProgressService.updateProgress(
+                    progress, user, grading.scorePercentage(), grading.isPassed(), getPointsReward(lesson),
+                    getParentType());
+
+            saveProgress(progress);
+            boolean topicCompleted = recordLevelProgress(userId, moduleType, getTopicId(lesson),
+                    result.isFirstCompletion() && grading.isPassed());
+            metrics.stage(SubmissionMetrics.STAGE_PROGRESS);
+
+            publishTrackingEvent(userId, lesson, moduleType, grading.trackingInfos());
+            publishAnswersGradedEvent(userId, lessonId, moduleType, grading.scorePercentage(),
+                    grading.maxPossibleScore(), grading.gradedAnswers());
+            metrics.stage(SubmissionMetrics.STAGE_EVENTS);
+            return new ProgressWrite(result, topicCompleted);
+        });
+        ProgressUpdateResult updateResult = write.result();
+        metrics.stage(SubmissionMetrics.STAGE_COMMIT);
+
+        // 4. Tìm bài tiếp theo & Check mở khóa
+        Long nextLessonId = null;
+        boolean hasUnlockedNext = false;
+        boolean firstPass = updateResult.isFirstCompletion() && grading.isPassed();
+
+        TLesson nextLesson = findNextLesson(lesson, allLessons);
+        if (nextLesson != null) {
+            nextLessonId = getLessonId(nextLesson);
+            hasUnlockedNext = firstPass;
+        }
+        metrics.stage(SubmissionMetrics.STAGE_UNLOCK);
+
+        // 5. Check nâng cấp trình độ (sau commit)
+        LevelCheck levelCheck = firstPass
+                ? submissionFollowUpService.checkLevel(userId, moduleType, getTopicId(lesson), write.topicCompleted())
+                : LevelCheck.NONE;
+        metrics.stage(SubmissionMetrics.STAGE_LEVEL);
+        metrics.finish(grading.isPassed());
+
+        return SubmitResultDTO.builder()
+                .isPassed(grading.isPassed())
+                .scorePercentage(grading.scorePercentage())
+                .totalScore(grading.totalScore())
+                .correctCount(grading.correctCount())
+                .totalQuestions(grading.totalQuestions())
+                .pointsEarned(updateResult.getPointsEarned())
+                .results(grading.results())
+                .hasUnlockedNext(hasUnlockedNext)
+                .nextLessonId(nextLessonId)
+                .levelUpgradeResult(levelCheck.result())
+                .followUpId(levelCheck.followUpId())
+                .build();
+    }
 
-        // 1. Lấy và chấm điểm câu hỏi
+    /**
+     * Bước 1-2: load câu hỏi + chấm điểm, không ghi gì
+     */
+    private Grading grade(Long lessonId, List<SubmitAnswerRequest> answers, SubmissionMetrics.Recorder metrics) {
         List<Question> questions = loadQuestionsForGrading(lessonId);
+        metrics.stage(SubmissionMetrics.STAGE_LOAD);
         List<QuestionResultDTO> results = new ArrayList<>();
         List<LessonCompletedEvent.QuestionTrackingInfo> trackingInfos = new ArrayList<>();
+        List<AnswersGradedEvent.GradedAnswer> gradedAnswers = new ArrayList<>();
 
         int correctCount = 0;
         int totalScore = 0;
-        int totalQuestions = questions.size();
 
         Map<Long, SubmitAnswerRequest> answerMap = answers.stream()
                 .collect(Collectors.toMap(SubmitAnswerRequest::getQuestionId, a -> a, (a1, a2) -> a1));
@@ -226,61 +364,45 @@ public abstract class BaseLearningService<TLesson, TProgress extends LessonProgr
 
             trackingInfos.add(
                     new LessonCompletedEvent.QuestionTrackingInfo(q.getQuestionType(), isCorrect));
+            gradedAnswers.add(toGradedAnswer(q, ans, result, isCorrect));
         }
 
-        // 2. Tính toán kết quả
         int maxPossibleScore = questions.stream().mapToInt(Question::getPoints).sum();
         double scorePercentage = maxPossibleScore > 0 ? ((double) totalScore / maxPossibleScore) * 100.0 : 0.0;
         scorePercentage = Math.round(scorePercentage);
         boolean isPassed = scorePercentage >= 80.0;
+        metrics.stage(SubmissionMetrics.STAGE_GRADE);
 
-        // 3. Lưu tiến độ
-        TProgress progress = findProgress(userId, lessonId)
-                .orElseGet(() -> createNewProgressInstance(userId, lesson));
-
-        User user = userRepository.getReferenceById(userId);
-        ProgressUpdateResult updateResult = lessonProgressService.updateProgress(
-                progress, user, scorePercentage, isPassed, getPointsReward(lesson), getParentType());
-
-        saveProgress(progress);
-
-        // 4. Tìm bài tiếp theo & Check mở khóa
-        Long nextLessonId = null;
-        boolean hasUnlockedNext = false;
+        return new Grading(results, trackingInfos, gradedAnswers, correctCount, totalScore, questions.size(),
+                maxPossibleScore, scorePercentage, isPassed);
+    }
 
-        TLesson nextLesson = findNextLesson(lesson, allLessons);
-        if (nextLesson != null) {
-            nextLessonId = getLessonId(nextLesson);
-            if (updateResult.isFirstCompletion() && isPassed) {
-                hasUnlockedNext = true;
-            }
-        }
+    // =========================================================================
+    // TRANSACTION HELPERS - submitLesson tự chia giai đoạn thay vì 1 @Transactional lớn
+    // =========================================================================
 
-        // 5. Check nâng cấp trình độ
-        LevelUpgradeService.LevelUpgradeResult levelResult = null;
-        if (updateResult.isFirstCompletion() && isPassed) {
-            try {
-                levelResult = levelUpgradeService.checkAndUpgradeLevel(userId, moduleType, getTopicId(lesson));
-            } catch (Exception e) {
-                log.error("Level upgrade check failed", e);
-            }
-        }
+    /**
+     * Lần đầu hoàn thành → +1 lesson vào bộ đếm level, trong transaction ghi của progress
+     * (bộ đếm không lệch progress dù check nâng level sau commit lỗi / bị mất)
+     *
+     * @return true nếu topic chứa lesson vừa đủ lesson
+     */
+    protected boolean recordLevelProgress(Long userId, ModuleType module, Long topicId, boolean firstCompletion) {
+        return firstCompletion && levelProgressService.recordLessonCompleted(userId, module, topicId);
+    }
 
-        // 6. Gửi sự kiện Tracking
-        publishTrackingEvent(userId, lesson, moduleType, trackingInfos);
+    /**
+     * Chạy trong transaction read-only (không giữ row lock; bật routing → đọc replica)
+     */
+    protected <T> T inReadOnlyTransaction(Supplier<T> work) {
+        return readOnlyTransactionTemplate.execute(status -> work.get());
+    }
 
-        return SubmitResultDTO.builder()
-                .isPassed(isPassed)
-                .scorePercentage(scorePercentage)
-                .totalScore(totalScore)
-                .correctCount(correctCount)
-                .totalQuestions(totalQuestions)
-                .pointsEarned(updateResult.getPointsEarned())
-                .results(results)
-                .hasUnlockedNext(hasUnlockedNext)
-                .nextLessonId(nextLessonId)
-                .levelUpgradeResult(levelResult)
-                .build();
+    /**
+     * Chạy trong transaction ghi; commit xong mới return
+     */
+    protected <T> T inWriteTransaction(Supplier<T> work) {
+        return writeTransactionTemplate.execute(status -> work.get());
     }
 
     // =========================================================================
@@ -347,16 +469,18 @@ public abstract class BaseLearningService<TLesson, TProgress extends LessonProgr
     protected TLesson findNextLesson(TLesson currentLesson, List<TLesson> allLessons) {
         if (allLessons == null || allLessons.isEmpty()) return null;
 
-        // Sắp xếp lại cho chắc chắn
+        // Sắp xếp lại cho chắc chắn; bỏ qua bài inactive (cùng quy tắc với isLessonUnlocked)
         List<TLesson> sorted = allLessons.stream()
-                .sorted(Comparator.comparing(this::getLessonOrder))
+                .sorted(Comparator.comparing(this::getLessonOrder).thenComparing(this::getLessonId))
                 .toList();
 
         Long currentId = getLessonId(currentLesson);
         for (int i = 0; i < sorted.size() - 1; i++) {
             if (getLessonId(sorted.get(i)).equals(currentId)) {
-                TLesson next = sorted.get(i + 1);
-                if (isLessonActive(next)) return next; // Chỉ trả về nếu bài tiếp theo Active
+                return sorted.subList(i + 1, sorted.size()).stream()
+                        .filter(this::isLessonActive)
+                        .findFirst()
+                        .orElse(null);
             }
         }
         return null;
@@ -371,8 +495,9 @@ public abstract class BaseLearningService<TLesson, TProgress extends LessonProgr
      * - AI recommendations
      * 
      * Error không ảnh hưởng submission
+     * Bài lý thuyết (không có câu hỏi) gửi infos rỗng - vẫn tính streak
      */
-    private void publishTrackingEvent(Long userId, TLesson lesson, ModuleType module,
+    protected void publishTrackingEvent(Long userId, TLesson lesson, ModuleType module,
             List<LessonCompletedEvent.QuestionTrackingInfo> infos) {
         try {
             eventPublisher.publishEvent(new LessonCompletedEvent(
@@ -382,6 +507,42 @@ public abstract class BaseLearningService<TLesson, TProgress extends LessonProgr
         }
     }
 
+    /**
+     * Listener BEFORE_COMMIT (hàng đợi chấm OPEN_ENDED) ghi trong cùng transaction submit
+     */
+    private void publishAnswersGradedEvent(Long userId, Long lessonId, ModuleType module,
+            double scorePercentage, int maxScore, List<AnswersGradedEvent.GradedAnswer> answers) {
+        try {
+            eventPublisher.publishEvent(new AnswersGradedEvent(
+                    this, userId, module, lessonId, scorePercentage, maxScore, answers));
+        } catch (Exception e) {
+            log.error("Failed to publish answers graded event", e);
+        }
+    }
+
+    /**
+     * OPEN_ENDED chỉ được kiểm tra số từ → đánh dấu chờ chấm lại
+     */
+    private AnswersGradedEvent.GradedAnswer toGradedAnswer(Question q, SubmitAnswerRequest ans,
+            QuestionResultDTO result, boolean isCorrect) {
+        String textAnswer = ans != null ? ans.getTextAnswer() : null;
+        String selectedOptions = ans != null && ans.getSelectedOptions() != null && !ans.getSelectedOptions().isEmpty()
+                ? ans.getSelectedOptions().stream().map(String::valueOf).collect(Collectors.joining(","))
+                : null;
+        boolean answered = (textAnswer != null && !textAnswer.isBlank()) || selectedOptions != null;
+        boolean needsManualGrading = q.getQuestionType() == QuestionType.OPEN_ENDED && answered && isCorrect;
+
+        return new AnswersGradedEvent.GradedAnswer(
+                q.getId(),
+                q.getQuestionType(),
+                textAnswer,
+                selectedOptions,
+                isCorrect,
+                isCorrect && result.getPoints() != null ? result.getPoints() : 0,
+                needsManualGrading,
+                q.getPoints() != null ? q.getPoints() : 0);
+    }
+
     // =========================================================================
     // UNLOCK & ACCESS CONTROL - Kiểm soát quyền truy cập lesson
     // =========================================================================
@@ -393,8 +554,8 @@ public abstract class BaseLearningService<TLesson, TProgress extends LessonProgr
      * ┌──────────────────────────────────────────────────────────┐
      * │ 1. Lesson phải ACTIVE                                    │
      * │ 2. User level >= lesson required level                   │
-     * │ 3. Lesson đầu tiên (order = 1) → Luôn mở                │
-     * │ 4. Lesson khác → Phải hoàn thành lesson trước đó        │
+     * │ 3. Lesson active đầu tiên (theo order) → Luôn mở         │
+     * │ 4. Lesson khác → Phải hoàn thành lesson active liền trước│
      * └──────────────────────────────────────────────────────────┘
      * 
      * @param lesson Lesson cần check
@@ -418,17 +579,25 @@ public abstract class BaseLearningService<TLesson, TProgress extends LessonProgr
         if (required != null && userLevel != null && userLevel.ordinal() < required.ordinal())
             return false;
 
-        // Check 3: Lesson đầu tiên luôn mở
-        Integer order = orderGetter.apply(lesson);
-        if (order == 1) return true;
-
-        // Check 4: Phải hoàn thành lesson trước đó
-        return allLessons.stream()
+        // order_index là key thưa (1024, 2048, ...) → xét vị trí trong danh sách active đã sắp xếp
+        List<TLesson> active = allLessons.stream()
                 .filter(this::isLessonActive)
-                .filter(l -> orderGetter.apply(l) == order - 1)
-                .findFirst()
-                .map(prev -> progressChecker.test(userId, idGetter.apply(prev)))
-                .orElse(true); // Fallback: nếu không tìm thấy bài trước thì mở
+                .sorted(Comparator.comparing(orderGetter).thenComparing(idGetter))
+                .toList();
+        Long lessonId = idGetter.apply(lesson);
+        int position = -1;
+        for (int i = 0; i < active.size(); i++) {
+            if (idGetter.apply(active.get(i)).equals(lessonId)) {
+                position = i;
+                break;
+            }
+        }
+
+        // Check 3: Lesson đầu tiên luôn mở (không nằm trong danh sách → mở như trước)
+        if (position <= 0) return true;
+
+        // Check 4: Phải hoàn thành lesson active liền trước
+        return progressChecker.test(userId, idGetter.apply(active.get(position - 1)));
     }
 
     /**
@@ -501,4 +670,27 @@ public abstract class BaseLearningService<TLesson, TProgress extends LessonProgr
                 .standaloneQuestions(questionService.convertToDTOsForLearning(standalone))
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Câu hỏi của lesson lấy từ SharedFragmentCache (đã serialize sẵn)
+     *
+     * - Key theo version nội dung lesson → admin sửa câu hỏi là key mới
+     * - Mỗi version giữ fragmentVariants bản xáo trộn; variant chọn theo (userId, attempts)
+     *   → làm lại bài vẫn thấy thứ tự khác
+     * - Redis lỗi / cache tắt → build trực tiếp như cũ
+     */
+    protected TaskGroupedQuestionsDTO getSharedGroupedQuestions(Long lessonId, Long userId, int attemptSalt) {
+        ModuleType module = CatalogVersionService.toModule(getParentType());
+        String token = module != null
+                ? catalogVersionService.versionToken(CatalogVersionService.lessonField(module, lessonId))
+                : null;
+        if (token == null) {
+            return getGroupedQuestionsForLesson(lessonId);
+        }
+
+        int variant = Math.floorMod(Objects.hash(userId, attemptSalt),
+                Math.max(1, catalogCacheProperties.getFragmentVariants()));
+        String key = module + ":" + lessonId + ":" + token + ":" + variant;
+        return sharedFragmentCache.groupedQuestions(key, () -> getGroupedQuestionsForLesson(lessonId));
+    }
+}
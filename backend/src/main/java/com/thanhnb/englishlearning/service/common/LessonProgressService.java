@@ -2,7 +2,7 @@ package com.thanhnb.englishlearning.service.common;
 
 import com.thanhnb.englishlearning.entity.user.User;
 import com.thanhnb.englishlearning.enums.ParentType;
-import com.thanhnb.englishlearning.repository.user.UserRepository;
+import com.thanhnb.englishlearning.service.user.UserStatsWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -15,7 +15,7 @@ import java.time.LocalDateTime;
 @Slf4j
 public class LessonProgressService {
 
-    private final UserRepository userRepository;
+    private final UserStatsWriter userStatsWriter;
 
     // =========================================================================
     // INTERFACES & DTOs
@@ -56,6 +56,7 @@ public class LessonProgressService {
      * 
      * FIXES:
      * - Đảm bảo atomic operation (cộng điểm + update progress cùng transaction)
+     * - Điểm / số bài cộng bằng UPDATE tại chỗ ở cuối transaction (UserStatsWriter)
      * - Better logging
      * - Proper null checks
      */
@@ -103,26 +104,15 @@ public class LessonProgressService {
                 pointsEarned = pointsReward;
                 
                 if (user != null) {
-                    if (user.getStats() == null) {
-                        log.error("User {} has no stats object!", user.getId());
-                        throw new IllegalStateException("User stats not initialized");
-                    }
-                    
-                    // ✅ Cộng điểm
-                    user.getStats().addPoints(pointsReward);
-                    
-                    // ✅ Tăng số bài học theo loại
-                    user.getStats().incrementLessons(lessonType);
-                    
-                    // ✅ Save trong cùng transaction
-                    userRepository.save(user);
-                    
-                    log.info("User {} completed {} lesson #{}: +{} points, Total lessons: {}", 
-                        user.getUsername(), 
+                    // ✅ Cộng điểm + số bài học theo loại: UPDATE cộng dồn lúc commit (UserStatsWriter)
+                    // → không khóa user_stats suốt lúc chấm bài, nộp song song không mất điểm
+                    userStatsWriter.recordLessonCompleted(user.getId(), pointsReward, lessonType);
+
+                    log.info("User {} completed {} lesson (attempt #{}): +{} points",
+                        user.getId(), 
                         lessonType, 
                         progress.getAttempts(),
-                        pointsReward, 
-                        user.getStats().getTotalLessonsCompleted());
+                        pointsReward);
                 } else {
                     log.warn("User object is null when updating progress - points not awarded");
                 }
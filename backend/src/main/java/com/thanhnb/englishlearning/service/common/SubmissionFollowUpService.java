@@ -0,0 +1,196 @@
+package com.thanhnb.englishlearning.service.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thanhnb.englishlearning.config.SubmissionProperties;
+import com.thanhnb.englishlearning.dto.common.SubmissionFollowUpDTO;
+import com.thanhnb.englishlearning.dto.common.SubmissionFollowUpDTO.Status;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.service.level.LevelUpgradeService;
+import com.thanhnb.englishlearning.service.level.LevelUpgradeService.LevelUpgradeResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ✅ Các bước chạy SAU khi transaction nộp bài đã commit
+ *
+ * Check nâng level (LevelUpgradeService, transaction riêng) chạy trên pool follow-up:
+ * - Xong trong levelCheckWaitMs → kết quả nằm luôn trong response nộp bài
+ * - Chưa xong → response trả followUpId; kết quả được ghi vào Redis (TTL followUpTtlSeconds)
+ *   và client lấy qua GET /api/submissions/follow-up/{followUpId}
+ *
+ * Metrics: submission.follow-up.queue.depth, submission.follow-up.active, submission.level_check{outcome}
+ *
+ * Bộ đếm lesson / topic đã được ghi cùng transaction nộp bài → check lỗi / node chết giữa chừng
+ * chỉ bỏ lỡ lần nâng level này (được xét lại ở lần hoàn thành topic tiếp theo),
+ * tiến độ và bộ đếm không bị ảnh hưởng.
+ */
+@Service
+@Slf4j
+public class SubmissionFollowUpService {
+
+    private static final String KEY_PREFIX = "submission:follow-up:";
+
+    private final LevelUpgradeService levelUpgradeService;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final SubmissionProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Kết quả check nâng level cho response nộp bài: có result HOẶC followUpId (hoặc cả 2 đều null)
+     */
+    public record LevelCheck(LevelUpgradeResult result, String followUpId) {
+
+        public static final LevelCheck NONE = new LevelCheck(null, null);
+    }
+
+    public SubmissionFollowUpService(LevelUpgradeService levelUpgradeService,
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            SubmissionProperties properties,
+            MeterRegistry meterRegistry) {
+        this.levelUpgradeService = levelUpgradeService;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                properties.getFollowUpThreads(), properties.getFollowUpThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getFollowUpQueueCapacity()),
+                r -> {
+                    Thread t = new Thread(r, "submission-follow-up-" + threadCounter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                // Pool đầy → chạy luôn trên thread request (lúc này không còn giữ lock nào)
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        Gauge.builder("submission.follow-up.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("submission.follow-up.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * Check nâng level sau commit; lỗi không làm hỏng bài nộp
+     *
+     * @param topicCompleted kết quả LevelProgressService.recordLessonCompleted trong transaction nộp bài
+     */
+    public LevelCheck checkLevel(Long userId, ModuleType module, Long topicId, boolean topicCompleted) {
+        if (!properties.isAsyncLevelCheck()) {
+            try {
+                return record("inline", new LevelCheck(
+                        levelUpgradeService.checkAndUpgradeLevel(userId, module, topicId, topicCompleted), null));
+            } catch (Exception e) {
+                log.error("Level upgrade check failed", e);
+                return record("failed", LevelCheck.NONE);
+            }
+        }
+
+        CompletableFuture<LevelUpgradeResult> future = CompletableFuture.supplyAsync(
+                () -> levelUpgradeService.checkAndUpgradeLevel(userId, module, topicId, topicCompleted), executor);
+        try {
+            return record("inline", new LevelCheck(
+                    future.get(properties.getLevelCheckWaitMs(), TimeUnit.MILLISECONDS), null));
+        } catch (TimeoutException e) {
+            return record("deferred", new LevelCheck(null, defer(userId, module, future)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return record("deferred", new LevelCheck(null, defer(userId, module, future)));
+        } catch (Exception e) {
+            log.error("Level upgrade check failed", e.getCause() != null ? e.getCause() : e);
+            return record("failed", LevelCheck.NONE);
+        }
+    }
+
+    /**
+     * Kết quả follow-up của user; rỗng nếu không tồn tại / đã hết hạn / thuộc user khác
+     */
+    public Optional<SubmissionFollowUpDTO> get(Long userId, String followUpId) {
+        String json = redisTemplate.opsForValue().get(key(userId, followUpId));
+        if (json == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(json, SubmissionFollowUpDTO.class));
+        } catch (Exception e) {
+            log.warn("⚠️ Corrupted follow-up {}: {}", followUpId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Ghi PENDING trước rồi mới gắn callback → callback (kể cả khi future vừa xong) luôn ghi đè PENDING
+     */
+    private String defer(Long userId, ModuleType module, CompletableFuture<LevelUpgradeResult> future) {
+        String followUpId = UUID.randomUUID().toString();
+        save(userId, SubmissionFollowUpDTO.builder()
+                .followUpId(followUpId)
+                .status(Status.PENDING)
+                .module(module)
+                .build());
+
+        future.whenComplete((result, error) -> {
+            if (error != null) {
+                log.error("Level upgrade check failed (follow-up {})", followUpId, error);
+                meterRegistry.counter("submission.level_check.deferred", "result", "failed").increment();
+                save(userId, SubmissionFollowUpDTO.builder()
+                        .followUpId(followUpId)
+                        .status(Status.FAILED)
+                        .module(module)
+                        .build());
+                return;
+            }
+            meterRegistry.counter("submission.level_check.deferred", "result", "done").increment();
+            save(userId, SubmissionFollowUpDTO.builder()
+                    .followUpId(followUpId)
+                    .status(Status.DONE)
+                    .module(module)
+                    .levelUpgraded(result.isUpgraded())
+                    .oldLevel(result.getOldLevel())
+                    .newLevel(result.getNewLevel())
+                    .progressMessage(result.getMessage())
+                    .build());
+        });
+        return followUpId;
+    }
+
+    private void save(Long userId, SubmissionFollowUpDTO dto) {
+        try {
+            redisTemplate.opsForValue().set(key(userId, dto.getFollowUpId()),
+                    objectMapper.writeValueAsString(dto), Duration.ofSeconds(properties.getFollowUpTtlSeconds()));
+        } catch (Exception e) {
+            log.warn("⚠️ Failed to store follow-up {}: {}", dto.getFollowUpId(), e.getMessage());
+        }
+    }
+
+    private LevelCheck record(String outcome, LevelCheck check) {
+        meterRegistry.counter("submission.level_check", "outcome", outcome).increment();
+        return check;
+    }
+
+    private static String key(Long userId, String followUpId) {
+        return KEY_PREFIX + userId + ":" + followUpId;
+    }
+}
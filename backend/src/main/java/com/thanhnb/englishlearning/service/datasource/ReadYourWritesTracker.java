@@ -0,0 +1,88 @@
+package com.thanhnb.englishlearning.service.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.thanhnb.englishlearning.config.ReplicaRoutingProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+
+/**
+ * ✅ Ghi nhớ thời điểm ghi gần nhất của từng user (read-your-writes)
+ *
+ * - Tier local (Caffeine) cho request cùng node
+ * - Redis ryw:{userId} (PX = window) cho request rơi vào node khác
+ *
+ * ReplicaRoutingDataSource chỉ cho user đọc replica khi replica đã bắt kịp mốc này.
+ */
+@Slf4j
+public class ReadYourWritesTracker {
+
+    private static final String KEY_PREFIX = "ryw:";
+
+    /**
+     * Không đọc được mốc ghi (Redis lỗi) → coi như vừa ghi, đọc primary cho chắc
+     */
+    public static final long UNKNOWN = Long.MAX_VALUE;
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean shared;
+    private final Duration window;
+    private final Cache<Long, Long> localWrites;
+
+    public ReadYourWritesTracker(StringRedisTemplate redisTemplate, ReplicaRoutingProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.shared = properties.isShareWritesAcrossNodes();
+        // Window ngắn hơn maxLag → replica trễ nhưng vẫn "khoẻ" có thể trả dữ liệu cũ
+        this.window = Duration.ofMillis(Math.max(properties.getReadYourWritesWindowMs(), properties.getMaxLagMs()));
+        this.localWrites = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public void markWrite(Long userId) {
+        long now = System.currentTimeMillis();
+        localWrites.put(userId, now);
+        if (!shared) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + userId, Long.toString(now), window);
+        } catch (Exception e) {
+            log.debug("Cannot share write mark of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * @return epoch millis lần ghi gần nhất trong window, 0 nếu không có, UNKNOWN nếu không xác định được
+     */
+    public long lastWriteAt(Long userId) {
+        Long local = localWrites.getIfPresent(userId);
+        if (local != null || !shared) {
+            return local != null ? local : 0L;
+        }
+        try {
+            String value = redisTemplate.opsForValue().get(KEY_PREFIX + userId);
+            return value != null ? Long.parseLong(value) : 0L;
+        } catch (Exception e) {
+            log.debug("Cannot read write mark of user {}: {}", userId, e.getMessage());
+            return UNKNOWN;
+        }
+    }
+
+    /**
+     * userId do JwtAuthenticationFilter gắn vào request; null ngoài request (job, async)
+     */
+    public static Long currentUserId() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object userId = attributes.getAttribute("userId", RequestAttributes.SCOPE_REQUEST);
+        return userId instanceof Long id ? id : null;
+    }
+}
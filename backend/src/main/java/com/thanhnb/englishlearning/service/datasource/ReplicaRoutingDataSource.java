@@ -0,0 +1,262 @@
+package com.thanhnb.englishlearning.service.datasource;
+
+import com.thanhnb.englishlearning.config.ReplicaRoutingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ✅ Chọn primary / replica khi connection thật sự được lấy
+ *
+ * Đứng sau LazyConnectionDataSourceProxy → lúc gọi getConnection() transaction đã bắt đầu,
+ * TransactionSynchronizationManager biết readOnly:
+ * - Transaction ghi / không có transaction → primary
+ * - readOnly → replica khoẻ kế tiếp (round-robin), nếu:
+ *   + độ trễ ≤ maxLagMs
+ *   + đã replay quá mốc ghi gần nhất của user hiện tại (read-your-writes)
+ * - Replica lỗi kết nối → đánh dấu hỏng, quay về primary ngay trong request đó
+ *
+ * Health check định kỳ đo độ trễ bằng pg_last_xact_replay_timestamp() (đồng hồ của chính replica).
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final String LAG_SQL = """
+            SELECT pg_is_in_recovery(),
+                   pg_last_wal_receive_lsn() IS NOT DISTINCT FROM pg_last_wal_replay_lsn(),
+                   (EXTRACT(EPOCH FROM clock_timestamp() - pg_last_xact_replay_timestamp()) * 1000)::bigint
+            """;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWritesTracker tracker;
+    private final ReplicaRoutingProperties properties;
+    private final ScheduledExecutorService healthChecker;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter primaryWrite;
+    private final Counter primaryRecentWrite;
+    private final Counter primaryNoReplica;
+    private final Counter primaryReplicaError;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReadYourWritesTracker tracker,
+            ReplicaRoutingProperties properties, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.tracker = tracker;
+        this.properties = properties;
+
+        List<Replica> created = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReplicaRoutingProperties.Replica config = properties.getReplicas().get(i);
+            String name = config.getName() != null ? config.getName() : "replica-" + (i + 1);
+            Replica replica = new Replica(name, createPool(name, config, meterRegistry),
+                    Counter.builder("datasource.routing").tag("target", name).tag("reason", "read-only")
+                            .register(meterRegistry));
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagMs)
+                    .tag("replica", name).baseUnit("milliseconds").register(meterRegistry);
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", name).register(meterRegistry);
+            created.add(replica);
+        }
+        this.replicas = List.copyOf(created);
+
+        this.primaryWrite = routingCounter(meterRegistry, "write");
+        this.primaryRecentWrite = routingCounter(meterRegistry, "recent-write");
+        this.primaryNoReplica = routingCounter(meterRegistry, "no-healthy-replica");
+        this.primaryReplicaError = routingCounter(meterRegistry, "replica-error");
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replica-health-check");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void start() {
+        if (replicas.isEmpty()) {
+            log.warn("⚠️ Replica routing enabled but no replica configured → all reads go to primary");
+            return;
+        }
+        replicas.forEach(this::checkSafely);
+        healthChecker.scheduleWithFixedDelay(() -> replicas.forEach(this::checkSafely),
+                properties.getHealthCheckIntervalMs(), properties.getHealthCheckIntervalMs(), TimeUnit.MILLISECONDS);
+        log.info("✅ Replica routing started: {}", replicas.stream().map(r -> r.name).toList());
+    }
+
+    public void close() {
+        healthChecker.shutdownNow();
+        replicas.forEach(r -> r.pool.close());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryWrite.increment();
+            return primary.getConnection();
+        }
+
+        long lastWrite = 0L;
+        Long userId = ReadYourWritesTracker.currentUserId();
+        if (userId != null) {
+            lastWrite = tracker.lastWriteAt(userId);
+        }
+
+        Replica replica = choose(lastWrite);
+        if (replica == null) {
+            (lastWrite > 0 && hasHealthyReplica() ? primaryRecentWrite : primaryNoReplica).increment();
+            return primary.getConnection();
+        }
+
+        try {
+            Connection connection = replica.pool.getConnection();
+            replica.routed.increment();
+            return connection;
+        } catch (SQLException e) {
+            replica.markDown(e);
+            primaryReplicaError.increment();
+            return primary.getConnection();
+        }
+    }
+
+    /**
+     * Credential riêng chỉ có nghĩa với primary (replica dùng credential cấu hình sẵn) → luôn đi primary
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    private Replica choose(long lastWrite) {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica candidate = replicas.get((start + i) % size);
+            if (candidate.healthy && candidate.caughtUpAt() >= lastWrite) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private boolean hasHealthyReplica() {
+        return replicas.stream().anyMatch(r -> r.healthy);
+    }
+
+    private void checkSafely(Replica replica) {
+        // Mốc trước khi truy vấn → caughtUpAt luôn thiên về phía an toàn (sớm hơn thực tế)
+        long startedAt = System.currentTimeMillis();
+        try (Connection connection = replica.pool.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(LAG_SQL)) {
+            rs.next();
+            boolean inRecovery = rs.getBoolean(1);
+            boolean fullyReplayed = rs.getBoolean(2);
+            long replayLag = rs.getLong(3);
+            boolean noReplayYet = rs.wasNull();
+
+            long lag;
+            if (!inRecovery) {
+                // Instance độc lập (dev chạy 2 Postgres không replicate) → coi như không trễ
+                if (!replica.standaloneWarned) {
+                    log.warn("⚠️ {} is not in recovery mode — treated as an up-to-date replica", replica.name);
+                    replica.standaloneWarned = true;
+                }
+                lag = 0;
+            } else if (fullyReplayed) {
+                // Đã replay hết WAL nhận được → replay timestamp chỉ là lần ghi cuối trên primary, không phải độ trễ
+                lag = 0;
+            } else {
+                lag = noReplayYet ? Long.MAX_VALUE : Math.max(0, replayLag);
+            }
+            replica.update(startedAt, lag, properties.getMaxLagMs());
+        } catch (Exception e) {
+            replica.markDown(e);
+        }
+    }
+
+    private HikariDataSource createPool(String name, ReplicaRoutingProperties.Replica config,
+            MeterRegistry meterRegistry) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(config.getUrl());
+        pool.setUsername(config.getUsername());
+        pool.setPassword(config.getPassword());
+        pool.setMaximumPoolSize(config.getMaximumPoolSize());
+        pool.setReadOnly(true);
+        // Replica chưa lên không được chặn app khởi động → health check tự đánh dấu hỏng
+        pool.setInitializationFailTimeout(-1);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("datasource.routing").tag("target", "primary").tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final HikariDataSource pool;
+        private final Counter routed;
+        private volatile boolean healthy;
+        private volatile long lagMs = -1;
+        private volatile long checkedAt;
+        private boolean standaloneWarned;
+
+        private Replica(String name, HikariDataSource pool, Counter routed) {
+            this.name = name;
+            this.pool = pool;
+            this.routed = routed;
+        }
+
+        /**
+         * Mốc (theo đồng hồ app) mà replica chắc chắn đã có mọi commit trước đó
+         */
+        private long caughtUpAt() {
+            long lag = lagMs;
+            return lag < 0 ? Long.MIN_VALUE : checkedAt - lag;
+        }
+
+        private void update(long checkedAt, long lag, long maxLagMs) {
+            boolean wasHealthy = healthy;
+            this.checkedAt = checkedAt;
+            this.lagMs = lag;
+            this.healthy = lag <= maxLagMs;
+            if (wasHealthy != healthy) {
+                if (healthy) {
+                    log.info("✅ Replica {} healthy again (lag {} ms)", name, lag);
+                } else {
+                    log.warn("⚠️ Replica {} lagging {} ms → reads go to primary", name, lag);
+                }
+            }
+        }
+
+        private void markDown(Exception e) {
+            if (healthy) {
+                log.warn("⚠️ Replica {} unavailable → reads go to primary: {}", name, e.getMessage());
+            }
+            healthy = false;
+            lagMs = -1;
+        }
+    }
+}
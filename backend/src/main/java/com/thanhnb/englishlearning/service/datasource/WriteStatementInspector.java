@@ -0,0 +1,63 @@
+package com.thanhnb.englishlearning.service.datasource;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * ✅ Phát hiện transaction thực sự ghi (INSERT/UPDATE/DELETE qua Hibernate)
+ *
+ * Nhiều service để @Transactional mặc định cho cả thao tác chỉ đọc → không thể dựa vào readOnly=false.
+ * Chỉ khi có câu lệnh ghi mới đánh dấu user, và chỉ sau khi commit (dữ liệu đã tồn tại trên primary).
+ */
+public class WriteStatementInspector implements StatementInspector {
+
+    private static final Object MARKED_KEY = WriteStatementInspector.class.getName() + ".MARKED";
+
+    private final ReadYourWritesTracker tracker;
+
+    public WriteStatementInspector(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (isWrite(sql) && TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(MARKED_KEY)) {
+            Long userId = ReadYourWritesTracker.currentUserId();
+            if (userId != null) {
+                TransactionSynchronizationManager.bindResource(MARKED_KEY, userId);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        tracker.markWrite(userId);
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(MARKED_KEY);
+                    }
+                });
+            }
+        }
+        return sql;
+    }
+
+    private static boolean isWrite(String sql) {
+        int i = 0;
+        int length = sql.length();
+        while (i < length && (Character.isWhitespace(sql.charAt(i)) || sql.charAt(i) == '/')) {
+            // Bỏ qua khoảng trắng / comment "/* ... */" do hibernate.use_sql_comments
+            if (sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else {
+                i++;
+            }
+        }
+        return sql.regionMatches(true, i, "insert", 0, 6)
+                || sql.regionMatches(true, i, "update", 0, 6)
+                || sql.regionMatches(true, i, "delete", 0, 6)
+                || sql.regionMatches(true, i, "merge", 0, 5);
+    }
+}
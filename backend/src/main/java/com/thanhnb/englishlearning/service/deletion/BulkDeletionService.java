@@ -0,0 +1,386 @@
+package com.thanhnb.englishlearning.service.deletion;
+
+import com.thanhnb.englishlearning.dto.common.DeletionReport;
+import com.thanhnb.englishlearning.entity.grammar.GrammarLesson;
+import com.thanhnb.englishlearning.entity.listening.ListeningLesson;
+import com.thanhnb.englishlearning.entity.question.Question;
+import com.thanhnb.englishlearning.entity.question.TaskGroup;
+import com.thanhnb.englishlearning.entity.reading.ReadingLesson;
+import com.thanhnb.englishlearning.entity.topic.Topic;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.enums.ParentType;
+import com.thanhnb.englishlearning.event.AudioFilesOrphanedEvent;
+import com.thanhnb.englishlearning.repository.assessment.OpenEndedAssessmentRepository;
+import com.thanhnb.englishlearning.repository.attempt.AnswerAttemptRepository;
+import com.thanhnb.englishlearning.repository.grammar.GrammarLessonRepository;
+import com.thanhnb.englishlearning.repository.grammar.UserGrammarProgressRepository;
+import com.thanhnb.englishlearning.repository.level.UserLevelProgressRepository;
+import com.thanhnb.englishlearning.repository.level.UserTopicProgressRepository;
+import com.thanhnb.englishlearning.repository.listening.ListeningLessonRepository;
+import com.thanhnb.englishlearning.repository.listening.UserListeningProgressRepository;
+import com.thanhnb.englishlearning.repository.question.QuestionRepository;
+import com.thanhnb.englishlearning.repository.question.TaskGroupRepository;
+import com.thanhnb.englishlearning.repository.reading.ReadingLessonRepository;
+import com.thanhnb.englishlearning.repository.reading.UserReadingProgressRepository;
+import com.thanhnb.englishlearning.repository.recommendation.AIRecommendationRepository;
+import com.thanhnb.englishlearning.repository.search.SearchDocumentRepository;
+import com.thanhnb.englishlearning.repository.topic.TeacherTopicAssignmentRepository;
+import com.thanhnb.englishlearning.repository.topic.TopicRepository;
+import com.thanhnb.englishlearning.repository.user.UserActivityRepository;
+import com.thanhnb.englishlearning.repository.user.UserLearningBehaviorRepository;
+import com.thanhnb.englishlearning.repository.user.UserRepository;
+import com.thanhnb.englishlearning.repository.user.UserStatsRepository;
+import com.thanhnb.englishlearning.repository.user.UserStudyTimeRepository;
+import com.thanhnb.englishlearning.service.catalog.CatalogVersionService;
+import com.thanhnb.englishlearning.service.catalog.EntityCacheInvalidationService;
+import com.thanhnb.englishlearning.service.search.SearchIndexService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 🗑️ Xóa hàng loạt theo tập (set-based) thay cho cascade từng entity
+ *
+ * - Mỗi bảng con: 1 câu DELETE ... WHERE parent_id IN (...) / chunk, chạy theo thứ tự phụ thuộc:
+ *   questions → task_groups → progress → ai_recommendations → search_documents → lessons
+ *   → teacher_topic_assignments → topics
+ * - File audio chỉ bị xóa SAU KHI commit (AudioCleanupListener, async)
+ * - Topic quá lớn: soft-delete ngay (ẩn + khóa), job "deleted-topic-purge" xóa thật theo batch
+ * - Bulk DELETE bỏ qua entity listener → search_documents, catalog version, L2 cache các node khác
+ *   được xử lý tường minh ở đây
+ */
+@Service
+@Slf4j
+public class BulkDeletionService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final GrammarLessonRepository grammarLessonRepository;
+    private final ReadingLessonRepository readingLessonRepository;
+    private final ListeningLessonRepository listeningLessonRepository;
+    private final UserGrammarProgressRepository grammarProgressRepository;
+    private final UserReadingProgressRepository readingProgressRepository;
+    private final UserListeningProgressRepository listeningProgressRepository;
+    private final QuestionRepository questionRepository;
+    private final TaskGroupRepository taskGroupRepository;
+    private final AIRecommendationRepository recommendationRepository;
+    private final SearchDocumentRepository searchDocumentRepository;
+    private final AnswerAttemptRepository answerAttemptRepository;
+    private final OpenEndedAssessmentRepository assessmentRepository;
+    private final TeacherTopicAssignmentRepository assignmentRepository;
+    private final TopicRepository topicRepository;
+    private final UserRepository userRepository;
+    private final UserStatsRepository statsRepository;
+    private final UserActivityRepository activityRepository;
+    private final UserLearningBehaviorRepository learningBehaviorRepository;
+    private final UserTopicProgressRepository topicProgressRepository;
+    private final UserLevelProgressRepository levelProgressRepository;
+    private final UserStudyTimeRepository studyTimeRepository;
+    private final CatalogVersionService catalogVersionService;
+    private final EntityCacheInvalidationService entityCacheInvalidationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.deletion.soft-delete-lesson-threshold:30}")
+    private int softDeleteLessonThreshold;
+
+    @Value("${app.deletion.purge-batch-lessons:20}")
+    private int purgeBatchLessons;
+
+    public BulkDeletionService(GrammarLessonRepository grammarLessonRepository,
+            ReadingLessonRepository readingLessonRepository,
+            ListeningLessonRepository listeningLessonRepository,
+            UserGrammarProgressRepository grammarProgressRepository,
+            UserReadingProgressRepository readingProgressRepository,
+            UserListeningProgressRepository listeningProgressRepository,
+            QuestionRepository questionRepository,
+            TaskGroupRepository taskGroupRepository,
+            AIRecommendationRepository recommendationRepository,
+            SearchDocumentRepository searchDocumentRepository,
+            AnswerAttemptRepository answerAttemptRepository,
+            OpenEndedAssessmentRepository assessmentRepository,
+            TeacherTopicAssignmentRepository assignmentRepository,
+            TopicRepository topicRepository,
+            UserRepository userRepository,
+            UserStatsRepository statsRepository,
+            UserActivityRepository activityRepository,
+            UserLearningBehaviorRepository learningBehaviorRepository,
+            UserTopicProgressRepository topicProgressRepository,
+            UserLevelProgressRepository levelProgressRepository,
+            UserStudyTimeRepository studyTimeRepository,
+            CatalogVersionService catalogVersionService,
+            EntityCacheInvalidationService entityCacheInvalidationService,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager) {
+        this.grammarLessonRepository = grammarLessonRepository;
+        this.readingLessonRepository = readingLessonRepository;
+        this.listeningLessonRepository = listeningLessonRepository;
+        this.grammarProgressRepository = grammarProgressRepository;
+        this.readingProgressRepository = readingProgressRepository;
+        this.listeningProgressRepository = listeningProgressRepository;
+        this.questionRepository = questionRepository;
+        this.taskGroupRepository = taskGroupRepository;
+        this.recommendationRepository = recommendationRepository;
+        this.searchDocumentRepository = searchDocumentRepository;
+        this.answerAttemptRepository = answerAttemptRepository;
+        this.assessmentRepository = assessmentRepository;
+        this.assignmentRepository = assignmentRepository;
+        this.topicRepository = topicRepository;
+        this.userRepository = userRepository;
+        this.statsRepository = statsRepository;
+        this.activityRepository = activityRepository;
+        this.learningBehaviorRepository = learningBehaviorRepository;
+        this.topicProgressRepository = topicProgressRepository;
+        this.levelProgressRepository = levelProgressRepository;
+        this.studyTimeRepository = studyTimeRepository;
+        this.catalogVersionService = catalogVersionService;
+        this.entityCacheInvalidationService = entityCacheInvalidationService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // ==================== LESSONS ====================
+
+    /**
+     * Xóa lessons + toàn bộ dữ liệu con (questions, task groups, progress...)
+     */
+    @Transactional
+    public DeletionReport deleteLessons(ModuleType module, Collection<Long> lessonIds) {
+        long start = System.currentTimeMillis();
+        DeletionReport report = new DeletionReport("lesson:" + module + ":" + lessonIds);
+        deleteLessonsInternal(module, new ArrayList<>(lessonIds), report);
+        report.setDurationMs(System.currentTimeMillis() - start);
+        log.info("🗑️ Deleted {} {} lessons: {} rows in {}ms {}",
+                lessonIds.size(), module, report.getTotalRows(), report.getDurationMs(), report.getRowsByTable());
+        return report;
+    }
+
+    private void deleteLessonsInternal(ModuleType module, List<Long> lessonIds, DeletionReport report) {
+        if (lessonIds.isEmpty()) {
+            return;
+        }
+        ParentType parentType = SearchIndexService.toParentType(module);
+        List<String> audioUrls = new ArrayList<>();
+        Set<Long> topicIds = new HashSet<>();
+
+        for (int from = 0; from < lessonIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = lessonIds.subList(from, Math.min(from + CHUNK_SIZE, lessonIds.size()));
+
+            if (module == ModuleType.LISTENING) {
+                audioUrls.addAll(listeningLessonRepository.findAudioUrlsByIdIn(chunk));
+            }
+            topicIds.addAll(findTopicIds(module, chunk));
+
+            // questions trước task_groups (FK questions.task_group_id)
+            report.add("questions", questionRepository.deleteByParentIds(parentType, chunk));
+            report.add("task_groups", taskGroupRepository.deleteByParentIds(parentType, chunk));
+            report.add("ai_recommendations", recommendationRepository.deleteByTargetLessons(module, chunk));
+            report.add("search_documents", searchDocumentRepository.deleteByLessonIds(module.name(), chunk));
+            report.add("answer_attempts", answerAttemptRepository.deleteByLessonIds(module, chunk));
+            report.add("open_ended_assessments", assessmentRepository.deleteByLessonIds(module, chunk));
+
+            switch (module) {
+                case GRAMMAR -> {
+                    report.add("user_grammar_progress", grammarProgressRepository.deleteByLessonIdIn(chunk));
+                    report.add("grammar_lessons", grammarLessonRepository.deleteByIdIn(chunk));
+                }
+                case READING -> {
+                    report.add("user_reading_progress", readingProgressRepository.deleteByLessonIdIn(chunk));
+                    report.add("reading_lessons", readingLessonRepository.deleteByIdIn(chunk));
+                }
+                case LISTENING -> {
+                    report.add("user_listening_progress", listeningProgressRepository.deleteByLessonIdIn(chunk));
+                    report.add("listening_lessons", listeningLessonRepository.deleteByIdIn(chunk));
+                }
+            }
+        }
+
+        lessonIds.forEach(id -> catalogVersionService.bumpLesson(module, id, null));
+        topicIds.forEach(topicId -> catalogVersionService.bumpTopic(module, topicId));
+        catalogVersionService.bumpModule(module);
+        entityCacheInvalidationService.evictAll(Question.class);
+        entityCacheInvalidationService.evictAll(TaskGroup.class);
+        entityCacheInvalidationService.evictAll(lessonClass(module));
+
+        if (!audioUrls.isEmpty()) {
+            eventPublisher.publishEvent(new AudioFilesOrphanedEvent(this, audioUrls));
+            report.setAudioFilesScheduled(report.getAudioFilesScheduled() + audioUrls.size());
+        }
+    }
+
+    // ==================== TOPICS ====================
+
+    /**
+     * Xóa topic. Topic có nhiều hơn ngưỡng lessons → soft-delete, purge job xóa thật sau.
+     */
+    @Transactional
+    public DeletionReport deleteTopic(Long topicId) {
+        long start = System.currentTimeMillis();
+        DeletionReport report = new DeletionReport("topic:" + topicId);
+
+        Map<ModuleType, List<Long>> lessonIds = new EnumMap<>(ModuleType.class);
+        for (ModuleType module : ModuleType.values()) {
+            lessonIds.put(module, findLessonIds(module, topicId));
+        }
+        int lessonCount = lessonIds.values().stream().mapToInt(List::size).sum();
+
+        if (lessonCount > softDeleteLessonThreshold) {
+            softDeleteTopic(topicId, report);
+        } else {
+            lessonIds.forEach((module, ids) -> deleteLessonsInternal(module, ids, report));
+            finishTopicDeletion(topicId, report);
+        }
+
+        catalogVersionService.bumpTopic(null, topicId);
+        for (ModuleType module : ModuleType.values()) {
+            catalogVersionService.bumpModule(module);
+        }
+
+        report.setDurationMs(System.currentTimeMillis() - start);
+        log.info("🗑️ {} topic {} ({} lessons): {} rows in {}ms {}",
+                report.isSoftDeleted() ? "Soft-deleted" : "Deleted", topicId, lessonCount,
+                report.getTotalRows(), report.getDurationMs(), report.getRowsByTable());
+        return report;
+    }
+
+    private void softDeleteTopic(Long topicId, DeletionReport report) {
+        report.setSoftDeleted(true);
+        report.add("topics", topicRepository.softDelete(topicId));
+        report.add("grammar_lessons", grammarLessonRepository.deactivateByTopicId(topicId));
+        report.add("reading_lessons", readingLessonRepository.deactivateByTopicId(topicId));
+        report.add("listening_lessons", listeningLessonRepository.deactivateByTopicId(topicId));
+        // Teacher mất quyền + nội dung biến khỏi search ngay lập tức
+        report.add("teacher_topic_assignments", assignmentRepository.deleteByTopicId(topicId));
+        report.add("search_documents", searchDocumentRepository.deleteByTopic(topicId));
+        entityCacheInvalidationService.evictAll(Topic.class);
+        for (ModuleType module : ModuleType.values()) {
+            entityCacheInvalidationService.evictAll(lessonClass(module));
+        }
+    }
+
+    private void finishTopicDeletion(Long topicId, DeletionReport report) {
+        report.add("teacher_topic_assignments", assignmentRepository.deleteByTopicId(topicId));
+        report.add("ai_recommendations", recommendationRepository.deleteByTargetTopicId(topicId));
+        report.add("search_documents", searchDocumentRepository.deleteByTopic(topicId));
+        report.add("topics", topicRepository.hardDelete(topicId));
+        entityCacheInvalidationService.evictAll(Topic.class);
+    }
+
+    /**
+     * Purge các topic đã soft-delete: mỗi transaction xóa tối đa purgeBatchLessons lessons
+     *
+     * @return số topic đã xóa hoàn toàn
+     */
+    public int purgeSoftDeletedTopics() {
+        List<Long> topicIds = topicRepository.findSoftDeletedIds();
+        int purged = 0;
+
+        for (Long topicId : topicIds) {
+            long start = System.currentTimeMillis();
+            DeletionReport report = new DeletionReport("topic:" + topicId);
+
+            for (ModuleType module : ModuleType.values()) {
+                while (true) {
+                    Integer deleted = transactionTemplate.execute(status -> {
+                        List<Long> ids = findLessonIds(module, topicId);
+                        List<Long> batch = ids.subList(0, Math.min(purgeBatchLessons, ids.size()));
+                        DeletionReport batchReport = new DeletionReport();
+                        deleteLessonsInternal(module, new ArrayList<>(batch), batchReport);
+                        report.merge(batchReport);
+                        return batch.size();
+                    });
+                    if (deleted == null || deleted == 0) {
+                        break;
+                    }
+                }
+            }
+
+            transactionTemplate.executeWithoutResult(status -> finishTopicDeletion(topicId, report));
+            purged++;
+            report.setDurationMs(System.currentTimeMillis() - start);
+            log.info("🗑️ Purged soft-deleted topic {}: {} rows in {}ms {}",
+                    topicId, report.getTotalRows(), report.getDurationMs(), report.getRowsByTable());
+        }
+        return purged;
+    }
+
+    private List<Long> findLessonIds(ModuleType module, Long topicId) {
+        return switch (module) {
+            case GRAMMAR -> grammarLessonRepository.findIdsByTopicId(topicId);
+            case READING -> readingLessonRepository.findIdsByTopicId(topicId);
+            case LISTENING -> listeningLessonRepository.findIdsByTopicId(topicId);
+        };
+    }
+
+    private Class<?> lessonClass(ModuleType module) {
+        return switch (module) {
+            case GRAMMAR -> GrammarLesson.class;
+            case READING -> ReadingLesson.class;
+            case LISTENING -> ListeningLesson.class;
+        };
+    }
+
+    private List<Long> findTopicIds(ModuleType module, List<Long> lessonIds) {
+        return switch (module) {
+            case GRAMMAR -> grammarLessonRepository.findTopicIdsByIdIn(lessonIds);
+            case READING -> readingLessonRepository.findTopicIdsByIdIn(lessonIds);
+            case LISTENING -> listeningLessonRepository.findTopicIdsByIdIn(lessonIds);
+        };
+    }
+
+    // ==================== USERS ====================
+
+    /**
+     * Xóa user và toàn bộ dữ liệu cá nhân. Nội dung user đã sửa (lessons) được giữ lại, chỉ gỡ modified_by.
+     */
+    @Transactional
+    public DeletionReport deleteUser(Long userId) {
+        long start = System.currentTimeMillis();
+        DeletionReport report = new DeletionReport("user:" + userId);
+
+        report.add("user_grammar_progress", grammarProgressRepository.deleteByUserId(userId));
+        report.add("user_reading_progress", readingProgressRepository.deleteByUserId(userId));
+        report.add("user_listening_progress", listeningProgressRepository.deleteByUserId(userId));
+        report.add("ai_recommendations", recommendationRepository.deleteByUserId(userId));
+        report.add("user_learning_behaviors", learningBehaviorRepository.deleteByUserId(userId));
+        report.add("user_activities", activityRepository.deleteByUserId(userId));
+        report.add("answer_attempts", answerAttemptRepository.deleteByUserId(userId));
+        report.add("open_ended_assessments", assessmentRepository.deleteByUserId(userId));
+        report.add("user_topic_progress", topicProgressRepository.deleteByUserId(userId));
+        report.add("user_level_progress", levelProgressRepository.deleteByUserId(userId));
+        report.add("user_study_time", studyTimeRepository.deleteByUserId(userId));
+        report.add("user_stats", statsRepository.deleteByUserId(userId));
+        report.add("teacher_topic_assignments", assignmentRepository.deleteByTeacherId(userId));
+
+        // Tham chiếu "ai đã làm" → null thay vì xóa nội dung
+        int unlinked = assignmentRepository.clearAssignedBy(userId)
+                + grammarLessonRepository.clearModifiedBy(userId)
+                + readingLessonRepository.clearModifiedBy(userId)
+                + listeningLessonRepository.clearModifiedBy(userId);
+
+        report.add("users", userRepository.deleteByIdDirect(userId));
+        catalogVersionService.bumpUser(userId);
+        if (unlinked > 0) {
+            for (ModuleType module : ModuleType.values()) {
+                entityCacheInvalidationService.evictAll(lessonClass(module));
+            }
+        }
+        report.setDurationMs(System.currentTimeMillis() - start);
+
+        log.info("🗑️ Deleted user {}: {} rows in {}ms ({} references unlinked) {}",
+                userId, report.getTotalRows(), report.getDurationMs(), unlinked, report.getRowsByTable());
+        return report;
+    }
+}
@@ -0,0 +1,272 @@
+package com.thanhnb.englishlearning.service.email;
+
+import com.thanhnb.englishlearning.config.EmailOutboxProperties;
+import com.thanhnb.englishlearning.entity.email.EmailOutbox;
+import com.thanhnb.englishlearning.enums.EmailOutboxStatus;
+import com.thanhnb.englishlearning.event.EmailQueuedEvent;
+import com.thanhnb.englishlearning.repository.email.EmailOutboxRepository;
+import com.thanhnb.englishlearning.service.email.EmailTemplateRegistry.RenderedEmail;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ✅ Worker gửi email từ outbox
+ *
+ * Mỗi lượt quét:
+ * 1. Claim tối đa claimSize row (FOR UPDATE SKIP LOCKED → an toàn khi chạy nhiều node)
+ * 2. Render template đã parse sẵn, gửi tuần tự qua 1 kết nối SMTP dùng lại
+ * 3. Gửi xong email nào đánh dấu SENT ngay email đó (lô dài / lock hết hạn giữa chừng không làm
+ *    node khác gửi lại email đã gửi); lỗi → retry với backoff, hết lượt → FAILED
+ *
+ * Email mới commit đánh thức worker ngay (EmailQueuedEvent), chu kỳ quét chỉ để bắt retry / node khác.
+ */
+@Service
+@Slf4j
+public class EmailOutboxWorker {
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailTemplateRegistry templateRegistry;
+    private final EmailOutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final SmtpTransportSession transportSession;
+    private final ScheduledExecutorService sender;
+    private final AtomicBoolean wakeUpScheduled = new AtomicBoolean();
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong oldestPendingSeconds = new AtomicLong();
+    private final Timer sendTimer;
+    private final Timer deliveryLatency;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    @Value("${app.mail.from:${spring.mail.username:}}")
+    private String fromEmail;
+
+    public EmailOutboxWorker(EmailOutboxRepository outboxRepository,
+            EmailTemplateRegistry templateRegistry,
+            EmailOutboxProperties properties,
+            JavaMailSenderImpl mailSender,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.templateRegistry = templateRegistry;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transportSession = new SmtpTransportSession(mailSender,
+                TimeUnit.SECONDS.toMillis(properties.getTransportIdleSeconds()));
+
+        this.sender = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mail-outbox-sender");
+            t.setDaemon(true);
+            return t;
+        });
+
+        Gauge.builder("mail.outbox.backlog", backlog, AtomicLong::get)
+                .description("Số email PENDING trong outbox").register(meterRegistry);
+        Gauge.builder("mail.outbox.oldest.pending.seconds", oldestPendingSeconds, AtomicLong::get)
+                .register(meterRegistry);
+        FunctionCounter.builder("mail.transport.connects", transportSession, SmtpTransportSession::getConnects)
+                .register(meterRegistry);
+        this.sendTimer = Timer.builder("mail.outbox.send")
+                .description("Thời gian gửi 1 email qua kết nối SMTP").register(meterRegistry);
+        this.deliveryLatency = Timer.builder("mail.outbox.latency")
+                .description("Thời gian từ lúc ghi outbox đến lúc gửi xong").register(meterRegistry);
+        this.sentCounter = meterRegistry.counter("mail.outbox.sent");
+        this.retriedCounter = meterRegistry.counter("mail.outbox.retried");
+        this.failedCounter = meterRegistry.counter("mail.outbox.failed");
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isWorkerEnabled()) {
+            log.info("⏸️ Email outbox worker disabled (app.mail.outbox.worker-enabled=false)");
+            return;
+        }
+        log.info("✅ Email outbox worker started");
+        sender.scheduleWithFixedDelay(this::pollSafely,
+                properties.getPollIntervalMs(), properties.getPollIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sender.shutdownNow();
+        transportSession.close();
+    }
+
+    /**
+     * Email vừa commit → gửi ngay (gộp nhiều event thành 1 lượt quét)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleEmailQueued(EmailQueuedEvent event) {
+        if (properties.isWorkerEnabled() && wakeUpScheduled.compareAndSet(false, true)) {
+            sender.execute(() -> {
+                wakeUpScheduled.set(false);
+                pollSafely();
+            });
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            int processed;
+            do {
+                processed = processOnce();
+            } while (processed == properties.getClaimSize());
+            refreshBacklog();
+        } catch (Exception e) {
+            log.error("❌ Email outbox poll failed: {}", e.getMessage(), e);
+        } finally {
+            transportSession.closeIfIdle();
+        }
+    }
+
+    /**
+     * @return số email đã claim trong lượt này
+     */
+    public int processOnce() {
+        List<EmailOutbox> claimed = claim();
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        int sent = 0;
+        for (EmailOutbox email : claimed) {
+            try {
+                sendTimer.recordCallable(() -> {
+                    transportSession.send(toMimeMessage(email));
+                    return null;
+                });
+                markSent(email.getId());
+                sent++;
+                sentCounter.increment();
+                deliveryLatency.record(Duration.between(email.getCreatedAt(), LocalDateTime.now()));
+            } catch (SendFailedException e) {
+                boolean invalidRecipient = e.getInvalidAddresses() != null && e.getInvalidAddresses().length > 0;
+                retry(email.getId(), e.getMessage(), invalidRecipient);
+            } catch (Exception e) {
+                retry(email.getId(), e.getMessage(), false);
+            }
+        }
+
+        log.debug("📧 Outbox batch: {} claimed, {} sent", claimed.size(), sent);
+        return claimed.size();
+    }
+
+    /**
+     * Ghi SENT ngay sau khi SMTP nhận (transaction riêng, 1 row).
+     * Ghi lỗi → row vẫn SENDING, được claim lại khi hết lock → có thể gửi trùng 1 lần (at-least-once)
+     */
+    private void markSent(Long outboxId) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxRepository.markSent(List.of(outboxId), EmailOutboxStatus.SENT, LocalDateTime.now()));
+        } catch (Exception e) {
+            log.error("❌ Email {} was sent but could not be marked SENT: {}", outboxId, e.getMessage());
+        }
+    }
+
+    private List<EmailOutbox> claim() {
+        List<EmailOutbox> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = outboxRepository.lockReadyIds(now, properties.getClaimSize());
+            if (ids.isEmpty()) {
+                return Collections.<EmailOutbox>emptyList();
+            }
+            outboxRepository.markClaimed(ids, EmailOutboxStatus.SENDING,
+                    now.plusSeconds(properties.getLockSeconds()));
+            return outboxRepository.findAllById(ids);
+        });
+        return claimed != null ? claimed : Collections.emptyList();
+    }
+
+    private MimeMessage toMimeMessage(EmailOutbox email) throws MessagingException {
+        RenderedEmail rendered = templateRegistry.render(email.getTemplate(), email.getParams());
+        MimeMessage message = transportSession.createMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(rendered.subject());
+        helper.setText(rendered.html(), true);
+        return message;
+    }
+
+    private void retry(Long outboxId, String error, boolean permanent) {
+        try {
+            Boolean failed = transactionTemplate.execute(status -> {
+                EmailOutbox email = outboxRepository.findById(outboxId).orElse(null);
+                if (email == null || email.getStatus() != EmailOutboxStatus.SENDING) {
+                    return false;
+                }
+                email.setLockedUntil(null);
+                email.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+
+                if (permanent || email.getAttempts() >= properties.getMaxAttempts()) {
+                    email.setStatus(EmailOutboxStatus.FAILED);
+                    email.setParams(null);
+                    return true;
+                }
+                long backoff = properties.getRetryBackoffSeconds() * (1L << Math.min(10, email.getAttempts() - 1));
+                email.setStatus(EmailOutboxStatus.PENDING);
+                email.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoff));
+                return false;
+            });
+
+            if (Boolean.TRUE.equals(failed)) {
+                failedCounter.increment();
+                log.error("❌ Email {} failed permanently: {}", outboxId, error);
+            } else {
+                retriedCounter.increment();
+                log.warn("⚠️ Email {} send failed, will retry: {}", outboxId, error);
+            }
+        } catch (Exception e) {
+            log.error("❌ Failed to reschedule email {}: {}", outboxId, e.getMessage());
+        }
+    }
+
+    private void refreshBacklog() {
+        backlog.set(outboxRepository.countByStatus(EmailOutboxStatus.PENDING));
+        LocalDateTime oldest = outboxRepository.findOldestCreatedAt(EmailOutboxStatus.PENDING);
+        oldestPendingSeconds.set(oldest != null ? Duration.between(oldest, LocalDateTime.now()).toSeconds() : 0);
+    }
+
+    /**
+     * Xóa row SENT / FAILED quá hạn giữ (cluster job)
+     *
+     * @return số row đã xóa
+     */
+    public int cleanupFinished() {
+        LocalDateTime before = LocalDateTime.now().minusDays(properties.getRetentionDays());
+        Integer deleted = transactionTemplate.execute(status -> outboxRepository.deleteByStatusInAndCreatedAtBefore(
+                List.of(EmailOutboxStatus.SENT, EmailOutboxStatus.FAILED), before));
+        log.info("🧹 Deleted {} finished outbox emails older than {}", deleted, before.toLocalDate());
+        return deleted != null ? deleted : 0;
+    }
+}
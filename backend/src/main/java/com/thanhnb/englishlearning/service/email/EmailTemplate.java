@@ -0,0 +1,89 @@
+package com.thanhnb.englishlearning.service.email;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template đã parse sẵn: literal và placeholder {{name}} xen kẽ
+ *
+ * literals.length == names.length + 1 → render chỉ là nối chuỗi vào 1 StringBuilder,
+ * không scan lại template mỗi lần gửi.
+ */
+public final class EmailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String[] literals;
+    private final String[] names;
+    private final int literalLength;
+
+    private EmailTemplate(List<String> literals, List<String> names) {
+        this.literals = literals.toArray(new String[0]);
+        this.names = names.toArray(new String[0]);
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    public static EmailTemplate parse(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int pos = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, pos);
+            int close = open < 0 ? -1 : source.indexOf(CLOSE, open + OPEN.length());
+            if (open < 0 || close < 0) {
+                literals.add(source.substring(pos));
+                return new EmailTemplate(literals, names);
+            }
+            literals.add(source.substring(pos, open));
+            names.add(source.substring(open + OPEN.length(), close).trim());
+            pos = close + CLOSE.length();
+        }
+    }
+
+    /**
+     * Thay trước các placeholder cố định (appName, layout...) - giá trị được chèn nguyên văn.
+     * Placeholder không có trong map được giữ lại cho lúc render.
+     */
+    public EmailTemplate bind(Map<String, String> constants) {
+        List<String> newLiterals = new ArrayList<>();
+        List<String> newNames = new ArrayList<>();
+        StringBuilder current = new StringBuilder(literals[0]);
+        for (int i = 0; i < names.length; i++) {
+            String value = constants.get(names[i]);
+            if (value != null) {
+                current.append(value);
+            } else {
+                newLiterals.add(current.toString());
+                newNames.add(names[i]);
+                current = new StringBuilder();
+            }
+            current.append(literals[i + 1]);
+        }
+        newLiterals.add(current.toString());
+        return new EmailTemplate(newLiterals, newNames);
+    }
+
+    /**
+     * @param escapeHtml true → giá trị được HTML-escape (body), false → chèn nguyên văn (subject)
+     */
+    public String render(Map<String, String> params, boolean escapeHtml) {
+        StringBuilder sb = new StringBuilder(literalLength + names.length * 16);
+        sb.append(literals[0]);
+        for (int i = 0; i < names.length; i++) {
+            String value = params != null ? params.get(names[i]) : null;
+            if (value != null) {
+                sb.append(escapeHtml ? HtmlUtils.htmlEscape(value) : value);
+            }
+            sb.append(literals[i + 1]);
+        }
+        return sb.toString();
+    }
+
+    public List<String> placeholders() {
+        return List.of(names);
+    }
+}
@@ -0,0 +1,72 @@
+package com.thanhnb.englishlearning.service.email;
+
+import com.thanhnb.englishlearning.enums.EmailTemplateType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * ✅ Nạp + parse toàn bộ template email 1 lần lúc khởi động
+ *
+ * layout.html + nội dung từng template được ghép sẵn, appName/frontendUrl thay sẵn
+ * → lúc gửi chỉ còn thay các tham số riêng của email (otp, username...).
+ */
+@Component
+@Slf4j
+public class EmailTemplateRegistry {
+
+    private static final String TEMPLATE_DIR = "mail/";
+
+    private final Map<EmailTemplateType, EmailTemplate> bodies = new EnumMap<>(EmailTemplateType.class);
+    private final Map<EmailTemplateType, EmailTemplate> subjects = new EnumMap<>(EmailTemplateType.class);
+
+    public record RenderedEmail(String subject, String html) {
+    }
+
+    public EmailTemplateRegistry(
+            @Value("${app.name:English Learning App}") String appName,
+            @Value("${app.frontend.url:http://localhost:5173}") String frontendUrl) {
+        Map<String, String> subjectConstants = Map.of("appName", appName, "frontendUrl", frontendUrl);
+        String layout = read("layout");
+
+        for (EmailTemplateType type : EmailTemplateType.values()) {
+            EmailTemplate subject = EmailTemplate.parse(type.getSubject()).bind(subjectConstants);
+            String title = EmailTemplate.parse(type.getTitle()).render(subjectConstants, false);
+
+            // Ghép layout + nội dung rồi parse 1 lần; còn lại các placeholder riêng ({{otp}}, {{username}}...)
+            EmailTemplate body = EmailTemplate.parse(layout.replace("{{content}}", read(type.getFileName())))
+                    .bind(Map.of(
+                            "title", HtmlUtils.htmlEscape(title),
+                            "appName", HtmlUtils.htmlEscape(appName),
+                            "frontendUrl", HtmlUtils.htmlEscape(frontendUrl)));
+
+            subjects.put(type, subject);
+            bodies.put(type, body);
+            log.debug("Loaded email template {} (placeholders: {})", type, body.placeholders());
+        }
+        log.info("✅ Loaded {} email templates", bodies.size());
+    }
+
+    public RenderedEmail render(EmailTemplateType type, Map<String, String> params) {
+        return new RenderedEmail(
+                subjects.get(type).render(params, false),
+                bodies.get(type).render(params, true));
+    }
+
+    private static String read(String name) {
+        try (InputStream in = new ClassPathResource(TEMPLATE_DIR + name + ".html").getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load email template " + name, e);
+        }
+    }
+}
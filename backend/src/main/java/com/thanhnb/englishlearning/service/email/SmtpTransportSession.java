@@ -0,0 +1,110 @@
+package com.thanhnb.englishlearning.service.email;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Date;
+import java.util.function.LongSupplier;
+
+/**
+ * 1 kết nối SMTP dùng lại cho nhiều email (handshake + STARTTLS + AUTH chỉ 1 lần)
+ *
+ * Không thread-safe: chỉ thread gửi của EmailOutboxWorker dùng.
+ * - Kết nối lười ở lần gửi đầu tiên, kết nối lại khi server đã đóng
+ * - Gửi lỗi → đóng kết nối, lần sau kết nối lại
+ * - closeIfIdle() đóng kết nối không dùng quá idleMillis
+ */
+@Slf4j
+public class SmtpTransportSession implements AutoCloseable {
+
+    // Dùng liên tục trong khoảng này → không NOOP kiểm tra kết nối
+    private static final long TRUST_CONNECTION_MILLIS = 5_000;
+
+    private final JavaMailSenderImpl mailSender;
+    private final long idleMillis;
+    private final LongSupplier clockMillis;
+
+    private Transport transport;
+    private long lastUsed;
+    private long connects;
+
+    public SmtpTransportSession(JavaMailSenderImpl mailSender, long idleMillis) {
+        this(mailSender, idleMillis, System::currentTimeMillis);
+    }
+
+    SmtpTransportSession(JavaMailSenderImpl mailSender, long idleMillis, LongSupplier clockMillis) {
+        this.mailSender = mailSender;
+        this.idleMillis = idleMillis;
+        this.clockMillis = clockMillis;
+    }
+
+    public MimeMessage createMessage() {
+        return new MimeMessage(mailSender.getSession());
+    }
+
+    public void send(MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+
+        Transport connected = connected();
+        try {
+            connected.sendMessage(message, message.getAllRecipients());
+            lastUsed = clockMillis.getAsLong();
+        } catch (MessagingException e) {
+            close();
+            throw e;
+        }
+    }
+
+    public void closeIfIdle() {
+        if (transport != null && clockMillis.getAsLong() - lastUsed > idleMillis) {
+            log.debug("Closing idle SMTP connection");
+            close();
+        }
+    }
+
+    public long getConnects() {
+        return connects;
+    }
+
+    public boolean isOpen() {
+        return transport != null;
+    }
+
+    @Override
+    public void close() {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+        transport = null;
+    }
+
+    private Transport connected() throws MessagingException {
+        long now = clockMillis.getAsLong();
+        if (transport != null && (now - lastUsed < TRUST_CONNECTION_MILLIS || transport.isConnected())) {
+            return transport;
+        }
+        close();
+
+        Transport fresh = mailSender.getSession().getTransport(mailSender.getProtocol());
+        String username = mailSender.getUsername();
+        fresh.connect(mailSender.getHost(), mailSender.getPort(),
+                username != null && !username.isBlank() ? username : null,
+                mailSender.getPassword());
+        transport = fresh;
+        lastUsed = now;
+        connects++;
+        log.debug("Opened SMTP connection to {}:{}", mailSender.getHost(), mailSender.getPort());
+        return transport;
+    }
+}
@@ -15,9 +15,11 @@ import com.thanhnb.englishlearning.exception.ResourceNotFoundException;
 import com.thanhnb.englishlearning.repository.grammar.GrammarLessonRepository;
 import com.thanhnb.englishlearning.repository.grammar.UserGrammarProgressRepository;
 import com.thanhnb.englishlearning.service.common.BaseLearningService;
+import com.thanhnb.englishlearning.service.common.SubmissionFollowUpService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -109,59 +111,80 @@ public class GrammarLearningService extends BaseLearningService<GrammarLesson, U
     // SUBMIT LESSON
     // ═══════════════════════════════════════════════════════════
 
+    /**
+     * Không chạy trong transaction của class: chuẩn bị + chấm điểm chỉ đọc, transaction ghi chỉ bọc progress,
+     * check nâng level sau commit (xem BaseLearningService.processSubmission)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public GrammarSubmitResponse submitLesson(Long userId, GrammarSubmitRequest request) {
-        GrammarLesson lesson = lessonRepository.findById(request.getLessonId())
-                .orElseThrow(() -> new ResourceNotFoundException("Lesson not found"));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        List<GrammarLesson> allLessons = lessonRepository
-                .findByTopicIdAndIsActiveTrueOrderByOrderIndexAsc(lesson.getTopic().getId());
-
-        validateLessonAccess(lesson, allLessons, userId,
-                progressRepository::existsByUserIdAndLessonIdAndIsCompletedTrue, user.getEnglishLevel());
+        SubmitContext<GrammarLesson> ctx = inReadOnlyTransaction(() -> {
+            GrammarLesson lesson = lessonRepository.findById(request.getLessonId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Lesson not found"));
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+            List<GrammarLesson> allLessons = lessonRepository
+                    .findByTopicIdAndIsActiveTrueOrderByOrderIndexAsc(lesson.getTopic().getId());
+
+            // Đồng thời khởi tạo topic (lazy) → dùng được sau khi transaction đóng
+            validateLessonAccess(lesson, allLessons, userId,
+                    progressRepository::existsByUserIdAndLessonIdAndIsCompletedTrue, user.getEnglishLevel());
+            return new SubmitContext<>(lesson, allLessons);
+        });
+        GrammarLesson lesson = ctx.lesson();
 
         if (lesson.getLessonType() == LessonType.PRACTICE) {
             // 🔥 Practice: Dùng hàm chung Base
-            SubmitResultDTO res = processSubmission(userId, lesson, allLessons, request.getAnswers(),
+            SubmitResultDTO res = processSubmission(userId, lesson, ctx.allLessons(), request.getAnswers(),
                     ModuleType.GRAMMAR);
             return GrammarSubmitResponse.of(
                     lesson.getId(), lesson.getTitle(),
                     res.totalQuestions(), res.correctCount(), res.totalScore(), res.scorePercentage(),
                     res.isPassed(), res.pointsEarned(), res.hasUnlockedNext(), res.nextLessonId(),
-                    res.results(), res.levelUpgradeResult());
+                    res.results(), res.levelUpgradeResult(), res.followUpId());
         } else {
             // 🔥 Theory: Logic riêng (vì không chấm điểm câu hỏi)
-            return submitTheoryLesson(userId, lesson, allLessons, request);
+            return submitTheoryLesson(userId, lesson, ctx.allLessons(), request);
         }
     }
 
     private GrammarSubmitResponse submitTheoryLesson(Long userId, GrammarLesson lesson, List<GrammarLesson> allLessons,
             GrammarSubmitRequest request) {
-        UserGrammarProgress progress = findProgress(userId, lesson.getId())
-                .orElseGet(() -> createNewProgressInstance(userId, lesson));
-
-        if (request.getReadingTimeSecond() != null) {
-            int current = progress.getReadingTime() != null ? progress.getReadingTime() : 0;
-            progress.setReadingTime(current + request.getReadingTimeSecond());
-        }
-
-        User user = userRepository.getReferenceById(userId);
-        var updateResult = lessonProgressService.updateProgress(progress, user, 100.0, true, lesson.getPointsReward(),
-                getParentType());
-        saveProgress(progress);
+        ProgressWrite write = inWriteTransaction(() -> {
+            UserGrammarProgress progress = findProgress(userId, lesson.getId())
+                    .orElseGet(() -> createNewProgressInstance(userId, lesson));
+
+            if (request.getReadingTimeSecond() != null) {
+                int current = progress.getReadingTime() != null ? progress.getReadingTime() : 0;
+                progress.setReadingTime(current + request.getReadingTimeSecond());
+            }
+
+            User user = userRepository.getReferenceById(userId);
+            var result = lessonProgressService.updateProgress(progress, user, 100.0, true,
+                    lesson.getPointsReward(), getParentType());
+            saveProgress(progress);
+            boolean topicCompleted = recordLevelProgress(userId, ModuleType.GRAMMAR, lesson.getTopic().getId(),
+                    result.isFirstCompletion());
+
+            // Listener streak / tracking chạy AFTER_COMMIT → phát trong transaction ghi
+            publishTrackingEvent(userId, lesson, ModuleType.GRAMMAR, List.of());
+            return new ProgressWrite(result, topicCompleted);
+        });
+        var updateResult = write.result();
 
         GrammarLesson next = findNextLesson(lesson, allLessons);
         Long nextId = next != null ? next.getId() : null;
         boolean unlocked = updateResult.isFirstCompletion() && next != null;
 
-        var levelRes = (updateResult.isFirstCompletion())
-                ? levelUpgradeService.checkAndUpgradeLevel(userId, ModuleType.GRAMMAR, lesson.getTopic().getId())
-                : null;
+        var levelCheck = (updateResult.isFirstCompletion())
+                ? submissionFollowUpService.checkLevel(userId, ModuleType.GRAMMAR, lesson.getTopic().getId(),
+                        write.topicCompleted())
+                : SubmissionFollowUpService.LevelCheck.NONE;
 
         return GrammarSubmitResponse.of(
                 lesson.getId(), lesson.getTitle(), 0, 0, 0, 100.0, true,
-                updateResult.getPointsEarned(), unlocked, nextId, null, levelRes);
+                updateResult.getPointsEarned(), unlocked, nextId, null,
+                levelCheck.result(), levelCheck.followUpId());
     }
 
     // ═══════════════════════════════════════════════════════════
@@ -224,11 +247,14 @@ public class GrammarLearningService extends BaseLearningService<GrammarLesson, U
                 .lessonType(lesson.getLessonType()).timeLimitSeconds(lesson.getTimeLimitSeconds())
                 .pointsReward(lesson.getPointsReward()).requiredLevel(getLessonRequiredLevel(lesson)).build();
 
+        Optional<UserGrammarProgress> progressOpt = findProgress(userId, lessonId);
+
         if (lesson.getLessonType() == LessonType.PRACTICE) {
-            dto.withGroupedQuestions(getGroupedQuestionsForLesson(lessonId));
+            dto.withGroupedQuestions(getSharedGroupedQuestions(lessonId, userId,
+                    progressOpt.map(UserGrammarProgress::getAttempts).orElse(0)));
         }
 
-        findProgress(userId, lessonId).ifPresent(p -> dto.withProgress(
+        progressOpt.ifPresent(p -> dto.withProgress(
                 p.getIsCompleted(),
                 p.getScorePercentage() != null ? p.getScorePercentage().intValue() : 0,
                 p.getAttempts(), p.getCompletedAt()));
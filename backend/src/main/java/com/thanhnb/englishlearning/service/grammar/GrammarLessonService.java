@@ -7,11 +7,15 @@ import com.thanhnb.englishlearning.dto.question.response.TaskGroupResponseDTO;
 import com.thanhnb.englishlearning.entity.grammar.GrammarLesson;
 import com.thanhnb.englishlearning.entity.topic.Topic;
 import com.thanhnb.englishlearning.entity.user.User;
+import com.thanhnb.englishlearning.enums.ModuleType;
 import com.thanhnb.englishlearning.enums.ParentType;
 import com.thanhnb.englishlearning.exception.ResourceNotFoundException;
 import com.thanhnb.englishlearning.repository.grammar.GrammarLessonRepository;
+import com.thanhnb.englishlearning.repository.ordering.OrderScope;
 import com.thanhnb.englishlearning.repository.question.QuestionRepository;
 import com.thanhnb.englishlearning.repository.topic.TopicRepository;
+import com.thanhnb.englishlearning.service.deletion.BulkDeletionService;
+import com.thanhnb.englishlearning.service.ordering.OrderingService;
 import com.thanhnb.englishlearning.service.permission.TeacherPermissionService;
 import com.thanhnb.englishlearning.service.question.TaskGroupService;
 import com.thanhnb.englishlearning.service.user.UserService;
@@ -24,7 +28,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -44,6 +47,8 @@ public class GrammarLessonService {
     private final UserService userService;
     private final TaskGroupService taskGroupService;
     private final GrammarQuestionService questionService;
+    private final BulkDeletionService bulkDeletionService;
+    private final OrderingService orderingService;
 
     // ═════════════════════════════════════════════════════════════════
     // READ OPERATIONS
@@ -87,7 +92,7 @@ public class GrammarLessonService {
                 .title(dto.getTitle())
                 .lessonType(dto.getLessonType())
                 .content(dto.getContent())
-                .orderIndex(dto.getOrderIndex())
+                .orderIndex(getNextOrderIndex(dto.getTopicId())) // Luôn thêm vào cuối, đổi chỗ qua move
                 .timeLimitSeconds(dto.getTimeLimitSeconds() != null ? dto.getTimeLimitSeconds() : 0)
                 .pointsReward(dto.getPointsReward() != null ? dto.getPointsReward() : 10)
                 .isActive(dto.getIsActive() != null ? dto.getIsActive() : true)
@@ -136,15 +141,12 @@ public class GrammarLessonService {
     public void deleteLesson(Long id) {
         GrammarLesson lesson = findLessonById(id);
         teacherPermissionService.checkTopicPermission(lesson.getTopic().getId());
-        Long topicId = lesson.getTopic().getId();
-        Integer orderIndex = lesson.getOrderIndex();
 
-        // Delete (questions cascade via QuestionCascadeDeleteListener)
-        lessonRepository.delete(lesson);
+        // Delete lesson + questions + task groups + progress (set-based)
+        bulkDeletionService.deleteLessons(ModuleType.GRAMMAR, List.of(id));
         log.info("Deleted grammar lesson: id={}", id);
 
-        // Reorder remaining lessons
-        reorderAfterDelete(topicId, orderIndex);
+        // Không đánh số lại các lesson còn lại: order_index thưa, khe trống không ảnh hưởng thứ tự
     }
 
     // ═════════════════════════════════════════════════════════════════
@@ -165,34 +167,16 @@ public class GrammarLessonService {
     // ORDER MANAGEMENT
     // ═════════════════════════════════════════════════════════════════
 
-    public void fixOrderIndexes(Long topicId) {
-        // Lấy danh sách
-        List<GrammarLesson> lessons = lessonRepository.findByTopicIdOrderByOrderIndexAsc(topicId);
-        
-        // ✅ Sort lại trong memory để đảm bảo ổn định (ID tăng dần nếu trùng Order)
-        lessons.sort(Comparator.comparingInt(GrammarLesson::getOrderIndex)
-                .thenComparingLong(GrammarLesson::getId));
-
-        boolean changed = false;
-        for (int i = 0; i < lessons.size(); i++) {
-            GrammarLesson lesson = lessons.get(i);
-            int expected = i + 1;
-            
-            if (!Integer.valueOf(expected).equals(lesson.getOrderIndex())) {
-                lesson.setOrderIndex(expected);
-                changed = true;
-            }
-        }
-
-        if (changed) {
-            lessonRepository.saveAll(lessons);
-            log.info("Fixed order indexes for {} lessons in topic {}", lessons.size(), topicId);
-        }
+    /**
+     * Dàn đều lại order_index các lesson của topic (nút "Fix Order").
+     * Kéo thả / sắp xếp hàng loạt đi qua OrderingService (move / reorder)
+     */
+    public int rebalanceOrder(Long topicId) {
+        return orderingService.rebalance(OrderScope.lessons(ParentType.GRAMMAR, topicId));
     }
 
     public Integer getNextOrderIndex(Long topicId) {
-        Integer max = lessonRepository.findMaxOrderIndexByTopicId(topicId);
-        return (max != null ? max : 0) + 1;
+        return orderingService.nextKey(OrderScope.lessons(ParentType.GRAMMAR, topicId));
     }
 
     // GrammarLessonService.java
@@ -224,7 +208,7 @@ public GrammarLessonDTO createLessonWithQuestionsAndTasks(GrammarLessonDTO dto)
             .title(dto.getTitle())
             .lessonType(dto.getLessonType())
             .content(dto.getContent())
-            .orderIndex(dto.getOrderIndex())
+            .orderIndex(getNextOrderIndex(dto.getTopicId())) // Luôn thêm vào cuối, đổi chỗ qua move
             .timeLimitSeconds(dto.getTimeLimitSeconds() != null ? dto.getTimeLimitSeconds() : 0)
             .pointsReward(dto.getPointsReward() != null ? dto.getPointsReward() : 10)
             .isActive(dto.getIsActive() != null ? dto.getIsActive() : true)
@@ -262,8 +246,7 @@ public GrammarLessonDTO createLessonWithQuestionsAndTasks(GrammarLessonDTO dto)
                     // Auto-assign order if missing
                     if (questionDTO.getOrderIndex() == null || questionDTO.getOrderIndex() == 0) {
                         questionDTO.setOrderIndex(
-                            questionRepository.findMaxOrderIndexByLessonId(ParentType.GRAMMAR, lesson.getId())
-                                .orElse(0) + 1
+                            questionService.getNextOrderIndex(lesson.getId())
                         );
                     }
                     
@@ -283,8 +266,7 @@ public GrammarLessonDTO createLessonWithQuestionsAndTasks(GrammarLessonDTO dto)
             
             if (questionDTO.getOrderIndex() == null || questionDTO.getOrderIndex() == 0) {
                 questionDTO.setOrderIndex(
-                    questionRepository.findMaxOrderIndexByLessonId(ParentType.GRAMMAR, lesson.getId())
-                        .orElse(0) + 1
+                    questionService.getNextOrderIndex(lesson.getId())
                 );
             }
             
@@ -316,9 +298,6 @@ public GrammarLessonDTO createLessonWithQuestionsAndTasks(GrammarLessonDTO dto)
         if (dto.getLessonType() == null) {
             throw new IllegalArgumentException("Lesson type is required");
         }
-        if (dto.getOrderIndex() == null || dto.getOrderIndex() < 1) {
-            throw new IllegalArgumentException("Order index must be >= 1");
-        }
     }
 
     private void updateFields(GrammarLesson lesson, GrammarLessonDTO dto) {
@@ -338,11 +317,6 @@ public GrammarLessonDTO createLessonWithQuestionsAndTasks(GrammarLessonDTO dto)
             lesson.setIsActive(dto.getIsActive());
         }
 
-    private void reorderAfterDelete(Long topicId, Integer deletedPosition) {
-        int affected = lessonRepository.shiftOrderAfterDelete(topicId, deletedPosition);
-        log.debug("Reordered {} lessons after deletion", affected);
-    }
-
     private GrammarLessonDTO toDTO(GrammarLesson lesson) {
         long questionCount = questionRepository.countByParentTypeAndParentId(
                 ParentType.GRAMMAR, lesson.getId());
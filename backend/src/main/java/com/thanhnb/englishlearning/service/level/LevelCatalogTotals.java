@@ -0,0 +1,166 @@
+package com.thanhnb.englishlearning.service.level;
+
+import com.thanhnb.englishlearning.config.LevelProgressProperties;
+import com.thanhnb.englishlearning.enums.EnglishLevel;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.event.LevelCatalogChangedEvent;
+import com.thanhnb.englishlearning.repository.grammar.GrammarLessonRepository;
+import com.thanhnb.englishlearning.repository.listening.ListeningLessonRepository;
+import com.thanhnb.englishlearning.repository.reading.ReadingLessonRepository;
+import com.thanhnb.englishlearning.repository.topic.TopicRepository;
+import com.thanhnb.englishlearning.service.catalog.CatalogVersionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 📊 Tổng số lesson active / topic theo level của catalog, giữ trong bộ nhớ
+ *
+ * - Tính lại khi version của 3 module trong CatalogVersionService đổi (mọi thay đổi topic / lesson
+ *   đều bump module, kể cả đường bulk) → kiểm tra chỉ tốn 1 HMGET
+ * - Không đọc được version (Redis lỗi / cache tắt) → tính lại theo app.level-progress.totals-ttl-seconds
+ * - Topic có số lesson / level / trạng thái khác lần tính trước → publish LevelCatalogChangedEvent
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LevelCatalogTotals {
+
+    private static final List<String> MODULE_FIELDS = Arrays.stream(ModuleType.values())
+            .map(CatalogVersionService::moduleField)
+            .toList();
+
+    private final TopicRepository topicRepository;
+    private final GrammarLessonRepository grammarLessonRepository;
+    private final ReadingLessonRepository readingLessonRepository;
+    private final ListeningLessonRepository listeningLessonRepository;
+    private final CatalogVersionService catalogVersionService;
+    private final LevelProgressProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile Snapshot current;
+
+    /**
+     * Thông tin 1 topic dùng để xét hoàn thành
+     */
+    public record TopicTotal(ModuleType module, EnglishLevel level, boolean active, int activeLessons) {
+
+        /**
+         * Giống điều kiện cũ: topic không có lesson active thì không bao giờ "hoàn thành"
+         */
+        public boolean isCompletedBy(int completedLessons) {
+            return active && activeLessons > 0 && completedLessons >= activeLessons;
+        }
+    }
+
+    public record Snapshot(String token, long loadedAt,
+            Map<Long, TopicTotal> topics,
+            Map<ModuleType, Map<EnglishLevel, Integer>> requiredTopics) {
+
+        /**
+         * @return null nếu topic không còn tồn tại
+         */
+        public TopicTotal topic(Long topicId) {
+            return topics.get(topicId);
+        }
+
+        /**
+         * Số topic active của module ở level (điều kiện "hoàn thành hết topic của level")
+         */
+        public int requiredTopics(ModuleType module, EnglishLevel level) {
+            Map<EnglishLevel, Integer> byLevel = requiredTopics.get(module);
+            return byLevel != null ? byLevel.getOrDefault(level, 0) : 0;
+        }
+    }
+
+    public Snapshot current() {
+        String token = catalogVersionService.versionToken(MODULE_FIELDS);
+        Snapshot snapshot = current;
+        if (isFresh(snapshot, token)) {
+            return snapshot;
+        }
+
+        synchronized (this) {
+            snapshot = current;
+            if (isFresh(snapshot, token)) {
+                return snapshot;
+            }
+            Snapshot loaded = load(token);
+            current = loaded;
+
+            if (snapshot != null) {
+                Set<Long> changed = changedTopics(snapshot, loaded);
+                if (!changed.isEmpty()) {
+                    log.info("📊 Level catalog changed: {} topics need reconciliation", changed.size());
+                    eventPublisher.publishEvent(new LevelCatalogChangedEvent(this, changed));
+                }
+            }
+            return loaded;
+        }
+    }
+
+    private boolean isFresh(Snapshot snapshot, String token) {
+        if (snapshot == null) {
+            return false;
+        }
+        if (token != null) {
+            return token.equals(snapshot.token());
+        }
+        return snapshot.token() == null
+                && System.currentTimeMillis() - snapshot.loadedAt() < properties.getTotalsTtlSeconds() * 1000;
+    }
+
+    private Snapshot load(String token) {
+        Map<Long, Integer> lessonCounts = new HashMap<>();
+        collectCounts(grammarLessonRepository.countActiveLessonsGroupByTopic(), lessonCounts);
+        collectCounts(readingLessonRepository.countActiveLessonsGroupByTopic(), lessonCounts);
+        collectCounts(listeningLessonRepository.countActiveLessonsGroupByTopic(), lessonCounts);
+
+        Map<Long, TopicTotal> topics = new HashMap<>();
+        Map<ModuleType, Map<EnglishLevel, Integer>> required = new EnumMap<>(ModuleType.class);
+        for (Object[] row : topicRepository.findLevelCatalogRows()) {
+            Long topicId = (Long) row[0];
+            ModuleType module = (ModuleType) row[1];
+            EnglishLevel level = (EnglishLevel) row[2];
+            boolean active = Boolean.TRUE.equals(row[3]);
+            topics.put(topicId, new TopicTotal(module, level, active, lessonCounts.getOrDefault(topicId, 0)));
+
+            if (active && module != null && level != null) {
+                required.computeIfAbsent(module, m -> new EnumMap<>(EnglishLevel.class))
+                        .merge(level, 1, Integer::sum);
+            }
+        }
+
+        log.debug("📊 Loaded level catalog totals: {} topics (token={})", topics.size(), token);
+        return new Snapshot(token, System.currentTimeMillis(), Map.copyOf(topics), required);
+    }
+
+    private static void collectCounts(List<Object[]> rows, Map<Long, Integer> target) {
+        for (Object[] row : rows) {
+            target.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+    }
+
+    private static Set<Long> changedTopics(Snapshot before, Snapshot after) {
+        Set<Long> changed = new HashSet<>();
+        after.topics().forEach((id, total) -> {
+            if (!Objects.equals(before.topic(id), total)) {
+                changed.add(id);
+            }
+        });
+        before.topics().keySet().stream()
+                .filter(id -> !after.topics().containsKey(id))
+                .forEach(changed::add);
+        return changed;
+    }
+}
@@ -0,0 +1,211 @@
+package com.thanhnb.englishlearning.service.level;
+
+import com.thanhnb.englishlearning.config.LevelProgressProperties;
+import com.thanhnb.englishlearning.entity.level.UserTopicProgress;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.event.LevelCatalogChangedEvent;
+import com.thanhnb.englishlearning.repository.level.UserLevelProgressRepository;
+import com.thanhnb.englishlearning.repository.level.UserTopicProgressRepository;
+import com.thanhnb.englishlearning.service.level.LevelCatalogTotals.TopicTotal;
+import com.thanhnb.englishlearning.service.level.LevelProgressService.LevelDelta;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🔄 Đối soát bộ đếm tiến độ level với progress thật
+ *
+ * - Catalog đổi (thêm / xóa / ẩn lesson, đổi level topic...) → LevelCatalogChangedEvent
+ *   → đối soát từng topic trên 1 thread riêng, không chặn request đang chạy
+ * - Job "level-progress-reconcile": quét toàn bộ user đã có bộ đếm, sửa chỗ lệch
+ *   (progress bị xóa / reset ngoài luồng nộp bài, mất event khi node restart...)
+ * - level.progress.drift: tổng số giá trị bộ đếm bị lệch đã sửa → > 0 thường xuyên là dấu hiệu
+ *   có đường ghi progress chưa đi qua LevelProgressService
+ */
+@Service
+@Slf4j
+public class LevelProgressReconciler {
+
+    private final LevelProgressService levelProgressService;
+    private final LevelCatalogTotals catalogTotals;
+    private final UserTopicProgressRepository topicProgressRepository;
+    private final UserLevelProgressRepository levelProgressRepository;
+    private final LevelProgressProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Counter driftCounter;
+
+    public LevelProgressReconciler(LevelProgressService levelProgressService,
+            LevelCatalogTotals catalogTotals,
+            UserTopicProgressRepository topicProgressRepository,
+            UserLevelProgressRepository levelProgressRepository,
+            LevelProgressProperties properties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.levelProgressService = levelProgressService;
+        this.catalogTotals = catalogTotals;
+        this.topicProgressRepository = topicProgressRepository;
+        this.levelProgressRepository = levelProgressRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getTopicQueueCapacity())),
+                r -> {
+                    Thread t = new Thread(r, "level-progress-reconciler");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.driftCounter = Counter.builder("level.progress.drift")
+                .description("Số giá trị bộ đếm tiến độ level bị lệch đã được đối soát sửa")
+                .register(meterRegistry);
+        Gauge.builder("level.progress.reconcile.queue.depth", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // ==================== CATALOG ĐỔI ====================
+
+    @EventListener
+    public void onCatalogChanged(LevelCatalogChangedEvent event) {
+        for (Long topicId : event.getTopicIds()) {
+            try {
+                executor.execute(() -> reconcileTopicSafely(topicId));
+            } catch (RejectedExecutionException e) {
+                log.warn("⚠️ Level reconcile queue full - topic {} skipped (will be fixed by reconcile job)", topicId);
+            }
+        }
+    }
+
+    private void reconcileTopicSafely(Long topicId) {
+        try {
+            int drift = reconcileTopic(topicId);
+            log.debug("🔄 Reconciled level counters of topic {}: {} values corrected", topicId, drift);
+        } catch (Exception e) {
+            log.error("❌ Failed to reconcile level counters of topic {}: {}", topicId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Tính lại bộ đếm của mọi user có row trong topic theo catalog + progress hiện tại
+     *
+     * @return số giá trị bộ đếm đã sửa
+     */
+    public int reconcileTopic(Long topicId) {
+        Integer drift = transactionTemplate.execute(status -> {
+            TopicTotal total = catalogTotals.current().topic(topicId);
+            List<UserTopicProgress> rows = topicProgressRepository.findByTopicId(topicId);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+
+            // Gom delta theo (user, module, level) → mỗi bộ đếm level chỉ 1 câu UPDATE
+            Map<String, LevelDelta> deltas = new LinkedHashMap<>();
+            int changed = 0;
+
+            if (total == null) {
+                // Topic đã bị xóa hẳn: trừ khỏi bộ đếm level rồi bỏ row
+                for (UserTopicProgress row : rows) {
+                    if (Boolean.TRUE.equals(row.getCompleted()) && row.getLevel() != null) {
+                        merge(deltas, new LevelDelta(row.getUserId(), row.getModuleType(), row.getLevel(), -1));
+                    }
+                }
+                topicProgressRepository.deleteAllInBatch(rows);
+                changed = rows.size();
+            } else {
+                Map<Long, Integer> actual = levelProgressService.completedLessonsByUser(total.module(), topicId);
+                LocalDateTime now = LocalDateTime.now();
+                for (UserTopicProgress row : rows) {
+                    int expected = actual.getOrDefault(row.getUserId(), 0);
+                    if (row.getCompletedLessons() != expected) {
+                        row.setCompletedLessons(expected);
+                        row.setUpdatedAt(now);
+                        changed++;
+                    }
+                    List<LevelDelta> rowDeltas = levelProgressService.applyCatalog(row, total);
+                    if (!rowDeltas.isEmpty()) {
+                        changed++;
+                        rowDeltas.forEach(d -> merge(deltas, d));
+                    }
+                }
+            }
+
+            deltas.values().forEach(levelProgressService::applyDelta);
+            return changed;
+        });
+        return drift != null ? drift : 0;
+    }
+
+    private static void merge(Map<String, LevelDelta> deltas, LevelDelta delta) {
+        deltas.merge(delta.userId() + "|" + delta.module() + "|" + delta.level(), delta,
+                (a, b) -> new LevelDelta(a.userId(), a.module(), a.level(), a.delta() + b.delta()));
+    }
+
+    // ==================== JOB ====================
+
+    /**
+     * Quét toàn bộ user đã có bộ đếm (keyset theo userId), mỗi (user, module) 1 transaction ngắn
+     *
+     * @return tổng số giá trị bộ đếm bị lệch đã sửa
+     */
+    public int reconcileAll() {
+        long start = System.currentTimeMillis();
+        int batchSize = Math.max(1, properties.getReconcileBatchSize());
+        long afterUserId = 0L;
+        int users = 0;
+        int drift = 0;
+        int failures = 0;
+
+        while (true) {
+            List<Long> userIds = levelProgressRepository.findUserIdsAfter(afterUserId, PageRequest.of(0, batchSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            for (Long userId : userIds) {
+                for (ModuleType module : ModuleType.values()) {
+                    try {
+                        drift += levelProgressService.reconcileUser(userId, module);
+                    } catch (Exception e) {
+                        failures++;
+                        log.warn("⚠️ Failed to reconcile level counters for user {} in {}: {}",
+                                userId, module, e.getMessage());
+                    }
+                }
+            }
+            users += userIds.size();
+            afterUserId = userIds.get(userIds.size() - 1);
+        }
+
+        driftCounter.increment(drift);
+        if (drift > 0) {
+            log.warn("🔄 Level progress reconcile: {} users, {} drifted values corrected, {} failures in {}ms",
+                    users, drift, failures, System.currentTimeMillis() - start);
+        } else {
+            log.info("🔄 Level progress reconcile: {} users, no drift, {} failures in {}ms",
+                    users, failures, System.currentTimeMillis() - start);
+        }
+        return drift;
+    }
+}
@@ -0,0 +1,257 @@
+package com.thanhnb.englishlearning.service.level;
+
+import com.thanhnb.englishlearning.entity.level.UserLevelProgress;
+import com.thanhnb.englishlearning.entity.level.UserTopicProgress;
+import com.thanhnb.englishlearning.enums.EnglishLevel;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.repository.grammar.UserGrammarProgressRepository;
+import com.thanhnb.englishlearning.repository.level.UserLevelProgressRepository;
+import com.thanhnb.englishlearning.repository.level.UserTopicProgressRepository;
+import com.thanhnb.englishlearning.repository.listening.UserListeningProgressRepository;
+import com.thanhnb.englishlearning.repository.reading.UserReadingProgressRepository;
+import com.thanhnb.englishlearning.service.level.LevelCatalogTotals.Snapshot;
+import com.thanhnb.englishlearning.service.level.LevelCatalogTotals.TopicTotal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * ✅ Bộ đếm tiến độ level của user (thay cho đếm lại progress mỗi lần nộp bài)
+ *
+ * - user_topic_progress: số lesson đã hoàn thành / topic, cờ completed theo catalog hiện tại
+ * - user_level_progress: số topic đã hoàn thành / (module, level)
+ *
+ * Luồng nộp bài: +1 lesson → nếu topic vừa đủ lesson thì +1 topic của level → điều kiện nâng level
+ * chỉ còn so sánh bộ đếm với LevelCatalogTotals (1 query cho cả 3 module).
+ * User có progress từ trước khi có bộ đếm được dựng lại từ progress ở lần đầu chạm tới module.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LevelProgressService {
+
+    private final UserTopicProgressRepository topicProgressRepository;
+    private final UserLevelProgressRepository levelProgressRepository;
+    private final UserGrammarProgressRepository grammarProgressRepo;
+    private final UserReadingProgressRepository readingProgressRepo;
+    private final UserListeningProgressRepository listeningProgressRepo;
+    private final LevelCatalogTotals catalogTotals;
+
+    /**
+     * Thay đổi bộ đếm level do 1 row topic đổi trạng thái
+     */
+    public record LevelDelta(Long userId, ModuleType module, EnglishLevel level, int delta) {
+    }
+
+    /**
+     * Tiến độ của user tại 1 level trên cả 3 module
+     */
+    public record LevelStatus(EnglishLevel level,
+            Map<ModuleType, Integer> completedTopics,
+            Map<ModuleType, Integer> requiredTopics) {
+
+        /**
+         * Giống điều kiện cũ: module không có topic nào ở level này thì không tính là hoàn thành
+         */
+        public boolean isModuleCompleted(ModuleType module) {
+            int required = requiredTopics.getOrDefault(module, 0);
+            return required > 0 && completedTopics.getOrDefault(module, 0) >= required;
+        }
+    }
+
+    // ==================== LUỒNG NỘP BÀI ====================
+
+    /**
+     * Ghi nhận user vừa hoàn thành 1 lesson lần đầu (progress đã được cập nhật trong transaction hiện tại)
+     *
+     * @return true nếu topic chứa lesson đã hoàn thành đủ lesson
+     */
+    @Transactional
+    public boolean recordLessonCompleted(Long userId, ModuleType module, Long topicId) {
+        Snapshot totals = catalogTotals.current();
+
+        if (!levelProgressRepository.existsByUserIdAndModuleType(userId, module)) {
+            // Chưa có bộ đếm → dựng từ progress (đã gồm lesson vừa hoàn thành)
+            rebuild(userId, module, totals);
+            return topicProgressRepository.findForUpdate(userId, topicId)
+                    .map(p -> Boolean.TRUE.equals(p.getCompleted()))
+                    .orElse(false);
+        }
+
+        TopicTotal total = totals.topic(topicId);
+        EnglishLevel level = total != null ? total.level() : null;
+        topicProgressRepository.insertIfAbsent(userId, topicId, module.name(), level != null ? level.name() : null);
+        UserTopicProgress row = topicProgressRepository.findForUpdate(userId, topicId)
+                .orElseThrow(() -> new IllegalStateException("Topic progress row missing after insert"));
+
+        row.setCompletedLessons(row.getCompletedLessons() + 1);
+        row.setUpdatedAt(LocalDateTime.now());
+        applyCatalog(row, total).forEach(this::applyDelta);
+
+        log.debug("Topic {} progress for user {}: {} lessons, completed={}",
+                topicId, userId, row.getCompletedLessons(), row.getCompleted());
+        return Boolean.TRUE.equals(row.getCompleted());
+    }
+
+    /**
+     * Bộ đếm của user ở 1 level - 1 query; module chưa có bộ đếm được dựng lại trước
+     */
+    @Transactional
+    public LevelStatus levelStatus(Long userId, EnglishLevel level) {
+        Snapshot totals = catalogTotals.current();
+
+        Map<ModuleType, Integer> completed = new EnumMap<>(ModuleType.class);
+        levelProgressRepository.findByUserIdAndLevel(userId, level)
+                .forEach(p -> completed.put(p.getModuleType(), p.getCompletedTopics()));
+
+        Map<ModuleType, Integer> required = new EnumMap<>(ModuleType.class);
+        for (ModuleType module : ModuleType.values()) {
+            if (!completed.containsKey(module)) {
+                rebuild(userId, module, totals);
+                levelProgressRepository.findByUserIdAndModuleType(userId, module).stream()
+                        .filter(p -> p.getLevel() == level)
+                        .findFirst()
+                        .ifPresent(p -> completed.put(module, p.getCompletedTopics()));
+            }
+            required.put(module, totals.requiredTopics(module, level));
+        }
+        return new LevelStatus(level, completed, required);
+    }
+
+    // ==================== ĐỐI SOÁT ====================
+
+    /**
+     * Tính lại bộ đếm của user trong 1 module từ progress thật
+     *
+     * @return số giá trị bộ đếm bị lệch đã sửa
+     */
+    @Transactional
+    public int reconcileUser(Long userId, ModuleType module) {
+        return rebuild(userId, module, catalogTotals.current());
+    }
+
+    /**
+     * Đồng bộ cờ completed / level của row theo catalog (không cộng trừ bộ đếm level - caller áp delta)
+     *
+     * @return các thay đổi cần áp vào user_level_progress (rỗng nếu row không đổi trạng thái)
+     */
+    List<LevelDelta> applyCatalog(UserTopicProgress row, TopicTotal total) {
+        boolean wasCompleted = Boolean.TRUE.equals(row.getCompleted());
+        EnglishLevel oldLevel = row.getLevel();
+        boolean completed = total != null && total.isCompletedBy(row.getCompletedLessons());
+        EnglishLevel level = total != null ? total.level() : oldLevel;
+
+        if (completed == wasCompleted && Objects.equals(level, oldLevel)) {
+            return List.of();
+        }
+
+        List<LevelDelta> deltas = new ArrayList<>(2);
+        if (wasCompleted && oldLevel != null) {
+            deltas.add(new LevelDelta(row.getUserId(), row.getModuleType(), oldLevel, -1));
+        }
+        if (completed && level != null) {
+            deltas.add(new LevelDelta(row.getUserId(), row.getModuleType(), level, 1));
+        }
+        row.setCompleted(completed);
+        row.setLevel(level);
+        row.setUpdatedAt(LocalDateTime.now());
+        return deltas;
+    }
+
+    void applyDelta(LevelDelta delta) {
+        if (delta.delta() != 0) {
+            levelProgressRepository.addCompletedTopics(delta.userId(), delta.module(), delta.level(), delta.delta());
+        }
+    }
+
+    /**
+     * Số lesson đã hoàn thành của từng user trong 1 topic
+     */
+    Map<Long, Integer> completedLessonsByUser(ModuleType module, Long topicId) {
+        List<Object[]> rows = switch (module) {
+            case GRAMMAR -> grammarProgressRepo.countCompletedLessonsGroupByUser(topicId);
+            case READING -> readingProgressRepo.countCompletedLessonsGroupByUser(topicId);
+            case LISTENING -> listeningProgressRepo.countCompletedLessonsGroupByUser(topicId);
+        };
+        return toCountMap(rows);
+    }
+
+    private int rebuild(Long userId, ModuleType module, Snapshot totals) {
+        Map<Long, Integer> actual = completedLessonsByTopic(userId, module);
+
+        // Tạo row còn thiếu bằng INSERT ... ON CONFLICT → 2 lần dựng song song không đụng unique constraint
+        actual.keySet().forEach(topicId -> {
+            TopicTotal total = totals.topic(topicId);
+            EnglishLevel level = total != null ? total.level() : null;
+            topicProgressRepository.insertIfAbsent(userId, topicId, module.name(), level != null ? level.name() : null);
+        });
+
+        int drift = 0;
+        LocalDateTime now = LocalDateTime.now();
+        Map<EnglishLevel, Integer> expectedTopics = new EnumMap<>(EnglishLevel.class);
+        for (UserTopicProgress row : topicProgressRepository.findByUserIdAndModuleType(userId, module)) {
+            int expectedLessons = actual.getOrDefault(row.getTopicId(), 0);
+            if (row.getCompletedLessons() != expectedLessons) {
+                row.setCompletedLessons(expectedLessons);
+                row.setUpdatedAt(now);
+                drift++;
+            }
+
+            TopicTotal total = totals.topic(row.getTopicId());
+            boolean completed = total != null && total.isCompletedBy(expectedLessons);
+            EnglishLevel level = total != null ? total.level() : row.getLevel();
+            if (completed != Boolean.TRUE.equals(row.getCompleted()) || !Objects.equals(level, row.getLevel())) {
+                row.setCompleted(completed);
+                row.setLevel(level);
+                row.setUpdatedAt(now);
+                drift++;
+            }
+            if (completed && level != null) {
+                expectedTopics.merge(level, 1, Integer::sum);
+            }
+        }
+
+        for (EnglishLevel level : EnglishLevel.values()) {
+            levelProgressRepository.insertIfAbsent(userId, module.name(), level.name());
+        }
+        for (UserLevelProgress row : levelProgressRepository.findByUserIdAndModuleType(userId, module)) {
+            int expected = expectedTopics.getOrDefault(row.getLevel(), 0);
+            if (row.getCompletedTopics() != expected) {
+                row.setCompletedTopics(expected);
+                row.setUpdatedAt(now);
+                drift++;
+            }
+        }
+
+        if (drift > 0) {
+            log.debug("Rebuilt level counters for user {} in {}: {} values corrected", userId, module, drift);
+        }
+        return drift;
+    }
+
+    private Map<Long, Integer> completedLessonsByTopic(Long userId, ModuleType module) {
+        List<Object[]> rows = switch (module) {
+            case GRAMMAR -> grammarProgressRepo.countCompletedLessonsGroupByTopic(userId);
+            case READING -> readingProgressRepo.countCompletedLessonsGroupByTopic(userId);
+            case LISTENING -> listeningProgressRepo.countCompletedLessonsGroupByTopic(userId);
+        };
+        return toCountMap(rows);
+    }
+
+    private static Map<Long, Integer> toCountMap(List<Object[]> rows) {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return counts;
+    }
+}
@@ -3,14 +3,8 @@ package com.thanhnb.englishlearning.service.level;
 import com.thanhnb.englishlearning.entity.user.User;
 import com.thanhnb.englishlearning.enums.EnglishLevel;
 import com.thanhnb.englishlearning.enums.ModuleType;
-import com.thanhnb.englishlearning.repository.grammar.GrammarLessonRepository;
-import com.thanhnb.englishlearning.repository.grammar.UserGrammarProgressRepository;
-import com.thanhnb.englishlearning.repository.listening.ListeningLessonRepository;
-import com.thanhnb.englishlearning.repository.listening.UserListeningProgressRepository;
-import com.thanhnb.englishlearning.repository.reading.ReadingLessonRepository;
-import com.thanhnb.englishlearning.repository.reading.UserReadingProgressRepository;
-import com.thanhnb.englishlearning.repository.topic.TopicRepository;
 import com.thanhnb.englishlearning.repository.user.UserRepository;
+import com.thanhnb.englishlearning.service.level.LevelProgressService.LevelStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -24,6 +18,8 @@ import org.springframework.transaction.annotation.Transactional;
  * - Grammar: Cho phép partial upgrade (chỉ cần hoàn thành Grammar topic)
  * - Reading/Listening: Phải hoàn thành cả 3 kỹ năng mới unlock level cao hơn
  * - Level tăng theo thứ tự: A1 → A2 → B1 → B2 → C1 → C2
+ *
+ * Điều kiện được tính trên bộ đếm của LevelProgressService (không đếm lại progress từng topic).
  */
 @Service
 @RequiredArgsConstructor
@@ -31,28 +27,23 @@ import org.springframework.transaction.annotation.Transactional;
 public class LevelUpgradeService {
 
     private final UserRepository userRepository;
-    private final TopicRepository topicRepository;
-    
-    // Progress Repositories
-    private final UserGrammarProgressRepository grammarProgressRepo;
-    private final UserReadingProgressRepository readingProgressRepo;
-    private final UserListeningProgressRepository listeningProgressRepo;
-    
-    // Lesson Repositories
-    private final GrammarLessonRepository grammarLessonRepo;
-    private final ReadingLessonRepository readingLessonRepo;
-    private final ListeningLessonRepository listeningLessonRepo;
+    private final LevelProgressService levelProgressService;
 
     /**
      * Kiểm tra và nâng level cho user sau khi complete lesson
+     *
+     * Bộ đếm lesson đã được cộng trong transaction nộp bài (LevelProgressService.recordLessonCompleted),
+     * ở đây chỉ xét điều kiện và nâng level.
      * 
      * @param userId ID của user
      * @param moduleType Module vừa complete (GRAMMAR/READING/LISTENING)
      * @param completedTopicId ID của topic vừa complete lesson cuối
+     * @param topicCompleted topic đã hoàn thành đủ lesson chưa (kết quả recordLessonCompleted)
      * @return LevelUpgradeResult chứa thông tin về việc nâng level
      */
     @Transactional
-    public LevelUpgradeResult checkAndUpgradeLevel(Long userId, ModuleType moduleType, Long completedTopicId) {
+    public LevelUpgradeResult checkAndUpgradeLevel(Long userId, ModuleType moduleType, Long completedTopicId,
+            boolean topicCompleted) {
         log.info("Checking level upgrade for user={}, module={}, topicId={}", 
             userId, moduleType, completedTopicId);
 
@@ -67,7 +58,7 @@ public class LevelUpgradeService {
         }
 
         // Kiểm tra xem đã complete hết lessons trong topic này chưa
-        if (!isTopicCompleted(userId, moduleType, completedTopicId)) {
+        if (!topicCompleted) {
             log.debug("Topic {} not fully completed yet for user {}", completedTopicId, userId);
             return LevelUpgradeResult.noUpgrade("Hoàn thành tất cả bài học trong chủ đề này");
         }
@@ -75,24 +66,25 @@ public class LevelUpgradeService {
         // ✅ Topic vừa complete xong
         log.info("User {} completed topic {} in {}", userId, completedTopicId, moduleType);
 
+        // Bộ đếm topic của level hiện tại trên cả 3 module (1 query)
+        LevelStatus status = levelProgressService.levelStatus(userId, currentLevel);
+
         // Kiểm tra điều kiện nâng level theo module
         if (moduleType == ModuleType.GRAMMAR) {
             // Grammar: Cho phép partial upgrade
-            return checkGrammarUpgrade(user, currentLevel);
+            return checkGrammarUpgrade(user, currentLevel, status);
         } else {
             // Reading/Listening: Cần đủ 3 kỹ năng
-            return checkFullUpgrade(user, currentLevel, moduleType);
+            return checkFullUpgrade(user, currentLevel, moduleType, status);
         }
     }
 
     /**
      * Kiểm tra nâng level cho Grammar (partial upgrade)
      */
-    private LevelUpgradeResult checkGrammarUpgrade(User user, EnglishLevel currentLevel) {
-        Long userId = user.getId();
-        
+    private LevelUpgradeResult checkGrammarUpgrade(User user, EnglishLevel currentLevel, LevelStatus status) {
         // Kiểm tra xem đã hoàn thành hết topics Grammar của level hiện tại chưa
-        boolean allGrammarTopicsCompleted = areAllTopicsCompleted(userId, ModuleType.GRAMMAR, currentLevel);
+        boolean allGrammarTopicsCompleted = isModuleCompleted(status, ModuleType.GRAMMAR);
         
         if (!allGrammarTopicsCompleted) {
             return LevelUpgradeResult.inProgress(
@@ -102,8 +94,8 @@ public class LevelUpgradeService {
 
         // ✅ Đã hoàn thành hết Grammar topics của level hiện tại
         // Kiểm tra xem Reading/Listening đã đủ chưa
-        boolean readingCompleted = areAllTopicsCompleted(userId, ModuleType.READING, currentLevel);
-        boolean listeningCompleted = areAllTopicsCompleted(userId, ModuleType.LISTENING, currentLevel);
+        boolean readingCompleted = isModuleCompleted(status, ModuleType.READING);
+        boolean listeningCompleted = isModuleCompleted(status, ModuleType.LISTENING);
 
         if (readingCompleted && listeningCompleted) {
             // ✅ Đủ cả 3 kỹ năng → Nâng level
@@ -122,11 +114,10 @@ public class LevelUpgradeService {
     /**
      * Kiểm tra nâng level cho Reading/Listening (cần đủ 3 kỹ năng)
      */
-    private LevelUpgradeResult checkFullUpgrade(User user, EnglishLevel currentLevel, ModuleType completedModule) {
-        Long userId = user.getId();
-        
+    private LevelUpgradeResult checkFullUpgrade(User user, EnglishLevel currentLevel, ModuleType completedModule,
+            LevelStatus status) {
         // Kiểm tra xem đã hoàn thành hết topics của module này chưa
-        boolean thisModuleCompleted = areAllTopicsCompleted(userId, completedModule, currentLevel);
+        boolean thisModuleCompleted = isModuleCompleted(status, completedModule);
         
         if (!thisModuleCompleted) {
             String moduleName = getModuleName(completedModule);
@@ -137,9 +128,9 @@ public class LevelUpgradeService {
         }
 
         // ✅ Module này đã xong, check 2 module còn lại
-        boolean grammarCompleted = areAllTopicsCompleted(userId, ModuleType.GRAMMAR, currentLevel);
-        boolean readingCompleted = areAllTopicsCompleted(userId, ModuleType.READING, currentLevel);
-        boolean listeningCompleted = areAllTopicsCompleted(userId, ModuleType.LISTENING, currentLevel);
+        boolean grammarCompleted = isModuleCompleted(status, ModuleType.GRAMMAR);
+        boolean readingCompleted = isModuleCompleted(status, ModuleType.READING);
+        boolean listeningCompleted = isModuleCompleted(status, ModuleType.LISTENING);
 
         if (grammarCompleted && readingCompleted && listeningCompleted) {
             // ✅ Đủ cả 3 kỹ năng → Nâng level
@@ -187,67 +178,16 @@ public class LevelUpgradeService {
     }
 
     /**
-     * Kiểm tra xem topic đã được complete 100% chưa
-     */
-    private boolean isTopicCompleted(Long userId, ModuleType moduleType, Long topicId) {
-        // Lấy tổng số lessons trong topic
-        long totalLessons = getTotalLessonsInTopic(moduleType, topicId);
-        
-        if (totalLessons == 0) {
-            return false;
-        }
-
-        // Lấy số lessons đã complete
-        long completedLessons = getCompletedLessonsInTopic(userId, moduleType, topicId);
-
-        log.debug("Topic {} completion: {}/{}", topicId, completedLessons, totalLessons);
-        
-        return completedLessons >= totalLessons;
-    }
-
-    /**
-     * Kiểm tra xem tất cả topics của 1 module ở 1 level đã complete chưa
+     * Đã hoàn thành hết topics của 1 module ở level đang xét chưa (so bộ đếm với catalog)
      */
-    private boolean areAllTopicsCompleted(Long userId, ModuleType moduleType, EnglishLevel level) {
-        // Lấy tất cả topic IDs của module + level này
-        var topicIds = topicRepository.findByModuleTypeAndIsActiveTrueOrderByOrderIndexAsc(moduleType)
-            .stream()
-            .filter(t -> t.getLevelRequired() != null && t.getLevelRequired() == level)
-            .map(t -> t.getId())
-            .toList();
-
-        if (topicIds.isEmpty()) {
-            log.warn("No topics found for module={}, level={}", moduleType, level);
-            return false;
-        }
-
-        // Kiểm tra từng topic
-        for (Long topicId : topicIds) {
-            if (!isTopicCompleted(userId, moduleType, topicId)) {
-                log.debug("Topic {} not completed for user {}", topicId, userId);
-                return false;
-            }
+    private boolean isModuleCompleted(LevelStatus status, ModuleType moduleType) {
+        if (status.requiredTopics().getOrDefault(moduleType, 0) == 0) {
+            log.warn("No topics found for module={}, level={}", moduleType, status.level());
         }
-
-        return true;
-    }
-
-    private long getTotalLessonsInTopic(ModuleType moduleType, Long topicId) {
-        return switch (moduleType) {
-            case GRAMMAR -> grammarLessonRepo.countByTopicIdAndIsActiveTrue(topicId);
-            case READING -> readingLessonRepo.countByTopicIdAndIsActiveTrue(topicId);
-            case LISTENING -> listeningLessonRepo.countByTopicIdAndIsActiveTrue(topicId);
-            default -> 0L;
-        };
-    }
-
-    private long getCompletedLessonsInTopic(Long userId, ModuleType moduleType, Long topicId) {
-        return switch (moduleType) {
-            case GRAMMAR -> grammarProgressRepo.countCompletedLessonsByUserAndTopic(userId, topicId);
-            case READING -> readingProgressRepo.countCompletedLessonsByUserAndTopic(userId, topicId);
-            case LISTENING -> listeningProgressRepo.countCompletedLessonsByUserAndTopic(userId, topicId);
-            default -> 0L;
-        };
+        boolean completed = status.isModuleCompleted(moduleType);
+        log.debug("{} topics at {}: {}/{}", moduleType, status.level(),
+            status.completedTopics().getOrDefault(moduleType, 0), status.requiredTopics().getOrDefault(moduleType, 0));
+        return completed;
     }
 
     private EnglishLevel getNextLevel(EnglishLevel currentLevel) {
@@ -0,0 +1,33 @@
+package com.thanhnb.englishlearning.service.listening;
+
+import com.thanhnb.englishlearning.event.AudioFilesOrphanedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * ✅ Xóa file audio SAU KHI transaction xóa lesson commit, trên thread async
+ * - Rollback → file được giữ nguyên
+ * - Request xóa không phải chờ I/O của filesystem
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AudioCleanupListener {
+
+    private final AudioStorageService audioStorageService;
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleAudioFilesOrphaned(AudioFilesOrphanedEvent event) {
+        int count = 0;
+        for (String audioUrl : event.getAudioUrls()) {
+            audioStorageService.deleteAudio(audioUrl); // tự log lỗi, không throw
+            count++;
+        }
+        log.info("🗑️ Cleaned up {} audio files after lesson deletion", count);
+    }
+}
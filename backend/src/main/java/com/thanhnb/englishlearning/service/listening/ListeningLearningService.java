@@ -17,6 +17,7 @@ import com.thanhnb.englishlearning.service.common.BaseLearningService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -109,25 +110,33 @@ public class ListeningLearningService extends BaseLearningService<ListeningLesso
         // PUBLIC API - SUBMIT LESSON
         // ═══════════════════════════════════════════════════════════
 
+        /**
+         * Không chạy trong transaction của class (xem BaseLearningService.processSubmission)
+         */
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
         public ListeningSubmitResponse submitLesson(Long userId, Long lessonId, ListeningSubmitRequest request) {
                 log.info("Submitting listening lesson: userId={}, lessonId={}", userId, lessonId);
 
-                ListeningLesson lesson = lessonRepository.findById(lessonId)
-                                .orElseThrow(() -> new ResourceNotFoundException("Lesson not found"));
-                User user = userRepository.findById(userId)
-                                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-                // Validate
-                List<ListeningLesson> allLessons = lessonRepository.findAllByIsActiveTrueOrderByOrderIndexAsc();
-                validateLessonAccess(lesson, allLessons, userId,
-                                progressRepository::existsByUserIdAndLessonIdAndIsCompletedTrue,
-                                user.getEnglishLevel());
+                SubmitContext<ListeningLesson> ctx = inReadOnlyTransaction(() -> {
+                        ListeningLesson lesson = lessonRepository.findById(lessonId)
+                                        .orElseThrow(() -> new ResourceNotFoundException("Lesson not found"));
+                        User user = userRepository.findById(userId)
+                                        .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+                        // Validate (đồng thời khởi tạo topic lazy → dùng được sau khi transaction đóng)
+                        List<ListeningLesson> allLessons = lessonRepository.findAllByIsActiveTrueOrderByOrderIndexAsc();
+                        validateLessonAccess(lesson, allLessons, userId,
+                                        progressRepository::existsByUserIdAndLessonIdAndIsCompletedTrue,
+                                        user.getEnglishLevel());
+                        return new SubmitContext<>(lesson, allLessons);
+                });
+                ListeningLesson lesson = ctx.lesson();
 
                 // 🔥 GỌI HÀM CHUNG BASE
                 SubmitResultDTO result = processSubmission(
                                 userId,
                                 lesson,
-                                allLessons,
+                                ctx.allLessons(),
                                 request.getAnswers(),
                                 ModuleType.LISTENING);
 
@@ -137,7 +146,7 @@ public class ListeningLearningService extends BaseLearningService<ListeningLesso
                                 result.scorePercentage(),
                                 result.isPassed(), result.pointsEarned(), result.hasUnlockedNext(),
                                 result.nextLessonId(),
-                                result.results(), result.levelUpgradeResult());
+                                result.results(), result.levelUpgradeResult(), result.followUpId());
         }
 
         // ═══════════════════════════════════════════════════════════
@@ -211,9 +220,10 @@ public class ListeningLearningService extends BaseLearningService<ListeningLesso
                                 .maxReplayCount(lesson.getMaxReplayCount())
                                 .requiredLevel(getLessonRequiredLevel(lesson)).build();
 
-                dto.withGroupedQuestions(getGroupedQuestionsForLesson(lessonId));
-
                 UserListeningProgress progress = findProgress(userId, lessonId).orElse(null);
+                dto.withGroupedQuestions(getSharedGroupedQuestions(lessonId, userId,
+                                progress != null && progress.getAttempts() != null ? progress.getAttempts() : 0));
+
                 if (progress != null) {
                         dto.withProgress(
                                         progress.getIsCompleted(), progress.getScorePercentage(),
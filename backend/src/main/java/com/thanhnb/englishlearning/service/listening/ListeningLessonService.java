@@ -7,12 +7,16 @@ import com.thanhnb.englishlearning.dto.question.response.TaskGroupResponseDTO;
 import com.thanhnb.englishlearning.entity.listening.ListeningLesson;
 import com.thanhnb.englishlearning.entity.topic.Topic;
 import com.thanhnb.englishlearning.entity.user.User;
+import com.thanhnb.englishlearning.enums.ModuleType;
 import com.thanhnb.englishlearning.enums.ParentType;
 import com.thanhnb.englishlearning.exception.ResourceNotFoundException;
 import com.thanhnb.englishlearning.repository.listening.ListeningLessonRepository;
 import com.thanhnb.englishlearning.repository.listening.UserListeningProgressRepository;
+import com.thanhnb.englishlearning.repository.ordering.OrderScope;
 import com.thanhnb.englishlearning.repository.question.QuestionRepository;
 import com.thanhnb.englishlearning.repository.topic.TopicRepository;
+import com.thanhnb.englishlearning.service.deletion.BulkDeletionService;
+import com.thanhnb.englishlearning.service.ordering.OrderingService;
 import com.thanhnb.englishlearning.service.permission.TeacherPermissionService;
 import com.thanhnb.englishlearning.service.question.TaskGroupService;
 import com.thanhnb.englishlearning.service.user.UserService;
@@ -27,7 +31,6 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -48,6 +51,8 @@ public class ListeningLessonService {
     private final UserService userService;
     private final ListeningQuestionService questionService;
     private final TaskGroupService taskGroupService;
+    private final BulkDeletionService bulkDeletionService;
+    private final OrderingService orderingService;
 
     // ═════════════════════════════════════════════════════════════════
     // READ OPERATIONS
@@ -89,7 +94,7 @@ public class ListeningLessonService {
                 .title(dto.getTitle())
                 .transcript(dto.getTranscript())
                 .transcriptTranslation(dto.getTranscriptTranslation())
-                .orderIndex(dto.getOrderIndex())
+                .orderIndex(getNextOrderIndex(dto.getTopicId())) // Luôn thêm vào cuối, đổi chỗ qua move
                 .timeLimitSeconds(dto.getTimeLimitSeconds() != null ? dto.getTimeLimitSeconds() : 600)
                 .pointsReward(dto.getPointsReward() != null ? dto.getPointsReward() : 25)
                 .allowUnlimitedReplay(dto.getAllowUnlimitedReplay() != null ? dto.getAllowUnlimitedReplay() : true)
@@ -155,23 +160,13 @@ public class ListeningLessonService {
     public void deleteLesson(Long id) {
         ListeningLesson lesson = findLessonById(id);
         teacherPermissionService.checkTopicPermission(lesson.getTopic().getId());
-        Long topicId = lesson.getTopic().getId();
-        Integer orderIndex = lesson.getOrderIndex();
 
-        // Delete progress
-        progressRepository.deleteByLessonId(id);
-
-        // Delete audio
-        if (lesson.getAudioUrl() != null) {
-            audioStorage.deleteAudio(lesson.getAudioUrl());
-        }
-
-        // Delete lesson (questions cascade via listener)
-        lessonRepository.delete(lesson);
+        // Delete lesson + questions + task groups + progress (set-based)
+        // File audio được xóa async sau khi commit (AudioCleanupListener)
+        bulkDeletionService.deleteLessons(ModuleType.LISTENING, List.of(id));
         log.info("Deleted listening lesson: id={}", id);
 
-        // Reorder
-        reorderAfterDelete(topicId, orderIndex);
+        // Không đánh số lại các lesson còn lại: order_index thưa, khe trống không ảnh hưởng thứ tự
     }
 
     // ═════════════════════════════════════════════════════════════════
@@ -192,34 +187,16 @@ public class ListeningLessonService {
     // ORDER MANAGEMENT
     // ═════════════════════════════════════════════════════════════════
 
-    public void fixOrderIndexes(Long topicId) {
-        // Lấy danh sách
-        List<ListeningLesson> lessons = lessonRepository.findByTopicIdOrderByOrderIndexAsc(topicId);
-
-        // ✅ Sort lại trong memory để đảm bảo ổn định (ID tăng dần nếu trùng Order)
-        lessons.sort(Comparator.comparingInt(ListeningLesson::getOrderIndex)
-                .thenComparingLong(ListeningLesson::getId));
-
-        boolean changed = false;
-        for (int i = 0; i < lessons.size(); i++) {
-            ListeningLesson lesson = lessons.get(i);
-            int expected = i + 1;
-
-            if (!Integer.valueOf(expected).equals(lesson.getOrderIndex())) {
-                lesson.setOrderIndex(expected);
-                changed = true;
-            }
-        }
-
-        if (changed) {
-            lessonRepository.saveAll(lessons);
-            log.info("Fixed order indexes for {} lessons in topic {}", lessons.size(), topicId);
-        }
+    /**
+     * Dàn đều lại order_index các lesson của topic (nút "Fix Order").
+     * Kéo thả / sắp xếp hàng loạt đi qua OrderingService (move / reorder)
+     */
+    public int rebalanceOrder(Long topicId) {
+        return orderingService.rebalance(OrderScope.lessons(ParentType.LISTENING, topicId));
     }
 
     public Integer getNextOrderIndex(Long topicId) {
-        Integer max = lessonRepository.findMaxOrderIndexByTopicId(topicId);
-        return (max != null ? max : 0) + 1;
+        return orderingService.nextKey(OrderScope.lessons(ParentType.LISTENING, topicId));
     }
 
     /**
@@ -251,7 +228,7 @@ public class ListeningLessonService {
                 .title(dto.getTitle())
                 .transcript(dto.getTranscript())
                 .transcriptTranslation(dto.getTranscriptTranslation())
-                .orderIndex(dto.getOrderIndex())
+                .orderIndex(getNextOrderIndex(dto.getTopicId())) // Luôn thêm vào cuối, đổi chỗ qua move
                 .timeLimitSeconds(dto.getTimeLimitSeconds() != null ? dto.getTimeLimitSeconds() : 600)
                 .pointsReward(dto.getPointsReward() != null ? dto.getPointsReward() : 25)
                 .allowUnlimitedReplay(dto.getAllowUnlimitedReplay() != null ? dto.getAllowUnlimitedReplay() : true)
@@ -298,8 +275,7 @@ public class ListeningLessonService {
 
                         if (questionDTO.getOrderIndex() == null || questionDTO.getOrderIndex() == 0) {
                             questionDTO.setOrderIndex(
-                                    questionRepository.findMaxOrderIndexByLessonId(ParentType.LISTENING, lesson.getId())
-                                            .orElse(0) + 1);
+                                    questionService.getNextOrderIndex(lesson.getId()));
                         }
 
                         questionService.createQuestion(lesson.getId(), questionDTO);
@@ -317,8 +293,7 @@ public class ListeningLessonService {
 
                 if (questionDTO.getOrderIndex() == null || questionDTO.getOrderIndex() == 0) {
                     questionDTO.setOrderIndex(
-                            questionRepository.findMaxOrderIndexByLessonId(ParentType.LISTENING, lesson.getId())
-                                    .orElse(0) + 1);
+                            questionService.getNextOrderIndex(lesson.getId()));
                 }
 
                 questionService.createQuestion(lesson.getId(), questionDTO);
@@ -348,9 +323,6 @@ public class ListeningLessonService {
         if (dto.getTranscript() == null || dto.getTranscript().isBlank()) {
             throw new IllegalArgumentException("Transcript is required");
         }
-        if (dto.getOrderIndex() == null || dto.getOrderIndex() < 1) {
-            throw new IllegalArgumentException("Order index must be >= 1");
-        }
     }
 
     private void updateFields(ListeningLesson lesson, ListeningLessonDTO dto) {
@@ -374,16 +346,6 @@ public class ListeningLessonService {
             lesson.setIsActive(dto.getIsActive());
     }
 
-    private void reorderAfterDelete(Long topicId, Integer deletedPosition) {
-        List<ListeningLesson> lessons = lessonRepository.findByTopicIdOrderByOrderIndexAsc(topicId);
-
-        lessons.stream()
-                .filter(l -> l.getOrderIndex() > deletedPosition)
-                .forEach(l -> l.setOrderIndex(l.getOrderIndex() - 1));
-
-        lessonRepository.saveAll(lessons);
-    }
-
     private ListeningLessonDTO toDTO(ListeningLesson lesson) {
         long questionCount = questionRepository.countByParentTypeAndParentId(
                 ParentType.LISTENING, lesson.getId());
@@ -5,6 +5,7 @@ import com.thanhnb.englishlearning.exception.ResourceNotFoundException;
 import com.thanhnb.englishlearning.repository.listening.ListeningLessonRepository;
 import com.thanhnb.englishlearning.repository.question.QuestionRepository;
 import com.thanhnb.englishlearning.repository.question.TaskGroupRepository;
+import com.thanhnb.englishlearning.service.ordering.OrderingService;
 import com.thanhnb.englishlearning.service.permission.TeacherPermissionService;
 import com.thanhnb.englishlearning.service.question.BaseQuestionService;
 import com.thanhnb.englishlearning.service.question.TaskGroupService;
@@ -28,8 +29,10 @@ public class ListeningQuestionService extends BaseQuestionService {
             TeacherPermissionService teacherPermissionService,
             ListeningLessonRepository lessonRepository,
             TaskGroupService taskGroupService,
-            TaskGroupRepository taskGroupRepository) {
-        super(questionRepository, teacherPermissionService, taskGroupService, taskGroupRepository);
+            TaskGroupRepository taskGroupRepository,
+            OrderingService orderingService) {
+        super(questionRepository, teacherPermissionService, taskGroupService, taskGroupRepository,
+                orderingService);
         this.lessonRepository = lessonRepository;
     }
 
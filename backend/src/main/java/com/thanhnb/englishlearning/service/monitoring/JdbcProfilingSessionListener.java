@@ -0,0 +1,41 @@
+package com.thanhnb.englishlearning.service.monitoring;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * ✅ Đếm câu SQL + thời gian JDBC của từng Session vào RequestProfile hiện tại
+ *
+ * Hibernate tạo 1 instance / Session (hibernate.session.events.auto) → không cần đồng bộ.
+ */
+public class JdbcProfilingSessionListener implements SessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record(statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record(batchStart);
+    }
+
+    private static void record(long start) {
+        RequestProfile profile = RequestProfile.current();
+        if (profile != null && start != 0) {
+            profile.addStatement(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.thanhnb.englishlearning.service.monitoring;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * ✅ Số liệu của 1 HTTP request trên thread đang xử lý
+ *
+ * RequestMetricsFilter mở/đóng; JdbcProfilingSessionListener cộng số câu SQL + thời gian JDBC;
+ * SubmissionMetrics ghi thời gian từng bước → slow-request log in được breakdown.
+ * Không có request (job, @Async) → current() trả null, mọi thao tác ghi bị bỏ qua.
+ */
+public final class RequestProfile {
+
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private int queryCount;
+    private long jdbcNanos;
+    private final Map<String, Long> stageNanos = new LinkedHashMap<>();
+
+    private RequestProfile() {
+    }
+
+    public static RequestProfile begin() {
+        RequestProfile profile = new RequestProfile();
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static RequestProfile current() {
+        return CURRENT.get();
+    }
+
+    public void addStatement(long nanos) {
+        queryCount++;
+        jdbcNanos += nanos;
+    }
+
+    public void addStage(String stage, long nanos) {
+        stageNanos.merge(stage, nanos, Long::sum);
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public int getQueryCount() {
+        return queryCount;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /**
+     * "load=12ms, grade=3ms, ..." (rỗng nếu request không đi qua bước nào được đo)
+     */
+    public String describeStages() {
+        return stageNanos.entrySet().stream()
+                .map(e -> e.getKey() + "=" + TimeUnit.NANOSECONDS.toMillis(e.getValue()) + "ms")
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,104 @@
+package com.thanhnb.englishlearning.service.monitoring;
+
+import com.thanhnb.englishlearning.enums.ModuleType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ✅ Timer cho từng bước của BaseLearningService.processSubmission
+ *
+ * - submission.stage{module, stage}: load, grade, progress, events, commit, unlock, level
+ *   (commit = flush + listener BEFORE_COMMIT + COMMIT của transaction ghi; unlock / level chạy sau commit)
+ * - submission.duration{module, passed}: toàn bộ processSubmission tính cả commit
+ *
+ * Cả 2 đều publish histogram → p99 tính được phía Prometheus (histogram_quantile) theo module / bước.
+ */
+@Component
+public class SubmissionMetrics {
+
+    public static final String STAGE_LOAD = "load";
+    public static final String STAGE_GRADE = "grade";
+    public static final String STAGE_PROGRESS = "progress";
+    public static final String STAGE_UNLOCK = "unlock";
+    public static final String STAGE_LEVEL = "level";
+    public static final String STAGE_EVENTS = "events";
+    public static final String STAGE_COMMIT = "commit";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public SubmissionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Recorder start(ModuleType module) {
+        return new Recorder(module.name());
+    }
+
+    private Timer stageTimer(String module, String stage) {
+        return timers.computeIfAbsent(module + "|" + stage, k -> Timer.builder("submission.stage")
+                .description("Thời gian từng bước xử lý nộp bài")
+                .tag("module", module)
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private Timer durationTimer(String module, boolean passed) {
+        return timers.computeIfAbsent(module + "|total|" + passed, k -> Timer.builder("submission.duration")
+                .description("Tổng thời gian xử lý nộp bài")
+                .tag("module", module)
+                .tag("passed", Boolean.toString(passed))
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    /**
+     * Đo tuần tự: mỗi lần stage() ghi khoảng thời gian kể từ mốc trước
+     */
+    public final class Recorder {
+
+        private final String module;
+        private final long startNanos;
+        private long lastNanos;
+
+        private Recorder(String module) {
+            this.module = module;
+            this.startNanos = System.nanoTime();
+            this.lastNanos = startNanos;
+        }
+
+        public void stage(String stage) {
+            long now = System.nanoTime();
+            long nanos = now - lastNanos;
+            lastNanos = now;
+            stageTimer(module, stage).record(nanos, TimeUnit.NANOSECONDS);
+            RequestProfile profile = RequestProfile.current();
+            if (profile != null) {
+                profile.addStage("submit." + stage, nanos);
+            }
+        }
+
+        public void finish(boolean passed) {
+            // Scope NOT_SUPPORTED cũng bật synchronization → chỉ hoãn khi đang ở trong transaction thật
+            if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                durationTimer(module, passed).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    stage(STAGE_COMMIT);
+                    durationTimer(module, passed).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                }
+            });
+        }
+    }
+}
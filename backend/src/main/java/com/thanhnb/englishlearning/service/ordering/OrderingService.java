@@ -0,0 +1,277 @@
+package com.thanhnb.englishlearning.service.ordering;
+
+import com.thanhnb.englishlearning.config.OrderingProperties;
+import com.thanhnb.englishlearning.enums.OrderedList;
+import com.thanhnb.englishlearning.enums.ParentType;
+import com.thanhnb.englishlearning.exception.ResourceNotFoundException;
+import com.thanhnb.englishlearning.repository.ordering.OrderKeyRepository;
+import com.thanhnb.englishlearning.repository.ordering.OrderScope;
+import com.thanhnb.englishlearning.service.catalog.EntityCacheInvalidationService;
+import com.thanhnb.englishlearning.service.permission.TeacherPermissionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * 🔢 Thứ tự của topic / lesson / task group / question (thay cho fixOrderIndexes đánh số lại 1..N)
+ *
+ * - order_index là key thưa: phần tử mới ở cuối = max + gap, không cần liên tục
+ * - Kéo thả 1 phần tử: key mới = giữa 2 hàng xóm → UPDATE đúng 1 row
+ * - Hết khe (2 hàng xóm liền key): dàn đều lại cả danh sách bằng 1 câu UPDATE rồi mới đặt
+ * - Khe sắp hết: đưa danh sách vào hàng đợi Redis, job "order-rebalance" dàn đều trong nền
+ * - Sắp xếp lại hàng loạt (reorder): 1 câu UPDATE cho cả danh sách
+ * - Xóa phần tử không cần đánh số lại - khe trống không ảnh hưởng thứ tự
+ * - Mọi thao tác đọc rồi ghi key khóa danh sách trước (advisory lock theo transaction)
+ */
+@Service
+@Slf4j
+public class OrderingService {
+
+    static final String REBALANCE_QUEUE_KEY = "ordering:rebalance";
+
+    private final OrderKeyRepository orderKeyRepository;
+    private final OrderingProperties properties;
+    private final TeacherPermissionService teacherPermissionService;
+    private final EntityCacheInvalidationService entityCacheInvalidationService;
+    private final StringRedisTemplate redisTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderingService(OrderKeyRepository orderKeyRepository,
+            OrderingProperties properties,
+            TeacherPermissionService teacherPermissionService,
+            EntityCacheInvalidationService entityCacheInvalidationService,
+            StringRedisTemplate redisTemplate,
+            PlatformTransactionManager transactionManager) {
+        this.orderKeyRepository = orderKeyRepository;
+        this.properties = properties;
+        this.teacherPermissionService = teacherPermissionService;
+        this.entityCacheInvalidationService = entityCacheInvalidationService;
+        this.redisTemplate = redisTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // ==================== NEW ITEMS ====================
+
+    /**
+     * Key cho phần tử mới ở cuối danh sách (max + gap)
+     */
+    @Transactional
+    public int nextKey(OrderScope scope) {
+        orderKeyRepository.lockScope(scope);
+        Integer max = orderKeyRepository.maxKey(scope);
+        if (max == null) {
+            return properties.getGap();
+        }
+        if ((long) max + properties.getGap() > Integer.MAX_VALUE) {
+            // Key bị đẩy lên quá cao (nhập tay) → dàn đều lại để có chỗ ở cuối
+            applyRebalance(scope);
+            max = orderKeyRepository.maxKey(scope);
+        }
+        return max + properties.getGap();
+    }
+
+    /**
+     * Khoảng cách giữa các key khi thêm nhiều phần tử liên tiếp (nextKey + i * gap)
+     */
+    public int gap() {
+        return properties.getGap();
+    }
+
+    // ==================== MOVE ====================
+
+    /**
+     * Chuyển 1 phần tử ra ngay sau afterId (null = lên đầu danh sách)
+     *
+     * @return key mới của phần tử
+     */
+    @Transactional
+    public int move(OrderedList list, Long id, Long afterId) {
+        OrderKeyRepository.Item item = orderKeyRepository.findItem(list, id)
+                .orElseThrow(() -> new ResourceNotFoundException(list + " not found with id: " + id));
+        OrderScope scope = item.scope();
+        checkPermission(scope);
+        if (id.equals(afterId)) {
+            throw new IllegalArgumentException("Không thể đặt phần tử sau chính nó");
+        }
+
+        // Khóa danh sách trước khi đọc khe, rồi đọc lại key (có thể vừa bị lần kéo thả khác đổi)
+        orderKeyRepository.lockScope(scope);
+        int currentKey = orderKeyRepository.keyOf(scope, id)
+                .orElseThrow(() -> new ResourceNotFoundException(list + " not found with id: " + id));
+
+        Slot slot = findSlot(scope, id, afterId);
+        if (slot.contains(currentKey)) {
+            return currentKey; // Đã đúng chỗ
+        }
+        if (!slot.hasRoom()) {
+            applyRebalance(scope);
+            slot = findSlot(scope, id, afterId);
+            if (!slot.hasRoom()) {
+                throw new IllegalStateException("No room in " + scope + " after rebalance (gap too small?)");
+            }
+        }
+
+        int key = slot.middle();
+        orderKeyRepository.updateKey(list, id, key);
+        entityCacheInvalidationService.evictAll(list.getEntityClass());
+        if (slot.width() < 2L * properties.getMinGap()) {
+            scheduleRebalance(scope);
+        }
+        log.debug("Moved {} #{} after #{} in {} → key {}", list, id, afterId, scope, key);
+        return key;
+    }
+
+    /**
+     * Khe (lower, upper) giữa phần tử neo và phần tử kế tiếp; upper = null → cuối danh sách
+     */
+    private record Slot(int lower, Integer upper, int gap) {
+
+        boolean contains(int key) {
+            return key > lower && (upper == null || key < upper);
+        }
+
+        long width() {
+            return upper != null ? (long) upper - lower : gap;
+        }
+
+        boolean hasRoom() {
+            return upper != null ? width() >= 2 : (long) lower + gap <= Integer.MAX_VALUE;
+        }
+
+        int middle() {
+            return upper != null ? lower + (upper - lower) / 2 : lower + gap;
+        }
+    }
+
+    private Slot findSlot(OrderScope scope, Long id, Long afterId) {
+        int lower = 0;
+        List<Long> exclude = new ArrayList<>(List.of(id));
+        if (afterId != null) {
+            lower = orderKeyRepository.keyOf(scope, afterId)
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "Phần tử " + afterId + " không thuộc cùng danh sách"));
+            exclude.add(afterId);
+        }
+        // Phần tử khác trùng key với phần tử neo → upper == lower → hết khe
+        return new Slot(lower, orderKeyRepository.minKeyFrom(scope, lower, exclude), properties.getGap());
+    }
+
+    // ==================== BULK REORDER ====================
+
+    /**
+     * Áp dụng thứ tự mới trong 1 câu UPDATE
+     *
+     * Gửi cả danh sách → toàn bộ theo thứ tự mới; gửi 1 phần (vd câu hỏi của 1 task group)
+     * → các phần tử đó đổi chỗ cho nhau trong các vị trí chúng đang giữ, phần tử khác giữ nguyên.
+     *
+     * @return số row thay đổi key
+     */
+    @Transactional
+    public int reorder(OrderScope scope, List<Long> orderedIds) {
+        checkPermission(scope);
+        if (orderedIds == null || orderedIds.isEmpty()) {
+            throw new IllegalArgumentException("Danh sách id không được rỗng");
+        }
+        if (new HashSet<>(orderedIds).size() != orderedIds.size()) {
+            throw new IllegalArgumentException("Danh sách id bị trùng");
+        }
+
+        orderKeyRepository.lockScope(scope);
+        long[] members = orderKeyRepository.countMembers(scope, orderedIds);
+        if (members[0] != orderedIds.size()) {
+            throw new IllegalArgumentException("Có " + (orderedIds.size() - members[0])
+                    + " id không thuộc danh sách này");
+        }
+        if (members[1] != members[0]) {
+            // Key trùng nhau (dữ liệu cũ) → không có đủ vị trí phân biệt để đổi chỗ
+            applyRebalance(scope);
+        }
+
+        int updated = orderKeyRepository.permute(scope, orderedIds);
+        entityCacheInvalidationService.evictAll(scope.list().getEntityClass());
+        log.info("Reordered {} items of {} ({} rows changed)", orderedIds.size(), scope, updated);
+        return updated;
+    }
+
+    // ==================== REBALANCE ====================
+
+    /**
+     * Dàn đều lại key của cả danh sách (gap, 2*gap, ...) - nút "Fix order" của admin
+     */
+    @Transactional
+    public int rebalance(OrderScope scope) {
+        checkPermission(scope);
+        return applyRebalance(scope);
+    }
+
+    /**
+     * Job "order-rebalance": dàn đều các danh sách đã sắp hết khe (mỗi danh sách 1 transaction)
+     */
+    public int rebalancePending() {
+        int rebalanced = 0;
+        for (int i = 0; i < properties.getRebalanceBatchSize(); i++) {
+            String entry = redisTemplate.opsForSet().pop(REBALANCE_QUEUE_KEY);
+            if (entry == null) {
+                break;
+            }
+            try {
+                OrderScope scope = OrderScope.decode(entry);
+                transactionTemplate.executeWithoutResult(status -> applyRebalance(scope));
+                rebalanced++;
+            } catch (Exception e) {
+                // Lần kéo thả sau vẫn tự dàn đều khi hết khe → không cần đưa lại vào hàng đợi
+                log.warn("⚠️ Failed to rebalance {}: {}", entry, e.getMessage());
+            }
+        }
+        if (rebalanced > 0) {
+            log.info("Rebalanced order keys of {} lists", rebalanced);
+        }
+        return rebalanced;
+    }
+
+    private int applyRebalance(OrderScope scope) {
+        orderKeyRepository.lockScope(scope);
+        int updated = orderKeyRepository.rebalance(scope, properties.getGap());
+        if (updated > 0) {
+            entityCacheInvalidationService.evictAll(scope.list().getEntityClass());
+            log.info("Rebalanced {}: {} rows", scope, updated);
+        }
+        return updated;
+    }
+
+    private void scheduleRebalance(OrderScope scope) {
+        try {
+            redisTemplate.opsForSet().add(REBALANCE_QUEUE_KEY, scope.encode());
+        } catch (Exception e) {
+            log.debug("Could not queue rebalance of {}: {}", scope, e.getMessage());
+        }
+    }
+
+    // ==================== PERMISSION ====================
+
+    private void checkPermission(OrderScope scope) {
+        switch (scope.list()) {
+            case TOPIC -> {
+                if (!teacherPermissionService.isAdmin()) {
+                    throw new AccessDeniedException("Chỉ Admin được sắp xếp topic");
+                }
+            }
+            case GRAMMAR_LESSON, READING_LESSON, LISTENING_LESSON ->
+                    teacherPermissionService.checkTopicPermission(scope.parentId());
+            case TASK_GROUP, QUESTION -> {
+                ParentType lessonType = ParentType.valueOf(scope.parentKey());
+                Long topicId = orderKeyRepository.findTopicIdOfLesson(lessonType, scope.parentId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Lesson not found: " + scope.parentId()));
+                teacherPermissionService.checkTopicPermission(topicId);
+            }
+        }
+    }
+}
@@ -361,7 +361,7 @@ public class AnswerValidationService {
                 .points(0)
                 .userAnswer(textAnswer)
                 .explanation(dto.getExplanation())
-                .feedback(String.format("Đã ghi nhận câu trả lời (%d từ). Giáo viên sẽ chấm điểm sau.", wordCount))
+                .feedback(String.format("Đã ghi nhận câu trả lời (%d từ). Bài viết sẽ được chấm điểm tự động trong ít phút.", wordCount))
                 .build();
     }
 
@@ -8,7 +8,9 @@ import com.thanhnb.englishlearning.entity.question.TaskGroup;
 import com.thanhnb.englishlearning.enums.ParentType;
 import com.thanhnb.englishlearning.exception.ResourceNotFoundException;
 import com.thanhnb.englishlearning.repository.question.QuestionRepository;
+import com.thanhnb.englishlearning.repository.ordering.OrderScope;
 import com.thanhnb.englishlearning.repository.question.TaskGroupRepository;
+import com.thanhnb.englishlearning.service.ordering.OrderingService;
 import com.thanhnb.englishlearning.service.permission.TeacherPermissionService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -25,16 +27,19 @@ public abstract class BaseQuestionService {
     protected final TeacherPermissionService teacherPermissionService;
     protected final TaskGroupService taskGroupService;
     protected final TaskGroupRepository taskGroupRepository;
+    protected final OrderingService orderingService;
 
     protected BaseQuestionService(
             QuestionRepository questionRepository,
             TeacherPermissionService teacherPermissionService,
             TaskGroupService taskGroupService,
-            TaskGroupRepository taskGroupRepository) {
+            TaskGroupRepository taskGroupRepository,
+            OrderingService orderingService) {
         this.questionRepository = questionRepository;
         this.teacherPermissionService = teacherPermissionService;
         this.taskGroupService = taskGroupService;
         this.taskGroupRepository = taskGroupRepository;
+        this.orderingService = orderingService;
     }
 
     // Các class con phải implement
@@ -54,9 +59,8 @@ public abstract class BaseQuestionService {
         Long topicId = getTopicIdFromLesson(lessonId);
         teacherPermissionService.checkTopicPermission(topicId);
 
-        if (dto.getOrderIndex() == null || dto.getOrderIndex() == 0) {
-            dto.setOrderIndex(getNextOrderIndex(lessonId));
-        }
+        // Câu hỏi mới luôn ở cuối (max + gap) - orderIndex client gửi lên bị bỏ qua
+        dto.setOrderIndex(getNextOrderIndex(lessonId));
 
         // Update TaskGroup (nếu có)
         TaskGroup taskGroup = null;
@@ -237,14 +241,14 @@ public abstract class BaseQuestionService {
         Long topicId = getTopicIdFromLesson(lessonId);
         teacherPermissionService.checkTopicPermission(topicId);
 
-        Integer nextOrder = getNextOrderIndex(lessonId);
+        int nextOrder = getNextOrderIndex(lessonId);
+        int gap = orderingService.gap();
 
         List<Question> questions = IntStream.range(0, dtos.size())
                 .mapToObj(i -> {
                     CreateQuestionDTO dto = dtos.get(i);
-                    int order = (dto.getOrderIndex() != null && dto.getOrderIndex() > 0)
-                            ? dto.getOrderIndex()
-                            : nextOrder + i;
+                    // Thêm vào cuối theo thứ tự gửi lên
+                    int order = nextOrder + i * gap;
 
                     TaskGroup taskGroup = null;
                     if (dto.getTaskGroupId() != null) {
@@ -287,35 +291,17 @@ public abstract class BaseQuestionService {
         log.info("Bulk deleted {} questions", questions.size());
     }
 
+    /**
+     * Dàn đều lại order_index các câu hỏi của lesson (1 câu UPDATE, xem OrderingService)
+     */
     @Transactional
-    public void fixOrderIndexes(Long lessonId) {
+    public int rebalanceOrder(Long lessonId) {
         validateLessonExists(lessonId);
-        Long topicId = getTopicIdFromLesson(lessonId);
-        teacherPermissionService.checkTopicPermission(topicId);
-
-        List<Question> questions = questionRepository
-                .findByParentTypeAndParentIdOrderByOrderIndexAsc(getParentType(), lessonId);
-
-        questions.sort(Comparator.comparingInt(Question::getOrderIndex)
-                .thenComparingLong(Question::getId));
-
-        int updatedCount = 0;
-        for (int i = 0; i < questions.size(); i++) {
-            Question q = questions.get(i);
-            int expected = i + 1;
-            if (q.getOrderIndex() == null || q.getOrderIndex() != expected) {
-                questionRepository.updateOrderIndex(q.getId(), expected);
-                updatedCount++;
-            }
-        }
-        if (updatedCount > 0) {
-            log.info("Fixed order for {} questions in lesson {}", updatedCount, lessonId);
-        }
+        return orderingService.rebalance(OrderScope.questions(getParentType(), lessonId));
     }
 
     public Integer getNextOrderIndex(Long lessonId) {
-        return questionRepository.findMaxOrderIndexByLessonId(getParentType(), lessonId)
-                .orElse(0) + 1;
+        return orderingService.nextKey(OrderScope.questions(getParentType(), lessonId));
     }
 
     protected Question findQuestionById(Long id) {
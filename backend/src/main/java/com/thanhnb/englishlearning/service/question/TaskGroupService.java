@@ -5,7 +5,9 @@ import com.thanhnb.englishlearning.dto.question.response.TaskGroupResponseDTO;
 import com.thanhnb.englishlearning.entity.question.TaskGroup;
 import com.thanhnb.englishlearning.enums.ParentType;
 import com.thanhnb.englishlearning.exception.ResourceNotFoundException;
+import com.thanhnb.englishlearning.repository.ordering.OrderScope;
 import com.thanhnb.englishlearning.repository.question.TaskGroupRepository;
+import com.thanhnb.englishlearning.service.ordering.OrderingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +23,7 @@ import java.util.List;
 public class TaskGroupService {
 
     private final TaskGroupRepository taskGroupRepository;
+    private final OrderingService orderingService;
 
     /**
      * Tạo TaskGroup mới
@@ -37,11 +40,8 @@ public class TaskGroupService {
                     "Task name '" + dto.getTaskName() + "' đã tồn tại trong lesson này");
         }
 
-        // Auto-generate orderIndex nếu null
-        Integer orderIndex = dto.getOrderIndex();
-        if (orderIndex == null || orderIndex == 0) {
-            orderIndex = getNextOrderIndex(parentType, lessonId);
-        }
+        // Task group mới luôn ở cuối (max + gap) - orderIndex client gửi lên bị bỏ qua
+        Integer orderIndex = getNextOrderIndex(parentType, lessonId);
 
         TaskGroup taskGroup = TaskGroup.builder()
                 .parentType(parentType)
@@ -138,9 +138,7 @@ public class TaskGroupService {
     }
 
     private Integer getNextOrderIndex(ParentType parentType, Long lessonId) {
-        return taskGroupRepository
-                .findMaxOrderIndex(parentType, lessonId)
-                .orElse(0) + 1;
+        return orderingService.nextKey(OrderScope.taskGroups(parentType, lessonId));
     }
 
     private TaskGroupResponseDTO toResponseDTO(TaskGroup taskGroup) {
@@ -0,0 +1,127 @@
+package com.thanhnb.englishlearning.service.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.thanhnb.englishlearning.enums.RateLimitAlgorithm;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Tier local: trạng thái từng key nằm trong bộ nhớ node (Caffeine, hết hạn sau 2 window không dùng)
+ *
+ * Mỗi lần kiểm tra = 1 lookup + 1 khối synchronized trên bucket của key → vài trăm ns,
+ * không cấp phát ngoài lần tạo bucket đầu tiên.
+ */
+public class LocalRateLimiter {
+
+    private final Cache<String, Bucket> buckets;
+    private final LongSupplier clockMillis;
+
+    public LocalRateLimiter(int maxKeys) {
+        this(maxKeys, System::currentTimeMillis);
+    }
+
+    LocalRateLimiter(int maxKeys, LongSupplier clockMillis) {
+        this.clockMillis = clockMillis;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfter(new BucketExpiry())
+                .build();
+    }
+
+    public RateLimitDecision tryAcquire(String key, RateLimitRule rule) {
+        Bucket bucket = buckets.get(key, k -> new Bucket(rule.windowMillis()));
+        long now = clockMillis.getAsLong();
+        synchronized (bucket) {
+            return rule.algorithm() == RateLimitAlgorithm.TOKEN_BUCKET
+                    ? bucket.takeToken(rule, now)
+                    : bucket.countInWindow(rule, now);
+        }
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+
+    static final class Bucket {
+        private final long windowMillis;
+
+        // Token bucket
+        private double tokens = -1;
+        private long lastRefill;
+
+        // Sliding window (2 cửa sổ cố định, cửa sổ trước được tính theo tỷ lệ thời gian còn phủ)
+        private long windowIndex = -1;
+        private int currentCount;
+        private int previousCount;
+
+        Bucket(long windowMillis) {
+            this.windowMillis = windowMillis;
+        }
+
+        RateLimitDecision takeToken(RateLimitRule rule, long now) {
+            int capacity = rule.limit();
+            double refillPerMilli = (double) capacity / rule.windowMillis();
+
+            if (tokens < 0) {
+                tokens = capacity;
+            } else if (now > lastRefill) {
+                tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerMilli);
+            }
+            lastRefill = now;
+
+            if (tokens >= 1) {
+                tokens -= 1;
+                return RateLimitDecision.allow(capacity, (int) tokens,
+                        (long) Math.ceil((capacity - tokens) / refillPerMilli));
+            }
+            long retryAfter = (long) Math.ceil((1 - tokens) / refillPerMilli);
+            return RateLimitDecision.reject(capacity,
+                    (long) Math.ceil((capacity - tokens) / refillPerMilli), retryAfter);
+        }
+
+        RateLimitDecision countInWindow(RateLimitRule rule, long now) {
+            long window = rule.windowMillis();
+            long index = now / window;
+            if (index != windowIndex) {
+                previousCount = index == windowIndex + 1 ? currentCount : 0;
+                currentCount = 0;
+                windowIndex = index;
+            }
+
+            long elapsed = now - index * window;
+            double weight = 1.0 - (double) elapsed / window;
+            double estimated = previousCount * weight + currentCount;
+            long untilNextWindow = window - elapsed;
+
+            if (estimated + 1 > rule.limit()) {
+                return RateLimitDecision.reject(rule.limit(), untilNextWindow, untilNextWindow);
+            }
+            currentCount++;
+            return RateLimitDecision.allow(rule.limit(), (int) (rule.limit() - estimated - 1), untilNextWindow);
+        }
+    }
+
+    private static final class BucketExpiry implements Expiry<String, Bucket> {
+        private static long ttl(Bucket bucket) {
+            return TimeUnit.MILLISECONDS.toNanos(bucket.windowMillis * 2);
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Bucket bucket, long currentTime) {
+            return ttl(bucket);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Bucket bucket, long currentTime, long currentDuration) {
+            return ttl(bucket);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Bucket bucket, long currentTime, long currentDuration) {
+            return ttl(bucket);
+        }
+    }
+}
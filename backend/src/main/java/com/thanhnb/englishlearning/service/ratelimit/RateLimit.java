@@ -0,0 +1,39 @@
+package com.thanhnb.englishlearning.service.ratelimit;
+
+import com.thanhnb.englishlearning.enums.RateLimitAlgorithm;
+import com.thanhnb.englishlearning.enums.RateLimitKeyType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Giới hạn tần suất gọi endpoint (kiểm tra bởi RateLimitInterceptor)
+ *
+ * Ví dụ: @RateLimit(value = "ai-import", limit = 10, windowSeconds = 3600)
+ * → mỗi user tối đa 10 lần / giờ trên toàn cluster.
+ * Mọi thuộc tính có thể ghi đè qua app.rate-limit.rules.ai-import.*
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimit {
+
+    /**
+     * Tên rule - dùng cho key, metrics và cấu hình properties
+     */
+    String value();
+
+    int limit();
+
+    long windowSeconds();
+
+    RateLimitAlgorithm algorithm() default RateLimitAlgorithm.TOKEN_BUCKET;
+
+    RateLimitKeyType key() default RateLimitKeyType.USER;
+
+    /**
+     * true → đếm chung toàn cluster qua Redis; false → chỉ tier local của node
+     */
+    boolean cluster() default true;
+}
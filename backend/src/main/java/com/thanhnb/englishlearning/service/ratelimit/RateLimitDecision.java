@@ -0,0 +1,21 @@
+package com.thanhnb.englishlearning.service.ratelimit;
+
+/**
+ * @param remaining         số request còn lại trong window hiện tại
+ * @param resetSeconds      số giây đến khi quota hồi đầy
+ * @param retryAfterSeconds số giây nên chờ khi bị từ chối (0 nếu được phép)
+ */
+public record RateLimitDecision(boolean allowed, int limit, int remaining, long resetSeconds, long retryAfterSeconds) {
+
+    static RateLimitDecision allow(int limit, int remaining, long resetMillis) {
+        return new RateLimitDecision(true, limit, Math.max(0, remaining), ceilSeconds(resetMillis), 0);
+    }
+
+    static RateLimitDecision reject(int limit, long resetMillis, long retryAfterMillis) {
+        return new RateLimitDecision(false, limit, 0, ceilSeconds(resetMillis), Math.max(1, ceilSeconds(retryAfterMillis)));
+    }
+
+    static long ceilSeconds(long millis) {
+        return millis <= 0 ? 0 : (millis + 999) / 1000;
+    }
+}
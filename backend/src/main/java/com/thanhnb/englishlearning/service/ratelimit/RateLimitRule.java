@@ -0,0 +1,27 @@
+package com.thanhnb.englishlearning.service.ratelimit;
+
+import com.thanhnb.englishlearning.enums.RateLimitAlgorithm;
+import com.thanhnb.englishlearning.enums.RateLimitKeyType;
+
+/**
+ * Rule đã gộp annotation + properties
+ */
+public record RateLimitRule(
+        String name,
+        int limit,
+        long windowSeconds,
+        RateLimitAlgorithm algorithm,
+        RateLimitKeyType key,
+        boolean cluster) {
+
+    public long windowMillis() {
+        return windowSeconds * 1000L;
+    }
+
+    /**
+     * Giá trị header RateLimit-Policy, ví dụ "10;w=3600"
+     */
+    public String policy() {
+        return limit + ";w=" + windowSeconds;
+    }
+}
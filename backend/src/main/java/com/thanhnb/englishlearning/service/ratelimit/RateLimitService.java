@@ -0,0 +1,104 @@
+package com.thanhnb.englishlearning.service.ratelimit;
+
+import com.thanhnb.englishlearning.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ✅ Rate limit 2 tầng
+ *
+ * 1. Tier local (mọi rule): chặn ngay tại node, không round trip
+ * 2. Tier Redis (rule cluster = true): quota chung toàn cluster
+ *
+ * Local từ chối → trả về luôn, không gọi Redis. Redis lỗi → dùng kết quả local (fail open).
+ */
+@Service
+@Slf4j
+public class RateLimitService {
+
+    private final RateLimitProperties properties;
+    private final LocalRateLimiter localLimiter;
+    private final RedisRateLimiter redisLimiter;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+    private final Counter redisErrors;
+
+    public RateLimitService(RateLimitProperties properties,
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.localLimiter = new LocalRateLimiter(properties.getLocalMaxKeys());
+        this.redisLimiter = new RedisRateLimiter(redisTemplate);
+        this.meterRegistry = meterRegistry;
+        this.redisErrors = meterRegistry.counter("ratelimit.redis.errors");
+    }
+
+    /**
+     * Gộp rule trên annotation với app.rate-limit.rules.{tên}.*
+     *
+     * @return null nếu rule bị tắt
+     */
+    public RateLimitRule resolve(RateLimit annotation) {
+        RateLimitProperties.Rule override = properties.getRules().get(annotation.value());
+        if (override == null) {
+            return new RateLimitRule(annotation.value(), annotation.limit(), annotation.windowSeconds(),
+                    annotation.algorithm(), annotation.key(), annotation.cluster());
+        }
+        if (Boolean.FALSE.equals(override.getEnabled())) {
+            return null;
+        }
+        return new RateLimitRule(
+                annotation.value(),
+                override.getLimit() != null ? override.getLimit() : annotation.limit(),
+                override.getWindowSeconds() != null ? override.getWindowSeconds() : annotation.windowSeconds(),
+                override.getAlgorithm() != null ? override.getAlgorithm() : annotation.algorithm(),
+                override.getKey() != null ? override.getKey() : annotation.key(),
+                override.getCluster() != null ? override.getCluster() : annotation.cluster());
+    }
+
+    /**
+     * @param identity giá trị key đã resolve (user id / IP / email)
+     */
+    public RateLimitDecision tryAcquire(RateLimitRule rule, String identity) {
+        String key = rule.name() + ":" + identity;
+
+        RateLimitDecision local = localLimiter.tryAcquire(key, rule);
+        if (!local.allowed()) {
+            rejected(rule, "local").increment();
+            return local;
+        }
+        if (!rule.cluster() || !properties.isRedisEnabled()) {
+            return local;
+        }
+
+        try {
+            RateLimitDecision cluster = redisLimiter.tryAcquire(key, rule);
+            if (!cluster.allowed()) {
+                rejected(rule, "redis").increment();
+            }
+            return cluster;
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.warn("⚠️ Redis rate limit check failed for {} - using local tier: {}", rule.name(), e.getMessage());
+            return local;
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    private Counter rejected(RateLimitRule rule, String tier) {
+        return rejectedCounters.computeIfAbsent(rule.name() + "|" + tier,
+                k -> Counter.builder("ratelimit.rejected")
+                        .tag("rule", rule.name())
+                        .tag("tier", tier)
+                        .register(meterRegistry));
+    }
+}
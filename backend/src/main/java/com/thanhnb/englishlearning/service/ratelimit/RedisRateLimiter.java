@@ -0,0 +1,41 @@
+package com.thanhnb.englishlearning.service.ratelimit;
+
+import com.thanhnb.englishlearning.enums.RateLimitAlgorithm;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * Tier cluster: mỗi lần kiểm tra = 1 Lua script (đọc + tính + ghi + TTL atomic)
+ */
+@RequiredArgsConstructor
+public class RedisRateLimiter {
+
+    private static final String KEY_PREFIX = "rl:";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TOKEN_BUCKET_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/rate_limit_token_bucket.lua"), List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SLIDING_WINDOW_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/rate_limit_sliding_window.lua"), List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @SuppressWarnings("unchecked")
+    public RateLimitDecision tryAcquire(String key, RateLimitRule rule) {
+        List<Long> result = redisTemplate.execute(
+                rule.algorithm() == RateLimitAlgorithm.TOKEN_BUCKET ? TOKEN_BUCKET_SCRIPT : SLIDING_WINDOW_SCRIPT,
+                List.of(KEY_PREFIX + key),
+                String.valueOf(rule.limit()),
+                String.valueOf(rule.windowMillis()));
+
+        if (result.get(0) == 1) {
+            return RateLimitDecision.allow(rule.limit(), result.get(1).intValue(), result.get(2));
+        }
+        return RateLimitDecision.reject(rule.limit(), result.get(2), result.get(3));
+    }
+}
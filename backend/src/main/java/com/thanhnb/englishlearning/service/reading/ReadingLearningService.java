@@ -17,6 +17,7 @@ import com.thanhnb.englishlearning.service.common.BaseLearningService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -107,24 +108,34 @@ public class ReadingLearningService extends BaseLearningService<ReadingLesson, U
     // SUBMIT LESSON
     // ═══════════════════════════════════════════════════════════
 
+    /**
+     * Không chạy trong transaction của class (xem BaseLearningService.processSubmission)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ReadingSubmitResponse submitLesson(Long userId, ReadingSubmitRequest request) {
-        ReadingLesson lesson = lessonRepository.findById(request.getLessonId())
-                .orElseThrow(() -> new ResourceNotFoundException("Lesson not found"));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        List<ReadingLesson> allLessons = lessonRepository.findAllByIsActiveTrueOrderByOrderIndexAsc();
-        validateLessonAccess(lesson, allLessons, userId,
-                progressRepository::existsByUserIdAndLessonIdAndIsCompletedTrue, user.getEnglishLevel());
+        SubmitContext<ReadingLesson> ctx = inReadOnlyTransaction(() -> {
+            ReadingLesson lesson = lessonRepository.findById(request.getLessonId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Lesson not found"));
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+            List<ReadingLesson> allLessons = lessonRepository.findAllByIsActiveTrueOrderByOrderIndexAsc();
+            // Đồng thời khởi tạo topic (lazy) → dùng được sau khi transaction đóng
+            validateLessonAccess(lesson, allLessons, userId,
+                    progressRepository::existsByUserIdAndLessonIdAndIsCompletedTrue, user.getEnglishLevel());
+            return new SubmitContext<>(lesson, allLessons);
+        });
+        ReadingLesson lesson = ctx.lesson();
 
         // 🔥 Dùng hàm chung Base
-        SubmitResultDTO res = processSubmission(userId, lesson, allLessons, request.getAnswers(), ModuleType.READING);
+        SubmitResultDTO res = processSubmission(userId, lesson, ctx.allLessons(), request.getAnswers(),
+                ModuleType.READING);
 
         return ReadingSubmitResponse.of(
                 lesson.getId(), lesson.getTitle(),
                 res.totalQuestions(), res.correctCount(), res.totalScore(), res.scorePercentage(),
                 res.isPassed(), res.pointsEarned(), res.hasUnlockedNext(), res.nextLessonId(),
-                res.results(), res.levelUpgradeResult());
+                res.results(), res.levelUpgradeResult(), res.followUpId());
     }
 
     // ═══════════════════════════════════════════════════════════
@@ -189,10 +200,13 @@ public class ReadingLearningService extends BaseLearningService<ReadingLesson, U
                 .pointsReward(lesson.getPointsReward())
                 .requiredLevel(getLessonRequiredLevel(lesson)).build();
 
-        // 🔥 Lấy câu hỏi từ hàm Helper của Base
-        dto.withGroupedQuestions(getGroupedQuestionsForLesson(lessonId));
+        Optional<UserReadingProgress> progressOpt = findProgress(userId, lessonId);
+
+        // 🔥 Lấy câu hỏi từ fragment cache của Base (đã serialize sẵn)
+        dto.withGroupedQuestions(getSharedGroupedQuestions(lessonId, userId,
+                progressOpt.map(UserReadingProgress::getAttempts).orElse(0)));
 
-        findProgress(userId, lessonId).ifPresent(p -> dto.withProgress(
+        progressOpt.ifPresent(p -> dto.withProgress(
                 p.getIsCompleted(), p.getScorePercentage(),
                 p.getAttempts(), p.getCompletedAt()));
         return dto;
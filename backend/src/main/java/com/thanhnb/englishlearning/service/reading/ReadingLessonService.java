@@ -7,12 +7,16 @@ import com.thanhnb.englishlearning.dto.reading.ReadingLessonDTO;
 import com.thanhnb.englishlearning.entity.reading.ReadingLesson;
 import com.thanhnb.englishlearning.entity.topic.Topic;
 import com.thanhnb.englishlearning.entity.user.User;
+import com.thanhnb.englishlearning.enums.ModuleType;
 import com.thanhnb.englishlearning.enums.ParentType;
 import com.thanhnb.englishlearning.exception.ResourceNotFoundException;
 import com.thanhnb.englishlearning.repository.reading.ReadingLessonRepository;
 import com.thanhnb.englishlearning.repository.reading.UserReadingProgressRepository;
+import com.thanhnb.englishlearning.repository.ordering.OrderScope;
 import com.thanhnb.englishlearning.repository.question.QuestionRepository;
 import com.thanhnb.englishlearning.repository.topic.TopicRepository;
+import com.thanhnb.englishlearning.service.deletion.BulkDeletionService;
+import com.thanhnb.englishlearning.service.ordering.OrderingService;
 import com.thanhnb.englishlearning.service.permission.TeacherPermissionService;
 import com.thanhnb.englishlearning.service.question.TaskGroupService;
 import com.thanhnb.englishlearning.service.user.UserService;
@@ -25,7 +29,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
 
 @Service
@@ -42,6 +45,8 @@ public class ReadingLessonService {
     private final UserService userService;
     private final TaskGroupService taskGroupService;
     private final ReadingQuestionService questionService;
+    private final BulkDeletionService bulkDeletionService;
+    private final OrderingService orderingService;
 
     // ═════════════════════════════════════════════════════════════════
     // READ OPERATIONS
@@ -81,7 +86,7 @@ public class ReadingLessonService {
                 .title(dto.getTitle())
                 .content(dto.getContent())
                 .contentTranslation(dto.getContentTranslation())
-                .orderIndex(dto.getOrderIndex())
+                .orderIndex(getNextOrderIndex(dto.getTopicId())) // Luôn thêm vào cuối, đổi chỗ qua move
                 .timeLimitSeconds(dto.getTimeLimitSeconds() != null ? dto.getTimeLimitSeconds() : 600)
                 .pointsReward(dto.getPointsReward() != null ? dto.getPointsReward() : 25)
                 .isActive(dto.getIsActive() != null ? dto.getIsActive() : true)
@@ -127,18 +132,12 @@ public class ReadingLessonService {
     public void deleteLesson(Long id) {
         ReadingLesson lesson = findLessonById(id);
         teacherPermissionService.checkTopicPermission(lesson.getTopic().getId());
-        Long topicId = lesson.getTopic().getId();
-        Integer orderIndex = lesson.getOrderIndex();
 
-        // Delete progress
-        progressRepository.deleteByLessonId(id);
-
-        // Delete lesson (questions cascade via listener)
-        lessonRepository.delete(lesson);
+        // Delete lesson + questions + task groups + progress (set-based)
+        bulkDeletionService.deleteLessons(ModuleType.READING, List.of(id));
         log.info("Deleted reading lesson: id={}", id);
 
-        // Reorder
-        reorderAfterDelete(topicId, orderIndex);
+        // Không đánh số lại các lesson còn lại: order_index thưa, khe trống không ảnh hưởng thứ tự
     }
 
     // ═════════════════════════════════════════════════════════════════
@@ -159,34 +158,16 @@ public class ReadingLessonService {
     // ORDER MANAGEMENT
     // ═════════════════════════════════════════════════════════════════
 
-    public void fixOrderIndexes(Long topicId) {
-        // Lấy danh sách
-        List<ReadingLesson> lessons = lessonRepository.findByTopicIdOrderByOrderIndexAsc(topicId);
-
-        // ✅ Sort lại trong memory để đảm bảo ổn định (ID tăng dần nếu trùng Order)
-        lessons.sort(Comparator.comparingInt(ReadingLesson::getOrderIndex)
-                .thenComparingLong(ReadingLesson::getId));
-
-        boolean changed = false;
-        for (int i = 0; i < lessons.size(); i++) {
-            ReadingLesson lesson = lessons.get(i);
-            int expected = i + 1;
-
-            if (!Integer.valueOf(expected).equals(lesson.getOrderIndex())) {
-                lesson.setOrderIndex(expected);
-                changed = true;
-            }
-        }
-
-        if (changed) {
-            lessonRepository.saveAll(lessons);
-            log.info("Fixed order indexes for {} lessons in topic {}", lessons.size(), topicId);
-        }
+    /**
+     * Dàn đều lại order_index các lesson của topic (nút "Fix Order").
+     * Kéo thả / sắp xếp hàng loạt đi qua OrderingService (move / reorder)
+     */
+    public int rebalanceOrder(Long topicId) {
+        return orderingService.rebalance(OrderScope.lessons(ParentType.READING, topicId));
     }
 
     public Integer getNextOrderIndex(Long topicId) {
-        Integer max = lessonRepository.findMaxOrderIndexByTopicId(topicId);
-        return (max != null ? max : 0) + 1;
+        return orderingService.nextKey(OrderScope.lessons(ParentType.READING, topicId));
     }
 
     // ReadingLessonService.java
@@ -216,7 +197,7 @@ public class ReadingLessonService {
                 .title(dto.getTitle())
                 .content(dto.getContent())
                 .contentTranslation(dto.getContentTranslation())
-                .orderIndex(dto.getOrderIndex())
+                .orderIndex(getNextOrderIndex(dto.getTopicId())) // Luôn thêm vào cuối, đổi chỗ qua move
                 .timeLimitSeconds(dto.getTimeLimitSeconds() != null ? dto.getTimeLimitSeconds() : 600)
                 .pointsReward(dto.getPointsReward() != null ? dto.getPointsReward() : 25)
                 .isActive(dto.getIsActive() != null ? dto.getIsActive() : true)
@@ -249,8 +230,7 @@ public class ReadingLessonService {
 
                         if (questionDTO.getOrderIndex() == null || questionDTO.getOrderIndex() == 0) {
                             questionDTO.setOrderIndex(
-                                    questionRepository.findMaxOrderIndexByLessonId(ParentType.READING, lesson.getId())
-                                            .orElse(0) + 1);
+                                    questionService.getNextOrderIndex(lesson.getId()));
                         }
 
                         questionService.createQuestion(lesson.getId(), questionDTO);
@@ -268,8 +248,7 @@ public class ReadingLessonService {
 
                 if (questionDTO.getOrderIndex() == null || questionDTO.getOrderIndex() == 0) {
                     questionDTO.setOrderIndex(
-                            questionRepository.findMaxOrderIndexByLessonId(ParentType.READING, lesson.getId())
-                                    .orElse(0) + 1);
+                            questionService.getNextOrderIndex(lesson.getId()));
                 }
 
                 questionService.createQuestion(lesson.getId(), questionDTO);
@@ -299,9 +278,6 @@ public class ReadingLessonService {
         if (dto.getContent() == null || dto.getContent().isBlank()) {
             throw new IllegalArgumentException("Content is required");
         }
-        if (dto.getOrderIndex() == null || dto.getOrderIndex() < 1) {
-            throw new IllegalArgumentException("Order index must be >= 1");
-        }
     }
 
     private void updateFields(ReadingLesson lesson, ReadingLessonDTO dto) {
@@ -321,16 +297,6 @@ public class ReadingLessonService {
             lesson.setIsActive(dto.getIsActive());
     }
 
-    private void reorderAfterDelete(Long topicId, Integer deletedPosition) {
-        List<ReadingLesson> lessons = lessonRepository.findByTopicIdOrderByOrderIndexAsc(topicId);
-
-        lessons.stream()
-                .filter(l -> l.getOrderIndex() > deletedPosition)
-                .forEach(l -> l.setOrderIndex(l.getOrderIndex() - 1));
-
-        lessonRepository.saveAll(lessons);
-    }
-
     private ReadingLessonDTO toDTO(ReadingLesson lesson) {
         long questionCount = questionRepository.countByParentTypeAndParentId(
                 ParentType.READING, lesson.getId());
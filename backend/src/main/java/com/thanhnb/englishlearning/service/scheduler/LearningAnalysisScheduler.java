@@ -9,7 +9,6 @@ import com.thanhnb.englishlearning.repository.topic.TopicRepository;
 import com.thanhnb.englishlearning.repository.user.UserLearningBehaviorRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,13 +28,17 @@ public class LearningAnalysisScheduler {
     private final ReadingLessonRepository readingRepo;
     private final ListeningLessonRepository listeningRepo;
 
-    // Chạy vào 2:00 sáng mỗi ngày
-    @Scheduled(cron = "0 0 2 * * ?")
+    /**
+     * Chạy vào 2:00 sáng mỗi ngày (job "learning-analysis" trong ClusterJobRunner)
+     *
+     * @return Số behavior đã phân tích
+     */
     @Transactional
-    public void analyzeDailyBehaviors() {
+    public int analyzeDailyBehaviors() {
         log.info("Starting daily learning behavior analysis...");
 
         List<UserLearningBehavior> behaviors = behaviorRepository.findAll();
+        int analyzed = 0;
 
         for (UserLearningBehavior behavior : behaviors) {
             try {
@@ -75,12 +78,14 @@ public class LearningAnalysisScheduler {
                 
                 behavior.setLastAnalyzedAt(LocalDateTime.now());
                 behaviorRepository.save(behavior);
+                analyzed++;
                 
             } catch (Exception e) {
                 log.error("Error analyzing behavior for user {}", behavior.getUserId(), e);
             }
         }
         
-        log.info("Daily analysis completed.");
+        log.info("Daily analysis completed. Analyzed {} behaviors", analyzed);
+        return analyzed;
     }
 }
\ No newline at end of file
@@ -1,17 +1,25 @@
 package com.thanhnb.englishlearning.service.scheduler;
 
+import com.thanhnb.englishlearning.dto.ai.RecommendationFunnelDto;
+import com.thanhnb.englishlearning.dto.ai.RecommendationFunnelDto.StepsDto;
+import com.thanhnb.englishlearning.enums.StatsGranularity;
+import com.thanhnb.englishlearning.service.ai.recommendation.RecommendationAnalyticsService;
 import com.thanhnb.englishlearning.service.ai.recommendation.RecommendationTrackingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+
 /**
  * ✅ Scheduled tasks for AI Recommendations
  * 
  * Tasks:
+ * - Rollup funnel theo ngày (daily)
  * - Cleanup expired recommendations (daily)
  * - Log effectiveness metrics (weekly)
+ *
+ * Được lên lịch qua ClusterJobRunner (xem ScheduledJobConfig)
  */
 @Service
 @RequiredArgsConstructor
@@ -19,40 +27,47 @@ import org.springframework.stereotype.Service;
 public class RecommendationScheduler {
 
     private final RecommendationTrackingService trackingService;
+    private final RecommendationAnalyticsService analyticsService;
 
     /**
      * Cleanup expired recommendations
      * Runs daily at 3:00 AM
+     *
+     * @return Số recommendation đã xóa
      */
-    @Scheduled(cron = "0 0 3 * * ?")
-    public void cleanupExpiredRecommendations() {
+    public int cleanupExpiredRecommendations() {
         log.info("🗑️ Starting cleanup of expired recommendations...");
         
-        try {
-            trackingService.cleanupExpired();
-            log.info("✅ Expired recommendations cleanup completed");
-        } catch (Exception e) {
-            log.error("❌ Failed to cleanup expired recommendations", e);
-        }
+        int deleted = trackingService.cleanupExpired();
+        log.info("✅ Expired recommendations cleanup completed");
+        return deleted;
+    }
+
+    /**
+     * Tổng hợp funnel các ngày đã kết thúc vào recommendation_daily_stats
+     * Runs daily at 0:15 AM (trước cleanup → gợi ý hết hạn được đếm trước khi bị xóa)
+     *
+     * @return Số nhóm (ngày, loại, kỹ năng) đã ghi
+     */
+    public int rollupRecommendationStats() {
+        return analyticsService.rollup();
     }
 
     /**
      * Log recommendation effectiveness metrics
-     * Runs every Monday at 9:00 AM
+     * Runs every Monday at 9:00 AM - đọc 7 ngày gần nhất từ bảng rollup
      */
-    @Scheduled(cron = "0 0 9 * * MON")
-    public void logRecommendationMetrics() {
-        log.info("📊 Weekly recommendation metrics logging...");
-        
-        try {
-            // This could be expanded to:
-            // - Send metrics to analytics service
-            // - Generate reports
-            // - Adjust AI parameters based on effectiveness
-            
-            log.info("✅ Weekly metrics logged");
-        } catch (Exception e) {
-            log.error("❌ Failed to log metrics", e);
-        }
+    public int logRecommendationMetrics() {
+        LocalDate to = LocalDate.now().minusDays(1);
+        LocalDate from = to.minusDays(6);
+        RecommendationFunnelDto funnel = analyticsService.getFunnel(from, to, null, null, StatsGranularity.DAY);
+        StepsDto totals = funnel.getTotals();
+
+        log.info("📊 Recommendation funnel {} → {}: generated={}, shown={}, accepted={} ({}%), completed={} ({}%), dismissed={}",
+                from, to, totals.getGenerated(), totals.getShown(),
+                totals.getAccepted(), String.format("%.1f", totals.getAcceptanceRate()),
+                totals.getCompleted(), String.format("%.1f", totals.getCompletionRate()),
+                totals.getDismissed());
+        return funnel.getBreakdown().size();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,47 @@
+package com.thanhnb.englishlearning.service.scheduler.job;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.function.IntSupplier;
+
+/**
+ * Khai báo một scheduled job chạy 1 lần / cluster.
+ *
+ * Đăng ký bằng cách expose bean kiểu này (xem ScheduledJobConfig).
+ * Task trả về số row bị ảnh hưởng để ghi vào lịch sử chạy.
+ */
+@Getter
+@Builder
+public class ClusterJobDefinition {
+
+    /**
+     * Tên duy nhất, dùng làm khóa lease và trong actuator (/actuator/jobs/{name})
+     */
+    private final String name;
+
+    private final String description;
+
+    /**
+     * Cron expression (Spring format: second minute hour day month weekday)
+     */
+    private final String cron;
+
+    /**
+     * Thời gian tối đa giữ lease - nếu node chết giữa chừng, lease tự hết hạn sau khoảng này
+     */
+    @Builder.Default
+    private final Duration lockAtMostFor = Duration.ofMinutes(30);
+
+    /**
+     * Thời gian tối thiểu giữ lease - tránh node khác chạy lại cùng lượt cron khi đồng hồ lệch
+     */
+    @Builder.Default
+    private final Duration lockAtLeastFor = Duration.ofSeconds(30);
+
+    @Builder.Default
+    private final boolean enabled = true;
+
+    private final IntSupplier task;
+}
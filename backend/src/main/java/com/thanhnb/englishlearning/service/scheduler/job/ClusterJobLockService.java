@@ -0,0 +1,43 @@
+package com.thanhnb.englishlearning.service.scheduler.job;
+
+import com.thanhnb.englishlearning.repository.job.ScheduledJobLockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Lease-based lock trên bảng scheduled_job_locks.
+ *
+ * Dùng lock table thay cho pg_advisory_lock vì advisory lock gắn với connection,
+ * trong khi job chạy qua nhiều transaction/connection của Hikari pool.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterJobLockService {
+
+    private final ScheduledJobLockRepository lockRepository;
+
+    public void register(String jobName) {
+        lockRepository.ensureLockRow(jobName);
+    }
+
+    /**
+     * @param ignoreMinimumHold true cho manual trigger - bỏ qua lockAtLeastFor của lần chạy đã xong
+     * @return true nếu node này giành được lease
+     */
+    public boolean tryAcquire(ClusterJobDefinition job, String nodeId, boolean ignoreMinimumHold) {
+        int updated = lockRepository.tryAcquire(job.getName(), nodeId, job.getLockAtMostFor().toSeconds(),
+                ignoreMinimumHold);
+        return updated == 1;
+    }
+
+    public void release(ClusterJobDefinition job, String nodeId) {
+        try {
+            lockRepository.release(job.getName(), nodeId, job.getLockAtLeastFor().toSeconds());
+        } catch (Exception e) {
+            // Lease sẽ tự hết hạn sau lockAtMostFor
+            log.error("Failed to release lock for job {}: {}", job.getName(), e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.thanhnb.englishlearning.service.scheduler.job;
+
+import com.thanhnb.englishlearning.entity.job.ScheduledJobLock;
+import com.thanhnb.englishlearning.entity.job.ScheduledJobRun;
+import com.thanhnb.englishlearning.enums.JobRunStatus;
+import com.thanhnb.englishlearning.enums.JobTriggerType;
+import com.thanhnb.englishlearning.exception.ResourceNotFoundException;
+import com.thanhnb.englishlearning.repository.job.ScheduledJobLockRepository;
+import com.thanhnb.englishlearning.repository.job.ScheduledJobRunRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Chạy các ClusterJobDefinition:
+ * - Mỗi job có ThreadPoolTaskScheduler riêng (job chậm không chặn job khác)
+ * - Giành lease trước khi chạy → 1 lần / cluster dù có N replicas
+ * - Ghi lịch sử chạy vào scheduled_job_runs; lần chạy RUNNING mà lease đã mất (node chết giữa chừng)
+ *   được đánh dấu FAILED khi khởi động và mỗi lần giành được lease
+ * - started_at / finished_at theo đồng hồ DB như lease; kết quả chỉ ghi khi run còn RUNNING
+ * - Manual trigger bỏ qua lockAtLeastFor, chỉ bị chặn khi job thực sự đang chạy
+ */
+@Service
+@Slf4j
+public class ClusterJobRunner {
+
+    private final Map<String, ClusterJobDefinition> jobs = new LinkedHashMap<>();
+    private final Map<String, ThreadPoolTaskScheduler> schedulers = new LinkedHashMap<>();
+    private final Map<String, LocalDateTime> runningSince = new ConcurrentHashMap<>();
+
+    private final ClusterJobLockService lockService;
+    private final ScheduledJobLockRepository lockRepository;
+    private final ScheduledJobRunRepository runRepository;
+    private final String nodeId;
+
+    public ClusterJobRunner(List<ClusterJobDefinition> definitions,
+            ClusterJobLockService lockService,
+            ScheduledJobLockRepository lockRepository,
+            ScheduledJobRunRepository runRepository,
+            @Value("${app.jobs.node-id:}") String configuredNodeId) {
+        this.lockService = lockService;
+        this.lockRepository = lockRepository;
+        this.runRepository = runRepository;
+        this.nodeId = configuredNodeId.isBlank()
+                ? ManagementFactory.getRuntimeMXBean().getName()
+                : configuredNodeId;
+
+        for (ClusterJobDefinition definition : definitions) {
+            if (jobs.putIfAbsent(definition.getName(), definition) != null) {
+                throw new IllegalStateException("Duplicate scheduled job name: " + definition.getName());
+            }
+        }
+    }
+
+    /**
+     * Chỉ bắt đầu lên lịch khi app đã sẵn sàng (schema đã được Hibernate tạo)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        failStaleRuns();
+        for (ClusterJobDefinition job : jobs.values()) {
+            lockService.register(job.getName());
+
+            ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+            scheduler.setPoolSize(1);
+            scheduler.setThreadNamePrefix("job-" + job.getName() + "-");
+            scheduler.setWaitForTasksToCompleteOnShutdown(false);
+            scheduler.initialize();
+            schedulers.put(job.getName(), scheduler);
+
+            if (job.isEnabled()) {
+                scheduler.schedule(() -> execute(job, JobTriggerType.SCHEDULED), new CronTrigger(job.getCron()));
+                log.info("⏰ Scheduled job '{}' with cron [{}] on node {}", job.getName(), job.getCron(), nodeId);
+            } else {
+                log.info("⏸️ Scheduled job '{}' is disabled (manual trigger only)", job.getName());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        schedulers.values().forEach(ThreadPoolTaskScheduler::shutdown);
+    }
+
+    // =========================================================================
+    // EXECUTION
+    // =========================================================================
+
+    /**
+     * Chạy job ngay (manual trigger) trên thread pool của job và đợi kết quả
+     * (bỏ qua lockAtLeastFor - chỉ SKIPPED khi job đang chạy trên node khác)
+     */
+    public ScheduledJobRun triggerNow(String jobName) {
+        ClusterJobDefinition job = getJob(jobName);
+        ThreadPoolTaskScheduler scheduler = schedulers.get(jobName);
+        if (scheduler == null) {
+            throw new IllegalStateException("Job scheduler not started yet: " + jobName);
+        }
+
+        Future<ScheduledJobRun> future = scheduler.submit(() -> execute(job, JobTriggerType.MANUAL));
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for job " + jobName, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Job " + jobName + " failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private ScheduledJobRun execute(ClusterJobDefinition job, JobTriggerType triggerType) {
+        if (!lockService.tryAcquire(job, nodeId, triggerType == JobTriggerType.MANUAL)) {
+            log.debug("Job '{}' skipped: lease held by another node", job.getName());
+            return ScheduledJobRun.builder()
+                    .jobName(job.getName())
+                    .triggerType(triggerType)
+                    .nodeId(nodeId)
+                    .status(JobRunStatus.SKIPPED)
+                    .startedAt(LocalDateTime.now())
+                    .build();
+        }
+        failStaleRuns();
+
+        ScheduledJobRun run = runRepository.save(ScheduledJobRun.builder()
+                .jobName(job.getName())
+                .triggerType(triggerType)
+                .nodeId(nodeId)
+                .status(JobRunStatus.RUNNING)
+                .build());
+        runningSince.put(job.getName(), run.getStartedAt());
+
+        JobRunStatus status;
+        Integer rows = null;
+        String error = null;
+        try {
+            log.info("▶️ Job '{}' started ({})", job.getName(), triggerType);
+            rows = job.getTask().getAsInt();
+            status = JobRunStatus.SUCCEEDED;
+        } catch (Exception e) {
+            status = JobRunStatus.FAILED;
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            log.error("❌ Job '{}' failed: {}", job.getName(), e.getMessage(), e);
+        } finally {
+            runningSince.remove(job.getName());
+        }
+
+        // Ghi kết quả trước khi trả lease → sweep của node khác không thấy lần chạy đã xong còn RUNNING
+        ScheduledJobRun finished;
+        try {
+            finished = finish(run, status, rows, error);
+        } finally {
+            lockService.release(job, nodeId);
+        }
+        if (finished.getStatus() == JobRunStatus.SUCCEEDED) {
+            log.info("✅ Job '{}' completed in {} ms, {} rows affected",
+                    job.getName(), finished.getDurationMs(), finished.getRowsAffected());
+        }
+        return finished;
+    }
+
+    /**
+     * UPDATE có điều kiện status = RUNNING: lease hết hạn giữa chừng → sweep đã ghi FAILED, giữ nguyên kết quả đó
+     */
+    private ScheduledJobRun finish(ScheduledJobRun run, JobRunStatus status, Integer rows, String error) {
+        if (runRepository.finishRun(run.getId(), status.name(), rows, error) == 0) {
+            log.warn("⚠️ Job '{}' run {} was already marked FAILED by the stale-run sweep → {} not recorded",
+                    run.getJobName(), run.getId(), status);
+        }
+        return runRepository.findById(run.getId()).orElse(run);
+    }
+
+    private void failStaleRuns() {
+        try {
+            int stale = runRepository.failStaleRuns();
+            if (stale > 0) {
+                log.warn("⚠️ Marked {} stale RUNNING job run(s) as FAILED (lease expired)", stale);
+            }
+        } catch (Exception e) {
+            log.error("Failed to sweep stale job runs: {}", e.getMessage(), e);
+        }
+    }
+
+    // =========================================================================
+    // STATUS
+    // =========================================================================
+
+    public List<JobStatus> getStatuses() {
+        List<JobStatus> statuses = new ArrayList<>();
+        for (ClusterJobDefinition job : jobs.values()) {
+            statuses.add(buildStatus(job));
+        }
+        return statuses;
+    }
+
+    public JobStatus getStatus(String jobName) {
+        return buildStatus(getJob(jobName));
+    }
+
+    public List<ScheduledJobRun> getHistory(String jobName, int limit) {
+        getJob(jobName);
+        return runRepository.findRecentRuns(jobName, PageRequest.of(0, Math.max(1, limit)));
+    }
+
+    private JobStatus buildStatus(ClusterJobDefinition job) {
+        ScheduledJobLock lock = lockRepository.findHeld(job.getName()).orElse(null);
+        ScheduledJobRun lastRun = runRepository.findFirstByJobNameOrderByStartedAtDesc(job.getName()).orElse(null);
+
+        return JobStatus.builder()
+                .name(job.getName())
+                .description(job.getDescription())
+                .cron(job.getCron())
+                .enabled(job.isEnabled())
+                .nextExecution(job.isEnabled() ? CronExpression.parse(job.getCron()).next(LocalDateTime.now()) : null)
+                .runningOnThisNode(runningSince.containsKey(job.getName()))
+                .lockHeldBy(lock != null ? lock.getLockedBy() : null)
+                .lockedUntil(lock != null ? lock.getLockedUntil() : null)
+                .lastStatus(lastRun != null ? lastRun.getStatus() : null)
+                .lastStartedAt(lastRun != null ? lastRun.getStartedAt() : null)
+                .lastFinishedAt(lastRun != null ? lastRun.getFinishedAt() : null)
+                .lastRowsAffected(lastRun != null ? lastRun.getRowsAffected() : null)
+                .lastError(lastRun != null ? lastRun.getErrorMessage() : null)
+                .nodeId(nodeId)
+                .build();
+    }
+
+    private ClusterJobDefinition getJob(String jobName) {
+        ClusterJobDefinition job = jobs.get(jobName);
+        if (job == null) {
+            throw new ResourceNotFoundException("Không tìm thấy scheduled job: " + jobName);
+        }
+        return job;
+    }
+
+    /**
+     * Trạng thái job cho actuator
+     */
+    @Data
+    @Builder
+    public static class JobStatus {
+        private String name;
+        private String description;
+        private String cron;
+        private boolean enabled;
+        private LocalDateTime nextExecution;
+        private boolean runningOnThisNode;
+        private String lockHeldBy;
+        private LocalDateTime lockedUntil;
+        private JobRunStatus lastStatus;
+        private LocalDateTime lastStartedAt;
+        private LocalDateTime lastFinishedAt;
+        private Integer lastRowsAffected;
+        private String lastError;
+        private String nodeId;
+    }
+}
@@ -0,0 +1,49 @@
+package com.thanhnb.englishlearning.service.scheduler.job;
+
+import com.thanhnb.englishlearning.entity.job.ScheduledJobRun;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint cho scheduled jobs
+ *
+ * - GET  /actuator/jobs          → trạng thái tất cả job
+ * - GET  /actuator/jobs/{name}   → trạng thái + lịch sử chạy gần nhất
+ * - POST /actuator/jobs/{name}   → chạy job ngay (vẫn đi qua lease + ghi lịch sử, bỏ qua lockAtLeastFor)
+ */
+@Component
+@Endpoint(id = "jobs")
+@RequiredArgsConstructor
+public class ClusterJobsEndpoint {
+
+    private static final int DEFAULT_HISTORY_LIMIT = 20;
+
+    private final ClusterJobRunner jobRunner;
+
+    @ReadOperation
+    public List<ClusterJobRunner.JobStatus> jobs() {
+        return jobRunner.getStatuses();
+    }
+
+    @ReadOperation
+    public Map<String, Object> job(@Selector String name, @Nullable Integer limit) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", jobRunner.getStatus(name));
+        result.put("history", jobRunner.getHistory(name, limit != null ? limit : DEFAULT_HISTORY_LIMIT));
+        return result;
+    }
+
+    @WriteOperation
+    public ScheduledJobRun trigger(@Selector String name) {
+        return jobRunner.triggerNow(name);
+    }
+}
@@ -0,0 +1,339 @@
+package com.thanhnb.englishlearning.service.search;
+
+import com.thanhnb.englishlearning.entity.grammar.GrammarLesson;
+import com.thanhnb.englishlearning.entity.listening.ListeningLesson;
+import com.thanhnb.englishlearning.entity.question.Question;
+import com.thanhnb.englishlearning.entity.reading.ReadingLesson;
+import com.thanhnb.englishlearning.entity.topic.Topic;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.enums.ParentType;
+import com.thanhnb.englishlearning.enums.SearchDocType;
+import com.thanhnb.englishlearning.repository.grammar.GrammarLessonRepository;
+import com.thanhnb.englishlearning.repository.listening.ListeningLessonRepository;
+import com.thanhnb.englishlearning.repository.question.QuestionRepository;
+import com.thanhnb.englishlearning.repository.reading.ReadingLessonRepository;
+import com.thanhnb.englishlearning.repository.search.SearchDocumentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * ✅ Cập nhật search_documents tăng dần theo thay đổi của lesson / question / topic
+ *
+ * - Entity listener chỉ ghi nhận (loại, id); các task được gom theo transaction và
+ *   chỉ chạy SAU KHI COMMIT, trên 1 thread riêng → không làm chậm request ghi.
+ * - Worker luôn đọc lại entity từ DB nên task trùng lặp / lỗi thời đều an toàn.
+ * - Queue đầy hoặc lỗi → bỏ qua, job "search-reindex" sẽ sửa lại toàn bộ.
+ */
+@Service
+@Slf4j
+public class SearchIndexService {
+
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]+>");
+    private static final Pattern HTML_ENTITY = Pattern.compile("&(nbsp|amp|lt|gt|quot|#39);");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int TITLE_MAX_LENGTH = 200;
+    private static final int REINDEX_PAGE_SIZE = 100;
+    private static final Object PENDING_KEY = SearchIndexService.class.getName() + ".PENDING";
+
+    public enum TaskKind {
+        LESSON_UPSERT, LESSON_REMOVE, QUESTION_UPSERT, QUESTION_REMOVE, TOPIC_UPSERT, TOPIC_REMOVE
+    }
+
+    /**
+     * module = null với task của topic
+     */
+    public record IndexTask(TaskKind kind, ModuleType module, Long id) {
+    }
+
+    private final SearchDocumentRepository searchDocumentRepository;
+    private final GrammarLessonRepository grammarLessonRepository;
+    private final ReadingLessonRepository readingLessonRepository;
+    private final ListeningLessonRepository listeningLessonRepository;
+    private final QuestionRepository questionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+
+    public SearchIndexService(SearchDocumentRepository searchDocumentRepository,
+            GrammarLessonRepository grammarLessonRepository,
+            ReadingLessonRepository readingLessonRepository,
+            ListeningLessonRepository listeningLessonRepository,
+            QuestionRepository questionRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.searchDocumentRepository = searchDocumentRepository;
+        this.grammarLessonRepository = grammarLessonRepository;
+        this.readingLessonRepository = readingLessonRepository;
+        this.listeningLessonRepository = listeningLessonRepository;
+        this.questionRepository = questionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1000),
+                r -> {
+                    Thread t = new Thread(r, "search-indexer-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("search.index.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // ==================== ENQUEUE ====================
+
+    /**
+     * Gom task vào transaction hiện tại (flush sau commit), hoặc chạy ngay nếu không có transaction
+     */
+    public void enqueue(IndexTask task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(Set.of(task));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<IndexTask> pending = (Set<IndexTask>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending == null) {
+            Set<IndexTask> tasks = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, tasks);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(tasks);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                }
+            });
+            pending = tasks;
+        }
+        pending.add(task);
+    }
+
+    private void submit(Set<IndexTask> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        List<IndexTask> batch = List.copyOf(tasks);
+        try {
+            executor.execute(() -> processBatch(batch));
+        } catch (RejectedExecutionException e) {
+            log.warn("⚠️ Search index queue full - dropped {} tasks (will be fixed by reindex job)", batch.size());
+        }
+    }
+
+    private void processBatch(List<IndexTask> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(this::apply));
+            log.debug("🔍 Indexed {} search tasks", batch.size());
+        } catch (Exception e) {
+            log.error("❌ Failed to apply {} search index tasks: {}", batch.size(), e.getMessage(), e);
+        }
+    }
+
+    private void apply(IndexTask task) {
+        switch (task.kind()) {
+            case LESSON_UPSERT -> indexLesson(task.module(), task.id());
+            case LESSON_REMOVE -> searchDocumentRepository.deleteByLesson(task.module().name(), task.id());
+            case QUESTION_UPSERT -> indexQuestion(task.id());
+            case QUESTION_REMOVE -> searchDocumentRepository.deleteBySource(
+                    SearchDocType.QUESTION.name(), task.module().name(), task.id());
+            case TOPIC_UPSERT -> indexTopic(task.id());
+            case TOPIC_REMOVE -> searchDocumentRepository.deleteByTopic(task.id());
+        }
+    }
+
+    // ==================== FULL REINDEX ====================
+
+    /**
+     * Build lại toàn bộ index. Document không được chạm tới (nguồn đã xóa) sẽ bị dọn ở cuối.
+     *
+     * @return số lesson đã index
+     */
+    public int reindexAll() {
+        LocalDateTime startedAt = searchDocumentRepository.databaseNow();
+        int lessons = 0;
+        for (ModuleType module : ModuleType.values()) {
+            lessons += reindexModule(module);
+        }
+        Integer removed = transactionTemplate.execute(status ->
+                searchDocumentRepository.deleteStaleDocuments(startedAt));
+        log.info("🔍 Search reindex done: {} lessons indexed, {} stale documents removed", lessons, removed);
+        return lessons;
+    }
+
+    private int reindexModule(ModuleType module) {
+        int indexed = 0;
+        int page = 0;
+        while (true) {
+            final int currentPage = page;
+            Integer count = transactionTemplate.execute(status -> {
+                List<Long> ids = findLessonIds(module, currentPage);
+                ids.forEach(id -> indexLesson(module, id));
+                return ids.size();
+            });
+            if (count == null || count == 0) {
+                break;
+            }
+            indexed += count;
+            if (count < REINDEX_PAGE_SIZE) {
+                break;
+            }
+            page++;
+        }
+        return indexed;
+    }
+
+    private List<Long> findLessonIds(ModuleType module, int page) {
+        PageRequest pageRequest = PageRequest.of(page, REINDEX_PAGE_SIZE, Sort.by("id"));
+        Page<Long> result = switch (module) {
+            case GRAMMAR -> grammarLessonRepository.findAll(pageRequest).map(GrammarLesson::getId);
+            case READING -> readingLessonRepository.findAll(pageRequest).map(ReadingLesson::getId);
+            case LISTENING -> listeningLessonRepository.findAll(pageRequest).map(ListeningLesson::getId);
+        };
+        return result.getContent();
+    }
+
+    // ==================== INDEXING ====================
+
+    private void indexTopic(Long topicId) {
+        // Topic đổi active / level → index lại mọi lesson của topic
+        grammarLessonRepository.findByTopicIdOrderByOrderIndexAsc(topicId)
+                .forEach(l -> indexLesson(ModuleType.GRAMMAR, l.getId()));
+        readingLessonRepository.findByTopicIdOrderByOrderIndexAsc(topicId)
+                .forEach(l -> indexLesson(ModuleType.READING, l.getId()));
+        listeningLessonRepository.findByTopicIdOrderByOrderIndexAsc(topicId)
+                .forEach(l -> indexLesson(ModuleType.LISTENING, l.getId()));
+    }
+
+    private void indexLesson(ModuleType module, Long lessonId) {
+        LessonSnapshot lesson = loadLesson(module, lessonId);
+        if (lesson == null) {
+            searchDocumentRepository.deleteByLesson(module.name(), lessonId);
+            return;
+        }
+
+        upsert(SearchDocType.LESSON, module, lessonId, lesson, lesson.text());
+
+        ParentType parentType = toParentType(module);
+        for (Question question : questionRepository.findByParentTypeAndParentIdOrderByOrderIndexAsc(parentType, lessonId)) {
+            upsert(SearchDocType.QUESTION, module, question.getId(), lesson, question.getQuestionText());
+        }
+    }
+
+    private void indexQuestion(Long questionId) {
+        Question question = questionRepository.findById(questionId).orElse(null);
+        if (question == null) {
+            return;
+        }
+        ModuleType module = toModuleType(question.getParentType());
+        if (module == null) {
+            return;
+        }
+        LessonSnapshot lesson = loadLesson(module, question.getParentId());
+        if (lesson == null) {
+            return;
+        }
+        upsert(SearchDocType.QUESTION, module, questionId, lesson, question.getQuestionText());
+    }
+
+    private void upsert(SearchDocType docType, ModuleType module, Long sourceId, LessonSnapshot lesson, String text) {
+        searchDocumentRepository.upsert(
+                docType.name(),
+                module.name(),
+                sourceId,
+                lesson.id(),
+                lesson.topic() != null ? lesson.topic().getId() : null,
+                lesson.topic() != null && lesson.topic().getLevelRequired() != null
+                        ? lesson.topic().getLevelRequired().name() : null,
+                truncate(lesson.title()),
+                toPlainText(text),
+                lesson.active());
+    }
+
+    // ==================== HELPERS ====================
+
+    private record LessonSnapshot(Long id, String title, String text, Topic topic, boolean active) {
+    }
+
+    private LessonSnapshot loadLesson(ModuleType module, Long lessonId) {
+        return switch (module) {
+            case GRAMMAR -> grammarLessonRepository.findById(lessonId)
+                    .map(l -> snapshot(l.getId(), l.getTitle(), l.getContent(), l.getTopic(), l.getIsActive()))
+                    .orElse(null);
+            case READING -> readingLessonRepository.findById(lessonId)
+                    .map(l -> snapshot(l.getId(), l.getTitle(), l.getContent(), l.getTopic(), l.getIsActive()))
+                    .orElse(null);
+            case LISTENING -> listeningLessonRepository.findById(lessonId)
+                    .map(l -> snapshot(l.getId(), l.getTitle(), l.getTranscript(), l.getTopic(), l.getIsActive()))
+                    .orElse(null);
+        };
+    }
+
+    private LessonSnapshot snapshot(Long id, String title, String text, Topic topic, Boolean lessonActive) {
+        boolean active = Boolean.TRUE.equals(lessonActive)
+                && (topic == null || Boolean.TRUE.equals(topic.getIsActive()));
+        return new LessonSnapshot(id, title, text, topic, active);
+    }
+
+    static String toPlainText(String html) {
+        if (html == null || html.isBlank()) {
+            return null;
+        }
+        String text = HTML_TAG.matcher(html).replaceAll(" ");
+        text = HTML_ENTITY.matcher(text).replaceAll(" ");
+        return WHITESPACE.matcher(text).replaceAll(" ").trim();
+    }
+
+    private static String truncate(String title) {
+        if (title == null) {
+            return "";
+        }
+        return title.length() > TITLE_MAX_LENGTH ? title.substring(0, TITLE_MAX_LENGTH) : title;
+    }
+
+    public static ModuleType toModuleType(ParentType parentType) {
+        return switch (parentType) {
+            case GRAMMAR -> ModuleType.GRAMMAR;
+            case READING -> ModuleType.READING;
+            case LISTENING -> ModuleType.LISTENING;
+            default -> null;
+        };
+    }
+
+    public static ParentType toParentType(ModuleType module) {
+        return switch (module) {
+            case GRAMMAR -> ParentType.GRAMMAR;
+            case READING -> ParentType.READING;
+            case LISTENING -> ParentType.LISTENING;
+        };
+    }
+}
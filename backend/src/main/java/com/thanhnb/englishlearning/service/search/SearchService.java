@@ -0,0 +1,83 @@
+package com.thanhnb.englishlearning.service.search;
+
+import com.thanhnb.englishlearning.dto.PaginatedResponse;
+import com.thanhnb.englishlearning.dto.search.SearchResultDTO;
+import com.thanhnb.englishlearning.enums.EnglishLevel;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.enums.SearchDocType;
+import com.thanhnb.englishlearning.repository.search.SearchDocumentRepository;
+import com.thanhnb.englishlearning.repository.search.SearchDocumentRepository.SearchHitView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * ✅ Full-text search trên lessons (content / transcript) và questions
+ *
+ * - Query theo cú pháp websearch: "present perfect", -continuous, past OR present
+ * - Ranked (ts_rank_cd, title lesson có trọng số cao hơn body), phân trang 1-indexed
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchService {
+
+    public static final int MAX_PAGE_SIZE = 50;
+    public static final int MAX_QUERY_LENGTH = 200;
+
+    private final SearchDocumentRepository searchDocumentRepository;
+
+    /**
+     * @param activeOnly true với user thường → chỉ trả lesson / topic đang active
+     */
+    @Transactional(readOnly = true)
+    public PaginatedResponse<SearchResultDTO> search(String query, ModuleType module, EnglishLevel level,
+            Long topicId, SearchDocType docType, boolean activeOnly, int page, int size) {
+
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Từ khóa tìm kiếm không được để trống");
+        }
+        String q = query.trim();
+        if (q.length() > MAX_QUERY_LENGTH) {
+            q = q.substring(0, MAX_QUERY_LENGTH);
+        }
+        int safePage = Math.max(page, 1);
+        int safeSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        String moduleName = module != null ? module.name() : null;
+        String levelName = level != null ? level.name() : null;
+        String docTypeName = docType != null ? docType.name() : null;
+
+        long total = searchDocumentRepository.countMatches(q, docTypeName, moduleName, levelName, topicId, activeOnly);
+        List<SearchResultDTO> content = total == 0
+                ? List.of()
+                : searchDocumentRepository.search(q, docTypeName, moduleName, levelName, topicId, activeOnly,
+                        safeSize, (long) (safePage - 1) * safeSize)
+                        .stream()
+                        .map(this::toDto)
+                        .toList();
+
+        int totalPages = (int) ((total + safeSize - 1) / safeSize);
+        log.debug("🔍 Search '{}' → {} hits (page {}/{})", q, total, safePage, totalPages);
+
+        return new PaginatedResponse<>(content, safePage, safeSize, total, totalPages, safePage >= totalPages);
+    }
+
+    private SearchResultDTO toDto(SearchHitView hit) {
+        SearchDocType docType = SearchDocType.valueOf(hit.getDocType());
+        return SearchResultDTO.builder()
+                .docType(docType)
+                .module(ModuleType.valueOf(hit.getModule()))
+                .lessonId(hit.getLessonId())
+                .questionId(docType == SearchDocType.QUESTION ? hit.getSourceId() : null)
+                .topicId(hit.getTopicId())
+                .level(hit.getLevel() != null ? EnglishLevel.valueOf(hit.getLevel()) : null)
+                .title(hit.getTitle())
+                .snippet(hit.getSnippet())
+                .rank(hit.getRank())
+                .build();
+    }
+}
@@ -1,19 +1,29 @@
 package com.thanhnb.englishlearning.service.topic;
 
 import com.thanhnb.englishlearning.dto.PaginatedResponse;
+import com.thanhnb.englishlearning.dto.common.DeletionReport;
 import com.thanhnb.englishlearning.dto.topic.TopicDto;
 import com.thanhnb.englishlearning.dto.topic.request.CreateTopicRequest;
+import com.thanhnb.englishlearning.dto.topic.request.TopicFilterRequest;
 import com.thanhnb.englishlearning.dto.topic.request.UpdateTopicRequest;
 import com.thanhnb.englishlearning.entity.topic.Topic;
 import com.thanhnb.englishlearning.enums.ModuleType;
 import com.thanhnb.englishlearning.exception.ResourceNotFoundException;
+import com.thanhnb.englishlearning.repository.ordering.OrderScope;
+import com.thanhnb.englishlearning.repository.topic.TopicCatalogRepository;
+import com.thanhnb.englishlearning.repository.topic.TopicCatalogRepository.CatalogPage;
+import com.thanhnb.englishlearning.repository.topic.TopicCatalogRepository.CatalogRow;
+import com.thanhnb.englishlearning.repository.topic.TopicCatalogRepository.TopicCounts;
 import com.thanhnb.englishlearning.repository.topic.TopicRepository;
+import com.thanhnb.englishlearning.service.deletion.BulkDeletionService;
+import com.thanhnb.englishlearning.service.ordering.OrderingService;
 import com.thanhnb.englishlearning.util.PaginationHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,26 +35,34 @@ import java.util.List;
 public class TopicService {
 
     private final TopicRepository topicRepository;
-    private final TeacherAssignmentService assignmentService;
+    private final TopicCatalogRepository topicCatalogRepository;
+    private final BulkDeletionService bulkDeletionService;
+    private final OrderingService orderingService;
 
+    /**
+     * Danh sách topic của Admin: 1 câu SQL cho cả trang kèm số lesson / câu hỏi / giáo viên
+     *
+     * @param sort   "field" hoặc "field:desc" - field có thể là lessonCount, questionCount, teacherCount...
+     * @param filter null → không lọc
+     */
     @Transactional(readOnly = true)
-    public PaginatedResponse<TopicDto> getAllTopics(ModuleType moduleType, int page, int size, String sort) {
+    public PaginatedResponse<TopicDto> getAllTopics(ModuleType moduleType, int page, int size, String sort,
+            TopicFilterRequest filter) {
         Pageable pageable = PaginationHelper.createPageable(page, size, sort);
+        Sort.Order order = pageable.getSort().iterator().next();
 
-        Page<Topic> topicPage = topicRepository.findByModuleType(moduleType, pageable);
+        CatalogPage catalogPage = topicCatalogRepository.findPage(moduleType, filter, order.getProperty(),
+                order.isDescending(), pageable.getPageSize(), (int) pageable.getOffset());
 
-        return PaginationHelper.toPaginatedResponse(topicPage, this::mapToDto);
+        List<TopicDto> content = catalogPage.rows().stream().map(this::mapToDto).toList();
+        return PaginatedResponse.of(new PageImpl<>(content, pageable, catalogPage.total()));
     }
 
     @Transactional(readOnly = true)
     public List<TopicDto> getTopicsByModule(ModuleType moduleType, boolean isActive) {
-        List<Topic> topics;
-        if (isActive) {
-            topics = topicRepository.findByModuleTypeAndIsActiveOrderByOrderIndexAsc(moduleType, true);
-        } else {
-            topics = topicRepository.findByModuleTypeOrderByOrderIndexAsc(moduleType);
-        }
-        return topics.stream().map(this::mapToDto).toList();
+        TopicFilterRequest filter = isActive ? TopicFilterRequest.builder().isActive(true).build() : null;
+        return topicCatalogRepository.findPage(moduleType, filter, "orderIndex", false, null, 0)
+                .rows().stream().map(this::mapToDto).toList();
     }
 
     @Transactional(readOnly = true)
@@ -64,15 +82,12 @@ public class TopicService {
         topic.setModuleType(moduleType);
         topic.setIsActive(true); // Mặc định Active khi mới tạo
 
-        // LOGIC MỚI: Tự động tính OrderIndex nếu không truyền vào
-        if (request.getOrderIndex() == null) {
-            topic.setOrderIndex(getNextOrderIndex(moduleType));
-        } else {
-            topic.setOrderIndex(request.getOrderIndex());
-        }
+        // Topic mới luôn ở cuối (max + gap) - orderIndex client gửi lên bị bỏ qua, đổi chỗ qua OrderingService.move
+        topic.setOrderIndex(getNextOrderIndex(moduleType));
 
         Topic savedTopic = topicRepository.save(topic);
-        return mapToDto(savedTopic);
+        // Topic mới: chưa có lesson / giáo viên → không cần query số đếm
+        return mapToDto(savedTopic, TopicCounts.EMPTY);
     }
 
     // ==================== 2. UPDATE ====================
@@ -104,23 +119,17 @@ public class TopicService {
         return mapToDto(savedTopic);
     }
 
-    // ==================== 3. DELETE (SMART RE-ORDER) ====================
+    // ==================== 3. DELETE ====================
     @Transactional
-    public void deleteTopic(Long id) {
-        Topic topic = topicRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Topic not found"));
-
-        ModuleType moduleType = topic.getModuleType();
-
-        // Bước 1: Hủy tất cả phân công giáo viên (Clean up dependencies)
-        assignmentService.revokeAllAssignmentsByTopic(id);
-
-        // Bước 2: Xóa Topic
-        topicRepository.delete(topic);
-        log.info("Deleted topic ID: {}", id);
+    public DeletionReport deleteTopic(Long id) {
+        if (!topicRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Topic not found");
+        }
 
-        // Bước 3: [QUAN TRỌNG] Sắp xếp lại thứ tự các topic còn lại để lấp chỗ trống
-        fixOrderIndexes(moduleType);
+        // Xóa topic + lessons + questions + progress + phân công giáo viên (set-based)
+        // Topic lớn → soft-delete, job "deleted-topic-purge" xóa thật sau
+        // Không đánh số lại các topic còn lại: order_index thưa, khe trống không ảnh hưởng thứ tự
+        return bulkDeletionService.deleteTopic(id);
     }
 
     // ==================== 4. TOGGLE STATUS (QUICK ACTION) ====================
@@ -135,44 +144,33 @@ public class TopicService {
         return mapToDto(topicRepository.save(topic));
     }
 
-    // ==================== 5. UTILITIES: FIX ORDER & GET NEXT ====================
+    // ==================== 5. UTILITIES: REBALANCE ORDER & GET NEXT ====================
 
     /**
-     * Hàm chuẩn hóa lại thứ tự (Ví dụ: 1, 5, 9 -> 1, 2, 3)
-     * Gọi hàm này sau khi Xóa hoặc khi Admin bấm nút "Fix Order"
+     * Dàn đều lại order_index các topic của module (nút "Fix Order" của Admin).
+     * Kéo thả / sắp xếp hàng loạt đi qua OrderingService (move / reorder)
      */
     @Transactional
-    public void fixOrderIndexes(ModuleType moduleType) {
-        List<Topic> topics = topicRepository.findByModuleTypeOrderByOrderIndexAsc(moduleType);
-
-        int expectedOrder = 1;
-        int fixedCount = 0;
-
-        for (Topic t : topics) {
-            // Nếu thứ tự hiện tại sai lệch so với mong đợi (1, 2, 3...)
-            if (t.getOrderIndex() == null || t.getOrderIndex() != expectedOrder) {
-                t.setOrderIndex(expectedOrder);
-                fixedCount++;
-            }
-            expectedOrder++;
-        }
-
-        if (fixedCount > 0) {
-            topicRepository.saveAll(topics); // Lưu lại các thay đổi
-            log.info("Auto-fixed order for {} topics in module {}", fixedCount, moduleType);
-        }
+    public int rebalanceOrder(ModuleType moduleType) {
+        return orderingService.rebalance(OrderScope.topics(moduleType));
     }
 
-    // Lấy số thứ tự tiếp theo (Max + 1)
+    // Key thứ tự cho topic mới ở cuối danh sách (max + gap)
     public Integer getNextOrderIndex(ModuleType moduleType) {
-        Integer maxOrder = topicRepository.findMaxOrderIndexByModuleType(moduleType);
-        return (maxOrder == null) ? 1 : maxOrder + 1;
+        return orderingService.nextKey(OrderScope.topics(moduleType));
     }
 
     // ==================== PRIVATE MAPPER ====================
 
+    // 1 topic: số đếm lấy bằng 1 câu query (danh sách thì đã có sẵn trong CatalogRow)
     private TopicDto mapToDto(Topic topic) {
-        long lessonCount = topicRepository.countLessonsById(topic.getId());
+        TopicCounts counts = topicCatalogRepository.findById(topic.getModuleType(), topic.getId())
+                .map(CatalogRow::counts)
+                .orElse(TopicCounts.EMPTY);
+        return mapToDto(topic, counts);
+    }
+
+    private TopicDto mapToDto(Topic topic, TopicCounts counts) {
         return TopicDto.builder()
                 .id(topic.getId())
                 .name(topic.getName())
@@ -183,9 +181,29 @@ public class TopicService {
                 .isActive(topic.getIsActive())
                 .createdAt(topic.getCreatedAt())
                 .updatedAt(topic.getUpdatedAt())
-                // lessonCount và teacherCount có thể tính sau hoặc set tạm null
-                .lessonCount((int) lessonCount)
-                .teacherCount(0)
+                .lessonCount(counts.lessons())
+                .activeLessonCount(counts.activeLessons())
+                .questionCount(counts.questions())
+                .teacherCount(counts.teachers())
+                .build();
+    }
+
+    private TopicDto mapToDto(CatalogRow row) {
+        TopicCounts counts = row.counts();
+        return TopicDto.builder()
+                .id(row.id())
+                .name(row.name())
+                .description(row.description())
+                .moduleType(row.moduleType())
+                .levelRequired(row.levelRequired())
+                .orderIndex(row.orderIndex())
+                .isActive(row.isActive())
+                .createdAt(row.createdAt())
+                .updatedAt(row.updatedAt())
+                .lessonCount(counts.lessons())
+                .activeLessonCount(counts.activeLessons())
+                .questionCount(counts.questions())
+                .teacherCount(counts.teachers())
                 .build();
     }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ import com.thanhnb.englishlearning.exception.*;
 import com.thanhnb.englishlearning.repository.user.UserActivityRepository;
 import com.thanhnb.englishlearning.repository.user.UserRepository;
 import com.thanhnb.englishlearning.repository.user.UserStatsRepository;
+import com.thanhnb.englishlearning.service.user.credential.CredentialVerificationService;
 import com.thanhnb.englishlearning.util.JwtUtil;
 import com.thanhnb.englishlearning.util.ValidationUtil;
 
@@ -20,12 +21,22 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
-
+import java.util.function.Supplier;
+
+/**
+ * Đăng ký / đăng nhập / OTP
+ *
+ * Các hàm login chạy ngoài transaction (Propagation.NOT_SUPPORTED): tìm user trong 1 transaction ngắn chỉ đọc,
+ * verify mật khẩu trên hashing pool KHÔNG giữ connection, rồi mới mở transaction ghi lần đăng nhập.
+ * → đợt login dồn dập bị hashing pool trả 503 nhanh thay vì vét cạn Hikari pool.
+ */
 @Service
 @RequiredArgsConstructor
 @Transactional
@@ -35,12 +46,14 @@ public class AuthService {
     private final UserRepository userRepository;
     private final UserStatsRepository statsRepository;
     private final UserActivityRepository activityRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final CredentialVerificationService credentialService;
     private final JwtUtil jwtUtil;
     private final RedisOtpService redisOtpService;
     private final JwtBlacklistService jwtBlacklistService;
     private final EmailService emailService;
     private final LoginAttemptService loginAttemptService;
+    private final EngagementTracker engagementTracker;
+    private final PlatformTransactionManager transactionManager;
 
     // ==================== USER AUTHENTICATION ====================
 
@@ -91,6 +104,7 @@ public class AuthService {
      */
     @Retryable(retryFor = {
             ObjectOptimisticLockingFailureException.class }, maxAttempts = 3, backoff = @Backoff(delay = 200, multiplier = 1.5))
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse loginUser(LoginRequest request, String ipAddress, String userAgent) {
         if (loginAttemptService.isBlocked(request.getUsernameOrEmail())) {
             throw new UserBlockedException(
@@ -116,10 +130,12 @@ public class AuthService {
 
         loginAttemptService.loginSucceeded(request.getUsernameOrEmail());
 
-        updateStreakOnLogin(user.getId());
-
         try {
-            recordUserLogin(user.getId(), ipAddress, userAgent);
+            inTransaction(() -> {
+                updateTimeZone(user, request.getTimeZone());
+                recordUserLogin(user.getId(), ipAddress, userAgent);
+                return null;
+            });
         } catch (ObjectOptimisticLockingFailureException e) {
             log.warn("Optimistic lock on login record, will retry: {}", e.getMessage());
             throw e;
@@ -136,7 +152,7 @@ public class AuthService {
 
         log.info("User logged in successfully: {} from IP: {}", user.getUsername(), ipAddress);
 
-        return buildAuthResponse(token, user);
+        return inTransaction(() -> buildAuthResponse(token, user));
     }
 
     public void verifyUserEmail(String email, String otp) {
@@ -182,6 +198,7 @@ public class AuthService {
      */
     @Retryable(retryFor = {
             ObjectOptimisticLockingFailureException.class }, maxAttempts = 3, backoff = @Backoff(delay = 200, multiplier = 1.5))
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse loginAdmin(LoginRequest request, String ipAddress, String userAgent) {
         if (loginAttemptService.isBlocked(request.getUsernameOrEmail())) {
             throw new UserBlockedException(
@@ -203,7 +220,10 @@ public class AuthService {
         loginAttemptService.loginSucceeded(request.getUsernameOrEmail());
 
         try {
-            recordUserLogin(admin.getId(), ipAddress, userAgent);
+            inTransaction(() -> {
+                recordUserLogin(admin.getId(), ipAddress, userAgent);
+                return null;
+            });
         } catch (ObjectOptimisticLockingFailureException e) {
             log.warn("Optimistic lock on admin login record, will retry: {}", e.getMessage());
             throw e;
@@ -239,7 +259,7 @@ public class AuthService {
         User admin = new User();
         admin.setUsername(username);
         admin.setEmail(email);
-        admin.setPassword(passwordEncoder.encode(password));
+        admin.setPassword(credentialService.encode(password));
         admin.setFullName(fullName);
         admin.setRole(UserRole.ADMIN);
         admin.setEnglishLevel(EnglishLevel.C2);
@@ -323,7 +343,7 @@ public class AuthService {
         }
 
         User user = userOpt.get();
-        user.setPassword(passwordEncoder.encode(newPassword));
+        user.setPassword(credentialService.encode(newPassword));
         userRepository.save(user);
 
         log.info("Password reset successfully for: {}", email);
@@ -348,7 +368,7 @@ public class AuthService {
         User user = new User();
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(credentialService.encode(request.getPassword()));
         user.setFullName(request.getFullName());
         user.setRole(role);
         user.setEnglishLevel(EnglishLevel.A1);
@@ -358,11 +378,16 @@ public class AuthService {
         return user;
     }
 
+    /**
+     * Tìm user (transaction ngắn) rồi verify mật khẩu ngoài transaction
+     * → request thread không giữ JDBC connection trong lúc chờ hashing pool
+     *
+     * Transaction tìm user không đánh dấu readOnly: hash / trạng thái vừa đổi (reset mật khẩu, xác thực email)
+     * phải đọc từ primary, replica có thể còn trễ.
+     */
     private User authenticateUser(LoginRequest request) {
-        Optional<User> userOpt = userRepository.findByUsername(request.getUsernameOrEmail());
-        if (userOpt.isEmpty()) {
-            userOpt = userRepository.findByEmail(request.getUsernameOrEmail());
-        }
+        Optional<User> userOpt = inTransaction(() -> userRepository.findByUsername(request.getUsernameOrEmail())
+                .or(() -> userRepository.findByEmail(request.getUsernameOrEmail())));
 
         if (userOpt.isEmpty()) {
             loginAttemptService.loginFailed(request.getUsernameOrEmail());
@@ -371,11 +396,19 @@ public class AuthService {
 
         User user = userOpt.get();
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        // BCrypt chạy trên hashing pool riêng, không chiếm CPU của request thread
+        CredentialVerificationService.VerificationResult result = credentialService
+                .verify(request.getPassword(), user.getPassword());
+
+        if (!result.matched()) {
             loginAttemptService.loginFailed(request.getUsernameOrEmail());
             throw new InvalidCredentialsException("Mật khẩu không chính xác");
         }
 
+        if (result.needsRehash()) {
+            credentialService.rehashAsync(user.getId(), request.getPassword(), user.getPassword());
+        }
+
         return user;
     }
 
@@ -391,27 +424,28 @@ public class AuthService {
 
         activity.recordLogin(ipAddress, userAgent);
         activityRepository.save(activity);
+        engagementTracker.recordLogin(userId);
 
         log.debug("Login recorded for user ID: {}", userId);
     }
 
-    private void updateStreakOnLogin(Long userId) {
-        UserStats stats = statsRepository.findById(userId)
-                .orElseGet(() -> createNewStats(userId));
-
-        boolean updated = stats.updateStreakOnActivity();
-
-        if (updated) {
-            statsRepository.save(stats);
-            log.info("User {} streak updated: {} days", userId, stats.getCurrentStreak());
-        } else {
-            log.debug("User {} already has streak for today", userId);
+    /**
+     * Streak không còn được cập nhật khi đăng nhập (chỉ khi nộp bài - StreakService).
+     * Client gửi múi giờ của trình duyệt → lưu lại để tính "hôm nay" của streak; giá trị sai bị bỏ qua
+     */
+    private void updateTimeZone(User user, String timeZone) {
+        if (timeZone == null || timeZone.equals(user.getTimeZone()) || !ValidationUtil.isTimeZoneValid(timeZone)) {
+            return;
         }
+        user.setTimeZone(timeZone);
+        userRepository.save(user);
+        log.debug("User {} time zone set to {}", user.getId(), timeZone);
     }
 
     @Retryable(retryFor = {
             ObjectOptimisticLockingFailureException.class
     }, maxAttempts = 3, backoff = @Backoff(delay = 200, multiplier = 1.5))
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse loginTeacher(LoginRequest request, String ipAddress, String userAgent) {
         if (loginAttemptService.isBlocked(request.getUsernameOrEmail())) {
             throw new UserBlockedException(
@@ -439,13 +473,11 @@ public class AuthService {
 
         loginAttemptService.loginSucceeded(request.getUsernameOrEmail());
 
-        updateStreakOnLogin(teacher.getId());
-
-        UserActivity activity = activityRepository.findById(teacher.getId())
-                .orElseGet(() -> createNewActivity(teacher.getId()));
-
-        activity.recordLogin(ipAddress, userAgent);
-        activityRepository.save(activity);
+        inTransaction(() -> {
+            updateTimeZone(teacher, request.getTimeZone());
+            recordUserLogin(teacher.getId(), ipAddress, userAgent);
+            return null;
+        });
 
         try {
             Thread.sleep(2);
@@ -458,7 +490,7 @@ public class AuthService {
 
         log.info("Teacher logged in successfully: {} from IP: {}", teacher.getUsername(), ipAddress);
 
-        return buildAuthResponse(token, teacher);
+        return inTransaction(() -> buildAuthResponse(token, teacher));
     }
 
     private AuthResponse buildAuthResponse(String token, User user) {
@@ -489,6 +521,12 @@ public class AuthService {
         }
     }
 
+    // ==================== TRANSACTION HELPERS (login) ====================
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
     // ==================== ENTITY CREATION HELPERS ====================
 
     // ✅ FIX: createTeacherAccount method in AuthService.java
@@ -513,7 +551,7 @@ public class AuthService {
         User teacher = new User();
         teacher.setUsername(username);
         teacher.setEmail(email);
-        teacher.setPassword(passwordEncoder.encode(password));
+        teacher.setPassword(credentialService.encode(password));
         teacher.setFullName(fullName);
         teacher.setRole(UserRole.TEACHER);
         teacher.setEnglishLevel(EnglishLevel.B2); // Default level for teachers
@@ -0,0 +1,132 @@
+package com.thanhnb.englishlearning.service.user;
+
+import com.thanhnb.englishlearning.config.EngagementProperties;
+import com.thanhnb.englishlearning.dto.user.response.ChurnCohortsDto;
+import com.thanhnb.englishlearning.dto.user.response.ChurnCohortsDto.CohortDto;
+import com.thanhnb.englishlearning.dto.user.response.EngagementOverviewDto;
+import com.thanhnb.englishlearning.dto.user.response.EngagementSeriesDto;
+import com.thanhnb.englishlearning.dto.user.response.EngagementSeriesDto.DayDto;
+import com.thanhnb.englishlearning.repository.user.EngagementStatsRepository;
+import com.thanhnb.englishlearning.service.user.EngagementTracker.Event;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 📈 Thống kê tương tác cho Admin - không quét bảng user lúc request
+ *
+ * - getOverview(): PFCOUNT trực tiếp trên HyperLogLog của Redis (vài lệnh O(1))
+ * - rollup(): job "engagement-rollup" chốt số liệu các ngày đã kết thúc vào engagement_daily_stats và
+ *   engagement_churn_cohorts (churn tính tăng dần theo từng ngày)
+ * - getDailySeries() / getChurnCohorts(): chỉ đọc bảng rollup
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EngagementAnalyticsService {
+
+    private final EngagementTracker tracker;
+    private final EngagementStatsRepository statsRepository;
+    private final EngagementProperties properties;
+
+    /**
+     * DAU / WAU / MAU tính đến hiện tại
+     */
+    public EngagementOverviewDto getOverview() {
+        LocalDate today = LocalDate.now();
+        long active = tracker.countDay(Event.ACTIVE, today);
+        long monthly = tracker.countRolling(Event.ACTIVE, today, 30);
+
+        return EngagementOverviewDto.builder()
+                .date(today)
+                .activeToday(active)
+                .loginsToday(tracker.countDay(Event.LOGIN, today))
+                .activeLast7Days(tracker.countRolling(Event.ACTIVE, today, 7))
+                .activeLast30Days(monthly)
+                .activeThisWeek(tracker.countWeek(Event.ACTIVE, today))
+                .activeThisMonth(tracker.countMonth(Event.ACTIVE, today))
+                .stickiness(percent(active, monthly))
+                .build();
+    }
+
+    /**
+     * Chốt rollupDays ngày gần nhất (không gồm hôm nay)
+     *
+     * @return Số ngày đã ghi
+     */
+    public int rollup() {
+        LocalDate today = LocalDate.now();
+        int days = 0;
+        for (int i = properties.getRollupDays(); i >= 1; i--) {
+            LocalDate day = today.minusDays(i);
+            statsRepository.upsertCohortDay(day, properties.getChurnDays());
+            statsRepository.upsertDaily(day,
+                    tracker.countDay(Event.ACTIVE, day),
+                    tracker.countRolling(Event.ACTIVE, day, 7),
+                    tracker.countRolling(Event.ACTIVE, day, 30),
+                    tracker.countDay(Event.LOGIN, day));
+            days++;
+        }
+        log.info("📈 Engagement rollup completed for the last {} days", days);
+        return days;
+    }
+
+    /**
+     * Số liệu theo ngày trong [from, to]
+     *
+     * @throws IllegalArgumentException khoảng ngày không hợp lệ hoặc dài hơn maxSeriesDays
+     */
+    public EngagementSeriesDto getDailySeries(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from phải trước hoặc bằng to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) + 1 > properties.getMaxSeriesDays()) {
+            throw new IllegalArgumentException("Khoảng thời gian tối đa " + properties.getMaxSeriesDays() + " ngày");
+        }
+
+        return EngagementSeriesDto.builder()
+                .from(from)
+                .to(to)
+                .churnDays(properties.getChurnDays())
+                .days(statsRepository.findDaily(from, to).stream()
+                        .map(row -> DayDto.builder()
+                                .date(row.date())
+                                .activeUsers(row.activeUsers())
+                                .weeklyActiveUsers(row.weeklyActiveUsers())
+                                .monthlyActiveUsers(row.monthlyActiveUsers())
+                                .loginUsers(row.loginUsers())
+                                .newUsers(row.newUsers())
+                                .churnedUsers(row.churnedUsers())
+                                .stickiness(percent(row.activeUsers(), row.monthlyActiveUsers()))
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    /**
+     * Churn theo cohort tháng đăng ký của {@code months} tháng gần nhất (tính cả tháng này)
+     */
+    public ChurnCohortsDto getChurnCohorts(int months) {
+        int span = Math.max(1, Math.min(months, properties.getMaxCohortMonths()));
+        LocalDate fromMonth = LocalDate.now().withDayOfMonth(1).minusMonths(span - 1L);
+
+        return ChurnCohortsDto.builder()
+                .churnDays(properties.getChurnDays())
+                .cohorts(statsRepository.findCohorts(fromMonth).stream()
+                        .map(row -> CohortDto.builder()
+                                .cohortMonth(row.cohortMonth())
+                                .signups(row.signups())
+                                .churned(row.churned())
+                                .churnRate(percent(row.churned(), row.signups()))
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private static double percent(long part, long whole) {
+        return whole > 0 ? (double) part / whole * 100 : 0;
+    }
+}
@@ -0,0 +1,324 @@
+package com.thanhnb.englishlearning.service.user;
+
+import com.thanhnb.englishlearning.config.EngagementProperties;
+import com.thanhnb.englishlearning.repository.user.EngagementStatsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 📈 Ghi nhận user hoạt động / đăng nhập vào HyperLogLog của Redis theo ngày, tuần ISO và tháng
+ *
+ * - DAU / WAU / MAU = PFCOUNT (1 key hoặc hợp nhiều key ngày cho khoảng cuộn 7 / 30 ngày), O(1) theo số user,
+ *   mỗi key ~12KB bất kể số user
+ * - Request chỉ chạm bộ nhớ: mỗi user được ghi ACTIVE tối đa 1 lần / 15 phút trên 1 node
+ *   (map userId → slot gần nhất), sự kiện được đẩy vào queue
+ * - 1 thread flush định kỳ: PFADD pipeline lên Redis + 1 câu UPDATE last_activity_date cho cả lô
+ *   (last_activity_date là đầu vào của churn cohort - EngagementAnalyticsService)
+ * - Redis / DB lỗi → bỏ lô đó (số liệu thống kê, không phải dữ liệu nghiệp vụ), metric engagement.flush.failed
+ */
+@Service
+@Slf4j
+public class EngagementTracker {
+
+    private static final String KEY_PREFIX = "engagement:";
+    private static final long ACTIVITY_SLOT_MS = TimeUnit.MINUTES.toMillis(15);
+    private static final long WEEK_KEY_TTL_SECONDS = TimeUnit.DAYS.toSeconds(120);
+    private static final long MONTH_KEY_TTL_SECONDS = TimeUnit.DAYS.toSeconds(400);
+
+    public enum Event {
+        ACTIVE, // Mọi request đã xác thực (đăng nhập cũng tính)
+        LOGIN
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final EngagementStatsRepository statsRepository;
+    private final EngagementProperties properties;
+    private final LongSupplier clock;
+    private final ZoneId zone;
+
+    /**
+     * Slot 15 phút gần nhất đã ghi ACTIVE của từng user trên node này
+     */
+    private final ConcurrentHashMap<Long, Long> lastSlots = new ConcurrentHashMap<>();
+    private final BlockingQueue<Hit> queue;
+    private final ScheduledExecutorService flusher;
+
+    private final Counter recordedCounter;
+    private final Counter duplicateCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    record Hit(Long userId, Event event, long timestamp) {
+    }
+
+    @Autowired
+    public EngagementTracker(StringRedisTemplate redisTemplate,
+            EngagementStatsRepository statsRepository,
+            EngagementProperties properties,
+            MeterRegistry meterRegistry) {
+        this(redisTemplate, statsRepository, properties, meterRegistry, System::currentTimeMillis,
+                ZoneId.systemDefault());
+    }
+
+    EngagementTracker(StringRedisTemplate redisTemplate,
+            EngagementStatsRepository statsRepository,
+            EngagementProperties properties,
+            MeterRegistry meterRegistry,
+            LongSupplier clock,
+            ZoneId zone) {
+        this.redisTemplate = redisTemplate;
+        this.statsRepository = statsRepository;
+        this.properties = properties;
+        this.clock = clock;
+        this.zone = zone;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "engagement-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.recordedCounter = meterRegistry.counter("engagement.events", "result", "recorded");
+        this.duplicateCounter = meterRegistry.counter("engagement.events", "result", "duplicate");
+        this.droppedCounter = meterRegistry.counter("engagement.events", "result", "dropped");
+        this.failedCounter = meterRegistry.counter("engagement.flush.failed");
+        Gauge.builder("engagement.events.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flushSafely,
+                properties.getFlushIntervalMs(), properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushSafely();
+    }
+
+    // ==================== RECORD ====================
+
+    /**
+     * Request đã xác thực của user (gọi từ JwtAuthenticationFilter) - chỉ chạm bộ nhớ
+     */
+    public void recordActivity(Long userId) {
+        if (!properties.isEnabled() || userId == null) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long slot = now / ACTIVITY_SLOT_MS;
+
+        boolean[] fresh = new boolean[1];
+        lastSlots.compute(userId, (id, last) -> {
+            if (last != null && last >= slot) {
+                return last;
+            }
+            fresh[0] = true;
+            return slot;
+        });
+        if (!fresh[0]) {
+            duplicateCounter.increment();
+            return;
+        }
+        offer(new Hit(userId, Event.ACTIVE, now));
+    }
+
+    /**
+     * Đăng nhập thành công (last_login_date / last_activity_date đã được ghi cùng UserActivity)
+     */
+    public void recordLogin(Long userId) {
+        if (!properties.isEnabled() || userId == null) {
+            return;
+        }
+        offer(new Hit(userId, Event.LOGIN, clock.getAsLong()));
+    }
+
+    private void offer(Hit hit) {
+        if (queue.offer(hit)) {
+            recordedCounter.increment();
+        } else {
+            droppedCounter.increment();
+        }
+    }
+
+    // ==================== COUNT ====================
+
+    /**
+     * Số user khác nhau (ước lượng) của sự kiện trong 1 ngày
+     */
+    public long countDay(Event event, LocalDate date) {
+        return count(dayKey(event, date));
+    }
+
+    /**
+     * Số user khác nhau trong {@code days} ngày kết thúc ở {@code end} (hợp các HyperLogLog ngày)
+     */
+    public long countRolling(Event event, LocalDate end, int days) {
+        String[] keys = new String[days];
+        for (int i = 0; i < days; i++) {
+            keys[i] = dayKey(event, end.minusDays(i));
+        }
+        return count(keys);
+    }
+
+    /**
+     * Số user khác nhau trong tuần ISO chứa {@code date}
+     */
+    public long countWeek(Event event, LocalDate date) {
+        return count(weekKey(event, date));
+    }
+
+    /**
+     * Số user khác nhau trong tháng chứa {@code date}
+     */
+    public long countMonth(Event event, LocalDate date) {
+        return count(monthKey(event, date));
+    }
+
+    private long count(String... keys) {
+        Long size = redisTemplate.opsForHyperLogLog().size(keys);
+        return size != null ? size : 0;
+    }
+
+    // ==================== FLUSH ====================
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("❌ Engagement flush failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Ghi toàn bộ sự kiện đang chờ lên Redis / DB
+     *
+     * @return số sự kiện đã xử lý
+     */
+    int flush() {
+        List<Hit> batch = new ArrayList<>(queue.size());
+        queue.drainTo(batch);
+        pruneLastSlots();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // key HyperLogLog → userId; LOGIN cũng là ACTIVE
+        Map<String, Set<String>> members = new HashMap<>();
+        // ngày → (user hoạt động, thời điểm muộn nhất) cho UPDATE last_activity_date
+        Map<LocalDate, Set<Long>> activeByDay = new TreeMap<>();
+        Map<LocalDate, Long> latestByDay = new HashMap<>();
+        for (Hit hit : batch) {
+            LocalDate date = Instant.ofEpochMilli(hit.timestamp()).atZone(zone).toLocalDate();
+            String member = String.valueOf(hit.userId());
+            addMembers(members, Event.ACTIVE, date, member);
+            if (hit.event() == Event.LOGIN) {
+                addMembers(members, Event.LOGIN, date, member);
+            } else {
+                activeByDay.computeIfAbsent(date, d -> new HashSet<>()).add(hit.userId());
+                latestByDay.merge(date, hit.timestamp(), Math::max);
+            }
+        }
+
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                members.forEach((key, users) -> {
+                    byte[][] values = users.stream().map(EngagementTracker::bytes).toArray(byte[][]::new);
+                    connection.hyperLogLogCommands().pfAdd(bytes(key), values);
+                    connection.keyCommands().expire(bytes(key), ttlSeconds(key));
+                });
+                return null;
+            });
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.warn("⚠️ Failed to record {} engagement events in Redis: {}", batch.size(), e.getMessage());
+        }
+
+        try {
+            activeByDay.forEach((date, users) -> statsRepository.touchLastActivity(users,
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(latestByDay.get(date)), zone)));
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.warn("⚠️ Failed to update last activity of {} users: {}",
+                    activeByDay.values().stream().mapToInt(Set::size).sum(), e.getMessage());
+        }
+        return batch.size();
+    }
+
+    private void addMembers(Map<String, Set<String>> members, Event event, LocalDate date, String member) {
+        members.computeIfAbsent(dayKey(event, date), k -> new HashSet<>()).add(member);
+        members.computeIfAbsent(weekKey(event, date), k -> new HashSet<>()).add(member);
+        members.computeIfAbsent(monthKey(event, date), k -> new HashSet<>()).add(member);
+    }
+
+    /**
+     * Bỏ user không còn gửi request (slot cuối đã qua) → map chỉ chứa user đang dùng app
+     */
+    private void pruneLastSlots() {
+        long current = clock.getAsLong() / ACTIVITY_SLOT_MS;
+        lastSlots.values().removeIf(slot -> slot < current);
+    }
+
+    // ==================== KEYS ====================
+
+    static String dayKey(Event event, LocalDate date) {
+        return KEY_PREFIX + event.name().toLowerCase(Locale.ROOT) + ":d:" + date.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    static String weekKey(Event event, LocalDate date) {
+        return KEY_PREFIX + event.name().toLowerCase(Locale.ROOT) + ":w:" + date.get(IsoFields.WEEK_BASED_YEAR)
+                + "-W" + String.format("%02d", date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+    }
+
+    static String monthKey(Event event, LocalDate date) {
+        return KEY_PREFIX + event.name().toLowerCase(Locale.ROOT) + ":m:" + date.format(DateTimeFormatter.ofPattern("yyyyMM"));
+    }
+
+    private long ttlSeconds(String key) {
+        if (key.contains(":d:")) {
+            return TimeUnit.DAYS.toSeconds(Math.max(31, properties.getDayKeyTtlDays()));
+        }
+        return key.contains(":w:") ? WEEK_KEY_TTL_SECONDS : MONTH_KEY_TTL_SECONDS;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
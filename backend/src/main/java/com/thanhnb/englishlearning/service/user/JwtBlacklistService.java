@@ -1,13 +1,14 @@
 // File: JwtBlacklistService.java
 package com.thanhnb.englishlearning.service.user;
 
+import com.thanhnb.englishlearning.security.VerifiedToken;
 import com.thanhnb.englishlearning.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
-import java.util.Date;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -23,15 +24,21 @@ public class JwtBlacklistService {
      */
     public void blacklistToken(String token) {
         try {
-            // Lấy expiration time từ JWT
-            Date expiration = jwtUtil.getExpirationDateFromToken(token);
-            long currentTime = System.currentTimeMillis();
-            long ttlMillis = expiration.getTime() - currentTime;
-            
+            Optional<VerifiedToken> verified = jwtUtil.verify(token);
+            if (verified.isEmpty()) {
+                log.warn("Token is already expired or invalid, no need to blacklist");
+                return;
+            }
+
+            VerifiedToken verifiedToken = verified.get();
+            long ttlMillis = verifiedToken.expiresAt() != null
+                    ? verifiedToken.expiresAt().toEpochMilli() - System.currentTimeMillis()
+                    : 0;
+
             // Chỉ blacklist nếu token chưa hết hạn
             if (ttlMillis > 0) {
-                String blacklistKey = buildBlacklistKey(token);
-                
+                String blacklistKey = buildBlacklistKey(verifiedToken.tokenHash());
+
                 // Lưu vào Redis với TTL = thời gian còn lại của JWT
                 redisTemplate.opsForValue().set(
                     blacklistKey, 
@@ -39,9 +46,10 @@ public class JwtBlacklistService {
                     ttlMillis, 
                     TimeUnit.MILLISECONDS
                 );
-                
-                String username = jwtUtil.getUsernameFromToken(token);
-                log.info("Token blacklisted successfully for user: {} (TTL: {} ms)", username, ttlMillis);
+                jwtUtil.evict(verifiedToken);
+
+                log.info("Token blacklisted successfully for user: {} (TTL: {} ms)",
+                        verifiedToken.username(), ttlMillis);
             } else {
                 log.warn("Token is already expired, no need to blacklist");
             }
@@ -55,8 +63,19 @@ public class JwtBlacklistService {
      * Kiểm tra token có bị blacklist không
      */
     public boolean isTokenBlacklisted(String token) {
+        return isHashBlacklisted(jwtUtil.hashToken(token));
+    }
+
+    /**
+     * Kiểm tra token đã verify (dùng lại hash đã tính lúc verify)
+     */
+    public boolean isTokenBlacklisted(VerifiedToken token) {
+        return isHashBlacklisted(token.tokenHash());
+    }
+
+    private boolean isHashBlacklisted(String tokenHash) {
         try {
-            String blacklistKey = buildBlacklistKey(token); 
+            String blacklistKey = buildBlacklistKey(tokenHash);
             boolean isBlacklisted = Boolean.TRUE.equals(redisTemplate.hasKey(blacklistKey));
             
             if (isBlacklisted) {
@@ -73,8 +92,7 @@ public class JwtBlacklistService {
     /**
      * Tạo Redis key cho blacklist 
      */
-    private String buildBlacklistKey(String token) {
-        String tokenHash = jwtUtil.hashToken(token);
+    private String buildBlacklistKey(String tokenHash) {
         return "blacklist:" + tokenHash; 
     }
     
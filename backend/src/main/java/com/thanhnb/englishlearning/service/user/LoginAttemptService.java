@@ -2,21 +2,30 @@ package com.thanhnb.englishlearning.service.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Service quản lý login attempts và account lockout
  * Chặn tài khoản sau 5 lần đăng nhập sai trong 15 phút
+ *
+ * INCR + EXPIRE + khóa tài khoản chạy trong 1 Lua script (redis/login_failed.lua)
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class LoginAttemptService {
     
-    private final RedisTemplate<String, Object> redisTemplate;
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LOGIN_FAILED_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/login_failed.lua"), List.class);
+
+    private final StringRedisTemplate redisTemplate;
     
     // Cấu hình
     private static final int MAX_ATTEMPTS = 5;
@@ -26,24 +35,18 @@ public class LoginAttemptService {
     /**
      * Ghi nhận đăng nhập thất bại
      */
+    @SuppressWarnings("unchecked")
     public void loginFailed(String usernameOrEmail) {
-        String key = buildAttemptsKey(usernameOrEmail);
-        
-        Long attempts = redisTemplate.opsForValue().increment(key);
-        
-        if (attempts == null) {
-            attempts = 1L;
-            redisTemplate.opsForValue().set(key, attempts);
-        }
+        List<Long> result = redisTemplate.execute(LOGIN_FAILED_SCRIPT,
+                List.of(buildAttemptsKey(usernameOrEmail), buildBlockKey(usernameOrEmail)),
+                String.valueOf(MAX_ATTEMPTS),
+                String.valueOf(TimeUnit.MINUTES.toSeconds(ATTEMPT_WINDOW_MINUTES)),
+                String.valueOf(TimeUnit.MINUTES.toSeconds(BLOCK_DURATION_MINUTES)));
         
-        // Set TTL cho lần đầu tiên
-        if (attempts == 1) {
-            redisTemplate.expire(key, ATTEMPT_WINDOW_MINUTES, TimeUnit.MINUTES);
-        }
+        long attempts = result.get(0);
         
-        // Nếu vượt quá số lần cho phép, khóa tài khoản
-        if (attempts >= MAX_ATTEMPTS) {
-            blockAccount(usernameOrEmail);
+        // Script đã khóa tài khoản nếu vượt quá số lần cho phép
+        if (result.get(1) == 1) {
             log.warn("Account blocked due to too many failed login attempts: {}", usernameOrEmail);
         } else {
             log.info("Login failed for: {} - Attempt {}/{}", usernameOrEmail, attempts, MAX_ATTEMPTS);
@@ -85,13 +88,13 @@ public class LoginAttemptService {
      */
     public int getRemainingAttempts(String usernameOrEmail) {
         String key = buildAttemptsKey(usernameOrEmail);
-        Object attempts = redisTemplate.opsForValue().get(key);
+        String attempts = redisTemplate.opsForValue().get(key);
         
         if (attempts == null) {
             return MAX_ATTEMPTS;
         }
         
-        int currentAttempts = ((Number) attempts).intValue();
+        int currentAttempts = Integer.parseInt(attempts);
         return Math.max(0, MAX_ATTEMPTS - currentAttempts);
     }
     
@@ -103,14 +106,6 @@ public class LoginAttemptService {
         return redisTemplate.getExpire(key, TimeUnit.MINUTES);
     }
     
-    /**
-     * Khóa tài khoản
-     */
-    private void blockAccount(String usernameOrEmail) {
-        String key = buildBlockKey(usernameOrEmail);
-        redisTemplate.opsForValue().set(key, "blocked", BLOCK_DURATION_MINUTES, TimeUnit.MINUTES);
-    }
-    
     /**
      * Mở khóa tài khoản thủ công (dùng cho admin)
      */
@@ -1,6 +1,5 @@
 package com.thanhnb.englishlearning.service.user;
 
-import com.thanhnb.englishlearning.dto.user.OtpData;
 import com.thanhnb.englishlearning.entity.user.User;
 import com.thanhnb.englishlearning.enums.OtpType;
 import com.thanhnb.englishlearning.exception.*;
@@ -8,23 +7,37 @@ import com.thanhnb.englishlearning.repository.user.UserRepository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 import java.security.SecureRandom;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Service xử lý OTP sử dụng Redis thay vì database
  * Lợi ích: Tự động expire, performance cao, rate limiting dễ dàng
+ *
+ * OTP lưu dạng hash nhỏ (c = mã, a = số lần sai, ip, t). Cấp OTP và xác thực
+ * đều chạy bằng Lua script (resources/redis) → kiểm tra + cập nhật + TTL trong
+ * 1 round trip atomic, đoán song song không vượt được MAX_OTP_ATTEMPTS.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RedisOtpService {
     
-    private final RedisTemplate<String, Object> redisTemplate;
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ISSUE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/otp_issue.lua"), List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> VERIFY_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/otp_verify.lua"), List.class);
+
+    private final StringRedisTemplate redisTemplate;
     private final EmailService emailService;
     private final UserRepository userRepository;
     private final SecureRandom secureRandom = new SecureRandom();
@@ -42,41 +55,42 @@ public class RedisOtpService {
      * @param ipAddress IP của client (để tracking)
      */
     public void generateAndSendOtp(String email, OtpType otpType, String ipAddress) {
-        // Kiểm tra rate limit (tối đa 5 OTP/giờ)
-        if (isRateLimited(email, otpType)) {
-            throw new RateLimitExceededException(
-                "Bạn đã vượt quá giới hạn " + RATE_LIMIT_MAX + " OTP trong " + RATE_LIMIT_WINDOW_HOURS + " giờ. Vui lòng thử lại sau."
-            );
-        }
-        
         // Tạo OTP 6 số ngẫu nhiên
         String otp = generateSecureOtp();
         String otpKey = buildOtpKey(email, otpType);
         
-        // Lưu vào Redis với TTL
-        OtpData otpData = new OtpData(otp, ipAddress);
-        
+        // Kiểm tra rate limit (tối đa 5 OTP/giờ) + lưu OTP với TTL - atomic
+        List<Long> result;
         try {
-            redisTemplate.opsForValue().set(otpKey, otpData, OTP_EXPIRY_MINUTES, TimeUnit.MINUTES);
+            result = executeScript(ISSUE_SCRIPT, List.of(otpKey, buildRateLimitKey(email, otpType)),
+                    otp,
+                    ipAddress != null ? ipAddress : "",
+                    String.valueOf(System.currentTimeMillis()),
+                    String.valueOf(TimeUnit.MINUTES.toSeconds(OTP_EXPIRY_MINUTES)),
+                    String.valueOf(RATE_LIMIT_MAX),
+                    String.valueOf(TimeUnit.HOURS.toSeconds(RATE_LIMIT_WINDOW_HOURS)));
         } catch (Exception e) {
             log.error("Failed to store OTP in Redis for email: {}", email, e);
             throw new RuntimeException("Không thể tạo mã OTP. Vui lòng thử lại sau.");
         }
         
-        // Cập nhật counter rate limit
-        updateRateLimit(email, otpType);
+        if (result.get(0) == 0) {
+            throw new RateLimitExceededException(
+                "Bạn đã vượt quá giới hạn " + RATE_LIMIT_MAX + " OTP trong " + RATE_LIMIT_WINDOW_HOURS + " giờ. Vui lòng thử lại sau."
+            );
+        }
         
-        // Gửi email
+        // Xếp hàng email vào outbox (cùng transaction của request, gửi sau khi commit)
         try {
             emailService.sendOtp(email, otp, otpType);
         } catch (Exception e) {
-            // Nếu gửi email thất bại, xóa OTP đã tạo
+            // Nếu không ghi được outbox, xóa OTP đã tạo
             redisTemplate.delete(otpKey);
-            log.error("Failed to send OTP email to: {}", email, e);
+            log.error("Failed to queue OTP email to: {}", email, e);
             throw new EmailSendFailedException("Không thể gửi email OTP. Vui lòng kiểm tra lại địa chỉ email.");
         }
         
-        log.info("OTP sent successfully to email: {} for type: {} from IP: {}", email, otpType, ipAddress);
+        log.info("OTP queued for email: {} for type: {} from IP: {}", email, otpType, ipAddress);
     }
     
     /**
@@ -89,59 +103,40 @@ public class RedisOtpService {
     public boolean verifyOtp(String email, String inputOtp, OtpType otpType) {
         String otpKey = buildOtpKey(email, otpType);
         
-        Object storedObj = null;
+        List<Long> result;
         try {
-            storedObj = redisTemplate.opsForValue().get(otpKey);
+            result = executeScript(VERIFY_SCRIPT, List.of(otpKey),
+                    inputOtp != null ? inputOtp : "", String.valueOf(MAX_OTP_ATTEMPTS));
         } catch (Exception e) {
-            log.error("Failed to retrieve OTP from Redis for email: {}", email, e);
+            log.error("Failed to verify OTP in Redis for email: {}", email, e);
             throw new RuntimeException("Lỗi hệ thống khi xác thực OTP. Vui lòng thử lại.");
         }
         
-        // Kiểm tra OTP có tồn tại không (có thể đã expire)
-        if (storedObj == null) {
-            log.warn("OTP verification failed - OTP not found or expired for email: {}", email);
-            throw new OtpExpiredException("Mã OTP không tồn tại hoặc đã hết hạn. Vui lòng yêu cầu mã mới.");
-        }
-        
-        // Type safety check
-        if (!(storedObj instanceof OtpData)) {
-            log.error("Invalid OTP data type in Redis for email: {}", email);
-            redisTemplate.delete(otpKey);
-            throw new RuntimeException("Dữ liệu OTP không hợp lệ. Vui lòng yêu cầu mã mới.");
-        }
-        
-        OtpData storedOtp = (OtpData) storedObj;
-        
-        // Kiểm tra số lần thử
-        if (storedOtp.hasMaxAttempts()) {
-            redisTemplate.delete(otpKey);
-            log.warn("OTP verification failed - Max attempts reached for email: {}", email);
-            throw new OtpMaxAttemptsException("Đã vượt quá " + MAX_OTP_ATTEMPTS + " lần thử sai. Vui lòng tạo mã OTP mới.");
-        }
+        int status = result.get(0).intValue();
+        int attempts = result.get(1).intValue();
         
-        // Kiểm tra OTP có đúng không
-        if (!storedOtp.getOtp().equals(inputOtp)) {
-            storedOtp.incrementAttempts();
-            int remainingAttempts = MAX_OTP_ATTEMPTS - storedOtp.getAttempts();
-            
-            // Cập nhật lại số lần thử trong Redis
-            try {
-                redisTemplate.opsForValue().set(otpKey, storedOtp, OTP_EXPIRY_MINUTES, TimeUnit.MINUTES);
-            } catch (Exception e) {
-                log.error("Failed to update OTP attempts in Redis", e);
+        switch (status) {
+            case -1 -> {
+                // OTP không tồn tại (có thể đã expire)
+                log.warn("OTP verification failed - OTP not found or expired for email: {}", email);
+                throw new OtpExpiredException("Mã OTP không tồn tại hoặc đã hết hạn. Vui lòng yêu cầu mã mới.");
+            }
+            case -2 -> {
+                log.error("Invalid OTP data type in Redis for email: {}", email);
+                throw new RuntimeException("Dữ liệu OTP không hợp lệ. Vui lòng yêu cầu mã mới.");
+            }
+            case -3 -> {
+                log.warn("OTP verification failed - Max attempts reached for email: {}", email);
+                throw new OtpMaxAttemptsException("Đã vượt quá " + MAX_OTP_ATTEMPTS + " lần thử sai. Vui lòng tạo mã OTP mới.");
+            }
+            case 0 -> {
+                int remainingAttempts = Math.max(0, MAX_OTP_ATTEMPTS - attempts);
+                log.warn("OTP verification failed - Invalid OTP for email: {} (attempt: {})", email, attempts);
+                throw new OtpInvalidException("Mã OTP không chính xác. Còn lại " + remainingAttempts + " lần thử.");
+            }
+            default -> {
+                // OTP đúng - script đã xóa khỏi Redis
             }
-            
-            log.warn("OTP verification failed - Invalid OTP for email: {} (attempt: {})", 
-                    email, storedOtp.getAttempts());
-            
-            throw new OtpInvalidException("Mã OTP không chính xác. Còn lại " + remainingAttempts + " lần thử.");
-        }
-        
-        // OTP đúng - xóa khỏi Redis
-        try {
-            redisTemplate.delete(otpKey);
-        } catch (Exception e) {
-            log.error("Failed to delete OTP from Redis after verification", e);
         }
         
         // Xử lý business logic tùy theo loại OTP
@@ -153,44 +148,9 @@ public class RedisOtpService {
         return true;
     }
     
-    /**
-     * Kiểm tra rate limit (tối đa X OTP/giờ cho mỗi email)
-     */
-    private boolean isRateLimited(String email, OtpType otpType) {
-        String rateLimitKey = buildRateLimitKey(email, otpType);
-        
-        try {
-            Object countObj = redisTemplate.opsForValue().get(rateLimitKey);
-            
-            if (countObj != null) {
-                int count = ((Number) countObj).intValue();
-                return count >= RATE_LIMIT_MAX;
-            }
-        } catch (Exception e) {
-            log.error("Error checking rate limit for email: {}", email, e);
-            // Nếu lỗi, cho phép gửi (fail open)
-            return false;
-        }
-        
-        return false;
-    }
-    
-    /**
-     * Cập nhật counter rate limit
-     */
-    private void updateRateLimit(String email, OtpType otpType) {
-        String rateLimitKey = buildRateLimitKey(email, otpType);
-        
-        try {
-            Long currentCount = redisTemplate.opsForValue().increment(rateLimitKey);
-            
-            if (currentCount != null && currentCount == 1) {
-                // Lần đầu tiên - set expire
-                redisTemplate.expire(rateLimitKey, RATE_LIMIT_WINDOW_HOURS, TimeUnit.HOURS);
-            }
-        } catch (Exception e) {
-            log.error("Error updating rate limit for email: {}", email, e);
-        }
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private List<Long> executeScript(RedisScript<List> script, List<String> keys, String... args) {
+        return (List<Long>) redisTemplate.execute(script, keys, (Object[]) args);
     }
     
     /**
@@ -248,8 +208,8 @@ public class RedisOtpService {
         boolean exists = Boolean.TRUE.equals(redisTemplate.hasKey(otpKey));
         Long ttl = exists ? redisTemplate.getExpire(otpKey, TimeUnit.SECONDS) : null;
         
-        Object countObj = redisTemplate.opsForValue().get(rateLimitKey);
-        int rateLimitCount = countObj != null ? ((Number) countObj).intValue() : 0;
+        String countValue = redisTemplate.opsForValue().get(rateLimitKey);
+        int rateLimitCount = countValue != null ? Integer.parseInt(countValue) : 0;
         
         return new OtpInfo(exists, ttl, rateLimitCount, RATE_LIMIT_MAX - rateLimitCount);
     }
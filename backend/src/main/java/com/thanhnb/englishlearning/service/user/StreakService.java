@@ -2,6 +2,7 @@ package com.thanhnb.englishlearning.service.user;
 
 import com.thanhnb.englishlearning.entity.user.User;
 import com.thanhnb.englishlearning.entity.user.UserStats;
+import com.thanhnb.englishlearning.event.LessonCompletedEvent;
 import com.thanhnb.englishlearning.repository.user.UserRepository;
 import com.thanhnb.englishlearning.repository.user.UserStatsRepository;
 
@@ -10,11 +11,26 @@ import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.LocalDate;
-
+import java.time.ZoneId;
+
+/**
+ * 🔥 Streak tính theo ngày ở múi giờ của user (User.timeZone)
+ *
+ * - Chỉ ghi khi user học (nộp bài), không có job reset hằng đêm
+ * - Streak đã đứt vẫn nằm nguyên trong DB, được coi là 0 lúc đọc (UserStats.getEffectiveStreak)
+ * - Leaderboard / thống kê lọc streak còn sống bằng users.time_zone trong SQL
+ */
 @Service
 @RequiredArgsConstructor
 @Transactional
@@ -30,13 +46,31 @@ public class StreakService {
      * @param userId User ID
      * @return true if streak was updated, false if already has streak today
      */
+    @Retryable(retryFor = {
+            ObjectOptimisticLockingFailureException.class }, maxAttempts = 3, backoff = @Backoff(delay = 100, multiplier = 1.5))
     public boolean updateStreakOnActivity(Long userId) {
+        return applyActivity(userId);
+    }
+
+    /**
+     * Nộp bài (kể cả chưa pass) = đã học hôm nay
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Retryable(retryFor = {
+            ObjectOptimisticLockingFailureException.class }, maxAttempts = 3, backoff = @Backoff(delay = 100, multiplier = 1.5))
+    public void handleLessonCompleted(LessonCompletedEvent event) {
+        applyActivity(event.getUserId());
+    }
+
+    private boolean applyActivity(Long userId) {
         // Get or create stats
         UserStats stats = statsRepository.findById(userId)
                 .orElseGet(() -> createNewStats(userId));
 
         // Use entity method to update streak
-        boolean updated = stats.updateStreakOnActivity();
+        boolean updated = stats.updateStreakOnActivity(today(userId));
         
         if (updated) {
             statsRepository.save(stats);
@@ -58,7 +92,7 @@ public class StreakService {
         UserStats stats = statsRepository.findById(userId)
                 .orElseGet(() -> createNewStats(userId));
 
-        return stats.hasStreakToday();
+        return stats.hasStreakToday(today(userId));
     }
 
     /**
@@ -72,10 +106,10 @@ public class StreakService {
                 .orElseGet(() -> createNewStats(userId));
 
         return StreakInfo.builder()
-                .currentStreak(stats.getCurrentStreak())
+                .currentStreak(stats.getEffectiveStreak())
                 .longestStreak(stats.getLongestStreak())
                 .lastStreakDate(stats.getLastStreakDate())
-                .hasStreakToday(stats.hasStreakToday())
+                .hasStreakToday(stats.hasStreakToday(today(userId)))
                 .build();
     }
 
@@ -100,11 +134,18 @@ public class StreakService {
      * Shows where user ranks compared to others
      */
     public Long getStreakRank(Long userId) {
-        return statsRepository.getUserRankByStreak(userId);
+        return statsRepository.getUserRankByStreak(userId, ZoneId.systemDefault().getId());
     }
 
     // ==================== HELPER METHODS ====================
 
+    /**
+     * "Hôm nay" theo múi giờ của user (chỉ đọc cột time_zone, không chạm UserStats.user lazy)
+     */
+    private LocalDate today(Long userId) {
+        return LocalDate.now(User.zoneOf(userRepository.findTimeZoneById(userId).orElse(null)));
+    }
+
     /**
      * Create new stats for user if doesn't exist
      */
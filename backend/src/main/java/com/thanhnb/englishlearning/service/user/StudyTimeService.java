@@ -0,0 +1,79 @@
+package com.thanhnb.englishlearning.service.user;
+
+import com.thanhnb.englishlearning.config.StudyTimeProperties;
+import com.thanhnb.englishlearning.dto.user.response.StudyTimeSeriesDto;
+import com.thanhnb.englishlearning.dto.user.response.StudyTimeSeriesDto.DayDto;
+import com.thanhnb.englishlearning.entity.user.User;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.repository.user.UserStudyTimeRepository;
+import com.thanhnb.englishlearning.repository.user.UserStudyTimeRepository.StudySeconds;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 📈 Đọc thời gian học đã flush (user_study_time) cho dashboard / gợi ý học
+ *
+ * Số liệu trễ tối đa 1 chu kỳ flush của StudyTimeTracker (app.study-time.flush-interval-ms).
+ */
+@Service
+@RequiredArgsConstructor
+public class StudyTimeService {
+
+    private final UserStudyTimeRepository studyTimeRepository;
+    private final StudyTimeProperties properties;
+
+    public int getMinutesOn(Long userId, LocalDate date) {
+        return studyTimeRepository.sumSeconds(userId, date) / 60;
+    }
+
+    /**
+     * Chuỗi thời gian học của {@code days} ngày gần nhất (tính cả hôm nay)
+     */
+    public StudyTimeSeriesDto getSeries(Long userId, int days) {
+        int span = Math.max(1, Math.min(days, properties.getMaxSeriesDays()));
+        // "Hôm nay" theo múi giờ của user - cùng cách StudyTimeTracker chia ngày khi flush
+        String timeZone = studyTimeRepository.findTimeZones(List.of(userId)).get(userId);
+        LocalDate to = LocalDate.now(User.zoneOf(timeZone));
+        LocalDate from = to.minusDays(span - 1L);
+
+        Map<LocalDate, Map<ModuleType, Integer>> secondsByDay = new TreeMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            secondsByDay.put(date, new EnumMap<>(ModuleType.class));
+        }
+        Map<ModuleType, Integer> secondsByModule = new EnumMap<>(ModuleType.class);
+        for (StudySeconds row : studyTimeRepository.findByUserIdBetween(userId, from, to)) {
+            secondsByDay.get(row.date()).merge(row.module(), row.seconds(), Integer::sum);
+            secondsByModule.merge(row.module(), row.seconds(), Integer::sum);
+        }
+
+        List<DayDto> series = new ArrayList<>(secondsByDay.size());
+        secondsByDay.forEach((date, byModule) -> series.add(DayDto.builder()
+                .date(date)
+                .minutes(byModule.values().stream().mapToInt(Integer::intValue).sum() / 60)
+                .minutesByModule(toMinutes(byModule))
+                .build()));
+
+        return StudyTimeSeriesDto.builder()
+                .from(from)
+                .to(to)
+                .totalMinutes(secondsByModule.values().stream().mapToInt(Integer::intValue).sum() / 60)
+                .minutesByModule(toMinutes(secondsByModule))
+                .days(series)
+                .build();
+    }
+
+    private static Map<ModuleType, Integer> toMinutes(Map<ModuleType, Integer> seconds) {
+        Map<ModuleType, Integer> minutes = new EnumMap<>(ModuleType.class);
+        for (ModuleType module : ModuleType.values()) {
+            minutes.put(module, seconds.getOrDefault(module, 0) / 60);
+        }
+        return minutes;
+    }
+}
@@ -0,0 +1,361 @@
+package com.thanhnb.englishlearning.service.user;
+
+import com.thanhnb.englishlearning.config.StudyTimeProperties;
+import com.thanhnb.englishlearning.entity.user.User;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.repository.user.UserStatsRepository;
+import com.thanhnb.englishlearning.repository.user.UserStudyTimeRepository;
+import com.thanhnb.englishlearning.repository.user.UserStudyTimeRepository.StudySeconds;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * ⏱️ Đo thời gian học qua heartbeat của trang bài học
+ *
+ * - Thời gian chia thành slot dài app.study-time.heartbeat-interval-seconds; mỗi user được tính tối đa
+ *   1 heartbeat / slot → mở nhiều tab không nhân thời gian học
+ * - Heartbeat chỉ chạm bộ nhớ (1 compute trên map + 1 offer vào queue), không I/O
+ * - 1 thread flush định kỳ: khử trùng slot giữa các node bằng bitmap Redis (SETBIT pipeline),
+ *   gom theo (user, ngày theo múi giờ của user, module) → 1 câu upsert user_study_time + cộng phút vào user_stats
+ * - Ghi DB lỗi → phần đã gom được giữ lại cho lần flush sau (slot đã claim trên Redis không claim lại được)
+ */
+@Service
+@Slf4j
+public class StudyTimeTracker {
+
+    private static final String SLOT_KEY_PREFIX = "study:slots:";
+    private static final long SLOT_KEY_TTL_SECONDS = TimeUnit.HOURS.toSeconds(48);
+    private static final int UPSERT_CHUNK_SIZE = 5000;
+
+    private final UserStudyTimeRepository studyTimeRepository;
+    private final UserStatsRepository statsRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final StudyTimeProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final LongSupplier clock;
+    private final ZoneId zone;
+
+    /**
+     * Slot gần nhất đã tính của từng user trên node này
+     */
+    private final ConcurrentHashMap<Long, Long> lastSlots = new ConcurrentHashMap<>();
+    private final BlockingQueue<Beat> queue;
+    /**
+     * Phần đã gom nhưng ghi DB lỗi - chỉ thread flush đọc / ghi
+     */
+    private final Map<StudyKey, Integer> retry = new HashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    private final Counter creditedCounter;
+    private final Counter duplicateCounter;
+    private final Counter droppedCounter;
+    private final Counter crossNodeDuplicateCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+
+    record Beat(Long userId, long slot, ModuleType module) {
+    }
+
+    record StudyKey(Long userId, LocalDate date, ModuleType module) {
+    }
+
+    /**
+     * @param credited        heartbeat được tính (false: slot này đã được tab khác tính / tracking tắt)
+     * @param nextHeartbeatMs client nên gửi heartbeat tiếp sau bấy nhiêu ms (đầu slot kế tiếp)
+     */
+    public record HeartbeatResult(boolean credited, long nextHeartbeatMs) {
+    }
+
+    @Autowired
+    public StudyTimeTracker(UserStudyTimeRepository studyTimeRepository,
+            UserStatsRepository statsRepository,
+            StringRedisTemplate redisTemplate,
+            StudyTimeProperties properties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this(studyTimeRepository, statsRepository, redisTemplate, properties, transactionManager, meterRegistry,
+                System::currentTimeMillis, ZoneId.systemDefault());
+    }
+
+    StudyTimeTracker(UserStudyTimeRepository studyTimeRepository,
+            UserStatsRepository statsRepository,
+            StringRedisTemplate redisTemplate,
+            StudyTimeProperties properties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            LongSupplier clock,
+            ZoneId zone) {
+        this.studyTimeRepository = studyTimeRepository;
+        this.statsRepository = statsRepository;
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.zone = zone;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "study-time-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.creditedCounter = meterRegistry.counter("study.heartbeats", "result", "credited");
+        this.duplicateCounter = meterRegistry.counter("study.heartbeats", "result", "duplicate");
+        this.droppedCounter = meterRegistry.counter("study.heartbeats", "result", "dropped");
+        this.crossNodeDuplicateCounter = meterRegistry.counter("study.heartbeats", "result", "cross_node_duplicate");
+        this.failedCounter = meterRegistry.counter("study.flush.failed");
+        this.flushTimer = meterRegistry.timer("study.flush");
+        Gauge.builder("study.heartbeats.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flushSafely,
+                properties.getFlushIntervalMs(), properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushSafely(); // Ghi nốt phần còn lại trước khi tắt
+    }
+
+    // ==================== HEARTBEAT ====================
+
+    public HeartbeatResult heartbeat(Long userId, ModuleType module) {
+        long now = clock.getAsLong();
+        long intervalMs = intervalMs();
+        long slot = now / intervalMs;
+        // Hẹn client gửi ngay sau đầu slot kế tiếp → lệch timer phía client không làm rơi slot
+        long nextHeartbeatMs = (slot + 1) * intervalMs - now + Math.min(1000, intervalMs / 10);
+
+        if (!properties.isEnabled()) {
+            return new HeartbeatResult(false, nextHeartbeatMs);
+        }
+
+        boolean[] fresh = new boolean[1];
+        lastSlots.compute(userId, (id, last) -> {
+            if (last != null && last >= slot) {
+                return last;
+            }
+            fresh[0] = true;
+            return slot;
+        });
+        if (!fresh[0]) {
+            duplicateCounter.increment();
+            return new HeartbeatResult(false, nextHeartbeatMs);
+        }
+
+        if (!queue.offer(new Beat(userId, slot, module))) {
+            droppedCounter.increment();
+            return new HeartbeatResult(false, nextHeartbeatMs);
+        }
+        creditedCounter.increment();
+        return new HeartbeatResult(true, nextHeartbeatMs);
+    }
+
+    // ==================== FLUSH ====================
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("❌ Study time flush failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Ghi toàn bộ heartbeat đang chờ xuống DB
+     *
+     * @return số row (user, ngày, module) đã ghi
+     */
+    int flush() {
+        List<Beat> batch = new ArrayList<>(queue.size());
+        queue.drainTo(batch);
+        pruneLastSlots();
+
+        Map<StudyKey, Integer> increments = new HashMap<>(retry);
+        retry.clear();
+        int secondsPerSlot = properties.getHeartbeatIntervalSeconds();
+        List<Beat> claimed = claimSlots(batch);
+        Map<Long, ZoneId> zones = userZones(claimed);
+        for (Beat beat : claimed) {
+            increments.merge(keyOf(beat, zones.getOrDefault(beat.userId(), zone)), secondsPerSlot, Integer::sum);
+        }
+        if (increments.isEmpty()) {
+            return 0;
+        }
+
+        // Thứ tự cố định (user, ngày, module) → 2 node flush cùng lúc không deadlock trên row
+        List<StudySeconds> rows = increments.entrySet().stream()
+                .map(e -> new StudySeconds(e.getKey().userId(), e.getKey().date(), e.getKey().module(), e.getValue()))
+                .sorted(Comparator.comparing(StudySeconds::userId)
+                        .thenComparing(StudySeconds::date)
+                        .thenComparing(StudySeconds::module))
+                .toList();
+
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> write(rows, increments)));
+            log.debug("⏱️ Flushed study time: {} heartbeats → {} rows", batch.size(), rows.size());
+            return rows.size();
+        } catch (Exception e) {
+            failedCounter.increment();
+            boolean kept = increments.size() <= properties.getQueueCapacity();
+            if (kept) {
+                retry.putAll(increments);
+            }
+            log.error("❌ Failed to write {} study time rows ({}): {}",
+                    rows.size(), kept ? "kept for retry" : "dropped", e.getMessage());
+            return 0;
+        }
+    }
+
+    private void write(List<StudySeconds> rows, Map<StudyKey, Integer> increments) {
+        // Phút cộng vào user_stats = số phút tròn mới vượt qua của từng row → không cần nhớ phần lẻ giây
+        Map<Long, Integer> minutes = new TreeMap<>();
+        for (int from = 0; from < rows.size(); from += UPSERT_CHUNK_SIZE) {
+            List<StudySeconds> chunk = rows.subList(from, Math.min(rows.size(), from + UPSERT_CHUNK_SIZE));
+            for (StudySeconds total : studyTimeRepository.addSeconds(chunk)) {
+                int added = increments.getOrDefault(new StudyKey(total.userId(), total.date(), total.module()), 0);
+                int newMinutes = total.seconds() / 60 - (total.seconds() - added) / 60;
+                if (newMinutes > 0) {
+                    minutes.merge(total.userId(), newMinutes, Integer::sum);
+                }
+            }
+        }
+        // User đã bị xóa / chưa có stats → UPDATE 0 row, bỏ qua
+        minutes.forEach((userId, m) -> statsRepository.applyIncrements(userId, 0, 0, 0, 0, 0, m));
+    }
+
+    /**
+     * Giữ lại các heartbeat có slot chưa được node nào tính (SETBIT trả về bit cũ = 0)
+     */
+    private List<Beat> claimSlots(List<Beat> beats) {
+        if (beats.isEmpty() || !properties.isRedisDedupEnabled() || redisTemplate == null) {
+            return beats;
+        }
+        try {
+            Set<String> keys = new LinkedHashSet<>();
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Beat beat : beats) {
+                    String key = slotKey(beat);
+                    keys.add(key);
+                    connection.stringCommands().setBit(bytes(key), slotOfDay(beat), true);
+                }
+                for (String key : keys) {
+                    connection.keyCommands().expire(bytes(key), SLOT_KEY_TTL_SECONDS);
+                }
+                return null;
+            });
+
+            List<Beat> claimed = new ArrayList<>(beats.size());
+            for (int i = 0; i < beats.size(); i++) {
+                if (!Boolean.TRUE.equals(results.get(i))) {
+                    claimed.add(beats.get(i));
+                }
+            }
+            if (claimed.size() < beats.size()) {
+                crossNodeDuplicateCounter.increment(beats.size() - claimed.size());
+            }
+            return claimed;
+        } catch (Exception e) {
+            log.warn("⚠️ Study slot dedup via Redis failed - crediting {} heartbeats with local dedup only: {}",
+                    beats.size(), e.getMessage());
+            return beats;
+        }
+    }
+
+    /**
+     * Bỏ user không còn gửi heartbeat (slot cuối đã qua) → map chỉ chứa user đang học
+     */
+    private void pruneLastSlots() {
+        long current = clock.getAsLong() / intervalMs();
+        lastSlots.values().removeIf(slot -> slot < current - 1);
+    }
+
+    // ==================== HELPERS ====================
+
+    private long intervalMs() {
+        return Math.max(1, properties.getHeartbeatIntervalSeconds()) * 1000L;
+    }
+
+    private ZonedDateTime slotStart(Beat beat) {
+        return Instant.ofEpochMilli(beat.slot() * intervalMs()).atZone(zone);
+    }
+
+    /**
+     * Ngày học = ngày của slot theo múi giờ của user (giống streak); lỗi đọc múi giờ → múi giờ mặc định
+     */
+    private Map<Long, ZoneId> userZones(List<Beat> beats) {
+        if (beats.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> userIds = new HashSet<>();
+        beats.forEach(beat -> userIds.add(beat.userId()));
+        try {
+            Map<Long, ZoneId> zones = new HashMap<>();
+            studyTimeRepository.findTimeZones(userIds).forEach((userId, timeZone) -> zones.put(userId, User.zoneOf(timeZone)));
+            return zones;
+        } catch (Exception e) {
+            log.warn("⚠️ Could not load time zones of {} users - bucketing study days in {}: {}",
+                    userIds.size(), zone, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private StudyKey keyOf(Beat beat, ZoneId userZone) {
+        return new StudyKey(beat.userId(), Instant.ofEpochMilli(beat.slot() * intervalMs()).atZone(userZone).toLocalDate(),
+                beat.module());
+    }
+
+    private String slotKey(Beat beat) {
+        return SLOT_KEY_PREFIX + beat.userId() + ":" + slotStart(beat).format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    private long slotOfDay(Beat beat) {
+        return slotStart(beat).toLocalTime().toSecondOfDay() / Math.max(1, properties.getHeartbeatIntervalSeconds());
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -3,7 +3,6 @@ package com.thanhnb.englishlearning.service.user;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,7 +14,7 @@ import java.util.Map;
 
 /**
  * ✅ ENHANCED: Service tự động dọn dẹp tài khoản chưa verify
- * - Chạy scheduled job mỗi ngày lúc 2:00 AM
+ * - Chạy scheduled job mỗi ngày lúc 2:00 AM (job "unverified-user-cleanup" trong ClusterJobRunner)
  * - Xóa tài khoản chưa verify quá X giờ (default 24h)
  * - Fix tài khoản có createdDate null
  */
@@ -33,53 +32,15 @@ public class UnverifiedUserCleanupService {
     private int cleanupHours;
     
     /**
-     * ✅ ENHANCED: Scheduled job - Chạy tự động mỗi ngày lúc 2:00 AM
-     * Cron format: second minute hour day month weekday
-     * 0 0 2 * * * = Mỗi ngày lúc 2:00 AM
-     */
-    @Scheduled(cron = "${cleanup.unverified-users.cron:0 0 2 * * *}")
-    @Transactional
-    public void cleanupUnverifiedAccounts() {
-        if (!cleanupEnabled) {
-            log.debug("Unverified user cleanup is disabled");
-            return;
-        }
-        
-        LocalDateTime cutoffDate = LocalDateTime.now().minusHours(cleanupHours);
-        
-        try {
-            log.info("🗑️ Starting scheduled unverified accounts cleanup (older than {} hours)...", cleanupHours);
-            
-            // ✅ FIX: Kiểm tra và fix null createdDate trước khi cleanup
-            int fixedCount = fixNullCreatedDates();
-            if (fixedCount > 0) {
-                log.warn("Fixed {} accounts with null createdDate", fixedCount);
-            }
-            
-            // Cleanup
-            int deletedCount = userRepository.deleteUnverifiedAccountsCreatedBefore(cutoffDate);
-            
-            if (deletedCount > 0) {
-                log.info("✅ Cleanup completed: Deleted {} unverified accounts older than {} hours", 
-                        deletedCount, cleanupHours);
-            } else {
-                log.debug("No unverified accounts to clean up");
-            }
-            
-        } catch (Exception e) {
-            log.error("❌ Error during unverified accounts cleanup: {}", e.getMessage(), e);
-        }
-    }
-    
-    /**
-     * ✅ ENHANCED: Manual cleanup - Có thể gọi từ admin endpoint
+     * ✅ ENHANCED: Cleanup - Được gọi bởi scheduled job và manual trigger
+     * (cả hai đều đi qua ClusterJobRunner để có lease + lịch sử chạy)
      * @return Số lượng tài khoản đã xóa
      */
     @Transactional
     public int cleanupNow() {
         LocalDateTime cutoffDate = LocalDateTime.now().minusHours(cleanupHours);
         
-        log.info("🗑️ Manual cleanup triggered for unverified accounts older than {} hours", cleanupHours);
+        log.info("🗑️ Cleanup triggered for unverified accounts older than {} hours", cleanupHours);
         
         try {
             // ✅ FIX: Kiểm tra và fix null createdDate trước
@@ -95,12 +56,12 @@ public class UnverifiedUserCleanupService {
             // Thực hiện cleanup
             int deletedCount = userRepository.deleteUnverifiedAccountsCreatedBefore(cutoffDate);
             
-            log.info("✅ Manual cleanup completed: {} accounts deleted", deletedCount);
+            log.info("✅ Cleanup completed: {} accounts deleted", deletedCount);
             
             return deletedCount;
             
         } catch (Exception e) {
-            log.error("❌ Error during manual cleanup: {}", e.getMessage(), e);
+            log.error("❌ Error during cleanup: {}", e.getMessage(), e);
             throw new RuntimeException("Cleanup failed: " + e.getMessage(), e);
         }
     }
@@ -35,6 +35,7 @@ public class UserDashboardService {
     private final GrammarLessonRepository grammarLessonRepo;
     private final ReadingLessonRepository readingLessonRepo;
     private final ListeningLessonRepository listeningLessonRepo;
+    private final StudyTimeService studyTimeService;
 
     public UserDashboardDto getDashboardData(Long userId) {
         log.info("📊 Getting dashboard data for user: {}", userId);
@@ -50,25 +51,27 @@ public class UserDashboardService {
         // ✅ Load learning behavior for accuracy data
         UserLearningBehavior behavior = behaviorRepository.findByUserId(userId).orElse(null);
 
+        LocalDate today = LocalDate.now(user.zoneId());
         return UserDashboardDto.builder()
                 .user(UserMapper.toDetailDto(user))
-                .quickStats(buildQuickStats(stats))
+                .quickStats(buildQuickStats(userId, stats, today))
                 .skillProgress(buildSkillProgress(stats, behavior))
-                .streak(buildStreak(stats))
+                .streak(buildStreak(stats, today))
                 .build();
     }
 
-    private QuickStatsDto buildQuickStats(UserStats stats) {
+    private QuickStatsDto buildQuickStats(Long userId, UserStats stats, LocalDate today) {
         int streakGoal = 7;
+        int currentStreak = stats.getEffectiveStreak();
         double weeklyGoalProgress = Math.min(
-                ((double) stats.getCurrentStreak() / streakGoal) * 100.0,
+                ((double) currentStreak / streakGoal) * 100.0,
                 100.0);
 
         return QuickStatsDto.builder()
-                .currentStreak(stats.getCurrentStreak())
+                .currentStreak(currentStreak)
                 .totalPoints(stats.getTotalPoints())
                 .totalLessonsCompleted(stats.getTotalLessonsCompleted())
-                .studyTimeToday(0) // TODO: Implement proper time tracking
+                .studyTimeToday(studyTimeService.getMinutesOn(userId, today))
                 .weeklyGoalProgress(weeklyGoalProgress)
                 .build();
     }
@@ -159,19 +162,20 @@ public class UserDashboardService {
         }
     }
 
-    private StreakDto buildStreak(UserStats stats) {
-        LocalDate today = LocalDate.now();
+    private StreakDto buildStreak(UserStats stats, LocalDate today) {
         LocalDate lastStreakDate = stats.getLastStreakDate();
 
-        boolean hasStreakToday = lastStreakDate != null && lastStreakDate.equals(today);
+        // "Hôm nay" theo múi giờ của user, streak đã đứt tính là 0
+        boolean hasStreakToday = stats.hasStreakToday(today);
+        int currentStreak = stats.getEffectiveStreak();
 
         int streakGoal = 7;
         double streakGoalProgress = Math.min(
-                ((double) stats.getCurrentStreak() / streakGoal) * 100.0,
+                ((double) currentStreak / streakGoal) * 100.0,
                 100.0);
 
         return StreakDto.builder()
-                .currentStreak(stats.getCurrentStreak())
+                .currentStreak(currentStreak)
                 .longestStreak(stats.getLongestStreak())
                 .lastStreakDate(lastStreakDate != null ? lastStreakDate.toString() : null)
                 .hasStreakToday(hasStreakToday)
@@ -0,0 +1,166 @@
+package com.thanhnb.englishlearning.service.user;
+
+import com.thanhnb.englishlearning.config.UserDirectoryProperties;
+import com.thanhnb.englishlearning.dto.user.request.UserDirectoryFilter;
+import com.thanhnb.englishlearning.dto.user.response.UserActivityDto;
+import com.thanhnb.englishlearning.dto.user.response.UserDetailDto;
+import com.thanhnb.englishlearning.dto.user.response.UserDirectoryItemDto;
+import com.thanhnb.englishlearning.dto.user.response.UserDirectoryPageDto;
+import com.thanhnb.englishlearning.dto.user.response.UserStatsDto;
+import com.thanhnb.englishlearning.repository.user.UserDirectoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 👥 Danh sách user của Admin: phân trang keyset, lọc phía server, xuất CSV theo từng lượt
+ *
+ * Thay cho GET /api/users trả về findAll() + UserMapper.toDetailDto từng user (load stats / activity
+ * lazy → N+1, cả bảng users nằm trong bộ nhớ).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserDirectoryService {
+
+    private static final String[] CSV_HEADER = {
+            "id", "username", "email", "fullName", "role", "englishLevel", "isActive", "isVerified",
+            "createdAt", "totalPoints", "currentStreak", "longestStreak", "totalLessonsCompleted",
+            "lastLoginDate", "lastActivityDate", "loginCount"
+    };
+
+    private final UserDirectoryRepository userDirectoryRepository;
+    private final UserDirectoryProperties properties;
+
+    /**
+     * 1 trang user, id giảm dần
+     *
+     * @param cursor nextCursor của trang trước (null = trang đầu)
+     * @param size   null / ≤ 0 → mặc định; lớn hơn maxPageSize → maxPageSize
+     */
+    public UserDirectoryPageDto getPage(UserDirectoryFilter filter, Long cursor, Integer size) {
+        int pageSize = size == null || size <= 0
+                ? properties.getDefaultPageSize()
+                : Math.min(size, properties.getMaxPageSize());
+
+        // Lấy dư 1 row để biết còn trang sau mà không cần COUNT(*)
+        List<UserDirectoryItemDto> rows = userDirectoryRepository.findPage(filter, cursor, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<UserDirectoryItemDto> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        return UserDirectoryPageDto.builder()
+                .items(items)
+                .nextCursor(hasMore ? items.get(items.size() - 1).getId() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Ghi toàn bộ user khớp bộ lọc ra CSV, mỗi lượt exportBatchSize row (keyset) rồi flush
+     * → bộ nhớ chỉ giữ 1 lượt dù có bao nhiêu user
+     *
+     * @return số user đã ghi
+     */
+    public long exportCsv(UserDirectoryFilter filter, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write('\uFEFF'); // BOM → Excel đọc đúng tiếng Việt
+        writeRow(writer, (Object[]) CSV_HEADER);
+
+        long written = 0;
+        Long cursor = null;
+        List<UserDirectoryItemDto> batch;
+        do {
+            batch = userDirectoryRepository.findPage(filter, cursor, properties.getExportBatchSize());
+            for (UserDirectoryItemDto u : batch) {
+                writeRow(writer, u.getId(), u.getUsername(), u.getEmail(), u.getFullName(), u.getRole(),
+                        u.getEnglishLevel(), u.getIsActive(), u.getIsVerified(), u.getCreatedAt(),
+                        u.getTotalPoints(), u.getCurrentStreak(), u.getLongestStreak(),
+                        u.getTotalLessonsCompleted(), u.getLastLoginDate(), u.getLastActivityDate(),
+                        u.getLoginCount());
+            }
+            writer.flush();
+            written += batch.size();
+            if (!batch.isEmpty()) {
+                cursor = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == properties.getExportBatchSize());
+
+        log.info("📤 Exported {} users to CSV", written);
+        return written;
+    }
+
+    /**
+     * Cho các endpoint cũ trả về List (GET /api/users, /api/users/active) - cùng câu query projection,
+     * giới hạn legacyListLimit user mới nhất
+     */
+    public List<UserDetailDto> listLegacy(UserDirectoryFilter filter) {
+        int limit = properties.getLegacyListLimit();
+        List<UserDirectoryItemDto> rows = userDirectoryRepository.findPage(filter, null, limit + 1);
+        if (rows.size() > limit) {
+            log.warn("⚠️ Legacy user list truncated to {} users - use GET /api/admin/users", limit);
+            rows = rows.subList(0, limit);
+        }
+        return rows.stream().map(UserDirectoryService::toDetailDto).toList();
+    }
+
+    private static UserDetailDto toDetailDto(UserDirectoryItemDto row) {
+        return UserDetailDto.builder()
+                .id(row.getId())
+                .username(row.getUsername())
+                .email(row.getEmail())
+                .fullName(row.getFullName())
+                .role(row.getRole())
+                .englishLevel(row.getEnglishLevel())
+                .isActive(row.getIsActive())
+                .isVerified(row.getIsVerified())
+                .createdAt(row.getCreatedAt())
+                .stats(row.getTotalPoints() == null ? null : UserStatsDto.builder()
+                        .userId(row.getId())
+                        .totalPoints(row.getTotalPoints())
+                        .currentStreak(row.getCurrentStreak())
+                        .longestStreak(row.getLongestStreak())
+                        .totalLessonsCompleted(row.getTotalLessonsCompleted())
+                        .build())
+                .activity(row.getLoginCount() == null ? null : UserActivityDto.builder()
+                        .userId(row.getId())
+                        .lastLoginDate(row.getLastLoginDate())
+                        .lastActivityDate(row.getLastActivityDate())
+                        .loginCount(row.getLoginCount())
+                        .build())
+                .build();
+    }
+
+    // ==================== CSV ====================
+
+    private static void writeRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvCell(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String csvCell(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        // Chặn CSV injection: ô bắt đầu bằng = + - @ bị Excel hiểu là công thức
+        if (value instanceof String && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
@@ -1,5 +1,6 @@
 package com.thanhnb.englishlearning.service.user;
 
+import com.thanhnb.englishlearning.dto.common.DeletionReport;
 import com.thanhnb.englishlearning.dto.user.request.ChangePasswordRequest;
 import com.thanhnb.englishlearning.dto.user.request.UpdateUserRequest;
 import com.thanhnb.englishlearning.entity.user.User;
@@ -8,13 +9,11 @@ import com.thanhnb.englishlearning.entity.user.UserStats;
 import com.thanhnb.englishlearning.enums.ParentType;
 import com.thanhnb.englishlearning.exception.InvalidCredentialsException;
 import com.thanhnb.englishlearning.exception.ResourceNotFoundException;
-import com.thanhnb.englishlearning.repository.grammar.UserGrammarProgressRepository;
-import com.thanhnb.englishlearning.repository.listening.UserListeningProgressRepository;
-import com.thanhnb.englishlearning.repository.reading.UserReadingProgressRepository;
 import com.thanhnb.englishlearning.repository.user.UserActivityRepository;
-import com.thanhnb.englishlearning.repository.user.UserLearningBehaviorRepository;
 import com.thanhnb.englishlearning.repository.user.UserRepository;
 import com.thanhnb.englishlearning.repository.user.UserStatsRepository;
+import com.thanhnb.englishlearning.service.deletion.BulkDeletionService;
+import com.thanhnb.englishlearning.service.user.credential.CredentialVerificationService;
 import com.thanhnb.englishlearning.util.ValidationUtil;
 
 import lombok.RequiredArgsConstructor;
@@ -26,7 +25,6 @@ import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.List;
 import java.util.Optional;
@@ -40,18 +38,13 @@ public class UserService {
     private final UserRepository userRepository;
     private final UserStatsRepository statsRepository;
     private final UserActivityRepository activityRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final UserGrammarProgressRepository grammarProgressRepository;
-    private final UserReadingProgressRepository readingProgressRepository;
-    private final UserListeningProgressRepository listeningProgressRepository;
-    private final UserLearningBehaviorRepository learningBehaviorRepository;
+    private final CredentialVerificationService credentialService;
+    private final BulkDeletionService bulkDeletionService;
+    private final UserStatsWriter userStatsWriter;
+    private final EngagementTracker engagementTracker;
 
     // ==================== BASIC CRUD ====================
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
-    }
-
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
@@ -68,16 +61,18 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Người dùng không tồn tại"));
         user.setFullName(updateUserRequest.getFullName());
+        if (updateUserRequest.getTimeZone() != null) {
+            ValidationUtil.validateTimeZone(updateUserRequest.getTimeZone());
+            user.setTimeZone(updateUserRequest.getTimeZone());
+        }
         return userRepository.save(user);
     }
 
     // ==================== AUTHENTICATION & SECURITY ====================
 
     /**
-     * ✅ ENHANCED: Delete user with retry on optimistic lock
+     * ✅ Delete user: set-based DELETE cho toàn bộ dữ liệu con (BulkDeletionService)
      */
-    @Retryable(retryFor = {
-            ObjectOptimisticLockingFailureException.class }, maxAttempts = 3, backoff = @Backoff(delay = 200, multiplier = 1.5))
     public User deleteUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Người dùng không tồn tại"));
@@ -86,30 +81,8 @@ public class UserService {
         log.info("Starting deletion of user: {}", username);
 
         try {
-            // 1. Xóa User Progress
-            grammarProgressRepository.deleteByUserId(id);
-            readingProgressRepository.deleteByUserId(id);
-            listeningProgressRepository.deleteByUserId(id);
-
-            // 2. Xóa Learning Behavior
-            learningBehaviorRepository.findById(id).ifPresent(
-                    behavior -> learningBehaviorRepository.delete(behavior));
-
-            // 3. Xóa Activity (invalidate tokens trước)
-            activityRepository.findById(id).ifPresent(activity -> {
-                activity.invalidateAllTokens();
-                activityRepository.save(activity);
-                activityRepository.delete(activity);
-            });
-
-            // 4. Xóa Stats
-            statsRepository.findById(id).ifPresent(
-                    stats -> statsRepository.delete(stats));
-
-            // 5. Xóa User
-            userRepository.delete(user);
-
-            log.info("✅ Successfully deleted user: {}", username);
+            DeletionReport report = bulkDeletionService.deleteUser(id);
+            log.info("✅ Successfully deleted user: {} ({} rows)", username, report.getTotalRows());
         } catch (Exception e) {
             log.error("❌ Failed to delete user: {}", username, e);
             throw new RuntimeException("Không thể xóa người dùng: " + e.getMessage());
@@ -131,7 +104,7 @@ public class UserService {
             throw new InvalidCredentialsException("Mật khẩu xác nhận không khớp");
         }
 
-        if (!passwordEncoder.matches(changePasswordRequest.getOldPassword(), user.getPassword())) {
+        if (!credentialService.verify(changePasswordRequest.getOldPassword(), user.getPassword()).matched()) {
             throw new InvalidCredentialsException("Mật khẩu cũ không chính xác");
         }
 
@@ -141,7 +114,7 @@ public class UserService {
 
         ValidationUtil.validatePassword(changePasswordRequest.getNewPassword());
 
-        user.setPassword(passwordEncoder.encode(changePasswordRequest.getNewPassword()));
+        user.setPassword(credentialService.encode(changePasswordRequest.getNewPassword()));
         userRepository.save(user);
 
         UserActivity activity = activityRepository.findById(userId)
@@ -195,6 +168,7 @@ public class UserService {
 
         activity.recordLogin(ip != null ? ip : "unknown", userAgent != null ? userAgent : "unknown");
         activityRepository.save(activity);
+        engagementTracker.recordLogin(id);
 
         log.debug("Last login updated for user ID: {}", id);
     }
@@ -207,19 +181,13 @@ public class UserService {
     // ==================== GAMIFICATION ====================
 
     /**
-     * ✅ ENHANCED: Add points with retry on optimistic lock
+     * ✅ Add points: UPDATE cộng dồn (UserStatsWriter), không đọc - sửa - ghi
      */
-    @Retryable(retryFor = {
-            ObjectOptimisticLockingFailureException.class }, maxAttempts = 3, backoff = @Backoff(delay = 100, multiplier = 1.5))
     public void addPoints(Long userId, int points) {
-        UserStats stats = statsRepository.findById(userId)
-                .orElseGet(() -> createNewStats(userId));
-
-        stats.addPoints(points);
-        statsRepository.save(stats);
+        ensureStats(userId);
+        userStatsWriter.addPoints(userId, points);
 
-        log.debug("Added {} points to user ID: {} (Total: {})",
-                points, userId, stats.getTotalPoints());
+        log.debug("Added {} points to user ID: {}", points, userId);
     }
 
     /**
@@ -238,31 +206,21 @@ public class UserService {
     }
 
     /**
-     * ✅ ENHANCED: Increment lesson with retry on optimistic lock
+     * ✅ Increment lesson: UPDATE cộng dồn (UserStatsWriter)
      */
-    @Retryable(retryFor = {
-            ObjectOptimisticLockingFailureException.class }, maxAttempts = 3, backoff = @Backoff(delay = 100, multiplier = 1.5))
     public void incrementLessonCompleted(Long userId, ParentType parentType) {
-        UserStats stats = statsRepository.findById(userId)
-                .orElseGet(() -> createNewStats(userId));
-
-        stats.incrementLessons(parentType);
-        statsRepository.save(stats);
+        ensureStats(userId);
+        userStatsWriter.recordLessonCompleted(userId, 0, parentType);
 
         log.debug("Incremented {} lesson for user ID: {}", parentType, userId);
     }
 
     /**
-     * ✅ ENHANCED: Add study time with retry on optimistic lock
+     * ✅ Add study time: UPDATE cộng dồn (UserStatsWriter)
      */
-    @Retryable(retryFor = {
-            ObjectOptimisticLockingFailureException.class }, maxAttempts = 3, backoff = @Backoff(delay = 100, multiplier = 1.5))
     public void addStudyTime(Long userId, int minutes) {
-        UserStats stats = statsRepository.findById(userId)
-                .orElseGet(() -> createNewStats(userId));
-
-        stats.addStudyTime(minutes);
-        statsRepository.save(stats);
+        ensureStats(userId);
+        userStatsWriter.addStudyTime(userId, minutes);
 
         log.debug("Added {} minutes study time for user ID: {}", minutes, userId);
     }
@@ -275,14 +233,10 @@ public class UserService {
     }
 
     public List<UserStats> getTopUsersByStreakDays(int minStreakDays) {
-        return statsRepository.findTopByStreak(minStreakDays,
+        return statsRepository.findTopByStreak(minStreakDays, java.time.ZoneId.systemDefault().getId(),
                 org.springframework.data.domain.PageRequest.of(0, 10));
     }
 
-    public List<User> getActiveUsers() {
-        return userRepository.findByIsActiveTrue();
-    }
-
     // ==================== HELPER METHODS ====================
 
     public User getCurrentUser() {
@@ -291,6 +245,12 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
     }
 
+    private void ensureStats(Long userId) {
+        if (!statsRepository.existsByUserId(userId)) {
+            createNewStats(userId);
+        }
+    }
+
     private UserStats createNewStats(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -0,0 +1,138 @@
+package com.thanhnb.englishlearning.service.user;
+
+import com.thanhnb.englishlearning.enums.ParentType;
+import com.thanhnb.englishlearning.repository.user.UserStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ✅ Ghi các bộ đếm cộng dồn của user_stats (điểm, số bài, thời gian học)
+ *
+ * - 1 câu UPDATE ... SET x = x + ? (không đọc entity trước) → 2 tab / retry nộp song song
+ *   không ghi đè tổng của nhau
+ * - Trong transaction: chỉ gom delta, UPDATE chạy ở beforeCommit → row user_stats chỉ bị khóa
+ *   trong lúc commit, không phải suốt quá trình chấm bài
+ * - Không có transaction: UPDATE ngay
+ *
+ * Streak / longest streak không cộng dồn được → vẫn đi qua entity, được bảo vệ bởi @Version.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserStatsWriter {
+
+    private static final Object PENDING_KEY = UserStatsWriter.class.getName() + ".PENDING";
+
+    private final UserStatsRepository statsRepository;
+
+    /**
+     * Delta cộng dồn của 1 user trong transaction hiện tại
+     */
+    static final class Delta {
+        int points;
+        int lessons;
+        int grammar;
+        int reading;
+        int listening;
+        int studyMinutes;
+
+        boolean isEmpty() {
+            return points == 0 && lessons == 0 && studyMinutes == 0;
+        }
+    }
+
+    /**
+     * User qua 1 lesson lần đầu: + điểm thưởng, + 1 bài (tổng và theo module)
+     */
+    public void recordLessonCompleted(Long userId, int points, ParentType lessonType) {
+        if (points < 0) {
+            throw new IllegalArgumentException("Points cannot be negative");
+        }
+        Delta delta = pending(userId);
+        delta.points += points;
+        if (lessonType != null) {
+            delta.lessons++;
+            switch (lessonType) {
+                case GRAMMAR -> delta.grammar++;
+                case READING -> delta.reading++;
+                case LISTENING -> delta.listening++;
+                default -> {
+                    // Speaking, Writing... chỉ tính vào tổng số bài
+                }
+            }
+        }
+        flushIfNoTransaction(userId, delta);
+    }
+
+    public void addPoints(Long userId, int points) {
+        if (points < 0) {
+            throw new IllegalArgumentException("Points cannot be negative");
+        }
+        Delta delta = pending(userId);
+        delta.points += points;
+        flushIfNoTransaction(userId, delta);
+    }
+
+    public void addStudyTime(Long userId, int minutes) {
+        if (minutes < 0) {
+            throw new IllegalArgumentException("Study time cannot be negative");
+        }
+        Delta delta = pending(userId);
+        delta.studyMinutes += minutes;
+        flushIfNoTransaction(userId, delta);
+    }
+
+    // ==================== INTERNAL ====================
+
+    private Delta pending(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Delta();
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<Long, Delta> pending = (Map<Long, Delta>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending == null) {
+            Map<Long, Delta> deltas = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, deltas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    deltas.forEach(UserStatsWriter.this::apply);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                }
+            });
+            pending = deltas;
+        }
+        return pending.computeIfAbsent(userId, id -> new Delta());
+    }
+
+    private void flushIfNoTransaction(Long userId, Delta delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(userId, delta);
+        }
+    }
+
+    private void apply(Long userId, Delta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        int updated = statsRepository.applyIncrements(userId, delta.points, delta.lessons,
+                delta.grammar, delta.reading, delta.listening, delta.studyMinutes);
+        if (updated == 0) {
+            // Giống hành vi cũ: thiếu stats → lỗi, transaction nộp bài rollback
+            throw new IllegalStateException("User stats not initialized for user " + userId);
+        }
+        log.debug("Stats of user {} incremented: +{} points, +{} lessons, +{} minutes",
+                userId, delta.points, delta.lessons, delta.studyMinutes);
+    }
+}
@@ -0,0 +1,221 @@
+package com.thanhnb.englishlearning.service.user.credential;
+
+import com.thanhnb.englishlearning.config.PasswordHashingProperties;
+import com.thanhnb.englishlearning.exception.CredentialServiceBusyException;
+import com.thanhnb.englishlearning.repository.user.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hash / verify password trên thread pool riêng, không chiếm CPU của Tomcat request threads.
+ *
+ * - Pool giới hạn theo số cores, queue có giới hạn
+ * - Request chờ quá queueTimeoutMs (hoặc queue đầy) → CredentialServiceBusyException (503 + Retry-After)
+ * - Verify thành công với hash cũ/cost cũ → rehash bất đồng bộ
+ * - Metrics: auth.password.hash (latency), auth.password.queue.wait, auth.password.queue.depth,
+ *   auth.password.rejected, auth.password.rehashed
+ */
+@Service
+@Slf4j
+public class CredentialVerificationService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingProperties properties;
+    private final UserRepository userRepository;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer verifyTimer;
+    private final Timer encodeTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+    private final Counter rehashCounter;
+
+    public CredentialVerificationService(PasswordEncoder passwordEncoder,
+            PasswordHashingProperties properties,
+            UserRepository userRepository,
+            MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.properties = properties;
+        this.userRepository = userRepository;
+
+        int poolSize = properties.getPoolSize() > 0
+                ? properties.getPoolSize()
+                : Runtime.getRuntime().availableProcessors();
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.verifyTimer = Timer.builder("auth.password.hash")
+                .tag("operation", "verify")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("auth.password.hash")
+                .tag("operation", "encode")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("auth.password.queue.wait")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.rejected").register(meterRegistry);
+        this.rehashCounter = Counter.builder("auth.password.rehashed").register(meterRegistry);
+
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+
+        log.info("🔐 Password hashing pool started: {} threads, queue capacity {}, queue timeout {} ms",
+                poolSize, properties.getQueueCapacity(), properties.getQueueTimeoutMs());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // =========================================================================
+    // PUBLIC API
+    // =========================================================================
+
+    /**
+     * Verify password trên hashing pool
+     *
+     * @throws CredentialServiceBusyException nếu pool quá tải
+     */
+    public VerificationResult verify(String rawPassword, String encodedPassword) {
+        return submitAndWait(() -> {
+            long start = System.nanoTime();
+            boolean matched = passwordEncoder.matches(rawPassword, encodedPassword);
+            verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            boolean needsRehash = matched && passwordEncoder.upgradeEncoding(encodedPassword);
+            return new VerificationResult(matched, needsRehash);
+        });
+    }
+
+    /**
+     * Hash password mới (đăng ký, đổi/reset password) trên hashing pool
+     *
+     * @throws CredentialServiceBusyException nếu pool quá tải
+     */
+    public String encode(String rawPassword) {
+        return submitAndWait(() -> timedEncode(rawPassword));
+    }
+
+    /**
+     * Rehash bất đồng bộ sau khi login thành công với hash cũ.
+     * Chỉ ghi đè nếu password chưa bị đổi trong lúc đó. Pool đầy → bỏ qua, lần login sau thử lại.
+     */
+    public void rehashAsync(Long userId, String rawPassword, String currentHash) {
+        try {
+            executor.execute(() -> {
+                try {
+                    String newHash = timedEncode(rawPassword);
+                    int updated = userRepository.updatePasswordIfUnchanged(userId, currentHash, newHash);
+                    if (updated == 1) {
+                        rehashCounter.increment();
+                        log.debug("Password rehashed for user ID: {}", userId);
+                    }
+                } catch (Exception e) {
+                    log.warn("Failed to rehash password for user ID {}: {}", userId, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Hashing pool busy, skip rehash for user ID: {}", userId);
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    // =========================================================================
+    // INTERNAL
+    // =========================================================================
+
+    private String timedEncode(String rawPassword) {
+        long start = System.nanoTime();
+        String encoded = passwordEncoder.encode(rawPassword);
+        encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return encoded;
+    }
+
+    private <T> T submitAndWait(Callable<T> hashTask) {
+        long enqueuedAt = System.nanoTime();
+        long queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(properties.getQueueTimeoutMs());
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long waited = System.nanoTime() - enqueuedAt;
+                queueWaitTimer.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > queueTimeoutNanos) {
+                    // Caller đã/ sắp timeout → không tốn CPU hash nữa
+                    throw new TimeoutException("Queue budget exceeded");
+                }
+                return hashTask.call();
+            });
+        } catch (RejectedExecutionException e) {
+            throw busy("queue full");
+        }
+
+        try {
+            // Budget = thời gian chờ queue + thời gian hash (ước lượng rộng bằng queue budget)
+            return future.get(properties.getQueueTimeoutMs() * 2, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw busy("timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw busy("interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw busy("queue budget exceeded");
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private CredentialServiceBusyException busy(String reason) {
+        rejectedCounter.increment();
+        log.warn("🔐 Password hashing rejected ({}), queue depth {}", reason, executor.getQueue().size());
+        return new CredentialServiceBusyException(
+                "Hệ thống đang bận xử lý đăng nhập. Vui lòng thử lại sau " + properties.getRetryAfterSeconds() + " giây",
+                properties.getRetryAfterSeconds());
+    }
+
+    /**
+     * Kết quả verify
+     *
+     * @param matched     password đúng
+     * @param needsRehash hash đang lưu dùng thuật toán/cost cũ
+     */
+    public record VerificationResult(boolean matched, boolean needsRehash) {
+    }
+}
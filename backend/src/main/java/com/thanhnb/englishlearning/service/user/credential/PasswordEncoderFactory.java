@@ -0,0 +1,44 @@
+package com.thanhnb.englishlearning.service.user.credential;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tạo PasswordEncoder có thể thay thuật toán (pluggable).
+ *
+ * - Hash mới được lưu dạng "{id}hash" theo thuật toán cấu hình
+ * - Hash cũ không có prefix (BCrypt gốc) vẫn verify bằng BCrypt
+ * - upgradeEncoding() = true khi khác thuật toán / cost thấp hơn → rehash khi login
+ *
+ * Tách riêng khỏi Spring context để benchmark (JMH) khởi tạo trực tiếp được.
+ */
+public final class PasswordEncoderFactory {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String PBKDF2 = "pbkdf2";
+
+    private PasswordEncoderFactory() {
+    }
+
+    public static PasswordEncoder create(String algorithm, int bcryptStrength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(PBKDF2, Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Unsupported password algorithm: " + algorithm);
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        // Hash cũ lưu trước khi có prefix {id} đều là BCrypt
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+}
@@ -1,30 +1,92 @@
 package com.thanhnb.englishlearning.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.thanhnb.englishlearning.config.JwtProperties;
+import com.thanhnb.englishlearning.security.VerifiedToken;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Base64;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * ✅ Phát hành / verify JWT
+ *
+ * - SecretKey và JwtParser tạo 1 lần lúc khởi động (không dựng lại key mỗi lần parse)
+ * - verify() kiểm tra chữ ký 1 lần → VerifiedToken bất biến cho mọi bước sau
+ * - Token đã verify được cache theo SHA-256 (Caffeine, giới hạn số lượng + TTL); lần trúng cache vẫn kiểm tra hạn
+ * - Đổi khóa qua header kid: ký bằng jwt.key-id / jwt.secret, verify thêm được bằng jwt.previous-keys
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtUtil {
 
+    /** kid của token phát hành trước khi có kid */
+    public static final String DEFAULT_KEY_ID = "default";
+
+    private static final String ROLES_CLAIM = "roles";
+    private static final List<String> DEFAULT_ROLES = List.of("ROLE_USER");
+
     private final JwtProperties jwtProperties;
+    private final SecretKey signingKey;
+    private final Map<String, SecretKey> verificationKeys;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verifiedCache;
+
+    public JwtUtil(JwtProperties jwtProperties, MeterRegistry meterRegistry) {
+        this.jwtProperties = jwtProperties;
+        this.signingKey = hmacKey(jwtProperties.getSecret());
+
+        Map<String, SecretKey> keys = new HashMap<>();
+        jwtProperties.getPreviousKeys().forEach((kid, secret) -> keys.put(kid, hmacKey(secret)));
+        keys.put(jwtProperties.getKeyId(), signingKey);
+        this.verificationKeys = Map.copyOf(keys);
+        this.parser = Jwts.parser().keyLocator(this::locateKey).build();
+
+        if (jwtProperties.getVerifiedCacheSize() > 0) {
+            this.verifiedCache = Caffeine.newBuilder()
+                    .maximumSize(jwtProperties.getVerifiedCacheSize())
+                    .expireAfterWrite(Duration.ofSeconds(jwtProperties.getVerifiedCacheTtlSeconds()))
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, verifiedCache, "jwt.verified");
+        } else {
+            this.verifiedCache = null;
+        }
+    }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes());
+    private static SecretKey hmacKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Chọn khóa theo kid; kid lạ → token không hợp lệ
+     */
+    private Key locateKey(Header header) {
+        String kid = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        SecretKey key = verificationKeys.get(kid != null ? kid : DEFAULT_KEY_ID);
+        if (key == null) {
+            throw new JwtException("Unknown JWT key id: " + kid);
+        }
+        return key;
     }
 
     /**
@@ -32,19 +94,20 @@ public class JwtUtil {
      */
     public String generateToken(String username, String role) {
         Date expiration = new Date(System.currentTimeMillis() + jwtProperties.getExpiration());
-        
+
         // Add ROLE_ prefix if not present
         String roleWithPrefix = role.startsWith("ROLE_") ? role : "ROLE_" + role;
 
         return Jwts.builder()
+                .header().keyId(jwtProperties.getKeyId()).and()
                 .subject(username)
-                .claim("roles", List.of(roleWithPrefix))
+                .claim(ROLES_CLAIM, List.of(roleWithPrefix))
                 .issuedAt(new Date())
                 .expiration(expiration)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
-    
+
     /**
      * Backward compatibility - default to USER role
      */
@@ -52,102 +115,99 @@ public class JwtUtil {
         return generateToken(username, "USER");
     }
 
-    public String getUsernameFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
-    }
-    
     /**
-     * ✅ Extract roles from JWT token
+     * Verify chữ ký + hạn của token (1 lần parse, hoặc 0 lần nếu trúng cache)
+     *
+     * @return rỗng nếu token sai chữ ký, sai định dạng, kid lạ hoặc đã hết hạn
      */
-    @SuppressWarnings("unchecked")
-    public List<String> getRolesFromToken(String token) {
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        String tokenHash = hashToken(token);
+        if (verifiedCache != null) {
+            VerifiedToken cached = verifiedCache.getIfPresent(tokenHash);
+            if (cached != null) {
+                if (!cached.isExpired(Instant.now())) {
+                    return Optional.of(cached);
+                }
+                verifiedCache.invalidate(tokenHash);
+                return Optional.empty();
+            }
+        }
+
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            
-            Object rolesObj = claims.get("roles");
-            if (rolesObj instanceof List) {
-                return (List<String>) rolesObj;
+            Jws<Claims> jws = parser.parseSignedClaims(token);
+            VerifiedToken verified = toVerifiedToken(tokenHash, jws);
+            if (verifiedCache != null) {
+                verifiedCache.put(tokenHash, verified);
             }
-            
-            return List.of("ROLE_USER");
-        } catch (Exception e) {
-            log.warn("Could not extract roles from token: {}", e.getMessage());
-            return List.of("ROLE_USER");
+            return Optional.of(verified);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("JWT verification failed: {}", e.getMessage());
+            return Optional.empty();
         }
     }
 
-    public Date getIssuedAtDateFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getIssuedAt();
+    /**
+     * Bỏ token khỏi cache verify (logout)
+     */
+    public void evict(VerifiedToken token) {
+        if (verifiedCache != null) {
+            verifiedCache.invalidate(token.tokenHash());
+        }
     }
 
-    public Date getExpirationDateFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getExpiration();
+    private static VerifiedToken toVerifiedToken(String tokenHash, Jws<Claims> jws) {
+        Claims claims = jws.getPayload();
+        String kid = jws.getHeader().getKeyId();
+        return new VerifiedToken(
+                tokenHash,
+                claims.getSubject(),
+                rolesOf(claims),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                kid != null ? kid : DEFAULT_KEY_ID);
     }
 
-    public boolean isTokenValid(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+    private static List<String> rolesOf(Claims claims) {
+        if (claims.get(ROLES_CLAIM) instanceof List<?> roles && !roles.isEmpty()) {
+            return roles.stream().map(String::valueOf).toList();
         }
+        return DEFAULT_ROLES;
     }
 
-    public boolean isTokenIssuedBeforeLastUpdate(String token, LocalDateTime lastLoginDate) {
+    public boolean isTokenIssuedBeforeLastUpdate(VerifiedToken token, LocalDateTime lastLoginDate) {
         if (lastLoginDate == null) {
             return false;
         }
+        if (token.issuedAt() == null) {
+            return true;
+        }
 
-        try {
-            Date tokenIssuedAt = getIssuedAtDateFromToken(token);
-            Date lastUpdateDate = Date.from(lastLoginDate.atZone(ZoneId.systemDefault()).toInstant());
-
-            long toleranceMs = 1000;
-            long timeDifferenceMs = lastUpdateDate.getTime() - tokenIssuedAt.getTime();
+        Instant lastUpdate = lastLoginDate.atZone(ZoneId.systemDefault()).toInstant();
 
-            boolean isInvalid = timeDifferenceMs > toleranceMs;
+        long toleranceMs = 1000;
+        long timeDifferenceMs = lastUpdate.toEpochMilli() - token.issuedAt().toEpochMilli();
 
-            if (isInvalid) {
-                log.warn("Token issued at {} before last login/update at {} (diff: {} ms)",
-                        tokenIssuedAt, lastUpdateDate, timeDifferenceMs);
-            }
+        boolean isInvalid = timeDifferenceMs > toleranceMs;
 
-            return isInvalid;
-        } catch (Exception e) {
-            log.error("Error checking token issue date: {}", e.getMessage());
-            return true;
+        if (isInvalid) {
+            log.warn("Token issued at {} before last login/update at {} (diff: {} ms)",
+                    token.issuedAt(), lastUpdate, timeDifferenceMs);
         }
+
+        return isInvalid;
     }
 
     public String hashToken(String token) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(token.getBytes());
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
             return Base64.getEncoder().encodeToString(hash);
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException("Error hashing token", e);
         }
     }
-}
\ No newline at end of file
+}
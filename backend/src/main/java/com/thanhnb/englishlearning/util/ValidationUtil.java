@@ -3,6 +3,7 @@ package com.thanhnb.englishlearning.util;
 import com.thanhnb.englishlearning.exception.InvalidPasswordException;
 import com.thanhnb.englishlearning.exception.InvalidEmailException;
 
+import java.time.ZoneId;
 import java.util.regex.Pattern;
 
 public class ValidationUtil {
@@ -140,4 +141,24 @@ public class ValidationUtil {
             throw new IllegalArgumentException("Mã OTP phải là 6 chữ số");
         }
     }
+
+    // ==================== TIME ZONE VALIDATION ====================
+
+    /**
+     * Validate múi giờ: chỉ nhận tên vùng IANA (vd "Asia/Ho_Chi_Minh").
+     * Offset dạng "+07:00" / "GMT+7" bị từ chối vì PostgreSQL hiểu ngược dấu (POSIX).
+     * Vùng "SystemV/*" chỉ Java có, timezone() của PostgreSQL báo lỗi → 1 user đặt vùng này làm hỏng
+     * mọi truy vấn streak (UserStatsRepository.LIVE_STREAK) → cũng bị từ chối
+     */
+    public static void validateTimeZone(String timeZone) {
+        if (!isTimeZoneValid(timeZone)) {
+            throw new IllegalArgumentException("Múi giờ không hợp lệ: " + timeZone);
+        }
+    }
+
+    public static boolean isTimeZoneValid(String timeZone) {
+        return timeZone != null
+                && !timeZone.startsWith("SystemV/")
+                && ZoneId.getAvailableZoneIds().contains(timeZone);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+-- Answer attempt log: bảng append-only, partition theo tháng (RANGE attempted_at).
+-- Không map bằng JPA vì Hibernate (ddl-auto=update) không tạo được bảng partitioned.
+-- Partition từng tháng được AnswerAttemptPartitionService tạo trước khi ghi; partition DEFAULT chỉ là lưới an toàn.
+-- Mọi câu lệnh phải idempotent vì script chạy mỗi lần khởi động.
+
+CREATE TABLE IF NOT EXISTS answer_attempts (
+    id                   BIGSERIAL,
+    submission_id        UUID         NOT NULL,
+    user_id              BIGINT       NOT NULL,
+    module               VARCHAR(20)  NOT NULL,
+    lesson_id            BIGINT       NOT NULL,
+    question_id          BIGINT       NOT NULL,
+    question_type        VARCHAR(50)  NOT NULL,
+    answer_text          TEXT,
+    selected_options     VARCHAR(500),
+    is_correct           BOOLEAN      NOT NULL,
+    points               INTEGER      NOT NULL DEFAULT 0,
+    needs_manual_grading BOOLEAN      NOT NULL DEFAULT FALSE,
+    attempted_at         TIMESTAMP    NOT NULL,
+    PRIMARY KEY (id, attempted_at)
+) PARTITION BY RANGE (attempted_at);
+
+CREATE TABLE IF NOT EXISTS answer_attempts_default PARTITION OF answer_attempts DEFAULT;
+
+-- "N câu sai gần nhất theo loại câu hỏi" của 1 user
+CREATE INDEX IF NOT EXISTS idx_answer_attempts_user_wrong
+    ON answer_attempts (user_id, question_type, attempted_at DESC) WHERE is_correct = FALSE;
+
+-- Lịch sử gần đây của user
+CREATE INDEX IF NOT EXISTS idx_answer_attempts_user_time
+    ON answer_attempts (user_id, attempted_at DESC);
+
+-- Thống kê theo câu hỏi + xóa theo lesson
+CREATE INDEX IF NOT EXISTS idx_answer_attempts_lesson
+    ON answer_attempts (module, lesson_id);
+
+-- Câu OPEN_ENDED chờ chấm
+CREATE INDEX IF NOT EXISTS idx_answer_attempts_manual
+    ON answer_attempts (attempted_at) WHERE needs_manual_grading = TRUE;
+
+-- Rollup theo ngày của các partition đã hết hạn giữ chi tiết
+CREATE TABLE IF NOT EXISTS answer_attempt_daily_rollups (
+    day            DATE        NOT NULL,
+    user_id        BIGINT      NOT NULL,
+    module         VARCHAR(20) NOT NULL,
+    question_type  VARCHAR(50) NOT NULL,
+    attempts       INTEGER     NOT NULL,
+    correct        INTEGER     NOT NULL,
+    points         INTEGER     NOT NULL,
+    PRIMARY KEY (day, user_id, module, question_type)
+);
@@ -0,0 +1,8 @@
+-- Rollup tương tác (EngagementStatsRepository): mỗi ngày chỉ đọc 1 lát user theo khoảng thời gian.
+-- Mọi câu lệnh phải idempotent vì script chạy mỗi lần khởi động.
+
+-- User đăng ký trong ngày (signup_count của cohort)
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at);
+
+-- User có lần hoạt động cuối rơi đúng vào ngày (D - churnDays) → churn vào ngày D
+-- dùng idx_user_activities_last_activity (db/user-directory-schema.sql)
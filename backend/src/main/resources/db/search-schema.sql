@@ -0,0 +1,14 @@
+-- Full-text search: generated tsvector column + GIN index on search_documents.
+-- Chạy sau khi Hibernate (ddl-auto=update) đã tạo bảng (spring.jpa.defer-datasource-initialization=true).
+-- Mọi câu lệnh phải idempotent vì script chạy mỗi lần khởi động.
+
+ALTER TABLE search_documents ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        CASE WHEN doc_type = 'LESSON'
+             THEN setweight(to_tsvector('english'::regconfig, coalesce(title, '')), 'A')
+             ELSE ''::tsvector
+        END
+        || setweight(to_tsvector('english'::regconfig, coalesce(body, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_search_documents_vector ON search_documents USING GIN (search_vector);
@@ -0,0 +1,12 @@
+-- Danh sách user của Admin (UserDirectoryRepository): tìm theo tiền tố username / email và lọc theo lần hoạt động cuối.
+-- Expression index (lower(...) text_pattern_ops) Hibernate không khai báo được → tạo ở đây.
+-- Mọi câu lệnh phải idempotent vì script chạy mỗi lần khởi động.
+
+-- lower(username) LIKE 'abc%'
+CREATE INDEX IF NOT EXISTS idx_users_username_prefix ON users (lower(username) text_pattern_ops);
+
+-- lower(email) LIKE 'abc%'
+CREATE INDEX IF NOT EXISTS idx_users_email_prefix ON users (lower(email) text_pattern_ops);
+
+-- Lọc "hoạt động cuối trong khoảng"
+CREATE INDEX IF NOT EXISTS idx_user_activities_last_activity ON user_activities (last_activity_date);
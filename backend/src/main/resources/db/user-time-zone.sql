@@ -0,0 +1,8 @@
+-- users.time_zone được dùng trực tiếp trong timezone(...) của truy vấn streak (UserStatsRepository.LIVE_STREAK).
+-- Tên vùng PostgreSQL không biết (vd "SystemV/*" của Java, lưu trước khi ValidationUtil chặn) làm lỗi truy vấn
+-- của MỌI user → xoá về null (= múi giờ server) mỗi lần khởi động.
+-- Mọi câu lệnh phải idempotent vì script chạy mỗi lần khởi động.
+
+UPDATE users SET time_zone = NULL
+WHERE time_zone IS NOT NULL
+  AND time_zone NOT IN (SELECT name FROM pg_timezone_names);
@@ -0,0 +1,16 @@
+-- Ghi nhận đăng nhập sai + khóa tài khoản trong 1 lệnh atomic
+-- KEYS[1] = login_attempts:{id}  (counter, TTL = cửa sổ đếm)
+-- KEYS[2] = account_blocked:{id} (cờ khóa, TTL = thời gian khóa)
+-- ARGV    = maxAttempts, windowSeconds, blockSeconds
+-- Trả về  = {số lần sai trong cửa sổ, 1 nếu vừa/đang bị khóa}
+
+local attempts = redis.call('INCR', KEYS[1])
+if attempts == 1 or redis.call('TTL', KEYS[1]) < 0 then
+    redis.call('EXPIRE', KEYS[1], ARGV[2])
+end
+
+if attempts >= tonumber(ARGV[1]) then
+    redis.call('SET', KEYS[2], '1', 'EX', ARGV[3])
+    return {attempts, 1}
+end
+return {attempts, 0}
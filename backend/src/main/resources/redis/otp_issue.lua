@@ -0,0 +1,20 @@
+-- Cấp OTP mới + đếm rate limit trong 1 lệnh atomic
+-- KEYS[1] = otp:{type}:{email}        (hash: c = mã, a = số lần sai, ip, t = thời điểm tạo)
+-- KEYS[2] = rate_limit:{type}:{email} (counter)
+-- ARGV    = otp, ip, createdAtMillis, otpTtlSeconds, rateMax, rateWindowSeconds
+-- Trả về  = {1, số OTP đã cấp trong cửa sổ} hoặc {0, ttl còn lại của cửa sổ} nếu vượt giới hạn
+
+local count = tonumber(redis.call('GET', KEYS[2]) or '0')
+if count >= tonumber(ARGV[5]) then
+    return {0, redis.call('TTL', KEYS[2])}
+end
+
+count = redis.call('INCR', KEYS[2])
+if count == 1 then
+    redis.call('EXPIRE', KEYS[2], ARGV[6])
+end
+
+redis.call('DEL', KEYS[1])
+redis.call('HSET', KEYS[1], 'c', ARGV[1], 'a', 0, 'ip', ARGV[2], 't', ARGV[3])
+redis.call('EXPIRE', KEYS[1], ARGV[4])
+return {1, count}
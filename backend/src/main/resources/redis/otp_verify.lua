@@ -0,0 +1,36 @@
+-- Xác thực OTP: kiểm tra + tăng số lần sai + xóa trong 1 lệnh atomic
+-- KEYS[1] = otp:{type}:{email}
+-- ARGV    = mã người dùng nhập, maxAttempts
+-- Trả về  = {status, số lần sai}
+--   1  đúng (OTP đã bị xóa)
+--   0  sai (hết lượt → OTP bị xóa luôn)
+--  -1  không tồn tại / hết hạn
+--  -2  dữ liệu cũ không phải hash (đã xóa)
+--  -3  đã hết lượt từ trước (đã xóa)
+
+local kind = redis.call('TYPE', KEYS[1])['ok']
+if kind == 'none' then
+    return {-1, 0}
+end
+if kind ~= 'hash' then
+    redis.call('DEL', KEYS[1])
+    return {-2, 0}
+end
+
+local max = tonumber(ARGV[2])
+local attempts = tonumber(redis.call('HGET', KEYS[1], 'a') or '0')
+if attempts >= max then
+    redis.call('DEL', KEYS[1])
+    return {-3, attempts}
+end
+
+if redis.call('HGET', KEYS[1], 'c') == ARGV[1] then
+    redis.call('DEL', KEYS[1])
+    return {1, attempts}
+end
+
+attempts = redis.call('HINCRBY', KEYS[1], 'a', 1)
+if attempts >= max then
+    redis.call('DEL', KEYS[1])
+end
+return {0, attempts}
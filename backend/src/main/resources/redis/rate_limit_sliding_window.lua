@@ -0,0 +1,43 @@
+-- Sliding window (xấp xỉ 2 cửa sổ cố định) dùng chung toàn cluster
+-- KEYS[1] = rl:{rule}:{key}  (hash: ix = chỉ số cửa sổ hiện tại, cur, prev)
+-- ARGV    = limit, windowMillis
+-- Trả về  = {allowed, remaining, resetMillis, retryAfterMillis}
+
+if redis.replicate_commands then redis.replicate_commands() end
+
+local t = redis.call('TIME')
+local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+local limit = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+local index = math.floor(now / window)
+
+local data = redis.call('HMGET', KEYS[1], 'ix', 'cur', 'prev')
+local storedIndex = tonumber(data[1]) or -1
+local current = tonumber(data[2]) or 0
+local previous = tonumber(data[3]) or 0
+if index ~= storedIndex then
+    if index == storedIndex + 1 then
+        previous = current
+    else
+        previous = 0
+    end
+    current = 0
+end
+
+local elapsed = now - index * window
+local estimated = previous * (1 - elapsed / window) + current
+local untilNext = window - elapsed
+
+local allowed = 0
+local remaining = 0
+local retry = untilNext
+if estimated + 1 <= limit then
+    current = current + 1
+    allowed = 1
+    remaining = math.floor(limit - estimated - 1)
+    retry = 0
+end
+
+redis.call('HSET', KEYS[1], 'ix', index, 'cur', current, 'prev', previous)
+redis.call('PEXPIRE', KEYS[1], window * 2)
+return {allowed, remaining, untilNext, retry}
@@ -0,0 +1,37 @@
+-- Token bucket dùng chung toàn cluster (đồng hồ = TIME của Redis)
+-- KEYS[1] = rl:{rule}:{key}  (hash: tk = số token, ts = lần refill cuối, ms)
+-- ARGV    = capacity, windowMillis
+-- Trả về  = {allowed, remaining, resetMillis, retryAfterMillis}
+
+if redis.replicate_commands then redis.replicate_commands() end
+
+local t = redis.call('TIME')
+local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+local capacity = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+local rate = capacity / window
+
+local data = redis.call('HMGET', KEYS[1], 'tk', 'ts')
+local tokens = tonumber(data[1])
+local ts = tonumber(data[2])
+if tokens == nil or ts == nil then
+    tokens = capacity
+    ts = now
+end
+if now > ts then
+    tokens = math.min(capacity, tokens + (now - ts) * rate)
+    ts = now
+end
+
+local allowed = 0
+local retry = 0
+if tokens >= 1 then
+    tokens = tokens - 1
+    allowed = 1
+else
+    retry = math.ceil((1 - tokens) / rate)
+end
+
+redis.call('HSET', KEYS[1], 'tk', tostring(tokens), 'ts', ts)
+redis.call('PEXPIRE', KEYS[1], window * 2)
+return {allowed, math.floor(tokens), math.ceil((capacity - tokens) / rate), retry}
@@ -3,7 +3,7 @@ package com.thanhnb.englishlearning;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.assessment.provider=stub")
 class EnglishlearningApplicationTests {
 
 	@Test
@@ -0,0 +1,162 @@
+package com.thanhnb.englishlearning.repository.topic;
+
+import com.thanhnb.englishlearning.dto.topic.request.TopicFilterRequest;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.repository.topic.TopicCatalogRepository.CatalogPage;
+import com.thanhnb.englishlearning.repository.topic.TopicCatalogRepository.CatalogRow;
+import com.thanhnb.englishlearning.repository.topic.TopicCatalogRepository.TopicCounts;
+import com.thanhnb.englishlearning.support.PostgresBackedTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Danh sách topic của Admin: số câu SQL không được tăng theo số topic trong trang (hồi quy N+1 của
+ * mapToDto → countLessonsById). Số câu lệnh đếm ở tầng JDBC (mỗi prepareStatement / createStatement).
+ * Cần PostgreSQL thật - xem {@link PostgresBackedTest}.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=update",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TopicCatalogQueryCountTest extends PostgresBackedTest {
+
+    private static final int TOPICS = 25;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate setup;
+    private AtomicInteger statements;
+    private TopicCatalogRepository repository;
+
+    /** Tiền tố riêng cho mỗi lần chạy → lọc keyword chỉ thấy topic của test này */
+    private String prefix;
+    private final Map<Long, TopicCounts> expected = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        setup = new JdbcTemplate(dataSource);
+        statements = new AtomicInteger();
+        repository = new TopicCatalogRepository(new JdbcTemplate(countingDataSource(dataSource, statements)));
+        prefix = "catalog-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        expected.clear();
+
+        String suffix = UUID.randomUUID().toString();
+        Long teacherId = setup.queryForObject(
+                "INSERT INTO users (username, email, password, role, is_active) " +
+                        "VALUES (?, ?, 'not-used', 'TEACHER', TRUE) RETURNING id",
+                Long.class, "teacher-" + suffix, "teacher-" + suffix + "@test.local");
+
+        for (int i = 0; i < TOPICS; i++) {
+            Long topicId = setup.queryForObject(
+                    "INSERT INTO topics (name, module_type, order_index, is_active, created_at, updated_at) " +
+                            "VALUES (?, 'GRAMMAR', ?, TRUE, LOCALTIMESTAMP, LOCALTIMESTAMP) RETURNING id",
+                    Long.class, prefix + i, 1000 + i);
+
+            // Topic i: i % 4 lesson (lesson đầu inactive nếu có ≥ 2), mỗi lesson i % 3 câu hỏi
+            int lessons = i % 4;
+            int activeLessons = 0;
+            for (int l = 0; l < lessons; l++) {
+                boolean active = !(lessons >= 2 && l == 0);
+                activeLessons += active ? 1 : 0;
+                Long lessonId = setup.queryForObject(
+                        "INSERT INTO grammar_lessons (topic_id, title, lesson_type, order_index, is_active) " +
+                                "VALUES (?, ?, 'PRACTICE', ?, ?) RETURNING id",
+                        Long.class, topicId, prefix + i + "-" + l, (l + 1) * 1024, active);
+                for (int q = 0; q < i % 3; q++) {
+                    setup.update("INSERT INTO questions (parent_type, parent_id, question_type, points, order_index) " +
+                            "VALUES ('GRAMMAR', ?, 'MULTIPLE_CHOICE', 1, ?)", lessonId, (q + 1) * 1024);
+                }
+            }
+            int teachers = i % 2 == 0 ? 1 : 0;
+            if (teachers == 1) {
+                setup.update("INSERT INTO teacher_topic_assignments (teacher_id, topic_id, module_type, is_active) " +
+                        "VALUES (?, ?, 'GRAMMAR', TRUE)", teacherId, topicId);
+            }
+            expected.put(topicId, new TopicCounts(lessons, activeLessons, lessons * (i % 3), teachers));
+        }
+    }
+
+    @Test
+    void pageWithCountsIsOneStatementRegardlessOfPageSize() {
+        TopicFilterRequest filter = TopicFilterRequest.builder().keyword(prefix).build();
+
+        for (int size : new int[] {5, TOPICS}) {
+            statements.set(0);
+            CatalogPage page = repository.findPage(ModuleType.GRAMMAR, filter, "orderIndex", false, size, 0);
+
+            assertEquals(1, statements.get(), "statements for page size " + size);
+            assertEquals(size, page.rows().size());
+            assertEquals(TOPICS, page.total());
+            page.rows().forEach(row -> assertEquals(expected.get(row.id()), row.counts(), row.name()));
+        }
+    }
+
+    @Test
+    void sortsAndFiltersOnCounts() {
+        TopicFilterRequest unassignedWithLessons = TopicFilterRequest.builder()
+                .keyword(prefix).minLessons(1).maxTeachers(0).build();
+
+        statements.set(0);
+        CatalogPage page = repository.findPage(ModuleType.GRAMMAR, unassignedWithLessons,
+                "questionCount", true, 100, 0);
+
+        assertEquals(1, statements.get());
+        List<Long> expectedIds = expected.entrySet().stream()
+                .filter(e -> e.getValue().lessons() >= 1 && e.getValue().teachers() == 0)
+                .sorted((a, b) -> a.getValue().questions() != b.getValue().questions()
+                        ? Integer.compare(b.getValue().questions(), a.getValue().questions())
+                        : Long.compare(a.getKey(), b.getKey()))
+                .map(Map.Entry::getKey)
+                .toList();
+        assertEquals(expectedIds, page.rows().stream().map(CatalogRow::id).toList());
+        assertEquals(expectedIds.size(), page.total());
+    }
+
+    // ==================== HELPERS ====================
+
+    private static DataSource countingDataSource(DataSource target, AtomicInteger statements) {
+        return new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = super.getConnection();
+                return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                            String name = method.getName();
+                            if (name.equals("prepareStatement") || name.equals("createStatement")
+                                    || name.equals("prepareCall")) {
+                                statements.incrementAndGet();
+                            }
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        });
+            }
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package com.thanhnb.englishlearning.service.assessment;
+
+import com.thanhnb.englishlearning.config.AssessmentProperties;
+import com.thanhnb.englishlearning.service.assessment.provider.StubWritingAssessmentProvider;
+import com.thanhnb.englishlearning.service.assessment.provider.WritingAssessmentProvider.AssessmentItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Đóng gói bài chấm theo ngân sách token (không cần DB / provider thật)
+ *
+ * Ước lượng: 400 token prompt + mỗi bài 40 token + số ký tự / 4.
+ */
+class AssessmentWorkerPackingTest {
+
+    private AssessmentWorker worker;
+
+    @AfterEach
+    void tearDown() {
+        if (worker != null) {
+            worker.stop();
+        }
+    }
+
+    @Test
+    void splitsByMaxBatchSizeWhenItemsAreSmall() {
+        worker = worker(3, 6000);
+
+        // 50 token / bài → chỉ giới hạn số bài
+        List<List<AssessmentItem>> batches = worker.pack(items(7, 40));
+
+        assertEquals(List.of(3, 3, 1), sizes(batches));
+    }
+
+    @Test
+    void splitsByTokenBudget() {
+        worker = worker(10, 1000);
+
+        // 290 token / bài: 400 + 2 * 290 = 980 ≤ 1000, bài thứ 3 vượt ngân sách
+        List<List<AssessmentItem>> batches = worker.pack(items(5, 1000));
+
+        assertEquals(List.of(2, 2, 1), sizes(batches));
+    }
+
+    @Test
+    void sendsOversizedItemAlone() {
+        worker = worker(10, 1000);
+
+        // Bài giữa ~1040 token - tự nó đã vượt ngân sách nhưng vẫn được gửi (1 mình 1 batch)
+        List<AssessmentItem> items = List.of(item(1, 40), item(2, 4000), item(3, 40));
+        List<List<AssessmentItem>> batches = worker.pack(items);
+
+        assertEquals(List.of(1, 1, 1), sizes(batches));
+        assertEquals(2L, batches.get(1).get(0).assessmentId());
+    }
+
+    // ==================== HELPERS ====================
+
+    private static AssessmentWorker worker(int maxBatchSize, int tokenBudget) {
+        AssessmentProperties properties = new AssessmentProperties();
+        properties.setProvider("stub");
+        properties.setMaxBatchSize(maxBatchSize);
+        properties.setBatchTokenBudget(tokenBudget);
+        return new AssessmentWorker(null, null, null, properties,
+                List.of(new StubWritingAssessmentProvider()),
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+    }
+
+    private static List<AssessmentItem> items(int count, int answerChars) {
+        return LongStream.rangeClosed(1, count).mapToObj(id -> item(id, answerChars)).toList();
+    }
+
+    private static AssessmentItem item(long id, int answerChars) {
+        return new AssessmentItem(id, null, null, null, null, 10, "x".repeat(answerChars));
+    }
+
+    private static List<Integer> sizes(List<List<AssessmentItem>> batches) {
+        return batches.stream().map(List::size).toList();
+    }
+}
@@ -0,0 +1,353 @@
+package com.thanhnb.englishlearning.service.assessment;
+
+import com.thanhnb.englishlearning.dto.grammar.GrammarSubmitRequest;
+import com.thanhnb.englishlearning.dto.question.request.CreateMultipleChoiceDTO;
+import com.thanhnb.englishlearning.dto.question.request.CreateOpenEndedDTO;
+import com.thanhnb.englishlearning.dto.question.request.QuestionData;
+import com.thanhnb.englishlearning.dto.question.request.SubmitAnswerRequest;
+import com.thanhnb.englishlearning.entity.assessment.OpenEndedAssessment;
+import com.thanhnb.englishlearning.entity.grammar.GrammarLesson;
+import com.thanhnb.englishlearning.entity.question.Question;
+import com.thanhnb.englishlearning.entity.topic.Topic;
+import com.thanhnb.englishlearning.entity.user.User;
+import com.thanhnb.englishlearning.entity.user.UserStats;
+import com.thanhnb.englishlearning.enums.AssessmentStatus;
+import com.thanhnb.englishlearning.enums.LessonType;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.enums.ParentType;
+import com.thanhnb.englishlearning.enums.QuestionType;
+import com.thanhnb.englishlearning.event.AnswersGradedEvent;
+import com.thanhnb.englishlearning.repository.assessment.OpenEndedAssessmentRepository;
+import com.thanhnb.englishlearning.repository.grammar.GrammarLessonRepository;
+import com.thanhnb.englishlearning.repository.grammar.UserGrammarProgressRepository;
+import com.thanhnb.englishlearning.repository.question.QuestionRepository;
+import com.thanhnb.englishlearning.repository.topic.TopicRepository;
+import com.thanhnb.englishlearning.repository.user.UserRepository;
+import com.thanhnb.englishlearning.repository.user.UserStatsRepository;
+import com.thanhnb.englishlearning.service.grammar.GrammarLearningService;
+import com.thanhnb.englishlearning.support.PostgresBackedTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hàng đợi chấm OPEN_ENDED qua pipeline thật với provider "stub" (tất định, không gọi mạng)
+ *
+ * Lesson: 2 câu MULTIPLE_CHOICE (1 điểm) + 1 câu OPEN_ENDED (8 điểm, tối đa 40 từ → stub lấy mục tiêu 20 từ).
+ * Trả lời đúng 2 câu trắc nghiệm + 10 từ → điểm phần tự chấm 20%, stub chấm 4/8 → lần nộp đạt 60%.
+ *
+ * Worker không tự chạy (worker-enabled=false): test gọi processOnce() và đẩy next_attempt_at về quá khứ
+ * thay vì chờ độ trễ ban đầu / backoff.
+ *
+ * Cần PostgreSQL thật - xem {@link PostgresBackedTest}.
+ */
+@SpringBootTest(properties = {
+        "app.assessment.provider=stub",
+        "app.assessment.worker-enabled=false",
+        "app.assessment.max-attempts=2",
+        "app.assessment.retry-backoff-seconds=30",
+        "app.submission.async-level-check=false",
+        "spring.jpa.show-sql=false"
+})
+class AssessmentWorkerTest extends PostgresBackedTest {
+
+    private static final int OPEN_ENDED_POINTS = 8;
+    private static final String TEN_WORDS = "I usually walk to school with my friends every morning";
+
+    @Autowired
+    private AssessmentWorker worker;
+
+    @Autowired
+    private OpenEndedAssessmentService assessmentService;
+
+    @Autowired
+    private OpenEndedAssessmentRepository assessmentRepository;
+
+    @Autowired
+    private GrammarLearningService grammarLearningService;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private GrammarLessonRepository lessonRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserStatsRepository statsRepository;
+
+    @Autowired
+    private UserGrammarProgressRepository progressRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void queuesOpenEndedAnswersOnlyWhenSubmissionCommits() {
+        Fixture fixture = createLesson();
+        Long userId = createUser();
+
+        grammarLearningService.submitLesson(userId, fixture.request(TEN_WORDS));
+
+        OpenEndedAssessment queued = single(userId, fixture.lessonId());
+        assertEquals(AssessmentStatus.PENDING, queued.getStatus());
+        assertEquals(0, queued.getAttempts());
+        assertEquals(OPEN_ENDED_POINTS, queued.getMaxPoints());
+        assertEquals(20.0, queued.getBaseScorePercentage());
+        assertEquals(10, queued.getLessonMaxScore());
+        assertTrue(queued.getNextAttemptAt().isAfter(queued.getCreatedAt()), "initial delay before grading");
+
+        // Transaction nộp bài rollback → listener BEFORE_COMMIT không chạy, không có row mới
+        tx.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new AnswersGradedEvent(this, userId, ModuleType.GRAMMAR,
+                    fixture.lessonId(), 20.0, 10, List.of(new AnswersGradedEvent.GradedAnswer(
+                            fixture.openEndedId(), QuestionType.OPEN_ENDED, TEN_WORDS, null, true, 0, true,
+                            OPEN_ENDED_POINTS))));
+            status.setRollbackOnly();
+        });
+        assertEquals(1, assessments(userId, fixture.lessonId()).size());
+    }
+
+    @Test
+    void claimsOnlyReadyRowsAndWritesBackStubScore() {
+        Fixture fixture = createLesson();
+        Long userId = createUser();
+        grammarLearningService.submitLesson(userId, fixture.request(TEN_WORDS));
+        int pointsBefore = points(userId);
+        Long id = single(userId, fixture.lessonId()).getId();
+
+        // Chưa tới next_attempt_at → không bị claim
+        worker.processOnce();
+        OpenEndedAssessment notReady = reload(id);
+        assertEquals(AssessmentStatus.PENDING, notReady.getStatus());
+        assertEquals(0, notReady.getAttempts());
+
+        makeReady(id);
+        worker.processOnce();
+
+        OpenEndedAssessment assessed = reload(id);
+        assertEquals(AssessmentStatus.ASSESSED, assessed.getStatus());
+        assertEquals(1, assessed.getAttempts());
+        assertEquals(4, assessed.getAwardedPoints());
+        assertEquals("stub", assessed.getAssessedBy());
+        assertNull(assessed.getLockedUntil());
+        assertEquals(pointsBefore + 4, points(userId));
+        assertEquals(60.0, progressScore(userId, fixture.lessonId()));
+    }
+
+    @Test
+    void retriesWithBackoffThenFailsForTeacher() {
+        Long userId = createUser();
+        // Câu hỏi đã bị xóa → worker không dựng được bài chấm → đường retry
+        Long id = tx.execute(status -> assessmentRepository.save(OpenEndedAssessment.builder()
+                .submissionId(UUID.randomUUID())
+                .userId(userId)
+                .module(ModuleType.GRAMMAR)
+                .lessonId(-1L)
+                .questionId(-1L)
+                .answerText(TEN_WORDS)
+                .maxPoints(OPEN_ENDED_POINTS)
+                .baseScorePercentage(0.0)
+                .lessonMaxScore(OPEN_ENDED_POINTS)
+                .nextAttemptAt(LocalDateTime.now().minusSeconds(1))
+                .build()).getId());
+
+        LocalDateTime before = LocalDateTime.now();
+        worker.processOnce();
+
+        OpenEndedAssessment retried = reload(id);
+        assertEquals(AssessmentStatus.PENDING, retried.getStatus());
+        assertEquals(1, retried.getAttempts());
+        assertTrue(retried.getLastError().contains("no longer exists"), retried.getLastError());
+        // Lần thử 1 → backoff = retry-backoff-seconds * 2^0
+        assertTrue(!retried.getNextAttemptAt().isBefore(before.plusSeconds(29))
+                && !retried.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(31)),
+                "next attempt at " + retried.getNextAttemptAt());
+
+        // Node chết khi đang giữ row (PROCESSING, lock hết hạn) → được claim lại; hết lượt thử → FAILED
+        tx.executeWithoutResult(status -> {
+            OpenEndedAssessment a = assessmentRepository.findById(id).orElseThrow();
+            a.setStatus(AssessmentStatus.PROCESSING);
+            a.setLockedUntil(LocalDateTime.now().minusSeconds(1));
+        });
+        worker.processOnce();
+
+        OpenEndedAssessment failed = reload(id);
+        assertEquals(AssessmentStatus.FAILED, failed.getStatus());
+        assertEquals(2, failed.getAttempts());
+    }
+
+    @Test
+    void teacherOverrideWinsAndAdjustsPointsButNeverLowersProgress() {
+        Fixture fixture = createLesson();
+        Long userId = createUser();
+        grammarLearningService.submitLesson(userId, fixture.request(TEN_WORDS));
+        int pointsBefore = points(userId);
+        Long id = single(userId, fixture.lessonId()).getId();
+        makeReady(id);
+        worker.processOnce();
+        assertEquals(pointsBefore + 4, points(userId));
+
+        // Chấm thấp hơn: user_stats bị trừ chênh lệch, progress giữ điểm tốt nhất
+        assessmentService.override(id, 2, "Thiếu ý", 1L);
+        assertEquals(AssessmentStatus.OVERRIDDEN, reload(id).getStatus());
+        assertEquals(pointsBefore + 2, points(userId));
+        assertEquals(60.0, progressScore(userId, fixture.lessonId()));
+
+        // Kết quả tự động đến muộn không ghi đè điểm giáo viên
+        assertFalse(assessmentService.applyVerdict(id, OPEN_ENDED_POINTS, "late", "stub"));
+        assertEquals(2, reload(id).getAwardedPoints());
+
+        // Chấm cao hơn: progress được nâng
+        assessmentService.override(id, OPEN_ENDED_POINTS, "Tốt", 1L);
+        assertEquals(pointsBefore + OPEN_ENDED_POINTS, points(userId));
+        assertEquals(100.0, progressScore(userId, fixture.lessonId()));
+    }
+
+    // ==================== HELPERS ====================
+
+    private record Fixture(Long lessonId, List<Long> choiceIds, Long openEndedId) {
+
+        GrammarSubmitRequest request(String essay) {
+            List<SubmitAnswerRequest> answers = new ArrayList<>();
+            for (Long choiceId : choiceIds) {
+                SubmitAnswerRequest answer = new SubmitAnswerRequest();
+                answer.setQuestionId(choiceId);
+                answer.setSelectedOptions(List.of(0L));
+                answers.add(answer);
+            }
+            SubmitAnswerRequest openEnded = new SubmitAnswerRequest();
+            openEnded.setQuestionId(openEndedId);
+            openEnded.setTextAnswer(essay);
+            answers.add(openEnded);
+
+            GrammarSubmitRequest request = new GrammarSubmitRequest();
+            request.setLessonId(lessonId);
+            request.setAnswers(answers);
+            return request;
+        }
+    }
+
+    private Fixture createLesson() {
+        return tx.execute(status -> {
+            String suffix = UUID.randomUUID().toString().substring(0, 8);
+            Topic topic = topicRepository.save(Topic.builder()
+                    .name("assessment-" + suffix)
+                    .moduleType(ModuleType.GRAMMAR)
+                    .orderIndex(1024)
+                    .isActive(true)
+                    .build());
+            GrammarLesson lesson = lessonRepository.save(GrammarLesson.builder()
+                    .topic(topic)
+                    .title("assessment-" + suffix)
+                    .lessonType(LessonType.PRACTICE)
+                    .orderIndex(1024)
+                    .pointsReward(10)
+                    .isActive(true)
+                    .build());
+
+            List<Long> choiceIds = new ArrayList<>();
+            for (int q = 0; q < 2; q++) {
+                CreateMultipleChoiceDTO data = new CreateMultipleChoiceDTO();
+                data.setOptions(List.of(
+                        new CreateMultipleChoiceDTO.OptionDTO("right " + q, true, 1),
+                        new CreateMultipleChoiceDTO.OptionDTO("wrong " + q, false, 2)));
+                choiceIds.add(saveQuestion(lesson, QuestionType.MULTIPLE_CHOICE, 1, (q + 1) * 1024, data));
+            }
+
+            CreateOpenEndedDTO essay = new CreateOpenEndedDTO();
+            essay.setMaxWord(40);
+            Long openEndedId = saveQuestion(lesson, QuestionType.OPEN_ENDED, OPEN_ENDED_POINTS, 3 * 1024, essay);
+
+            return new Fixture(lesson.getId(), choiceIds, openEndedId);
+        });
+    }
+
+    private Long saveQuestion(GrammarLesson lesson, QuestionType type, int points, int orderIndex,
+            QuestionData data) {
+        Question question = Question.builder()
+                .parentType(ParentType.GRAMMAR)
+                .parentId(lesson.getId())
+                .questionText(type + " question")
+                .questionType(type)
+                .points(points)
+                .orderIndex(orderIndex)
+                .build();
+        question.setData(data);
+        return questionRepository.save(question).getId();
+    }
+
+    private Long createUser() {
+        return tx.execute(status -> {
+            String suffix = UUID.randomUUID().toString();
+            User user = userRepository.save(User.builder()
+                    .username("assessment-" + suffix)
+                    .email("assessment-" + suffix + "@test.local")
+                    .password("not-used")
+                    .isActive(true)
+                    .isVerified(true)
+                    .build());
+            if (!statsRepository.existsByUserId(user.getId())) {
+                statsRepository.save(UserStats.builder().user(user).build());
+            }
+            return user.getId();
+        });
+    }
+
+    private List<OpenEndedAssessment> assessments(Long userId, Long lessonId) {
+        return assessmentRepository.findByUserIdAndModuleAndLessonIdOrderByCreatedAtDesc(
+                userId, ModuleType.GRAMMAR, lessonId);
+    }
+
+    private OpenEndedAssessment single(Long userId, Long lessonId) {
+        List<OpenEndedAssessment> rows = assessments(userId, lessonId);
+        assertEquals(1, rows.size());
+        return rows.get(0);
+    }
+
+    private OpenEndedAssessment reload(Long id) {
+        return assessmentRepository.findById(id).orElseThrow();
+    }
+
+    private void makeReady(Long id) {
+        tx.executeWithoutResult(status -> assessmentRepository.findById(id).orElseThrow()
+                .setNextAttemptAt(LocalDateTime.now().minusSeconds(1)));
+    }
+
+    private int points(Long userId) {
+        return statsRepository.findById(userId).orElseThrow().getTotalPoints();
+    }
+
+    private double progressScore(Long userId, Long lessonId) {
+        return progressRepository.findByUserIdAndLessonId(userId, lessonId).orElseThrow().getScorePercentage();
+    }
+}
@@ -0,0 +1,360 @@
+package com.thanhnb.englishlearning.service.common;
+
+import com.thanhnb.englishlearning.dto.grammar.GrammarSubmitRequest;
+import com.thanhnb.englishlearning.dto.question.request.CreateMultipleChoiceDTO;
+import com.thanhnb.englishlearning.dto.question.request.SubmitAnswerRequest;
+import com.thanhnb.englishlearning.entity.grammar.GrammarLesson;
+import com.thanhnb.englishlearning.entity.question.Question;
+import com.thanhnb.englishlearning.entity.topic.Topic;
+import com.thanhnb.englishlearning.entity.user.User;
+import com.thanhnb.englishlearning.entity.user.UserStats;
+import com.thanhnb.englishlearning.enums.LessonType;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.enums.ParentType;
+import com.thanhnb.englishlearning.enums.QuestionType;
+import com.thanhnb.englishlearning.repository.grammar.GrammarLessonRepository;
+import com.thanhnb.englishlearning.repository.question.QuestionRepository;
+import com.thanhnb.englishlearning.repository.topic.TopicRepository;
+import com.thanhnb.englishlearning.repository.user.UserRepository;
+import com.thanhnb.englishlearning.repository.user.UserStatsRepository;
+import com.thanhnb.englishlearning.service.grammar.GrammarLearningService;
+import com.thanhnb.englishlearning.support.PostgresBackedTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Nộp bài đồng thời qua pipeline thật: nhiều tab của cùng user nộp lại 1 bài → tranh chấp row progress /
+ * user_stats trên PostgreSQL. Cùng 1 harness chạy 2 cách:
+ *
+ * - SINGLE_TRANSACTION (baseline, cách cũ): cả processSubmission (chấm điểm + ghi progress + check level)
+ *   nằm trong 1 transaction bao ngoài → row lock giữ từ lúc ghi tới cuối request
+ * - SPLIT (hiện tại): GrammarLearningService.submitLesson → read-only chấm điểm, transaction ghi ngắn,
+ *   check level sau commit
+ *
+ * - Mọi connection chạy với lock_timeout = LOCK_TIMEOUT_MS; baseline vượt lock_timeout được đếm lại,
+ *   pipeline tách transaction vượt lock_timeout → test fail
+ * - Lock wait: lấy mẫu pg_locks.waitstart của các lock chưa được cấp (PostgreSQL 14+)
+ * - Lock hold: lấy mẫu tuổi của transaction đã ghi (đang giữ transactionid lock của chính nó) - cận trên
+ *   của thời gian giữ row lock
+ * - Latency p50 / p99, lock wait / hold lớn nhất của cả 2 cách được ghi vào báo cáo JUnit (TestReporter)
+ *
+ * Cần PostgreSQL thật - xem {@link PostgresBackedTest}.
+ */
+@SpringBootTest(properties = {
+        "app.assessment.provider=stub",
+        "app.submission.async-level-check=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.hikari.maximum-pool-size=" + (SubmissionPipelineLockTest.THREADS + 4),
+        "spring.datasource.hikari.connection-init-sql=SET lock_timeout = '"
+                + SubmissionPipelineLockTest.LOCK_TIMEOUT_MS + "ms'"
+})
+class SubmissionPipelineLockTest extends PostgresBackedTest {
+
+    static final int THREADS = 8;
+    static final long LOCK_TIMEOUT_MS = 500;
+
+    private static final int USERS = 2;
+    private static final int SUBMITS_PER_THREAD = 25;
+    private static final int QUESTIONS = 20;
+    private static final int POINTS_REWARD = 10;
+
+    private enum Mode {
+        SINGLE_TRANSACTION, SPLIT
+    }
+
+    /**
+     * Kết quả 1 lượt chạy
+     */
+    private record RunResult(List<Long> sortedLatenciesMicros, long maxLockWaitMs, long maxLockHoldMs,
+            Map<String, Long> lockWaitsByRelation, int lockTimeouts) {
+
+        long percentile(double p) {
+            return sortedLatenciesMicros.get(Math.min(sortedLatenciesMicros.size() - 1,
+                    (int) Math.ceil(p * sortedLatenciesMicros.size()) - 1));
+        }
+    }
+
+    private record Fixture(GrammarLesson lesson, GrammarSubmitRequest request) {
+    }
+
+    @Autowired
+    private GrammarLearningService grammarLearningService;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private GrammarLessonRepository lessonRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserStatsRepository statsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void splitPipelineHoldsRowLocksShorterThanSingleTransactionBaseline(TestReporter reporter) throws Exception {
+        Fixture fixture = createLesson();
+
+        RunResult baseline = run(Mode.SINGLE_TRANSACTION, fixture);
+        List<Long> splitUsers = new ArrayList<>();
+        RunResult split = run(Mode.SPLIT, fixture, splitUsers);
+
+        reporter.publishEntry(report("baseline", baseline));
+        reporter.publishEntry(report("split", split));
+
+        assertEquals(0, split.lockTimeouts());
+        assertEquals(THREADS * SUBMITS_PER_THREAD, split.sortedLatenciesMicros().size());
+        assertTrue(split.maxLockWaitMs() < LOCK_TIMEOUT_MS, "split max lock wait " + split.maxLockWaitMs() + " ms");
+        assertTrue(split.maxLockHoldMs() <= baseline.maxLockHoldMs(),
+                "split max lock hold " + split.maxLockHoldMs() + " ms > baseline " + baseline.maxLockHoldMs() + " ms");
+
+        // Bài đã hoàn thành từ lần đầu → các lần nộp lại không cộng thêm điểm / số bài
+        for (Long userId : splitUsers) {
+            UserStats stats = statsRepository.findById(userId).orElseThrow();
+            assertEquals(POINTS_REWARD, stats.getTotalPoints());
+            assertEquals(1, stats.getTotalLessonsCompleted());
+            assertEquals(1, stats.getGrammarCompleted());
+        }
+    }
+
+    // ==================== HARNESS ====================
+
+    private RunResult run(Mode mode, Fixture fixture) throws Exception {
+        return run(mode, fixture, new ArrayList<>());
+    }
+
+    /**
+     * USERS user mới, mỗi user nộp lần đầu tuần tự (tạo progress + cộng điểm), sau đó THREADS tab nộp lại song song
+     */
+    private RunResult run(Mode mode, Fixture fixture, List<Long> userIds) throws Exception {
+        for (int i = 0; i < USERS; i++) {
+            Long userId = createUser();
+            // Pha đồng thời chỉ còn UPDATE trên row có sẵn
+            assertTrue(grammarLearningService.submitLesson(userId, fixture.request()).getIsPassed());
+            userIds.add(userId);
+        }
+
+        List<Long> latenciesMicros = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong maxLockWaitMs = new AtomicLong();
+        AtomicLong maxLockHoldMs = new AtomicLong();
+        AtomicInteger lockTimeouts = new AtomicInteger();
+        Map<String, Long> lockWaitsByRelation = new ConcurrentHashMap<>();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService tabs = Executors.newFixedThreadPool(THREADS);
+        try {
+            sampler.scheduleAtFixedRate(() -> sampleLocks(maxLockWaitMs, maxLockHoldMs, lockWaitsByRelation),
+                    0, 5, TimeUnit.MILLISECONDS);
+
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Long userId = userIds.get(t % USERS);
+                futures.add(tabs.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < SUBMITS_PER_THREAD; i++) {
+                        long begin = System.nanoTime();
+                        try {
+                            submit(mode, userId, fixture);
+                            latenciesMicros.add((System.nanoTime() - begin) / 1000);
+                        } catch (RuntimeException e) {
+                            // Baseline: lần nộp bị lock_timeout hủy được đếm; SPLIT → lỗi thật
+                            if (mode == Mode.SPLIT || !isLockTimeout(e)) {
+                                throw e;
+                            }
+                            lockTimeouts.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(120, TimeUnit.SECONDS);
+            }
+        } finally {
+            tabs.shutdownNow();
+            sampler.shutdownNow();
+            sampler.awaitTermination(5, TimeUnit.SECONDS);
+        }
+
+        List<Long> sorted = new ArrayList<>(latenciesMicros);
+        Collections.sort(sorted);
+        return new RunResult(sorted, maxLockWaitMs.get(), maxLockHoldMs.get(), lockWaitsByRelation,
+                lockTimeouts.get());
+    }
+
+    private void submit(Mode mode, Long userId, Fixture fixture) {
+        switch (mode) {
+            // Transaction bao ngoài → read-only / write / check level bên trong đều nhập vào (cách cũ)
+            case SINGLE_TRANSACTION -> tx.executeWithoutResult(status -> grammarLearningService.processSubmission(
+                    userId, fixture.lesson(), List.of(fixture.lesson()), fixture.request().getAnswers(),
+                    ModuleType.GRAMMAR));
+            case SPLIT -> grammarLearningService.submitLesson(userId, fixture.request());
+        }
+    }
+
+    private static boolean isLockTimeout(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t.getMessage() != null && t.getMessage().contains("lock timeout")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, String> report(String prefix, RunResult result) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put(prefix + ".submits", String.valueOf(result.sortedLatenciesMicros().size()));
+        entries.put(prefix + ".lock.timeouts", String.valueOf(result.lockTimeouts()));
+        if (!result.sortedLatenciesMicros().isEmpty()) {
+            entries.put(prefix + ".latency.p50.us", String.valueOf(result.percentile(0.50)));
+            entries.put(prefix + ".latency.p99.us", String.valueOf(result.percentile(0.99)));
+        }
+        entries.put(prefix + ".lock.wait.max.ms", String.valueOf(result.maxLockWaitMs()));
+        entries.put(prefix + ".lock.hold.max.ms", String.valueOf(result.maxLockHoldMs()));
+        entries.put(prefix + ".lock.wait.by.relation.ms", result.lockWaitsByRelation().toString());
+        return entries;
+    }
+
+    // ==================== HELPERS ====================
+
+    /**
+     * 1 lần lấy mẫu trong DB test:
+     * - lock đang chờ (chưa được cấp): thời gian chờ lâu nhất + theo bảng
+     * - transaction đã ghi (giữ ExclusiveLock trên transactionid của chính nó): tuổi lớn nhất
+     */
+    private void sampleLocks(AtomicLong maxLockWaitMs, AtomicLong maxLockHoldMs, Map<String, Long> byRelation) {
+        try {
+            jdbcTemplate.query("""
+                    SELECT coalesce(l.relation::regclass::text, l.locktype) AS relation,
+                           (extract(epoch FROM clock_timestamp() - l.waitstart) * 1000)::bigint AS wait_ms
+                    FROM pg_locks l
+                    JOIN pg_stat_activity a ON a.pid = l.pid
+                    WHERE NOT l.granted AND l.waitstart IS NOT NULL AND a.datname = current_database()
+                    """, rs -> {
+                long waitMs = rs.getLong("wait_ms");
+                maxLockWaitMs.accumulateAndGet(waitMs, Math::max);
+                byRelation.merge(rs.getString("relation"), waitMs, Math::max);
+            });
+            Long holdMs = jdbcTemplate.queryForObject("""
+                    SELECT coalesce(max((extract(epoch FROM clock_timestamp() - a.xact_start) * 1000)::bigint), 0)
+                    FROM pg_locks l
+                    JOIN pg_stat_activity a ON a.pid = l.pid
+                    WHERE l.locktype = 'transactionid' AND l.mode = 'ExclusiveLock' AND l.granted
+                      AND a.pid <> pg_backend_pid() AND a.datname = current_database()
+                    """, Long.class);
+            if (holdMs != null) {
+                maxLockHoldMs.accumulateAndGet(holdMs, Math::max);
+            }
+        } catch (Exception ignored) {
+            // Lấy mẫu lỗi (pool đang đóng) không ảnh hưởng kết quả nộp bài
+        }
+    }
+
+    private Fixture createLesson() {
+        return tx.execute(status -> {
+            String suffix = UUID.randomUUID().toString().substring(0, 8);
+            Topic topic = topicRepository.save(Topic.builder()
+                    .name("pipeline-" + suffix)
+                    .moduleType(ModuleType.GRAMMAR)
+                    .orderIndex(1024)
+                    .isActive(true)
+                    .build());
+            GrammarLesson lesson = lessonRepository.save(GrammarLesson.builder()
+                    .topic(topic)
+                    .title("pipeline-" + suffix)
+                    .lessonType(LessonType.PRACTICE)
+                    .orderIndex(1024)
+                    .pointsReward(POINTS_REWARD)
+                    .isActive(true)
+                    .build());
+
+            List<SubmitAnswerRequest> answers = new ArrayList<>();
+            for (int q = 0; q < QUESTIONS; q++) {
+                CreateMultipleChoiceDTO data = new CreateMultipleChoiceDTO();
+                data.setOptions(List.of(
+                        new CreateMultipleChoiceDTO.OptionDTO("right " + q, true, 1),
+                        new CreateMultipleChoiceDTO.OptionDTO("wrong " + q, false, 2)));
+                Question question = Question.builder()
+                        .parentType(ParentType.GRAMMAR)
+                        .parentId(lesson.getId())
+                        .questionText("Question " + q)
+                        .questionType(QuestionType.MULTIPLE_CHOICE)
+                        .points(1)
+                        .orderIndex((q + 1) * 1024)
+                        .build();
+                question.setData(data);
+                question = questionRepository.save(question);
+
+                SubmitAnswerRequest answer = new SubmitAnswerRequest();
+                answer.setQuestionId(question.getId());
+                answer.setSelectedOptions(List.of(0L));
+                answers.add(answer);
+            }
+
+            GrammarSubmitRequest request = new GrammarSubmitRequest();
+            request.setLessonId(lesson.getId());
+            request.setAnswers(answers);
+            return new Fixture(lesson, request);
+        });
+    }
+
+    private Long createUser() {
+        return tx.execute(status -> {
+            String suffix = UUID.randomUUID().toString();
+            User user = userRepository.save(User.builder()
+                    .username("pipeline-" + suffix)
+                    .email("pipeline-" + suffix + "@test.local")
+                    .password("not-used")
+                    .isActive(true)
+                    .isVerified(true)
+                    .build());
+            if (!statsRepository.existsByUserId(user.getId())) {
+                statsRepository.save(UserStats.builder().user(user).build());
+            }
+            return user.getId();
+        });
+    }
+}
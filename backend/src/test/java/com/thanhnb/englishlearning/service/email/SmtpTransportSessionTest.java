@@ -0,0 +1,100 @@
+package com.thanhnb.englishlearning.service.email;
+
+import com.thanhnb.englishlearning.enums.EmailTemplateType;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SmtpTransportSessionTest {
+
+    @Test
+    void reusesOneConnectionForManyMessages() throws Exception {
+        try (SmtpStubServer stub = new SmtpStubServer();
+                SmtpTransportSession session = new SmtpTransportSession(mailSender(stub.getPort()), 30_000)) {
+            for (int i = 0; i < 25; i++) {
+                session.send(message(session, "user" + i + "@example.com", "Hello " + i));
+            }
+
+            assertEquals(25, stub.getMessages().size());
+            assertEquals(1, stub.getConnections());
+            assertEquals(1, session.getConnects());
+        }
+    }
+
+    @Test
+    void reconnectsAfterIdleClose() throws Exception {
+        AtomicLong clock = new AtomicLong(1_000);
+        try (SmtpStubServer stub = new SmtpStubServer();
+                SmtpTransportSession session = new SmtpTransportSession(mailSender(stub.getPort()), 10_000, clock::get)) {
+            session.send(message(session, "a@example.com", "first"));
+
+            clock.addAndGet(11_000);
+            session.closeIfIdle();
+            assertFalse(session.isOpen());
+
+            session.send(message(session, "b@example.com", "second"));
+            assertEquals(2, stub.getConnections());
+            assertEquals(2, stub.getMessages().size());
+        }
+    }
+
+    @Test
+    void failedSendClosesConnection() throws Exception {
+        int port;
+        try (SmtpStubServer stub = new SmtpStubServer()) {
+            port = stub.getPort();
+        }
+        try (SmtpTransportSession session = new SmtpTransportSession(mailSender(port), 30_000)) {
+            assertThrows(MessagingException.class,
+                    () -> session.send(message(session, "a@example.com", "down")));
+            assertFalse(session.isOpen());
+        }
+    }
+
+    @Test
+    void rendersPreparsedTemplatesWithEscapedParams() {
+        EmailTemplateRegistry registry = new EmailTemplateRegistry("Learn & Go", "http://localhost:5173");
+
+        EmailTemplateRegistry.RenderedEmail otp = registry.render(EmailTemplateType.OTP_VERIFY_EMAIL,
+                Map.of("otp", "123456"));
+        assertEquals("Xác thực tài khoản - Learn & Go", otp.subject());
+        assertTrue(otp.html().contains("<div class=\"otp-code\">123456</div>"));
+        assertTrue(otp.html().contains("Learn &amp; Go"));
+        assertFalse(otp.html().contains("{{"));
+
+        EmailTemplateRegistry.RenderedEmail welcome = registry.render(EmailTemplateType.WELCOME,
+                Map.of("username", "<b>bob</b>"));
+        assertTrue(welcome.html().contains("Xin chào &lt;b&gt;bob&lt;/b&gt;!"));
+        assertTrue(welcome.html().contains("http://localhost:5173/login"));
+    }
+
+    private static JavaMailSenderImpl mailSender(int port) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(port);
+        mailSender.getJavaMailProperties().put("mail.smtp.auth", "false");
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", "2000");
+        return mailSender;
+    }
+
+    private static MimeMessage message(SmtpTransportSession session, String to, String text) throws MessagingException {
+        MimeMessage message = session.createMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom("noreply@example.com");
+        helper.setTo(to);
+        helper.setSubject("Test");
+        helper.setText(text, false);
+        return message;
+    }
+}
@@ -0,0 +1,81 @@
+package com.thanhnb.englishlearning.service.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.thanhnb.englishlearning.config.RateLimitInterceptor;
+import com.thanhnb.englishlearning.config.RateLimitProperties;
+import com.thanhnb.englishlearning.enums.RateLimitAlgorithm;
+import com.thanhnb.englishlearning.enums.RateLimitKeyType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tier local: header / 429 của interceptor và sliding window
+ * (chạy không cần Redis - app.rate-limit.redis-enabled=false; chi phí mỗi request: RateLimitBenchmark)
+ */
+class RateLimitLocalTierTest {
+
+    static class Endpoints {
+        @RateLimit(value = "bench-bucket", limit = 1_000_000, windowSeconds = 60)
+        public void tokenBucket() {
+        }
+    }
+
+    @Test
+    void rejectsWithHeadersOnceQuotaIsUsed() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRedisEnabled(false);
+        RateLimitProperties.Rule override = new RateLimitProperties.Rule();
+        override.setLimit(3);
+        properties.getRules().put("bench-bucket", override);
+        RateLimitService service = new RateLimitService(properties, null, new SimpleMeterRegistry());
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(service,
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+        HandlerMethod handler = new HandlerMethod(new Endpoints(), Endpoints.class.getMethod("tokenBucket"));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/bench");
+        request.setAttribute("userId", 7L);
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            assertTrue(interceptor.preHandle(request, response, handler));
+            assertEquals(String.valueOf(2 - i), response.getHeader("RateLimit-Remaining"));
+        }
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request, rejected, handler));
+        assertEquals(429, rejected.getStatus());
+        assertEquals("3", rejected.getHeader("RateLimit-Limit"));
+        assertEquals("3;w=60", rejected.getHeader("RateLimit-Policy"));
+        assertTrue(Long.parseLong(rejected.getHeader("Retry-After")) >= 1);
+    }
+
+    @Test
+    void slidingWindowWeighsPreviousWindow() {
+        AtomicLong clock = new AtomicLong(60_000);
+        LocalRateLimiter limiter = new LocalRateLimiter(100, clock::get);
+        RateLimitRule rule = new RateLimitRule("w", 10, 60, RateLimitAlgorithm.SLIDING_WINDOW,
+                RateLimitKeyType.IP, false);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("k", rule).allowed());
+        }
+        assertFalse(limiter.tryAcquire("k", rule).allowed());
+
+        // Nửa window sau: cửa sổ trước còn tính 50% → còn 5 lượt
+        clock.set(60_000 + 60_000 + 30_000);
+        int allowed = 0;
+        while (limiter.tryAcquire("k", rule).allowed()) {
+            allowed++;
+        }
+        assertEquals(5, allowed);
+    }
+}
@@ -0,0 +1,136 @@
+package com.thanhnb.englishlearning.service.user;
+
+import com.thanhnb.englishlearning.enums.OtpType;
+import com.thanhnb.englishlearning.exception.OtpExpiredException;
+import com.thanhnb.englishlearning.exception.OtpInvalidException;
+import com.thanhnb.englishlearning.exception.OtpMaxAttemptsException;
+import com.thanhnb.englishlearning.exception.RateLimitExceededException;
+import com.thanhnb.englishlearning.repository.user.UserRepository;
+import com.thanhnb.englishlearning.support.RedisBackedTest;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Giới hạn số lần thử phải đúng khi nhiều request chạy song song.
+ * Cần Redis thật - xem {@link RedisBackedTest}.
+ */
+class RedisAuthScriptsConcurrencyTest extends RedisBackedTest {
+
+    private static final int THREADS = 32;
+
+    @Test
+    void parallelWrongGuessesNeverExceedMaxOtpAttempts() throws Exception {
+        EmailService emailService = mock(EmailService.class);
+        RedisOtpService otpService = new RedisOtpService(redisTemplate, emailService, mock(UserRepository.class));
+        String email = uniqueEmail();
+
+        otpService.generateAndSendOtp(email, OtpType.RESET_PASSWORD, "127.0.0.1");
+        ArgumentCaptor<String> otpCaptor = ArgumentCaptor.forClass(String.class);
+        verify(emailService).sendOtp(eq(email), otpCaptor.capture(), eq(OtpType.RESET_PASSWORD));
+        String wrongOtp = otpCaptor.getValue().equals("000000") ? "111111" : "000000";
+
+        AtomicInteger invalid = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        runConcurrently(() -> {
+            try {
+                otpService.verifyOtp(email, wrongOtp, OtpType.RESET_PASSWORD);
+            } catch (OtpInvalidException e) {
+                invalid.incrementAndGet();
+            } catch (OtpExpiredException | OtpMaxAttemptsException e) {
+                rejected.incrementAndGet();
+            }
+            return null;
+        });
+
+        // Chỉ đúng 3 lần so sánh mã được thực hiện, còn lại bị từ chối
+        assertEquals(3, invalid.get());
+        assertEquals(THREADS - 3, rejected.get());
+
+        // Mã đúng cũng không còn dùng được sau khi hết lượt
+        assertThrows(OtpExpiredException.class,
+                () -> otpService.verifyOtp(email, otpCaptor.getValue(), OtpType.RESET_PASSWORD));
+    }
+
+    @Test
+    void parallelOtpRequestsRespectRateLimit() throws Exception {
+        RedisOtpService otpService = new RedisOtpService(redisTemplate, mock(EmailService.class), mock(UserRepository.class));
+        String email = uniqueEmail();
+
+        AtomicInteger issued = new AtomicInteger();
+        AtomicInteger limited = new AtomicInteger();
+        runConcurrently(() -> {
+            try {
+                otpService.generateAndSendOtp(email, OtpType.VERIFY_EMAIL, "127.0.0.1");
+                issued.incrementAndGet();
+            } catch (RateLimitExceededException e) {
+                limited.incrementAndGet();
+            }
+            return null;
+        });
+
+        assertEquals(5, issued.get());
+        assertEquals(THREADS - 5, limited.get());
+        assertEquals(0, otpService.getOtpInfo(email, OtpType.VERIFY_EMAIL).getRateLimitRemaining());
+        assertTrue(redisTemplate.getExpire("rate_limit:VERIFY_EMAIL:" + email) > 0);
+    }
+
+    @Test
+    void parallelLoginFailuresAreCountedExactlyAndBlock() throws Exception {
+        LoginAttemptService loginAttemptService = new LoginAttemptService(redisTemplate);
+        String username = "user-" + UUID.randomUUID();
+
+        runConcurrently(() -> {
+            loginAttemptService.loginFailed(username);
+            return null;
+        });
+
+        assertEquals(String.valueOf(THREADS), redisTemplate.opsForValue().get("login_attempts:" + username));
+        assertTrue(redisTemplate.getExpire("login_attempts:" + username) > 0);
+        assertTrue(loginAttemptService.isBlocked(username));
+        assertEquals(0, loginAttemptService.getRemainingAttempts(username));
+
+        loginAttemptService.unblockAccount(username);
+    }
+
+    private static String uniqueEmail() {
+        return "concurrency-" + UUID.randomUUID() + "@test.local";
+    }
+
+    private static void runConcurrently(Callable<Void> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
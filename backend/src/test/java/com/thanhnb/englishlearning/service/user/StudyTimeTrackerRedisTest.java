@@ -0,0 +1,44 @@
+package com.thanhnb.englishlearning.service.user;
+
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.repository.user.UserStatsRepository;
+import com.thanhnb.englishlearning.repository.user.UserStudyTimeRepository;
+import com.thanhnb.englishlearning.support.RedisBackedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Nhiều tab của 1 user trên các node khác nhau chỉ được tính 1 lần / slot (khử trùng qua Redis).
+ * Cần Redis thật - xem {@link RedisBackedTest}.
+ */
+class StudyTimeTrackerRedisTest extends RedisBackedTest {
+
+    @Test
+    void tabsOnDifferentNodesAreCountedOnceThroughRedis() {
+        UserStudyTimeRepository studyTimeRepository = mock(UserStudyTimeRepository.class);
+        when(studyTimeRepository.addSeconds(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        // Thời điểm riêng cho mỗi lần chạy → bitmap của lần chạy trước không ảnh hưởng
+        AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+        long userId = -clock.get();
+
+        StudyTimeTracker nodeA = StudyTimeTrackerTest.tracker(studyTimeRepository,
+                mock(UserStatsRepository.class), redisTemplate, clock);
+        StudyTimeTracker nodeB = StudyTimeTrackerTest.tracker(studyTimeRepository,
+                mock(UserStatsRepository.class), redisTemplate, clock);
+        assertTrue(nodeA.heartbeat(userId, ModuleType.LISTENING).credited());
+        assertTrue(nodeB.heartbeat(userId, ModuleType.LISTENING).credited());
+
+        assertEquals(1, nodeA.flush());
+        assertEquals(0, nodeB.flush());
+        verify(studyTimeRepository, times(1)).addSeconds(anyList());
+    }
+}
@@ -0,0 +1,128 @@
+package com.thanhnb.englishlearning.service.user;
+
+import com.thanhnb.englishlearning.config.StudyTimeProperties;
+import com.thanhnb.englishlearning.enums.ModuleType;
+import com.thanhnb.englishlearning.repository.user.UserStatsRepository;
+import com.thanhnb.englishlearning.repository.user.UserStudyTimeRepository;
+import com.thanhnb.englishlearning.repository.user.UserStudyTimeRepository.StudySeconds;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Heartbeat: mỗi user chỉ được tính 1 lần / slot dù mở nhiều tab, và heartbeat không ghi DB cho tới khi flush.
+ * Thông lượng: StudyTimeHeartbeatBenchmark (JMH).
+ * Khử trùng giữa 2 node qua Redis: {@link StudyTimeTrackerRedisTest}.
+ */
+class StudyTimeTrackerTest {
+
+    private static final int USERS = 2_000;
+    private static final int TABS = 8;
+    private static final int SLOTS = 4;
+    private static final int INTERVAL_SECONDS = 30;
+    private static final long START = Instant.parse("2026-01-05T10:00:00Z").toEpochMilli();
+
+    @Test
+    void countsEachSlotOnceAcrossTabsAndWritesNothingBeforeFlush() throws Exception {
+        UserStudyTimeRepository studyTimeRepository = mock(UserStudyTimeRepository.class);
+        UserStatsRepository statsRepository = mock(UserStatsRepository.class);
+        when(studyTimeRepository.addSeconds(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        AtomicLong clock = new AtomicLong(START);
+        StudyTimeTracker tracker = tracker(studyTimeRepository, statsRepository, null, clock);
+
+        AtomicInteger credited = new AtomicInteger();
+        ExecutorService tabs = Executors.newFixedThreadPool(TABS);
+        try {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                clock.set(START + slot * INTERVAL_SECONDS * 1000L + 500);
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<?>> futures = new ArrayList<>();
+                // Mỗi thread = 1 tab của TẤT CẢ user → mỗi user gửi TABS heartbeat trong cùng slot
+                for (int tab = 0; tab < TABS; tab++) {
+                    futures.add(tabs.submit(() -> {
+                        go.await();
+                        for (long userId = 1; userId <= USERS; userId++) {
+                            if (tracker.heartbeat(userId, ModuleType.GRAMMAR).credited()) {
+                                credited.incrementAndGet();
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                go.countDown();
+                for (Future<?> future : futures) {
+                    future.get(60, TimeUnit.SECONDS);
+                }
+            }
+        } finally {
+            tabs.shutdownNow();
+        }
+
+        assertEquals(USERS * SLOTS, credited.get());
+        verify(studyTimeRepository, times(0)).addSeconds(anyList());
+
+        assertEquals(USERS, tracker.flush());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StudySeconds>> rows = ArgumentCaptor.forClass(List.class);
+        verify(studyTimeRepository).addSeconds(rows.capture());
+        assertEquals(USERS, rows.getValue().size());
+        rows.getValue().forEach(row -> assertEquals(SLOTS * INTERVAL_SECONDS, row.seconds()));
+        // 4 slot x 30s = 2 phút cho mỗi user
+        verify(statsRepository, times(USERS)).applyIncrements(anyLong(), eq(0), eq(0), eq(0), eq(0), eq(0), eq(2));
+    }
+
+    @Test
+    void failedFlushIsRetriedOnNextFlush() {
+        UserStudyTimeRepository studyTimeRepository = mock(UserStudyTimeRepository.class);
+        UserStatsRepository statsRepository = mock(UserStatsRepository.class);
+        when(studyTimeRepository.addSeconds(anyList()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenAnswer(inv -> inv.getArgument(0));
+        AtomicLong clock = new AtomicLong(START);
+        StudyTimeTracker tracker = tracker(studyTimeRepository, statsRepository, null, clock);
+
+        assertTrue(tracker.heartbeat(7L, ModuleType.READING).credited());
+        assertFalse(tracker.heartbeat(7L, ModuleType.READING).credited());
+        clock.addAndGet(INTERVAL_SECONDS * 1000L);
+        assertTrue(tracker.heartbeat(7L, ModuleType.READING).credited());
+
+        assertEquals(0, tracker.flush());
+        assertEquals(1, tracker.flush());
+
+        verify(statsRepository).applyIncrements(7L, 0, 0, 0, 0, 0, 1);
+    }
+
+    static StudyTimeTracker tracker(UserStudyTimeRepository studyTimeRepository,
+            UserStatsRepository statsRepository, StringRedisTemplate redisTemplate, AtomicLong clock) {
+        StudyTimeProperties properties = new StudyTimeProperties();
+        properties.setHeartbeatIntervalSeconds(INTERVAL_SECONDS);
+        return new StudyTimeTracker(studyTimeRepository, statsRepository, redisTemplate, properties,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), clock::get, ZoneOffset.UTC);
+    }
+}
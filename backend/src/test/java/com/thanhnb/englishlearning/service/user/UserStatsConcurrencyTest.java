@@ -0,0 +1,185 @@
+package com.thanhnb.englishlearning.service.user;
+
+import com.thanhnb.englishlearning.entity.user.User;
+import com.thanhnb.englishlearning.entity.user.UserStats;
+import com.thanhnb.englishlearning.enums.ParentType;
+import com.thanhnb.englishlearning.repository.user.UserRepository;
+import com.thanhnb.englishlearning.repository.user.UserStatsRepository;
+import com.thanhnb.englishlearning.support.PostgresBackedTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Điểm / số bài không được mất khi cùng 1 user nộp bài song song (2 tab, retry...).
+ * Cần PostgreSQL thật - xem {@link PostgresBackedTest}.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=update",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(UserStatsWriter.class)
+class UserStatsConcurrencyTest extends PostgresBackedTest {
+
+    private static final int THREADS = 32;
+    private static final int SUBMITS_PER_THREAD = 25;
+    private static final int POINTS = 10;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserStatsRepository statsRepository;
+
+    @Autowired
+    private UserStatsWriter userStatsWriter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void parallelLessonCompletionsNeverLosePoints() throws Exception {
+        Long userId = createUser();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < SUBMITS_PER_THREAD; i++) {
+                tx.executeWithoutResult(status ->
+                        userStatsWriter.recordLessonCompleted(userId, POINTS, ParentType.GRAMMAR));
+            }
+            return null;
+        });
+
+        UserStats stats = statsRepository.findById(userId).orElseThrow();
+        int submits = THREADS * SUBMITS_PER_THREAD;
+        assertEquals(submits * POINTS, stats.getTotalPoints());
+        assertEquals(submits, stats.getTotalLessonsCompleted());
+        assertEquals(submits, stats.getGrammarCompleted());
+        assertEquals(0, stats.getReadingCompleted());
+    }
+
+    @Test
+    void staleEntityWriteDoesNotOverwriteConcurrentIncrements() throws Exception {
+        Long userId = createUser();
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            tx.executeWithoutResult(status -> {
+                // Entity được đọc TRƯỚC khi request khác cộng điểm
+                UserStats stats = statsRepository.findById(userId).orElseThrow();
+
+                await(other.submit(() -> tx.executeWithoutResult(s ->
+                        userStatsWriter.recordLessonCompleted(userId, POINTS, ParentType.READING))));
+
+                stats.updateStreakOnActivity(LocalDate.now());
+                statsRepository.save(stats);
+            });
+        } finally {
+            other.shutdownNow();
+        }
+
+        UserStats stats = statsRepository.findById(userId).orElseThrow();
+        assertEquals(POINTS, stats.getTotalPoints());
+        assertEquals(1, stats.getReadingCompleted());
+        assertEquals(1, stats.getCurrentStreak());
+    }
+
+    @Test
+    void concurrentStreakWritesAreRejectedByVersion() {
+        Long userId = createUser();
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            assertThrows(ObjectOptimisticLockingFailureException.class, () -> tx.executeWithoutResult(status -> {
+                UserStats stats = statsRepository.findById(userId).orElseThrow();
+
+                await(other.submit(() -> tx.executeWithoutResult(s -> {
+                    UserStats concurrent = statsRepository.findById(userId).orElseThrow();
+                    concurrent.setLongestStreak(7);
+                    statsRepository.save(concurrent);
+                })));
+
+                stats.setLongestStreak(3);
+                statsRepository.save(stats);
+            }));
+        } finally {
+            other.shutdownNow();
+        }
+
+        assertEquals(7, statsRepository.findById(userId).orElseThrow().getLongestStreak());
+    }
+
+    // ==================== HELPERS ====================
+
+    private Long createUser() {
+        return tx.execute(status -> {
+            String suffix = UUID.randomUUID().toString();
+            User user = userRepository.save(User.builder()
+                    .username("stats-" + suffix)
+                    .email("stats-" + suffix + "@test.local")
+                    .password("not-used")
+                    .build());
+            if (!statsRepository.existsByUserId(user.getId())) {
+                statsRepository.save(UserStats.builder().user(user).build());
+            }
+            return user.getId();
+        });
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void runConcurrently(Callable<Void> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.thanhnb.englishlearning.support;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+
+/**
+ * Base cho test cần PostgreSQL thật (TEST_DB_URL / TEST_DB_USERNAME / TEST_DB_PASSWORD,
+ * mặc định localhost:5432/englishlearning_test) - không có thì bỏ qua cả class.
+ *
+ * Chỉ trỏ datasource vào DB test; class con tự chọn slice (@DataJpaTest, @SpringBootTest...).
+ */
+public abstract class PostgresBackedTest {
+
+    protected static final String DB_URL = System.getenv().getOrDefault("TEST_DB_URL",
+            "jdbc:postgresql://localhost:5432/englishlearning_test");
+    protected static final String DB_USERNAME = System.getenv().getOrDefault("TEST_DB_USERNAME", "postgres");
+    protected static final String DB_PASSWORD = System.getenv().getOrDefault("TEST_DB_PASSWORD", "postgres");
+
+    @BeforeAll
+    static void requireDatabase() {
+        boolean available;
+        try (Connection connection = DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD)) {
+            available = connection.isValid(2);
+        } catch (Exception e) {
+            available = false;
+        }
+        Assumptions.assumeTrue(available, "PostgreSQL not available at " + DB_URL);
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> DB_URL);
+        registry.add("spring.datasource.username", () -> DB_USERNAME);
+        registry.add("spring.datasource.password", () -> DB_PASSWORD);
+    }
+}
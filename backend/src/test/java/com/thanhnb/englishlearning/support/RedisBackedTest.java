@@ -0,0 +1,43 @@
+package com.thanhnb.englishlearning.support;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Base cho test cần Redis thật (REDIS_HOST / REDIS_PORT, mặc định localhost:6379) - không có thì bỏ qua cả class.
+ */
+public abstract class RedisBackedTest {
+
+    protected static LettuceConnectionFactory connectionFactory;
+    protected static StringRedisTemplate redisTemplate;
+
+    @BeforeAll
+    static void connect() {
+        String host = System.getenv().getOrDefault("REDIS_HOST", "localhost");
+        int port = Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"));
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        boolean available;
+        try {
+            available = "PONG".equals(connectionFactory.getConnection().ping());
+        } catch (Exception e) {
+            available = false;
+        }
+        Assumptions.assumeTrue(available, "Redis not available at " + host + ":" + port);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+            connectionFactory = null;
+        }
+    }
+}
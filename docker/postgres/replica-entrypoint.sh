@@ -0,0 +1,13 @@
+#!/bin/sh
+# Standby của service db: lần đầu clone bằng pg_basebackup (-R tạo standby.signal + primary_conninfo)
+set -e
+
+PGDATA=/var/lib/postgresql/data
+
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+  echo "Cloning primary $PRIMARY_HOST ..."
+  pg_basebackup -h "$PRIMARY_HOST" -U "$PRIMARY_USER" -D "$PGDATA" -X stream -R -P
+  chmod 0700 "$PGDATA"
+fi
+
+exec postgres -c hot_standby=on
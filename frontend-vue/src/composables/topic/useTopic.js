@@ -382,15 +382,6 @@ export function useTopic(moduleType) {
 
   // ==================== HELPERS ====================
 
-  /**
-   * Get next order index for new topic
-   * @returns {number}
-   */
-  const getNextOrderIndex = () => {
-    if (!activeStore.value) return 1
-    return activeStore.value.getNextOrderIndex?.(moduleType) || 1
-  }
-
   /**
    * Get topic by ID
    * @param {number} id - Topic ID
@@ -430,7 +421,6 @@ export function useTopic(moduleType) {
     fixOrderIndexes,
 
     // Helpers
-    getNextOrderIndex,
     getTopicById,
     clearError,
   }
@@ -216,22 +216,6 @@ export const useQuestionStore = defineStore('admin-question', () => {
     }
   }
 
-  const fetchNextOrder = async (parentType, lessonId) => {
-    if (!lessonId) return 1
-    try {
-      const api = getApi(parentType)
-      const response = await api.getNextQuestionOrderIndex(lessonId)
-      return response.data.data?.nextOrderIndex || 1
-    } catch (error) {
-      console.error('Fetch order error:', error)
-      if (questions.value.length > 0) {
-        const max = Math.max(...questions.value.map((q) => q.orderIndex || 0))
-        return max + 1
-      }
-      return 1
-    }
-  }
-
   const createQuestion = async (parentType, lessonId, formData) => {
     loading.value = true
     try {
@@ -353,7 +337,6 @@ export const useQuestionStore = defineStore('admin-question', () => {
     // Question exports
     fetchQuestions,
     fetchQuestionById,
-    fetchNextOrder,
     createQuestion,
     updateQuestion,
     deleteQuestion,
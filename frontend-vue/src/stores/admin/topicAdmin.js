@@ -164,7 +164,6 @@ export const useTopicAdminStore = defineStore('topicAdmin', {
           name: topicData.name.trim(),
           description: topicData.description?.trim() || '',
           levelRequired: topicData.levelRequired,
-          orderIndex: topicData.orderIndex || null,
           isActive: topicData.isActive ?? true,
         }
 
@@ -384,14 +383,6 @@ export const useTopicAdminStore = defineStore('topicAdmin', {
     // HELPERS
     // ══════════════════════════════════════════════════════════════
 
-    getNextOrderIndex(moduleType) {
-      const topics = this.getTopicsByModule(moduleType)
-      if (topics.length === 0) return 1
-
-      const maxOrder = Math.max(...topics.map((t) => t.orderIndex || 0))
-      return maxOrder + 1
-    },
-
     _updateTopicInArrays(updatedTopic) {
       const updateInArray = (array) => {
         const index = array.findIndex((t) => t.id === updatedTopic.id)
@@ -47,6 +47,8 @@ export default defineConfig({
       '/api': {
         target: 'http://app:8980',
         changeOrigin: true,
+        // Gửi IP người dùng cho backend (rate limit / OTP theo IP)
+        xfwd: true,
       }
     }
   }